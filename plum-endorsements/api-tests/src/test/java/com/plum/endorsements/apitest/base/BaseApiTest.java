@@ -2,6 +2,7 @@ package com.plum.endorsements.apitest.base;
 
 import com.plum.endorsements.EndorsementApplication;
 import com.plum.endorsements.application.scheduler.BatchAssemblyScheduler;
+import com.plum.endorsements.application.scheduler.BatchTrigger;
 import com.plum.endorsements.application.scheduler.BatchStatusPollerScheduler;
 import com.plum.endorsements.application.scheduler.ProvisionalCoverageCleanupScheduler;
 import com.plum.endorsements.application.scheduler.DataRetentionScheduler;
@@ -78,6 +79,9 @@ public abstract class BaseApiTest {
     @MockitoBean
     BatchAssemblyScheduler batchAssemblyScheduler;
 
+    @MockitoBean
+    BatchTrigger batchTrigger;
+
     @MockitoBean
     BatchStatusPollerScheduler batchStatusPollerScheduler;
 
@@ -134,14 +138,26 @@ public abstract class BaseApiTest {
         jdbc.execute("DELETE FROM balance_forecasts");
         jdbc.execute("DELETE FROM error_resolutions");
         jdbc.execute("DELETE FROM process_mining_metrics");
+        jdbc.execute("DELETE FROM process_mining_transition_stats");
+        jdbc.execute("DELETE FROM process_mining_path_stats");
         // Phase 1-2 tables
         jdbc.execute("DELETE FROM reconciliation_items");
         jdbc.execute("DELETE FROM reconciliation_runs");
+        jdbc.execute("DELETE FROM event_outbox");
+        jdbc.execute("DELETE FROM insurer_callback_inbox");
+        jdbc.execute("DELETE FROM anomaly_employer_activity");
+        jdbc.execute("DELETE FROM anomaly_employer_features");
+        jdbc.execute("DELETE FROM anomaly_employee_features");
         jdbc.execute("DELETE FROM endorsement_events");
         jdbc.execute("DELETE FROM ea_transactions");
+        jdbc.execute("DELETE FROM ea_ledger_snapshots");
         jdbc.execute("DELETE FROM provisional_coverages");
         jdbc.execute("DELETE FROM endorsements");
+        jdbc.execute("DELETE FROM endorsement_status_count_deltas");
+        jdbc.execute("DELETE FROM endorsement_status_counts");
         jdbc.execute("DELETE FROM endorsement_batches");
+        jdbc.execute("DELETE FROM insurer_rate_limits");
+        jdbc.execute("DELETE FROM ea_account_stripes");
         jdbc.execute("DELETE FROM ea_accounts");
     }
 
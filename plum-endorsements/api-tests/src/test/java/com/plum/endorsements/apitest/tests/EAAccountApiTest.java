@@ -97,4 +97,49 @@ class EAAccountApiTest extends BaseApiTest {
                 .body("reserved", equalTo(0.0f))
                 .body("availableBalance", equalTo(10000.00f));
     }
+
+    @Test
+    @DisplayName("Should report the ledger position and entries after a reservation")
+    @Description("GET /ledger/position and /ledger/transactions reflect the RESERVE entry for a new ADD endorsement")
+    void shouldReportLedgerPosition_AfterReservation() {
+        seedEAAccount(EMPLOYER_ID, INSURER_ID, new BigDecimal("10000.00"));
+        createEndorsementViaApi(createEndorsementRequest("ADD", new BigDecimal("2500.00"))).statusCode(201);
+
+        given()
+                .queryParam("employerId", EMPLOYER_ID)
+                .queryParam("insurerId", INSURER_ID)
+                .when()
+                .get("/api/v1/ea-accounts/ledger/position")
+                .then()
+                .statusCode(200)
+                .body("transactionCount", equalTo(1))
+                .body("reserved", equalTo(2500.00f))
+                .body("balanceAfter", equalTo(7500.00f));
+
+        given()
+                .queryParam("employerId", EMPLOYER_ID)
+                .queryParam("insurerId", INSURER_ID)
+                .when()
+                .get("/api/v1/ea-accounts/ledger/transactions")
+                .then()
+                .statusCode(200)
+                .body("size()", equalTo(1))
+                .body("[0].type", equalTo("RESERVE"))
+                .body("[0].amount", equalTo(2500.00f));
+    }
+
+    @Test
+    @DisplayName("Should return 404 for the ledger position of an account without entries")
+    @Description("GET /ledger/position before any ledger entry returns 404")
+    void shouldReturn404_ForLedgerPositionWithoutEntries() {
+        seedEAAccount(EMPLOYER_ID, INSURER_ID, new BigDecimal("10000.00"));
+
+        given()
+                .queryParam("employerId", EMPLOYER_ID)
+                .queryParam("insurerId", INSURER_ID)
+                .when()
+                .get("/api/v1/ea-accounts/ledger/position")
+                .then()
+                .statusCode(404);
+    }
 }
@@ -1,6 +1,7 @@
 package com.plum.endorsements.apitest.tests;
 
 import com.plum.endorsements.apitest.base.BaseApiTest;
+import com.plum.endorsements.domain.model.TransitionAggregate;
 import io.qameta.allure.Description;
 import io.qameta.allure.Epic;
 import io.qameta.allure.Feature;
@@ -8,6 +9,8 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.util.Arrays;
 import java.util.UUID;
 
 import static io.restassured.RestAssured.given;
@@ -18,22 +21,46 @@ import static org.hamcrest.Matchers.*;
 @DisplayName("Process Mining API")
 class ProcessMiningApiTest extends BaseApiTest {
 
-    // ── Helper: Seed a process mining metric via JDBC ──
-
-    private UUID seedProcessMiningMetric(UUID insurerId, String fromStatus, String toStatus,
-                                          long avgDurationMs, long p95DurationMs, long p99DurationMs,
-                                          int sampleCount, BigDecimal happyPathPct) {
-        UUID id = UUID.randomUUID();
+    // ── Helper: Seed process mining aggregates via JDBC ──
+
+    /**
+     * Seeds the aggregates the endpoints are served from. The samples are spread
+     * over the duration buckets so the served p95 and p99 land in the buckets of
+     * the given values; happyPathPct becomes the insurer's path statistics.
+     */
+    private void seedProcessMiningMetric(UUID insurerId, String fromStatus, String toStatus,
+                                         long avgDurationMs, long p95DurationMs, long p99DurationMs,
+                                         int sampleCount, BigDecimal happyPathPct) {
+        int tail99 = Math.max(1, sampleCount / 100);
+        int tail95 = Math.max(tail99, sampleCount * 5 / 100) - tail99;
+        Long[] buckets = new Long[TransitionAggregate.BUCKET_COUNT];
+        Arrays.fill(buckets, 0L);
+        buckets[TransitionAggregate.bucketOf(avgDurationMs)] += sampleCount - tail95 - tail99;
+        buckets[TransitionAggregate.bucketOf(p95DurationMs)] += tail95;
+        buckets[TransitionAggregate.bucketOf(p99DurationMs)] += tail99;
+
+        jdbc.update(con -> {
+            PreparedStatement ps = con.prepareStatement("""
+                    INSERT INTO process_mining_transition_stats (insurer_id, from_status, to_status,
+                        sample_count, mean_ms, m2, max_ms, bucket_counts, updated_at)
+                    VALUES (?, ?, ?, ?, ?, 0, ?, ?, now())
+                    """);
+            ps.setObject(1, insurerId);
+            ps.setString(2, fromStatus);
+            ps.setString(3, toStatus);
+            ps.setLong(4, sampleCount);
+            ps.setDouble(5, avgDurationMs);
+            ps.setLong(6, p99DurationMs);
+            ps.setArray(7, con.createArrayOf("bigint", buckets));
+            return ps;
+        });
         jdbc.update("""
-                INSERT INTO process_mining_metrics (id, insurer_id, from_status, to_status,
-                    avg_duration_ms, p95_duration_ms, p99_duration_ms, sample_count,
-                    happy_path_pct, calculated_at)
-                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, now())
+                INSERT INTO process_mining_path_stats (insurer_id, completed_count, happy_count, updated_at)
+                VALUES (?, 10000, ?, now())
+                ON CONFLICT (insurer_id) DO UPDATE SET happy_count = EXCLUDED.happy_count
                 """,
-                id, insurerId, fromStatus, toStatus,
-                avgDurationMs, p95DurationMs, p99DurationMs, sampleCount, happyPathPct
+                insurerId, happyPathPct.multiply(BigDecimal.valueOf(100)).longValue()
         );
-        return id;
     }
 
     @Test
@@ -53,7 +80,6 @@ class ProcessMiningApiTest extends BaseApiTest {
                 .then()
                 .statusCode(200)
                 .body("size()", greaterThanOrEqualTo(2))
-                .body("[0].id", notNullValue())
                 .body("[0].insurerId", equalTo(INSURER_ID.toString()))
                 .body("[0].fromStatus", notNullValue())
                 .body("[0].toStatus", notNullValue())
@@ -2,6 +2,7 @@ package com.plum.endorsements.bdd;
 
 import com.plum.endorsements.EndorsementApplication;
 import com.plum.endorsements.application.scheduler.BatchAssemblyScheduler;
+import com.plum.endorsements.application.scheduler.BatchTrigger;
 import com.plum.endorsements.application.scheduler.BatchStatusPollerScheduler;
 import com.plum.endorsements.application.scheduler.ProvisionalCoverageCleanupScheduler;
 import com.plum.endorsements.application.scheduler.DataRetentionScheduler;
@@ -67,6 +68,9 @@ public class CucumberSpringConfig {
     @MockitoBean
     BatchAssemblyScheduler batchAssemblyScheduler;
 
+    @MockitoBean
+    BatchTrigger batchTrigger;
+
     @MockitoBean
     BatchStatusPollerScheduler batchStatusPollerScheduler;
 
@@ -35,14 +35,25 @@ public class DatabaseHelper {
         jdbc.execute("DELETE FROM balance_forecasts");
         jdbc.execute("DELETE FROM error_resolutions");
         jdbc.execute("DELETE FROM process_mining_metrics");
+        jdbc.execute("DELETE FROM process_mining_transition_stats");
+        jdbc.execute("DELETE FROM process_mining_path_stats");
         // Phase 1-2 tables
         jdbc.execute("DELETE FROM reconciliation_items");
         jdbc.execute("DELETE FROM reconciliation_runs");
+        jdbc.execute("DELETE FROM event_outbox");
+        jdbc.execute("DELETE FROM anomaly_employer_activity");
+        jdbc.execute("DELETE FROM anomaly_employer_features");
+        jdbc.execute("DELETE FROM anomaly_employee_features");
         jdbc.execute("DELETE FROM endorsement_events");
         jdbc.execute("DELETE FROM ea_transactions");
+        jdbc.execute("DELETE FROM ea_ledger_snapshots");
         jdbc.execute("DELETE FROM provisional_coverages");
         jdbc.execute("DELETE FROM endorsements");
+        jdbc.execute("DELETE FROM endorsement_status_count_deltas");
+        jdbc.execute("DELETE FROM endorsement_status_counts");
         jdbc.execute("DELETE FROM endorsement_batches");
+        jdbc.execute("DELETE FROM insurer_rate_limits");
+        jdbc.execute("DELETE FROM ea_account_stripes");
         jdbc.execute("DELETE FROM ea_accounts");
     }
 
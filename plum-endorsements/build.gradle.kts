@@ -2,6 +2,7 @@ plugins {
     java
     id("org.springframework.boot") version "3.4.3"
     id("io.spring.dependency-management") version "1.1.7"
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "com.plum"
@@ -95,6 +96,14 @@ dependencies {
     testAnnotationProcessor("org.projectlombok:lombok")
 }
 
+jmh {
+    jmhVersion.set("1.37")
+    includeTests.set(false)
+    zip64.set(true)
+    // Allocation per operation is reported next to the timings
+    profilers.add("gc")
+}
+
 tasks.withType<Test> {
     useJUnitPlatform()
     jvmArgs("-XX:+EnableDynamicAgentLoading")
@@ -26,7 +26,8 @@ gatling {
         "durationMinutes" to (System.getProperty("durationMinutes") ?: "15"),
         "targetRps" to (System.getProperty("targetRps") ?: "20"),
         "rampDurationSeconds" to (System.getProperty("rampDurationSeconds") ?: "60"),
-        "thinkTimeMs" to (System.getProperty("thinkTimeMs") ?: "1000")
+        "thinkTimeMs" to (System.getProperty("thinkTimeMs") ?: "1000"),
+        "bulkRowsPerRequest" to (System.getProperty("bulkRowsPerRequest") ?: "500")
     )
 }
 
@@ -53,7 +54,7 @@ tasks.register<JavaExec>("gatlingRunSimulation") {
 
     // Forward system properties to the Gatling process
     val props = listOf("baseUrl", "dbUrl", "dbUser", "dbPassword",
-        "durationMinutes", "targetRps", "rampDurationSeconds", "thinkTimeMs")
+        "durationMinutes", "targetRps", "rampDurationSeconds", "thinkTimeMs", "bulkRowsPerRequest")
     props.forEach { prop ->
         val value = System.getProperty(prop)
         if (value != null) {
@@ -5,5 +5,6 @@ TRUNCATE TABLE endorsement_events CASCADE;
 TRUNCATE TABLE provisional_coverages CASCADE;
 TRUNCATE TABLE endorsement_batches CASCADE;
 TRUNCATE TABLE ea_transactions CASCADE;
+TRUNCATE TABLE ea_ledger_snapshots;
 TRUNCATE TABLE endorsements CASCADE;
 TRUNCATE TABLE ea_accounts CASCADE;
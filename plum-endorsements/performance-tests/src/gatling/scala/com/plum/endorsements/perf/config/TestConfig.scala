@@ -17,6 +17,7 @@ object TestConfig {
   val targetRps: Int = Integer.getInteger("targetRps", 20)
   val rampDurationSeconds: Int = Integer.getInteger("rampDurationSeconds", 60)
   val thinkTimeMs: Int = Integer.getInteger("thinkTimeMs", 1000)
+  val bulkRowsPerRequest: Int = Integer.getInteger("bulkRowsPerRequest", 500)
 
   val testDuration: FiniteDuration = durationMinutes.minutes
   val rampDuration: FiniteDuration = rampDurationSeconds.seconds
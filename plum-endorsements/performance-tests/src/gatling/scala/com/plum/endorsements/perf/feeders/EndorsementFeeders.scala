@@ -47,6 +47,24 @@ object EndorsementFeeders {
     )
   }
 
+  /**
+   * Census upload body for the bulk endpoint: one CSV file of `rows` endorsements
+   * for a single employer/insurer pair, which is the shape of an onboarding upload.
+   */
+  def bulkCsvFeeder(rows: Int, employerId: String, insurerId: String): Iterator[Map[String, Any]] =
+    Iterator.continually {
+      val sb = new StringBuilder("employerId,employeeId,insurerId,policyId,type,coverageStartDate,coverageEndDate,premiumAmount,idempotencyKey,name,age,department\n")
+      val policyId = UUID.randomUUID().toString
+      val startDate = LocalDate.now().plusDays(1 + Random.nextInt(30))
+      val endDate = startDate.plusDays(365)
+      (1 to rows).foreach { _ =>
+        val name = s"${firstNames(Random.nextInt(firstNames.length))} ${lastNames(Random.nextInt(lastNames.length))}"
+        val premium = BigDecimal(100 + Random.nextDouble() * 4900).setScale(2, BigDecimal.RoundingMode.HALF_UP)
+        sb.append(s"$employerId,${UUID.randomUUID()},$insurerId,$policyId,ADD,$startDate,$endDate,$premium,perf-bulk-${UUID.randomUUID()},$name,${22 + Random.nextInt(43)},${departments(Random.nextInt(departments.length))}\n")
+      }
+      Map("bulkCsv" -> sb.toString, "bulkRows" -> rows)
+    }
+
   val premiumFeeder: Iterator[Map[String, Any]] = Iterator.continually {
     val premium = BigDecimal(100 + Random.nextDouble() * 4900).setScale(2, BigDecimal.RoundingMode.HALF_UP)
     Map("premiumAmount" -> premium.toString())
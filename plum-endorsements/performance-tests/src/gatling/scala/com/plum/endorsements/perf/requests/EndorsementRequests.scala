@@ -32,6 +32,15 @@ object EndorsementRequests {
       .check(jsonPath("$.id").saveAs("endorsementId"))
       .check(jsonPath("$.status").saveAs("endorsementStatus"))
 
+  val createEndorsementsBulk: HttpRequestBuilder =
+    http("Create Endorsements Bulk")
+      .post("/api/v1/endorsements/bulk")
+      .header("Content-Type", "text/csv")
+      .header("Accept", "application/x-ndjson")
+      .body(StringBody("#{bulkCsv}"))
+      .check(status.is(200))
+      .check(bodyString.saveAs("bulkResult"))
+
   val getEndorsement: HttpRequestBuilder =
     http("Get Endorsement")
       .get("/api/v1/endorsements/#{endorsementId}")
@@ -0,0 +1,30 @@
+package com.plum.endorsements.perf.scenarios
+
+import com.plum.endorsements.perf.config.TestConfig._
+import com.plum.endorsements.perf.feeders.EndorsementFeeders._
+import com.plum.endorsements.perf.requests.EndorsementRequests._
+import io.gatling.core.Predef._
+import io.gatling.core.structure.ScenarioBuilder
+
+import java.util.concurrent.atomic.AtomicLong
+
+object BulkIngestionScenario {
+
+  // Census uploads all land on one employer+insurer, the worst case for EA account locking
+  private val fixedEmployerId = "a1b2c3d4-e5f6-4a7b-8c9d-0e1f2a3b4c5d"
+  private val fixedInsurerId = "11111111-1111-4111-8111-111111111111"
+
+  /** Rows acknowledged by the server across all virtual users, for rows/second reporting. */
+  val rowsProcessed = new AtomicLong()
+  val rowsCreated = new AtomicLong()
+
+  val bulkUpload: ScenarioBuilder = scenario("Bulk Census Upload")
+    .feed(bulkCsvFeeder(bulkRowsPerRequest, fixedEmployerId, fixedInsurerId))
+    .exec(createEndorsementsBulk)
+    .exec { session =>
+      val lines = session("bulkResult").asOption[String].map(_.split('\n').filter(_.nonEmpty)).getOrElse(Array.empty[String])
+      rowsProcessed.addAndGet(lines.length)
+      rowsCreated.addAndGet(lines.count(_.contains("\"outcome\":\"CREATED\"")))
+      session.remove("bulkCsv").remove("bulkResult")
+    }
+}
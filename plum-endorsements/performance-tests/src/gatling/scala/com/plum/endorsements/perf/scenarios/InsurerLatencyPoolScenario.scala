@@ -0,0 +1,57 @@
+package com.plum.endorsements.perf.scenarios
+
+import com.plum.endorsements.perf.config.TestConfig._
+import com.plum.endorsements.perf.feeders.EndorsementFeeders._
+import com.plum.endorsements.perf.requests.EndorsementRequests._
+import io.gatling.core.Predef._
+import io.gatling.core.structure.ScenarioBuilder
+import io.gatling.http.Predef._
+
+import java.util.concurrent.atomic.AtomicLong
+import scala.concurrent.duration._
+
+object InsurerLatencyPoolScenario {
+
+  // ICICI Lombard takes real-time submissions, so every submit makes a network call
+  private val realTimeInsurer: Iterator[Map[String, String]] =
+    Iterator.continually(Map("insurerId" -> "33333333-3333-3333-3333-333333333333"))
+
+  // Comfortably under the pool size of 30; only reached if insurer calls hold connections
+  val maxPoolActive: Int = Integer.getInteger("maxPoolActive", 15)
+
+  /** Highest active / pending Hikari connection counts seen by the sampler. */
+  val maxActiveConnections = new AtomicLong()
+  val maxPendingConnections = new AtomicLong()
+
+  val submitRealTime: ScenarioBuilder = scenario("Real-Time Submit")
+    .feed(employerFeeder)
+    .feed(realTimeInsurer)
+    .feed(endorsementTypeFeeder)
+    .feed(employeeDataFeeder)
+    .feed(premiumFeeder)
+    .feed(coverageDateFeeder)
+    .exec(createEndorsement)
+    .pause(100.milliseconds, 300.milliseconds)
+    .exec(submitEndorsement)
+
+  val readAlongside: ScenarioBuilder = scenario("Reads Alongside Submits")
+    .feed(employerFeeder)
+    .exec(listEndorsements)
+
+  private def sample(metric: String, peak: AtomicLong, limit: Double) =
+    http(s"Sample $metric")
+      .get(s"/actuator/metrics/$metric")
+      .check(status.is(200))
+      .check(jsonPath("$.measurements[0].value").ofType[Double].transform { value =>
+        peak.accumulateAndGet(value.toLong, (a, b) => math.max(a, b))
+        value
+      }.lte(limit))
+
+  // Polls the pool once a second for as long as the load runs
+  val poolSampler: ScenarioBuilder = scenario("Connection Pool Sampler")
+    .during(rampDuration + testDuration) {
+      exec(sample("hikaricp.connections.active", maxActiveConnections, maxPoolActive))
+        .exec(sample("hikaricp.connections.pending", maxPendingConnections, 0))
+        .pause(1.second)
+    }
+}
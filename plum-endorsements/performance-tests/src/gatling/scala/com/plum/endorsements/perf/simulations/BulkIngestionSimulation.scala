@@ -0,0 +1,38 @@
+package com.plum.endorsements.perf.simulations
+
+import com.plum.endorsements.perf.config.TestConfig._
+import com.plum.endorsements.perf.scenarios.BulkIngestionScenario._
+import io.gatling.core.Predef._
+
+import scala.concurrent.duration._
+
+/**
+ * Measures census ingestion in rows per second rather than requests per second:
+ * each request carries `bulkRowsPerRequest` rows and the row throughput is
+ * printed when the run finishes.
+ */
+class BulkIngestionSimulation extends Simulation {
+
+  private var startedAt = 0L
+
+  before {
+    startedAt = System.nanoTime()
+  }
+
+  setUp(
+    bulkUpload.inject(
+      rampConcurrentUsers(1).to(4).during(rampDuration),
+      constantConcurrentUsers(4).during(testDuration)
+    )
+  ).protocols(httpProtocol)
+    .assertions(
+      global.successfulRequests.percent.gt(99.0),
+      global.responseTime.percentile(95).lt(30000)
+    )
+
+  after {
+    val elapsedSeconds = math.max(1.0, (System.nanoTime() - startedAt) / 1e9)
+    println(f"Bulk ingestion: ${rowsProcessed.get} rows (${rowsCreated.get} created) in $elapsedSeconds%.1fs " +
+      f"= ${rowsProcessed.get / elapsedSeconds}%.1f rows/s, ${rowsCreated.get / elapsedSeconds}%.1f created rows/s")
+  }
+}
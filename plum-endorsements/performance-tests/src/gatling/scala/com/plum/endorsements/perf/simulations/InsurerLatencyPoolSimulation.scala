@@ -0,0 +1,43 @@
+package com.plum.endorsements.perf.simulations
+
+import com.plum.endorsements.perf.config.TestConfig._
+import com.plum.endorsements.perf.scenarios.InsurerLatencyPoolScenario._
+import io.gatling.core.Predef._
+
+/**
+ * Drives real-time submissions to ICICI Lombard alongside reads while
+ * sampling the Hikari pool, to show that insurer latency does not hold
+ * database connections. Run it once at the stub's default latency and once
+ * with the app started with a slow insurer, e.g.
+ * `ENDORSEMENT_INSURER_STUB_INSURERS_ICICI_MEDIANLATENCYMS=3000`; the peak
+ * active connection count printed at the end should barely move and no
+ * request should ever wait for a connection. `maxPoolActive` (default 15)
+ * sets the peak the run fails above.
+ */
+class InsurerLatencyPoolSimulation extends Simulation {
+
+  setUp(
+    submitRealTime.inject(
+      rampUsersPerSec(1).to(targetRps).during(rampDuration),
+      constantUsersPerSec(targetRps).during(testDuration)
+    ),
+    readAlongside.inject(
+      rampUsersPerSec(1).to(targetRps).during(rampDuration),
+      constantUsersPerSec(targetRps).during(testDuration)
+    ),
+    poolSampler.inject(atOnceUsers(1))
+  ).protocols(httpProtocol)
+    .assertions(
+      details("Create Endorsement").successfulRequests.percent.gt(99.0),
+      details("Submit Endorsement").successfulRequests.percent.gt(99.0),
+      // A sample fails when the pool is busier than maxPoolActive or anyone waits for a connection
+      details("Sample hikaricp.connections.active").failedRequests.count.is(0),
+      details("Sample hikaricp.connections.pending").failedRequests.count.is(0),
+      details("List Endorsements").responseTime.percentile(95).lt(500)
+    )
+
+  after {
+    println(s"Hikari pool: peak ${maxActiveConnections.get} active (limit $maxPoolActive), " +
+      s"peak ${maxPendingConnections.get} waiting for a connection")
+  }
+}
@@ -0,0 +1,127 @@
+package com.plum.endorsements.infrastructure.insurer.bajaj;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the StAX {@link BajajAllianzXmlMapper} with the StringBuilder and
+ * {@code indexOf} mapper it replaced, on a seeded batch envelope and a batch
+ * status response of the same size. Both readers start from the response's
+ * bytes, as they arrive off the wire. The legacy reader first has to decode
+ * the whole document into a String, and only understands the {@code ws:}
+ * prefix, so the response uses it. Allocation per operation comes from the
+ * gc profiler's {@code gc.alloc.rate.norm}.
+ *
+ * <p>Run with {@code ./gradlew jmh}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class BajajXmlBenchmark {
+
+    private static final String[] TYPES = {"ADDITION", "DELETION", "MODIFICATION", "CORRECTION"};
+
+    @Param({"10000"})
+    public int members;
+
+    private UUID batchId;
+    private List<Map<String, Object>> endorsements;
+    private byte[] statusResponse;
+    private BajajAllianzXmlMapper stax;
+    private LegacyBajajAllianzXmlMapper legacy;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(20);
+        batchId = UUID.randomUUID();
+        endorsements = new ArrayList<>(members);
+        StringBuilder response = new StringBuilder("""
+                <?xml version="1.0" encoding="UTF-8"?>
+                <soapenv:Envelope xmlns:soapenv="http://schemas.xmlsoap.org/soap/envelope/" \
+                xmlns:ws="http://bajajallianz.com/endorsement/ws">
+                  <soapenv:Body>
+                    <ws:GetBatchStatusResponse>
+                      <ws:Status>COMPLETED</ws:Status>
+                """);
+        for (int i = 0; i < members; i++) {
+            UUID endorsementId = UUID.randomUUID();
+            Map<String, Object> endorsement = new HashMap<>();
+            endorsement.put("endorsementId", endorsementId);
+            endorsement.put("policy_id", "POL-" + (100_000 + random.nextInt(900_000)));
+            endorsement.put("employee_id", "EMP-" + (10_000 + random.nextInt(90_000)));
+            endorsement.put("employee_name", "Member " + Integer.toString(random.nextInt(1 << 24), 36)
+                    + (random.nextInt(20) == 0 ? " & Sons" : ""));
+            endorsement.put("type", TYPES[random.nextInt(TYPES.length)]);
+            endorsement.put("coverage_start_date", "2026-0" + (1 + random.nextInt(9)) + "-01");
+            endorsement.put("premium_amount", 5_000 + random.nextInt(150_000));
+            endorsement.put("date_of_birth", "19" + (60 + random.nextInt(40)) + "-01-15");
+            endorsement.put("gender", random.nextBoolean() ? "M" : "F");
+            endorsement.put("relationship", "SELF");
+            endorsements.add(endorsement);
+
+            boolean accepted = random.nextInt(10) != 0;
+            response.append("      <ws:Result>\n")
+                    .append("        <ws:ClientRef>").append(endorsementId).append("</ws:ClientRef>\n")
+                    .append("        <ws:Status>").append(accepted ? "ACCEPTED" : "REJECTED").append("</ws:Status>\n")
+                    .append(accepted
+                            ? "        <ws:TransactionId>BAJAJ-" + Integer.toHexString(random.nextInt()) + "</ws:TransactionId>\n"
+                            : "        <ws:Message>Member details did not match policy records</ws:Message>\n")
+                    .append("      </ws:Result>\n");
+        }
+        response.append("""
+                    </ws:GetBatchStatusResponse>
+                  </soapenv:Body>
+                </soapenv:Envelope>
+                """);
+        statusResponse = response.toString().getBytes(StandardCharsets.UTF_8);
+        stax = new BajajAllianzXmlMapper();
+        legacy = new LegacyBajajAllianzXmlMapper();
+    }
+
+    @Benchmark
+    public void writeStax() throws IOException {
+        stax.writeBatchEnvelope(batchId, endorsements, OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public void writeLegacy() throws IOException {
+        // The adapter used to send this String, which the HTTP client encodes to bytes in one go
+        OutputStream.nullOutputStream().write(
+                legacy.toXmlBatchEnvelope(batchId, endorsements).getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public String readStax(Blackhole blackhole) throws IOException {
+        return stax.readBatchStatus(new ByteArrayInputStream(statusResponse), blackhole::consume);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> readLegacy() {
+        return legacy.readBatchStatus(new String(statusResponse, StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,128 @@
+package com.plum.endorsements.infrastructure.insurer.bajaj;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * The Bajaj Allianz mapper as it was before StAX: envelopes are concatenated
+ * into a StringBuilder and responses are scanned with {@code indexOf}. Only
+ * the envelope and response methods the benchmark needs are kept.
+ * {@link #readBatchStatus} did not exist; it applies the same tag scanning to
+ * each {@code Result}, the way the old mapper would have had to.
+ */
+final class LegacyBajajAllianzXmlMapper {
+
+    public String toXmlEnvelope(Map<String, Object> endorsementData) {
+        StringBuilder xml = new StringBuilder();
+        openEnvelope(xml);
+        appendEndorsement(xml, "SubmitEndorsement", endorsementData, "    ");
+        closeEnvelope(xml);
+        return xml.toString();
+    }
+
+    /**
+     * One SOAP call carrying every endorsement of the batch, each tagged with
+     * its ClientRef so the insurer's results can be matched back.
+     */
+    public String toXmlBatchEnvelope(UUID batchId, List<Map<String, Object>> endorsements) {
+        StringBuilder xml = new StringBuilder();
+        openEnvelope(xml);
+        xml.append("    <ws:SubmitEndorsementBatch>\n");
+        xml.append("      <ws:BatchId>").append(batchId).append("</ws:BatchId>\n");
+        for (Map<String, Object> endorsementData : endorsements) {
+            appendEndorsement(xml, "Endorsement", endorsementData, "      ");
+        }
+        xml.append("    </ws:SubmitEndorsementBatch>\n");
+        closeEnvelope(xml);
+        return xml.toString();
+    }
+
+    private void openEnvelope(StringBuilder xml) {
+        xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        xml.append("<soapenv:Envelope xmlns:soapenv=\"http://schemas.xmlsoap.org/soap/envelope/\" ");
+        xml.append("xmlns:ws=\"http://bajajallianz.com/endorsement/ws\">\n");
+        xml.append("  <soapenv:Header/>\n");
+        xml.append("  <soapenv:Body>\n");
+    }
+
+    private void closeEnvelope(StringBuilder xml) {
+        xml.append("  </soapenv:Body>\n");
+        xml.append("</soapenv:Envelope>");
+    }
+
+    private void appendEndorsement(StringBuilder xml, String element, Map<String, Object> endorsementData,
+                                   String indent) {
+        String field = indent + "  ";
+        xml.append(indent).append("<ws:").append(element).append(">\n");
+        xml.append(field).append("<ws:ClientRef>").append(esc(endorsementData.get("endorsementId"))).append("</ws:ClientRef>\n");
+        xml.append(field).append("<ws:PolicyNumber>").append(esc(endorsementData.get("policy_id"))).append("</ws:PolicyNumber>\n");
+        xml.append(field).append("<ws:MemberCode>").append(esc(endorsementData.get("employee_id"))).append("</ws:MemberCode>\n");
+        xml.append(field).append("<ws:MemberName>").append(esc(endorsementData.get("employee_name"))).append("</ws:MemberName>\n");
+        xml.append(field).append("<ws:EndorsementType>").append(mapType(str(endorsementData.get("type")))).append("</ws:EndorsementType>\n");
+        xml.append(field).append("<ws:EffectiveDate>").append(esc(endorsementData.get("coverage_start_date"))).append("</ws:EffectiveDate>\n");
+        xml.append(field).append("<ws:SumInsured>").append(esc(endorsementData.get("premium_amount"))).append("</ws:SumInsured>\n");
+        xml.append(field).append("<ws:DateOfBirth>").append(esc(endorsementData.get("date_of_birth"))).append("</ws:DateOfBirth>\n");
+        xml.append(field).append("<ws:Gender>").append(esc(endorsementData.get("gender"))).append("</ws:Gender>\n");
+        xml.append(field).append("<ws:Relationship>").append(esc(endorsementData.get("relationship"))).append("</ws:Relationship>\n");
+        xml.append(indent).append("</ws:").append(element).append(">\n");
+    }
+
+    public Map<String, Object> fromXmlResponse(String xmlResponse) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("insurer_reference", extractTag(xmlResponse, "TransactionId"));
+        result.put("status", extractTag(xmlResponse, "Status"));
+        result.put("message", extractTag(xmlResponse, "Message"));
+        return result;
+    }
+
+    List<Map<String, Object>> readBatchStatus(String xml) {
+        List<Map<String, Object>> results = new ArrayList<>();
+        int from = 0;
+        int start;
+        while ((start = xml.indexOf("<ws:Result>", from)) >= 0) {
+            int end = xml.indexOf("</ws:Result>", start);
+            String result = xml.substring(start, end);
+            Map<String, Object> mapped = fromXmlResponse(result);
+            mapped.put("client_ref", extractTag(result, "ClientRef"));
+            results.add(mapped);
+            from = end;
+        }
+        return results;
+    }
+
+    private String mapType(String type) {
+        return switch (type) {
+            case "ADDITION" -> "ADD_MEMBER";
+            case "DELETION" -> "DELETE_MEMBER";
+            case "MODIFICATION" -> "MODIFY_MEMBER";
+            case "CORRECTION" -> "CORRECT_MEMBER";
+            default -> type;
+        };
+    }
+
+    private String extractTag(String xml, String tag) {
+        String open = "<ws:" + tag + ">";
+        String close = "</ws:" + tag + ">";
+        int start = xml.indexOf(open);
+        int end = xml.indexOf(close);
+        if (start >= 0 && end >= 0) {
+            return xml.substring(start + open.length(), end);
+        }
+        return "";
+    }
+
+    private String esc(Object value) {
+        if (value == null) return "";
+        return value.toString()
+                .replace("&", "&amp;")
+                .replace("<", "&lt;")
+                .replace(">", "&gt;");
+    }
+
+    private String str(Object value) {
+        return value != null ? value.toString() : "";
+    }
+}
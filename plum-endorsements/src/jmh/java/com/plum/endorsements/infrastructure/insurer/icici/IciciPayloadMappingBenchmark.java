@@ -0,0 +1,106 @@
+package com.plum.endorsements.infrastructure.insurer.icici;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-record cost of encoding an ICICI Lombard request with the compiled
+ * mapping plan against the mapper it replaced. Each invocation encodes
+ * {@value #RECORDS} varied endorsements and is counted as that many
+ * operations, so both the time and the gc profiler's
+ * {@code gc.alloc.rate.norm} are per record.
+ *
+ * <p>{@code requestBody*} is what the adapter sends; {@code planToSink}
+ * walks the plan without building a map, as the XML and CSV writers do.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class IciciPayloadMappingBenchmark {
+
+    static final int RECORDS = 1024;
+
+    private static final String[] TYPES = {"ADDITION", "DELETION", "MODIFICATION", "CORRECTION"};
+
+    private Map<String, Object>[] endorsements;
+    private UUID[] ids;
+    private IciciLombardDataMapper planned;
+    private LegacyIciciLombardDataMapper legacy;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        Random random = new Random(21);
+        endorsements = new Map[RECORDS];
+        ids = new UUID[RECORDS];
+        for (int i = 0; i < RECORDS; i++) {
+            Map<String, Object> endorsement = new HashMap<>();
+            endorsement.put("endorsementId", UUID.randomUUID().toString());
+            endorsement.put("policy_id", "POL-" + (100_000 + random.nextInt(900_000)));
+            endorsement.put("employee_id", "EMP-" + (10_000 + random.nextInt(90_000)));
+            endorsement.put("employee_name", "Member " + Integer.toString(random.nextInt(1 << 24), 36));
+            endorsement.put("date_of_birth", "1985-0" + (1 + random.nextInt(9)) + "-15");
+            endorsement.put("gender", random.nextBoolean() ? "M" : "F");
+            endorsement.put("type", TYPES[random.nextInt(TYPES.length)]);
+            endorsement.put("coverage_start_date", "2026-04-01");
+            endorsement.put("premium_amount", 5_000 + random.nextInt(150_000));
+            if (random.nextInt(4) > 0) {
+                endorsement.put("relationship", "SPOUSE");
+            }
+            endorsements[i] = endorsement;
+            ids[i] = UUID.randomUUID();
+        }
+        planned = new IciciLombardDataMapper();
+        legacy = new LegacyIciciLombardDataMapper();
+        for (Map<String, Object> endorsement : endorsements) {
+            if (!planned.toInsurerFormat(endorsement).equals(legacy.toInsurerFormat(endorsement))) {
+                throw new IllegalStateException("Mappers disagree on " + endorsement);
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public void requestBodyLegacy(Blackhole blackhole) {
+        for (int i = 0; i < RECORDS; i++) {
+            Map<String, Object> body = new HashMap<>(legacy.toInsurerFormat(endorsements[i]));
+            body.put("clientReference", ids[i].toString());
+            blackhole.consume(body);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public void requestBodyPlan(Blackhole blackhole) {
+        for (int i = 0; i < RECORDS; i++) {
+            blackhole.consume(planned.toRequestBody(ids[i], endorsements[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public void planToSink(Blackhole blackhole) {
+        for (int i = 0; i < RECORDS; i++) {
+            IciciLombardDataMapper.OUTBOUND.encode(endorsements[i], (name, value) -> blackhole.consume(value));
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.plum.endorsements.infrastructure.insurer.icici;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The ICICI Lombard mapper as it was before mapping plans: every call builds
+ * its map with a lookup per field and a switch for the endorsement type. Kept
+ * only as the baseline for {@link IciciPayloadMappingBenchmark}.
+ */
+final class LegacyIciciLombardDataMapper {
+
+    public Map<String, Object> toInsurerFormat(Map<String, Object> endorsementData) {
+        Map<String, Object> mapped = new HashMap<>();
+        mapped.put("memberName", endorsementData.getOrDefault("employee_name", ""));
+        mapped.put("memberId", endorsementData.getOrDefault("employee_id", ""));
+        mapped.put("policyNumber", endorsementData.getOrDefault("policy_id", ""));
+        mapped.put("endorsementType", mapEndorsementType(
+                (String) endorsementData.getOrDefault("type", "ADDITION")));
+        mapped.put("effectiveDate", endorsementData.getOrDefault("coverage_start_date", ""));
+        mapped.put("sumInsured", endorsementData.getOrDefault("premium_amount", 0));
+        mapped.put("dateOfBirth", endorsementData.getOrDefault("date_of_birth", ""));
+        mapped.put("gender", endorsementData.getOrDefault("gender", ""));
+        mapped.put("relationship", endorsementData.getOrDefault("relationship", "SELF"));
+        return mapped;
+    }
+
+    private String mapEndorsementType(String type) {
+        return switch (type) {
+            case "ADDITION" -> "ADD";
+            case "DELETION" -> "DELETE";
+            case "MODIFICATION" -> "MODIFY";
+            case "CORRECTION" -> "CORRECT";
+            default -> type;
+        };
+    }
+}
@@ -0,0 +1,107 @@
+package com.plum.endorsements.infrastructure.insurer.nivabupa;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the streaming {@link NivaBupaCsvMapper} with the String-building,
+ * regex-parsing mapper it replaced, writing and reading the same seeded batch
+ * files. Writing goes to a discarding stream, so the streaming side is
+ * measured without the buffer the legacy side has to build; the gc
+ * profiler's {@code gc.alloc.rate.norm} shows the difference in allocation.
+ *
+ * <p>Run with {@code ./gradlew jmh}. The legacy parser splits on every comma,
+ * so member names here contain none, or its rows would not line up.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class NivaBupaCsvBenchmark {
+
+    private static final String[] TYPES = {"ADDITION", "DELETION", "MODIFICATION", "CORRECTION"};
+    private static final String[] RELATIONSHIPS = {"SELF", "SPOUSE", "CHILD", "PARENT"};
+
+    @Param({"10000"})
+    public int rows;
+
+    private List<Map<String, Object>> endorsements;
+    private String batchFile;
+    private NivaBupaCsvMapper streaming;
+    private LegacyNivaBupaCsvMapper legacy;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(19);
+        endorsements = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Map<String, Object> endorsement = new HashMap<>();
+            endorsement.put("endorsementId", UUID.randomUUID());
+            endorsement.put("policy_id", "POL-" + (100_000 + random.nextInt(900_000)));
+            endorsement.put("employee_id", "EMP-" + (10_000 + random.nextInt(90_000)));
+            endorsement.put("employee_name", "Member " + Integer.toString(random.nextInt(1 << 24), 36));
+            endorsement.put("date_of_birth", "19" + (60 + random.nextInt(40)) + "-0" + (1 + random.nextInt(9)) + "-1"
+                    + random.nextInt(10));
+            endorsement.put("gender", random.nextBoolean() ? "M" : "F");
+            endorsement.put("relationship", RELATIONSHIPS[random.nextInt(RELATIONSHIPS.length)]);
+            endorsement.put("type", TYPES[random.nextInt(TYPES.length)]);
+            endorsement.put("coverage_start_date", "2026-0" + (1 + random.nextInt(9)) + "-01");
+            endorsement.put("premium_amount", 5_000 + random.nextInt(150_000));
+            endorsements.add(endorsement);
+        }
+        streaming = new NivaBupaCsvMapper();
+        legacy = new LegacyNivaBupaCsvMapper();
+        batchFile = streaming.toCsvBatch(endorsements);
+        if (!batchFile.equals(legacy.toCsvBatch(endorsements))) {
+            throw new IllegalStateException("Mappers disagree on the batch file; the comparison would be unfair");
+        }
+    }
+
+    @Benchmark
+    public void writeStreaming() throws IOException {
+        streaming.writeBatch(endorsements, OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public void writeLegacy() throws IOException {
+        // The adapter used to send this String, which the HTTP client encodes to bytes in one go
+        OutputStream.nullOutputStream().write(legacy.toCsvBatch(endorsements).getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public void readStreaming(Blackhole blackhole) throws IOException {
+        streaming.readBatch(new StringReader(batchFile), blackhole::consume);
+    }
+
+    @Benchmark
+    public void readLegacy(Blackhole blackhole) {
+        String[] lines = batchFile.split("\n");
+        for (int i = 1; i < lines.length; i++) {
+            blackhole.consume(legacy.fromCsvRow(lines[i]));
+        }
+    }
+}
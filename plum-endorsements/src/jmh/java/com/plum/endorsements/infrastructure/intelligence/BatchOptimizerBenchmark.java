@@ -0,0 +1,142 @@
+package com.plum.endorsements.infrastructure.intelligence;
+
+import com.plum.endorsements.domain.model.EAAccount;
+import com.plum.endorsements.domain.model.Endorsement;
+import com.plum.endorsements.domain.model.EndorsementStatus;
+import com.plum.endorsements.domain.model.EndorsementType;
+import com.plum.endorsements.domain.port.InsurerPort;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link MultiEmployerBatchOptimizer} with the dense DP it replaced
+ * on the same seeded queues. Time and allocation per batch come from JMH and
+ * its gc profiler ({@code gc.alloc.rate.norm}); solution quality is logged
+ * once per trial as the total composite score of each plan, scored against
+ * each endorsement's own employer account, together with how many employers
+ * the plan overdraws.
+ *
+ * <p>Run with {@code ./gradlew jmh}. Queues stay small because the DP needs
+ * roughly {@code queueSize} MB per batch at the 1,000,000 paise cap.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class BatchOptimizerBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchOptimizerBenchmark.class);
+    private static final UUID INSURER_ID = UUID.randomUUID();
+
+    @Param({"50", "200"})
+    public int queueSize;
+
+    @Param({"1", "10"})
+    public int employerCount;
+
+    @Param({"100"})
+    public int maxBatchSize;
+
+    private List<Endorsement> queue;
+    private Map<UUID, EAAccount> accounts;
+    private EAAccount firstEmployerAccount;
+    private InsurerPort.InsurerCapabilities capabilities;
+    private MultiEmployerBatchOptimizer multiEmployer;
+    private LegacyDpBatchOptimizer legacyDp;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(7);
+        List<UUID> employers = new ArrayList<>();
+        accounts = new HashMap<>();
+        for (int k = 0; k < employerCount; k++) {
+            UUID employerId = UUID.randomUUID();
+            employers.add(employerId);
+            accounts.put(employerId, EAAccount.builder()
+                    .employerId(employerId)
+                    .insurerId(INSURER_ID)
+                    .balance(BigDecimal.valueOf(2_000 + random.nextInt(8_000)))
+                    .reserved(BigDecimal.ZERO)
+                    .updatedAt(Instant.now())
+                    .build());
+        }
+        queue = new ArrayList<>(queueSize);
+        for (int i = 0; i < queueSize; i++) {
+            EndorsementType type = random.nextInt(10) == 0 ? EndorsementType.DELETE
+                    : random.nextInt(4) == 0 ? EndorsementType.UPDATE : EndorsementType.ADD;
+            queue.add(Endorsement.builder()
+                    .id(UUID.randomUUID())
+                    .employerId(employers.get(random.nextInt(employerCount)))
+                    .employeeId(UUID.randomUUID())
+                    .insurerId(INSURER_ID)
+                    .policyId(UUID.randomUUID())
+                    .type(type)
+                    .status(EndorsementStatus.QUEUED_FOR_BATCH)
+                    .coverageStartDate(LocalDate.now().plusDays(random.nextInt(45)))
+                    .premiumAmount(BigDecimal.valueOf(50_00 + random.nextInt(1_500_00), 2))
+                    .retryCount(0)
+                    .createdAt(Instant.now())
+                    .updatedAt(Instant.now())
+                    .build());
+        }
+        firstEmployerAccount = accounts.get(queue.get(0).getEmployerId());
+        capabilities = new InsurerPort.InsurerCapabilities(false, true, maxBatchSize, 24, 0);
+        multiEmployer = new MultiEmployerBatchOptimizer(new SimpleMeterRegistry(), 1_000_000);
+        legacyDp = new LegacyDpBatchOptimizer();
+
+        report("multi-employer", multiEmployer.optimizeBatch(queue, accounts, capabilities).endorsements());
+        report("legacy DP", legacyDp.optimizeBatch(queue, firstEmployerAccount, maxBatchSize));
+    }
+
+    @Benchmark
+    public List<Endorsement> multiEmployer() {
+        return multiEmployer.optimizeBatch(queue, accounts, capabilities).endorsements();
+    }
+
+    @Benchmark
+    public List<Endorsement> legacyDp() {
+        return legacyDp.optimizeBatch(queue, firstEmployerAccount, maxBatchSize);
+    }
+
+    private void report(String engine, List<Endorsement> plan) {
+        double score = 0;
+        Map<UUID, BigDecimal> spent = new HashMap<>();
+        for (Endorsement e : plan) {
+            EAAccount account = accounts.get(e.getEmployerId());
+            score += MultiEmployerBatchOptimizer.compositeScore(e, account);
+            BigDecimal premium = e.getType() == EndorsementType.DELETE
+                    ? e.getPremiumAmount().negate() : e.getPremiumAmount();
+            spent.merge(e.getEmployerId(), premium, BigDecimal::add);
+        }
+        long overdrawn = spent.entrySet().stream()
+                .filter(entry -> entry.getValue().compareTo(accounts.get(entry.getKey()).availableBalance()) > 0)
+                .count();
+        log.info("[quality] {} queue={} employers={}: {} selected, score={}, overdrawn employers={}",
+                engine, queueSize, employerCount, plan.size(), String.format("%.3f", score), overdrawn);
+    }
+}
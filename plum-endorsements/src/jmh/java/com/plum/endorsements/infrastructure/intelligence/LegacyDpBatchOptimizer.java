@@ -0,0 +1,92 @@
+package com.plum.endorsements.infrastructure.intelligence;
+
+import com.plum.endorsements.domain.model.EAAccount;
+import com.plum.endorsements.domain.model.Endorsement;
+import com.plum.endorsements.domain.model.EndorsementType;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The dense 0-1 knapsack DP that {@link MultiEmployerBatchOptimizer} replaced,
+ * kept only as the benchmark baseline. It budgets the whole batch against one
+ * EA account and allocates {@code boolean[n][capacity + 1]} with the capacity
+ * capped at 1,000,000 paise.
+ */
+final class LegacyDpBatchOptimizer {
+
+    List<Endorsement> optimizeBatch(List<Endorsement> queue, EAAccount account, int maxBatchSize) {
+        List<ScoredEndorsement> scored = queue.stream()
+                .map(e -> new ScoredEndorsement(e, MultiEmployerBatchOptimizer.compositeScore(e, account)))
+                .sorted(Comparator.comparingDouble(ScoredEndorsement::score).reversed())
+                .toList();
+
+        List<Endorsement> optimized = new ArrayList<>();
+        BigDecimal runningBalance = account != null ? account.availableBalance() : BigDecimal.valueOf(Long.MAX_VALUE);
+
+        for (ScoredEndorsement se : scored) {
+            if (optimized.size() >= maxBatchSize) break;
+            if (se.endorsement.getType() == EndorsementType.DELETE) {
+                optimized.add(se.endorsement);
+                BigDecimal credit = se.endorsement.getPremiumAmount() != null
+                        ? se.endorsement.getPremiumAmount() : BigDecimal.ZERO;
+                runningBalance = runningBalance.add(credit);
+            }
+        }
+
+        List<ScoredEndorsement> nonDeletes = scored.stream()
+                .filter(se -> se.endorsement.getType() != EndorsementType.DELETE)
+                .toList();
+
+        int remainingSlots = maxBatchSize - optimized.size();
+        if (!nonDeletes.isEmpty() && remainingSlots > 0) {
+            optimized.addAll(solveKnapsack(nonDeletes, runningBalance, remainingSlots));
+        }
+        return optimized;
+    }
+
+    private List<Endorsement> solveKnapsack(List<ScoredEndorsement> items, BigDecimal capacity, int maxItems) {
+        int n = items.size();
+        // Convert capacity to integer pennies for DP table indexing
+        long capacityPennies = capacity.multiply(BigDecimal.valueOf(100)).longValue();
+        // Cap DP table to prevent memory explosion on very large balances
+        int dpCapacity = (int) Math.min(capacityPennies, 1_000_000);
+
+        // dp[i] = best score achievable with exactly i pennies of capacity used
+        double[] dp = new double[dpCapacity + 1];
+        boolean[][] selected = new boolean[n][dpCapacity + 1];
+
+        for (int i = 0; i < n; i++) {
+            BigDecimal cost = items.get(i).endorsement.getPremiumAmount() != null
+                    ? items.get(i).endorsement.getPremiumAmount() : BigDecimal.ZERO;
+            int costPennies = cost.multiply(BigDecimal.valueOf(100)).intValue();
+            double value = items.get(i).score;
+
+            // Traverse capacity backwards (standard 0-1 knapsack)
+            for (int w = dpCapacity; w >= costPennies; w--) {
+                if (dp[w - costPennies] + value > dp[w]) {
+                    dp[w] = dp[w - costPennies] + value;
+                    selected[i][w] = true;
+                }
+            }
+        }
+
+        // Backtrack to find selected items
+        List<Endorsement> result = new ArrayList<>();
+        int w = dpCapacity;
+        for (int i = n - 1; i >= 0 && result.size() < maxItems; i--) {
+            if (selected[i][w]) {
+                result.add(items.get(i).endorsement);
+                BigDecimal cost = items.get(i).endorsement.getPremiumAmount() != null
+                        ? items.get(i).endorsement.getPremiumAmount() : BigDecimal.ZERO;
+                w -= cost.multiply(BigDecimal.valueOf(100)).intValue();
+            }
+        }
+
+        return result;
+    }
+
+    private record ScoredEndorsement(Endorsement endorsement, double score) {}
+}
@@ -0,0 +1,213 @@
+package com.plum.endorsements.api.controller;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.plum.endorsements.api.dto.CreateEndorsementRequest;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Pulls {@link CreateEndorsementRequest} rows one at a time from a bulk upload
+ * body, so the whole census file is never held in memory. Accepts either a JSON
+ * array of request objects or a CSV file with a header row; CSV columns that are
+ * not request fields are collected into {@code employeeData}.
+ *
+ * <p>The opening array token or CSV header is read eagerly so a malformed body
+ * fails before any response has been written. Row-level problems are reported
+ * on the row instead of aborting the upload.</p>
+ */
+class BulkEndorsementReader implements Iterator<BulkEndorsementReader.Row> {
+
+    private static final Set<String> REQUEST_COLUMNS = Set.of(
+            "employerId", "employeeId", "insurerId", "policyId", "type",
+            "coverageStartDate", "coverageEndDate", "premiumAmount", "idempotencyKey");
+
+    record Row(int rowNumber, CreateEndorsementRequest request, String error) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final JsonParser jsonParser;
+    private final BufferedReader csvReader;
+    private final String[] csvHeader;
+    private int rowNumber;
+    private Row next;
+    private boolean exhausted;
+
+    private BulkEndorsementReader(ObjectMapper objectMapper, JsonParser jsonParser,
+                                  BufferedReader csvReader, String[] csvHeader) {
+        this.objectMapper = objectMapper;
+        this.jsonParser = jsonParser;
+        this.csvReader = csvReader;
+        this.csvHeader = csvHeader;
+    }
+
+    static BulkEndorsementReader json(ObjectMapper objectMapper, InputStream in) throws IOException {
+        JsonParser parser = objectMapper.getFactory().createParser(in);
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            throw new IllegalArgumentException("Bulk JSON body must be an array of endorsement requests");
+        }
+        return new BulkEndorsementReader(objectMapper, parser, null, null);
+    }
+
+    static BulkEndorsementReader csv(ObjectMapper objectMapper, InputStream in) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String headerLine = reader.readLine();
+        if (headerLine == null || headerLine.isBlank()) {
+            throw new IllegalArgumentException("Bulk CSV body must start with a header row");
+        }
+        String[] header = splitCsvLine(headerLine).toArray(String[]::new);
+        for (int i = 0; i < header.length; i++) {
+            header[i] = header[i].trim();
+        }
+        return new BulkEndorsementReader(objectMapper, null, reader, header);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null && !exhausted) {
+            try {
+                next = jsonParser != null ? readJsonRow() : readCsvRow();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            exhausted = next == null;
+        }
+        return next != null;
+    }
+
+    @Override
+    public Row next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Row row = next;
+        next = null;
+        return row;
+    }
+
+    private Row readJsonRow() throws IOException {
+        JsonToken token = jsonParser.nextToken();
+        if (token == null || token == JsonToken.END_ARRAY) {
+            return null;
+        }
+        int current = ++rowNumber;
+        // Read the tree first so a binding failure leaves the parser on the next element
+        JsonNode node = objectMapper.readTree(jsonParser);
+        try {
+            return new Row(current, objectMapper.treeToValue(node, CreateEndorsementRequest.class), null);
+        } catch (Exception e) {
+            return new Row(current, null, "Malformed row: " + e.getMessage());
+        }
+    }
+
+    private Row readCsvRow() throws IOException {
+        String line;
+        do {
+            line = csvReader.readLine();
+            if (line == null) {
+                return null;
+            }
+        } while (line.isBlank());
+
+        int current = ++rowNumber;
+        List<String> values = splitCsvLine(line);
+        if (values.size() != csvHeader.length) {
+            return new Row(current, null,
+                    "Expected " + csvHeader.length + " columns but found " + values.size());
+        }
+        try {
+            return new Row(current, toRequest(values), null);
+        } catch (Exception e) {
+            return new Row(current, null, "Malformed row: " + e.getMessage());
+        }
+    }
+
+    private CreateEndorsementRequest toRequest(List<String> values) {
+        ObjectNode employeeData = objectMapper.createObjectNode();
+        String employerId = null, employeeId = null, insurerId = null, policyId = null, type = null;
+        String coverageStart = null, coverageEnd = null, premium = null, idempotencyKey = null;
+
+        for (int i = 0; i < csvHeader.length; i++) {
+            String column = csvHeader[i];
+            String value = values.get(i).isEmpty() ? null : values.get(i);
+            if (!REQUEST_COLUMNS.contains(column)) {
+                if (value != null) {
+                    employeeData.put(column, value);
+                }
+                continue;
+            }
+            switch (column) {
+                case "employerId" -> employerId = value;
+                case "employeeId" -> employeeId = value;
+                case "insurerId" -> insurerId = value;
+                case "policyId" -> policyId = value;
+                case "type" -> type = value;
+                case "coverageStartDate" -> coverageStart = value;
+                case "coverageEndDate" -> coverageEnd = value;
+                case "premiumAmount" -> premium = value;
+                case "idempotencyKey" -> idempotencyKey = value;
+                default -> { }
+            }
+        }
+
+        return new CreateEndorsementRequest(
+                employerId != null ? UUID.fromString(employerId) : null,
+                employeeId != null ? UUID.fromString(employeeId) : null,
+                insurerId != null ? UUID.fromString(insurerId) : null,
+                policyId != null ? UUID.fromString(policyId) : null,
+                type,
+                coverageStart != null ? LocalDate.parse(coverageStart) : null,
+                coverageEnd != null ? LocalDate.parse(coverageEnd) : null,
+                employeeData,
+                premium != null ? new BigDecimal(premium) : null,
+                idempotencyKey);
+    }
+
+    /**
+     * Splits one CSV line, honouring double-quoted fields that contain commas
+     * and {@code ""} escapes.
+     */
+    static List<String> splitCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
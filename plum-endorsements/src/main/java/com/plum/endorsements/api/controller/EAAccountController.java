@@ -1,7 +1,10 @@
 package com.plum.endorsements.api.controller;
 
 import com.plum.endorsements.api.dto.EAAccountResponse;
+import com.plum.endorsements.api.dto.EALedgerPositionResponse;
+import com.plum.endorsements.api.dto.EATransactionResponse;
 import com.plum.endorsements.application.handler.EndorsementQueryHandler;
+import com.plum.endorsements.application.service.EALedgerService;
 import com.plum.endorsements.domain.model.EAAccount;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -10,6 +13,9 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -18,7 +24,11 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class EAAccountController {
 
+    private static final int MAX_HISTORY_SIZE = 1000;
+    private static final Duration DEFAULT_HISTORY_WINDOW = Duration.ofDays(30);
+
     private final EndorsementQueryHandler queryHandler;
+    private final EALedgerService ledgerService;
 
     @GetMapping
     public ResponseEntity<EAAccountResponse> getEAAccount(
@@ -30,4 +40,39 @@ public class EAAccountController {
                 .map(a -> ResponseEntity.ok(EAAccountResponse.from(a)))
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
+
+    /**
+     * Ledger position at {@code at} (default now): entry count, per-type
+     * totals and the balance recorded by the latest entry.
+     */
+    @GetMapping("/ledger/position")
+    public ResponseEntity<EALedgerPositionResponse> getLedgerPosition(
+            @RequestParam UUID employerId,
+            @RequestParam UUID insurerId,
+            @RequestParam(required = false) Instant at) {
+
+        return ledgerService.positionAt(employerId, insurerId, at != null ? at : Instant.now())
+                .map(p -> ResponseEntity.ok(EALedgerPositionResponse.from(p)))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Ledger entries in {@code [from, to)}, newest first. The range defaults
+     * to the last 30 days.
+     */
+    @GetMapping("/ledger/transactions")
+    public ResponseEntity<List<EATransactionResponse>> getLedgerTransactions(
+            @RequestParam UUID employerId,
+            @RequestParam UUID insurerId,
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to,
+            @RequestParam(defaultValue = "100") int size) {
+
+        Instant end = to != null ? to : Instant.now();
+        Instant start = from != null ? from : end.minus(DEFAULT_HISTORY_WINDOW);
+        int limit = Math.max(1, Math.min(size, MAX_HISTORY_SIZE));
+        return ResponseEntity.ok(ledgerService.history(employerId, insurerId, start, end, limit).stream()
+                .map(EATransactionResponse::from)
+                .toList());
+    }
 }
@@ -1,24 +1,37 @@
 package com.plum.endorsements.api.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.plum.endorsements.api.dto.BatchProgressResponse;
+import com.plum.endorsements.api.dto.BulkEndorsementRowResponse;
 import com.plum.endorsements.api.dto.CreateEndorsementRequest;
 import com.plum.endorsements.api.dto.EndorsementResponse;
+import com.plum.endorsements.api.dto.EndorsementSliceResponse;
+import com.plum.endorsements.application.handler.BulkCreateEndorsementHandler;
+import com.plum.endorsements.application.handler.BulkCreateEndorsementHandler.RowResult;
 import com.plum.endorsements.application.handler.CreateEndorsementHandler;
 import com.plum.endorsements.application.handler.EndorsementQueryHandler;
 import com.plum.endorsements.application.handler.ProcessEndorsementHandler;
 import com.plum.endorsements.application.service.AnomalyDetectionService;
 import com.plum.endorsements.domain.model.Endorsement;
 import com.plum.endorsements.domain.model.EndorsementBatch;
+import com.plum.endorsements.domain.model.EndorsementSlice;
 import com.plum.endorsements.domain.model.EndorsementStatus;
 import com.plum.endorsements.domain.model.EndorsementType;
 import com.plum.endorsements.domain.model.ProvisionalCoverage;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -28,8 +41,12 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
@@ -39,10 +56,21 @@ import java.util.concurrent.CompletableFuture;
 @RequiredArgsConstructor
 public class EndorsementController {
 
+    private static final String TEXT_CSV = "text/csv";
+    private static final int MAX_SLICE_SIZE = 200;
+
     private final CreateEndorsementHandler createHandler;
+    private final BulkCreateEndorsementHandler bulkCreateHandler;
     private final ProcessEndorsementHandler processHandler;
     private final EndorsementQueryHandler queryHandler;
     private final AnomalyDetectionService anomalyDetectionService;
+    private final IdempotencyResponseCache idempotencyResponseCache;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    @Value("${endorsement.bulk.chunk-size:500}")
+    private int bulkChunkSize;
 
     @PostMapping
     public ResponseEntity<EndorsementResponse> createEndorsement(
@@ -51,26 +79,18 @@ public class EndorsementController {
         log.info("Creating endorsement for employer={}, employee={}, type={}",
                 request.employerId(), request.employeeId(), request.type());
 
-        String idempotencyKey = request.idempotencyKey();
-        if (idempotencyKey == null || idempotencyKey.isBlank()) {
-            idempotencyKey = request.employerId() + "-" + request.employeeId()
-                    + "-" + request.type() + "-" + request.coverageStartDate();
-        }
+        Endorsement endorsement = request.toDomain();
 
-        Endorsement endorsement = Endorsement.builder()
-                .employerId(request.employerId())
-                .employeeId(request.employeeId())
-                .insurerId(request.insurerId())
-                .policyId(request.policyId())
-                .type(EndorsementType.valueOf(request.type()))
-                .coverageStartDate(request.coverageStartDate())
-                .coverageEndDate(request.coverageEndDate())
-                .employeeData(request.employeeData())
-                .premiumAmount(request.premiumAmount())
-                .idempotencyKey(idempotencyKey)
-                .build();
+        // Replays of a recent create are answered from the response cache
+        EndorsementResponse cached = idempotencyResponseCache.get(endorsement.getIdempotencyKey());
+        if (cached != null) {
+            meterRegistry.counter("endorsement.idempotency.replay", "source", "response_cache").increment();
+            return ResponseEntity.status(HttpStatus.CREATED).body(cached);
+        }
 
         Endorsement result = createHandler.handle(endorsement);
+        EndorsementResponse body = EndorsementResponse.from(result);
+        idempotencyResponseCache.put(endorsement.getIdempotencyKey(), body);
 
         // Trigger anomaly detection asynchronously after handler transaction commits,
         // so the REQUIRES_NEW transaction can see the committed data without blocking the response
@@ -84,8 +104,93 @@ public class EndorsementController {
             }
         });
 
-        return ResponseEntity.status(HttpStatus.CREATED)
-                .body(EndorsementResponse.from(result));
+        return ResponseEntity.status(HttpStatus.CREATED).body(body);
+    }
+
+    /**
+     * Ingests an employer census upload (JSON array or CSV) and streams one
+     * NDJSON result line per input row. Rows are created in chunks, each in its
+     * own transaction, so earlier chunks stay committed if a later one fails.
+     */
+    @PostMapping(value = "/bulk",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, TEXT_CSV},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void createEndorsementsBulk(HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+
+        boolean csv = request.getContentType() != null && request.getContentType().startsWith(TEXT_CSV);
+        BulkEndorsementReader reader = csv
+                ? BulkEndorsementReader.csv(objectMapper, request.getInputStream())
+                : BulkEndorsementReader.json(objectMapper, request.getInputStream());
+
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        OutputStream out = response.getOutputStream();
+
+        long started = System.nanoTime();
+        int total = 0;
+        List<BulkCreateEndorsementHandler.Row> chunk = new ArrayList<>(bulkChunkSize);
+        while (reader.hasNext()) {
+            BulkEndorsementReader.Row row = reader.next();
+            total++;
+            String error = row.error() != null ? row.error() : validate(row.request());
+            if (error != null) {
+                writeRowResult(out, RowResult.invalid(row.rowNumber(), error));
+                continue;
+            }
+            chunk.add(new BulkCreateEndorsementHandler.Row(row.rowNumber(), row.request().toDomain()));
+            if (chunk.size() >= bulkChunkSize) {
+                flushChunk(chunk, out);
+            }
+        }
+        flushChunk(chunk, out);
+
+        long elapsedMs = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+        log.info("Bulk endorsement upload processed {} rows in {}ms ({} rows/s, format={})",
+                total, elapsedMs, total * 1000L / elapsedMs, csv ? "csv" : "json");
+    }
+
+    private String validate(CreateEndorsementRequest request) {
+        Set<ConstraintViolation<CreateEndorsementRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            try {
+                EndorsementType.valueOf(request.type());
+                return null;
+            } catch (IllegalArgumentException e) {
+                return "Unknown endorsement type: " + request.type();
+            }
+        }
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                .sorted()
+                .reduce((a, b) -> a + "; " + b)
+                .orElse("Invalid row");
+    }
+
+    private void flushChunk(List<BulkCreateEndorsementHandler.Row> chunk, OutputStream out) throws IOException {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<RowResult> results;
+        try {
+            results = bulkCreateHandler.handleChunk(chunk);
+        } catch (RuntimeException e) {
+            // The response is already streaming, so report the rolled-back chunk row by row
+            log.error("Bulk endorsement chunk of {} rows failed", chunk.size(), e);
+            results = chunk.stream()
+                    .map(row -> RowResult.failed(row, "Chunk rolled back: " + e.getMessage()))
+                    .toList();
+        }
+        for (RowResult result : results) {
+            writeRowResult(out, result);
+        }
+        chunk.clear();
+        out.flush();
+    }
+
+    private void writeRowResult(OutputStream out, RowResult result) throws IOException {
+        out.write(objectMapper.writeValueAsBytes(BulkEndorsementRowResponse.from(result)));
+        out.write('\n');
     }
 
     @GetMapping("/{id}")
@@ -117,6 +222,35 @@ public class EndorsementController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Keyset variant of {@link #listEndorsements}, selected by the presence of
+     * the {@code cursor} parameter; pass it empty for the first page and then
+     * the returned {@code nextCursor}. Cost per page does not grow with depth,
+     * and rows inserted meanwhile do not shift later pages. Requests without
+     * {@code cursor} keep the page-number behaviour.
+     */
+    @GetMapping(params = "cursor")
+    public ResponseEntity<EndorsementSliceResponse> listEndorsementsByCursor(
+            @RequestParam UUID employerId,
+            @RequestParam(required = false) List<String> statuses,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+
+        List<EndorsementStatus> statusList = statuses == null ? List.of() : statuses.stream()
+                .map(EndorsementStatus::valueOf)
+                .toList();
+        int sliceSize = sliceSize(size);
+        EndorsementSlice slice = queryHandler.findSliceByEmployerId(
+                employerId, statusList, EndorsementCursorCodec.decode(cursor), sliceSize, includeTotal);
+        return ResponseEntity.ok(EndorsementSliceResponse.from(
+                slice, sliceSize, EndorsementCursorCodec.encode(slice.next())));
+    }
+
+    private static int sliceSize(int requested) {
+        return Math.max(1, Math.min(requested, MAX_SLICE_SIZE));
+    }
+
     @GetMapping("/employers/{employerId}/batches")
     public ResponseEntity<Page<BatchProgressResponse>> getBatchProgress(
             @PathVariable UUID employerId,
@@ -139,6 +273,20 @@ public class EndorsementController {
         return ResponseEntity.ok(result.map(EndorsementResponse::from));
     }
 
+    @GetMapping(value = "/employers/{employerId}/outstanding", params = "cursor")
+    public ResponseEntity<EndorsementSliceResponse> getOutstandingItemsByCursor(
+            @PathVariable UUID employerId,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+
+        int sliceSize = sliceSize(size);
+        EndorsementSlice slice = queryHandler.findOutstandingSliceByEmployerId(
+                employerId, EndorsementCursorCodec.decode(cursor), sliceSize, includeTotal);
+        return ResponseEntity.ok(EndorsementSliceResponse.from(
+                slice, sliceSize, EndorsementCursorCodec.encode(slice.next())));
+    }
+
     @PostMapping("/{id}/submit")
     public ResponseEntity<Void> submitToInsurer(@PathVariable UUID id) {
         log.info("Submitting endorsement {} to insurer", id);
@@ -0,0 +1,51 @@
+package com.plum.endorsements.api.controller;
+
+import com.plum.endorsements.domain.model.EndorsementCursor;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Encodes listing positions as opaque URL-safe tokens so clients cannot
+ * depend on, or tamper meaningfully with, the keyset columns. The version
+ * prefix lets the format change without breaking tokens already handed out.
+ */
+final class EndorsementCursorCodec {
+
+    private static final String VERSION = "v1";
+    private static final char SEPARATOR = '|';
+
+    private EndorsementCursorCodec() {
+    }
+
+    static String encode(EndorsementCursor cursor) {
+        if (cursor == null) {
+            return null;
+        }
+        String raw = VERSION + SEPARATOR + cursor.createdAt() + SEPARATOR + cursor.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns null for a blank token, which requests the first page.
+     *
+     * @throws IllegalArgumentException if the token was not produced by {@link #encode}
+     */
+    static EndorsementCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 3 || !VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new EndorsementCursor(Instant.parse(parts[1]), UUID.fromString(parts[2]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.plum.endorsements.api.controller;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.plum.endorsements.api.dto.EndorsementResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Bounded per-instance cache of create responses keyed by idempotency key, so a
+ * client retry is answered without a transaction or a database read. A miss
+ * falls through to {@code CreateEndorsementHandler}, which stays authoritative.
+ */
+@Component
+public class IdempotencyResponseCache {
+
+    private final Cache<String, EndorsementResponse> responses;
+
+    public IdempotencyResponseCache(
+            @Value("${endorsement.idempotency.response-cache-size:10000}") long maximumSize,
+            @Value("${endorsement.idempotency.response-cache-ttl:PT10M}") Duration timeToLive) {
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive)
+                .build();
+    }
+
+    public EndorsementResponse get(String idempotencyKey) {
+        return responses.getIfPresent(idempotencyKey);
+    }
+
+    public void put(String idempotencyKey, EndorsementResponse response) {
+        responses.put(idempotencyKey, response);
+    }
+}
@@ -0,0 +1,42 @@
+package com.plum.endorsements.api.controller;
+
+import com.plum.endorsements.api.dto.InsurerCallbackRequest;
+import com.plum.endorsements.api.dto.InsurerCallbackResponse;
+import com.plum.endorsements.application.handler.InsurerCallbackHandler;
+import com.plum.endorsements.domain.model.InsurerCallback;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Where insurers push batch and member outcomes. Requests reach this
+ * controller only once their signature has been checked; a 202 means the
+ * outcomes are stored and will be applied, so the insurer can stop retrying.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/insurers/{insurerId}/callbacks")
+@ConditionalOnProperty(name = "endorsement.insurer.callbacks.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class InsurerCallbackController {
+
+    private final InsurerCallbackHandler callbackHandler;
+
+    @PostMapping
+    public ResponseEntity<InsurerCallbackResponse> receive(@PathVariable UUID insurerId,
+                                                           @Valid @RequestBody InsurerCallbackRequest request) {
+        List<InsurerCallback> callbacks = request.toDomain(insurerId);
+        int queued = callbackHandler.accept(insurerId, callbacks);
+        return ResponseEntity.accepted().body(new InsurerCallbackResponse(callbacks.size(), queued));
+    }
+}
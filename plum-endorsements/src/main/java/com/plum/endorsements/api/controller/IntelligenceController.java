@@ -162,7 +162,7 @@ public class IntelligenceController {
 
     @PostMapping("/process-mining/analyze")
     public ResponseEntity<Void> triggerAnalysis() {
-        processMiningService.generateInsights();
+        processMiningService.analyze();
         return ResponseEntity.accepted().build();
     }
 
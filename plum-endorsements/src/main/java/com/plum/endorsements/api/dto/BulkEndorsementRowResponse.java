@@ -0,0 +1,26 @@
+package com.plum.endorsements.api.dto;
+
+import com.plum.endorsements.application.handler.BulkCreateEndorsementHandler.RowResult;
+
+import java.util.UUID;
+
+public record BulkEndorsementRowResponse(
+        int row,
+        String idempotencyKey,
+        UUID endorsementId,
+        String status,
+        String outcome,
+        String message
+) {
+
+    public static BulkEndorsementRowResponse from(RowResult result) {
+        return new BulkEndorsementRowResponse(
+                result.rowNumber(),
+                result.idempotencyKey(),
+                result.endorsementId(),
+                result.status() != null ? result.status().name() : null,
+                result.outcome().name(),
+                result.message()
+        );
+    }
+}
@@ -1,6 +1,8 @@
 package com.plum.endorsements.api.dto;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.plum.endorsements.domain.model.Endorsement;
+import com.plum.endorsements.domain.model.EndorsementType;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 
@@ -20,4 +22,24 @@ public record CreateEndorsementRequest(
         BigDecimal premiumAmount,
         String idempotencyKey
 ) {
+
+    public Endorsement toDomain() {
+        String key = idempotencyKey;
+        if (key == null || key.isBlank()) {
+            key = employerId + "-" + employeeId + "-" + type + "-" + coverageStartDate;
+        }
+
+        return Endorsement.builder()
+                .employerId(employerId)
+                .employeeId(employeeId)
+                .insurerId(insurerId)
+                .policyId(policyId)
+                .type(EndorsementType.valueOf(type))
+                .coverageStartDate(coverageStartDate)
+                .coverageEndDate(coverageEndDate)
+                .employeeData(employeeData)
+                .premiumAmount(premiumAmount)
+                .idempotencyKey(key)
+                .build();
+    }
 }
@@ -20,7 +20,7 @@ public record EAAccountResponse(
                 account.getEmployerId(),
                 account.getInsurerId(),
                 account.getBalance(),
-                account.getReserved(),
+                account.totalReserved(),
                 account.availableBalance(),
                 account.getUpdatedAt()
         );
@@ -0,0 +1,36 @@
+package com.plum.endorsements.api.dto;
+
+import com.plum.endorsements.domain.model.EALedgerSnapshot;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+public record EALedgerPositionResponse(
+        UUID employerId,
+        UUID insurerId,
+        Instant asOf,
+        BigDecimal balanceAfter,
+        long transactionCount,
+        BigDecimal debited,
+        BigDecimal credited,
+        BigDecimal reserved,
+        BigDecimal released,
+        BigDecimal toppedUp
+) {
+
+    public static EALedgerPositionResponse from(EALedgerSnapshot position) {
+        return new EALedgerPositionResponse(
+                position.employerId(),
+                position.insurerId(),
+                position.asOf(),
+                position.balanceAfter(),
+                position.transactionCount(),
+                position.debited(),
+                position.credited(),
+                position.reserved(),
+                position.released(),
+                position.toppedUp()
+        );
+    }
+}
@@ -0,0 +1,30 @@
+package com.plum.endorsements.api.dto;
+
+import com.plum.endorsements.domain.model.EATransaction;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+public record EATransactionResponse(
+        Long id,
+        UUID endorsementId,
+        String type,
+        BigDecimal amount,
+        BigDecimal balanceAfter,
+        String description,
+        Instant createdAt
+) {
+
+    public static EATransactionResponse from(EATransaction transaction) {
+        return new EATransactionResponse(
+                transaction.id(),
+                transaction.endorsementId(),
+                transaction.type().name(),
+                transaction.amount(),
+                transaction.balanceAfter(),
+                transaction.description(),
+                transaction.createdAt()
+        );
+    }
+}
@@ -0,0 +1,24 @@
+package com.plum.endorsements.api.dto;
+
+import com.plum.endorsements.domain.model.EndorsementSlice;
+
+import java.util.List;
+
+public record EndorsementSliceResponse(
+        List<EndorsementResponse> content,
+        int size,
+        String nextCursor,
+        boolean hasNext,
+        Long estimatedTotal
+) {
+
+    public static EndorsementSliceResponse from(EndorsementSlice slice, int size, String nextCursor) {
+        return new EndorsementSliceResponse(
+                slice.content().stream().map(EndorsementResponse::from).toList(),
+                size,
+                nextCursor,
+                slice.hasNext(),
+                slice.estimatedTotal()
+        );
+    }
+}
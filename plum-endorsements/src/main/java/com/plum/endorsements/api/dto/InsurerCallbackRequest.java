@@ -0,0 +1,52 @@
+package com.plum.endorsements.api.dto;
+
+import com.plum.endorsements.domain.model.InsurerCallback;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A callback from an insurer about one of its batches: the batch's status,
+ * its members' results, or both. Results always name the batch they belong
+ * to, so they are only applied to endorsements submitted in it. Field
+ * lengths are those of the callback inbox columns they are stored in.
+ */
+public record InsurerCallbackRequest(
+        @NotBlank @Size(max = 100) String batchReference,
+        @Size(max = 20) String status,
+        @Valid List<MemberResult> results
+) {
+
+    public record MemberResult(
+            @NotNull UUID endorsementId,
+            boolean confirmed,
+            @Size(max = 100) String insurerReference,
+            String rejectionReason
+    ) {
+    }
+
+    @AssertTrue(message = "a callback needs a batch status, member results, or both")
+    public boolean isComplete() {
+        return (status != null && !status.isBlank()) || (results != null && !results.isEmpty());
+    }
+
+    public List<InsurerCallback> toDomain(UUID insurerId) {
+        List<InsurerCallback> callbacks = new ArrayList<>(1 + (results != null ? results.size() : 0));
+        if (status != null && !status.isBlank()) {
+            callbacks.add(InsurerCallback.batch(insurerId, batchReference, status));
+        }
+        if (results != null) {
+            for (MemberResult result : results) {
+                callbacks.add(InsurerCallback.member(insurerId, batchReference, result.endorsementId(),
+                        result.confirmed(), result.insurerReference(), result.rejectionReason()));
+            }
+        }
+        return callbacks;
+    }
+}
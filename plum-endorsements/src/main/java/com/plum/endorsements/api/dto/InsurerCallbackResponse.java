@@ -0,0 +1,11 @@
+package com.plum.endorsements.api.dto;
+
+/**
+ * Acknowledges a stored callback: how many outcomes it carried and how many
+ * of those had not been received before.
+ */
+public record InsurerCallbackResponse(
+        int received,
+        int queued
+) {
+}
@@ -0,0 +1,17 @@
+package com.plum.endorsements.application.exception;
+
+/**
+ * An insurer call may have reached the insurer, but no answer came back, e.g.
+ * the request timed out after it was sent. Whatever was submitted may still
+ * be processed, so it must not simply be submitted again.
+ */
+public class InsurerOutcomeUnknownException extends RuntimeException {
+
+    public InsurerOutcomeUnknownException(String message) {
+        super(message);
+    }
+
+    public InsurerOutcomeUnknownException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,290 @@
+package com.plum.endorsements.application.handler;
+
+import com.plum.endorsements.application.service.AnomalyFeatureService;
+import com.plum.endorsements.application.service.EAReservationService;
+import com.plum.endorsements.domain.model.EATransaction;
+import com.plum.endorsements.domain.model.EATransaction.EATransactionType;
+import com.plum.endorsements.domain.model.Endorsement;
+import com.plum.endorsements.domain.model.EndorsementEvent;
+import com.plum.endorsements.domain.model.EndorsementStatus;
+import com.plum.endorsements.domain.model.EndorsementType;
+import com.plum.endorsements.domain.model.ProvisionalCoverage;
+import com.plum.endorsements.domain.model.StripedEAAccount;
+import com.plum.endorsements.domain.port.EAAccountRepository;
+import com.plum.endorsements.domain.port.EndorsementRepository;
+import com.plum.endorsements.domain.port.EventPublisher;
+import com.plum.endorsements.domain.port.ProvisionalCoverageRepository;
+import com.plum.endorsements.domain.service.EndorsementStateMachine;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Set-based counterpart of {@link CreateEndorsementHandler} for employer census
+ * uploads. Each chunk runs in one transaction: idempotency keys are resolved with
+ * a single query, rows are inserted with one JDBC batch, and every
+ * (employer, insurer) EA account and its stripes are locked once for the whole
+ * chunk.
+ */
+@Slf4j
+@Service
+public class BulkCreateEndorsementHandler {
+
+    private static final Comparator<AccountKey> ACCOUNT_LOCK_ORDER =
+            Comparator.comparing(AccountKey::employerId).thenComparing(AccountKey::insurerId);
+
+    private final EndorsementRepository endorsementRepository;
+    private final EAAccountRepository eaAccountRepository;
+    private final EAReservationService reservationService;
+    private final ProvisionalCoverageRepository provisionalCoverageRepository;
+    private final EndorsementStateMachine stateMachine;
+    private final EventPublisher eventPublisher;
+    private final AnomalyFeatureService anomalyFeatureService;
+    private final MeterRegistry meterRegistry;
+    private final boolean blockOnInsufficientBalance;
+
+    public BulkCreateEndorsementHandler(
+            EndorsementRepository endorsementRepository,
+            EAAccountRepository eaAccountRepository,
+            EAReservationService reservationService,
+            ProvisionalCoverageRepository provisionalCoverageRepository,
+            EndorsementStateMachine stateMachine,
+            EventPublisher eventPublisher,
+            AnomalyFeatureService anomalyFeatureService,
+            MeterRegistry meterRegistry,
+            @Value("${endorsement.ea.block-on-insufficient-balance:false}") boolean blockOnInsufficientBalance) {
+        this.endorsementRepository = endorsementRepository;
+        this.eaAccountRepository = eaAccountRepository;
+        this.reservationService = reservationService;
+        this.provisionalCoverageRepository = provisionalCoverageRepository;
+        this.stateMachine = stateMachine;
+        this.eventPublisher = eventPublisher;
+        this.anomalyFeatureService = anomalyFeatureService;
+        this.meterRegistry = meterRegistry;
+        this.blockOnInsufficientBalance = blockOnInsufficientBalance;
+    }
+
+    public record Row(int rowNumber, Endorsement endorsement) {
+    }
+
+    public enum Outcome {
+        CREATED, DUPLICATE, REJECTED, INVALID, FAILED
+    }
+
+    public record RowResult(int rowNumber, String idempotencyKey, UUID endorsementId,
+                            EndorsementStatus status, Outcome outcome, String message) {
+
+        public static RowResult invalid(int rowNumber, String message) {
+            return new RowResult(rowNumber, null, null, null, Outcome.INVALID, message);
+        }
+
+        public static RowResult failed(Row row, String message) {
+            return new RowResult(row.rowNumber(), row.endorsement().getIdempotencyKey(),
+                    null, null, Outcome.FAILED, message);
+        }
+    }
+
+    private record AccountKey(UUID employerId, UUID insurerId) {
+    }
+
+    /**
+     * Creates one chunk of endorsements and returns a result per input row, in
+     * input order.
+     */
+    @Transactional
+    public List<RowResult> handleChunk(List<Row> rows) {
+        RowResult[] results = new RowResult[rows.size()];
+
+        // 1. Resolve idempotency keys against the database in one query
+        Set<String> keys = new HashSet<>();
+        for (Row row : rows) {
+            keys.add(row.endorsement().getIdempotencyKey());
+        }
+        Map<String, UUID> existingIds = endorsementRepository.findIdsByIdempotencyKeys(keys);
+
+        // 2. Prepare new rows in memory through the synchronous states
+        Map<String, Integer> firstRowForKey = new HashMap<>();
+        List<Integer> pending = new ArrayList<>();
+        Instant now = Instant.now();
+        for (int i = 0; i < rows.size(); i++) {
+            Endorsement endorsement = rows.get(i).endorsement();
+            String key = endorsement.getIdempotencyKey();
+            UUID existingId = existingIds.get(key);
+            if (existingId != null) {
+                results[i] = result(rows.get(i), existingId, null, Outcome.DUPLICATE, "Idempotency key already used");
+                continue;
+            }
+            if (firstRowForKey.putIfAbsent(key, i) != null) {
+                continue;
+            }
+            endorsement.setId(UUID.randomUUID());
+            endorsement.setStatus(EndorsementStatus.CREATED);
+            endorsement.setCreatedAt(now);
+            endorsement.setUpdatedAt(now);
+            stateMachine.transition(endorsement, EndorsementStatus.VALIDATED);
+            stateMachine.transition(endorsement, EndorsementStatus.PROVISIONALLY_COVERED);
+            pending.add(i);
+        }
+
+        // 3. Lock each (employer, insurer) account once, in a fixed order so that
+        // concurrent uploads cannot deadlock, and decide which rows can be funded
+        Map<AccountKey, List<Integer>> addRowsByAccount = new TreeMap<>(ACCOUNT_LOCK_ORDER);
+        for (int i : pending) {
+            Endorsement endorsement = rows.get(i).endorsement();
+            if (endorsement.getType() == EndorsementType.ADD && endorsement.getPremiumAmount() != null) {
+                addRowsByAccount.computeIfAbsent(
+                        new AccountKey(endorsement.getEmployerId(), endorsement.getInsurerId()),
+                        k -> new ArrayList<>()).add(i);
+            }
+        }
+
+        Map<AccountKey, StripedEAAccount> accounts = new LinkedHashMap<>();
+        Set<Integer> funded = new HashSet<>();
+        for (Map.Entry<AccountKey, List<Integer>> group : addRowsByAccount.entrySet()) {
+            AccountKey accountKey = group.getKey();
+            Optional<StripedEAAccount> accountOpt = reservationService.lock(
+                    accountKey.employerId(), accountKey.insurerId());
+            if (accountOpt.isEmpty()) {
+                continue;
+            }
+            StripedEAAccount account = accountOpt.get();
+            accounts.put(accountKey, account);
+
+            BigDecimal available = account.availableBalance();
+            for (int i : group.getValue()) {
+                BigDecimal premium = rows.get(i).endorsement().getPremiumAmount();
+                if (available.compareTo(premium) >= 0) {
+                    available = available.subtract(premium);
+                    funded.add(i);
+                } else {
+                    meterRegistry.counter("endorsement.ea.reservation", "result", "insufficient").increment();
+                    if (blockOnInsufficientBalance) {
+                        results[i] = result(rows.get(i), null, null, Outcome.REJECTED,
+                                "Insufficient EA balance: available " + available + ", required " + premium);
+                    }
+                }
+            }
+        }
+        pending.removeIf(i -> results[i] != null);
+
+        // 4. One batched INSERT; keys that raced in since step 1 are skipped by the database
+        List<Endorsement> toInsert = pending.stream().map(i -> rows.get(i).endorsement()).toList();
+        List<Endorsement> inserted = endorsementRepository.insertAll(toInsert);
+        Set<UUID> insertedIds = new HashSet<>();
+        for (Endorsement endorsement : inserted) {
+            insertedIds.add(endorsement.getId());
+        }
+        anomalyFeatureService.recordCreated(inserted);
+        List<String> racedKeys = new ArrayList<>();
+        for (int i : pending) {
+            Endorsement endorsement = rows.get(i).endorsement();
+            if (!insertedIds.contains(endorsement.getId())) {
+                funded.remove(i);
+                racedKeys.add(endorsement.getIdempotencyKey());
+            }
+        }
+        Map<String, UUID> racedIds = endorsementRepository.findIdsByIdempotencyKeys(racedKeys);
+
+        // 5. Reserve funded rows and write coverages and ledger entries in bulk
+        List<ProvisionalCoverage> coverages = new ArrayList<>();
+        List<EATransaction> transactions = new ArrayList<>();
+        for (int i : pending) {
+            Endorsement endorsement = rows.get(i).endorsement();
+            if (!insertedIds.contains(endorsement.getId())) {
+                results[i] = result(rows.get(i), racedIds.get(endorsement.getIdempotencyKey()), null,
+                        Outcome.DUPLICATE, "Idempotency key already used");
+                continue;
+            }
+            if (endorsement.getType() == EndorsementType.ADD) {
+                coverages.add(ProvisionalCoverage.builder()
+                        .endorsementId(endorsement.getId())
+                        .employeeId(endorsement.getEmployeeId())
+                        .employerId(endorsement.getEmployerId())
+                        .coverageStart(endorsement.getCoverageStartDate())
+                        .createdAt(now)
+                        .build());
+            }
+            if (funded.contains(i)) {
+                StripedEAAccount account = accounts.get(
+                        new AccountKey(endorsement.getEmployerId(), endorsement.getInsurerId()));
+                int stripe = account.reserve(endorsement.getPremiumAmount());
+                transactions.add(new EATransaction(
+                        null,
+                        endorsement.getEmployerId(),
+                        endorsement.getInsurerId(),
+                        endorsement.getId(),
+                        EATransactionType.RESERVE,
+                        endorsement.getPremiumAmount(),
+                        account.availableBalance(),
+                        EAReservationService.reserveDescription(endorsement.getId(), stripe),
+                        now
+                ));
+                meterRegistry.counter("endorsement.ea.reservation", "result", "success").increment();
+            }
+            results[i] = result(rows.get(i), endorsement.getId(), endorsement.getStatus(), Outcome.CREATED, null);
+        }
+        provisionalCoverageRepository.saveAll(coverages);
+        eaAccountRepository.saveTransactions(transactions);
+        for (StripedEAAccount account : accounts.values()) {
+            reservationService.save(account);
+        }
+
+        // 6. Rows that repeated a key earlier in this chunk point at the first row's outcome
+        for (int i = 0; i < rows.size(); i++) {
+            if (results[i] == null) {
+                RowResult first = results[firstRowForKey.get(rows.get(i).endorsement().getIdempotencyKey())];
+                results[i] = result(rows.get(i), first.endorsementId(), null, Outcome.DUPLICATE,
+                        "Idempotency key repeated in upload");
+            }
+        }
+
+        // 7. Emit the same lifecycle events as the single-create path
+        for (int i = 0; i < rows.size(); i++) {
+            if (results[i].outcome() == Outcome.CREATED) {
+                Endorsement endorsement = rows.get(i).endorsement();
+                publishCreationEvents(endorsement);
+                meterRegistry.counter("endorsement.created", "type", endorsement.getType().name()).increment();
+            }
+            meterRegistry.counter("endorsement.bulk.rows", "outcome", results[i].outcome().name()).increment();
+        }
+
+        log.info("Bulk chunk processed: {} rows, {} created, {} accounts locked",
+                rows.size(), insertedIds.size(), accounts.size());
+        return Arrays.asList(results);
+    }
+
+    private void publishCreationEvents(Endorsement endorsement) {
+        Instant occurredAt = Instant.now();
+        eventPublisher.publish(new EndorsementEvent.Created(
+                endorsement.getId(), occurredAt, endorsement.getEmployerId(),
+                endorsement.getEmployeeId(), endorsement.getType()));
+        eventPublisher.publish(new EndorsementEvent.Validated(
+                endorsement.getId(), occurredAt, endorsement.getEmployerId()));
+        eventPublisher.publish(new EndorsementEvent.ProvisionalCoverageGranted(
+                endorsement.getId(), occurredAt, endorsement.getEmployerId(),
+                endorsement.getEmployeeId(), endorsement.getCoverageStartDate()));
+    }
+
+    private RowResult result(Row row, UUID endorsementId, EndorsementStatus status,
+                             Outcome outcome, String message) {
+        return new RowResult(row.rowNumber(), row.endorsement().getIdempotencyKey(),
+                endorsementId, status, outcome, message);
+    }
+}
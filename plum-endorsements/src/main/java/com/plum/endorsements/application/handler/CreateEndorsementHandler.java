@@ -1,15 +1,14 @@
 package com.plum.endorsements.application.handler;
 
 import com.plum.endorsements.application.exception.InsufficientBalanceException;
-import com.plum.endorsements.domain.model.EAAccount;
-import com.plum.endorsements.domain.model.EATransaction;
-import com.plum.endorsements.domain.model.EATransaction.EATransactionType;
+import com.plum.endorsements.application.service.AnomalyFeatureService;
+import com.plum.endorsements.application.service.EAReservationService;
+import com.plum.endorsements.application.service.EAReservationService.ReservationResult;
 import com.plum.endorsements.domain.model.Endorsement;
 import com.plum.endorsements.domain.model.EndorsementEvent;
 import com.plum.endorsements.domain.model.EndorsementStatus;
 import com.plum.endorsements.domain.model.EndorsementType;
 import com.plum.endorsements.domain.model.ProvisionalCoverage;
-import com.plum.endorsements.domain.port.EAAccountRepository;
 import com.plum.endorsements.domain.port.EndorsementRepository;
 import com.plum.endorsements.domain.port.EventPublisher;
 import com.plum.endorsements.domain.port.ProvisionalCoverageRepository;
@@ -24,6 +23,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -33,57 +33,85 @@ import java.util.UUID;
 public class CreateEndorsementHandler {
 
     private final EndorsementRepository endorsementRepository;
-    private final EAAccountRepository eaAccountRepository;
+    private final RecentIdempotencyKeys recentKeys;
+    private final EAReservationService reservationService;
     private final ProvisionalCoverageRepository provisionalCoverageRepository;
     private final EndorsementStateMachine stateMachine;
     private final EABalanceCalculator balanceCalculator;
     private final EventPublisher eventPublisher;
+    private final AnomalyFeatureService anomalyFeatureService;
     private final MeterRegistry meterRegistry;
     private final boolean blockOnInsufficientBalance;
 
     public CreateEndorsementHandler(
             EndorsementRepository endorsementRepository,
-            EAAccountRepository eaAccountRepository,
+            RecentIdempotencyKeys recentKeys,
+            EAReservationService reservationService,
             ProvisionalCoverageRepository provisionalCoverageRepository,
             EndorsementStateMachine stateMachine,
             EABalanceCalculator balanceCalculator,
             EventPublisher eventPublisher,
+            AnomalyFeatureService anomalyFeatureService,
             MeterRegistry meterRegistry,
             @Value("${endorsement.ea.block-on-insufficient-balance:false}") boolean blockOnInsufficientBalance) {
         this.endorsementRepository = endorsementRepository;
-        this.eaAccountRepository = eaAccountRepository;
+        this.recentKeys = recentKeys;
+        this.reservationService = reservationService;
         this.provisionalCoverageRepository = provisionalCoverageRepository;
         this.stateMachine = stateMachine;
         this.balanceCalculator = balanceCalculator;
         this.eventPublisher = eventPublisher;
+        this.anomalyFeatureService = anomalyFeatureService;
         this.meterRegistry = meterRegistry;
         this.blockOnInsufficientBalance = blockOnInsufficientBalance;
     }
 
     public Endorsement handle(Endorsement endorsement) {
         try {
-            // 1. Check idempotency
-            Optional<Endorsement> existing = endorsementRepository.findByIdempotencyKey(endorsement.getIdempotencyKey());
-            if (existing.isPresent()) {
-                log.info("Duplicate endorsement detected for idempotency key: {}", endorsement.getIdempotencyKey());
-                return existing.get();
+            // 1. Check idempotency. Only keys this instance created recently are
+            // looked up first; new keys go straight to the conflict-free INSERT
+            String idempotencyKey = endorsement.getIdempotencyKey();
+            if (recentKeys.mightContain(idempotencyKey)) {
+                Optional<Endorsement> existing = endorsementRepository.findByIdempotencyKey(idempotencyKey);
+                if (existing.isPresent()) {
+                    log.info("Duplicate endorsement detected for idempotency key: {}", idempotencyKey);
+                    meterRegistry.counter("endorsement.idempotency.replay", "source", "recent_key").increment();
+                    return existing.get();
+                }
             }
 
             // 2. Set initial status and timestamps
+            endorsement.setId(UUID.randomUUID());
             endorsement.setStatus(EndorsementStatus.CREATED);
             Instant now = Instant.now();
             endorsement.setCreatedAt(now);
             endorsement.setUpdatedAt(now);
 
-            // 3. Save the endorsement
-            endorsement = endorsementRepository.save(endorsement);
+            // 3. Advance through the synchronous states in memory so the row is
+            // written once in its final state instead of once per transition
+            stateMachine.transition(endorsement, EndorsementStatus.VALIDATED);
+            stateMachine.transition(endorsement, EndorsementStatus.PROVISIONALLY_COVERED);
+
+            // 4. Single INSERT ... ON CONFLICT DO NOTHING of the PROVISIONALLY_COVERED
+            // row; an empty result means another request already holds the key
+            Optional<Endorsement> inserted = endorsementRepository.insertIfAbsent(endorsement);
+            if (inserted.isEmpty()) {
+                log.info("Duplicate endorsement detected on insert for idempotency key: {}", idempotencyKey);
+                meterRegistry.counter("endorsement.idempotency.replay", "source", "conflict").increment();
+                return endorsementRepository.findByIdempotencyKey(idempotencyKey)
+                        .orElseThrow(() -> new IllegalStateException(
+                                "Idempotency key conflicted but no endorsement found: " + idempotencyKey));
+            }
+            endorsement = inserted.get();
+            recentKeys.add(idempotencyKey);
+            anomalyFeatureService.recordCreated(List.of(endorsement));
             MDC.put("endorsementId", endorsement.getId().toString());
             MDC.put("employerId", endorsement.getEmployerId().toString());
             meterRegistry.counter("endorsement.created", "type", endorsement.getType().name()).increment();
             log.info("Created endorsement {} for employer {} employee {}",
                     endorsement.getId(), endorsement.getEmployerId(), endorsement.getEmployeeId());
 
-            // 4. Publish Created event
+            // 5-7. Publish Created and Validated events
             eventPublisher.publish(new EndorsementEvent.Created(
                     endorsement.getId(),
                     Instant.now(),
@@ -91,20 +119,12 @@ public class CreateEndorsementHandler {
                     endorsement.getEmployeeId(),
                     endorsement.getType()
             ));
-
-            // 5. Validate - transition to VALIDATED
-            stateMachine.transition(endorsement, EndorsementStatus.VALIDATED);
-
-            // 6. Save after validation
-            endorsement = endorsementRepository.save(endorsement);
-            log.info("Endorsement {} validated", endorsement.getId());
-
-            // 7. Publish Validated event
             eventPublisher.publish(new EndorsementEvent.Validated(
                     endorsement.getId(),
                     Instant.now(),
                     endorsement.getEmployerId()
             ));
+            log.info("Endorsement {} validated", endorsement.getId());
 
             // 8-9. Grant provisional coverage
             if (endorsement.getType() == EndorsementType.ADD) {
@@ -119,10 +139,6 @@ public class CreateEndorsementHandler {
                 log.info("Provisional coverage granted for endorsement {}", endorsement.getId());
             }
 
-            // Transition to PROVISIONALLY_COVERED for all types
-            stateMachine.transition(endorsement, EndorsementStatus.PROVISIONALLY_COVERED);
-            endorsement = endorsementRepository.save(endorsement);
-
             // Publish ProvisionalCoverageGranted event
             eventPublisher.publish(new EndorsementEvent.ProvisionalCoverageGranted(
                     endorsement.getId(),
@@ -132,43 +148,30 @@ public class CreateEndorsementHandler {
                     endorsement.getCoverageStartDate()
             ));
 
-            // 10. Check EA balance for ADD type
+            // 10. Reserve EA balance for ADD type
             if (endorsement.getType() == EndorsementType.ADD) {
-                Optional<EAAccount> accountOpt = eaAccountRepository.findByEmployerIdAndInsurerIdForUpdate(
-                        endorsement.getEmployerId(), endorsement.getInsurerId());
-
-                if (accountOpt.isPresent()) {
-                    EAAccount account = accountOpt.get();
-                    if (account.canFund(endorsement.getPremiumAmount())) {
-                        account.reserve(endorsement.getPremiumAmount());
-                        eaAccountRepository.save(account);
+                ReservationResult reservation = reservationService.reserve(
+                        endorsement.getEmployerId(), endorsement.getInsurerId(),
+                        endorsement.getId(), endorsement.getPremiumAmount());
 
-                        EATransaction reserveTransaction = new EATransaction(
-                                null,
-                                endorsement.getEmployerId(),
-                                endorsement.getInsurerId(),
-                                endorsement.getId(),
-                                EATransactionType.RESERVE,
-                                endorsement.getPremiumAmount(),
-                                account.availableBalance(),
-                                "Reserved for endorsement " + endorsement.getId(),
-                                Instant.now()
-                        );
-                        eaAccountRepository.saveTransaction(reserveTransaction);
+                switch (reservation.outcome()) {
+                    case RESERVED -> {
                         meterRegistry.counter("endorsement.ea.reservation", "result", "success").increment();
                         log.info("Reserved {} for endorsement {} from EA account",
                                 endorsement.getPremiumAmount(), endorsement.getId());
-                    } else {
+                    }
+                    case INSUFFICIENT -> {
                         meterRegistry.counter("endorsement.ea.reservation", "result", "insufficient").increment();
                         if (blockOnInsufficientBalance) {
                             log.warn("Blocking endorsement {} due to insufficient EA balance", endorsement.getId());
                             throw new InsufficientBalanceException(
                                     endorsement.getEmployerId(),
                                     endorsement.getPremiumAmount(),
-                                    account.availableBalance());
+                                    reservation.availableBalance());
                         }
                         log.warn("Insufficient EA balance for endorsement {} (non-blocking)", endorsement.getId());
                     }
+                    case NO_ACCOUNT -> { }
                 }
             }
 
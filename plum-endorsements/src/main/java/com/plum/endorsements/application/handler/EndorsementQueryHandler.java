@@ -6,6 +6,7 @@ import com.plum.endorsements.domain.model.*;
 import com.plum.endorsements.domain.port.*;
 import com.plum.endorsements.domain.service.InsurerRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -27,6 +28,9 @@ public class EndorsementQueryHandler {
     private final InsurerRegistry insurerRegistry;
     private final ReconciliationRepository reconciliationRepository;
 
+    @Value("${endorsement.pagination.exact-count-threshold:10000}")
+    private long exactCountThreshold;
+
     public Endorsement findById(UUID id) {
         return endorsementRepository.findById(id)
                 .orElseThrow(() -> new EndorsementNotFoundException(id));
@@ -42,17 +46,39 @@ public class EndorsementQueryHandler {
     }
 
     public Page<Endorsement> findOutstandingByEmployerId(UUID employerId, Pageable pageable) {
-        List<EndorsementStatus> outstandingStatuses = List.of(
-                EndorsementStatus.CREATED,
-                EndorsementStatus.VALIDATED,
-                EndorsementStatus.PROVISIONALLY_COVERED,
-                EndorsementStatus.SUBMITTED_REALTIME,
-                EndorsementStatus.QUEUED_FOR_BATCH,
-                EndorsementStatus.BATCH_SUBMITTED,
-                EndorsementStatus.INSURER_PROCESSING,
-                EndorsementStatus.RETRY_PENDING
-        );
-        return endorsementRepository.findByEmployerIdAndStatusIn(employerId, outstandingStatuses, pageable);
+        return endorsementRepository.findByEmployerIdAndStatusIn(employerId, EndorsementStatus.outstanding(), pageable);
+    }
+
+    /**
+     * Keyset page of an employer's endorsements, newest first. Reads one row
+     * beyond {@code size} to learn whether another page exists, so no count is
+     * needed to paginate; {@code includeTotal} adds an estimated total.
+     */
+    public EndorsementSlice findSliceByEmployerId(UUID employerId, List<EndorsementStatus> statuses,
+                                                  EndorsementCursor after, int size, boolean includeTotal) {
+        List<Endorsement> rows = endorsementRepository.findPageByEmployerId(employerId, statuses, after, size + 1);
+        boolean hasNext = rows.size() > size;
+        List<Endorsement> content = hasNext ? rows.subList(0, size) : rows;
+        EndorsementCursor next = hasNext ? EndorsementCursor.of(content.get(size - 1)) : null;
+        Long total = includeTotal ? estimateTotal(employerId, statuses) : null;
+        return new EndorsementSlice(content, next, total);
+    }
+
+    public EndorsementSlice findOutstandingSliceByEmployerId(UUID employerId, EndorsementCursor after,
+                                                             int size, boolean includeTotal) {
+        return findSliceByEmployerId(employerId, EndorsementStatus.outstanding(), after, size, includeTotal);
+    }
+
+    /**
+     * Uses the planner estimate for large result sets and an exact count below
+     * the threshold, where counting is cheap and estimates are least accurate.
+     */
+    private long estimateTotal(UUID employerId, List<EndorsementStatus> statuses) {
+        long estimate = endorsementRepository.estimateCountByEmployerId(employerId, statuses);
+        if (estimate < exactCountThreshold) {
+            return endorsementRepository.countByEmployerIdAndStatusIn(employerId, statuses);
+        }
+        return estimate;
     }
 
     public Page<EndorsementBatch> findBatchesByEmployerId(UUID employerId, Pageable pageable) {
@@ -0,0 +1,350 @@
+package com.plum.endorsements.application.handler;
+
+import com.plum.endorsements.domain.model.BatchStatus;
+import com.plum.endorsements.domain.model.Endorsement;
+import com.plum.endorsements.domain.model.EndorsementBatch;
+import com.plum.endorsements.domain.model.EndorsementStatus;
+import com.plum.endorsements.domain.model.InsurerCallback;
+import com.plum.endorsements.domain.port.BatchRepository;
+import com.plum.endorsements.domain.port.EndorsementRepository;
+import com.plum.endorsements.domain.port.InsurerCallbackInbox;
+import com.plum.endorsements.domain.port.InsurerPort;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Takes in what insurers push instead of waiting for the batch poller to ask.
+ *
+ * <p>{@link #accept} only stores a callback's outcomes in the
+ * {@link InsurerCallbackInbox}, dropping ones already received, so the
+ * insurer is acknowledged quickly and nothing acknowledged is lost.
+ * {@link #applyPending} later applies the stored outcomes in arrival order,
+ * a chunk at a time in one transaction: the batches named with one lookup
+ * per insurer, member results with all confirmations in the chunk as one
+ * set, then batch statuses. A COMPLETED status closes a batch only once none
+ * of its members are still waiting; otherwise the poller is asked to fetch
+ * the missing results, for a micro-batch once the micro-batcher has handed
+ * it over. If a chunk fails, its
+ * outcomes are retried one by one so a bad one cannot hold up the rest; an
+ * outcome that fails {@code max-attempts} times is set aside.</p>
+ *
+ * <p>An outcome can overtake the saving of the insurer's reference for its
+ * batch, so one naming a batch not on record yet is left pending and tried
+ * again every {@code unknown-batch-retry-ms}. It is set aside once it is
+ * {@code unknown-batch-max-age-ms} old.</p>
+ *
+ * <p>Outcomes that no longer apply are skipped rather than failed: statuses
+ * for batches that are closed, and results for endorsements no longer
+ * waiting on the batch, e.g. because the poller got there first.
+ * A batch status is only written while the batch is still open, so a poll
+ * settling it at the same time cannot be overwritten, nor overwrite it.
+ * A member result only applies to an endorsement of the signing insurer
+ * that was submitted in the batch it names.</p>
+ */
+@Slf4j
+@Component
+public class InsurerCallbackHandler {
+
+    private static final String COMPLETED = "COMPLETED";
+    private static final String FAILED = "FAILED";
+    private static final String PROCESSING = "PROCESSING";
+
+    // Where an endorsement waits on a batch it was submitted in
+    private static final Set<EndorsementStatus> BATCH_AWAITING =
+            EnumSet.of(EndorsementStatus.BATCH_SUBMITTED, EndorsementStatus.INSURER_PROCESSING);
+
+    private final InsurerCallbackInbox inbox;
+    private final BatchRepository batchRepository;
+    private final EndorsementRepository endorsementRepository;
+    private final ProcessEndorsementHandler processHandler;
+    private final TransactionTemplate transaction;
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final Duration unknownBatchRetry;
+    private final Duration unknownBatchMaxAge;
+
+    public InsurerCallbackHandler(InsurerCallbackInbox inbox,
+                                  BatchRepository batchRepository,
+                                  EndorsementRepository endorsementRepository,
+                                  ProcessEndorsementHandler processHandler,
+                                  PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${endorsement.insurer.callbacks.max-attempts:5}") int maxAttempts,
+                                  @Value("${endorsement.insurer.callbacks.unknown-batch-retry-ms:30000}")
+                                  long unknownBatchRetryMs,
+                                  @Value("${endorsement.insurer.callbacks.unknown-batch-max-age-ms:3600000}")
+                                  long unknownBatchMaxAgeMs) {
+        this.inbox = inbox;
+        this.batchRepository = batchRepository;
+        this.endorsementRepository = endorsementRepository;
+        this.processHandler = processHandler;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = maxAttempts;
+        this.unknownBatchRetry = Duration.ofMillis(unknownBatchRetryMs);
+        this.unknownBatchMaxAge = Duration.ofMillis(unknownBatchMaxAgeMs);
+    }
+
+    /**
+     * Stores a callback's outcomes for {@link #applyPending}. Returns how many
+     * were new; the rest had been received before.
+     */
+    public int accept(UUID insurerId, List<InsurerCallback> callbacks) {
+        int queued = inbox.enqueue(callbacks, Instant.now());
+        String insurerTag = insurerId.toString();
+        meterRegistry.counter("endorsement.insurer.callback.received", "insurerId", insurerTag)
+                .increment(callbacks.size());
+        meterRegistry.counter("endorsement.insurer.callback.duplicate", "insurerId", insurerTag)
+                .increment(callbacks.size() - queued);
+        log.debug("Queued {} of {} callback outcomes from insurer {}", queued, callbacks.size(), insurerId);
+        return queued;
+    }
+
+    /**
+     * Applies up to {@code limit} stored outcomes and returns how many were
+     * taken off the queue, applied, deferred or set aside.
+     */
+    public int applyPending(int limit) {
+        List<InsurerCallback> pending = inbox.findPending(limit);
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        try {
+            transaction.executeWithoutResult(status -> applyAndMark(pending));
+            meterRegistry.counter("endorsement.insurer.callback.applied").increment(pending.size());
+            return pending.size();
+        } catch (RuntimeException e) {
+            log.warn("Applying {} callback outcomes together failed, applying one at a time: {}",
+                    pending.size(), e.getMessage());
+        }
+
+        int done = 0;
+        for (InsurerCallback callback : pending) {
+            try {
+                transaction.executeWithoutResult(status -> applyAndMark(List.of(callback)));
+                meterRegistry.counter("endorsement.insurer.callback.applied").increment();
+                done++;
+            } catch (RuntimeException e) {
+                if (inbox.markFailed(callback.id(), String.valueOf(e.getMessage()), maxAttempts, Instant.now())) {
+                    meterRegistry.counter("endorsement.insurer.callback.abandoned").increment();
+                    log.error("Gave up on callback outcome {} ({} {} {}) after {} attempts: {}", callback.id(),
+                            callback.kind(), callback.reference(), callback.status(), maxAttempts, e.getMessage());
+                    done++;
+                } else {
+                    log.warn("Callback outcome {} failed, will retry: {}", callback.id(), e.getMessage());
+                }
+            }
+        }
+        return done;
+    }
+
+    private void applyAndMark(List<InsurerCallback> callbacks) {
+        Map<UUID, Map<String, EndorsementBatch>> batches = findBatches(callbacks);
+        List<InsurerCallback> known = new ArrayList<>();
+        List<InsurerCallback> unknown = new ArrayList<>();
+        for (InsurerCallback callback : callbacks) {
+            if (batchFor(callback, batches) != null) {
+                known.add(callback);
+            } else {
+                unknown.add(callback);
+            }
+        }
+        // Members first, so a COMPLETED status can see whether any are still waiting
+        applyMemberResults(known, batches);
+        applyBatchStatuses(known, batches);
+        Instant now = Instant.now();
+        inbox.markApplied(known.stream().map(InsurerCallback::id).toList(), now);
+        deferUnknown(unknown, now);
+    }
+
+    /**
+     * Leaves outcomes for batches not on record yet to be tried again, giving
+     * up on the ones that have waited {@code unknown-batch-max-age-ms}.
+     */
+    private void deferUnknown(List<InsurerCallback> unknown, Instant now) {
+        if (unknown.isEmpty()) {
+            return;
+        }
+        int expired = inbox.defer(unknown.stream().map(InsurerCallback::id).toList(), "Unknown batch",
+                now.plus(unknownBatchRetry), now.minus(unknownBatchMaxAge), now);
+        outcome("deferred", unknown.size() - expired);
+        outcome("unknown_batch", expired);
+        if (expired > 0) {
+            log.warn("Gave up on {} callback outcomes naming batches still unknown after {}",
+                    expired, unknownBatchMaxAge);
+        }
+    }
+
+    /** The batches the callbacks name, by insurer and then insurer batch reference. */
+    private Map<UUID, Map<String, EndorsementBatch>> findBatches(List<InsurerCallback> callbacks) {
+        Map<UUID, Set<String>> refsByInsurer = new LinkedHashMap<>();
+        for (InsurerCallback callback : callbacks) {
+            if (callback.batchReference() != null && !callback.batchReference().isBlank()) {
+                refsByInsurer.computeIfAbsent(callback.insurerId(), id -> new HashSet<>())
+                        .add(callback.batchReference());
+            }
+        }
+        Map<UUID, Map<String, EndorsementBatch>> batches = new HashMap<>();
+        refsByInsurer.forEach((insurerId, refs) -> batches.put(insurerId,
+                batchRepository.findByInsurerBatchRefs(insurerId, refs).stream()
+                        .collect(Collectors.toMap(EndorsementBatch::getInsurerBatchRef, Function.identity()))));
+        return batches;
+    }
+
+    private static EndorsementBatch batchFor(InsurerCallback callback,
+                                             Map<UUID, Map<String, EndorsementBatch>> batches) {
+        return batches.getOrDefault(callback.insurerId(), Map.of()).get(callback.batchReference());
+    }
+
+    private void applyBatchStatuses(List<InsurerCallback> callbacks,
+                                    Map<UUID, Map<String, EndorsementBatch>> batches) {
+        Map<EndorsementBatch, Integer> changed = new LinkedHashMap<>();
+        // In arrival order, so PROCESSING then COMPLETED ends COMPLETED
+        for (InsurerCallback callback : callbacks) {
+            if (callback.kind() != InsurerCallback.Kind.BATCH) {
+                continue;
+            }
+            EndorsementBatch batch = batchFor(callback, batches);
+            if (applyBatchStatus(batch, callback.status())) {
+                changed.merge(batch, 1, Integer::sum);
+            } else {
+                outcome("skipped");
+            }
+        }
+        changed.forEach((batch, count) -> {
+            if (batchRepository.transition(batch.getId(), BatchStatus.OPEN, batch.getStatus(),
+                    batch.getNextPollAt(), batch.getPollCount())) {
+                outcome("applied", count);
+            } else {
+                outcome("superseded", count);
+                log.info("Batch {} was settled by a poll meanwhile, dropping its callback status", batch.getId());
+            }
+        });
+    }
+
+    private boolean applyBatchStatus(EndorsementBatch batch, String status) {
+        if (!BatchStatus.OPEN.contains(batch.getStatus())) {
+            return false;
+        }
+        switch (status) {
+            case COMPLETED -> {
+                if (hasMembersAwaitingInsurer(batch)) {
+                    // Results did not come with the status; have the poller fetch them now,
+                    // unless the micro-batcher is still polling the batch itself
+                    Instant now = Instant.now();
+                    batch.setStatus(BatchStatus.PROCESSING);
+                    batch.setPollCount(0);
+                    if (!batch.isMicroBatch() || batch.getNextPollAt() == null || batch.getNextPollAt().isBefore(now)) {
+                        batch.setNextPollAt(now);
+                    }
+                    log.info("Batch {} completed at insurer without all results, polling for them", batch.getId());
+                    return true;
+                }
+                batch.setStatus(BatchStatus.COMPLETE);
+                batch.setNextPollAt(null);
+                log.info("Batch {} COMPLETED at insurer, reported by callback", batch.getId());
+                return true;
+            }
+            case FAILED -> {
+                batch.setStatus(BatchStatus.FAILED);
+                batch.setNextPollAt(null);
+                log.info("Batch {} FAILED at insurer, reported by callback", batch.getId());
+                return true;
+            }
+            case PROCESSING -> {
+                if (batch.getStatus() == BatchStatus.PROCESSING) {
+                    return false;
+                }
+                batch.setStatus(BatchStatus.PROCESSING);
+                return true;
+            }
+            default -> {
+                log.debug("Ignoring batch {} status {} from callback", batch.getId(), status);
+                return false;
+            }
+        }
+    }
+
+    private boolean hasMembersAwaitingInsurer(EndorsementBatch batch) {
+        return endorsementRepository.findByBatchId(batch.getId()).stream()
+                .anyMatch(e -> e.getStatus().requiresInsurerAction());
+    }
+
+    /**
+     * Applies member results only to endorsements of the signing insurer that
+     * were submitted in the named batch and are still waiting on it. Anything
+     * else is skipped: another insurer's endorsements, ones from a different
+     * batch, and ones settled already or never batch-submitted.
+     */
+    private void applyMemberResults(List<InsurerCallback> callbacks,
+                                    Map<UUID, Map<String, EndorsementBatch>> batches) {
+        List<InsurerCallback> members = callbacks.stream()
+                .filter(callback -> callback.kind() == InsurerCallback.Kind.MEMBER)
+                .toList();
+        if (members.isEmpty()) {
+            return;
+        }
+        Map<UUID, Endorsement> endorsements = endorsementRepository
+                .findAllById(members.stream().map(InsurerCallback::endorsementId).distinct().toList()).stream()
+                .collect(Collectors.toMap(Endorsement::getId, Function.identity()));
+
+        List<InsurerPort.EndorsementResult> confirmations = new ArrayList<>();
+        List<InsurerCallback> rejections = new ArrayList<>();
+        Set<UUID> taken = new HashSet<>();
+        for (InsurerCallback callback : members) {
+            EndorsementBatch batch = batchFor(callback, batches);
+            Endorsement endorsement = endorsements.get(callback.endorsementId());
+            if (endorsement == null || !callback.insurerId().equals(endorsement.getInsurerId())
+                    || !batch.getId().equals(endorsement.getBatchId())) {
+                outcome("foreign");
+                log.warn("Insurer {} sent a result for endorsement {}, which is not in its batch {}",
+                        callback.insurerId(), callback.endorsementId(), callback.batchReference());
+            } else if (!BATCH_AWAITING.contains(endorsement.getStatus()) || !taken.add(endorsement.getId())) {
+                outcome("skipped");
+            } else if (callback.confirmed()) {
+                confirmations.add(new InsurerPort.EndorsementResult(
+                        callback.endorsementId(), true, callback.insurerReference(), null));
+            } else {
+                rejections.add(callback);
+            }
+        }
+
+        if (!confirmations.isEmpty()) {
+            int confirmed = processHandler.handleConfirmations(confirmations);
+            outcome("applied", confirmed);
+            outcome("skipped", confirmations.size() - confirmed);
+        }
+        for (InsurerCallback rejection : rejections) {
+            processHandler.handleRejection(rejection.endorsementId(), rejection.reason());
+            outcome("applied");
+        }
+    }
+
+    private void outcome(String result) {
+        outcome(result, 1);
+    }
+
+    private void outcome(String result, int count) {
+        if (count > 0) {
+            meterRegistry.counter("endorsement.insurer.callback.outcome", "result", result).increment(count);
+        }
+    }
+}
@@ -1,10 +1,13 @@
 package com.plum.endorsements.application.handler;
 
 import com.plum.endorsements.application.exception.EndorsementNotFoundException;
+import com.plum.endorsements.application.exception.InsurerOutcomeUnknownException;
+import com.plum.endorsements.application.service.EndorsementTransitionService;
 import com.plum.endorsements.application.service.ErrorResolutionService;
 import com.plum.endorsements.domain.model.Endorsement;
 import com.plum.endorsements.domain.model.EndorsementEvent;
 import com.plum.endorsements.domain.model.EndorsementStatus;
+import com.plum.endorsements.domain.model.EndorsementTransition;
 import com.plum.endorsements.domain.model.ProvisionalCoverage;
 import com.plum.endorsements.domain.port.EAAccountRepository;
 import com.plum.endorsements.domain.port.EndorsementRepository;
@@ -18,136 +21,263 @@ import com.plum.endorsements.domain.service.EndorsementStateMachine;
 import com.plum.endorsements.infrastructure.insurer.InsurerRouter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.MDC;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
+/**
+ * Moves endorsements through insurer submission and applies the insurer's
+ * answers.
+ *
+ * <p>Real-time submission never holds a database connection while the
+ * insurer is called: {@link #submitToInsurer} claims the endorsement in one
+ * short transaction, calls the insurer with none open, and applies the
+ * outcome in a second short transaction. Slow insurers therefore tie up
+ * request threads, not the connection pool.</p>
+ */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class ProcessEndorsementHandler {
 
     private final EndorsementRepository endorsementRepository;
     private final EndorsementStateMachine stateMachine;
+    private final EndorsementTransitionService transitionService;
     private final InsurerRouter insurerRouter;
     private final EventPublisher eventPublisher;
     private final NotificationPort notificationPort;
     private final ProvisionalCoverageRepository provisionalCoverageRepository;
     private final EAAccountRepository eaAccountRepository;
     private final ErrorResolutionService errorResolutionService;
+    private final TransactionTemplate transaction;
     private final MeterRegistry meterRegistry;
 
-    @Transactional
+    public ProcessEndorsementHandler(EndorsementRepository endorsementRepository,
+                                     EndorsementStateMachine stateMachine,
+                                     EndorsementTransitionService transitionService,
+                                     InsurerRouter insurerRouter,
+                                     EventPublisher eventPublisher,
+                                     NotificationPort notificationPort,
+                                     ProvisionalCoverageRepository provisionalCoverageRepository,
+                                     EAAccountRepository eaAccountRepository,
+                                     ErrorResolutionService errorResolutionService,
+                                     PlatformTransactionManager transactionManager,
+                                     MeterRegistry meterRegistry) {
+        this.endorsementRepository = endorsementRepository;
+        this.stateMachine = stateMachine;
+        this.transitionService = transitionService;
+        this.insurerRouter = insurerRouter;
+        this.eventPublisher = eventPublisher;
+        this.notificationPort = notificationPort;
+        this.provisionalCoverageRepository = provisionalCoverageRepository;
+        this.eaAccountRepository = eaAccountRepository;
+        this.errorResolutionService = errorResolutionService;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Submits an endorsement to its insurer, or queues it for the next batch
+     * when the insurer only takes batches.
+     *
+     * <ol>
+     *   <li>Claim: a short transaction moves the endorsement to
+     *   SUBMITTED_REALTIME with a conditional, versioned UPDATE. A caller that
+     *   loses the race to another submission finds it moved and stops.</li>
+     *   <li>Call: the insurer is called with no transaction open.</li>
+     *   <li>Apply: a second short transaction records the outcome, provided
+     *   the endorsement still has the version the claim wrote. If anything
+     *   else changed it meanwhile, e.g. a manual confirmation, that change
+     *   wins and the outcome is dropped.</li>
+     * </ol>
+     *
+     * <p>If the call throws, the exception is rethrown. When the request
+     * never reached the insurer, the claim is first released as a rejection
+     * with a retry, so the endorsement is not left in SUBMITTED_REALTIME. When
+     * it may have, an {@link InsurerOutcomeUnknownException} such as a
+     * timeout, the endorsement stays SUBMITTED_REALTIME rather than risk a
+     * second submission, for the batch poller or reconciliation to settle.
+     * Callers must not hold a transaction of their own, or the connection is
+     * held across the call after all.</p>
+     */
     public void submitToInsurer(UUID endorsementId) {
         try {
-            Endorsement endorsement = endorsementRepository.findById(endorsementId)
-                    .orElseThrow(() -> new EndorsementNotFoundException(endorsementId));
+            Claim claim = transaction.execute(status -> claim(endorsementId));
+            if (claim == null) {
+                return;
+            }
 
-            MDC.put("endorsementId", endorsementId.toString());
-            MDC.put("employerId", endorsement.getEmployerId().toString());
+            Timer.Sample sample = Timer.start(meterRegistry);
+            SubmissionResult result;
+            try {
+                result = claim.insurerPort().submitRealTime(
+                        endorsementId, Map.of("endorsementId", endorsementId.toString()));
+            } catch (InsurerOutcomeUnknownException e) {
+                log.warn("Insurer call for endorsement {} may have reached the insurer, leaving it {}: {}",
+                        endorsementId, EndorsementStatus.SUBMITTED_REALTIME, e.getMessage());
+                meterRegistry.counter("endorsement.submission.outcome.unknown").increment();
+                throw e;
+            } catch (RuntimeException e) {
+                log.warn("Insurer call for endorsement {} failed, releasing its claim: {}",
+                        endorsementId, e.getMessage());
+                transaction.executeWithoutResult(status -> releaseClaim(claim, e));
+                throw e;
+            }
+            sample.stop(meterRegistry.timer("endorsement.insurer.submission.duration",
+                    "mode", "realtime", "result", result.success() ? "success" : "failure"));
 
-            InsurerPort insurerPort = insurerRouter.resolve(endorsement.getInsurerId());
-            InsurerCapabilities capabilities = insurerPort.getCapabilities();
+            transaction.executeWithoutResult(status -> applyOutcome(claim, result));
+        } finally {
+            MDC.remove("endorsementId");
+            MDC.remove("employerId");
+        }
+    }
 
-            if (capabilities.supportsRealTime()) {
-                EndorsementStatus previousStatus = endorsement.getStatus();
-                stateMachine.transition(endorsement, EndorsementStatus.SUBMITTED_REALTIME);
-                meterRegistry.counter("endorsement.state.transition",
-                        "from", previousStatus.name(), "to", "SUBMITTED_REALTIME").increment();
+    /**
+     * The endorsement as the claim wrote it, or null when there is nothing to
+     * send: the endorsement was queued for batch, or another caller moved it
+     * first.
+     */
+    private Claim claim(UUID endorsementId) {
+        Endorsement endorsement = endorsementRepository.findById(endorsementId)
+                .orElseThrow(() -> new EndorsementNotFoundException(endorsementId));
+
+        MDC.put("endorsementId", endorsementId.toString());
+        MDC.put("employerId", endorsement.getEmployerId().toString());
+
+        InsurerPort insurerPort = insurerRouter.resolve(endorsement.getInsurerId());
+        InsurerCapabilities capabilities = insurerPort.getCapabilities();
+        EndorsementStatus target = capabilities.supportsRealTime()
+                ? EndorsementStatus.SUBMITTED_REALTIME
+                : EndorsementStatus.QUEUED_FOR_BATCH;
+
+        List<EndorsementTransition> claimed =
+                transitionService.transitionAll(List.of(endorsementId), endorsement.getStatus(), target);
+        if (claimed.isEmpty()) {
+            log.info("Endorsement {} left {} before it could be claimed, not submitting",
+                    endorsementId, endorsement.getStatus());
+            meterRegistry.counter("endorsement.submission.claim.lost").increment();
+            return null;
+        }
+        if (target == EndorsementStatus.QUEUED_FOR_BATCH) {
+            log.info("Endorsement {} queued for batch processing", endorsementId);
+            return null;
+        }
+        log.info("Endorsement {} submitted in real-time to insurer", endorsementId);
+        return new Claim(claimed.getFirst().endorsement(), insurerPort);
+    }
 
-                endorsement = endorsementRepository.save(endorsement);
-                log.info("Endorsement {} submitted in real-time to insurer", endorsementId);
+    /**
+     * Reloads the claimed endorsement for the apply step, or returns empty if
+     * it no longer has the version the claim wrote.
+     */
+    private Optional<Endorsement> reloadClaimed(Claim claim) {
+        UUID endorsementId = claim.endorsement().getId();
+        Endorsement endorsement = endorsementRepository.findById(endorsementId)
+                .orElseThrow(() -> new EndorsementNotFoundException(endorsementId));
+        if (endorsement.getVersion() != claim.endorsement().getVersion()) {
+            log.warn("Endorsement {} changed to {} while its insurer call was in flight, dropping the outcome",
+                    endorsementId, endorsement.getStatus());
+            meterRegistry.counter("endorsement.submission.outcome.stale").increment();
+            return Optional.empty();
+        }
+        return Optional.of(endorsement);
+    }
 
-                eventPublisher.publish(new EndorsementEvent.SubmittedRealtime(
-                        endorsement.getId(), Instant.now(), endorsement.getEmployerId(),
-                        endorsement.getInsurerId()));
+    private void applyOutcome(Claim claim, SubmissionResult result) {
+        Optional<Endorsement> claimed = reloadClaimed(claim);
+        if (claimed.isEmpty()) {
+            return;
+        }
+        Endorsement endorsement = claimed.get();
+        UUID endorsementId = endorsement.getId();
 
-                Timer.Sample sample = Timer.start(meterRegistry);
-                SubmissionResult result = insurerPort.submitRealTime(
-                        endorsementId, Map.of("endorsementId", endorsementId.toString()));
-                sample.stop(meterRegistry.timer("endorsement.insurer.submission.duration",
-                        "mode", "realtime", "result", result.success() ? "success" : "failure"));
-
-                if (result.success()) {
-                    endorsement.setInsurerReference(result.insurerReference());
-                    stateMachine.transition(endorsement, EndorsementStatus.INSURER_PROCESSING);
-                    endorsement = endorsementRepository.save(endorsement);
-
-                    eventPublisher.publish(new EndorsementEvent.InsurerProcessing(
-                            endorsement.getId(), Instant.now(), endorsement.getEmployerId(),
-                            result.insurerReference()));
-
-                    stateMachine.transition(endorsement, EndorsementStatus.CONFIRMED);
-                    meterRegistry.counter("endorsement.state.transition",
-                            "from", "INSURER_PROCESSING", "to", "CONFIRMED").increment();
-                    endorsement = endorsementRepository.save(endorsement);
-                    log.info("Endorsement {} confirmed by insurer with reference {}",
-                            endorsementId, result.insurerReference());
-
-                    eventPublisher.publish(new EndorsementEvent.Confirmed(
-                            endorsement.getId(), Instant.now(), endorsement.getEmployerId(),
-                            result.insurerReference()));
-
-                    errorResolutionService.trackOutcome(endorsementId, EndorsementStatus.CONFIRMED);
-                    confirmProvisionalCoverage(endorsementId);
-                    notificationPort.notifyEndorsementConfirmed(
-                            endorsement.getEmployerId(), endorsementId);
-                } else {
-                    // Attempt automated error resolution before rejecting
-                    boolean autoResolved = false;
-                    try {
-                        autoResolved = errorResolutionService.attemptResolution(
-                                endorsementId, result.errorMessage());
-                    } catch (Exception e) {
-                        log.warn("Error resolution failed for endorsement {}: {}", endorsementId, e.getMessage());
-                    }
-
-                    if (autoResolved) {
-                        log.info("Endorsement {} error auto-resolved, will retry", endorsementId);
-                        // Reset to allow resubmission
-                        endorsement.setFailureReason(null);
-                        endorsementRepository.save(endorsement);
-                    } else {
-                        endorsement.setFailureReason(result.errorMessage());
-                        stateMachine.transition(endorsement, EndorsementStatus.REJECTED);
-                        meterRegistry.counter("endorsement.state.transition",
-                                "from", "SUBMITTED_REALTIME", "to", "REJECTED").increment();
-                        endorsement = endorsementRepository.save(endorsement);
-                        log.info("Endorsement {} rejected by insurer: {}", endorsementId, result.errorMessage());
-
-                        eventPublisher.publish(new EndorsementEvent.Rejected(
-                                endorsement.getId(), Instant.now(), endorsement.getEmployerId(),
-                                result.errorMessage()));
-
-                        errorResolutionService.trackOutcome(endorsementId, EndorsementStatus.REJECTED);
-                        notificationPort.notifyEndorsementRejected(
-                                endorsement.getEmployerId(), endorsementId, result.errorMessage());
-                    }
-                }
+        if (result.success()) {
+            endorsement.setInsurerReference(result.insurerReference());
+            stateMachine.transition(endorsement, EndorsementStatus.INSURER_PROCESSING);
+            endorsement = endorsementRepository.save(endorsement);
+
+            eventPublisher.publish(new EndorsementEvent.InsurerProcessing(
+                    endorsement.getId(), Instant.now(), endorsement.getEmployerId(),
+                    result.insurerReference()));
+
+            stateMachine.transition(endorsement, EndorsementStatus.CONFIRMED);
+            meterRegistry.counter("endorsement.state.transition",
+                    "from", "INSURER_PROCESSING", "to", "CONFIRMED").increment();
+            endorsement = endorsementRepository.save(endorsement);
+            log.info("Endorsement {} confirmed by insurer with reference {}",
+                    endorsementId, result.insurerReference());
+
+            eventPublisher.publish(new EndorsementEvent.Confirmed(
+                    endorsement.getId(), Instant.now(), endorsement.getEmployerId(),
+                    result.insurerReference()));
+
+            errorResolutionService.trackOutcome(endorsementId, EndorsementStatus.CONFIRMED);
+            confirmProvisionalCoverage(endorsementId);
+            notificationPort.notifyEndorsementConfirmed(
+                    endorsement.getEmployerId(), endorsementId);
+        } else {
+            // Attempt automated error resolution before rejecting
+            boolean autoResolved = false;
+            try {
+                autoResolved = errorResolutionService.attemptResolution(
+                        endorsementId, result.errorMessage());
+            } catch (Exception e) {
+                log.warn("Error resolution failed for endorsement {}: {}", endorsementId, e.getMessage());
+            }
+
+            if (autoResolved) {
+                log.info("Endorsement {} error auto-resolved, will retry", endorsementId);
+                // Reset to allow resubmission
+                endorsement.setFailureReason(null);
+                endorsementRepository.save(endorsement);
             } else {
-                EndorsementStatus previousStatus = endorsement.getStatus();
-                stateMachine.transition(endorsement, EndorsementStatus.QUEUED_FOR_BATCH);
+                endorsement.setFailureReason(result.errorMessage());
+                stateMachine.transition(endorsement, EndorsementStatus.REJECTED);
                 meterRegistry.counter("endorsement.state.transition",
-                        "from", previousStatus.name(), "to", "QUEUED_FOR_BATCH").increment();
+                        "from", "SUBMITTED_REALTIME", "to", "REJECTED").increment();
                 endorsement = endorsementRepository.save(endorsement);
-                log.info("Endorsement {} queued for batch processing", endorsementId);
+                log.info("Endorsement {} rejected by insurer: {}", endorsementId, result.errorMessage());
+
+                eventPublisher.publish(new EndorsementEvent.Rejected(
+                        endorsement.getId(), Instant.now(), endorsement.getEmployerId(),
+                        result.errorMessage()));
 
-                eventPublisher.publish(new EndorsementEvent.QueuedForBatch(
-                        endorsement.getId(), Instant.now(), endorsement.getEmployerId()));
+                errorResolutionService.trackOutcome(endorsementId, EndorsementStatus.REJECTED);
+                notificationPort.notifyEndorsementRejected(
+                        endorsement.getEmployerId(), endorsementId, result.errorMessage());
             }
-        } finally {
-            MDC.remove("endorsementId");
-            MDC.remove("employerId");
         }
     }
 
+    /**
+     * The call failed before the request reached the insurer: the endorsement
+     * goes back for retry, or fails once its retries are used up.
+     */
+    private void releaseClaim(Claim claim, RuntimeException failure) {
+        Optional<Endorsement> claimed = reloadClaimed(claim);
+        if (claimed.isEmpty()) {
+            return;
+        }
+        Endorsement endorsement = claimed.get();
+        String reason = "Insurer call failed: " + failure.getMessage();
+        endorsement.setFailureReason(reason);
+        stateMachine.transition(endorsement, EndorsementStatus.REJECTED);
+        meterRegistry.counter("endorsement.state.transition",
+                "from", "SUBMITTED_REALTIME", "to", "REJECTED").increment();
+        retryOrFail(endorsement, reason);
+    }
+
     @Transactional
     public void handleConfirmation(UUID endorsementId, String insurerReference) {
         try {
@@ -178,6 +308,60 @@ public class ProcessEndorsementHandler {
         }
     }
 
+    /**
+     * Confirms every endorsement in a completed batch with one load and one
+     * save. Endorsements still in BATCH_SUBMITTED, or SUBMITTED_REALTIME ones
+     * sent in a micro-batch, pass through INSURER_PROCESSING, since the insurer
+     * has evidently processed them.
+     * Ones that can no longer be confirmed, e.g. already confirmed by an
+     * earlier poll, are skipped. Returns how many were confirmed.
+     */
+    @Transactional
+    public int handleConfirmations(List<InsurerPort.EndorsementResult> confirmations) {
+        Map<UUID, String> references = new HashMap<>();
+        for (InsurerPort.EndorsementResult confirmation : confirmations) {
+            references.put(confirmation.endorsementId(), confirmation.insurerReference());
+        }
+
+        List<Endorsement> confirmed = new ArrayList<>();
+        for (Endorsement endorsement : endorsementRepository.findAllById(references.keySet())) {
+            EndorsementStatus submittedStatus = endorsement.getStatus();
+            if (submittedStatus == EndorsementStatus.BATCH_SUBMITTED
+                    || submittedStatus == EndorsementStatus.SUBMITTED_REALTIME) {
+                stateMachine.transition(endorsement, EndorsementStatus.INSURER_PROCESSING);
+                meterRegistry.counter("endorsement.state.transition",
+                        "from", submittedStatus.name(), "to", "INSURER_PROCESSING").increment();
+            }
+            EndorsementStatus previousStatus = endorsement.getStatus();
+            if (!stateMachine.canTransition(endorsement, EndorsementStatus.CONFIRMED)) {
+                log.warn("Skipping confirmation of endorsement {} in status {}", endorsement.getId(), previousStatus);
+                continue;
+            }
+            endorsement.setInsurerReference(references.get(endorsement.getId()));
+            stateMachine.transition(endorsement, EndorsementStatus.CONFIRMED);
+            meterRegistry.counter("endorsement.state.transition",
+                    "from", previousStatus.name(), "to", "CONFIRMED").increment();
+            confirmed.add(endorsement);
+        }
+        if (confirmed.isEmpty()) {
+            return 0;
+        }
+        confirmed = endorsementRepository.saveAll(confirmed);
+
+        List<UUID> confirmedIds = confirmed.stream().map(Endorsement::getId).toList();
+        errorResolutionService.trackOutcomes(confirmedIds, EndorsementStatus.CONFIRMED);
+        confirmProvisionalCoverages(confirmedIds);
+
+        Instant now = Instant.now();
+        for (Endorsement endorsement : confirmed) {
+            notificationPort.notifyEndorsementConfirmed(endorsement.getEmployerId(), endorsement.getId());
+            eventPublisher.publish(new EndorsementEvent.Confirmed(
+                    endorsement.getId(), now, endorsement.getEmployerId(), endorsement.getInsurerReference()));
+        }
+        log.info("Confirmed {} of {} endorsements", confirmed.size(), confirmations.size());
+        return confirmed.size();
+    }
+
     @Transactional
     public void handleRejection(UUID endorsementId, String reason) {
         try {
@@ -203,40 +387,48 @@ public class ProcessEndorsementHandler {
             }
 
             endorsement.setFailureReason(reason);
+            retryOrFail(endorsement, reason);
+        } finally {
+            MDC.remove("endorsementId");
+            MDC.remove("employerId");
+        }
+    }
 
-            if (endorsement.canRetry()) {
-                endorsement.incrementRetry();
-                meterRegistry.counter("endorsement.state.transition",
-                        "from", endorsement.getStatus().name(), "to", "RETRY_PENDING").increment();
-                endorsement = endorsementRepository.save(endorsement);
-                log.info("Endorsement {} scheduled for retry, attempt {}", endorsementId, endorsement.getRetryCount());
+    /**
+     * Schedules a retry for a rejected endorsement, or fails it permanently
+     * and expires its provisional coverage once retries run out.
+     */
+    private void retryOrFail(Endorsement endorsement, String reason) {
+        UUID endorsementId = endorsement.getId();
+        if (endorsement.canRetry()) {
+            stateMachine.retry(endorsement);
+            meterRegistry.counter("endorsement.state.transition",
+                    "from", endorsement.getStatus().name(), "to", "RETRY_PENDING").increment();
+            endorsement = endorsementRepository.save(endorsement);
+            log.info("Endorsement {} scheduled for retry, attempt {}", endorsementId, endorsement.getRetryCount());
 
-                eventPublisher.publish(new EndorsementEvent.RetryScheduled(
-                        endorsement.getId(), Instant.now(), endorsement.getEmployerId(),
-                        endorsement.getRetryCount()));
-            } else {
-                EndorsementStatus previousStatus = endorsement.getStatus();
-                stateMachine.transition(endorsement, EndorsementStatus.FAILED_PERMANENT);
-                meterRegistry.counter("endorsement.state.transition",
-                        "from", previousStatus.name(), "to", "FAILED_PERMANENT").increment();
-                endorsement = endorsementRepository.save(endorsement);
-                log.info("Endorsement {} permanently failed: {}", endorsementId, reason);
+            eventPublisher.publish(new EndorsementEvent.RetryScheduled(
+                    endorsement.getId(), Instant.now(), endorsement.getEmployerId(),
+                    endorsement.getRetryCount()));
+        } else {
+            EndorsementStatus previousStatus = endorsement.getStatus();
+            stateMachine.transition(endorsement, EndorsementStatus.FAILED_PERMANENT);
+            meterRegistry.counter("endorsement.state.transition",
+                    "from", previousStatus.name(), "to", "FAILED_PERMANENT").increment();
+            endorsement = endorsementRepository.save(endorsement);
+            log.info("Endorsement {} permanently failed: {}", endorsementId, reason);
 
-                eventPublisher.publish(new EndorsementEvent.FailedPermanent(
-                        endorsement.getId(), Instant.now(), endorsement.getEmployerId(),
-                        reason));
+            eventPublisher.publish(new EndorsementEvent.FailedPermanent(
+                    endorsement.getId(), Instant.now(), endorsement.getEmployerId(),
+                    reason));
 
-                notificationPort.notifyEndorsementRejected(
-                        endorsement.getEmployerId(), endorsementId, reason);
+            notificationPort.notifyEndorsementRejected(
+                    endorsement.getEmployerId(), endorsementId, reason);
 
-                errorResolutionService.trackOutcome(endorsementId, EndorsementStatus.FAILED_PERMANENT);
+            errorResolutionService.trackOutcome(endorsementId, EndorsementStatus.FAILED_PERMANENT);
 
-                // Expire provisional coverage and notify employer (Gap 1 fix)
-                expireProvisionalCoverage(endorsement);
-            }
-        } finally {
-            MDC.remove("endorsementId");
-            MDC.remove("employerId");
+            // Expire provisional coverage and notify employer (Gap 1 fix)
+            expireProvisionalCoverage(endorsement);
         }
     }
 
@@ -253,6 +445,22 @@ public class ProcessEndorsementHandler {
         }
     }
 
+    private void confirmProvisionalCoverages(List<UUID> endorsementIds) {
+        List<ProvisionalCoverage> coverages = provisionalCoverageRepository.findByEndorsementIdIn(endorsementIds);
+        if (coverages.isEmpty()) {
+            return;
+        }
+        Instant now = Instant.now();
+        coverages.forEach(coverage -> coverage.confirm(now));
+        provisionalCoverageRepository.saveAll(coverages);
+        log.info("Provisional coverage confirmed for {} endorsements", coverages.size());
+
+        for (ProvisionalCoverage coverage : coverages) {
+            eventPublisher.publish(new EndorsementEvent.ProvisionalCoverageConfirmed(
+                    coverage.getEndorsementId(), now, coverage.getEmployerId(), coverage.getEmployeeId()));
+        }
+    }
+
     private void expireProvisionalCoverage(Endorsement endorsement) {
         Optional<ProvisionalCoverage> coverageOpt = provisionalCoverageRepository
                 .findByEndorsementId(endorsement.getId());
@@ -270,4 +478,7 @@ public class ProcessEndorsementHandler {
                     "Endorsement permanently failed after all retries exhausted. Employee coverage requires manual intervention.");
         }
     }
+
+    private record Claim(Endorsement endorsement, InsurerPort insurerPort) {
+    }
 }
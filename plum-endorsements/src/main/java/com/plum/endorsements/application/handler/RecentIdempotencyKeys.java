@@ -0,0 +1,58 @@
+package com.plum.endorsements.application.handler;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size, lock-free record of idempotency keys this instance recently
+ * created endorsements for. Each key is stored as a 64-bit fingerprint in a
+ * direct-mapped slot, so memory stays at eight bytes per slot however many keys
+ * pass through.
+ *
+ * <p>The answer is only a hint. A key that was overwritten or created by another
+ * replica reads as absent, and the database's ON CONFLICT check still catches
+ * it; a fingerprint collision only costs one extra lookup.</p>
+ */
+@Component
+public class RecentIdempotencyKeys {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final AtomicLongArray fingerprints;
+    private final int mask;
+
+    public RecentIdempotencyKeys(@Value("${endorsement.idempotency.recent-keys-capacity:65536}") int capacity) {
+        int slots = Integer.highestOneBit(Math.max(16, capacity - 1)) << 1;
+        this.fingerprints = new AtomicLongArray(slots);
+        this.mask = slots - 1;
+    }
+
+    public boolean mightContain(String key) {
+        long fingerprint = fingerprint(key);
+        return fingerprints.get(slot(fingerprint)) == fingerprint;
+    }
+
+    public void add(String key) {
+        long fingerprint = fingerprint(key);
+        fingerprints.set(slot(fingerprint), fingerprint);
+    }
+
+    private int slot(long fingerprint) {
+        return (int) (fingerprint ^ (fingerprint >>> 32)) & mask;
+    }
+
+    /**
+     * 64-bit FNV-1a over the key's characters; zero is reserved for empty slots.
+     */
+    static long fingerprint(String key) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        return hash == 0 ? 1 : hash;
+    }
+}
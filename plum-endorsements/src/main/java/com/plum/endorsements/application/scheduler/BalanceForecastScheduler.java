@@ -1,8 +1,6 @@
 package com.plum.endorsements.application.scheduler;
 
 import com.plum.endorsements.application.service.BalanceForecastService;
-import com.plum.endorsements.domain.model.EAAccount;
-import com.plum.endorsements.domain.port.EAAccountRepository;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
@@ -12,8 +10,6 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
-import java.util.List;
-
 @Slf4j
 @Component
 @RequiredArgsConstructor
@@ -21,7 +17,6 @@ import java.util.List;
 public class BalanceForecastScheduler {
 
     private final BalanceForecastService forecastService;
-    private final EAAccountRepository eaAccountRepository;
     private final MeterRegistry meterRegistry;
 
     @Scheduled(cron = "${endorsement.intelligence.balance-forecast.schedule-cron}")
@@ -32,20 +27,9 @@ public class BalanceForecastScheduler {
         try {
             log.info("Starting daily balance forecast generation");
 
-            List<EAAccount> accounts = eaAccountRepository.findAll();
-            int generated = 0;
-
-            for (EAAccount account : accounts) {
-                try {
-                    forecastService.generateForecast(account.getEmployerId(), account.getInsurerId());
-                    generated++;
-                } catch (Exception e) {
-                    log.error("Failed to generate forecast for employer {} insurer {}",
-                            account.getEmployerId(), account.getInsurerId(), e);
-                }
-            }
-
-            log.info("Daily forecast generation completed: {} forecasts generated", generated);
+            BalanceForecastService.ForecastRun run = forecastService.generateAllForecasts();
+            log.info("Daily forecast generation completed: {} forecasts generated, {} account(s) failed",
+                    run.generated(), run.failed());
         } catch (Exception e) {
             result = "failure";
             log.error("Daily forecast generation failed", e);
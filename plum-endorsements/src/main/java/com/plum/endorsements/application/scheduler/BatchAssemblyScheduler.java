@@ -1,67 +1,154 @@
 package com.plum.endorsements.application.scheduler;
 
+import com.plum.endorsements.application.exception.InsurerOutcomeUnknownException;
+import com.plum.endorsements.application.handler.ProcessEndorsementHandler;
 import com.plum.endorsements.domain.model.*;
 import com.plum.endorsements.domain.port.*;
-import com.plum.endorsements.domain.service.EndorsementStateMachine;
+import com.plum.endorsements.application.service.EndorsementTransitionService;
 import com.plum.endorsements.infrastructure.insurer.InsurerRouter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import net.javacrumbs.shedlock.core.LockConfiguration;
+import net.javacrumbs.shedlock.core.LockProvider;
+import net.javacrumbs.shedlock.core.SimpleLock;
 import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
 import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+/**
+ * Assembles each insurer's QUEUED_FOR_BATCH endorsements into batches and
+ * submits them. Insurers run concurrently on virtual threads, bounded by
+ * {@code endorsement.batch.max-concurrent-insurers}, so one slow insurer no
+ * longer holds up the rest.
+ *
+ * <p>Each batch goes out in three steps, so no transaction or row lock is
+ * held while the insurer is called:</p>
+ * <ol>
+ *   <li>Claim: a short transaction claims the oldest queued endorsements
+ *   with {@code FOR UPDATE SKIP LOCKED}, records the batch as ASSEMBLING and
+ *   moves its endorsements to BATCH_SUBMITTED.</li>
+ *   <li>Call: the batch is sent to the insurer with no transaction open.</li>
+ *   <li>Apply: a second short transaction records the batch as SUBMITTED. If
+ *   the insurer certainly did not get it, the batch is marked FAILED and its
+ *   endorsements are rejected for retry instead.</li>
+ * </ol>
+ *
+ * <p>A batch the insurer may or may not have received stays ASSEMBLING, as
+ * does one claimed before a crash. Once such a batch is older than
+ * {@link #STALE_ASSEMBLING_AFTER}, the next run for its insurer sends it
+ * again under the same batch id, so an insurer that did get it can tell it
+ * is the same batch. Until then it counts as the insurer's open batch and
+ * nothing new is cut.</p>
+ *
+ * <p>{@link BatchTrigger} cuts most batches as soon as an insurer's queue is
+ * full or its oldest item is old enough, through {@link #assembleForInsurer};
+ * the cron run is the safety net. Both take a per-insurer lock, so one
+ * insurer is never assembled twice at once, on any replica.</p>
+ */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class BatchAssemblyScheduler {
 
+    private static final Duration INSURER_LOCK_AT_MOST = Duration.ofMinutes(14);
+    // Longer than any run holds the insurer lock, so a batch this old is no longer being sent
+    static final Duration STALE_ASSEMBLING_AFTER = Duration.ofMinutes(15);
+    // How far past the oldest window one run looks when the optimizer can send none of it
+    static final int MAX_CLAIM_WINDOWS = 5;
+
+    static final List<BatchStatus> ACTIVE_BATCH_STATUSES = BatchStatus.ACTIVE;
+
     private final EndorsementRepository endorsementRepository;
+    private final EndorsementStatusCountRepository statusCountRepository;
     private final BatchRepository batchRepository;
     private final EAAccountRepository eaAccountRepository;
     private final InsurerRouter insurerRouter;
-    private final EndorsementStateMachine stateMachine;
+    private final EndorsementTransitionService transitionService;
+    private final ProcessEndorsementHandler processHandler;
     private final EventPublisher eventPublisher;
     private final BatchOptimizerPort batchOptimizer;
+    private final TransactionTemplate batchTransaction;
+    private final LockProvider lockProvider;
     private final MeterRegistry meterRegistry;
+    private final boolean optimizerEnabled;
+    private final int maxConcurrentInsurers;
+    private final int claimWindow;
+    private final Duration firstPollDelay;
 
-    @Value("${endorsement.intelligence.batch-optimizer.enabled:true}")
-    private boolean optimizerEnabled;
+    public BatchAssemblyScheduler(
+            EndorsementRepository endorsementRepository,
+            EndorsementStatusCountRepository statusCountRepository,
+            BatchRepository batchRepository,
+            EAAccountRepository eaAccountRepository,
+            InsurerRouter insurerRouter,
+            EndorsementTransitionService transitionService,
+            ProcessEndorsementHandler processHandler,
+            EventPublisher eventPublisher,
+            BatchOptimizerPort batchOptimizer,
+            PlatformTransactionManager transactionManager,
+            LockProvider lockProvider,
+            MeterRegistry meterRegistry,
+            @Value("${endorsement.intelligence.batch-optimizer.enabled:true}") boolean optimizerEnabled,
+            @Value("${endorsement.batch.max-concurrent-insurers:8}") int maxConcurrentInsurers,
+            @Value("${endorsement.batch.claim-window:2000}") int claimWindow,
+            @Value("${endorsement.batch.poller.first-poll-delay-ms:0}") long firstPollDelayMs) {
+        this.endorsementRepository = endorsementRepository;
+        this.statusCountRepository = statusCountRepository;
+        this.batchRepository = batchRepository;
+        this.eaAccountRepository = eaAccountRepository;
+        this.insurerRouter = insurerRouter;
+        this.transitionService = transitionService;
+        this.processHandler = processHandler;
+        this.eventPublisher = eventPublisher;
+        this.batchOptimizer = batchOptimizer;
+        this.batchTransaction = new TransactionTemplate(transactionManager);
+        this.lockProvider = lockProvider;
+        this.meterRegistry = meterRegistry;
+        this.optimizerEnabled = optimizerEnabled;
+        this.maxConcurrentInsurers = maxConcurrentInsurers;
+        this.claimWindow = claimWindow;
+        this.firstPollDelay = Duration.ofMillis(firstPollDelayMs);
+    }
 
     @Scheduled(cron = "${endorsement.batch.schedule-cron}")
     @SchedulerLock(name = "batchAssembly", lockAtLeastFor = "PT1M", lockAtMostFor = "PT14M")
-    @Transactional
     public void assembleAndSubmitBatches() {
         Timer.Sample sample = Timer.start(meterRegistry);
         String result = "success";
         try {
             log.info("Starting batch assembly cycle");
 
-            List<Endorsement> queued = endorsementRepository
-                    .findByStatusAndInsurerId(EndorsementStatus.QUEUED_FOR_BATCH, null);
+            Set<UUID> insurers = statusCountRepository.countByInsurer().entrySet().stream()
+                    .filter(entry -> entry.getValue().get(EndorsementStatus.QUEUED_FOR_BATCH) > 0)
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toCollection(LinkedHashSet::new));
+            // Insurers with nothing queued still get their stale batches resent
+            staleAssembling(null).forEach(batch -> insurers.add(batch.getInsurerId()));
 
-            if (queued.isEmpty()) {
+            if (insurers.isEmpty()) {
                 log.debug("No endorsements queued for batch submission");
                 return;
             }
 
-            Map<UUID, List<Endorsement>> byInsurer = queued.stream()
-                    .collect(Collectors.groupingBy(Endorsement::getInsurerId));
-
-            for (var entry : byInsurer.entrySet()) {
-                UUID insurerId = entry.getKey();
-                List<Endorsement> endorsements = entry.getValue();
-                assembleBatchForInsurer(insurerId, endorsements);
+            if (!assembleConcurrently(List.copyOf(insurers))) {
+                result = "failure";
             }
 
             log.info("Batch assembly cycle completed");
@@ -76,101 +163,302 @@ public class BatchAssemblyScheduler {
         }
     }
 
-    private void assembleBatchForInsurer(UUID insurerId, List<Endorsement> endorsements) {
+    /**
+     * Runs every insurer's assembly on its own virtual thread and waits for all
+     * of them. Returns false if any insurer failed.
+     */
+    private boolean assembleConcurrently(List<UUID> insurers) {
+        Semaphore permits = new Semaphore(maxConcurrentInsurers);
+        Map<UUID, Future<?>> runs = new LinkedHashMap<>();
+        boolean allSucceeded = true;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (UUID insurerId : insurers) {
+                runs.put(insurerId, executor.submit(() -> {
+                    permits.acquire();
+                    try {
+                        assembleForInsurer(insurerId);
+                    } finally {
+                        permits.release();
+                    }
+                    return null;
+                }));
+            }
+            for (var run : runs.entrySet()) {
+                try {
+                    run.getValue().get();
+                } catch (ExecutionException e) {
+                    allSucceeded = false;
+                    meterRegistry.counter("endorsement.batch.assembly.failed",
+                            "insurerId", run.getKey().toString()).increment();
+                    log.error("Batch assembly failed for insurer {}", run.getKey(), e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    executor.shutdownNow();
+                    return false;
+                }
+            }
+        }
+        return allSucceeded;
+    }
+
+    /**
+     * Assembles and submits the insurer's queued endorsements now and returns
+     * how many were submitted. Returns 0 without doing anything while another
+     * run, here or on another replica, holds the insurer.
+     */
+    public int assembleForInsurer(UUID insurerId) {
+        Optional<SimpleLock> lock = lockProvider.lock(new LockConfiguration(
+                Instant.now(), insurerLockName(insurerId), INSURER_LOCK_AT_MOST, Duration.ZERO));
+        if (lock.isEmpty()) {
+            log.debug("Batch assembly for insurer {} already running elsewhere", insurerId);
+            return 0;
+        }
+        try {
+            return assembleBatchesForInsurer(insurerId);
+        } finally {
+            lock.get().unlock();
+        }
+    }
+
+    /**
+     * Name of the lock held while a batch is being cut for the insurer. Anything
+     * else that sends the insurer a batch takes it too.
+     */
+    public static String insurerLockName(UUID insurerId) {
+        return "batchAssembly-" + insurerId;
+    }
+
+    private int assembleBatchesForInsurer(UUID insurerId) {
+        List<EndorsementBatch> stale = staleAssembling(insurerId);
+        if (!stale.isEmpty()) {
+            InsurerPort insurerPort = insurerRouter.resolve(insurerId);
+            for (EndorsementBatch batch : stale) {
+                resubmit(batch, insurerPort);
+            }
+        }
+
         // Guard: insurer can process one batch at a time (PDF requirement)
-        List<BatchStatus> activeStatuses = List.of(
-                BatchStatus.ASSEMBLING, BatchStatus.SUBMITTED,
-                BatchStatus.PROCESSING, BatchStatus.PARTIAL_COMPLETE);
-        if (batchRepository.existsByInsurerIdAndStatusIn(insurerId, activeStatuses)) {
+        if (batchRepository.existsByInsurerIdAndStatusIn(insurerId, ACTIVE_BATCH_STATUSES)) {
             meterRegistry.counter("endorsement.batch.skipped.active",
                     "insurerId", insurerId.toString()).increment();
             log.warn("Skipping batch assembly for insurer {}: active batch still in progress", insurerId);
-            return;
+            return 0;
         }
 
         InsurerPort insurerPort = insurerRouter.resolve(insurerId);
         InsurerPort.InsurerCapabilities caps = insurerPort.getCapabilities();
-        int maxBatchSize = caps.maxBatchSize();
 
-        // Use batch optimizer if enabled
-        List<Endorsement> optimizedQueue = endorsements;
-        if (optimizerEnabled) {
-            try {
-                // Get EA account for the first employer (batch-level optimization)
-                UUID firstEmployerId = endorsements.get(0).getEmployerId();
-                EAAccount account = eaAccountRepository
-                        .findByEmployerIdAndInsurerId(firstEmployerId, insurerId)
-                        .orElse(null);
-
-                BatchOptimizerPort.OptimizedBatchPlan plan = batchOptimizer.optimizeBatch(
-                        endorsements, account, caps);
-                optimizedQueue = plan.endorsements();
-
-                if (plan.estimatedSavings().signum() > 0) {
-                    eventPublisher.publish(new EndorsementEvent.BatchOptimized(
-                            UUID.randomUUID(), Instant.now(), firstEmployerId,
-                            null, plan.strategy(), plan.estimatedSavings()));
-                }
+        // The optimizer picks one batch from a window of the queue; without it
+        // the whole queue goes out in full-size batches
+        int total = 0;
+        int submitted;
+        do {
+            AssembledBatch assembled = batchTransaction.execute(status -> assembleNextBatch(insurerId, caps));
+            if (assembled == null) {
+                break;
+            }
+            submitted = submit(assembled, insurerPort, caps);
+            total += submitted;
+        } while (!optimizerEnabled && submitted == caps.maxBatchSize());
+        return total;
+    }
+
+    /**
+     * ASSEMBLING batches older than {@link #STALE_ASSEMBLING_AFTER}, for one
+     * insurer or, when {@code insurerId} is null, for all of them.
+     */
+    private List<EndorsementBatch> staleAssembling(UUID insurerId) {
+        Instant staleBefore = Instant.now().minus(STALE_ASSEMBLING_AFTER);
+        return batchRepository.findByStatus(BatchStatus.ASSEMBLING).stream()
+                .filter(batch -> insurerId == null || insurerId.equals(batch.getInsurerId()))
+                .filter(batch -> batch.getCreatedAt() != null && batch.getCreatedAt().isBefore(staleBefore))
+                .toList();
+    }
 
-                log.info("Batch optimizer: strategy='{}', savings=₹{}",
-                        plan.strategy(), plan.estimatedSavings());
-            } catch (Exception e) {
-                log.warn("Batch optimizer failed, falling back to default sequencing: {}", e.getMessage());
-                optimizedQueue = endorsements;
+    /**
+     * Claims the insurer's oldest queued endorsements, records one batch of
+     * them as ASSEMBLING and moves them to BATCH_SUBMITTED. Returns null when
+     * there is nothing to send. Claimed rows the batch leaves out are
+     * released, still queued, when the transaction commits.
+     *
+     * <p>When the optimizer can send nothing from a full window, say because
+     * every employer in it is out of EA balance, the next window is claimed
+     * instead, up to {@link #MAX_CLAIM_WINDOWS}, so newer endorsements are
+     * not held behind ones that cannot go yet.</p>
+     */
+    private AssembledBatch assembleNextBatch(UUID insurerId, InsurerPort.InsurerCapabilities caps) {
+        int maxBatchSize = caps.maxBatchSize();
+        int window = optimizerEnabled ? Math.max(claimWindow, maxBatchSize) : maxBatchSize;
+        List<Endorsement> claimed = endorsementRepository.claimByStatusAndInsurerId(
+                EndorsementStatus.QUEUED_FOR_BATCH, insurerId, window);
+        List<Endorsement> selected = List.of();
+        for (int windows = 1; !claimed.isEmpty(); windows++) {
+            selected = optimizerEnabled ? optimize(insurerId, claimed, caps) : claimed;
+            if (!selected.isEmpty() || claimed.size() < window || windows == MAX_CLAIM_WINDOWS) {
+                break;
             }
+            Endorsement last = claimed.get(claimed.size() - 1);
+            log.info("Batch optimizer selected nothing from {} queued endorsements for insurer {}, "
+                    + "claiming the next window", claimed.size(), insurerId);
+            claimed = endorsementRepository.claimByStatusAndInsurerIdAfter(
+                    EndorsementStatus.QUEUED_FOR_BATCH, insurerId, last.getCreatedAt(), last.getId(), window);
+        }
+        if (selected.isEmpty()) {
+            return null;
         }
+        List<Endorsement> chunk = selected.subList(0, Math.min(maxBatchSize, selected.size()));
 
-        for (int i = 0; i < optimizedQueue.size(); i += maxBatchSize) {
-            List<Endorsement> chunk = optimizedQueue.subList(
-                    i, Math.min(i + maxBatchSize, optimizedQueue.size()));
+        BigDecimal totalPremium = chunk.stream()
+                .map(Endorsement::getPremiumAmount)
+                .filter(Objects::nonNull)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
 
-            BigDecimal totalPremium = chunk.stream()
-                    .map(Endorsement::getPremiumAmount)
-                    .filter(Objects::nonNull)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+        EndorsementBatch batch = EndorsementBatch.builder()
+                .insurerId(insurerId)
+                .status(BatchStatus.ASSEMBLING)
+                .endorsementCount(chunk.size())
+                .totalPremium(totalPremium)
+                .createdAt(Instant.now())
+                .build();
 
-            EndorsementBatch batch = EndorsementBatch.builder()
-                    .insurerId(insurerId)
-                    .status(BatchStatus.ASSEMBLING)
-                    .endorsementCount(chunk.size())
-                    .totalPremium(totalPremium)
-                    .createdAt(Instant.now())
-                    .build();
+        batch = batchRepository.save(batch);
+
+        // The claimed rows are locked by this transaction, so all of them move
+        List<UUID> ids = chunk.stream().map(Endorsement::getId).toList();
+        List<UUID> moved = transitionService.submitToBatch(ids, batch.getId()).stream()
+                .map(t -> t.endorsement().getId())
+                .toList();
+        return new AssembledBatch(batch, moved);
+    }
 
-            batch = batchRepository.save(batch);
+    /**
+     * Sends an assembled batch and records the outcome; returns how many
+     * endorsements went out. Rethrows the insurer's error once the outcome is
+     * recorded.
+     */
+    private int submit(AssembledBatch assembled, InsurerPort insurerPort, InsurerPort.InsurerCapabilities caps) {
+        EndorsementBatch batch = assembled.batch();
+        try {
+            MDC.put("batchId", batch.getId().toString());
+            MDC.put("insurerId", batch.getInsurerId().toString());
 
+            String insurerBatchRef;
             try {
-                MDC.put("batchId", batch.getId().toString());
-                MDC.put("insurerId", insurerId.toString());
-
-                for (Endorsement e : chunk) {
-                    e.setBatchId(batch.getId());
-                    stateMachine.transition(e, EndorsementStatus.BATCH_SUBMITTED);
-                    endorsementRepository.save(e);
-                    eventPublisher.publish(new EndorsementEvent.BatchSubmitted(
-                            e.getId(), Instant.now(), e.getEmployerId(), batch.getId()));
-                }
+                insurerBatchRef = insurerPort.submitBatch(batch.getId(), payload(assembled.endorsementIds()));
+            } catch (InsurerOutcomeUnknownException e) {
+                meterRegistry.counter("endorsement.batch.outcome.unknown",
+                        "insurerId", batch.getInsurerId().toString()).increment();
+                log.warn("Batch {} may have reached insurer {}, leaving it {} to be resent: {}",
+                        batch.getId(), batch.getInsurerId(), BatchStatus.ASSEMBLING, e.getMessage());
+                throw e;
+            } catch (RuntimeException e) {
+                log.warn("Batch {} was not accepted by insurer {}, rejecting its endorsements for retry: {}",
+                        batch.getId(), batch.getInsurerId(), e.getMessage());
+                batchTransaction.executeWithoutResult(status -> fail(batch, assembled.endorsementIds(), e));
+                throw e;
+            }
 
-                List<Map<String, Object>> payload = chunk.stream()
-                        .map(e -> Map.<String, Object>of("endorsementId", e.getId().toString()))
-                        .toList();
+            batchTransaction.executeWithoutResult(status -> markSubmitted(batch, insurerBatchRef, caps));
+            meterRegistry.summary("endorsement.batch.size").record(assembled.endorsementIds().size());
 
-                String insurerBatchRef = insurerPort.submitBatch(batch.getId(), payload);
+            log.info("Submitted batch {} with {} endorsements to insurer {}",
+                    batch.getId(), assembled.endorsementIds().size(), batch.getInsurerId());
+        } finally {
+            MDC.remove("batchId");
+            MDC.remove("insurerId");
+        }
+        return assembled.endorsementIds().size();
+    }
 
-                batch.setStatus(BatchStatus.SUBMITTED);
-                batch.setSubmittedAt(Instant.now());
-                batch.setInsurerBatchRef(insurerBatchRef);
-                batch.setSlaDeadline(Instant.now().plus(caps.batchSlaHours(), ChronoUnit.HOURS));
-                batchRepository.save(batch);
+    /**
+     * Sends a stale ASSEMBLING batch again under its own id, with the members
+     * still waiting on the insurer. The batch stays ASSEMBLING, to be tried on
+     * the next run, unless the insurer accepts it.
+     */
+    private void resubmit(EndorsementBatch batch, InsurerPort insurerPort) {
+        List<UUID> members = endorsementRepository.findByBatchId(batch.getId()).stream()
+                .filter(endorsement -> endorsement.getStatus().requiresInsurerAction())
+                .map(Endorsement::getId)
+                .toList();
+        if (members.isEmpty()) {
+            log.warn("Stale batch {} for insurer {} has no endorsements waiting on the insurer, marking it {}",
+                    batch.getId(), batch.getInsurerId(), BatchStatus.FAILED);
+            batch.setStatus(BatchStatus.FAILED);
+            batchRepository.save(batch);
+            return;
+        }
+        meterRegistry.counter("endorsement.batch.resubmitted",
+                "insurerId", batch.getInsurerId().toString()).increment();
+        try {
+            String insurerBatchRef = insurerPort.submitBatch(batch.getId(), payload(members));
+            batchTransaction.executeWithoutResult(
+                    status -> markSubmitted(batch, insurerBatchRef, insurerPort.getCapabilities()));
+            log.info("Resubmitted stale batch {} with {} endorsements to insurer {}",
+                    batch.getId(), members.size(), batch.getInsurerId());
+        } catch (RuntimeException e) {
+            log.warn("Resubmitting stale batch {} to insurer {} failed, will try again: {}",
+                    batch.getId(), batch.getInsurerId(), e.getMessage());
+        }
+    }
 
-                meterRegistry.summary("endorsement.batch.size").record(chunk.size());
+    private void markSubmitted(EndorsementBatch batch, String insurerBatchRef, InsurerPort.InsurerCapabilities caps) {
+        Instant submittedAt = Instant.now();
+        batch.setStatus(BatchStatus.SUBMITTED);
+        batch.setSubmittedAt(submittedAt);
+        batch.setInsurerBatchRef(insurerBatchRef);
+        batch.setSlaDeadline(submittedAt.plus(caps.batchSlaHours(), ChronoUnit.HOURS));
+        // Insurers that push callbacks report back before the poller needs to ask
+        if (!firstPollDelay.isZero()) {
+            batch.setNextPollAt(submittedAt.plus(firstPollDelay));
+        }
+        batchRepository.save(batch);
+    }
+
+    private void fail(EndorsementBatch batch, List<UUID> endorsementIds, RuntimeException cause) {
+        batch.setStatus(BatchStatus.FAILED);
+        batchRepository.save(batch);
+        String reason = "Batch submission failed: " + cause.getMessage();
+        for (UUID endorsementId : endorsementIds) {
+            processHandler.handleRejection(endorsementId, reason);
+        }
+    }
+
+    private static List<Map<String, Object>> payload(List<UUID> endorsementIds) {
+        return endorsementIds.stream()
+                .map(id -> Map.<String, Object>of("endorsementId", id.toString()))
+                .toList();
+    }
 
-                log.info("Submitted batch {} with {} endorsements to insurer {}",
-                        batch.getId(), chunk.size(), insurerId);
-            } finally {
-                MDC.remove("batchId");
-                MDC.remove("insurerId");
+    private List<Endorsement> optimize(UUID insurerId, List<Endorsement> endorsements,
+                                       InsurerPort.InsurerCapabilities caps) {
+        try {
+            // One lookup for the EA accounts of every employer in the window
+            UUID firstEmployerId = endorsements.get(0).getEmployerId();
+            Set<UUID> employerIds = endorsements.stream()
+                    .map(Endorsement::getEmployerId)
+                    .collect(Collectors.toSet());
+            Map<UUID, EAAccount> accounts = eaAccountRepository
+                    .findByInsurerIdAndEmployerIdIn(insurerId, employerIds).stream()
+                    .collect(Collectors.toMap(EAAccount::getEmployerId, Function.identity()));
+
+            BatchOptimizerPort.OptimizedBatchPlan plan = batchOptimizer.optimizeBatch(
+                    endorsements, accounts, caps);
+
+            if (plan.estimatedSavings().signum() > 0) {
+                eventPublisher.publish(new EndorsementEvent.BatchOptimized(
+                        UUID.randomUUID(), Instant.now(), firstEmployerId,
+                        null, plan.strategy(), plan.estimatedSavings()));
             }
+
+            log.info("Batch optimizer: strategy='{}', savings=₹{}",
+                    plan.strategy(), plan.estimatedSavings());
+            return plan.endorsements();
+        } catch (Exception e) {
+            log.warn("Batch optimizer failed, falling back to default sequencing: {}", e.getMessage());
+            return endorsements;
         }
     }
+
+    private record AssembledBatch(EndorsementBatch batch, List<UUID> endorsementIds) {
+    }
 }
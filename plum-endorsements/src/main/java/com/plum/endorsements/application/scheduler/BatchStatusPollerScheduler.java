@@ -1,5 +1,6 @@
 package com.plum.endorsements.application.scheduler;
 
+import com.plum.endorsements.application.handler.InsurerCallbackHandler;
 import com.plum.endorsements.application.handler.ProcessEndorsementHandler;
 import com.plum.endorsements.domain.model.BatchStatus;
 import com.plum.endorsements.domain.model.EndorsementBatch;
@@ -9,50 +10,105 @@ import com.plum.endorsements.domain.port.NotificationPort;
 import com.plum.endorsements.infrastructure.insurer.InsurerRouter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
 import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 
+/**
+ * Polls insurers for the status of open batches and applies the results.
+ *
+ * <p>Only batches whose {@code next_poll_at} is due are polled. Each poll
+ * that finds no change doubles the batch's delay, from
+ * {@code endorsement.batch.poller.min-interval-ms} up to 1/24 of the insurer's
+ * {@code batchSlaHours}, and a batch is never left unpolled past its SLA
+ * deadline. Insurer calls run concurrently on virtual threads, at most
+ * {@code max-concurrent-per-insurer} per insurer, outside any transaction;
+ * each batch's results are then applied in one short transaction, with all
+ * confirmations as one set. SLA breaches are notified once per batch.</p>
+ *
+ * <p>Status changes are conditional on the batch still being open, since a
+ * callback may have settled it while the insurer was being asked. A poll
+ * that loses that race drops what it fetched, so results are applied once.</p>
+ *
+ * <p>Insurers that push outcomes through {@link InsurerCallbackHandler} make
+ * this a fallback, so it is configured to poll rarely; it still catches
+ * batches whose callbacks never arrive.</p>
+ */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class BatchStatusPollerScheduler {
 
+    private static final List<BatchStatus> OPEN_STATUSES = List.of(BatchStatus.SUBMITTED, BatchStatus.PROCESSING);
+
+    // Polls per SLA window once a batch has backed off fully
+    private static final int POLLS_PER_SLA_WINDOW = 24;
+
     private final BatchRepository batchRepository;
     private final InsurerRouter insurerRouter;
     private final ProcessEndorsementHandler processHandler;
     private final NotificationPort notificationPort;
+    private final TransactionTemplate applyTransaction;
     private final MeterRegistry meterRegistry;
+    private final int maxConcurrentPerInsurer;
+    private final int maxBatchesPerCycle;
+    private final Duration minPollInterval;
+
+    public BatchStatusPollerScheduler(
+            BatchRepository batchRepository,
+            InsurerRouter insurerRouter,
+            ProcessEndorsementHandler processHandler,
+            NotificationPort notificationPort,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${endorsement.batch.poller.max-concurrent-per-insurer:4}") int maxConcurrentPerInsurer,
+            @Value("${endorsement.batch.poller.max-batches-per-cycle:500}") int maxBatchesPerCycle,
+            @Value("${endorsement.batch.poller.min-interval-ms:60000}") long minPollIntervalMs) {
+        this.batchRepository = batchRepository;
+        this.insurerRouter = insurerRouter;
+        this.processHandler = processHandler;
+        this.notificationPort = notificationPort;
+        this.applyTransaction = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.maxConcurrentPerInsurer = maxConcurrentPerInsurer;
+        this.maxBatchesPerCycle = maxBatchesPerCycle;
+        this.minPollInterval = Duration.ofMillis(minPollIntervalMs);
+    }
 
-    @Scheduled(fixedDelayString = "60000")
+    @Scheduled(fixedDelayString = "${endorsement.batch.poller.interval-ms:60000}")
     @SchedulerLock(name = "batchStatusPoller", lockAtLeastFor = "PT30S", lockAtMostFor = "PT5M")
-    @Transactional
     public void pollBatchStatuses() {
         Timer.Sample sample = Timer.start(meterRegistry);
         String result = "success";
         try {
-            List<EndorsementBatch> submitted = batchRepository.findByStatus(BatchStatus.SUBMITTED);
-            List<EndorsementBatch> processing = batchRepository.findByStatus(BatchStatus.PROCESSING);
+            Instant now = Instant.now();
+            notifySlaBreaches(now);
 
-            List<EndorsementBatch> activeBatches = new ArrayList<>(submitted);
-            activeBatches.addAll(processing);
-
-            if (activeBatches.isEmpty()) {
+            List<EndorsementBatch> due = batchRepository.findDueForPoll(OPEN_STATUSES, now, maxBatchesPerCycle);
+            if (due.isEmpty()) {
                 return;
             }
 
-            log.debug("Polling status for {} active batches", activeBatches.size());
-
-            for (EndorsementBatch batch : activeBatches) {
-                pollBatch(batch);
+            log.debug("Polling status for {} due batches", due.size());
+            if (pollConcurrently(due) > 0) {
+                result = "failure";
             }
         } catch (Exception e) {
             result = "failure";
@@ -65,50 +121,214 @@ public class BatchStatusPollerScheduler {
         }
     }
 
-    private void pollBatch(EndorsementBatch batch) {
-        if (batch.getInsurerBatchRef() == null) {
-            return;
+    /**
+     * Alerts on every open batch past its deadline that has not been alerted
+     * on yet. The alert is sent in the transaction that marks the batch, so a
+     * failed send is retried on the next cycle and a sent one never repeats.
+     */
+    private void notifySlaBreaches(Instant now) {
+        for (EndorsementBatch batch : batchRepository.findSlaBreachedUnnotified(OPEN_STATUSES, now)) {
+            try {
+                Boolean notified = applyTransaction.execute(status -> {
+                    if (!batchRepository.markSlaBreachNotified(batch.getId(), now)) {
+                        return false;
+                    }
+                    notificationPort.notifyBatchSlaBreached(batch.getId(), batch.getInsurerId());
+                    return true;
+                });
+                if (Boolean.TRUE.equals(notified)) {
+                    log.warn("Batch {} has breached SLA deadline", batch.getId());
+                    meterRegistry.counter("endorsement.batch.sla.breached",
+                            "insurerId", batch.getInsurerId().toString()).increment();
+                }
+            } catch (Exception e) {
+                log.error("Failed to notify SLA breach for batch {}: {}", batch.getId(), e.getMessage(), e);
+            }
         }
+    }
 
+    /**
+     * Polls every batch on its own virtual thread, with a semaphore per insurer
+     * capping how many of its batches are in flight. Returns how many failed.
+     */
+    private int pollConcurrently(List<EndorsementBatch> batches) {
+        Map<UUID, Semaphore> permits = new HashMap<>();
+        for (EndorsementBatch batch : batches) {
+            permits.computeIfAbsent(batch.getInsurerId(), id -> new Semaphore(maxConcurrentPerInsurer));
+        }
+
+        int failures = 0;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> polls = new ArrayList<>(batches.size());
+            for (EndorsementBatch batch : batches) {
+                Semaphore insurerPermits = permits.get(batch.getInsurerId());
+                polls.add(executor.submit(() -> {
+                    insurerPermits.acquire();
+                    try {
+                        pollBatch(batch);
+                    } finally {
+                        insurerPermits.release();
+                    }
+                    return null;
+                }));
+            }
+            for (int i = 0; i < polls.size(); i++) {
+                EndorsementBatch batch = batches.get(i);
+                try {
+                    polls.get(i).get();
+                } catch (ExecutionException e) {
+                    failures++;
+                    meterRegistry.counter("endorsement.batch.poll.failed",
+                            "insurerId", batch.getInsurerId().toString()).increment();
+                    log.error("Failed to poll batch {} for insurer {}: {}",
+                            batch.getId(), batch.getInsurerId(), e.getCause().getMessage(), e.getCause());
+                    backOffQuietly(batch);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while polling batch statuses", e);
+                }
+            }
+        }
+        return failures;
+    }
+
+    private void pollBatch(EndorsementBatch batch) {
         try {
             MDC.put("batchId", batch.getId().toString());
+            MDC.put("insurerId", batch.getInsurerId().toString());
 
-            if (batch.isSlaBreached(Instant.now())) {
-                log.warn("Batch {} has breached SLA deadline", batch.getId());
-                notificationPort.notifyBatchSlaBreached(batch.getId(), batch.getInsurerId());
+            InsurerPort insurerPort = insurerRouter.resolve(batch.getInsurerId());
+            long slaHours = insurerPort.getCapabilities().batchSlaHours();
+            if (batch.getInsurerBatchRef() == null) {
+                scheduleNextPoll(batch, slaHours, false);
+                return;
             }
 
-            InsurerPort insurerPort = insurerRouter.resolve(batch.getInsurerId());
             InsurerPort.BatchStatusResult statusResult = insurerPort.checkBatchStatus(batch.getInsurerBatchRef());
 
-            switch (statusResult.status()) {
-                case "PROCESSING" -> {
-                    if (batch.getStatus() != BatchStatus.PROCESSING) {
-                        batch.setStatus(BatchStatus.PROCESSING);
-                        batchRepository.save(batch);
-                    }
-                }
-                case "COMPLETED" -> {
-                    batch.setStatus(BatchStatus.COMPLETE);
-                    batchRepository.save(batch);
-                    for (InsurerPort.EndorsementResult er : statusResult.results()) {
-                        if (er.confirmed()) {
-                            processHandler.handleConfirmation(er.endorsementId(), er.insurerReference());
+            applyTransaction.executeWithoutResult(status -> {
+                switch (statusResult.status()) {
+                    case "PROCESSING" -> {
+                        if (batch.getStatus() != BatchStatus.PROCESSING) {
+                            batch.setStatus(BatchStatus.PROCESSING);
+                            scheduleNextPoll(batch, slaHours, true);
                         } else {
-                            processHandler.handleRejection(er.endorsementId(), er.rejectionReason());
+                            scheduleNextPoll(batch, slaHours, false);
                         }
                     }
-                    log.info("Batch {} completed with {} results", batch.getId(), statusResult.results().size());
-                }
-                case "FAILED" -> {
-                    batch.setStatus(BatchStatus.FAILED);
-                    batchRepository.save(batch);
-                    log.error("Batch {} failed at insurer", batch.getId());
+                    case "COMPLETED" -> {
+                        if (complete(batch, BatchStatus.COMPLETE)) {
+                            applyResults(statusResult.results());
+                            log.info("Batch {} completed with {} results",
+                                    batch.getId(), statusResult.results().size());
+                        }
+                    }
+                    case "FAILED" -> {
+                        if (complete(batch, BatchStatus.FAILED)) {
+                            log.error("Batch {} failed at insurer", batch.getId());
+                        }
+                    }
+                    default -> {
+                        log.debug("Batch {} status: {}", batch.getId(), statusResult.status());
+                        scheduleNextPoll(batch, slaHours, false);
+                    }
                 }
-                default -> log.debug("Batch {} status: {}", batch.getId(), statusResult.status());
-            }
+            });
         } finally {
             MDC.remove("batchId");
+            MDC.remove("insurerId");
+        }
+    }
+
+    /**
+     * Settles the batch unless something else settled it since it was read;
+     * returns whether this poll did, and so should apply its results.
+     */
+    private boolean complete(EndorsementBatch batch, BatchStatus status) {
+        if (!batchRepository.transition(batch.getId(), BatchStatus.OPEN, status, null, batch.getPollCount())) {
+            superseded(batch);
+            return false;
+        }
+        batch.setStatus(status);
+        batch.setNextPollAt(null);
+        return true;
+    }
+
+    private void superseded(EndorsementBatch batch) {
+        meterRegistry.counter("endorsement.batch.poll.superseded",
+                "insurerId", batch.getInsurerId().toString()).increment();
+        log.info("Batch {} was settled while it was being polled, dropping the poll's outcome", batch.getId());
+    }
+
+    private void applyResults(List<InsurerPort.EndorsementResult> results) {
+        List<InsurerPort.EndorsementResult> confirmations = new ArrayList<>();
+        for (InsurerPort.EndorsementResult er : results) {
+            if (er.confirmed()) {
+                confirmations.add(er);
+            } else {
+                processHandler.handleRejection(er.endorsementId(), er.rejectionReason());
+            }
+        }
+        if (!confirmations.isEmpty()) {
+            processHandler.handleConfirmations(confirmations);
+        }
+    }
+
+    /**
+     * Progress (a status change) resets the backoff; otherwise the batch's
+     * poll count grows and its next poll moves further out. A status change
+     * only applies while the batch is still open; no change only touches the
+     * schedule.
+     */
+    private void scheduleNextPoll(EndorsementBatch batch, long slaHours, boolean progressed) {
+        Instant now = Instant.now();
+        int pollCount = progressed ? 0 : batch.getPollCount() + 1;
+        Instant nextPollAt = now.plus(nextPollDelay(pollCount, slaHours, now, batch.getSlaDeadline(), minPollInterval));
+        batch.setPollCount(pollCount);
+        batch.setNextPollAt(nextPollAt);
+        if (progressed) {
+            if (!batchRepository.transition(batch.getId(), BatchStatus.OPEN, batch.getStatus(), nextPollAt, pollCount)) {
+                superseded(batch);
+            }
+        } else {
+            batchRepository.schedulePoll(batch.getId(), nextPollAt, pollCount);
+        }
+    }
+
+    private void backOffQuietly(EndorsementBatch batch) {
+        try {
+            long slaHours = insurerRouter.resolve(batch.getInsurerId()).getCapabilities().batchSlaHours();
+            Instant now = Instant.now();
+            int pollCount = batch.getPollCount() + 1;
+            batchRepository.schedulePoll(batch.getId(),
+                    now.plus(nextPollDelay(pollCount, slaHours, now, batch.getSlaDeadline(), minPollInterval)),
+                    pollCount);
+        } catch (Exception e) {
+            log.warn("Failed to reschedule poll for batch {}: {}", batch.getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * {@code minInterval * 2^pollCount}, capped at 1/24 of the SLA window (or
+     * at {@code minInterval} when the SLA is unknown), and shortened so that a
+     * batch still inside its SLA is polled again at its deadline.
+     */
+    static Duration nextPollDelay(int pollCount, long slaHours, Instant now, Instant slaDeadline,
+                                  Duration minInterval) {
+        Duration cap = Duration.ofHours(Math.max(0, slaHours)).dividedBy(POLLS_PER_SLA_WINDOW);
+        if (cap.compareTo(minInterval) < 0) {
+            cap = minInterval;
+        }
+        Duration delay = minInterval.multipliedBy(1L << Math.min(pollCount, 20));
+        if (delay.compareTo(cap) > 0) {
+            delay = cap;
+        }
+        if (slaDeadline != null && now.isBefore(slaDeadline)) {
+            Duration untilDeadline = Duration.between(now, slaDeadline);
+            if (delay.compareTo(untilDeadline) > 0) {
+                delay = untilDeadline.compareTo(minInterval) > 0 ? untilDeadline : minInterval;
+            }
         }
+        return delay;
     }
 }
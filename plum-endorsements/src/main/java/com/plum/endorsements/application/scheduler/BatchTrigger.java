@@ -0,0 +1,192 @@
+package com.plum.endorsements.application.scheduler;
+
+import com.plum.endorsements.domain.model.BatchQueueDepth;
+import com.plum.endorsements.domain.model.Endorsement;
+import com.plum.endorsements.domain.model.EndorsementStatus;
+import com.plum.endorsements.domain.port.BatchRepository;
+import com.plum.endorsements.domain.port.EndorsementRepository;
+import com.plum.endorsements.domain.port.StatusTransitionListener;
+import com.plum.endorsements.infrastructure.insurer.InsurerRouter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cuts a batch as soon as an insurer's queue can fill one, or once its oldest
+ * queued endorsement has waited {@code endorsement.batch.trigger.max-age-ms},
+ * instead of waiting for the next {@link BatchAssemblyScheduler} cron run.
+ *
+ * <p>Every committed move into QUEUED_FOR_BATCH on this replica bumps the
+ * insurer's pending count and fires assembly the moment it reaches the
+ * insurer's {@code maxBatchSize}. A short fixed-delay check reloads the real
+ * depth and age of every queue from the database, which covers endorsements
+ * queued on other replicas and fires the age threshold. Assembly runs on a
+ * virtual thread, at most one per insurer per replica; the per-insurer lock
+ * in {@link BatchAssemblyScheduler#assembleForInsurer} keeps replicas apart.</p>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "endorsement.batch.trigger.enabled", havingValue = "true", matchIfMissing = true)
+public class BatchTrigger implements StatusTransitionListener {
+
+    private final EndorsementRepository endorsementRepository;
+    private final BatchRepository batchRepository;
+    private final InsurerRouter insurerRouter;
+    // Lazy: the scheduler reaches this listener through the state machine
+    private final ObjectProvider<BatchAssemblyScheduler> assembler;
+    private final MeterRegistry meterRegistry;
+    private final Duration maxAge;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<UUID, InsurerQueue> queues = new ConcurrentHashMap<>();
+
+    public BatchTrigger(EndorsementRepository endorsementRepository,
+                        BatchRepository batchRepository,
+                        InsurerRouter insurerRouter,
+                        ObjectProvider<BatchAssemblyScheduler> assembler,
+                        MeterRegistry meterRegistry,
+                        @Value("${endorsement.batch.trigger.max-age-ms:60000}") long maxAgeMs) {
+        this.endorsementRepository = endorsementRepository;
+        this.batchRepository = batchRepository;
+        this.insurerRouter = insurerRouter;
+        this.assembler = assembler;
+        this.meterRegistry = meterRegistry;
+        this.maxAge = Duration.ofMillis(maxAgeMs);
+    }
+
+    private static class InsurerQueue {
+        private final AtomicLong pending = new AtomicLong();
+        private final AtomicBoolean running = new AtomicBoolean();
+        // Set while the insurer still has a batch out; the size path waits for the check to clear it
+        private volatile boolean batchInFlight;
+        // After a run that submitted nothing, the age threshold waits this long
+        private volatile Instant quietUntil = Instant.MIN;
+    }
+
+    @Override
+    public void onTransition(Endorsement endorsement, EndorsementStatus from, Instant enteredFromAt) {
+        if (endorsement.getStatus() != EndorsementStatus.QUEUED_FOR_BATCH || endorsement.getInsurerId() == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()
+                && TransactionSynchronizationManager.isActualTransactionActive()) {
+            PendingQueued pending = (PendingQueued) TransactionSynchronizationManager.getResource(this);
+            if (pending == null) {
+                pending = new PendingQueued();
+                TransactionSynchronizationManager.bindResource(this, pending);
+                TransactionSynchronizationManager.registerSynchronization(pending);
+            }
+            pending.queued.merge(endorsement.getInsurerId(), 1L, Long::sum);
+        } else {
+            queued(endorsement.getInsurerId(), 1);
+        }
+    }
+
+    void queued(UUID insurerId, long count) {
+        InsurerQueue queue = queues.computeIfAbsent(insurerId, id -> new InsurerQueue());
+        if (queue.pending.addAndGet(count) >= maxBatchSize(insurerId) && !queue.batchInFlight) {
+            fire(insurerId, queue, "size");
+        }
+    }
+
+    /**
+     * Reloads every queue's depth and age and fires the insurers that are
+     * full or have waited long enough. Runs on every replica, since each one
+     * keeps its own pending counts; the query only reads the queue index.
+     */
+    @Scheduled(fixedDelayString = "${endorsement.batch.trigger.check-interval-ms:5000}")
+    public void checkQueues() {
+        Instant now = Instant.now();
+        Instant ageCutoff = now.minus(maxAge);
+        for (BatchQueueDepth queueDepth : endorsementRepository.findBatchQueueDepths()) {
+            UUID insurerId = queueDepth.insurerId();
+            InsurerQueue queue = queues.computeIfAbsent(insurerId, id -> new InsurerQueue());
+            queue.pending.set(queueDepth.depth());
+
+            String reason;
+            if (queueDepth.depth() >= maxBatchSize(insurerId)) {
+                reason = "size";
+            } else if (queueDepth.oldestCreatedAt().isBefore(ageCutoff) && now.isAfter(queue.quietUntil)) {
+                reason = "age";
+            } else {
+                continue;
+            }
+            fire(insurerId, queue, reason);
+        }
+    }
+
+    /**
+     * Runs the insurer's assembly on a virtual thread unless one is already
+     * running. An insurer with a batch still in flight can only take a new
+     * one once it closes, so it is skipped quietly rather than through the
+     * scheduler's active-batch warning.
+     */
+    private void fire(UUID insurerId, InsurerQueue queue, String reason) {
+        if (!queue.running.compareAndSet(false, true)) {
+            return;
+        }
+        executor.execute(() -> {
+            try {
+                queue.batchInFlight = batchRepository.existsByInsurerIdAndStatusIn(
+                        insurerId, BatchAssemblyScheduler.ACTIVE_BATCH_STATUSES);
+                if (queue.batchInFlight) {
+                    return;
+                }
+                meterRegistry.counter("endorsement.batch.trigger.fired",
+                        "insurerId", insurerId.toString(), "reason", reason).increment();
+                int submitted = assembler.getObject().assembleForInsurer(insurerId);
+                queue.pending.updateAndGet(pending -> Math.max(0, pending - submitted));
+                if (submitted == 0) {
+                    queue.quietUntil = Instant.now().plus(maxAge);
+                }
+                log.debug("Batch trigger ({}) for insurer {} submitted {} endorsement(s)",
+                        reason, insurerId, submitted);
+            } catch (Exception e) {
+                meterRegistry.counter("endorsement.batch.trigger.failed",
+                        "insurerId", insurerId.toString()).increment();
+                log.error("Triggered batch assembly failed for insurer {}", insurerId, e);
+            } finally {
+                queue.running.set(false);
+            }
+        });
+    }
+
+    private int maxBatchSize(UUID insurerId) {
+        return insurerRouter.resolve(insurerId).getCapabilities().maxBatchSize();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private class PendingQueued implements TransactionSynchronization {
+
+        private final Map<UUID, Long> queued = new HashMap<>();
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(BatchTrigger.this);
+            if (status == STATUS_COMMITTED) {
+                queued.forEach(BatchTrigger.this::queued);
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.plum.endorsements.application.scheduler;
+
+import com.plum.endorsements.application.service.EALedgerService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+
+/**
+ * Snapshots every active EA ledger each hour and once a day opens the
+ * coming months' ledger partitions, detaching old ones when configured.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EALedgerScheduler {
+
+    private final EALedgerService ledgerService;
+    private final MeterRegistry meterRegistry;
+
+    @Scheduled(cron = "${endorsement.ea.ledger.snapshot-cron:0 5 * * * *}")
+    @SchedulerLock(name = "eaLedgerSnapshot", lockAtLeastFor = "PT1M", lockAtMostFor = "PT30M")
+    public void snapshotLedgers() {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String result = "success";
+        try {
+            EALedgerService.SnapshotRun run = ledgerService.snapshotAll(Instant.now());
+            log.info("Wrote {} EA ledger snapshot(s), restated {}", run.written(), run.restated());
+        } catch (Exception e) {
+            result = "failure";
+            log.error("EA ledger snapshot failed", e);
+        } finally {
+            sample.stop(meterRegistry.timer("endorsement.scheduler.duration",
+                    "scheduler", "ea_ledger_snapshot", "result", result));
+            meterRegistry.counter("endorsement.scheduler.execution",
+                    "scheduler", "ea_ledger_snapshot", "result", result).increment();
+        }
+    }
+
+    @Scheduled(cron = "${endorsement.ea.ledger.partition-cron:0 30 2 * * *}")
+    @SchedulerLock(name = "eaLedgerPartitions", lockAtLeastFor = "PT1M", lockAtMostFor = "PT30M")
+    public void maintainPartitions() {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String result = "success";
+        try {
+            EALedgerService.PartitionRun run = ledgerService.maintainPartitions(YearMonth.now(ZoneOffset.UTC));
+            if (run.created() > 0 || run.detached() > 0) {
+                log.info("EA ledger partitions: {} created, {} detached", run.created(), run.detached());
+            }
+        } catch (Exception e) {
+            result = "failure";
+            log.error("EA ledger partition maintenance failed", e);
+        } finally {
+            sample.stop(meterRegistry.timer("endorsement.scheduler.duration",
+                    "scheduler", "ea_ledger_partitions", "result", result));
+            meterRegistry.counter("endorsement.scheduler.execution",
+                    "scheduler", "ea_ledger_partitions", "result", result).increment();
+        }
+    }
+}
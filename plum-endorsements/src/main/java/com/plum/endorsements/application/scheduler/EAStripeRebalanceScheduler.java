@@ -0,0 +1,56 @@
+package com.plum.endorsements.application.scheduler;
+
+import com.plum.endorsements.application.service.EAReservationService;
+import com.plum.endorsements.domain.model.EAAccount;
+import com.plum.endorsements.domain.port.EAAccountRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically spreads each EA account's free balance evenly over its stripes,
+ * so stripes drained by fast-path reservations regain headroom and balance
+ * changes reach the stripes. Each account is rebalanced in its own short
+ * transaction.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EAStripeRebalanceScheduler {
+
+    private final EAAccountRepository eaAccountRepository;
+    private final EAReservationService reservationService;
+    private final MeterRegistry meterRegistry;
+
+    @Scheduled(fixedDelayString = "${endorsement.ea.stripes.rebalance-interval-ms:30000}")
+    @SchedulerLock(name = "eaStripeRebalance", lockAtMostFor = "PT5M")
+    public void rebalanceStripes() {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String result = "success";
+        try {
+            int rebalanced = 0;
+            for (EAAccount account : eaAccountRepository.findAll()) {
+                try {
+                    reservationService.rebalance(account.getEmployerId(), account.getInsurerId());
+                    rebalanced++;
+                } catch (Exception e) {
+                    log.warn("Failed to rebalance EA stripes for employer {} insurer {}: {}",
+                            account.getEmployerId(), account.getInsurerId(), e.getMessage());
+                }
+            }
+            log.debug("Rebalanced EA stripes for {} account(s)", rebalanced);
+        } catch (Exception e) {
+            result = "failure";
+            log.error("EA stripe rebalance failed", e);
+        } finally {
+            sample.stop(meterRegistry.timer("endorsement.scheduler.duration",
+                    "scheduler", "ea_stripe_rebalance", "result", result));
+            meterRegistry.counter("endorsement.scheduler.execution",
+                    "scheduler", "ea_stripe_rebalance", "result", result).increment();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.plum.endorsements.application.scheduler;
+
+import com.plum.endorsements.application.service.EndorsementStatusCountService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the endorsement status counts compact and correct. Both jobs share one
+ * lock so a compaction never deletes deltas a reconciliation is replacing.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EndorsementStatusCountScheduler {
+
+    private final EndorsementStatusCountService statusCountService;
+    private final MeterRegistry meterRegistry;
+
+    @Scheduled(fixedDelayString = "${endorsement.status-counts.compaction-interval-ms:10000}")
+    @SchedulerLock(name = "endorsementStatusCounts", lockAtMostFor = "PT5M")
+    public void compactDeltas() {
+        run("status_count_compaction", () -> {
+            int folded = statusCountService.compact();
+            log.debug("Folded {} endorsement status count delta(s)", folded);
+        });
+    }
+
+    @Scheduled(cron = "${endorsement.status-counts.reconcile-cron:0 30 3 * * *}")
+    @SchedulerLock(name = "endorsementStatusCounts", lockAtMostFor = "PT30M")
+    public void reconcileCounts() {
+        run("status_count_reconciliation", () -> {
+            log.info("Reconciling endorsement status counts");
+            int drifted = statusCountService.reconcile();
+            log.info("Endorsement status count reconciliation completed, {} count(s) corrected", drifted);
+        });
+    }
+
+    private void run(String scheduler, Runnable job) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String result = "success";
+        try {
+            job.run();
+        } catch (Exception e) {
+            result = "failure";
+            log.error("Scheduler {} failed", scheduler, e);
+        } finally {
+            sample.stop(meterRegistry.timer("endorsement.scheduler.duration",
+                    "scheduler", scheduler, "result", result));
+            meterRegistry.counter("endorsement.scheduler.execution",
+                    "scheduler", scheduler, "result", result).increment();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.plum.endorsements.application.scheduler;
+
+import com.plum.endorsements.application.handler.InsurerCallbackHandler;
+import com.plum.endorsements.domain.port.InsurerCallbackInbox;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drains the insurer callback inbox through {@link InsurerCallbackHandler}
+ * in chunks of {@code batch-size}, until it is empty or {@code max-drain-ms}
+ * has passed, and once a day deletes applied callbacks older than
+ * {@code retention-days}. ShedLock keeps a single applier running across
+ * replicas, so callbacks are applied in the order they arrived.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "endorsement.insurer.callbacks.enabled", havingValue = "true", matchIfMissing = true)
+public class InsurerCallbackApplyScheduler {
+
+    private final InsurerCallbackHandler callbackHandler;
+    private final InsurerCallbackInbox inbox;
+    private final MeterRegistry meterRegistry;
+    private final int batchSize;
+    private final long maxDrainMs;
+    private final Duration retention;
+
+    public InsurerCallbackApplyScheduler(InsurerCallbackHandler callbackHandler,
+                                         InsurerCallbackInbox inbox,
+                                         MeterRegistry meterRegistry,
+                                         @Value("${endorsement.insurer.callbacks.batch-size:500}") int batchSize,
+                                         @Value("${endorsement.insurer.callbacks.max-drain-ms:5000}") long maxDrainMs,
+                                         @Value("${endorsement.insurer.callbacks.retention-days:7}") int retentionDays) {
+        this.callbackHandler = callbackHandler;
+        this.inbox = inbox;
+        this.meterRegistry = meterRegistry;
+        this.batchSize = batchSize;
+        this.maxDrainMs = maxDrainMs;
+        this.retention = Duration.ofDays(retentionDays);
+    }
+
+    @Scheduled(fixedDelayString = "${endorsement.insurer.callbacks.apply-interval-ms:500}")
+    @SchedulerLock(name = "insurerCallbackApply", lockAtMostFor = "PT2M")
+    public void applyCallbacks() {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String result = "success";
+        try {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxDrainMs);
+            int taken;
+            do {
+                taken = callbackHandler.applyPending(batchSize);
+            } while (taken == batchSize && System.nanoTime() < deadline);
+        } catch (Exception e) {
+            result = "failure";
+            log.error("Applying insurer callbacks failed", e);
+        } finally {
+            sample.stop(meterRegistry.timer("endorsement.scheduler.duration",
+                    "scheduler", "callback_apply", "result", result));
+            meterRegistry.counter("endorsement.scheduler.execution",
+                    "scheduler", "callback_apply", "result", result).increment();
+        }
+    }
+
+    @Scheduled(cron = "${endorsement.insurer.callbacks.purge-cron:0 15 4 * * *}")
+    @SchedulerLock(name = "insurerCallbackPurge", lockAtLeastFor = "PT1M", lockAtMostFor = "PT30M")
+    public void purgeApplied() {
+        int purged = inbox.purgeAppliedBefore(Instant.now().minus(retention));
+        if (purged > 0) {
+            log.info("Purged {} applied insurer callbacks older than {}", purged, retention);
+        }
+    }
+}
@@ -25,13 +25,13 @@ public class ProcessMiningScheduler {
         Timer.Sample sample = Timer.start(meterRegistry);
         String result = "success";
         try {
-            log.info("Starting daily process mining analysis");
-            processMiningService.generateInsights();
+            log.info("Starting daily process mining snapshot");
+            processMiningService.snapshotAggregates();
             processMiningService.captureAllStpRateSnapshots();
-            log.info("Daily process mining analysis completed");
+            log.info("Daily process mining snapshot completed");
         } catch (Exception e) {
             result = "failure";
-            log.error("Daily process mining analysis failed", e);
+            log.error("Daily process mining snapshot failed", e);
         } finally {
             sample.stop(meterRegistry.timer("endorsement.scheduler.duration",
                     "scheduler", "process_mining", "result", result));
@@ -20,7 +20,10 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Component
@@ -63,14 +66,18 @@ public class ProvisionalCoverageCleanupScheduler {
             int expiredCount = 0;
             int skippedCount = 0;
 
+            // One lookup for every stale coverage's endorsement
+            Map<UUID, Endorsement> endorsements = endorsementRepository.findAllById(
+                            stale.stream().map(ProvisionalCoverage::getEndorsementId).toList())
+                    .stream()
+                    .collect(Collectors.toMap(Endorsement::getId, Function.identity()));
+
             for (ProvisionalCoverage coverage : stale) {
                 // Gap 2 fix: check endorsement status before expiring
-                Optional<Endorsement> endorsementOpt = endorsementRepository
-                        .findById(coverage.getEndorsementId());
-                if (endorsementOpt.isPresent() && endorsementOpt.get().getStatus().isActive()) {
+                Endorsement endorsement = endorsements.get(coverage.getEndorsementId());
+                if (endorsement != null && endorsement.getStatus().isActive()) {
                     log.warn("Skipping coverage {} — endorsement {} is still active (status={})",
-                            coverage.getId(), coverage.getEndorsementId(),
-                            endorsementOpt.get().getStatus());
+                            coverage.getId(), coverage.getEndorsementId(), endorsement.getStatus());
                     skippedCount++;
                     continue;
                 }
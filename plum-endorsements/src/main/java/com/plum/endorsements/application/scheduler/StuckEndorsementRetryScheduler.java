@@ -4,6 +4,7 @@ import com.plum.endorsements.application.handler.ProcessEndorsementHandler;
 import com.plum.endorsements.domain.model.Endorsement;
 import com.plum.endorsements.domain.model.EndorsementStatus;
 import com.plum.endorsements.domain.port.EndorsementRepository;
+import com.plum.endorsements.infrastructure.insurer.admission.AdmissionPriority;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
@@ -48,7 +49,9 @@ public class StuckEndorsementRetryScheduler {
 
             for (Endorsement endorsement : retryPending) {
                 try {
-                    processEndorsementHandler.submitToInsurer(endorsement.getId());
+                    // Queues behind fresh traffic for the insurer's rate limit
+                    AdmissionPriority.runAs(AdmissionPriority.RETRY,
+                            () -> processEndorsementHandler.submitToInsurer(endorsement.getId()));
                     resubmitted++;
                     log.info("Resubmitted stuck endorsement {} (retry #{})",
                             endorsement.getId(), endorsement.getRetryCount());
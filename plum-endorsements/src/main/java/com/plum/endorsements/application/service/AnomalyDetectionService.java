@@ -22,6 +22,7 @@ import java.util.UUID;
 public class AnomalyDetectionService {
 
     private final AnomalyDetectionPort anomalyDetector;
+    private final AnomalyFeatureService featureService;
     private final AnomalyDetectionRepository anomalyRepository;
     private final EndorsementRepository endorsementRepository;
     private final EventPublisher eventPublisher;
@@ -34,14 +35,8 @@ public class AnomalyDetectionService {
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void analyzeEndorsement(UUID endorsementId) {
         endorsementRepository.findById(endorsementId).ifPresent(endorsement -> {
-            List<Endorsement> recentHistory = new ArrayList<>(endorsementRepository.findByStatus(EndorsementStatus.CREATED));
-            recentHistory.addAll(endorsementRepository.findByStatus(EndorsementStatus.VALIDATED));
-            recentHistory.addAll(endorsementRepository.findByStatus(EndorsementStatus.PROVISIONALLY_COVERED));
-            recentHistory.addAll(endorsementRepository.findByStatus(EndorsementStatus.QUEUED_FOR_BATCH));
-            recentHistory.addAll(endorsementRepository.findByStatus(EndorsementStatus.BATCH_SUBMITTED));
-            recentHistory.addAll(endorsementRepository.findByStatus(EndorsementStatus.CONFIRMED));
-
-            AnomalyDetectionPort.AnomalyResult result = anomalyDetector.analyzeEndorsement(endorsement, recentHistory);
+            AnomalyFeatures features = featureService.featuresFor(endorsement);
+            AnomalyDetectionPort.AnomalyResult result = anomalyDetector.analyzeEndorsement(endorsement, features);
 
             meterRegistry.summary("endorsement.anomaly.score", "anomalyType", result.anomalyType())
                     .record(result.score());
@@ -83,9 +78,6 @@ public class AnomalyDetectionService {
         recent.addAll(endorsementRepository.findByStatus(EndorsementStatus.VALIDATED));
         recent.addAll(endorsementRepository.findByStatus(EndorsementStatus.PROVISIONALLY_COVERED));
 
-        List<Endorsement> allHistory = new ArrayList<>(endorsementRepository.findByStatus(EndorsementStatus.CONFIRMED));
-        allHistory.addAll(recent);
-
         int analyzed = 0;
         for (Endorsement endorsement : recent) {
             if (endorsement.getCreatedAt() != null && endorsement.getCreatedAt().isAfter(since)) {
@@ -94,7 +86,11 @@ public class AnomalyDetectionService {
             }
         }
 
-        log.info("Batch anomaly analysis completed: {} endorsements analyzed", analyzed);
+        // Activity buckets older than the 30-day window are no longer read
+        int purged = featureService.purgeActivityBefore(Instant.now().minus(31, ChronoUnit.DAYS));
+
+        log.info("Batch anomaly analysis completed: {} endorsements analyzed, {} expired activity buckets purged",
+                analyzed, purged);
     }
 
     @Transactional
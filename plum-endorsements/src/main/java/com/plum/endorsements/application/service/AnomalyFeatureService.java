@@ -0,0 +1,85 @@
+package com.plum.endorsements.application.service;
+
+import com.plum.endorsements.domain.model.AnomalyFeatures;
+import com.plum.endorsements.domain.model.Endorsement;
+import com.plum.endorsements.domain.port.AnomalyFeatureStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Keeps the anomaly feature store in step with endorsement creation.
+ *
+ * <p>Features are recorded after the creating transaction commits, in a short
+ * transaction of their own: the per-employer rows are shared by every create
+ * for that employer, and holding their locks until the create commits would
+ * serialize those creates again. A failure only costs scoring accuracy, so it
+ * is logged and counted rather than propagated.</p>
+ */
+@Slf4j
+@Service
+public class AnomalyFeatureService {
+
+    private final AnomalyFeatureStore featureStore;
+    private final TransactionTemplate recordTransaction;
+    private final MeterRegistry meterRegistry;
+
+    public AnomalyFeatureService(AnomalyFeatureStore featureStore,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry) {
+        this.featureStore = featureStore;
+        this.recordTransaction = new TransactionTemplate(transactionManager);
+        this.recordTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Records newly created endorsements once the surrounding transaction
+     * commits, or immediately when there is none. Nothing is recorded on rollback.
+     */
+    public void recordCreated(List<Endorsement> endorsements) {
+        if (endorsements.isEmpty()) {
+            return;
+        }
+        List<Endorsement> created = List.copyOf(endorsements);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    record(created);
+                }
+            });
+        } else {
+            record(created);
+        }
+    }
+
+    private void record(List<Endorsement> endorsements) {
+        try {
+            recordTransaction.executeWithoutResult(status -> featureStore.record(endorsements));
+            meterRegistry.counter("endorsement.anomaly.features.recorded", "result", "success")
+                    .increment(endorsements.size());
+        } catch (Exception e) {
+            meterRegistry.counter("endorsement.anomaly.features.recorded", "result", "failure")
+                    .increment(endorsements.size());
+            log.error("Failed to record anomaly features for {} endorsement(s), first={}: {}",
+                    endorsements.size(), endorsements.get(0).getId(), e.getMessage(), e);
+        }
+    }
+
+    public AnomalyFeatures featuresFor(Endorsement endorsement) {
+        return featureStore.featuresFor(endorsement, Instant.now());
+    }
+
+    public int purgeActivityBefore(Instant cutoff) {
+        return featureStore.purgeActivityBefore(cutoff);
+    }
+}
@@ -7,21 +7,58 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 
+/**
+ * Balance forecasts per EA account. The nightly run reads the endorsement
+ * history once, already aggregated into one daily series per employer and
+ * insurer, forecasts the accounts in parallel and writes every forecast in
+ * one batch, instead of reloading the whole history for each account.
+ *
+ * <p>Only reading the history and writing the forecasts run in
+ * transactions; forecasting runs between them with no connection held.
+ * Shortfall notifications call out to webhooks, so they are sent once the
+ * forecasts are committed.</p>
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class BalanceForecastService {
 
+    private static final List<EndorsementStatus> HISTORY_STATUSES = List.of(
+            EndorsementStatus.CREATED, EndorsementStatus.VALIDATED,
+            EndorsementStatus.CONFIRMED, EndorsementStatus.PROVISIONALLY_COVERED);
+
+    public record ForecastRun(int generated, int failed) {
+    }
+
+    private record AccountKey(UUID employerId, UUID insurerId) {
+    }
+
+    private record Shortfall(UUID employerId, BigDecimal need, BigDecimal available, BigDecimal amount,
+                             int daysAhead) {
+    }
+
     private final BalanceForecastPort forecastEngine;
     private final BalanceForecastRepository forecastRepository;
     private final EndorsementRepository endorsementRepository;
@@ -29,34 +66,118 @@ public class BalanceForecastService {
     private final EventPublisher eventPublisher;
     private final NotificationPort notificationPort;
     private final MeterRegistry meterRegistry;
+    private final PlatformTransactionManager transactionManager;
 
     @Value("${endorsement.intelligence.balance-forecast.alert-days-ahead:7}")
     private int alertDaysAhead;
 
+    // 0 uses one thread per available processor
+    @Value("${endorsement.intelligence.balance-forecast.parallelism:0}")
+    private int parallelism;
+
     @Transactional
     public BalanceForecastRecord generateForecast(UUID employerId, UUID insurerId) {
-        // Gather history
-        List<Endorsement> history = new ArrayList<>();
-        history.addAll(endorsementRepository.findByStatus(EndorsementStatus.CREATED));
-        history.addAll(endorsementRepository.findByStatus(EndorsementStatus.VALIDATED));
-        history.addAll(endorsementRepository.findByStatus(EndorsementStatus.CONFIRMED));
-        history.addAll(endorsementRepository.findByStatus(EndorsementStatus.PROVISIONALLY_COVERED));
+        EndorsementVolumeSeries history = endorsementRepository.findDailyVolumes(
+                employerId, insurerId, HISTORY_STATUSES, historySince());
+        BalanceForecastPort.ForecastResult result = forecastEngine.generateForecast(history);
 
-        BalanceForecastPort.ForecastResult result = forecastEngine.generateForecast(employerId, insurerId, history);
-
-        // Check current balance and compute shortfall
         Optional<EAAccount> accountOpt = eaAccountRepository.findByEmployerIdAndInsurerId(employerId, insurerId);
-        BigDecimal shortfall = BigDecimal.ZERO;
-        boolean topUpRequired = false;
-
-        if (accountOpt.isPresent()) {
-            EAAccount account = accountOpt.get();
-            BigDecimal available = account.availableBalance();
-            shortfall = result.forecastedNeed().subtract(available);
-            topUpRequired = shortfall.signum() > 0;
+        BalanceForecastRecord record = forecastRepository.save(toRecord(employerId, insurerId, result));
+
+        List<Shortfall> shortfalls = new ArrayList<>(1);
+        announce(record, result, accountOpt.orElse(null), eventPublisher::publish, shortfalls::add);
+        notifyAfterCommit(shortfalls);
+        return record;
+    }
+
+    /**
+     * Forecasts every EA account. An account whose forecast fails is logged
+     * and left out; the others are still written.
+     */
+    public ForecastRun generateAllForecasts() {
+        List<EAAccount> accounts = eaAccountRepository.findAll();
+        if (accounts.isEmpty()) {
+            return new ForecastRun(0, 0);
         }
 
-        BalanceForecastRecord record = BalanceForecastRecord.builder()
+        Map<AccountKey, EndorsementVolumeSeries> histories = HashMap.newHashMap(accounts.size());
+        for (EAAccount account : accounts) {
+            AccountKey key = new AccountKey(account.getEmployerId(), account.getInsurerId());
+            histories.put(key, EndorsementVolumeSeries.empty(key.employerId(), key.insurerId()));
+        }
+        // The history is streamed through a cursor, which needs a transaction
+        TransactionTemplate readTransaction = new TransactionTemplate(transactionManager);
+        readTransaction.setReadOnly(true);
+        readTransaction.executeWithoutResult(status -> endorsementRepository.streamDailyVolumes(
+                HISTORY_STATUSES, historySince(), series ->
+                        histories.replace(new AccountKey(series.employerId(), series.insurerId()), series)));
+
+        List<BalanceForecastPort.ForecastResult> results = forecastInParallel(accounts, histories);
+
+        List<BalanceForecastRecord> records = new ArrayList<>(accounts.size());
+        List<EAAccount> forecasted = new ArrayList<>(accounts.size());
+        List<BalanceForecastPort.ForecastResult> forecasts = new ArrayList<>(accounts.size());
+        for (int i = 0; i < accounts.size(); i++) {
+            BalanceForecastPort.ForecastResult result = results.get(i);
+            if (result != null) {
+                EAAccount account = accounts.get(i);
+                records.add(toRecord(account.getEmployerId(), account.getInsurerId(), result));
+                forecasted.add(account);
+                forecasts.add(result);
+            }
+        }
+        List<Shortfall> shortfalls = new ArrayList<>();
+        List<BalanceForecastRecord> saved = new TransactionTemplate(transactionManager).execute(status -> {
+            List<BalanceForecastRecord> written = forecastRepository.saveAll(records);
+            List<EndorsementEvent> events = new ArrayList<>(written.size());
+            for (int i = 0; i < written.size(); i++) {
+                announce(written.get(i), forecasts.get(i), forecasted.get(i), events::add, shortfalls::add);
+            }
+            eventPublisher.publishAll(events);
+            return written;
+        });
+        shortfalls.forEach(this::notifyShortfall);
+        return new ForecastRun(saved.size(), accounts.size() - saved.size());
+    }
+
+    /**
+     * Runs the engine for each account on a bounded pool; the forecast is
+     * pure computation over a short series, so more threads than processors
+     * would not help. A failed account's slot in the result is {@code null}.
+     */
+    private List<BalanceForecastPort.ForecastResult> forecastInParallel(
+            List<EAAccount> accounts, Map<AccountKey, EndorsementVolumeSeries> histories) {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        List<BalanceForecastPort.ForecastResult> results = new ArrayList<>(accounts.size());
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            List<Future<BalanceForecastPort.ForecastResult>> futures = accounts.stream()
+                    .map(account -> histories.get(new AccountKey(account.getEmployerId(), account.getInsurerId())))
+                    .map(history -> executor.submit(() -> forecastEngine.generateForecast(history)))
+                    .toList();
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    results.add(futures.get(i).get());
+                } catch (ExecutionException e) {
+                    EAAccount account = accounts.get(i);
+                    log.error("Failed to generate forecast for employer {} insurer {}",
+                            account.getEmployerId(), account.getInsurerId(), e.getCause());
+                    results.add(null);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while generating forecasts", e);
+        }
+        return results;
+    }
+
+    private Instant historySince() {
+        return Instant.now().minus(forecastEngine.historyDays(), ChronoUnit.DAYS);
+    }
+
+    private BalanceForecastRecord toRecord(UUID employerId, UUID insurerId,
+                                           BalanceForecastPort.ForecastResult result) {
+        return BalanceForecastRecord.builder()
                 .employerId(employerId)
                 .insurerId(insurerId)
                 .forecastDate(LocalDate.now().plusDays(result.daysAhead()))
@@ -64,36 +185,72 @@ public class BalanceForecastService {
                 .narrative(result.narrative())
                 .createdAt(Instant.now())
                 .build();
+    }
 
-        record = forecastRepository.save(record);
-
+    /**
+     * Counts the forecast, emits its event and, when the account cannot
+     * cover it, the shortfall alert. The shortfall itself goes to
+     * {@code shortfalls}, to be notified after commit.
+     */
+    private void announce(BalanceForecastRecord record, BalanceForecastPort.ForecastResult result,
+                          EAAccount account, Consumer<EndorsementEvent> events, Consumer<Shortfall> shortfalls) {
+        UUID employerId = record.getEmployerId();
         meterRegistry.counter("endorsement.forecast.generated",
                 "employerId", employerId.toString()).increment();
 
-        // Publish event
-        eventPublisher.publish(new EndorsementEvent.ForecastGenerated(
+        events.accept(new EndorsementEvent.ForecastGenerated(
                 UUID.randomUUID(), Instant.now(), employerId,
                 result.forecastedNeed(), result.daysAhead(), result.narrative()));
 
-        // Alert if shortfall detected
-        if (topUpRequired) {
-            meterRegistry.counter("endorsement.forecast.shortfall.detected",
-                    "employerId", employerId.toString()).increment();
+        // Check current balance and compute shortfall
+        if (account == null) {
+            return;
+        }
+        BigDecimal available = account.availableBalance();
+        BigDecimal shortfall = result.forecastedNeed().subtract(available);
+        if (shortfall.signum() <= 0) {
+            return;
+        }
+
+        meterRegistry.counter("endorsement.forecast.shortfall.detected",
+                "employerId", employerId.toString()).increment();
 
-            eventPublisher.publish(new EndorsementEvent.BalanceForecastAlert(
-                    UUID.randomUUID(), Instant.now(), employerId, shortfall));
+        events.accept(new EndorsementEvent.BalanceForecastAlert(
+                UUID.randomUUID(), Instant.now(), employerId, shortfall));
 
-            notificationPort.notifyInsufficientBalance(employerId,
-                    result.forecastedNeed(),
-                    accountOpt.map(EAAccount::availableBalance).orElse(BigDecimal.ZERO));
+        shortfalls.accept(new Shortfall(employerId, result.forecastedNeed(), available, shortfall,
+                result.daysAhead()));
 
-            notificationPort.notifyForecastShortfall(employerId, shortfall, result.daysAhead());
+        log.warn("Forecast shortfall for employer {}: need={}, shortfall={}",
+                employerId, result.forecastedNeed(), shortfall);
+    }
 
-            log.warn("Forecast shortfall for employer {}: need={}, shortfall={}",
-                    employerId, result.forecastedNeed(), shortfall);
+    private void notifyAfterCommit(List<Shortfall> shortfalls) {
+        if (shortfalls.isEmpty()) {
+            return;
         }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            shortfalls.forEach(this::notifyShortfall);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                shortfalls.forEach(BalanceForecastService.this::notifyShortfall);
+            }
+        });
+    }
 
-        return record;
+    // One employer's failed webhook does not keep the others from being notified
+    private void notifyShortfall(Shortfall shortfall) {
+        try {
+            notificationPort.notifyInsufficientBalance(shortfall.employerId(), shortfall.need(),
+                    shortfall.available());
+            notificationPort.notifyForecastShortfall(shortfall.employerId(), shortfall.amount(),
+                    shortfall.daysAhead());
+        } catch (RuntimeException e) {
+            log.error("Failed to notify forecast shortfall for employer {}", shortfall.employerId(), e);
+        }
     }
 
     public Optional<BalanceForecastRecord> getLatestForecast(UUID employerId, UUID insurerId) {
@@ -0,0 +1,170 @@
+package com.plum.endorsements.application.service;
+
+import com.plum.endorsements.domain.model.EALedgerSnapshot;
+import com.plum.endorsements.domain.model.EATransaction;
+import com.plum.endorsements.domain.port.EALedgerRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Balance and history questions over the EA ledger, answered from the latest
+ * {@link EALedgerSnapshot} plus the entries after it, and the upkeep that
+ * keeps those answers cheap: periodic snapshots per account and the monthly
+ * ledger partitions.
+ *
+ * <p>Snapshots are taken {@code snapshot-lag-ms} in the past. Entries are
+ * stamped when their transaction starts but become visible when it commits,
+ * so the lag keeps a snapshot from being written before most entries it
+ * should cover can be seen. An entry that commits later still is caught by
+ * the next runs, as long as it commits within {@code snapshot-recheck-ms}:
+ * each run first recounts every snapshot taken in that window, each from the
+ * last snapshot before the window, and restates any that came out short.</p>
+ */
+@Slf4j
+@Service
+public class EALedgerService {
+
+    public record SnapshotRun(int written, int restated) {
+    }
+
+    public record PartitionRun(int created, int detached) {
+    }
+
+    private final EALedgerRepository ledgerRepository;
+    private final MeterRegistry meterRegistry;
+    private final Duration snapshotLag;
+    private final Duration snapshotRecheck;
+    private final int monthsAhead;
+    private final int detachAfterMonths;
+
+    public EALedgerService(EALedgerRepository ledgerRepository,
+                           MeterRegistry meterRegistry,
+                           @Value("${endorsement.ea.ledger.snapshot-lag-ms:300000}") long snapshotLagMs,
+                           @Value("${endorsement.ea.ledger.snapshot-recheck-ms:7200000}") long snapshotRecheckMs,
+                           @Value("${endorsement.ea.ledger.months-ahead:3}") int monthsAhead,
+                           @Value("${endorsement.ea.ledger.detach-after-months:0}") int detachAfterMonths) {
+        this.ledgerRepository = ledgerRepository;
+        this.meterRegistry = meterRegistry;
+        this.snapshotLag = Duration.ofMillis(snapshotLagMs);
+        this.snapshotRecheck = Duration.ofMillis(snapshotRecheckMs);
+        this.monthsAhead = monthsAhead;
+        this.detachAfterMonths = detachAfterMonths;
+    }
+
+    /**
+     * The account's ledger position at {@code at}, or empty if it had no
+     * entries by then. Reads one snapshot and the entries since it.
+     */
+    public Optional<EALedgerSnapshot> positionAt(UUID employerId, UUID insurerId, Instant at) {
+        requireRetained(at);
+        EALedgerSnapshot base = ledgerRepository.findLatestSnapshot(employerId, insurerId, at)
+                .orElseGet(() -> EALedgerSnapshot.empty(employerId, insurerId));
+        EALedgerSnapshot position = base.advance(
+                ledgerRepository.findTransactionsBetween(employerId, insurerId, base.asOf(), at), at);
+        return position.hasEntries() ? Optional.of(position) : Optional.empty();
+    }
+
+    /** At most {@code limit} of the account's entries in {@code [from, to)}, newest first. */
+    public List<EATransaction> history(UUID employerId, UUID insurerId, Instant from, Instant to, int limit) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("History range must end after it starts");
+        }
+        return ledgerRepository.findRecentTransactions(employerId, insurerId, from, to, limit);
+    }
+
+    /**
+     * Restates the recent snapshots late commits have made stale, then writes
+     * a snapshot at {@code now - snapshot-lag} for every account with entries
+     * since its previous one. Restating comes first because each snapshot
+     * builds on the last.
+     */
+    public SnapshotRun snapshotAll(Instant now) {
+        Instant asOf = now.minus(snapshotLag);
+        int restated = ledgerRepository.restateSnapshots(asOf.minus(snapshotRecheck), asOf);
+        if (restated > 0) {
+            log.warn("Restated {} EA ledger snapshot(s) missing entries that committed after they were taken",
+                    restated);
+            meterRegistry.counter("endorsement.ea.ledger.snapshot.restated").increment(restated);
+        }
+        int written = ledgerRepository.advanceSnapshots(asOf);
+        meterRegistry.counter("endorsement.ea.ledger.snapshot.written").increment(written);
+        return new SnapshotRun(written, restated);
+    }
+
+    /**
+     * Opens the ledger months from {@code current} to {@code months-ahead}
+     * after it and, when {@code detach-after-months} is set, detaches months
+     * older than that once snapshots cover them. Each such month is closed
+     * with a snapshot at its end first, as accounts that went quiet during
+     * it get no later snapshot from {@link #snapshotAll}.
+     */
+    public PartitionRun maintainPartitions(YearMonth current) {
+        List<YearMonth> attached = ledgerRepository.findLedgerMonths();
+        Set<YearMonth> present = new HashSet<>(attached);
+        int created = 0;
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = current.plusMonths(i);
+            if (!present.contains(month)) {
+                ledgerRepository.createLedgerMonth(month);
+                partitionAction("created");
+                created++;
+            }
+        }
+
+        int detached = 0;
+        if (detachAfterMonths > 0) {
+            YearMonth oldestKept = current.minusMonths(detachAfterMonths);
+            for (YearMonth month : attached) {
+                if (!month.isBefore(oldestKept)) {
+                    break;
+                }
+                int closed = ledgerRepository.closeLedgerMonth(month);
+                meterRegistry.counter("endorsement.ea.ledger.snapshot.written").increment(closed);
+                if (!ledgerRepository.isCoveredBySnapshots(month)) {
+                    log.warn("Keeping EA ledger month {} attached: not every account has a snapshot after it",
+                            month);
+                    partitionAction("kept");
+                    break;
+                }
+                ledgerRepository.detachLedgerMonth(month);
+                partitionAction("detached");
+                detached++;
+            }
+        }
+        return new PartitionRun(created, detached);
+    }
+
+    private void partitionAction(String action) {
+        meterRegistry.counter("endorsement.ea.ledger.partitions", "action", action).increment();
+    }
+
+    /**
+     * Positions inside a detached month cannot be rebuilt, because the
+     * entries between the snapshot before it and the time asked about are
+     * no longer attached.
+     */
+    private void requireRetained(Instant at) {
+        if (detachAfterMonths <= 0) {
+            return;
+        }
+        List<YearMonth> attached = ledgerRepository.findLedgerMonths();
+        if (!attached.isEmpty()) {
+            Instant retainedFrom = attached.getFirst().atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+            if (at.isBefore(retainedFrom)) {
+                throw new IllegalArgumentException("EA ledger before " + retainedFrom + " has been archived");
+            }
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.plum.endorsements.application.service;
+
+import com.plum.endorsements.domain.model.EAAccount;
+import com.plum.endorsements.domain.model.EAAccountStripe;
+import com.plum.endorsements.domain.model.EATransaction;
+import com.plum.endorsements.domain.model.EATransaction.EATransactionType;
+import com.plum.endorsements.domain.model.StripedEAAccount;
+import com.plum.endorsements.domain.port.EAAccountRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Reserves EA balance through escrow stripes. The fast path claims any stripe
+ * with enough headroom that no other transaction holds, so creates for one
+ * employer run in parallel. When no single stripe can cover the amount the
+ * account row and every stripe are locked, the exact consolidated balance is
+ * checked, and the free balance is redistributed across the stripes.
+ *
+ * <p>Every reservation still writes a RESERVE entry to {@code ea_transactions};
+ * the description records which stripe holds it.</p>
+ */
+@Slf4j
+@Service
+public class EAReservationService {
+
+    public enum Outcome {
+        RESERVED, INSUFFICIENT, NO_ACCOUNT
+    }
+
+    public record ReservationResult(Outcome outcome, BigDecimal availableBalance) {
+    }
+
+    private final EAAccountRepository eaAccountRepository;
+    private final MeterRegistry meterRegistry;
+    private final int stripeCount;
+
+    public EAReservationService(
+            EAAccountRepository eaAccountRepository,
+            MeterRegistry meterRegistry,
+            @Value("${endorsement.ea.stripes.count:8}") int stripeCount) {
+        this.eaAccountRepository = eaAccountRepository;
+        this.meterRegistry = meterRegistry;
+        this.stripeCount = stripeCount;
+    }
+
+    /**
+     * Reserves {@code amount} for an endorsement and records the RESERVE ledger
+     * entry. Must run inside the caller's transaction so the stripe lock is held
+     * until the endorsement commits.
+     */
+    @Transactional
+    public ReservationResult reserve(UUID employerId, UUID insurerId, UUID endorsementId, BigDecimal amount) {
+        Optional<EAAccountStripe> claimed = eaAccountRepository.reserveOnAnyStripe(employerId, insurerId, amount);
+
+        int stripe;
+        BigDecimal availableAfter;
+        if (claimed.isPresent()) {
+            stripe = claimed.get().getStripe();
+            availableAfter = eaAccountRepository.findByEmployerIdAndInsurerId(employerId, insurerId)
+                    .map(EAAccount::availableBalance)
+                    .orElse(BigDecimal.ZERO);
+            meterRegistry.counter("endorsement.ea.stripe.reservation", "path", "fast").increment();
+        } else {
+            Optional<StripedEAAccount> lockedOpt = lock(employerId, insurerId);
+            if (lockedOpt.isEmpty()) {
+                return new ReservationResult(Outcome.NO_ACCOUNT, null);
+            }
+            StripedEAAccount locked = lockedOpt.get();
+            if (!locked.canFund(amount)) {
+                return new ReservationResult(Outcome.INSUFFICIENT, locked.availableBalance());
+            }
+            stripe = locked.reserve(amount);
+            save(locked);
+            availableAfter = locked.availableBalance();
+            meterRegistry.counter("endorsement.ea.stripe.reservation", "path", "locked").increment();
+        }
+
+        eaAccountRepository.saveTransaction(new EATransaction(
+                null,
+                employerId,
+                insurerId,
+                endorsementId,
+                EATransactionType.RESERVE,
+                amount,
+                availableAfter,
+                reserveDescription(endorsementId, stripe),
+                Instant.now()
+        ));
+        return new ReservationResult(Outcome.RESERVED, availableAfter);
+    }
+
+    /**
+     * Locks the account row and all of its stripes, creating any missing stripes.
+     * Callers that reserve several amounts at once use this and then
+     * {@link #save}.
+     */
+    public Optional<StripedEAAccount> lock(UUID employerId, UUID insurerId) {
+        Optional<EAAccount> accountOpt = eaAccountRepository.findByEmployerIdAndInsurerIdForUpdate(employerId, insurerId);
+        if (accountOpt.isEmpty()) {
+            return Optional.empty();
+        }
+        List<EAAccountStripe> stripes = new ArrayList<>(eaAccountRepository.findStripesForUpdate(employerId, insurerId));
+        Set<Integer> present = new HashSet<>();
+        for (EAAccountStripe stripe : stripes) {
+            present.add(stripe.getStripe());
+        }
+        Instant now = Instant.now();
+        for (int i = 0; i < stripeCount; i++) {
+            if (!present.contains(i)) {
+                stripes.add(EAAccountStripe.builder()
+                        .employerId(employerId)
+                        .insurerId(insurerId)
+                        .stripe(i)
+                        .allocated(BigDecimal.ZERO)
+                        .reserved(BigDecimal.ZERO)
+                        .updatedAt(now)
+                        .build());
+            }
+        }
+        return Optional.of(new StripedEAAccount(accountOpt.get(), stripes));
+    }
+
+    /**
+     * Redistributes the free balance across the locked stripes and writes them.
+     */
+    public void save(StripedEAAccount locked) {
+        locked.rebalance();
+        eaAccountRepository.saveStripes(locked.stripes());
+    }
+
+    /**
+     * Refreshes one account's stripe allocations, picking up balance changes
+     * and evening out stripes drained by the fast path.
+     */
+    @Transactional
+    public void rebalance(UUID employerId, UUID insurerId) {
+        lock(employerId, insurerId).ifPresent(this::save);
+    }
+
+    public static String reserveDescription(UUID endorsementId, int stripe) {
+        return "Reserved for endorsement " + endorsementId + " (stripe " + stripe + ")";
+    }
+}
@@ -22,7 +22,7 @@ import java.util.UUID;
 @Transactional(readOnly = true)
 public class EmployerHealthScoreService {
 
-    private final EndorsementRepository endorsementRepository;
+    private final EndorsementStatusCountRepository statusCountRepository;
     private final EAAccountRepository eaAccountRepository;
     private final AnomalyDetectionRepository anomalyDetectionRepository;
     private final ReconciliationRepository reconciliationRepository;
@@ -62,9 +62,10 @@ public class EmployerHealthScoreService {
     }
 
     private BigDecimal calculateEndorsementSuccessRate(UUID employerId) {
-        long confirmed = endorsementRepository.countByEmployerIdAndStatus(employerId, EndorsementStatus.CONFIRMED);
-        long rejected = endorsementRepository.countByEmployerIdAndStatus(employerId, EndorsementStatus.REJECTED);
-        long failed = endorsementRepository.countByEmployerIdAndStatus(employerId, EndorsementStatus.FAILED_PERMANENT);
+        EndorsementStatusCounts counts = statusCountRepository.countByEmployerId(employerId);
+        long confirmed = counts.get(EndorsementStatus.CONFIRMED);
+        long rejected = counts.get(EndorsementStatus.REJECTED);
+        long failed = counts.get(EndorsementStatus.FAILED_PERMANENT);
         long total = confirmed + rejected + failed;
         if (total == 0) return new BigDecimal("100.0");
         return BigDecimal.valueOf(confirmed * 100.0 / total).setScale(1, RoundingMode.HALF_UP);
@@ -0,0 +1,40 @@
+package com.plum.endorsements.application.service;
+
+import com.plum.endorsements.domain.port.EndorsementStatusCountRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Maintenance of the per-status endorsement counts: compaction of the deltas
+ * recorded on every status change, and a full reconciliation against the
+ * endorsements table that repairs any count that drifted.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EndorsementStatusCountService {
+
+    private final EndorsementStatusCountRepository statusCountRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Transactional
+    public int compact() {
+        int folded = statusCountRepository.compact();
+        meterRegistry.counter("endorsement.status_counts.compacted").increment(folded);
+        return folded;
+    }
+
+    @Transactional(isolation = Isolation.REPEATABLE_READ)
+    public int reconcile() {
+        int drifted = statusCountRepository.rebuild();
+        meterRegistry.counter("endorsement.status_counts.drift").increment(drifted);
+        if (drifted > 0) {
+            log.warn("Reconciliation corrected {} endorsement status count(s)", drifted);
+        }
+        return drifted;
+    }
+}
@@ -0,0 +1,105 @@
+package com.plum.endorsements.application.service;
+
+import com.plum.endorsements.domain.model.Endorsement;
+import com.plum.endorsements.domain.model.EndorsementEvent;
+import com.plum.endorsements.domain.model.EndorsementStatus;
+import com.plum.endorsements.domain.model.EndorsementTransition;
+import com.plum.endorsements.domain.port.EndorsementRepository;
+import com.plum.endorsements.domain.port.EventPublisher;
+import com.plum.endorsements.domain.service.EndorsementStateMachine;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Moves a set of endorsements between two statuses with one UPDATE instead of
+ * a load, mutate and save per endorsement. Endorsements no longer in the
+ * expected status, for example because a concurrent transaction moved them
+ * first, are skipped rather than failing the set; only the ones that actually
+ * transitioned get listener callbacks and events.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EndorsementTransitionService {
+
+    private final EndorsementRepository endorsementRepository;
+    private final EndorsementStateMachine stateMachine;
+    private final EventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+
+    @Transactional
+    public List<EndorsementTransition> transitionAll(Collection<UUID> ids, EndorsementStatus from,
+                                                     EndorsementStatus to) {
+        return transition(ids, from, to, null);
+    }
+
+    /**
+     * Moves queued endorsements to BATCH_SUBMITTED and assigns them to the batch.
+     */
+    @Transactional
+    public List<EndorsementTransition> submitToBatch(Collection<UUID> ids, UUID batchId) {
+        return transition(ids, EndorsementStatus.QUEUED_FOR_BATCH, EndorsementStatus.BATCH_SUBMITTED, batchId);
+    }
+
+    private List<EndorsementTransition> transition(Collection<UUID> ids, EndorsementStatus from,
+                                                   EndorsementStatus to, UUID batchId) {
+        stateMachine.validate(from, to);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        List<EndorsementTransition> transitioned = endorsementRepository.transitionAll(ids, from, to, batchId);
+        stateMachine.transitioned(transitioned);
+        eventPublisher.publishAll(transitioned.stream()
+                .map(t -> eventFor(t.endorsement(), to))
+                .toList());
+
+        meterRegistry.counter("endorsement.state.transition",
+                "from", from.name(), "to", to.name()).increment(transitioned.size());
+        int skipped = ids.size() - transitioned.size();
+        if (skipped > 0) {
+            meterRegistry.counter("endorsement.state.transition.skipped",
+                    "from", from.name(), "to", to.name()).increment(skipped);
+            log.info("Bulk transition {} -> {} skipped {} of {} endorsement(s) no longer in {}",
+                    from, to, skipped, ids.size(), from);
+        }
+        log.debug("Bulk transition {} -> {} moved {} endorsement(s)", from, to, transitioned.size());
+        return transitioned;
+    }
+
+    /**
+     * The event a single transition into {@code to} publishes, built from the
+     * row as written.
+     */
+    static EndorsementEvent eventFor(Endorsement e, EndorsementStatus to) {
+        return switch (to) {
+            case VALIDATED -> new EndorsementEvent.Validated(e.getId(), e.getUpdatedAt(), e.getEmployerId());
+            case PROVISIONALLY_COVERED -> new EndorsementEvent.ProvisionalCoverageGranted(
+                    e.getId(), e.getUpdatedAt(), e.getEmployerId(), e.getEmployeeId(), e.getCoverageStartDate());
+            case SUBMITTED_REALTIME -> new EndorsementEvent.SubmittedRealtime(
+                    e.getId(), e.getUpdatedAt(), e.getEmployerId(), e.getInsurerId());
+            case QUEUED_FOR_BATCH -> new EndorsementEvent.QueuedForBatch(
+                    e.getId(), e.getUpdatedAt(), e.getEmployerId());
+            case BATCH_SUBMITTED -> new EndorsementEvent.BatchSubmitted(
+                    e.getId(), e.getUpdatedAt(), e.getEmployerId(), e.getBatchId());
+            case INSURER_PROCESSING -> new EndorsementEvent.InsurerProcessing(
+                    e.getId(), e.getUpdatedAt(), e.getEmployerId(), e.getInsurerReference());
+            case CONFIRMED -> new EndorsementEvent.Confirmed(
+                    e.getId(), e.getUpdatedAt(), e.getEmployerId(), e.getInsurerReference());
+            case REJECTED -> new EndorsementEvent.Rejected(
+                    e.getId(), e.getUpdatedAt(), e.getEmployerId(), e.getFailureReason());
+            case RETRY_PENDING -> new EndorsementEvent.RetryScheduled(
+                    e.getId(), e.getUpdatedAt(), e.getEmployerId(), e.getRetryCount());
+            case FAILED_PERMANENT -> new EndorsementEvent.FailedPermanent(
+                    e.getId(), e.getUpdatedAt(), e.getEmployerId(), e.getFailureReason());
+            case CREATED -> throw new IllegalArgumentException("No endorsement transitions into CREATED");
+        };
+    }
+}
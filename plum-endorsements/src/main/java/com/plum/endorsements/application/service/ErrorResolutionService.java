@@ -14,6 +14,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -135,6 +136,27 @@ public class ErrorResolutionService {
                 outcome, pending.size(), endorsementId);
     }
 
+    /**
+     * {@link #trackOutcome} for many endorsements that reached the same status,
+     * with one lookup for all of them.
+     */
+    @Transactional
+    public void trackOutcomes(Collection<UUID> endorsementIds, EndorsementStatus status) {
+        List<ErrorResolution> pending = resolutionRepository.findByEndorsementIdInAndOutcomeIsNull(endorsementIds);
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        String outcome = status == EndorsementStatus.CONFIRMED ? "SUCCESS" : "FAILURE";
+        for (ErrorResolution resolution : pending) {
+            resolution.recordOutcome(outcome, status.name());
+            resolutionRepository.save(resolution);
+        }
+
+        log.info("Tracked {} outcome for {} resolutions across {} endorsements",
+                outcome, pending.size(), endorsementIds.size());
+    }
+
     @Transactional
     public void approveResolution(UUID resolutionId) {
         resolutionRepository.findById(resolutionId).ifPresent(resolution -> {
@@ -0,0 +1,149 @@
+package com.plum.endorsements.application.service;
+
+import com.plum.endorsements.domain.model.ProcessPathAggregate;
+import com.plum.endorsements.domain.model.StatusTransition;
+import com.plum.endorsements.domain.model.TransitionAggregate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Collects status transitions in memory until they are merged into the stored
+ * aggregates. Recording is concurrent; {@link #drain} swaps in an empty buffer
+ * and returns what was collected, sorted by key so concurrent merges lock the
+ * aggregate rows in the same order.
+ */
+final class ProcessMiningDeltas {
+
+    record Drained(List<TransitionAggregate> transitions, List<ProcessPathAggregate> paths) {
+
+        boolean isEmpty() {
+            return transitions.isEmpty() && paths.isEmpty();
+        }
+    }
+
+    private record TransitionKey(UUID insurerId, String fromStatus, String toStatus) {
+    }
+
+    private static final Comparator<TransitionKey> KEY_ORDER = Comparator
+            .comparing(TransitionKey::insurerId)
+            .thenComparing(TransitionKey::fromStatus)
+            .thenComparing(TransitionKey::toStatus);
+
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private Map<TransitionKey, Accumulator> transitions = new ConcurrentHashMap<>();
+    private Map<UUID, long[]> paths = new ConcurrentHashMap<>();
+
+    void record(StatusTransition transition) {
+        swapLock.readLock().lock();
+        try {
+            transitions.computeIfAbsent(
+                    new TransitionKey(transition.insurerId(), transition.fromStatus(), transition.toStatus()),
+                    key -> new Accumulator()).add(transition.durationMs());
+            if (transition.happyCompletion() != null) {
+                boolean happy = transition.happyCompletion();
+                paths.compute(transition.insurerId(), (insurerId, counts) -> {
+                    long[] updated = counts != null ? counts : new long[2];
+                    updated[0]++;
+                    if (happy) {
+                        updated[1]++;
+                    }
+                    return updated;
+                });
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Puts deltas returned by {@link #drain} back, e.g. after a failed merge.
+     */
+    void restore(Drained drained) {
+        swapLock.readLock().lock();
+        try {
+            for (TransitionAggregate delta : drained.transitions()) {
+                transitions.computeIfAbsent(
+                        new TransitionKey(delta.insurerId(), delta.fromStatus(), delta.toStatus()),
+                        key -> new Accumulator()).merge(delta);
+            }
+            for (ProcessPathAggregate delta : drained.paths()) {
+                paths.merge(delta.insurerId(), new long[]{delta.completedCount(), delta.happyCount()},
+                        (a, b) -> new long[]{a[0] + b[0], a[1] + b[1]});
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    Drained drain() {
+        Map<TransitionKey, Accumulator> drainedTransitions;
+        Map<UUID, long[]> drainedPaths;
+        swapLock.writeLock().lock();
+        try {
+            drainedTransitions = transitions;
+            drainedPaths = paths;
+            transitions = new ConcurrentHashMap<>();
+            paths = new ConcurrentHashMap<>();
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+
+        Instant now = Instant.now();
+        List<TransitionAggregate> transitionDeltas = new ArrayList<>(drainedTransitions.size());
+        drainedTransitions.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey(KEY_ORDER))
+                .forEach(entry -> transitionDeltas.add(entry.getValue().toAggregate(entry.getKey(), now)));
+        List<ProcessPathAggregate> pathDeltas = new ArrayList<>(drainedPaths.size());
+        drainedPaths.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> pathDeltas.add(new ProcessPathAggregate(
+                        entry.getKey(), entry.getValue()[0], entry.getValue()[1], now)));
+        return new Drained(transitionDeltas, pathDeltas);
+    }
+
+    private static final class Accumulator {
+
+        private long count;
+        private double mean;
+        private double m2;
+        private long max;
+        private final long[] buckets = new long[TransitionAggregate.BUCKET_COUNT];
+
+        synchronized void add(long durationMs) {
+            count++;
+            double delta = durationMs - mean;
+            mean += delta / count;
+            m2 += delta * (durationMs - mean);
+            max = Math.max(max, durationMs);
+            buckets[TransitionAggregate.bucketOf(durationMs)]++;
+        }
+
+        synchronized void merge(TransitionAggregate other) {
+            if (other.sampleCount() == 0) {
+                return;
+            }
+            long total = count + other.sampleCount();
+            double delta = other.meanMs() - mean;
+            mean += delta * other.sampleCount() / total;
+            m2 += other.m2() + delta * delta * count * other.sampleCount() / total;
+            count = total;
+            max = Math.max(max, other.maxMs());
+            for (int i = 0; i < buckets.length && i < other.bucketCounts().length; i++) {
+                buckets[i] += other.bucketCounts()[i];
+            }
+        }
+
+        synchronized TransitionAggregate toAggregate(TransitionKey key, Instant now) {
+            return new TransitionAggregate(key.insurerId(), key.fromStatus(), key.toStatus(),
+                    count, mean, m2, max, buckets.clone(), now);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.plum.endorsements.application.service;
+
+import com.plum.endorsements.domain.model.Endorsement;
+import com.plum.endorsements.domain.model.EndorsementStatus;
+import com.plum.endorsements.domain.model.StatusTransition;
+import com.plum.endorsements.domain.port.ProcessMiningAggregateRepository;
+import com.plum.endorsements.domain.port.StatusTransitionListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Folds every state-machine transition into the process mining aggregates.
+ *
+ * <p>Transitions are buffered in memory once their transaction commits and
+ * merged into the aggregate tables on a short fixed delay, so the hot
+ * per-insurer rows are written once per flush rather than once per
+ * transition. Each replica flushes its own buffer; the merge is additive, so
+ * no lock is needed. Transitions still buffered when a replica dies are lost,
+ * which only costs sample count.</p>
+ */
+@Slf4j
+@Service
+public class ProcessMiningRecorder implements StatusTransitionListener {
+
+    private final ProcessMiningAggregateRepository aggregateRepository;
+    private final TransactionTemplate mergeTransaction;
+    private final MeterRegistry meterRegistry;
+    private final ProcessMiningDeltas deltas = new ProcessMiningDeltas();
+
+    public ProcessMiningRecorder(ProcessMiningAggregateRepository aggregateRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry) {
+        this.aggregateRepository = aggregateRepository;
+        this.mergeTransaction = new TransactionTemplate(transactionManager);
+        this.mergeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void onTransition(Endorsement endorsement, EndorsementStatus from, Instant enteredFromAt) {
+        if (endorsement.getInsurerId() == null) {
+            return;
+        }
+        StatusTransition transition = toTransition(endorsement, from, enteredFromAt);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()
+                && TransactionSynchronizationManager.isActualTransactionActive()) {
+            PendingTransitions pending = (PendingTransitions) TransactionSynchronizationManager.getResource(this);
+            if (pending == null) {
+                pending = new PendingTransitions();
+                TransactionSynchronizationManager.bindResource(this, pending);
+                TransactionSynchronizationManager.registerSynchronization(pending);
+            }
+            pending.transitions.add(transition);
+        } else {
+            deltas.record(transition);
+        }
+    }
+
+    static StatusTransition toTransition(Endorsement endorsement, EndorsementStatus from, Instant enteredFromAt) {
+        EndorsementStatus to = endorsement.getStatus();
+        Instant leftAt = endorsement.getUpdatedAt() != null ? endorsement.getUpdatedAt() : Instant.now();
+        long durationMs = enteredFromAt != null
+                ? Math.max(0, Duration.between(enteredFromAt, leftAt).toMillis())
+                : 0;
+        Boolean happyCompletion = switch (to) {
+            case CONFIRMED -> endorsement.getRetryCount() == 0;
+            case FAILED_PERMANENT -> false;
+            default -> null;
+        };
+        return new StatusTransition(endorsement.getInsurerId(), from.name(), to.name(), durationMs, happyCompletion);
+    }
+
+    /**
+     * Merges everything buffered so far. On failure the deltas are put back
+     * and retried on the next flush.
+     */
+    @Scheduled(fixedDelayString = "${endorsement.intelligence.process-mining.flush-interval-ms:5000}")
+    public void flush() {
+        ProcessMiningDeltas.Drained drained = deltas.drain();
+        if (drained.isEmpty()) {
+            return;
+        }
+        try {
+            mergeTransaction.executeWithoutResult(status ->
+                    aggregateRepository.merge(drained.transitions(), drained.paths()));
+            meterRegistry.counter("endorsement.process.aggregates.flushed", "result", "success")
+                    .increment(drained.transitions().size());
+        } catch (Exception e) {
+            deltas.restore(drained);
+            meterRegistry.counter("endorsement.process.aggregates.flushed", "result", "failure")
+                    .increment(drained.transitions().size());
+            log.error("Failed to merge {} process mining transition aggregate(s): {}",
+                    drained.transitions().size(), e.getMessage(), e);
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    private class PendingTransitions implements TransactionSynchronization {
+
+        private final List<StatusTransition> transitions = new ArrayList<>();
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(ProcessMiningRecorder.this);
+            if (status == STATUS_COMMITTED) {
+                transitions.forEach(deltas::record);
+            }
+        }
+    }
+}
@@ -1,270 +1,278 @@
 package com.plum.endorsements.application.service;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.plum.endorsements.api.dto.ProcessMiningInsightResponse;
 import com.plum.endorsements.api.dto.StpRateResponse;
-import com.plum.endorsements.domain.model.EndorsementEvent;
+import com.plum.endorsements.api.dto.StpRateTrendResponse;
 import com.plum.endorsements.domain.model.EndorsementStatus;
+import com.plum.endorsements.domain.model.EndorsementStatusCounts;
 import com.plum.endorsements.domain.model.ProcessMiningMetric;
-import com.plum.endorsements.api.dto.StpRateTrendResponse;
+import com.plum.endorsements.domain.model.ProcessPathAggregate;
 import com.plum.endorsements.domain.model.StpRateSnapshot;
-import com.plum.endorsements.domain.port.*;
-import com.plum.endorsements.infrastructure.persistence.entity.EndorsementEventEntity;
-import com.plum.endorsements.infrastructure.persistence.repository.SpringDataEndorsementEventRepository;
-import com.plum.endorsements.infrastructure.persistence.repository.SpringDataEndorsementRepository;
+import com.plum.endorsements.domain.model.TransitionAggregate;
+import com.plum.endorsements.domain.port.EndorsementStatusCountRepository;
+import com.plum.endorsements.domain.port.ProcessMiningAggregateRepository;
+import com.plum.endorsements.domain.port.ProcessMiningAggregateRepository.LoggedTransition;
+import com.plum.endorsements.domain.port.ProcessMiningRepository;
+import com.plum.endorsements.domain.port.StpRateSnapshotRepository;
 import com.plum.endorsements.infrastructure.persistence.repository.SpringDataInsurerConfigurationRepository;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.util.*;
-import java.util.LinkedHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
+/**
+ * Serves process mining metrics and insights from the incrementally maintained
+ * aggregates (see {@link ProcessMiningRecorder}) and STP rates from the
+ * endorsement status counts. Nothing here reads the endorsement or event
+ * tables per request.
+ *
+ * <p>STATUS_CHANGE rows in {@code endorsement_events}, e.g. imported history,
+ * are folded into the same aggregates once each, in id order, when an analysis
+ * is requested. The nightly run only snapshots the aggregates into
+ * {@code process_mining_metrics} and refreshes the gauges.</p>
+ */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class ProcessMiningService {
 
-    private final ProcessMiningPort miningEngine;
     private final ProcessMiningRepository miningRepository;
+    private final ProcessMiningAggregateRepository aggregateRepository;
+    private final ProcessMiningRecorder recorder;
     private final StpRateSnapshotRepository stpRateSnapshotRepository;
-    private final SpringDataEndorsementEventRepository eventRepository;
-    private final SpringDataEndorsementRepository endorsementRepository;
+    private final EndorsementStatusCountRepository statusCountRepository;
     private final SpringDataInsurerConfigurationRepository insurerConfigRepo;
-    private final EventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
     private final MeterRegistry meterRegistry;
+    private final int foldBatchSize;
+    private final Map<String, AtomicReference<Double>> gaugeValues = new ConcurrentHashMap<>();
+
+    public ProcessMiningService(ProcessMiningRepository miningRepository,
+                                ProcessMiningAggregateRepository aggregateRepository,
+                                ProcessMiningRecorder recorder,
+                                StpRateSnapshotRepository stpRateSnapshotRepository,
+                                EndorsementStatusCountRepository statusCountRepository,
+                                SpringDataInsurerConfigurationRepository insurerConfigRepo,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry,
+                                @Value("${endorsement.intelligence.process-mining.fold-batch-size:5000}") int foldBatchSize) {
+        this.miningRepository = miningRepository;
+        this.aggregateRepository = aggregateRepository;
+        this.recorder = recorder;
+        this.stpRateSnapshotRepository = stpRateSnapshotRepository;
+        this.statusCountRepository = statusCountRepository;
+        this.insurerConfigRepo = insurerConfigRepo;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.foldBatchSize = foldBatchSize;
+    }
 
-    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
-
-    @Transactional
-    public void analyzeInsurer(UUID insurerId) {
-        // Fetch all events for endorsements belonging to this insurer
-        List<EndorsementEventEntity> eventEntities = eventRepository.findAll().stream()
-                .filter(e -> {
-                    // Check if the endorsement belongs to this insurer
-                    return endorsementRepository.findById(e.getEndorsementId())
-                            .map(end -> end.getInsurerId().equals(insurerId))
-                            .orElse(false);
-                })
-                .toList();
-
-        // Check if we have STATUS_CHANGE events with transition data
-        List<EndorsementEventEntity> statusChangeEvents = eventEntities.stream()
-                .filter(e -> "STATUS_CHANGE".equals(e.getEventType()))
-                .toList();
-
-        List<ProcessMiningMetric> metrics;
-
-        if (!statusChangeEvents.isEmpty()) {
-            // Parse transition data directly from STATUS_CHANGE events
-            metrics = analyzeFromStatusChangeEvents(statusChangeEvents, insurerId);
-        } else {
-            // Fallback: use EventStreamAnalyzer for generic events
-            List<EndorsementEvent> events = eventEntities.stream()
-                    .map(e -> (EndorsementEvent) new EndorsementEvent.Created(
-                            e.getEndorsementId(), e.getCreatedAt(),
-                            UUID.randomUUID(), UUID.randomUUID(),
-                            com.plum.endorsements.domain.model.EndorsementType.ADD))
-                    .toList();
-            metrics = miningEngine.analyzeWorkflow(events, insurerId);
+    /**
+     * Brings the aggregates up to date (this replica's buffered transitions and
+     * any new STATUS_CHANGE log rows), then snapshots them.
+     */
+    public void analyze() {
+        recorder.flush();
+        int folded = foldEventLog();
+        if (folded > 0) {
+            log.info("Folded {} logged status change(s) into process mining aggregates", folded);
         }
+        snapshotAggregates();
+    }
 
-        // Clear old metrics for this insurer and save new ones
-        miningRepository.deleteByInsurerId(insurerId);
-        miningRepository.saveAll(metrics);
-
-        // Update Micrometer gauges
-        metrics.stream()
-                .filter(m -> m.getHappyPathPct() != null)
-                .findFirst()
-                .ifPresent(m -> {
-                    meterRegistry.gauge("endorsement.process.stp_rate",
-                            io.micrometer.core.instrument.Tags.of("insurerId", insurerId.toString()),
-                            m.getHappyPathPct().doubleValue());
-                    meterRegistry.gauge("endorsement.process.avg_lifecycle_hours",
-                            io.micrometer.core.instrument.Tags.of("insurerId", insurerId.toString()),
-                            m.getAvgDurationMs() / 3_600_000.0);
-                });
-
-        log.info("Process mining completed for insurer {}: {} transition metrics saved",
-                insurerId, metrics.size());
+    /**
+     * Folds STATUS_CHANGE rows past the watermark into the aggregates, one
+     * chunk per transaction. The watermark row lock keeps concurrent folds from
+     * counting a row twice.
+     */
+    public int foldEventLog() {
+        int total = 0;
+        int folded;
+        do {
+            Integer chunk = transactionTemplate.execute(status -> foldEventLogChunk());
+            folded = chunk != null ? chunk : 0;
+            total += folded;
+        } while (folded == foldBatchSize);
+        return total;
     }
 
-    private List<ProcessMiningMetric> analyzeFromStatusChangeEvents(
-            List<EndorsementEventEntity> statusChangeEvents, UUID insurerId) {
+    private int foldEventLogChunk() {
+        long watermark = aggregateRepository.lockEventLogWatermark();
+        List<LoggedTransition> logged = aggregateRepository.findLoggedTransitionsAfter(watermark, foldBatchSize);
+        if (logged.isEmpty()) {
+            return 0;
+        }
+        ProcessMiningDeltas chunk = new ProcessMiningDeltas();
+        logged.forEach(row -> chunk.record(row.transition()));
+        ProcessMiningDeltas.Drained drained = chunk.drain();
+        aggregateRepository.merge(drained.transitions(), drained.paths());
+        aggregateRepository.advanceEventLogWatermark(logged.get(logged.size() - 1).eventId());
+        return logged.size();
+    }
 
-        Map<String, DescriptiveStatistics> transitionStats = new HashMap<>();
-        Map<UUID, Boolean> endorsementHappyPath = new HashMap<>();
+    /**
+     * Copies the current aggregates into {@code process_mining_metrics}, one
+     * row per insurer and transition, and updates the per-insurer gauges.
+     */
+    public void snapshotAggregates() {
+        transactionTemplate.executeWithoutResult(status -> writeSnapshot());
+    }
 
-        for (EndorsementEventEntity event : statusChangeEvents) {
-            try {
-                JsonNode data = OBJECT_MAPPER.readTree(event.getEventData());
-                String statusFrom = data.has("statusFrom") ? data.get("statusFrom").asText() : "";
-                String statusTo = data.has("statusTo") ? data.get("statusTo").asText() : "";
-                int durationMinutes = data.has("durationMinutes") ? data.get("durationMinutes").asInt() : 0;
-
-                String key = statusFrom + " -> " + statusTo;
-                long durationMs = durationMinutes * 60_000L;
-                transitionStats.computeIfAbsent(key, k -> new DescriptiveStatistics()).addValue(durationMs);
-
-                // Track happy path: any REJECTED transition means deviated
-                if ("REJECTED".equals(statusTo) || "REJECTED".equals(statusFrom)) {
-                    endorsementHappyPath.put(event.getEndorsementId(), false);
-                } else {
-                    endorsementHappyPath.putIfAbsent(event.getEndorsementId(), true);
-                }
-            } catch (Exception e) {
-                log.warn("Failed to parse event data for event {}: {}", event.getId(), e.getMessage());
-            }
-        }
+    private void writeSnapshot() {
+        Map<UUID, ProcessPathAggregate> paths = pathsByInsurer();
+        Map<UUID, List<TransitionAggregate>> byInsurer = aggregateRepository.findAllTransitions().stream()
+                .collect(Collectors.groupingBy(TransitionAggregate::insurerId, LinkedHashMap::new, Collectors.toList()));
+
+        byInsurer.forEach((insurerId, transitions) -> {
+            ProcessPathAggregate path = paths.get(insurerId);
+            List<ProcessMiningMetric> metrics = toMetrics(transitions, path);
+            miningRepository.deleteByInsurerId(insurerId);
+            miningRepository.saveAll(metrics);
+            updateGauges(insurerId, transitions, path);
+        });
 
-        int totalEndorsements = endorsementHappyPath.size();
-        long happyPathCount = endorsementHappyPath.values().stream().filter(Boolean::booleanValue).count();
-        BigDecimal happyPathPct = totalEndorsements > 0
-                ? BigDecimal.valueOf(happyPathCount * 100.0 / totalEndorsements)
-                    .setScale(2, RoundingMode.HALF_UP)
-                : BigDecimal.ZERO;
+        log.info("Process mining snapshot completed: {} insurer(s)", byInsurer.size());
+    }
 
-        List<ProcessMiningMetric> metrics = new ArrayList<>();
-        Instant now = Instant.now();
-
-        for (var entry : transitionStats.entrySet()) {
-            String[] parts = entry.getKey().split(" -> ");
-            DescriptiveStatistics stats = entry.getValue();
-
-            ProcessMiningMetric metric = ProcessMiningMetric.builder()
-                    .insurerId(insurerId)
-                    .fromStatus(parts[0])
-                    .toStatus(parts[1])
-                    .avgDurationMs((long) stats.getMean())
-                    .p95DurationMs((long) stats.getPercentile(95))
-                    .p99DurationMs((long) stats.getPercentile(99))
-                    .sampleCount((int) stats.getN())
-                    .happyPathPct(happyPathPct)
-                    .calculatedAt(now)
-                    .build();
-
-            metrics.add(metric);
+    private void updateGauges(UUID insurerId, List<TransitionAggregate> transitions, ProcessPathAggregate path) {
+        if (path == null || path.completedCount() == 0) {
+            return;
         }
-
-        return metrics;
+        double totalTransitionMs = transitions.stream()
+                .mapToDouble(t -> t.meanMs() * t.sampleCount())
+                .sum();
+        gauge("endorsement.process.stp_rate", insurerId, path.happyPathPct().doubleValue());
+        gauge("endorsement.process.avg_lifecycle_hours", insurerId,
+                totalTransitionMs / path.completedCount() / 3_600_000.0);
     }
 
-    @Transactional
-    public void generateInsights() {
-        insurerConfigRepo.findAll().forEach(config -> {
-            try {
-                analyzeInsurer(config.getInsurerId());
-            } catch (Exception e) {
-                log.error("Process mining failed for insurer {}: {}", config.getInsurerId(), e.getMessage());
-            }
-        });
+    private void gauge(String name, UUID insurerId, double value) {
+        gaugeValues.computeIfAbsent(name + ":" + insurerId, key -> {
+            AtomicReference<Double> holder = new AtomicReference<>(0.0);
+            Gauge.builder(name, holder, AtomicReference::get)
+                    .tag("insurerId", insurerId.toString())
+                    .register(meterRegistry);
+            return holder;
+        }).set(value);
     }
 
     public List<ProcessMiningMetric> getMetrics(UUID insurerId) {
         if (insurerId != null) {
-            return miningRepository.findByInsurerId(insurerId);
+            return toMetrics(aggregateRepository.findTransitionsByInsurerId(insurerId),
+                    aggregateRepository.findPathByInsurerId(insurerId).orElse(null));
         }
-        // Return all metrics from all insurers
+        Map<UUID, ProcessPathAggregate> paths = pathsByInsurer();
         List<ProcessMiningMetric> all = new ArrayList<>();
-        insurerConfigRepo.findAll().forEach(config ->
-                all.addAll(miningRepository.findByInsurerId(config.getInsurerId())));
+        aggregateRepository.findAllTransitions().stream()
+                .collect(Collectors.groupingBy(TransitionAggregate::insurerId, LinkedHashMap::new, Collectors.toList()))
+                .forEach((id, transitions) -> all.addAll(toMetrics(transitions, paths.get(id))));
         return all;
     }
 
     public List<ProcessMiningInsightResponse> getLatestInsights() {
         List<ProcessMiningInsightResponse> insights = new ArrayList<>();
-
-        insurerConfigRepo.findAll().forEach(config -> {
-            UUID insurerId = config.getInsurerId();
-            List<ProcessMiningMetric> metrics = miningRepository.findByInsurerId(insurerId);
-
-            // Identify bottlenecks (p95 > 2x average, or avg duration > 4 hours)
-            for (ProcessMiningMetric metric : metrics) {
-                boolean isHighVariance = metric.getP95DurationMs() > metric.getAvgDurationMs() * 2;
-                boolean isAbsolutelySlowTransition = metric.getAvgDurationMs() > 4 * 3_600_000L;
-                if ((isHighVariance || isAbsolutelySlowTransition) && metric.getSampleCount() >= 5) {
-                    insights.add(new ProcessMiningInsightResponse(
-                            insurerId, config.getInsurerName(),
-                            "BOTTLENECK",
-                            String.format("Bottleneck detected: %s → %s averages %.1f hours (p95: %.1f hours). " +
-                                    "Based on %d samples.",
-                                    metric.getFromStatus(), metric.getToStatus(),
-                                    metric.getAvgDurationMs() / 3_600_000.0,
-                                    metric.getP95DurationMs() / 3_600_000.0,
-                                    metric.getSampleCount()),
-                            metric.getCalculatedAt()
-                    ));
-                }
+        Map<UUID, String> insurerNames = new HashMap<>();
+        insurerConfigRepo.findAll().forEach(config ->
+                insurerNames.put(config.getInsurerId(), config.getInsurerName()));
+
+        // Identify bottlenecks (p95 > 2x average, or avg duration > 4 hours)
+        for (ProcessMiningMetric metric : toMetrics(aggregateRepository.findAllTransitions(), null)) {
+            boolean isHighVariance = metric.getP95DurationMs() > metric.getAvgDurationMs() * 2;
+            boolean isAbsolutelySlowTransition = metric.getAvgDurationMs() > 4 * 3_600_000L;
+            if ((isHighVariance || isAbsolutelySlowTransition) && metric.getSampleCount() >= 5) {
+                insights.add(new ProcessMiningInsightResponse(
+                        metric.getInsurerId(), insurerNames.get(metric.getInsurerId()),
+                        "BOTTLENECK",
+                        String.format("Bottleneck detected: %s → %s averages %.1f hours (p95: %.1f hours). " +
+                                "Based on %d samples.",
+                                metric.getFromStatus(), metric.getToStatus(),
+                                metric.getAvgDurationMs() / 3_600_000.0,
+                                metric.getP95DurationMs() / 3_600_000.0,
+                                metric.getSampleCount()),
+                        metric.getCalculatedAt()
+                ));
             }
-        });
+        }
 
         return insights;
     }
 
+    private List<ProcessMiningMetric> toMetrics(List<TransitionAggregate> transitions, ProcessPathAggregate path) {
+        BigDecimal happyPathPct = path != null && path.completedCount() > 0 ? path.happyPathPct() : null;
+        return transitions.stream()
+                .map(t -> ProcessMiningMetric.builder()
+                        .insurerId(t.insurerId())
+                        .fromStatus(t.fromStatus())
+                        .toStatus(t.toStatus())
+                        .avgDurationMs(Math.round(t.meanMs()))
+                        .p95DurationMs(t.percentileMs(0.95))
+                        .p99DurationMs(t.percentileMs(0.99))
+                        .sampleCount((int) Math.min(t.sampleCount(), Integer.MAX_VALUE))
+                        .happyPathPct(happyPathPct)
+                        .calculatedAt(t.updatedAt())
+                        .build())
+                .toList();
+    }
+
+    private Map<UUID, ProcessPathAggregate> pathsByInsurer() {
+        Map<UUID, ProcessPathAggregate> paths = new HashMap<>();
+        aggregateRepository.findAllPaths().forEach(path -> paths.put(path.insurerId(), path));
+        return paths;
+    }
+
+    private Optional<BigDecimal> happyPathPct(ProcessPathAggregate path) {
+        return Optional.ofNullable(path)
+                .filter(p -> p.completedCount() > 0)
+                .map(ProcessPathAggregate::happyPathPct);
+    }
+
     public StpRateResponse getStpRate(UUID insurerId) {
         if (insurerId != null) {
-            List<ProcessMiningMetric> metrics = miningRepository.findByInsurerId(insurerId);
-            BigDecimal stpRate = metrics.stream()
-                    .filter(m -> m.getHappyPathPct() != null)
-                    .findFirst()
-                    .map(ProcessMiningMetric::getHappyPathPct)
-                    .orElseGet(() -> computeStpFromStatuses(insurerId));
-
-            long[] counts = countEndorsements(insurerId);
-            return new StpRateResponse(stpRate, Map.of(insurerId, stpRate), counts[0], counts[1]);
+            EndorsementStatusCounts counts = statusCountRepository.countByInsurerId(insurerId);
+            BigDecimal stpRate = happyPathPct(aggregateRepository.findPathByInsurerId(insurerId).orElse(null))
+                    .orElseGet(() -> computeStpFromStatuses(counts));
+            return new StpRateResponse(stpRate, Map.of(insurerId, stpRate),
+                    completedCount(counts), counts.get(EndorsementStatus.CONFIRMED));
         }
 
         // Aggregate across all insurers
         Map<UUID, BigDecimal> perInsurer = new LinkedHashMap<>();
-        long totalAll = 0;
-        long successfulAll = 0;
+        Map<UUID, EndorsementStatusCounts> countsByInsurer = statusCountRepository.countByInsurer();
 
         // Include configured insurers
-        Set<UUID> processedInsurers = new HashSet<>();
+        Map<UUID, ProcessPathAggregate> paths = pathsByInsurer();
         for (var config : insurerConfigRepo.findAll()) {
             UUID insId = config.getInsurerId();
-            processedInsurers.add(insId);
-            List<ProcessMiningMetric> metrics = miningRepository.findByInsurerId(insId);
-            BigDecimal rate = metrics.stream()
-                    .filter(m -> m.getHappyPathPct() != null)
-                    .findFirst()
-                    .map(ProcessMiningMetric::getHappyPathPct)
-                    .orElseGet(() -> computeStpFromStatuses(insId));
-            perInsurer.put(insId, rate);
-            long[] counts = countEndorsements(insId);
-            totalAll += counts[0];
-            successfulAll += counts[1];
+            EndorsementStatusCounts counts = countsByInsurer.getOrDefault(insId, EndorsementStatusCounts.EMPTY);
+            perInsurer.put(insId, happyPathPct(paths.get(insId))
+                    .orElseGet(() -> computeStpFromStatuses(counts)));
         }
 
-        // Also include unconfigured insurers that have endorsements
-        List<String> terminalStatuses = List.of("CONFIRMED", "REJECTED", "FAILED", "FAILED_PERMANENT");
-        for (String status : terminalStatuses) {
-            endorsementRepository.findByStatus(status).forEach(e -> {
-                if (!processedInsurers.contains(e.getInsurerId())) {
-                    processedInsurers.add(e.getInsurerId());
-                    BigDecimal rate = computeStpFromStatuses(e.getInsurerId());
-                    perInsurer.put(e.getInsurerId(), rate);
-                }
-            });
-        }
+        // Also include unconfigured insurers that have completed endorsements
+        countsByInsurer.forEach((insId, counts) -> {
+            if (!perInsurer.containsKey(insId) && completedCount(counts) > 0) {
+                perInsurer.put(insId, computeStpFromStatuses(counts));
+            }
+        });
 
-        // Recompute totals from perInsurer
-        totalAll = 0;
-        successfulAll = 0;
+        long totalAll = 0;
+        long successfulAll = 0;
         for (UUID insId : perInsurer.keySet()) {
-            long[] counts = countEndorsements(insId);
-            totalAll += counts[0];
-            successfulAll += counts[1];
+            EndorsementStatusCounts counts = countsByInsurer.getOrDefault(insId, EndorsementStatusCounts.EMPTY);
+            totalAll += completedCount(counts);
+            successfulAll += counts.get(EndorsementStatus.CONFIRMED);
         }
 
         BigDecimal overall;
@@ -279,29 +287,24 @@ public class ProcessMiningService {
         return new StpRateResponse(overall, perInsurer, totalAll, successfulAll);
     }
 
-    private BigDecimal computeStpFromStatuses(UUID insurerId) {
-        long confirmed = endorsementRepository.findByStatusAndInsurerId("CONFIRMED", insurerId).size();
-        long rejected = endorsementRepository.findByStatusAndInsurerId("REJECTED", insurerId).size();
-        long failed = endorsementRepository.findByStatusAndInsurerId("FAILED", insurerId).size()
-                + endorsementRepository.findByStatusAndInsurerId("FAILED_PERMANENT", insurerId).size();
-        long total = confirmed + rejected + failed;
+    private static BigDecimal computeStpFromStatuses(EndorsementStatusCounts counts) {
+        long total = completedCount(counts);
         if (total == 0) return BigDecimal.ZERO;
-        return BigDecimal.valueOf(confirmed * 100.0 / total).setScale(1, RoundingMode.HALF_UP);
+        return BigDecimal.valueOf(counts.get(EndorsementStatus.CONFIRMED) * 100.0 / total)
+                .setScale(1, RoundingMode.HALF_UP);
     }
 
-    private long[] countEndorsements(UUID insurerId) {
-        long confirmed = endorsementRepository.findByStatusAndInsurerId("CONFIRMED", insurerId).size();
-        long rejected = endorsementRepository.findByStatusAndInsurerId("REJECTED", insurerId).size();
-        long failed = endorsementRepository.findByStatusAndInsurerId("FAILED", insurerId).size()
-                + endorsementRepository.findByStatusAndInsurerId("FAILED_PERMANENT", insurerId).size();
-        return new long[]{confirmed + rejected + failed, confirmed};
+    // FAILED is the legacy name of FAILED_PERMANENT and still appears on imported rows
+    private static long completedCount(EndorsementStatusCounts counts) {
+        return counts.get(EndorsementStatus.CONFIRMED) + counts.get(EndorsementStatus.REJECTED)
+                + counts.get("FAILED") + counts.get(EndorsementStatus.FAILED_PERMANENT);
     }
 
     @Transactional
     public StpRateSnapshot captureStpRateSnapshot(UUID insurerId) {
-        long[] counts = countEndorsements(insurerId);
-        long total = counts[0];
-        long stp = counts[1];
+        EndorsementStatusCounts counts = statusCountRepository.countByInsurerId(insurerId);
+        long total = completedCount(counts);
+        long stp = counts.get(EndorsementStatus.CONFIRMED);
         BigDecimal rate = total > 0
                 ? BigDecimal.valueOf(stp * 100.0 / total).setScale(4, RoundingMode.HALF_UP)
                 : BigDecimal.ZERO;
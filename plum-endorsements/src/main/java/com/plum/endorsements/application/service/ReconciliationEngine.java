@@ -10,7 +10,9 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -19,6 +21,9 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class ReconciliationEngine {
 
+    // Longer than any real-time insurer call, so in-flight submissions are left alone
+    private static final Duration UNKNOWN_OUTCOME_GRACE = Duration.ofMinutes(15);
+
     private final EndorsementRepository endorsementRepository;
     private final ReconciliationRepository reconciliationRepository;
     private final BatchRepository batchRepository;
@@ -39,8 +44,9 @@ public class ReconciliationEngine {
                 .build();
         run = reconciliationRepository.saveRun(run);
 
-        List<Endorsement> processingEndorsements = endorsementRepository
-                .findByStatusAndInsurerId(EndorsementStatus.INSURER_PROCESSING, insurerId);
+        List<Endorsement> processingEndorsements = new ArrayList<>(endorsementRepository
+                .findByStatusAndInsurerId(EndorsementStatus.INSURER_PROCESSING, insurerId));
+        processingEndorsements.addAll(unsettledSubmissions(insurerId));
 
         InsurerPort insurerPort = insurerRouter.resolve(insurerId);
 
@@ -66,6 +72,29 @@ public class ReconciliationEngine {
         return run;
     }
 
+    /**
+     * Real-time submissions whose insurer call ended with no answer and that
+     * nothing has settled since. Ones sent in a micro-batch are left to the
+     * batch poller while that batch is still open. Having no insurer
+     * reference, they are flagged as missing for someone to check with the
+     * insurer.
+     */
+    private List<Endorsement> unsettledSubmissions(UUID insurerId) {
+        Instant settledBy = Instant.now().minus(UNKNOWN_OUTCOME_GRACE);
+        return endorsementRepository.findByStatusAndInsurerId(EndorsementStatus.SUBMITTED_REALTIME, insurerId)
+                .stream()
+                .filter(e -> e.getUpdatedAt() != null && e.getUpdatedAt().isBefore(settledBy))
+                .filter(e -> e.getBatchId() == null || !batchOpen(e.getBatchId()))
+                .toList();
+    }
+
+    private boolean batchOpen(UUID batchId) {
+        return batchRepository.findById(batchId)
+                .map(batch -> batch.getStatus() == BatchStatus.SUBMITTED
+                        || batch.getStatus() == BatchStatus.PROCESSING)
+                .orElse(false);
+    }
+
     private void reconcileEndorsement(ReconciliationRun run, Endorsement endorsement,
                                        InsurerPort insurerPort) {
         String insurerRef = endorsement.getInsurerReference();
@@ -0,0 +1,32 @@
+package com.plum.endorsements.domain.model;
+
+import java.time.Instant;
+
+/**
+ * Precomputed inputs for anomaly scoring of one endorsement, read from the
+ * feature store rather than derived from the endorsement history.
+ *
+ * @param employerCountLast24h   endorsements created by the employer in the last 24 hours
+ * @param employerCountLast30d   endorsements created by the employer in the last 30 days
+ * @param premiumCount           number of premiums in the employer's running statistics
+ * @param premiumMean            running mean premium for the employer
+ * @param premiumStdDev          running sample standard deviation of premiums for the employer
+ * @param employeePriorActivity  the employee's most recent endorsement before this one, if any
+ * @param employeeLastAdd        the employee's most recent ADD, if any
+ * @param employeeLastDelete     the employee's most recent DELETE, if any
+ */
+public record AnomalyFeatures(
+        long employerCountLast24h,
+        long employerCountLast30d,
+        long premiumCount,
+        double premiumMean,
+        double premiumStdDev,
+        Instant employeePriorActivity,
+        Instant employeeLastAdd,
+        Instant employeeLastDelete
+) {
+
+    public static AnomalyFeatures empty() {
+        return new AnomalyFeatures(0, 0, 0, 0.0, 0.0, null, null, null);
+    }
+}
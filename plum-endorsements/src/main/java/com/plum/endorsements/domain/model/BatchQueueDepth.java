@@ -0,0 +1,15 @@
+package com.plum.endorsements.domain.model;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * An insurer's QUEUED_FOR_BATCH backlog: how many endorsements are waiting
+ * and when the oldest of them was created.
+ */
+public record BatchQueueDepth(
+        UUID insurerId,
+        long depth,
+        Instant oldestCreatedAt
+) {
+}
@@ -1,5 +1,13 @@
 package com.plum.endorsements.domain.model;
 
+import java.util.List;
+
 public enum BatchStatus {
-    ASSEMBLING, SUBMITTED, PROCESSING, PARTIAL_COMPLETE, COMPLETE, FAILED
+    ASSEMBLING, SUBMITTED, PROCESSING, PARTIAL_COMPLETE, COMPLETE, FAILED;
+
+    /** Statuses of a batch the insurer has not finished with. */
+    public static final List<BatchStatus> ACTIVE = List.of(ASSEMBLING, SUBMITTED, PROCESSING, PARTIAL_COMPLETE);
+
+    /** Statuses of a batch the insurer has been sent but has not settled. */
+    public static final List<BatchStatus> OPEN = List.of(SUBMITTED, PROCESSING, PARTIAL_COMPLETE);
 }
@@ -25,10 +25,27 @@ public class EAAccount {
     private Long version;
 
     /**
-     * Returns the effective available balance (balance minus reserved).
+     * Amount currently reserved through the account's escrow stripes (see
+     * {@link EAAccountStripe}). Loaded alongside the account and never written
+     * back to it; {@link #reserved} only holds reservations taken on the account
+     * row itself.
+     */
+    @Builder.Default
+    private BigDecimal stripedReserved = BigDecimal.ZERO;
+
+    /**
+     * Returns the total reserved amount across the account row and its stripes.
+     */
+    public BigDecimal totalReserved() {
+        return reserved.add(stripedReserved);
+    }
+
+    /**
+     * Returns the effective available balance (balance minus everything
+     * reserved on the account and its stripes).
      */
     public BigDecimal availableBalance() {
-        return balance.subtract(reserved);
+        return balance.subtract(totalReserved());
     }
 
     /**
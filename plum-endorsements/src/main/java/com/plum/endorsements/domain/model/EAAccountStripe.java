@@ -0,0 +1,38 @@
+package com.plum.endorsements.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * One escrow slice of an {@link EAAccount}. Each stripe is allocated part of the
+ * account's free balance so that concurrent reservations for the same employer
+ * can lock different rows instead of queueing on the account row.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EAAccountStripe {
+
+    private UUID employerId;
+    private UUID insurerId;
+    private int stripe;
+    private BigDecimal allocated;
+    private BigDecimal reserved;
+    private Instant updatedAt;
+
+    /**
+     * Returns the part of the allocation that is not yet reserved.
+     */
+    public BigDecimal available() {
+        return allocated.subtract(reserved);
+    }
+}
@@ -0,0 +1,78 @@
+package com.plum.endorsements.domain.model;
+
+import com.plum.endorsements.domain.model.EATransaction.EATransactionType;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One EA account's ledger summed up to {@code asOf}: how many entries there
+ * were, the total of each entry type, and the balance recorded by the latest
+ * entry ({@code null} before the first one). The position at any later time
+ * is this snapshot advanced by the entries after it, so nothing needs to
+ * read the ledger from the beginning.
+ */
+public record EALedgerSnapshot(
+        UUID employerId,
+        UUID insurerId,
+        Instant asOf,
+        BigDecimal balanceAfter,
+        long transactionCount,
+        BigDecimal debited,
+        BigDecimal credited,
+        BigDecimal reserved,
+        BigDecimal released,
+        BigDecimal toppedUp
+) {
+
+    /** The position before the account's first entry. */
+    public static EALedgerSnapshot empty(UUID employerId, UUID insurerId) {
+        return new EALedgerSnapshot(employerId, insurerId, Instant.EPOCH, null, 0,
+                BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO);
+    }
+
+    /**
+     * The position at {@code newAsOf}, given the account's entries after
+     * {@link #asOf} up to {@code newAsOf} in ledger order.
+     */
+    public EALedgerSnapshot advance(List<EATransaction> entries, Instant newAsOf) {
+        if (newAsOf.isBefore(asOf)) {
+            throw new IllegalArgumentException("Cannot move a snapshot at " + asOf + " back to " + newAsOf);
+        }
+        BigDecimal balance = balanceAfter;
+        BigDecimal debits = debited;
+        BigDecimal credits = credited;
+        BigDecimal reserves = reserved;
+        BigDecimal releases = released;
+        BigDecimal topUps = toppedUp;
+        for (EATransaction entry : entries) {
+            BigDecimal amount = entry.amount();
+            switch (entry.type()) {
+                case DEBIT -> debits = debits.add(amount);
+                case CREDIT -> credits = credits.add(amount);
+                case RESERVE -> reserves = reserves.add(amount);
+                case RELEASE -> releases = releases.add(amount);
+                case TOP_UP -> topUps = topUps.add(amount);
+            }
+            balance = entry.balanceAfter();
+        }
+        return new EALedgerSnapshot(employerId, insurerId, newAsOf, balance,
+                transactionCount + entries.size(), debits, credits, reserves, releases, topUps);
+    }
+
+    public BigDecimal total(EATransactionType type) {
+        return switch (type) {
+            case DEBIT -> debited;
+            case CREDIT -> credited;
+            case RESERVE -> reserved;
+            case RELEASE -> released;
+            case TOP_UP -> toppedUp;
+        };
+    }
+
+    public boolean hasEntries() {
+        return transactionCount > 0;
+    }
+}
@@ -26,6 +26,11 @@ public class EndorsementBatch {
     private Instant slaDeadline;
     private String insurerBatchRef;
     private Instant createdAt;
+    private Instant nextPollAt;
+    private int pollCount;
+    private Instant slaBreachNotifiedAt;
+    // Sent by the real-time micro-batcher rather than batch assembly
+    private boolean microBatch;
 
     /**
      * Returns {@code true} if the SLA deadline has been breached — i.e. the
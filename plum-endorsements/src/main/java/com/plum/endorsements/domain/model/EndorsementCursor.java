@@ -0,0 +1,22 @@
+package com.plum.endorsements.domain.model;
+
+import java.time.Instant;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Position in an employer's endorsement listing, which is ordered by
+ * {@code createdAt} descending with {@code id} breaking ties. The next page
+ * starts strictly after this position.
+ */
+public record EndorsementCursor(Instant createdAt, UUID id) {
+
+    public EndorsementCursor {
+        Objects.requireNonNull(createdAt, "createdAt");
+        Objects.requireNonNull(id, "id");
+    }
+
+    public static EndorsementCursor of(Endorsement endorsement) {
+        return new EndorsementCursor(endorsement.getCreatedAt(), endorsement.getId());
+    }
+}
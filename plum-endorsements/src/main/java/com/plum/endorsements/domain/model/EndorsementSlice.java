@@ -0,0 +1,14 @@
+package com.plum.endorsements.domain.model;
+
+import java.util.List;
+
+/**
+ * One page of a keyset listing. {@code next} is null on the last page;
+ * {@code estimatedTotal} is null unless the caller asked for it.
+ */
+public record EndorsementSlice(List<Endorsement> content, EndorsementCursor next, Long estimatedTotal) {
+
+    public boolean hasNext() {
+        return next != null;
+    }
+}
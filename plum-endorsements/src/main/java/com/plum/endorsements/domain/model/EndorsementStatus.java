@@ -1,6 +1,7 @@
 package com.plum.endorsements.domain.model;
 
 import java.util.EnumSet;
+import java.util.List;
 import java.util.Set;
 
 public enum EndorsementStatus {
@@ -17,6 +18,10 @@ public enum EndorsementStatus {
     RETRY_PENDING(EnumSet.of(LazyRef.SUBMITTED_REALTIME, LazyRef.QUEUED_FOR_BATCH, LazyRef.FAILED_PERMANENT)),
     FAILED_PERMANENT(EnumSet.noneOf(LazyRef.class));
 
+    private static final List<EndorsementStatus> OUTSTANDING = List.of(
+            CREATED, VALIDATED, PROVISIONALLY_COVERED, SUBMITTED_REALTIME,
+            QUEUED_FOR_BATCH, BATCH_SUBMITTED, INSURER_PROCESSING, RETRY_PENDING);
+
     private final Set<LazyRef> allowedTransitions;
 
     EndorsementStatus(Set<LazyRef> allowedTransitions) {
@@ -35,6 +40,14 @@ public enum EndorsementStatus {
         return !isTerminal();
     }
 
+    /**
+     * Statuses shown on an employer's outstanding-items view. Mirrored by the
+     * partial index {@code idx_endorsements_employer_outstanding}.
+     */
+    public static List<EndorsementStatus> outstanding() {
+        return OUTSTANDING;
+    }
+
     public boolean requiresInsurerAction() {
         return this == SUBMITTED_REALTIME || this == BATCH_SUBMITTED || this == INSURER_PROCESSING;
     }
@@ -0,0 +1,26 @@
+package com.plum.endorsements.domain.model;
+
+import java.util.Map;
+
+/**
+ * Endorsement counts by stored status name for some scope (all endorsements,
+ * one insurer or one employer). Keyed by name rather than
+ * {@link EndorsementStatus} because imported rows may carry legacy statuses
+ * such as {@code FAILED}.
+ */
+public record EndorsementStatusCounts(Map<String, Long> byStatus) {
+
+    public static final EndorsementStatusCounts EMPTY = new EndorsementStatusCounts(Map.of());
+
+    public EndorsementStatusCounts {
+        byStatus = Map.copyOf(byStatus);
+    }
+
+    public long get(String status) {
+        return byStatus.getOrDefault(status, 0L);
+    }
+
+    public long get(EndorsementStatus status) {
+        return get(status.name());
+    }
+}
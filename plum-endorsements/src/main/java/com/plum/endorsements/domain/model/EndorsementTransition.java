@@ -0,0 +1,17 @@
+package com.plum.endorsements.domain.model;
+
+import java.time.Instant;
+
+/**
+ * One endorsement moved by a bulk transition.
+ *
+ * @param endorsement   the endorsement as written, already in its new status
+ * @param from          the status it left
+ * @param enteredFromAt when it entered {@code from}
+ */
+public record EndorsementTransition(
+        Endorsement endorsement,
+        EndorsementStatus from,
+        Instant enteredFromAt
+) {
+}
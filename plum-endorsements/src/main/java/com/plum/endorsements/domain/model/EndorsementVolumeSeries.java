@@ -0,0 +1,97 @@
+package com.plum.endorsements.domain.model;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * One employer and insurer's endorsement history as a daily series (UTC days,
+ * oldest first): per day, how many additions and deletions were created, how
+ * many of them carried a premium and what those premiums added up to. This is
+ * all balance forecasting needs, so a history of any length is reduced to at
+ * most one row per day before it reaches the forecast engine.
+ */
+public record EndorsementVolumeSeries(UUID employerId, UUID insurerId, List<DailyVolume> days) {
+
+    public record DailyVolume(LocalDate day,
+                              int additions, int pricedAdditions, BigDecimal additionPremium,
+                              int deletions, int pricedDeletions, BigDecimal deletionPremium) {
+    }
+
+    public static EndorsementVolumeSeries empty(UUID employerId, UUID insurerId) {
+        return new EndorsementVolumeSeries(employerId, insurerId, List.of());
+    }
+
+    /** Buckets endorsements already filtered to this employer, insurer and period. */
+    public static EndorsementVolumeSeries of(UUID employerId, UUID insurerId, Collection<Endorsement> endorsements) {
+        Map<LocalDate, Bucket> buckets = new TreeMap<>();
+        for (Endorsement e : endorsements) {
+            if (e.getType() != EndorsementType.ADD && e.getType() != EndorsementType.DELETE) {
+                continue;
+            }
+            Bucket bucket = buckets.computeIfAbsent(day(e.getCreatedAt()), d -> new Bucket());
+            BigDecimal premium = e.getPremiumAmount();
+            if (e.getType() == EndorsementType.ADD) {
+                bucket.additions++;
+                if (premium != null) {
+                    bucket.pricedAdditions++;
+                    bucket.additionPremium = bucket.additionPremium.add(premium);
+                }
+            } else {
+                bucket.deletions++;
+                if (premium != null) {
+                    bucket.pricedDeletions++;
+                    bucket.deletionPremium = bucket.deletionPremium.add(premium);
+                }
+            }
+        }
+        List<DailyVolume> days = new ArrayList<>(buckets.size());
+        buckets.forEach((day, b) -> days.add(new DailyVolume(day, b.additions, b.pricedAdditions,
+                b.additionPremium, b.deletions, b.pricedDeletions, b.deletionPremium)));
+        return new EndorsementVolumeSeries(employerId, insurerId, List.copyOf(days));
+    }
+
+    public int additions() {
+        return days.stream().mapToInt(DailyVolume::additions).sum();
+    }
+
+    public int pricedAdditions() {
+        return days.stream().mapToInt(DailyVolume::pricedAdditions).sum();
+    }
+
+    public BigDecimal additionPremium() {
+        return days.stream().map(DailyVolume::additionPremium).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    public int deletions() {
+        return days.stream().mapToInt(DailyVolume::deletions).sum();
+    }
+
+    public int pricedDeletions() {
+        return days.stream().mapToInt(DailyVolume::pricedDeletions).sum();
+    }
+
+    public BigDecimal deletionPremium() {
+        return days.stream().map(DailyVolume::deletionPremium).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    private static LocalDate day(Instant createdAt) {
+        return LocalDate.ofInstant(createdAt, ZoneOffset.UTC);
+    }
+
+    private static final class Bucket {
+        int additions;
+        int pricedAdditions;
+        BigDecimal additionPremium = BigDecimal.ZERO;
+        int deletions;
+        int pricedDeletions;
+        BigDecimal deletionPremium = BigDecimal.ZERO;
+    }
+}
@@ -0,0 +1,53 @@
+package com.plum.endorsements.domain.model;
+
+import java.util.UUID;
+
+/**
+ * One outcome pushed by an insurer: either a batch's status or one member's
+ * result. A callback carrying a completed batch and its results becomes one
+ * batch outcome plus one member outcome per result.
+ *
+ * @param id               inbox position, zero until stored
+ * @param insurerId        the insurer that sent it
+ * @param kind             whether it reports a batch or a member
+ * @param reference        the insurer's batch reference, or the endorsement id for a member
+ * @param batchReference   the insurer's reference for the batch reported on, or the member's batch
+ * @param status           PROCESSING, COMPLETED or FAILED for a batch; CONFIRMED or REJECTED for a member
+ * @param endorsementId    the member's endorsement, null for a batch
+ * @param insurerReference the insurer's reference for a confirmed member
+ * @param reason           why a member was rejected
+ * @param attempts         how many times applying it has failed
+ */
+public record InsurerCallback(
+        long id,
+        UUID insurerId,
+        Kind kind,
+        String reference,
+        String batchReference,
+        String status,
+        UUID endorsementId,
+        String insurerReference,
+        String reason,
+        int attempts
+) {
+
+    public enum Kind { BATCH, MEMBER }
+
+    public static final String CONFIRMED = "CONFIRMED";
+    public static final String REJECTED = "REJECTED";
+
+    public static InsurerCallback batch(UUID insurerId, String batchReference, String status) {
+        return new InsurerCallback(0, insurerId, Kind.BATCH, batchReference, batchReference, status,
+                null, null, null, 0);
+    }
+
+    public static InsurerCallback member(UUID insurerId, String batchReference, UUID endorsementId,
+                                         boolean confirmed, String insurerReference, String reason) {
+        return new InsurerCallback(0, insurerId, Kind.MEMBER, endorsementId.toString(), batchReference,
+                confirmed ? CONFIRMED : REJECTED, endorsementId, insurerReference, reason, 0);
+    }
+
+    public boolean confirmed() {
+        return CONFIRMED.equals(status);
+    }
+}
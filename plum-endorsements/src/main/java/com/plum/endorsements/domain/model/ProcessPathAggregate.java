@@ -0,0 +1,20 @@
+package com.plum.endorsements.domain.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Completed endorsements of one insurer and how many of them took the happy
+ * path, i.e. reached CONFIRMED without ever being REJECTED.
+ */
+public record ProcessPathAggregate(UUID insurerId, long completedCount, long happyCount, Instant updatedAt) {
+
+    public BigDecimal happyPathPct() {
+        if (completedCount == 0) {
+            return BigDecimal.ZERO;
+        }
+        return BigDecimal.valueOf(happyCount * 100.0 / completedCount).setScale(2, RoundingMode.HALF_UP);
+    }
+}
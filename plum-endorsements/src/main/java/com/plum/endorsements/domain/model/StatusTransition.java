@@ -0,0 +1,19 @@
+package com.plum.endorsements.domain.model;
+
+import java.util.UUID;
+
+/**
+ * One observed status change, as folded into the process mining aggregates.
+ *
+ * @param durationMs      time spent in {@code fromStatus}
+ * @param happyCompletion null unless the endorsement completed with this
+ *                        transition; then whether it completed on the happy path
+ */
+public record StatusTransition(
+        UUID insurerId,
+        String fromStatus,
+        String toStatus,
+        long durationMs,
+        Boolean happyCompletion
+) {
+}
@@ -0,0 +1,86 @@
+package com.plum.endorsements.domain.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * An {@link EAAccount} together with all of its escrow stripes, held under lock.
+ * While the locks are held the consolidated view is exact, so reservations may
+ * draw on the whole free balance rather than a single stripe's allocation.
+ */
+public class StripedEAAccount {
+
+    private final EAAccount account;
+    private final List<EAAccountStripe> stripes;
+
+    public StripedEAAccount(EAAccount account, List<EAAccountStripe> stripes) {
+        if (stripes.isEmpty()) {
+            throw new IllegalArgumentException("A striped account needs at least one stripe");
+        }
+        this.account = account;
+        this.stripes = stripes;
+        account.setStripedReserved(stripes.stream()
+                .map(EAAccountStripe::getReserved)
+                .reduce(BigDecimal.ZERO, BigDecimal::add));
+    }
+
+    public EAAccount account() {
+        return account;
+    }
+
+    public List<EAAccountStripe> stripes() {
+        return stripes;
+    }
+
+    public BigDecimal availableBalance() {
+        return account.availableBalance();
+    }
+
+    public boolean canFund(BigDecimal amount) {
+        return account.canFund(amount);
+    }
+
+    /**
+     * Reserves the amount on the stripe with the most headroom, with the same
+     * contract as {@link EAAccount#reserve}. Returns the stripe number.
+     *
+     * @throws IllegalStateException if the consolidated available balance
+     *                               cannot cover the amount
+     */
+    public int reserve(BigDecimal amount) {
+        if (!account.canFund(amount)) {
+            throw new IllegalStateException("Insufficient available balance to reserve " + amount);
+        }
+        EAAccountStripe target = stripes.stream()
+                .max(Comparator.comparing(EAAccountStripe::available))
+                .orElseThrow();
+        Instant now = Instant.now();
+        target.setReserved(target.getReserved().add(amount));
+        target.setAllocated(target.getAllocated().max(target.getReserved()));
+        target.setUpdatedAt(now);
+        account.setStripedReserved(account.getStripedReserved().add(amount));
+        return target.getStripe();
+    }
+
+    /**
+     * Spreads the free balance evenly across the stripes: each stripe keeps its
+     * reservations and receives an equal share of what is left, with the
+     * rounding remainder going to the first stripe. Afterwards the stripes'
+     * allocations add up to the balance not reserved on the account row.
+     */
+    public void rebalance() {
+        BigDecimal free = account.availableBalance().max(BigDecimal.ZERO);
+        BigDecimal share = free.divide(BigDecimal.valueOf(stripes.size()), 2, RoundingMode.DOWN);
+        BigDecimal remainder = free.subtract(share.multiply(BigDecimal.valueOf(stripes.size())));
+        Instant now = Instant.now();
+        for (int i = 0; i < stripes.size(); i++) {
+            EAAccountStripe stripe = stripes.get(i);
+            BigDecimal allocation = stripe.getReserved().add(share);
+            stripe.setAllocated(i == 0 ? allocation.add(remainder) : allocation);
+            stripe.setUpdatedAt(now);
+        }
+    }
+}
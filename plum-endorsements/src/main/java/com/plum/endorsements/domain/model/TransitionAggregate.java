@@ -0,0 +1,68 @@
+package com.plum.endorsements.domain.model;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Running duration statistics for one status transition of one insurer.
+ * The mean and sum of squared deviations are kept with Welford's method and
+ * the distribution as counts over fixed buckets, so aggregates from several
+ * sources can be merged without keeping the individual samples.
+ *
+ * @param bucketCounts samples per bucket of {@link #BUCKET_UPPER_BOUNDS_MS}, plus
+ *                     a final bucket for anything longer
+ */
+public record TransitionAggregate(
+        UUID insurerId,
+        String fromStatus,
+        String toStatus,
+        long sampleCount,
+        double meanMs,
+        double m2,
+        long maxMs,
+        long[] bucketCounts,
+        Instant updatedAt
+) {
+
+    /** Inclusive upper bounds, from one second to two weeks. */
+    public static final long[] BUCKET_UPPER_BOUNDS_MS = {
+            1_000L, 5_000L, 15_000L, 30_000L,
+            60_000L, 120_000L, 300_000L, 600_000L, 900_000L, 1_800_000L,
+            3_600_000L, 7_200_000L, 10_800_000L, 14_400_000L, 21_600_000L, 28_800_000L, 43_200_000L,
+            64_800_000L, 86_400_000L, 129_600_000L, 172_800_000L, 259_200_000L, 345_600_000L,
+            604_800_000L, 1_209_600_000L
+    };
+
+    public static final int BUCKET_COUNT = BUCKET_UPPER_BOUNDS_MS.length + 1;
+
+    public static int bucketOf(long durationMs) {
+        int index = Arrays.binarySearch(BUCKET_UPPER_BOUNDS_MS, durationMs);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    /**
+     * Estimates the {@code quantile} (0..1) by interpolating within the bucket
+     * that holds it. Never exceeds the largest recorded duration, so a
+     * transition whose samples are all equal reports that value exactly.
+     */
+    public long percentileMs(double quantile) {
+        long total = Arrays.stream(bucketCounts).sum();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long cumulative = 0;
+        for (int i = 0; i < bucketCounts.length; i++) {
+            long count = bucketCounts[i];
+            if (count > 0 && cumulative + count >= rank) {
+                long lower = i == 0 ? 0 : BUCKET_UPPER_BOUNDS_MS[i - 1];
+                long upper = i < BUCKET_UPPER_BOUNDS_MS.length ? BUCKET_UPPER_BOUNDS_MS[i] : Math.max(lower, maxMs);
+                long estimate = lower + (long) ((upper - lower) * (double) (rank - cumulative) / count);
+                return Math.min(estimate, maxMs);
+            }
+            cumulative += count;
+        }
+        return maxMs;
+    }
+}
@@ -1,12 +1,11 @@
 package com.plum.endorsements.domain.port;
 
+import com.plum.endorsements.domain.model.AnomalyFeatures;
 import com.plum.endorsements.domain.model.Endorsement;
 
-import java.util.List;
-
 public interface AnomalyDetectionPort {
 
-    AnomalyResult analyzeEndorsement(Endorsement endorsement, List<Endorsement> recentHistory);
+    AnomalyResult analyzeEndorsement(Endorsement endorsement, AnomalyFeatures features);
 
     record AnomalyResult(String anomalyType, double score, String explanation) {
         public boolean isFlagged(double threshold) {
@@ -0,0 +1,25 @@
+package com.plum.endorsements.domain.port;
+
+import com.plum.endorsements.domain.model.AnomalyFeatures;
+import com.plum.endorsements.domain.model.Endorsement;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface AnomalyFeatureStore {
+
+    /**
+     * Folds newly created endorsements into the per-employer and per-employee
+     * features. Each endorsement must be recorded exactly once, in creation order.
+     */
+    void record(List<Endorsement> endorsements);
+
+    /**
+     * Features for scoring {@code endorsement} as of {@code now}. Windowed
+     * counts are bucketed by hour and day, so they may include up to one extra
+     * bucket at the window edge.
+     */
+    AnomalyFeatures featuresFor(Endorsement endorsement, Instant now);
+
+    int purgeActivityBefore(Instant cutoff);
+}
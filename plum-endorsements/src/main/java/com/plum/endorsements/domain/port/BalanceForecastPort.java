@@ -1,6 +1,7 @@
 package com.plum.endorsements.domain.port;
 
 import com.plum.endorsements.domain.model.Endorsement;
+import com.plum.endorsements.domain.model.EndorsementVolumeSeries;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -10,6 +11,15 @@ public interface BalanceForecastPort {
 
     ForecastResult generateForecast(UUID employerId, UUID insurerId, List<Endorsement> history);
 
+    /**
+     * Forecast from a series already limited to the last {@link #historyDays()}
+     * days. Must be safe to call from several threads at once.
+     */
+    ForecastResult generateForecast(EndorsementVolumeSeries history);
+
+    /** How many days of history the forecast looks at. */
+    int historyDays();
+
     record ForecastResult(BigDecimal forecastedNeed, int daysAhead, BigDecimal dailyBurnRate,
                           BigDecimal shortfall, boolean topUpRequired, String narrative) {}
 }
@@ -8,6 +8,7 @@ import java.util.UUID;
 
 public interface BalanceForecastRepository {
     BalanceForecastRecord save(BalanceForecastRecord forecast);
+    List<BalanceForecastRecord> saveAll(List<BalanceForecastRecord> forecasts);
     Optional<BalanceForecastRecord> findById(UUID id);
     Optional<BalanceForecastRecord> findLatestByEmployerIdAndInsurerId(UUID employerId, UUID insurerId);
     List<BalanceForecastRecord> findByEmployerId(UUID employerId);
@@ -5,10 +5,17 @@ import com.plum.endorsements.domain.model.Endorsement;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 public interface BatchOptimizerPort {
 
-    OptimizedBatchPlan optimizeBatch(List<Endorsement> queue, EAAccount account,
+    /**
+     * Selects and orders a batch from {@code queue}. Each employer's additions
+     * must fit that employer's available balance; employers missing from
+     * {@code accountsByEmployer} are not balance-constrained.
+     */
+    OptimizedBatchPlan optimizeBatch(List<Endorsement> queue, Map<UUID, EAAccount> accountsByEmployer,
                                      InsurerPort.InsurerCapabilities capabilities);
 
     record OptimizedBatchPlan(List<Endorsement> endorsements, String strategy,
@@ -4,13 +4,58 @@ import com.plum.endorsements.domain.model.EndorsementBatch;
 import com.plum.endorsements.domain.model.BatchStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+
+import java.time.Instant;
 import java.util.*;
 
 public interface BatchRepository {
     EndorsementBatch save(EndorsementBatch batch);
     Optional<EndorsementBatch> findById(UUID id);
     List<EndorsementBatch> findByInsurerId(UUID insurerId);
+
+    /**
+     * The insurer's batches among {@code insurerBatchRefs}, the references the
+     * insurer gave them on submission.
+     */
+    List<EndorsementBatch> findByInsurerBatchRefs(UUID insurerId, Collection<String> insurerBatchRefs);
     List<EndorsementBatch> findByStatus(BatchStatus status);
+
+    /**
+     * Whether the insurer has a scheduled batch in {@code statuses}. Micro-batches
+     * are not counted: they carry real-time traffic and never hold up assembly.
+     */
     boolean existsByInsurerIdAndStatusIn(UUID insurerId, List<BatchStatus> statuses);
+
     Page<EndorsementBatch> findByEmployerId(UUID employerId, Pageable pageable);
+
+    /**
+     * Batches in {@code statuses} whose next poll is due at {@code now}, never
+     * polled ones first.
+     */
+    List<EndorsementBatch> findDueForPoll(List<BatchStatus> statuses, Instant now, int limit);
+
+    /**
+     * Batches in {@code statuses} past their SLA deadline whose breach has not
+     * been notified yet.
+     */
+    List<EndorsementBatch> findSlaBreachedUnnotified(List<BatchStatus> statuses, Instant now);
+
+    /**
+     * Records that the SLA breach of a batch was notified. Returns {@code false}
+     * when it already had been, so each breach is notified once.
+     */
+    boolean markSlaBreachNotified(UUID batchId, Instant notifiedAt);
+
+    /**
+     * Sets when a batch is next polled without rewriting the rest of the row.
+     */
+    void schedulePoll(UUID batchId, Instant nextPollAt, int pollCount);
+
+    /**
+     * Moves a batch to {@code status} with a new poll schedule, but only while
+     * it is still in one of {@code from}. Returns {@code false} when another
+     * writer moved it first; that writer has already acted on the outcome.
+     */
+    boolean transition(UUID batchId, Collection<BatchStatus> from, BatchStatus status,
+                       Instant nextPollAt, int pollCount);
 }
@@ -1,15 +1,21 @@
 package com.plum.endorsements.domain.port;
 
 import com.plum.endorsements.domain.model.EAAccount;
+import com.plum.endorsements.domain.model.EAAccountStripe;
 import com.plum.endorsements.domain.model.EATransaction;
+import java.math.BigDecimal;
 import java.util.*;
 
 public interface EAAccountRepository {
     Optional<EAAccount> findByEmployerIdAndInsurerId(UUID employerId, UUID insurerId);
     Optional<EAAccount> findByEmployerIdAndInsurerIdForUpdate(UUID employerId, UUID insurerId);
     List<EAAccount> findByEmployerId(UUID employerId);
+    List<EAAccount> findByInsurerIdAndEmployerIdIn(UUID insurerId, Collection<UUID> employerIds);
     List<EAAccount> findAll();
     EAAccount save(EAAccount account);
     EATransaction saveTransaction(EATransaction transaction);
-    List<EATransaction> findTransactionsByEmployerId(UUID employerId, UUID insurerId);
+    void saveTransactions(List<EATransaction> transactions);
+    Optional<EAAccountStripe> reserveOnAnyStripe(UUID employerId, UUID insurerId, BigDecimal amount);
+    List<EAAccountStripe> findStripesForUpdate(UUID employerId, UUID insurerId);
+    void saveStripes(List<EAAccountStripe> stripes);
 }
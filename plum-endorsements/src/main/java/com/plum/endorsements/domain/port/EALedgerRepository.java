@@ -0,0 +1,66 @@
+package com.plum.endorsements.domain.port;
+
+import com.plum.endorsements.domain.model.EALedgerSnapshot;
+import com.plum.endorsements.domain.model.EATransaction;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Reads over the EA ledger that stay bounded as it grows: every entry query
+ * takes a time range, and balance questions start from a stored
+ * {@link EALedgerSnapshot}. The ledger is kept in one partition per UTC month,
+ * which this port opens ahead of time and detaches once it is no longer read.
+ */
+public interface EALedgerRepository {
+
+    Optional<EALedgerSnapshot> findLatestSnapshot(UUID employerId, UUID insurerId, Instant atOrBefore);
+
+    /**
+     * Recounts every snapshot taken in {@code (after, upTo]} from the
+     * account's latest snapshot at or before {@code after} and the entries
+     * since, and rewrites the ones an entry committed after they were taken
+     * has made stale. Returns how many were rewritten.
+     */
+    int restateSnapshots(Instant after, Instant upTo);
+
+    /**
+     * Writes a snapshot at {@code asOf} for every account with entries since
+     * its latest one, and returns how many were written.
+     */
+    int advanceSnapshots(Instant asOf);
+
+    /** The account's entries created after {@code after} up to {@code upTo}, in ledger order. */
+    List<EATransaction> findTransactionsBetween(UUID employerId, UUID insurerId, Instant after, Instant upTo);
+
+    /** At most {@code limit} of the account's entries in {@code [from, to)}, newest first. */
+    List<EATransaction> findRecentTransactions(UUID employerId, UUID insurerId, Instant from, Instant to, int limit);
+
+    /** The months with a ledger partition attached, oldest first. */
+    List<YearMonth> findLedgerMonths();
+
+    void createLedgerMonth(YearMonth month);
+
+    /**
+     * Writes a snapshot at the end of {@code month} for every account with
+     * entries in it, including accounts quiet since their last snapshot, so
+     * positions after the month no longer need its entries. Returns how many
+     * were written.
+     */
+    int closeLedgerMonth(YearMonth month);
+
+    /**
+     * Whether every account with entries in {@code month} has a snapshot at or
+     * after the month's end, so positions after it no longer need its entries.
+     */
+    boolean isCoveredBySnapshots(YearMonth month);
+
+    /**
+     * Detaches the month's partition from the ledger. Its rows stay in a
+     * standalone table for archiving but are no longer queried.
+     */
+    void detachLedgerMonth(YearMonth month);
+}
@@ -1,20 +1,97 @@
 package com.plum.endorsements.domain.port;
 
+import com.plum.endorsements.domain.model.BatchQueueDepth;
 import com.plum.endorsements.domain.model.Endorsement;
+import com.plum.endorsements.domain.model.EndorsementCursor;
 import com.plum.endorsements.domain.model.EndorsementStatus;
+import com.plum.endorsements.domain.model.EndorsementTransition;
+import com.plum.endorsements.domain.model.EndorsementVolumeSeries;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import java.time.Instant;
 import java.util.*;
+import java.util.function.Consumer;
 
 public interface EndorsementRepository {
     Endorsement save(Endorsement endorsement);
+    Optional<Endorsement> insertIfAbsent(Endorsement endorsement);
+    List<Endorsement> insertAll(List<Endorsement> endorsements);
+    List<Endorsement> saveAll(List<Endorsement> endorsements);
+
+    /**
+     * Moves every endorsement in {@code ids} that is still in {@code from} to
+     * {@code to} with one versioned UPDATE, also assigning {@code batchId} when
+     * it is not null. Rows in any other status are left alone, so the result
+     * lists only the endorsements that actually transitioned. Does not check
+     * that {@code from -> to} is an allowed transition. Must run inside a
+     * transaction.
+     */
+    List<EndorsementTransition> transitionAll(Collection<UUID> ids, EndorsementStatus from,
+                                              EndorsementStatus to, UUID batchId);
+
+    /**
+     * Assigns {@code batchId} to every endorsement in {@code ids} that is
+     * still in {@code status}, leaving its status and version unchanged so an
+     * outcome applied against the version read at claim time still matches.
+     * Returns how many rows were assigned.
+     */
+    int assignBatch(Collection<UUID> ids, EndorsementStatus status, UUID batchId);
     Optional<Endorsement> findById(UUID id);
+    List<Endorsement> findAllById(Collection<UUID> ids);
     Optional<Endorsement> findByIdempotencyKey(String key);
+    Map<String, UUID> findIdsByIdempotencyKeys(Collection<String> keys);
     Page<Endorsement> findByEmployerId(UUID employerId, Pageable pageable);
     Page<Endorsement> findByEmployerIdAndStatusIn(UUID employerId, List<EndorsementStatus> statuses, Pageable pageable);
+
+    /**
+     * Keyset page of an employer's endorsements, newest first, starting strictly
+     * after {@code after} (or at the top when null). An empty {@code statuses}
+     * list means every status.
+     */
+    List<Endorsement> findPageByEmployerId(UUID employerId, List<EndorsementStatus> statuses,
+                                           EndorsementCursor after, int limit);
+    long countByEmployerIdAndStatusIn(UUID employerId, List<EndorsementStatus> statuses);
+
+    /**
+     * Planner row estimate for the same filter as {@link #findPageByEmployerId};
+     * cheap regardless of how many rows match, but only approximate.
+     */
+    long estimateCountByEmployerId(UUID employerId, List<EndorsementStatus> statuses);
     List<Endorsement> findByStatus(EndorsementStatus status);
     List<Endorsement> findByStatusAndInsurerId(EndorsementStatus status, UUID insurerId);
+
+    /**
+     * Locks up to {@code limit} of an insurer's endorsements in {@code status},
+     * oldest first, skipping rows another transaction already holds. The locks
+     * are released when the caller's transaction ends.
+     */
+    List<Endorsement> claimByStatusAndInsurerId(EndorsementStatus status, UUID insurerId, int limit);
+
+    /**
+     * As {@link #claimByStatusAndInsurerId}, but only rows that sort after
+     * {@code (createdAt, id)}: the window after one already claimed.
+     */
+    List<Endorsement> claimByStatusAndInsurerIdAfter(EndorsementStatus status, UUID insurerId,
+                                                     Instant createdAt, UUID id, int limit);
+
+    /**
+     * Every insurer with endorsements waiting for a batch, with the queue
+     * depth and the oldest item's creation time.
+     */
+    List<BatchQueueDepth> findBatchQueueDepths();
     List<Endorsement> findByBatchId(UUID batchId);
     long countByEmployerIdAndStatus(UUID employerId, EndorsementStatus status);
     List<Endorsement> findByEmployerIdAndCreatedAtAfter(UUID employerId, java.time.Instant after);
+
+    /**
+     * Daily ADD and DELETE volumes of the endorsements in {@code statuses}
+     * created after {@code since}, aggregated in one pass over the table and
+     * handed to {@code consumer} one employer and insurer at a time.
+     * Employer and insurer pairs with no such endorsements are not reported.
+     */
+    void streamDailyVolumes(Collection<EndorsementStatus> statuses, java.time.Instant since,
+                            Consumer<EndorsementVolumeSeries> consumer);
+
+    EndorsementVolumeSeries findDailyVolumes(UUID employerId, UUID insurerId,
+                                             Collection<EndorsementStatus> statuses, java.time.Instant since);
 }
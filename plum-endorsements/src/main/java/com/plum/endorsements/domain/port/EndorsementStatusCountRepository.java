@@ -0,0 +1,40 @@
+package com.plum.endorsements.domain.port;
+
+import com.plum.endorsements.domain.model.EndorsementStatusCounts;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Endorsement counts per insurer, employer and status. Every change to an
+ * endorsement's status records a delta in the same transaction, so reads are
+ * exact as of their snapshot; {@link #compact} folds the deltas into the
+ * stored counts and {@link #rebuild} recomputes everything from the
+ * endorsements themselves.
+ */
+public interface EndorsementStatusCountRepository {
+
+    EndorsementStatusCounts countAll();
+
+    EndorsementStatusCounts countByInsurerId(UUID insurerId);
+
+    Map<UUID, EndorsementStatusCounts> countByInsurer();
+
+    EndorsementStatusCounts countByEmployerId(UUID employerId);
+
+    /**
+     * Folds the pending deltas into the stored counts.
+     *
+     * @return the number of deltas folded
+     */
+    int compact();
+
+    /**
+     * Replaces the stored counts and pending deltas with a fresh count of the
+     * endorsements. Must run in a REPEATABLE READ transaction so the count and
+     * the deltas it discards come from the same snapshot.
+     *
+     * @return the number of (insurer, employer, status) counts that were wrong
+     */
+    int rebuild();
+}
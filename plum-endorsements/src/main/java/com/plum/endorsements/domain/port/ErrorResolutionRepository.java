@@ -2,6 +2,7 @@ package com.plum.endorsements.domain.port;
 
 import com.plum.endorsements.domain.model.ErrorResolution;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -13,5 +14,6 @@ public interface ErrorResolutionRepository {
     long countByAutoApplied(boolean autoApplied);
     long count();
     List<ErrorResolution> findByEndorsementIdAndOutcomeIsNull(UUID endorsementId);
+    List<ErrorResolution> findByEndorsementIdInAndOutcomeIsNull(Collection<UUID> endorsementIds);
     long countByOutcome(String outcome);
 }
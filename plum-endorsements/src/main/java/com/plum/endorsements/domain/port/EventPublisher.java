@@ -2,6 +2,14 @@ package com.plum.endorsements.domain.port;
 
 import com.plum.endorsements.domain.model.EndorsementEvent;
 
+import java.util.List;
+
 public interface EventPublisher {
     void publish(EndorsementEvent event);
+
+    default void publishAll(List<? extends EndorsementEvent> events) {
+        for (EndorsementEvent event : events) {
+            publish(event);
+        }
+    }
 }
@@ -0,0 +1,49 @@
+package com.plum.endorsements.domain.port;
+
+import com.plum.endorsements.domain.model.InsurerCallback;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Durable queue between the insurer callback endpoint and the code that
+ * applies callbacks, so an acknowledged callback survives a crash and a burst
+ * of them is applied in bulk rather than one request at a time.
+ */
+public interface InsurerCallbackInbox {
+
+    /**
+     * Stores the callbacks not seen before and returns how many that was.
+     * An outcome already in the inbox, applied or not, is dropped.
+     */
+    int enqueue(List<InsurerCallback> callbacks, Instant receivedAt);
+
+    /**
+     * The oldest callbacks still to be applied, in arrival order, skipping
+     * ones given up on and ones deferred to a later time.
+     */
+    List<InsurerCallback> findPending(int limit);
+
+    void markApplied(List<Long> ids, Instant appliedAt);
+
+    /**
+     * Records a failed attempt to apply a callback; once it has failed
+     * {@code maxAttempts} times it is no longer returned as pending.
+     * Returns whether it was given up on.
+     */
+    boolean markFailed(long id, String error, int maxAttempts, Instant failedAt);
+
+    /**
+     * Leaves callbacks that cannot be applied yet pending, not to be returned
+     * again before {@code retryAt}. Ones received before
+     * {@code expireReceivedBefore} are given up on instead. Returns how many
+     * were given up on.
+     */
+    int defer(List<Long> ids, String reason, Instant retryAt, Instant expireReceivedBefore, Instant deferredAt);
+
+    /**
+     * Deletes applied callbacks older than {@code cutoff}. Redeliveries of
+     * those outcomes are no longer recognised as duplicates.
+     */
+    int purgeAppliedBefore(Instant cutoff);
+}
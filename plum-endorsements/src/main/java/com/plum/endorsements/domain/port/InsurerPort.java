@@ -2,6 +2,8 @@ package com.plum.endorsements.domain.port;
 
 import java.math.BigDecimal;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 public interface InsurerPort {
     SubmissionResult submitRealTime(UUID endorsementId, Map<String, Object> endorsementData);
@@ -9,6 +11,31 @@ public interface InsurerPort {
     BatchStatusResult checkBatchStatus(String insurerBatchRef);
     InsurerCapabilities getCapabilities();
 
+    /**
+     * Non-blocking form of {@link #submitRealTime}. The stage completes
+     * exceptionally on a transport failure or timeout; cancelling it abandons
+     * the call. The default runs the blocking call on a virtual thread.
+     */
+    default CompletionStage<SubmissionResult> submitRealTimeAsync(UUID endorsementId,
+                                                                  Map<String, Object> endorsementData) {
+        return CompletableFuture.supplyAsync(() -> submitRealTime(endorsementId, endorsementData),
+                Thread::startVirtualThread);
+    }
+
+    /**
+     * Non-blocking form of {@link #submitBatch}; see {@link #submitRealTimeAsync}.
+     */
+    default CompletionStage<String> submitBatchAsync(UUID batchId, List<Map<String, Object>> endorsements) {
+        return CompletableFuture.supplyAsync(() -> submitBatch(batchId, endorsements), Thread::startVirtualThread);
+    }
+
+    /**
+     * Non-blocking form of {@link #checkBatchStatus}; see {@link #submitRealTimeAsync}.
+     */
+    default CompletionStage<BatchStatusResult> checkBatchStatusAsync(String insurerBatchRef) {
+        return CompletableFuture.supplyAsync(() -> checkBatchStatus(insurerBatchRef), Thread::startVirtualThread);
+    }
+
     default String getAdapterType() {
         return "MOCK";
     }
@@ -0,0 +1,20 @@
+package com.plum.endorsements.domain.port;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Rate-limit state shared by every replica calling an insurer, kept as a
+ * GCRA theoretical arrival time per insurer.
+ */
+public interface InsurerRateLimitRepository {
+
+    /**
+     * Reserves the insurer's next call slot and returns how long the caller
+     * must wait before using it; zero if the call may go now. Slots are
+     * {@code emissionInterval} apart, and up to {@code burstTolerance} of them
+     * may be used ahead of schedule. A reservation is never handed back, so a
+     * caller that gives up after reserving leaves its slot unused.
+     */
+    Duration reserve(UUID insurerId, Duration emissionInterval, Duration burstTolerance);
+}
@@ -0,0 +1,40 @@
+package com.plum.endorsements.domain.port;
+
+import com.plum.endorsements.domain.model.ProcessPathAggregate;
+import com.plum.endorsements.domain.model.StatusTransition;
+import com.plum.endorsements.domain.model.TransitionAggregate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface ProcessMiningAggregateRepository {
+
+    /** A STATUS_CHANGE row of {@code endorsement_events} not yet folded into the aggregates. */
+    record LoggedTransition(long eventId, StatusTransition transition) {
+    }
+
+    /**
+     * Adds the given deltas to the stored aggregates. Deltas are additive, so
+     * every replica can merge its own without coordination.
+     */
+    void merge(List<TransitionAggregate> transitions, List<ProcessPathAggregate> paths);
+
+    List<TransitionAggregate> findTransitionsByInsurerId(UUID insurerId);
+
+    List<TransitionAggregate> findAllTransitions();
+
+    Optional<ProcessPathAggregate> findPathByInsurerId(UUID insurerId);
+
+    List<ProcessPathAggregate> findAllPaths();
+
+    /**
+     * Locks the event log watermark until the current transaction ends and
+     * returns the id of the last folded event.
+     */
+    long lockEventLogWatermark();
+
+    List<LoggedTransition> findLoggedTransitionsAfter(long eventId, int limit);
+
+    void advanceEventLogWatermark(long eventId);
+}
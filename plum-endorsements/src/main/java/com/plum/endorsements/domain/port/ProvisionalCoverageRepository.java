@@ -5,7 +5,9 @@ import java.util.*;
 
 public interface ProvisionalCoverageRepository {
     ProvisionalCoverage save(ProvisionalCoverage coverage);
+    void saveAll(List<ProvisionalCoverage> coverages);
     Optional<ProvisionalCoverage> findByEndorsementId(UUID endorsementId);
+    List<ProvisionalCoverage> findByEndorsementIdIn(Collection<UUID> endorsementIds);
     List<ProvisionalCoverage> findActiveByEmployeeId(UUID employeeId);
     List<ProvisionalCoverage> findStaleProvisionalCoverages(int maxDays);
     List<ProvisionalCoverage> findActiveExpiringBefore(java.time.Instant warningCutoff, java.time.Instant staleCutoff);
@@ -0,0 +1,21 @@
+package com.plum.endorsements.domain.port;
+
+import com.plum.endorsements.domain.model.Endorsement;
+import com.plum.endorsements.domain.model.EndorsementStatus;
+
+import java.time.Instant;
+
+/**
+ * Notified by {@link com.plum.endorsements.domain.service.EndorsementStateMachine}
+ * after each successful transition. Called on the transitioning thread, so
+ * implementations must be cheap and must not throw.
+ */
+public interface StatusTransitionListener {
+
+    /**
+     * @param endorsement     the endorsement, already in its new status
+     * @param from            the status it left
+     * @param enteredFromAt   when it entered {@code from}, or null if unknown
+     */
+    void onTransition(Endorsement endorsement, EndorsementStatus from, Instant enteredFromAt);
+}
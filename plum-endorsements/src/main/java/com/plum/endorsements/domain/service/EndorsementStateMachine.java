@@ -2,11 +2,28 @@ package com.plum.endorsements.domain.service;
 
 import com.plum.endorsements.domain.model.Endorsement;
 import com.plum.endorsements.domain.model.EndorsementStatus;
+import com.plum.endorsements.domain.model.EndorsementTransition;
+import com.plum.endorsements.domain.port.StatusTransitionListener;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.time.Instant;
+import java.util.List;
+
 @Component
 public class EndorsementStateMachine {
 
+    private final List<StatusTransitionListener> listeners;
+
+    public EndorsementStateMachine() {
+        this(List.of());
+    }
+
+    @Autowired
+    public EndorsementStateMachine(List<StatusTransitionListener> listeners) {
+        this.listeners = List.copyOf(listeners);
+    }
+
     public void transition(Endorsement endorsement, EndorsementStatus targetStatus) {
         EndorsementStatus current = endorsement.getStatus();
         if (!current.canTransitionTo(targetStatus)) {
@@ -14,10 +31,48 @@ public class EndorsementStateMachine {
                 "Invalid state transition: %s -> %s for endorsement %s"
                     .formatted(current, targetStatus, endorsement.getId()));
         }
+        Instant enteredCurrentAt = endorsement.getUpdatedAt();
         endorsement.transitionTo(targetStatus);
+        notifyListeners(endorsement, current, enteredCurrentAt);
+    }
+
+    /**
+     * Moves a rejected endorsement to RETRY_PENDING and counts the attempt.
+     */
+    public void retry(Endorsement endorsement) {
+        EndorsementStatus current = endorsement.getStatus();
+        Instant enteredCurrentAt = endorsement.getUpdatedAt();
+        endorsement.incrementRetry();
+        notifyListeners(endorsement, current, enteredCurrentAt);
+    }
+
+    /**
+     * Notifies listeners of transitions already written in bulk by
+     * {@code EndorsementRepository.transitionAll}, which validates nothing
+     * itself; callers check {@link #validate} first.
+     */
+    public void transitioned(List<EndorsementTransition> transitions) {
+        for (EndorsementTransition transition : transitions) {
+            notifyListeners(transition.endorsement(), transition.from(), transition.enteredFromAt());
+        }
+    }
+
+    /**
+     * Throws if no endorsement may move from {@code from} to {@code to}.
+     */
+    public void validate(EndorsementStatus from, EndorsementStatus to) {
+        if (!from.canTransitionTo(to)) {
+            throw new IllegalStateException("Invalid state transition: %s -> %s".formatted(from, to));
+        }
     }
 
     public boolean canTransition(Endorsement endorsement, EndorsementStatus targetStatus) {
         return endorsement.getStatus().canTransitionTo(targetStatus);
     }
+
+    private void notifyListeners(Endorsement endorsement, EndorsementStatus from, Instant enteredFromAt) {
+        for (StatusTransitionListener listener : listeners) {
+            listener.onTransition(endorsement, from, enteredFromAt);
+        }
+    }
 }
@@ -1,39 +1,79 @@
 package com.plum.endorsements.infrastructure.config;
 
+import com.plum.endorsements.domain.model.EndorsementStatus;
+import com.plum.endorsements.domain.model.EndorsementStatusCounts;
+import com.plum.endorsements.domain.port.EndorsementStatusCountRepository;
 import com.plum.endorsements.domain.port.InsurerConfigurationRepository;
-import com.plum.endorsements.infrastructure.persistence.repository.SpringDataEndorsementRepository;
 import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
-import java.util.List;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Publishes the endorsement status and active insurer gauges from a snapshot
+ * sampled in the background, so a scrape only reads in-memory values. Each
+ * replica samples on its own fixed delay with one grouped status count query;
+ * {@code endorsement.gauge.snapshot.age} shows how stale the values are.
+ */
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class EndorsementGaugeRegistrar {
 
     private final MeterRegistry meterRegistry;
-    private final SpringDataEndorsementRepository repository;
+    private final EndorsementStatusCountRepository statusCountRepository;
     private final InsurerConfigurationRepository insurerConfigurationRepository;
 
+    private final Map<EndorsementStatus, AtomicLong> statusCounts = new EnumMap<>(EndorsementStatus.class);
+    private final AtomicLong activeInsurers = new AtomicLong();
+    private final AtomicLong sampledAtMillis = new AtomicLong();
+
     @PostConstruct
     public void registerGauges() {
-        for (String status : List.of("CREATED", "VALIDATED", "PROVISIONALLY_COVERED",
-                "SUBMITTED_REALTIME", "QUEUED_FOR_BATCH", "BATCH_SUBMITTED",
-                "INSURER_PROCESSING", "CONFIRMED", "REJECTED",
-                "RETRY_PENDING", "FAILED_PERMANENT")) {
-            Gauge.builder("endorsement.active.count", repository,
-                            repo -> repo.countByStatus(status))
-                    .tag("status", status)
-                    .description("Number of endorsements in " + status + " state")
+        for (EndorsementStatus status : EndorsementStatus.values()) {
+            AtomicLong count = new AtomicLong();
+            statusCounts.put(status, count);
+            Gauge.builder("endorsement.active.count", count, AtomicLong::get)
+                    .tag("status", status.name())
+                    .description("Number of endorsements in " + status.name() + " state")
                     .register(meterRegistry);
         }
 
-        Gauge.builder("endorsement.insurer.active.count", insurerConfigurationRepository,
-                        repo -> repo.findAllActive().size())
+        Gauge.builder("endorsement.insurer.active.count", activeInsurers, AtomicLong::get)
                 .description("Number of active insurer configurations")
                 .register(meterRegistry);
+
+        Gauge.builder("endorsement.gauge.snapshot.age", sampledAtMillis, this::snapshotAgeSeconds)
+                .description("Seconds since the endorsement gauges were last sampled")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${endorsement.metrics.gauge-sample-interval-ms:15000}")
+    public void sample() {
+        try {
+            EndorsementStatusCounts counts = statusCountRepository.countAll();
+            int insurers = insurerConfigurationRepository.findAllActive().size();
+            statusCounts.forEach((status, count) -> count.set(counts.get(status)));
+            activeInsurers.set(insurers);
+            sampledAtMillis.set(System.currentTimeMillis());
+            meterRegistry.counter("endorsement.gauge.sample", "result", "success").increment();
+        } catch (Exception e) {
+            // Keep publishing the previous snapshot; its age shows it is stale
+            meterRegistry.counter("endorsement.gauge.sample", "result", "failure").increment();
+            log.warn("Failed to sample endorsement gauges: {}", e.getMessage());
+        }
+    }
+
+    private double snapshotAgeSeconds(AtomicLong sampledAt) {
+        long at = sampledAt.get();
+        return at == 0 ? Double.NaN : (System.currentTimeMillis() - at) / 1000.0;
     }
 }
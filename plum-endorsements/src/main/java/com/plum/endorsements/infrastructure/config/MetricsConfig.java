@@ -29,6 +29,9 @@ import org.springframework.context.annotation.Configuration;
  * - endorsement.reconciliation.discrepancies (Gauge)
  * - endorsement.reconciliation.error (Counter): insurerCode={...}
  * - endorsement.insurer.active.count (Gauge)
+ * - endorsement.insurer.microbatch.size (Summary): insurerId={...}
+ * - endorsement.insurer.microbatch.latency (Timer): insurerId={...}
+ * - endorsement.insurer.microbatch.fallback (Counter): insurerId={...}, reason={slo,submit_failed}
  *
  * Phase 3 — Intelligence metrics:
  * - endorsement.anomaly.detected (Counter): anomalyType={VOLUME_SPIKE,...}, employerId={...}
@@ -23,6 +23,21 @@ public class RequestLoggingFilter extends OncePerRequestFilter {
                                      HttpServletResponse response,
                                      FilterChain filterChain)
             throws ServletException, IOException {
+        if (isStreamingResponse(request)) {
+            // Caching the body would hold back streamed NDJSON rows until the end
+            long start = System.nanoTime();
+            try {
+                filterChain.doFilter(request, response);
+            } finally {
+                log.info("HTTP {} {} -> {} ({}ms) [streamed]",
+                        request.getMethod(),
+                        request.getRequestURI(),
+                        response.getStatus(),
+                        (System.nanoTime() - start) / 1_000_000);
+            }
+            return;
+        }
+
         var wrappedResponse = new ContentCachingResponseWrapper(response);
 
         long start = System.nanoTime();
@@ -43,6 +58,10 @@ public class RequestLoggingFilter extends OncePerRequestFilter {
         }
     }
 
+    private boolean isStreamingResponse(HttpServletRequest request) {
+        return request.getRequestURI().endsWith("/bulk");
+    }
+
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) {
         String path = request.getRequestURI();
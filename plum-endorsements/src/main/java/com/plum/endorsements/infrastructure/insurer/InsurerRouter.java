@@ -4,6 +4,11 @@ import com.plum.endorsements.application.exception.InsurerNotFoundException;
 import com.plum.endorsements.domain.model.InsurerConfiguration;
 import com.plum.endorsements.domain.port.InsurerPort;
 import com.plum.endorsements.domain.service.InsurerRegistry;
+import com.plum.endorsements.infrastructure.insurer.admission.AdmissionControlledInsurerPort;
+import com.plum.endorsements.infrastructure.insurer.admission.InsurerAdmissionController;
+import com.plum.endorsements.infrastructure.insurer.microbatch.RealTimeMicroBatcher;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryRegistry;
 import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
@@ -14,17 +19,43 @@ import java.util.UUID;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
+/**
+ * Resolves an insurer to its adapter. Callers get the adapter behind the
+ * insurer's {@link InsurerAdmissionController} lane, so every call is paced
+ * to the insurer's rate limit whoever makes it. For insurers configured for
+ * it, real-time submissions are then gathered by {@link RealTimeMicroBatcher},
+ * so a whole micro-batch spends one admission slot.
+ *
+ * <p>Adapters with a retry policy have it applied by the admission lane, so
+ * each attempt is admitted on its own.</p>
+ */
 @Slf4j
 @Component
 public class InsurerRouter {
 
+    // Adapter type to its resilience4j retry instance
+    private static final Map<String, String> RETRY_POLICIES = Map.of(
+            "MOCK", "insurerSubmission",
+            "ICICI_LOMBARD", "iciciLombard",
+            "BAJAJ_ALLIANZ", "bajajAllianz");
+
     private final InsurerRegistry insurerRegistry;
     private final Map<String, InsurerPort> adaptersByType;
+    private final Map<String, Retry> retriesByType;
+    private final InsurerAdmissionController admission;
+    private final RealTimeMicroBatcher microBatcher;
 
-    public InsurerRouter(InsurerRegistry insurerRegistry, List<InsurerPort> adapters) {
+    public InsurerRouter(InsurerRegistry insurerRegistry, List<InsurerPort> adapters,
+                         InsurerAdmissionController admission, RealTimeMicroBatcher microBatcher,
+                         RetryRegistry retryRegistry) {
         this.insurerRegistry = insurerRegistry;
         this.adaptersByType = adapters.stream()
                 .collect(Collectors.toMap(InsurerPort::getAdapterType, Function.identity()));
+        this.retriesByType = adaptersByType.keySet().stream()
+                .filter(RETRY_POLICIES::containsKey)
+                .collect(Collectors.toMap(Function.identity(), type -> retryRegistry.retry(RETRY_POLICIES.get(type))));
+        this.admission = admission;
+        this.microBatcher = microBatcher;
     }
 
     @PostConstruct
@@ -43,7 +74,7 @@ public class InsurerRouter {
             throw new InsurerNotFoundException(insurerId);
         }
 
-        return adapter;
+        return forCallers(adapter, insurerId);
     }
 
     public InsurerPort resolveByCode(String insurerCode) {
@@ -55,7 +86,12 @@ public class InsurerRouter {
             throw new InsurerNotFoundException(insurerCode);
         }
 
-        return adapter;
+        return forCallers(adapter, config.getInsurerId());
+    }
+
+    private InsurerPort forCallers(InsurerPort adapter, UUID insurerId) {
+        return microBatcher.wrap(new AdmissionControlledInsurerPort(
+                adapter, insurerId, admission, retriesByType.get(adapter.getAdapterType())), insurerId);
     }
 
     public boolean hasAdapter(String adapterType) {
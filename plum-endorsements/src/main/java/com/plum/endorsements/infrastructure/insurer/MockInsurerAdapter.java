@@ -1,8 +1,8 @@
 package com.plum.endorsements.infrastructure.insurer;
 
 import com.plum.endorsements.domain.port.InsurerPort;
+import com.plum.endorsements.infrastructure.insurer.http.InsurerHttpClient;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
-import io.github.resilience4j.retry.annotation.Retry;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
@@ -12,6 +12,7 @@ import org.springframework.stereotype.Component;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletionStage;
 
 @Slf4j
 @Component
@@ -19,48 +20,62 @@ import java.util.UUID;
 public class MockInsurerAdapter implements InsurerPort {
 
     private final MeterRegistry meterRegistry;
+    private final InsurerHttpClient httpClient;
 
     @Override
-    @CircuitBreaker(name = "insurerSubmission", fallbackMethod = "submitRealTimeFallback")
-    @Retry(name = "insurerSubmission")
+    @CircuitBreaker(name = "insurerSubmission")
     public SubmissionResult submitRealTime(UUID endorsementId, Map<String, Object> endorsementData) {
+        return InsurerHttpClient.await(submitRealTimeAsync(endorsementId, endorsementData));
+    }
+
+    @Override
+    public CompletionStage<SubmissionResult> submitRealTimeAsync(UUID endorsementId,
+                                                                 Map<String, Object> endorsementData) {
         Timer.Sample sample = Timer.start(meterRegistry);
         log.info("Mock insurer: submitting endorsement {} in real-time", endorsementId);
 
-        try {
-            Thread.sleep(100);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            log.warn("Mock insurer real-time submission interrupted for endorsement {}", endorsementId);
-        }
-
-        String insurerReference = "INS-RT-" + UUID.randomUUID().toString().substring(0, 8);
-        log.info("Mock insurer: endorsement {} accepted with reference {}", endorsementId, insurerReference);
-
-        sample.stop(meterRegistry.timer("endorsement.insurer.mock.duration", "method", "submitRealTime"));
-        return new SubmissionResult(true, insurerReference, null);
+        return httpClient.postJson("mock/endorsements",
+                        Map.of("endorsementId", endorsementId, "data", endorsementData),
+                        InsurerHttpClient.SubmissionResponse.class)
+                .thenApply(response -> {
+                    log.info("Mock insurer: endorsement {} answered accepted={} reference={}",
+                            endorsementId, response.accepted(), response.reference());
+                    return new SubmissionResult(response.accepted(), response.reference(), response.error());
+                })
+                .whenComplete((r, t) -> sample.stop(
+                        meterRegistry.timer("endorsement.insurer.mock.duration", "method", "submitRealTime")));
     }
 
-    private SubmissionResult submitRealTimeFallback(UUID endorsementId, Map<String, Object> endorsementData, Throwable t) {
-        log.warn("Circuit breaker fallback for endorsement {}: {}", endorsementId, t.getMessage());
-        return new SubmissionResult(false, null, "Insurer service unavailable: " + t.getMessage());
+    @Override
+    public String submitBatch(UUID batchId, List<Map<String, Object>> endorsements) {
+        return InsurerHttpClient.await(submitBatchAsync(batchId, endorsements));
     }
 
     @Override
-    public String submitBatch(UUID batchId, List<Map<String, Object>> endorsements) {
+    public CompletionStage<String> submitBatchAsync(UUID batchId, List<Map<String, Object>> endorsements) {
         Timer.Sample sample = Timer.start(meterRegistry);
-        String batchReference = "INS-BATCH-" + UUID.randomUUID().toString().substring(0, 8);
-        log.info("Mock insurer: batch {} submitted with {} endorsements, insurer batch reference: {}",
-                batchId, endorsements.size(), batchReference);
 
-        sample.stop(meterRegistry.timer("endorsement.insurer.mock.duration", "method", "submitBatch"));
-        return batchReference;
+        return httpClient.postJson("mock/batches",
+                        Map.of("batchId", batchId, "endorsements", endorsements),
+                        InsurerHttpClient.BatchSubmissionResponse.class)
+                .thenApply(response -> {
+                    log.info("Mock insurer: batch {} submitted with {} endorsements, insurer batch reference: {}",
+                            batchId, endorsements.size(), response.batchRef());
+                    return response.batchRef();
+                })
+                .whenComplete((r, t) -> sample.stop(
+                        meterRegistry.timer("endorsement.insurer.mock.duration", "method", "submitBatch")));
     }
 
     @Override
     public BatchStatusResult checkBatchStatus(String insurerBatchRef) {
+        return InsurerHttpClient.await(checkBatchStatusAsync(insurerBatchRef));
+    }
+
+    @Override
+    public CompletionStage<BatchStatusResult> checkBatchStatusAsync(String insurerBatchRef) {
         log.info("Mock insurer: checking batch status for reference {}", insurerBatchRef);
-        return new BatchStatusResult("COMPLETED", List.of());
+        return httpClient.get("mock/batches/" + insurerBatchRef, BatchStatusResult.class);
     }
 
     @Override
@@ -0,0 +1,173 @@
+package com.plum.endorsements.infrastructure.insurer.admission;
+
+import com.plum.endorsements.application.exception.InsurerOutcomeUnknownException;
+import com.plum.endorsements.domain.port.InsurerPort;
+import io.github.resilience4j.retry.Retry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * An insurer adapter as seen by one insurer's callers: every call waits for
+ * admission from {@link InsurerAdmissionController} first and holds its permit
+ * until the adapter returns. Operations the insurer does not support go
+ * straight to the adapter, which rejects them without spending a slot.
+ *
+ * <p>When the adapter has a retry policy, real-time submissions are retried
+ * here rather than inside the adapter, so every attempt waits for its own
+ * permit and no permit is held through the backoff. Attempts after the first
+ * are admitted as {@link AdmissionPriority#RETRY}. A submission still failing
+ * once the retries run out comes back as a failed result, as long as the
+ * insurer certainly did not get it.</p>
+ */
+@Slf4j
+public class AdmissionControlledInsurerPort implements InsurerPort {
+
+    private final InsurerPort delegate;
+    private final UUID insurerId;
+    private final InsurerAdmissionController admission;
+    // Null when the adapter has no retry policy
+    private final Retry retry;
+
+    public AdmissionControlledInsurerPort(InsurerPort delegate, UUID insurerId,
+                                          InsurerAdmissionController admission) {
+        this(delegate, insurerId, admission, null);
+    }
+
+    public AdmissionControlledInsurerPort(InsurerPort delegate, UUID insurerId,
+                                          InsurerAdmissionController admission, Retry retry) {
+        this.delegate = delegate;
+        this.insurerId = insurerId;
+        this.admission = admission;
+        this.retry = retry;
+    }
+
+    public InsurerPort getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public SubmissionResult submitRealTime(UUID endorsementId, Map<String, Object> endorsementData) {
+        if (!getCapabilities().supportsRealTime()) {
+            return delegate.submitRealTime(endorsementId, endorsementData);
+        }
+        // Resolved here, on the caller's thread, where any priority override is set
+        AdmissionPriority priority = AdmissionPriority.resolve(AdmissionPriority.REALTIME);
+        if (retry == null) {
+            return admittedNow(priority, () -> delegate.submitRealTime(endorsementId, endorsementData));
+        }
+
+        AtomicInteger attempts = new AtomicInteger();
+        try {
+            return retry.executeSupplier(() -> admittedNow(
+                    attempts.getAndIncrement() == 0 ? priority : AdmissionPriority.RETRY,
+                    () -> delegate.submitRealTime(endorsementId, endorsementData)));
+        } catch (InsurerOutcomeUnknownException | InsurerAdmissionRejectedException | CancellationException e) {
+            // The insurer may have it, or it was never let through; either way not a rejection
+            throw e;
+        } catch (RuntimeException e) {
+            log.warn("Insurer {} unavailable for endorsement {} after {} attempt(s): {}",
+                    insurerId, endorsementId, attempts.get(), e.getMessage());
+            return new SubmissionResult(false, null, "Insurer service unavailable: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public String submitBatch(UUID batchId, List<Map<String, Object>> endorsements) {
+        if (!getCapabilities().supportsBatch()) {
+            return delegate.submitBatch(batchId, endorsements);
+        }
+        return admittedNow(AdmissionPriority.resolve(AdmissionPriority.BATCH),
+                () -> delegate.submitBatch(batchId, endorsements));
+    }
+
+    @Override
+    public BatchStatusResult checkBatchStatus(String insurerBatchRef) {
+        if (!getCapabilities().supportsBatch()) {
+            return delegate.checkBatchStatus(insurerBatchRef);
+        }
+        return admittedNow(AdmissionPriority.resolve(AdmissionPriority.STATUS),
+                () -> delegate.checkBatchStatus(insurerBatchRef));
+    }
+
+    @Override
+    public CompletionStage<SubmissionResult> submitRealTimeAsync(UUID endorsementId,
+                                                                 Map<String, Object> endorsementData) {
+        if (!getCapabilities().supportsRealTime()) {
+            return delegate.submitRealTimeAsync(endorsementId, endorsementData);
+        }
+        return admitted(AdmissionPriority.REALTIME, () -> delegate.submitRealTimeAsync(endorsementId, endorsementData));
+    }
+
+    @Override
+    public CompletionStage<String> submitBatchAsync(UUID batchId, List<Map<String, Object>> endorsements) {
+        if (!getCapabilities().supportsBatch()) {
+            return delegate.submitBatchAsync(batchId, endorsements);
+        }
+        return admitted(AdmissionPriority.BATCH, () -> delegate.submitBatchAsync(batchId, endorsements));
+    }
+
+    @Override
+    public CompletionStage<BatchStatusResult> checkBatchStatusAsync(String insurerBatchRef) {
+        if (!getCapabilities().supportsBatch()) {
+            return delegate.checkBatchStatusAsync(insurerBatchRef);
+        }
+        return admitted(AdmissionPriority.STATUS, () -> delegate.checkBatchStatusAsync(insurerBatchRef));
+    }
+
+    private <T> T admittedNow(AdmissionPriority priority, Supplier<T> call) {
+        InsurerAdmissionController.Permit permit = admission.admit(insurerId, getCapabilities(), priority);
+        try {
+            return call.get();
+        } finally {
+            permit.close();
+        }
+    }
+
+    private <T> CompletionStage<T> admitted(AdmissionPriority operation, Supplier<CompletionStage<T>> call) {
+        // Resolved here, on the caller's thread, where any priority override is set
+        CompletableFuture<InsurerAdmissionController.Permit> permit =
+                admission.acquire(insurerId, getCapabilities(), AdmissionPriority.resolve(operation));
+        CompletableFuture<T> result = permit.thenCompose(p -> {
+            try {
+                return call.get().toCompletableFuture().whenComplete((r, t) -> p.close());
+            } catch (RuntimeException e) {
+                p.close();
+                throw e;
+            }
+        });
+        result.whenComplete((r, t) -> {
+            if (result.isCancelled()) {
+                permit.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    @Override
+    public InsurerCapabilities getCapabilities() {
+        return delegate.getCapabilities();
+    }
+
+    @Override
+    public String getAdapterType() {
+        return delegate.getAdapterType();
+    }
+
+    @Override
+    public Map<String, Object> mapToInsurerFormat(Map<String, Object> endorsementData) {
+        return delegate.mapToInsurerFormat(endorsementData);
+    }
+
+    @Override
+    public Map<String, Object> mapFromInsurerFormat(Map<String, Object> insurerData) {
+        return delegate.mapFromInsurerFormat(insurerData);
+    }
+}
@@ -0,0 +1,52 @@
+package com.plum.endorsements.infrastructure.insurer.admission;
+
+import java.util.function.Supplier;
+
+/**
+ * Order in which waiting insurer calls are admitted, most urgent first. A
+ * call's priority follows from the operation: real-time submissions are
+ * someone waiting on coverage, batch submissions move a whole queue, status
+ * polls can always wait. Retries of failed work run under {@link #RETRY} via
+ * {@link #callAs}, so a retry storm queues behind fresh traffic.
+ */
+public enum AdmissionPriority {
+    REALTIME,
+    BATCH,
+    STATUS,
+    RETRY;
+
+    private static final ThreadLocal<AdmissionPriority> OVERRIDE = new ThreadLocal<>();
+
+    /**
+     * Runs {@code work} with every insurer call it makes on this thread
+     * admitted at {@code priority}.
+     */
+    public static <T> T callAs(AdmissionPriority priority, Supplier<T> work) {
+        AdmissionPriority previous = OVERRIDE.get();
+        OVERRIDE.set(priority);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                OVERRIDE.remove();
+            } else {
+                OVERRIDE.set(previous);
+            }
+        }
+    }
+
+    public static void runAs(AdmissionPriority priority, Runnable work) {
+        callAs(priority, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * The priority for a call that would default to {@code operation}.
+     */
+    static AdmissionPriority resolve(AdmissionPriority operation) {
+        AdmissionPriority override = OVERRIDE.get();
+        return override != null ? override : operation;
+    }
+}
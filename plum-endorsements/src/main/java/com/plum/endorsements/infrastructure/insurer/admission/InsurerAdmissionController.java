@@ -0,0 +1,283 @@
+package com.plum.endorsements.infrastructure.insurer.admission;
+
+import com.plum.endorsements.domain.port.InsurerPort.InsurerCapabilities;
+import com.plum.endorsements.domain.port.InsurerRateLimitRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Paces calls to each insurer so they arrive at the rate its
+ * {@link InsurerCapabilities#rateLimitPerMinute()} allows, instead of being
+ * forwarded as fast as callers show up and tripping circuit breakers.
+ *
+ * <p>Every insurer gets a lane with three parts:</p>
+ * <ul>
+ *   <li>a wait queue ordered by {@link AdmissionPriority}, then arrival, and
+ *       bounded at {@code max-queue-per-insurer}; calls waiting longer than
+ *       {@code max-wait-ms} are turned away</li>
+ *   <li>a bulkhead of {@code max-concurrent-per-insurer} calls in flight</li>
+ *   <li>a GCRA limiter whose state lives in {@link InsurerRateLimitRepository},
+ *       so all replicas together stay within the insurer's quota, with
+ *       {@code burst} calls allowed ahead of schedule</li>
+ * </ul>
+ *
+ * <p>A dispatcher per lane takes a bulkhead slot, reserves the next rate slot,
+ * sleeps until it opens and only then hands it to the most urgent waiter, so
+ * a call arriving during the sleep still goes first. The bulkhead bounds this
+ * replica's calls only; the rate limit is what the insurer sees. If the shared
+ * limiter cannot be reached the lane falls back to a local limiter at the
+ * full rate rather than stopping traffic. Insurers without a rate limit skip
+ * the limiter.</p>
+ */
+@Slf4j
+@Component
+public class InsurerAdmissionController {
+
+    /**
+     * An admitted call's bulkhead slot; closing it lets the next call in.
+     * Closing twice is harmless.
+     */
+    public interface Permit extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private static final Permit UNLIMITED = () -> { };
+
+    private final InsurerRateLimitRepository rateLimitRepository;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int maxConcurrent;
+    private final int maxQueue;
+    private final Duration maxWait;
+    private final int burst;
+    private final Map<UUID, Lane> lanes = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    public InsurerAdmissionController(InsurerRateLimitRepository rateLimitRepository,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${endorsement.insurer.admission.enabled:true}") boolean enabled,
+                                      @Value("${endorsement.insurer.admission.max-concurrent-per-insurer:8}") int maxConcurrent,
+                                      @Value("${endorsement.insurer.admission.max-queue-per-insurer:1000}") int maxQueue,
+                                      @Value("${endorsement.insurer.admission.max-wait-ms:30000}") long maxWaitMs,
+                                      @Value("${endorsement.insurer.admission.burst:5}") int burst) {
+        this.rateLimitRepository = rateLimitRepository;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueue = maxQueue;
+        this.maxWait = Duration.ofMillis(maxWaitMs);
+        this.burst = Math.max(1, burst);
+    }
+
+    /**
+     * Queues a call to the insurer. The future completes with a permit once
+     * the call may go, or with {@link InsurerAdmissionRejectedException};
+     * cancelling it gives up the place in the queue.
+     */
+    public CompletableFuture<Permit> acquire(UUID insurerId, InsurerCapabilities capabilities,
+                                             AdmissionPriority priority) {
+        if (!enabled) {
+            return CompletableFuture.completedFuture(UNLIMITED);
+        }
+        Lane lane = lanes.computeIfAbsent(insurerId, id -> new Lane(id, capabilities.rateLimitPerMinute()));
+        if (lane.queue.size() >= maxQueue) {
+            reject(insurerId, "queue_full");
+            return CompletableFuture.failedFuture(
+                    new InsurerAdmissionRejectedException(insurerId, "wait queue is full"));
+        }
+
+        Waiter waiter = new Waiter(priority, sequence.getAndIncrement(), System.nanoTime(), new CompletableFuture<>());
+        lane.queue.put(waiter);
+        CompletableFuture.delayedExecutor(maxWait.toMillis(), TimeUnit.MILLISECONDS).execute(() -> {
+            if (waiter.future.completeExceptionally(new InsurerAdmissionRejectedException(
+                    insurerId, "waited longer than " + maxWait))) {
+                reject(insurerId, "timeout");
+            }
+        });
+        return waiter.future;
+    }
+
+    /**
+     * Blocking form of {@link #acquire}; an interrupt gives up the place in
+     * the queue.
+     */
+    public Permit admit(UUID insurerId, InsurerCapabilities capabilities, AdmissionPriority priority) {
+        CompletableFuture<Permit> permit = acquire(insurerId, capabilities, priority);
+        try {
+            return permit.get();
+        } catch (InterruptedException e) {
+            permit.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted waiting for insurer admission");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void reject(UUID insurerId, String reason) {
+        meterRegistry.counter("endorsement.insurer.admission.rejected",
+                "insurerId", insurerId.toString(), "reason", reason).increment();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        lanes.values().forEach(lane -> lane.dispatcher.interrupt());
+    }
+
+    private record Waiter(AdmissionPriority priority, long sequence, long enqueuedNanos,
+                          CompletableFuture<Permit> future) {
+    }
+
+    private static final Comparator<Waiter> ADMISSION_ORDER =
+            Comparator.comparing(Waiter::priority).thenComparingLong(Waiter::sequence);
+
+    private final class Lane {
+
+        private final UUID insurerId;
+        private final String insurerTag;
+        // Zero when the insurer has no rate limit
+        private final Duration emissionInterval;
+        private final Duration burstTolerance;
+        private final PriorityBlockingQueue<Waiter> queue = new PriorityBlockingQueue<>(64, ADMISSION_ORDER);
+        private final Semaphore bulkhead = new Semaphore(maxConcurrent);
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final Timer limiterWait;
+        private final Thread dispatcher;
+        // Local GCRA state, only used while the shared limiter is unreachable
+        private long localArrivalNanos = System.nanoTime();
+
+        private Lane(UUID insurerId, int ratePerMinute) {
+            this.insurerId = insurerId;
+            this.insurerTag = insurerId.toString();
+            this.emissionInterval = ratePerMinute > 0
+                    ? Duration.ofNanos(TimeUnit.MINUTES.toNanos(1) / ratePerMinute)
+                    : Duration.ZERO;
+            this.burstTolerance = emissionInterval.multipliedBy(burst - 1);
+            this.limiterWait = meterRegistry.timer("endorsement.insurer.admission.limiter.wait",
+                    "insurerId", insurerTag);
+            Gauge.builder("endorsement.insurer.admission.queue.depth", queue, PriorityBlockingQueue::size)
+                    .tag("insurerId", insurerTag)
+                    .register(meterRegistry);
+            Gauge.builder("endorsement.insurer.admission.in_flight", inFlight, AtomicInteger::get)
+                    .tag("insurerId", insurerTag)
+                    .register(meterRegistry);
+            this.dispatcher = Thread.ofVirtual().name("insurer-admission-" + insurerId).start(this::dispatch);
+        }
+
+        private void dispatch() {
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    bulkhead.acquire();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                boolean handedOver = false;
+                try {
+                    awaitWaiter();
+                    if (!emissionInterval.isZero()) {
+                        Duration wait = reserve();
+                        limiterWait.record(wait);
+                        if (!wait.isZero()) {
+                            Thread.sleep(wait);
+                        }
+                    }
+                    handedOver = handOver();
+                } catch (InterruptedException e) {
+                    return;
+                } catch (Exception e) {
+                    log.error("Admission dispatcher for insurer {} failed", insurerId, e);
+                } finally {
+                    if (!handedOver) {
+                        bulkhead.release();
+                    }
+                }
+            }
+        }
+
+        /**
+         * Blocks until a live waiter is queued, dropping any that were
+         * cancelled or timed out.
+         */
+        private void awaitWaiter() throws InterruptedException {
+            while (true) {
+                Waiter head = queue.take();
+                if (!head.future.isDone()) {
+                    queue.put(head);
+                    return;
+                }
+            }
+        }
+
+        private boolean handOver() {
+            Waiter next;
+            while ((next = queue.poll()) != null) {
+                // Counted before the caller can wake, so it never sees its own call missing
+                inFlight.incrementAndGet();
+                if (next.future.complete(new LanePermit())) {
+                    meterRegistry.timer("endorsement.insurer.admission.wait",
+                                    "insurerId", insurerTag, "priority", next.priority.name())
+                            .record(System.nanoTime() - next.enqueuedNanos, TimeUnit.NANOSECONDS);
+                    return true;
+                }
+                inFlight.decrementAndGet();
+            }
+            return false;
+        }
+
+        private Duration reserve() {
+            try {
+                return rateLimitRepository.reserve(insurerId, emissionInterval, burstTolerance);
+            } catch (RuntimeException e) {
+                meterRegistry.counter("endorsement.insurer.admission.limiter.fallback",
+                        "insurerId", insurerTag).increment();
+                log.warn("Shared rate limiter unavailable for insurer {}, pacing locally: {}",
+                        insurerId, e.getMessage());
+                return reserveLocally();
+            }
+        }
+
+        private Duration reserveLocally() {
+            long now = System.nanoTime();
+            localArrivalNanos = Math.max(localArrivalNanos, now) + emissionInterval.toNanos();
+            long waitNanos = localArrivalNanos - emissionInterval.toNanos() - burstTolerance.toNanos() - now;
+            return waitNanos > 0 ? Duration.ofNanos(waitNanos) : Duration.ZERO;
+        }
+
+        private final class LanePermit implements Permit {
+
+            private final AtomicBoolean closed = new AtomicBoolean();
+
+            @Override
+            public void close() {
+                if (closed.compareAndSet(false, true)) {
+                    inFlight.decrementAndGet();
+                    bulkhead.release();
+                }
+            }
+        }
+    }
+}
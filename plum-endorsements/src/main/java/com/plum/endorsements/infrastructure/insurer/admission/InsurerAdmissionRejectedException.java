@@ -0,0 +1,14 @@
+package com.plum.endorsements.infrastructure.insurer.admission;
+
+import java.util.UUID;
+
+/**
+ * An insurer call was turned away before reaching the insurer, because the
+ * insurer's wait queue was full or the call waited longer than allowed.
+ */
+public class InsurerAdmissionRejectedException extends RuntimeException {
+
+    public InsurerAdmissionRejectedException(UUID insurerId, String reason) {
+        super("Insurer call to %s not admitted: %s".formatted(insurerId, reason));
+    }
+}
@@ -1,88 +1,94 @@
 package com.plum.endorsements.infrastructure.insurer.bajaj;
 
 import com.plum.endorsements.domain.port.InsurerPort;
+import com.plum.endorsements.infrastructure.insurer.http.InsurerHttpClient;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
-import io.github.resilience4j.retry.annotation.Retry;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletionStage;
 
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class BajajAllianzAdapter implements InsurerPort {
 
+    private static final String XML = "text/xml";
+
     private final MeterRegistry meterRegistry;
     private final BajajAllianzXmlMapper xmlMapper;
+    private final InsurerHttpClient httpClient;
 
     @Override
-    @CircuitBreaker(name = "bajajAllianz", fallbackMethod = "submitRealTimeFallback")
-    @Retry(name = "bajajAllianz")
+    @CircuitBreaker(name = "bajajAllianz")
     public SubmissionResult submitRealTime(UUID endorsementId, Map<String, Object> endorsementData) {
+        return InsurerHttpClient.await(submitRealTimeAsync(endorsementId, endorsementData));
+    }
+
+    @Override
+    public CompletionStage<SubmissionResult> submitRealTimeAsync(UUID endorsementId,
+                                                                 Map<String, Object> endorsementData) {
         Timer.Sample sample = Timer.start(meterRegistry);
         log.info("Bajaj Allianz: submitting endorsement {} via SOAP/XML", endorsementId);
 
         String xmlPayload = xmlMapper.toXmlEnvelope(endorsementData);
         log.debug("Bajaj Allianz: XML payload size: {} bytes", xmlPayload.length());
 
-        try {
-            // Simulated SOAP API call latency (slower than REST)
-            Thread.sleep(250);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            log.warn("Bajaj Allianz submission interrupted for endorsement {}", endorsementId);
-        }
-
-        String insurerReference = "BAJAJ-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
-        log.info("Bajaj Allianz: endorsement {} accepted with reference {}", endorsementId, insurerReference);
-
-        sample.stop(meterRegistry.timer("endorsement.insurer.bajaj.duration", "method", "submitRealTime"));
-        return new SubmissionResult(true, insurerReference, null);
+        return httpClient.post("bajaj/endorsements", XML, xmlPayload, XML, xmlMapper::readResponse)
+                .thenApply(response -> {
+                    boolean accepted = "ACCEPTED".equals(response.get("status"));
+                    String reference = (String) response.get("insurer_reference");
+                    log.info("Bajaj Allianz: endorsement {} answered accepted={} reference={}",
+                            endorsementId, accepted, reference);
+                    return accepted
+                            ? new SubmissionResult(true, reference, null)
+                            : new SubmissionResult(false, null, (String) response.get("message"));
+                })
+                .whenComplete((r, t) -> sample.stop(
+                        meterRegistry.timer("endorsement.insurer.bajaj.duration", "method", "submitRealTime")));
     }
 
-    private SubmissionResult submitRealTimeFallback(UUID endorsementId, Map<String, Object> endorsementData, Throwable t) {
-        log.warn("Bajaj Allianz circuit breaker fallback for endorsement {}: {}", endorsementId, t.getMessage());
-        return new SubmissionResult(false, null, "Bajaj Allianz service unavailable: " + t.getMessage());
+    @Override
+    public String submitBatch(UUID batchId, List<Map<String, Object>> endorsements) {
+        return InsurerHttpClient.await(submitBatchAsync(batchId, endorsements));
     }
 
     @Override
-    public String submitBatch(UUID batchId, List<Map<String, Object>> endorsements) {
+    public CompletionStage<String> submitBatchAsync(UUID batchId, List<Map<String, Object>> endorsements) {
         Timer.Sample sample = Timer.start(meterRegistry);
         log.info("Bajaj Allianz: submitting batch {} with {} endorsements via SOAP/XML", batchId, endorsements.size());
 
-        try {
-            // Simulated batch SOAP call latency
-            Thread.sleep(300);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            log.warn("Bajaj Allianz batch submission interrupted for batch {}", batchId);
-        }
-
-        String batchReference = "BAJAJ-BATCH-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
-        log.info("Bajaj Allianz: batch {} submitted with reference {}", batchId, batchReference);
-
-        sample.stop(meterRegistry.timer("endorsement.insurer.bajaj.duration", "method", "submitBatch"));
-        return batchReference;
+        return httpClient.postStreaming("bajaj/batches", XML,
+                        out -> xmlMapper.writeBatchEnvelope(batchId, endorsements, out),
+                        XML, xmlMapper::readBatchReference)
+                .thenApply(batchRef -> {
+                    log.info("Bajaj Allianz: batch {} submitted with reference {}", batchId, batchRef);
+                    return batchRef;
+                })
+                .whenComplete((r, t) -> sample.stop(
+                        meterRegistry.timer("endorsement.insurer.bajaj.duration", "method", "submitBatch")));
     }
 
     @Override
     public BatchStatusResult checkBatchStatus(String insurerBatchRef) {
-        log.info("Bajaj Allianz: checking batch status for reference {}", insurerBatchRef);
-
-        try {
-            // Simulated SOAP status check
-            Thread.sleep(200);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
+        return InsurerHttpClient.await(checkBatchStatusAsync(insurerBatchRef));
+    }
 
-        return new BatchStatusResult("COMPLETED", List.of());
+    @Override
+    public CompletionStage<BatchStatusResult> checkBatchStatusAsync(String insurerBatchRef) {
+        log.info("Bajaj Allianz: checking batch status for reference {}", insurerBatchRef);
+        return httpClient.get("bajaj/batches/" + insurerBatchRef, XML, in -> {
+            List<EndorsementResult> results = new ArrayList<>();
+            String status = xmlMapper.readBatchStatus(in, results::add);
+            return new BatchStatusResult(status, results);
+        });
     }
 
     @Override
@@ -1,107 +1,331 @@
 package com.plum.endorsements.infrastructure.insurer.bajaj;
 
+import com.plum.endorsements.domain.port.InsurerPort.EndorsementResult;
+import com.plum.endorsements.infrastructure.insurer.mapping.CodeTable;
+import com.plum.endorsements.infrastructure.insurer.mapping.PayloadMappingPlan;
 import org.springframework.stereotype.Component;
 
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
 
+/**
+ * Maps endorsements to and from Bajaj Allianz's SOAP messages with StAX.
+ * Envelopes are written straight to an {@link OutputStream}, and responses
+ * are pulled one event at a time, so neither side of a large batch is held as
+ * a document. Response elements are matched by namespace URI and local name,
+ * whatever prefix the insurer binds, and the reader refuses DTDs and external
+ * entities.
+ */
 @Component
 public class BajajAllianzXmlMapper {
 
+    static final String SOAP_NS = "http://schemas.xmlsoap.org/soap/envelope/";
+    static final String WS_NS = "http://bajajallianz.com/endorsement/ws";
+
+    private static final CodeTable ENDORSEMENT_TYPES = CodeTable.of(Map.of(
+            "ADDITION", "ADD_MEMBER",
+            "DELETION", "DELETE_MEMBER",
+            "MODIFICATION", "MODIFY_MEMBER",
+            "CORRECTION", "CORRECT_MEMBER"));
+
+    /** The elements of one endorsement on the wire, in the order the insurer's schema lists them. */
+    static final PayloadMappingPlan ENVELOPE = PayloadMappingPlan.builder("bajaj-envelope")
+            .text("ClientRef", "endorsementId")
+            .text("PolicyNumber", "policy_id")
+            .text("MemberCode", "employee_id")
+            .text("MemberName", "employee_name")
+            .code("EndorsementType", "type", "", ENDORSEMENT_TYPES)
+            .text("EffectiveDate", "coverage_start_date")
+            .text("SumInsured", "premium_amount")
+            .text("DateOfBirth", "date_of_birth")
+            .text("Gender", "gender")
+            .text("Relationship", "relationship")
+            .build();
+
+    static final PayloadMappingPlan OUTBOUND = PayloadMappingPlan.builder("bajaj-outbound")
+            .value("PolicyNumber", "policy_id", "")
+            .value("MemberCode", "employee_id", "")
+            .value("MemberName", "employee_name", "")
+            .code("EndorsementType", "type", "", ENDORSEMENT_TYPES)
+            .value("EffectiveDate", "coverage_start_date", "")
+            .value("SumInsured", "premium_amount", 0)
+            .value("DateOfBirth", "date_of_birth", "")
+            .value("Gender", "gender", "")
+            .value("Relationship", "relationship", "")
+            .build();
+
+    static final PayloadMappingPlan INBOUND = PayloadMappingPlan.builder("bajaj-inbound")
+            .value("policy_id", "PolicyNumber", "")
+            .value("employee_id", "MemberCode", "")
+            .value("employee_name", "MemberName", "")
+            .code("type", "EndorsementType", "", ENDORSEMENT_TYPES.inverse())
+            .value("coverage_start_date", "EffectiveDate", "")
+            .value("premium_amount", "SumInsured", 0)
+            .value("insurer_reference", "TransactionId", "")
+            .build();
+
+    private static final XMLOutputFactory OUTPUT_FACTORY = XMLOutputFactory.newFactory();
+    private static final XMLInputFactory INPUT_FACTORY = inputFactory();
+
+    private static XMLInputFactory inputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+
     public String toXmlEnvelope(Map<String, Object> endorsementData) {
-        StringBuilder xml = new StringBuilder();
-        xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
-        xml.append("<soapenv:Envelope xmlns:soapenv=\"http://schemas.xmlsoap.org/soap/envelope/\" ");
-        xml.append("xmlns:ws=\"http://bajajallianz.com/endorsement/ws\">\n");
-        xml.append("  <soapenv:Header/>\n");
-        xml.append("  <soapenv:Body>\n");
-        xml.append("    <ws:SubmitEndorsement>\n");
-        xml.append("      <ws:PolicyNumber>").append(esc(endorsementData.get("policy_id"))).append("</ws:PolicyNumber>\n");
-        xml.append("      <ws:MemberCode>").append(esc(endorsementData.get("employee_id"))).append("</ws:MemberCode>\n");
-        xml.append("      <ws:MemberName>").append(esc(endorsementData.get("employee_name"))).append("</ws:MemberName>\n");
-        xml.append("      <ws:EndorsementType>").append(mapType(str(endorsementData.get("type")))).append("</ws:EndorsementType>\n");
-        xml.append("      <ws:EffectiveDate>").append(esc(endorsementData.get("coverage_start_date"))).append("</ws:EffectiveDate>\n");
-        xml.append("      <ws:SumInsured>").append(esc(endorsementData.get("premium_amount"))).append("</ws:SumInsured>\n");
-        xml.append("      <ws:DateOfBirth>").append(esc(endorsementData.get("date_of_birth"))).append("</ws:DateOfBirth>\n");
-        xml.append("      <ws:Gender>").append(esc(endorsementData.get("gender"))).append("</ws:Gender>\n");
-        xml.append("      <ws:Relationship>").append(esc(endorsementData.get("relationship"))).append("</ws:Relationship>\n");
-        xml.append("    </ws:SubmitEndorsement>\n");
-        xml.append("  </soapenv:Body>\n");
-        xml.append("</soapenv:Envelope>");
-        return xml.toString();
+        StringWriter out = new StringWriter();
+        try {
+            XMLStreamWriter xml = OUTPUT_FACTORY.createXMLStreamWriter(out);
+            writeEnvelope(xml, endorsementData);
+        } catch (XMLStreamException e) {
+            throw new IllegalStateException("Could not write Bajaj Allianz envelope", e);
+        }
+        return out.toString();
+    }
+
+    /** Writes the single-endorsement envelope as UTF-8 onto {@code out}, leaving it open. */
+    public void writeEnvelope(Map<String, Object> endorsementData, OutputStream out) throws IOException {
+        try {
+            writeEnvelope(OUTPUT_FACTORY.createXMLStreamWriter(out, "UTF-8"), endorsementData);
+        } catch (XMLStreamException e) {
+            throw new IOException("Could not write Bajaj Allianz envelope", e);
+        }
+    }
+
+    /**
+     * One SOAP call carrying every endorsement of the batch, each tagged with
+     * its ClientRef so the insurer's results can be matched back.
+     */
+    public String toXmlBatchEnvelope(UUID batchId, List<Map<String, Object>> endorsements) {
+        StringWriter out = new StringWriter();
+        try {
+            writeBatchEnvelope(OUTPUT_FACTORY.createXMLStreamWriter(out), batchId, endorsements);
+        } catch (XMLStreamException e) {
+            throw new IllegalStateException("Could not write Bajaj Allianz batch envelope", e);
+        }
+        return out.toString();
+    }
+
+    /** Writes the batch envelope as UTF-8 onto {@code out} as it is encoded, leaving it open. */
+    public void writeBatchEnvelope(UUID batchId, List<Map<String, Object>> endorsements, OutputStream out)
+            throws IOException {
+        try {
+            writeBatchEnvelope(OUTPUT_FACTORY.createXMLStreamWriter(out, "UTF-8"), batchId, endorsements);
+        } catch (XMLStreamException e) {
+            throw new IOException("Could not write Bajaj Allianz batch envelope", e);
+        }
+    }
+
+    private void writeEnvelope(XMLStreamWriter xml, Map<String, Object> endorsementData)
+            throws XMLStreamException {
+        openEnvelope(xml);
+        writeEndorsement(xml, "SubmitEndorsement", endorsementData);
+        closeEnvelope(xml);
+    }
+
+    private void writeBatchEnvelope(XMLStreamWriter xml, UUID batchId, List<Map<String, Object>> endorsements)
+            throws XMLStreamException {
+        openEnvelope(xml);
+        xml.writeStartElement("ws", "SubmitEndorsementBatch", WS_NS);
+        writeField(xml, "BatchId", batchId);
+        for (Map<String, Object> endorsementData : endorsements) {
+            writeEndorsement(xml, "Endorsement", endorsementData);
+        }
+        xml.writeEndElement();
+        closeEnvelope(xml);
+    }
+
+    private void openEnvelope(XMLStreamWriter xml) throws XMLStreamException {
+        xml.writeStartDocument("UTF-8", "1.0");
+        xml.setPrefix("soapenv", SOAP_NS);
+        xml.setPrefix("ws", WS_NS);
+        xml.writeStartElement("soapenv", "Envelope", SOAP_NS);
+        xml.writeNamespace("soapenv", SOAP_NS);
+        xml.writeNamespace("ws", WS_NS);
+        xml.writeEmptyElement("soapenv", "Header", SOAP_NS);
+        xml.writeStartElement("soapenv", "Body", SOAP_NS);
+    }
+
+    private void closeEnvelope(XMLStreamWriter xml) throws XMLStreamException {
+        xml.writeEndElement();
+        xml.writeEndElement();
+        xml.writeEndDocument();
+        xml.flush();
+        xml.close();
+    }
+
+    private void writeEndorsement(XMLStreamWriter xml, String element, Map<String, Object> endorsementData)
+            throws XMLStreamException {
+        xml.writeStartElement("ws", element, WS_NS);
+        ENVELOPE.encode(endorsementData, (field, value) -> writeField(xml, field, value));
+        xml.writeEndElement();
+    }
+
+    private void writeField(XMLStreamWriter xml, String element, Object value) throws XMLStreamException {
+        xml.writeStartElement("ws", element, WS_NS);
+        xml.writeCharacters(str(value));
+        xml.writeEndElement();
     }
 
     public Map<String, Object> fromXmlResponse(String xmlResponse) {
+        try {
+            return readResponse(INPUT_FACTORY.createXMLStreamReader(new StringReader(xmlResponse)));
+        } catch (XMLStreamException e) {
+            throw new IllegalArgumentException("Malformed Bajaj Allianz response", e);
+        }
+    }
+
+    /** Reads a single-endorsement response into the same keys as {@link #fromXmlResponse(String)}. */
+    public Map<String, Object> readResponse(InputStream in) throws IOException {
+        try {
+            return readResponse(INPUT_FACTORY.createXMLStreamReader(in));
+        } catch (XMLStreamException e) {
+            throw new IOException("Malformed Bajaj Allianz response", e);
+        }
+    }
+
+    private Map<String, Object> readResponse(XMLStreamReader xml) throws XMLStreamException {
         Map<String, Object> result = new HashMap<>();
-        result.put("insurer_reference", extractTag(xmlResponse, "TransactionId"));
-        result.put("status", extractTag(xmlResponse, "Status"));
-        result.put("message", extractTag(xmlResponse, "Message"));
+        result.put("insurer_reference", "");
+        result.put("status", "");
+        result.put("message", "");
+        try {
+            while (xml.hasNext()) {
+                if (xml.next() != XMLStreamConstants.START_ELEMENT || !WS_NS.equals(xml.getNamespaceURI())) {
+                    continue;
+                }
+                switch (xml.getLocalName()) {
+                    case "TransactionId" -> result.put("insurer_reference", text(xml));
+                    case "Status" -> result.put("status", text(xml));
+                    case "Message" -> result.put("message", text(xml));
+                    default -> {
+                    }
+                }
+            }
+        } finally {
+            xml.close();
+        }
         return result;
     }
 
-    public Map<String, Object> toInsurerFormat(Map<String, Object> endorsementData) {
-        Map<String, Object> mapped = new HashMap<>();
-        mapped.put("PolicyNumber", endorsementData.getOrDefault("policy_id", ""));
-        mapped.put("MemberCode", endorsementData.getOrDefault("employee_id", ""));
-        mapped.put("MemberName", endorsementData.getOrDefault("employee_name", ""));
-        mapped.put("EndorsementType", mapType(str(endorsementData.get("type"))));
-        mapped.put("EffectiveDate", endorsementData.getOrDefault("coverage_start_date", ""));
-        mapped.put("SumInsured", endorsementData.getOrDefault("premium_amount", 0));
-        mapped.put("DateOfBirth", endorsementData.getOrDefault("date_of_birth", ""));
-        mapped.put("Gender", endorsementData.getOrDefault("gender", ""));
-        mapped.put("Relationship", endorsementData.getOrDefault("relationship", ""));
-        return mapped;
+    /** Reads the insurer's reference from a batch submission response. */
+    public String readBatchReference(InputStream in) throws IOException {
+        try {
+            XMLStreamReader xml = INPUT_FACTORY.createXMLStreamReader(in);
+            try {
+                while (xml.hasNext()) {
+                    if (xml.next() == XMLStreamConstants.START_ELEMENT && WS_NS.equals(xml.getNamespaceURI())
+                            && "BatchReference".equals(xml.getLocalName())) {
+                        return text(xml);
+                    }
+                }
+            } finally {
+                xml.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Malformed Bajaj Allianz batch response", e);
+        }
+        throw new IOException("Bajaj Allianz batch response carried no BatchReference");
     }
 
-    public Map<String, Object> fromInsurerFormat(Map<String, Object> insurerData) {
-        Map<String, Object> mapped = new HashMap<>();
-        mapped.put("policy_id", insurerData.getOrDefault("PolicyNumber", ""));
-        mapped.put("employee_id", insurerData.getOrDefault("MemberCode", ""));
-        mapped.put("employee_name", insurerData.getOrDefault("MemberName", ""));
-        mapped.put("type", reverseMapType(str(insurerData.get("EndorsementType"))));
-        mapped.put("coverage_start_date", insurerData.getOrDefault("EffectiveDate", ""));
-        mapped.put("premium_amount", insurerData.getOrDefault("SumInsured", 0));
-        mapped.put("insurer_reference", insurerData.getOrDefault("TransactionId", ""));
-        return mapped;
-    }
-
-    private String mapType(String type) {
-        return switch (type) {
-            case "ADDITION" -> "ADD_MEMBER";
-            case "DELETION" -> "DELETE_MEMBER";
-            case "MODIFICATION" -> "MODIFY_MEMBER";
-            case "CORRECTION" -> "CORRECT_MEMBER";
-            default -> type;
-        };
-    }
-
-    private String reverseMapType(String insurerType) {
-        return switch (insurerType) {
-            case "ADD_MEMBER" -> "ADDITION";
-            case "DELETE_MEMBER" -> "DELETION";
-            case "MODIFY_MEMBER" -> "MODIFICATION";
-            case "CORRECT_MEMBER" -> "CORRECTION";
-            default -> insurerType;
-        };
-    }
-
-    private String extractTag(String xml, String tag) {
-        String open = "<ws:" + tag + ">";
-        String close = "</ws:" + tag + ">";
-        int start = xml.indexOf(open);
-        int end = xml.indexOf(close);
-        if (start >= 0 && end >= 0) {
-            return xml.substring(start + open.length(), end);
+    /**
+     * Reads a batch status response, handing each {@code Result} to
+     * {@code onResult} as soon as its closing tag is read, and returns the
+     * batch's overall status. A result is confirmed when its status is
+     * ACCEPTED; otherwise its Message is the rejection reason.
+     */
+    public String readBatchStatus(InputStream in, Consumer<EndorsementResult> onResult) throws IOException {
+        try {
+            XMLStreamReader xml = INPUT_FACTORY.createXMLStreamReader(in);
+            try {
+                return readBatchStatus(xml, onResult);
+            } finally {
+                xml.close();
+            }
+        } catch (XMLStreamException | IllegalArgumentException e) {
+            throw new IOException("Malformed Bajaj Allianz batch status response", e);
+        }
+    }
+
+    private String readBatchStatus(XMLStreamReader xml, Consumer<EndorsementResult> onResult)
+            throws XMLStreamException {
+        String batchStatus = "";
+        boolean inResult = false;
+        String clientRef = null;
+        String status = null;
+        String transactionId = null;
+        String message = null;
+        while (xml.hasNext()) {
+            int event = xml.next();
+            if (event != XMLStreamConstants.START_ELEMENT && event != XMLStreamConstants.END_ELEMENT
+                    || !WS_NS.equals(xml.getNamespaceURI())) {
+                continue;
+            }
+            String name = xml.getLocalName();
+            if (event == XMLStreamConstants.END_ELEMENT) {
+                if (inResult && name.equals("Result")) {
+                    if (clientRef == null) {
+                        throw new XMLStreamException("Result without a ClientRef", xml.getLocation());
+                    }
+                    boolean accepted = "ACCEPTED".equals(status);
+                    onResult.accept(new EndorsementResult(UUID.fromString(clientRef), accepted,
+                            accepted ? transactionId : null, accepted ? null : message));
+                    inResult = false;
+                }
+                continue;
+            }
+            switch (name) {
+                case "Result" -> {
+                    inResult = true;
+                    clientRef = null;
+                    status = null;
+                    transactionId = null;
+                    message = null;
+                }
+                case "Status" -> {
+                    if (inResult) {
+                        status = text(xml);
+                    } else {
+                        batchStatus = text(xml);
+                    }
+                }
+                case "ClientRef" -> clientRef = text(xml);
+                case "TransactionId" -> transactionId = text(xml);
+                case "Message" -> message = text(xml);
+                default -> {
+                }
+            }
         }
-        return "";
+        return batchStatus;
     }
 
-    private String esc(Object value) {
-        if (value == null) return "";
-        return value.toString()
-                .replace("&", "&amp;")
-                .replace("<", "&lt;")
-                .replace(">", "&gt;");
+    private static String text(XMLStreamReader xml) throws XMLStreamException {
+        return xml.getElementText().strip();
+    }
+
+    public Map<String, Object> toInsurerFormat(Map<String, Object> endorsementData) {
+        return OUTBOUND.toMap(endorsementData);
+    }
+
+    public Map<String, Object> fromInsurerFormat(Map<String, Object> insurerData) {
+        return INBOUND.toMap(insurerData);
     }
 
     private String str(Object value) {
@@ -0,0 +1,79 @@
+package com.plum.endorsements.infrastructure.insurer.callback;
+
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * How insurer callbacks are signed: an HMAC-SHA256, keyed with the insurer's
+ * shared secret, over the request timestamp, a dot and the raw body, sent as
+ * {@code X-Insurer-Signature: sha256=<hex>} next to
+ * {@code X-Insurer-Timestamp: <epoch seconds>}. Covering the timestamp lets
+ * the receiver refuse replays of old callbacks.
+ */
+public final class CallbackSignature {
+
+    public static final String SIGNATURE_HEADER = "X-Insurer-Signature";
+    public static final String TIMESTAMP_HEADER = "X-Insurer-Timestamp";
+
+    private static final String SCHEME = "sha256=";
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final HexFormat HEX = HexFormat.of();
+
+    private CallbackSignature() {
+    }
+
+    /** The {@value #SIGNATURE_HEADER} value for a body sent at {@code epochSeconds}. */
+    public static String sign(String secret, long epochSeconds, byte[] body) {
+        return SCHEME + HEX.formatHex(mac(secret, epochSeconds, body));
+    }
+
+    /** Whether {@code signature} is {@code body}'s signature, compared in constant time. */
+    public static boolean matches(String secret, long epochSeconds, byte[] body, String signature) {
+        if (signature == null || !signature.startsWith(SCHEME)) {
+            return false;
+        }
+        byte[] presented;
+        try {
+            presented = HEX.parseHex(signature, SCHEME.length(), signature.length());
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        return MessageDigest.isEqual(presented, mac(secret, epochSeconds, body));
+    }
+
+    /**
+     * Each insurer's shared secret, from {@code endorsement.insurer.callbacks.secrets}.
+     * Insurers whose secret is blank are left out, so they cannot call back.
+     */
+    public static Map<UUID, String> secrets(Environment environment) {
+        return Binder.get(environment)
+                .bind("endorsement.insurer.callbacks.secrets", Bindable.mapOf(UUID.class, String.class))
+                .orElse(Map.of())
+                .entrySet().stream()
+                .filter(secret -> secret.getValue() != null && !secret.getValue().isBlank())
+                .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, Map.Entry::getValue));
+    }
+
+    private static byte[] mac(String secret, long epochSeconds, byte[] body) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM));
+            mac.update(Long.toString(epochSeconds).getBytes(StandardCharsets.US_ASCII));
+            mac.update((byte) '.');
+            return mac.doFinal(body);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 unavailable", e);
+        }
+    }
+}
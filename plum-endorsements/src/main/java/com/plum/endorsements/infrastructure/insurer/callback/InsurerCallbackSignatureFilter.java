@@ -0,0 +1,189 @@
+package com.plum.endorsements.infrastructure.insurer.callback;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Refuses insurer callbacks that are not signed with the insurer's secret
+ * (see {@link CallbackSignature}) or whose timestamp is more than
+ * {@code max-clock-skew-ms} away, before anything parses them. The body is
+ * read once, up to {@code max-body-bytes}, verified, and replayed to the
+ * controller.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "endorsement.insurer.callbacks.enabled", havingValue = "true", matchIfMissing = true)
+public class InsurerCallbackSignatureFilter extends OncePerRequestFilter {
+
+    private static final Pattern CALLBACK_PATH = Pattern.compile("^/api/v1/insurers/([^/]+)/callbacks$");
+
+    private final Map<UUID, String> secrets;
+    private final Duration maxClockSkew;
+    private final int maxBodyBytes;
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public InsurerCallbackSignatureFilter(Environment environment,
+                                          MeterRegistry meterRegistry,
+                                          @Value("${endorsement.insurer.callbacks.max-clock-skew-ms:300000}") long maxClockSkewMs,
+                                          @Value("${endorsement.insurer.callbacks.max-body-bytes:16777216}") int maxBodyBytes) {
+        this(CallbackSignature.secrets(environment), meterRegistry, Duration.ofMillis(maxClockSkewMs), maxBodyBytes);
+    }
+
+    InsurerCallbackSignatureFilter(Map<UUID, String> secrets, MeterRegistry meterRegistry,
+                                   Duration maxClockSkew, int maxBodyBytes) {
+        this.secrets = Map.copyOf(secrets);
+        this.meterRegistry = meterRegistry;
+        this.maxClockSkew = maxClockSkew;
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod()) || !CALLBACK_PATH.matcher(request.getRequestURI()).matches();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Matcher path = CALLBACK_PATH.matcher(request.getRequestURI());
+        String secret = path.matches() ? secretFor(path.group(1)) : null;
+        if (secret == null) {
+            refuse(response, HttpStatus.UNAUTHORIZED, "unknown_insurer", "No callback secret for this insurer");
+            return;
+        }
+
+        long timestamp;
+        try {
+            timestamp = Long.parseLong(request.getHeader(CallbackSignature.TIMESTAMP_HEADER));
+        } catch (NumberFormatException e) {
+            refuse(response, HttpStatus.UNAUTHORIZED, "bad_timestamp", "Missing or malformed timestamp");
+            return;
+        }
+        Duration skew = Duration.between(Instant.ofEpochSecond(timestamp), Instant.now()).abs();
+        if (skew.compareTo(maxClockSkew) > 0) {
+            refuse(response, HttpStatus.UNAUTHORIZED, "stale_timestamp", "Timestamp outside the allowed window");
+            return;
+        }
+
+        byte[] body = request.getInputStream().readNBytes(maxBodyBytes + 1);
+        if (body.length > maxBodyBytes) {
+            refuse(response, HttpStatus.PAYLOAD_TOO_LARGE, "too_large", "Callback body too large");
+            return;
+        }
+        if (!CallbackSignature.matches(secret, timestamp, body,
+                request.getHeader(CallbackSignature.SIGNATURE_HEADER))) {
+            refuse(response, HttpStatus.UNAUTHORIZED, "bad_signature", "Signature does not match");
+            return;
+        }
+
+        filterChain.doFilter(new VerifiedBodyRequest(request, body), response);
+    }
+
+    private String secretFor(String insurerId) {
+        try {
+            return secrets.get(UUID.fromString(insurerId));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private void refuse(HttpServletResponse response, HttpStatus status, String reason, String message)
+            throws IOException {
+        // Tagged by reason only; the insurer id is unauthenticated input here
+        meterRegistry.counter("endorsement.insurer.callback.refused", "reason", reason).increment();
+        log.warn("Refused insurer callback: {}", message);
+        response.setStatus(status.value());
+        response.setContentType("application/json");
+        response.getWriter().write("{\"error\":\"" + status.getReasonPhrase() + "\",\"message\":\"" + message + "\"}");
+    }
+
+    /** Serves the already-verified body to everything downstream. */
+    private static final class VerifiedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        private VerifiedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // The whole body is already in memory, so it is all available at once
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    try {
+                        listener.onDataAvailable();
+                        listener.onAllDataRead();
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(new ByteArrayInputStream(body), StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
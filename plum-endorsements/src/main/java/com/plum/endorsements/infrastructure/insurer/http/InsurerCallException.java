@@ -0,0 +1,18 @@
+package com.plum.endorsements.infrastructure.insurer.http;
+
+/**
+ * An insurer answered, but with a non-2xx status.
+ */
+public class InsurerCallException extends RuntimeException {
+
+    private final int statusCode;
+
+    public InsurerCallException(String method, String path, int statusCode, String body) {
+        super("Insurer call %s %s failed with HTTP %d: %s".formatted(method, path, statusCode, body));
+        this.statusCode = statusCode;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+}
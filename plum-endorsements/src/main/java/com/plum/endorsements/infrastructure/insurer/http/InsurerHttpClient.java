@@ -0,0 +1,379 @@
+package com.plum.endorsements.infrastructure.insurer.http;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.plum.endorsements.application.exception.InsurerOutcomeUnknownException;
+import com.plum.endorsements.infrastructure.insurer.stub.StubInsurerServer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.io.UncheckedIOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Non-blocking HTTP transport shared by the insurer adapters. Requests go out
+ * through one pooled {@link HttpClient}, so an in-flight call holds a
+ * connection but no thread. Every request carries the configured timeout;
+ * cancelling a returned future aborts its exchange.
+ *
+ * <p>Failures say whether the insurer may have acted on the request. One that
+ * times out or loses its connection after it was sent completes with
+ * {@link InsurerOutcomeUnknownException}. A connect failure, or a body writer
+ * failure, means the request never arrived whole and keeps its original
+ * exception, as does an answer with a non-2xx status.</p>
+ *
+ * <p>Talks to {@code endorsement.insurer.http.base-url}, or to the embedded
+ * {@link StubInsurerServer} when that is blank.</p>
+ */
+@Component
+public class InsurerHttpClient {
+
+    /** Answer to a real-time submission. */
+    public record SubmissionResponse(boolean accepted, String reference, String error) {
+    }
+
+    /** Answer to a batch submission. */
+    public record BatchSubmissionResponse(String batchRef) {
+    }
+
+    /** Writes a request body straight to the connection. */
+    @FunctionalInterface
+    public interface BodyWriter {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    /** Reads a response body as it arrives, for answers too large to buffer. */
+    @FunctionalInterface
+    public interface BodyReader<T> {
+        T read(InputStream in) throws IOException;
+    }
+
+    private static final int STREAMING_PIPE_BYTES = 64 * 1024;
+    private static final int DEFAULT_BODY_WRITERS = 8;
+
+    private final ObjectMapper objectMapper;
+    private final URI baseUri;
+    private final Duration requestTimeout;
+    private final HttpClient httpClient;
+    // Piped streams block in Object.wait, which would pin a virtual thread to its carrier,
+    // so body writers get platform threads: a fixed number, with as many waiting behind them
+    private final ExecutorService bodyWriters;
+
+    @Autowired
+    public InsurerHttpClient(ObjectMapper objectMapper,
+                             ObjectProvider<StubInsurerServer> stubServer,
+                             @Value("${endorsement.insurer.http.base-url:}") String baseUrl,
+                             @Value("${endorsement.insurer.http.connect-timeout-ms:2000}") long connectTimeoutMs,
+                             @Value("${endorsement.insurer.http.request-timeout-ms:10000}") long requestTimeoutMs,
+                             @Value("${endorsement.insurer.http.max-body-writers:8}") int maxBodyWriters) {
+        this(objectMapper, resolveBaseUri(baseUrl, stubServer),
+                Duration.ofMillis(connectTimeoutMs), Duration.ofMillis(requestTimeoutMs), maxBodyWriters);
+    }
+
+    public InsurerHttpClient(ObjectMapper objectMapper, URI baseUri,
+                             Duration connectTimeout, Duration requestTimeout) {
+        this(objectMapper, baseUri, connectTimeout, requestTimeout, DEFAULT_BODY_WRITERS);
+    }
+
+    public InsurerHttpClient(ObjectMapper objectMapper, URI baseUri,
+                             Duration connectTimeout, Duration requestTimeout, int maxBodyWriters) {
+        this.objectMapper = objectMapper;
+        this.baseUri = baseUri;
+        this.requestTimeout = requestTimeout;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(connectTimeout)
+                .build();
+        this.bodyWriters = new ThreadPoolExecutor(maxBodyWriters, maxBodyWriters, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(maxBodyWriters),
+                Thread.ofPlatform().name("insurer-body-writer-", 0).daemon().factory());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        bodyWriters.shutdownNow();
+    }
+
+    private static URI resolveBaseUri(String baseUrl, ObjectProvider<StubInsurerServer> stubServer) {
+        if (!baseUrl.isBlank()) {
+            return URI.create(baseUrl.endsWith("/") ? baseUrl : baseUrl + "/");
+        }
+        StubInsurerServer stub = stubServer.getIfAvailable();
+        if (stub == null) {
+            throw new IllegalStateException(
+                    "endorsement.insurer.http.base-url must be set when the stub insurer is disabled");
+        }
+        return stub.baseUri();
+    }
+
+    public <T> CompletableFuture<T> post(String path, String contentType, String body, Class<T> responseType) {
+        HttpRequest request = request(path)
+                .header("Content-Type", contentType)
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return exchange(request, responseType);
+    }
+
+    /**
+     * Posts a body produced by {@code writer} while it is being sent, so the
+     * whole payload is never held in memory. The writer runs on one of
+     * {@code max-body-writers} platform threads; if it fails, or none is free
+     * and the wait line is full, the request fails rather than sending a
+     * truncated body.
+     */
+    public <T> CompletableFuture<T> postStreaming(String path, String contentType, BodyWriter writer,
+                                                  Class<T> responseType) {
+        HttpRequest request = request(path)
+                .header("Content-Type", contentType)
+                .POST(HttpRequest.BodyPublishers.ofInputStream(() -> streamFrom(writer)))
+                .build();
+        return exchange(request, responseType);
+    }
+
+    /**
+     * Streams the request body as {@link #postStreaming(String, String, BodyWriter, Class)}
+     * does and hands the answer, in the {@code accept} format, to {@code reader}
+     * as it arrives.
+     */
+    public <T> CompletableFuture<T> postStreaming(String path, String contentType, BodyWriter writer,
+                                                  String accept, BodyReader<T> reader) {
+        HttpRequest request = request(path)
+                .setHeader("Accept", accept)
+                .header("Content-Type", contentType)
+                .POST(HttpRequest.BodyPublishers.ofInputStream(() -> streamFrom(writer)))
+                .build();
+        return exchange(request, reader);
+    }
+
+    public <T> CompletableFuture<T> post(String path, String contentType, String body,
+                                         String accept, BodyReader<T> reader) {
+        HttpRequest request = request(path)
+                .setHeader("Accept", accept)
+                .header("Content-Type", contentType)
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return exchange(request, reader);
+    }
+
+    public <T> CompletableFuture<T> get(String path, String accept, BodyReader<T> reader) {
+        return exchange(request(path).setHeader("Accept", accept).GET().build(), reader);
+    }
+
+    private InputStream streamFrom(BodyWriter writer) {
+        PipedInputStream in = new PipedInputStream(STREAMING_PIPE_BYTES);
+        AtomicReference<IOException> failure = new AtomicReference<>();
+        try {
+            PipedOutputStream out = new PipedOutputStream(in);
+            try {
+                bodyWriters.execute(() -> {
+                    try {
+                        writer.writeTo(out);
+                    } catch (IOException | RuntimeException e) {
+                        failure.set(new BodyWriteException(e));
+                    } finally {
+                        // Only after any failure is recorded, so the reader never mistakes it for the end
+                        closeQuietly(out);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // Nothing is written, so the request fails before any of the body is sent
+                failure.set(new BodyWriteException(e));
+                closeQuietly(out);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        // The pipe reports a clean end of stream once the writer closes it; turn a failed write into an error
+        return new FilterInputStream(in) {
+            @Override
+            public int read() throws IOException {
+                int b = super.read();
+                return b < 0 ? endOfStream() : b;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                int n = super.read(b, off, len);
+                return n < 0 ? endOfStream() : n;
+            }
+
+            private int endOfStream() throws IOException {
+                IOException e = failure.get();
+                if (e != null) {
+                    throw e;
+                }
+                return -1;
+            }
+        };
+    }
+
+    private static void closeQuietly(OutputStream out) {
+        try {
+            out.close();
+        } catch (IOException ignored) {
+            // The reader has gone; the request is already failing
+        }
+    }
+
+    public <T> CompletableFuture<T> postJson(String path, Object body, Class<T> responseType) {
+        try {
+            return post(path, "application/json", objectMapper.writeValueAsString(body), responseType);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    public <T> CompletableFuture<T> get(String path, Class<T> responseType) {
+        return exchange(request(path).GET().build(), responseType);
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+                .timeout(requestTimeout)
+                .setHeader("Accept", "application/json");
+    }
+
+    private <T> CompletableFuture<T> exchange(HttpRequest request, Class<T> responseType) {
+        CompletableFuture<HttpResponse<String>> exchange =
+                httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+        CompletableFuture<T> result = exchange.exceptionally(failure -> {
+            throw classify(request, failure);
+        }).thenApply(response -> {
+            if (response.statusCode() / 100 != 2) {
+                throw new InsurerCallException(request.method(), request.uri().getPath(),
+                        response.statusCode(), response.body());
+            }
+            try {
+                return objectMapper.readValue(response.body(), responseType);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        // Dependent stages do not cancel their source; abort the exchange explicitly
+        result.whenComplete((r, t) -> {
+            if (result.isCancelled()) {
+                exchange.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Like {@link #exchange(HttpRequest, Class)}, but the body is handed to
+     * {@code reader} as a stream on a virtual thread instead of being buffered.
+     * The request timeout covers the wait for the response headers.
+     */
+    private <T> CompletableFuture<T> exchange(HttpRequest request, BodyReader<T> reader) {
+        CompletableFuture<HttpResponse<InputStream>> exchange =
+                httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream());
+        CompletableFuture<T> result = exchange.exceptionally(failure -> {
+            throw classify(request, failure);
+        }).thenApplyAsync(response -> {
+            try (InputStream body = response.body()) {
+                if (response.statusCode() / 100 != 2) {
+                    throw new InsurerCallException(request.method(), request.uri().getPath(),
+                            response.statusCode(), new String(body.readAllBytes(), StandardCharsets.UTF_8));
+                }
+                return reader.read(body);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, Thread::startVirtualThread);
+        result.whenComplete((r, t) -> {
+            if (result.isCancelled()) {
+                exchange.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * A failed exchange as {@link InsurerOutcomeUnknownException} if the
+     * request may have been sent in full, else unchanged.
+     */
+    private static RuntimeException classify(HttpRequest request, Throwable failure) {
+        Throwable cause = failure;
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (!(cause instanceof IOException) || cause instanceof ConnectException
+                || cause instanceof HttpConnectTimeoutException || writeFailed(cause)) {
+            return failure instanceof CompletionException completion ? completion : new CompletionException(cause);
+        }
+        return new InsurerOutcomeUnknownException("Insurer call %s %s sent, but no answer: %s"
+                .formatted(request.method(), request.uri().getPath(), cause), cause);
+    }
+
+    private static boolean writeFailed(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof BodyWriteException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** The request body writer failed, so the insurer never got a whole request. */
+    private static final class BodyWriteException extends IOException {
+
+        private BodyWriteException(Exception cause) {
+            super("Request body writer failed: " + cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * Blocks for a stage's result, for the synchronous side of the port.
+     * Failures are rethrown unwrapped so retry and circuit-breaker rules see
+     * the original exception; an interrupt cancels the call.
+     */
+    public static <T> T await(CompletionStage<T> stage) {
+        CompletableFuture<T> future = stage.toCompletableFuture();
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted waiting for insurer call");
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        }
+    }
+
+    private static RuntimeException unwrap(Throwable cause) {
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        if (cause instanceof IOException io) {
+            return new UncheckedIOException(io);
+        }
+        return new CompletionException(cause);
+    }
+}
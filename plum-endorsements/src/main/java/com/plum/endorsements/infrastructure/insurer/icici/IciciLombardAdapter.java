@@ -1,8 +1,8 @@
 package com.plum.endorsements.infrastructure.insurer.icici;
 
 import com.plum.endorsements.domain.port.InsurerPort;
+import com.plum.endorsements.infrastructure.insurer.http.InsurerHttpClient;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
-import io.github.resilience4j.retry.annotation.Retry;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
@@ -12,6 +12,7 @@ import org.springframework.stereotype.Component;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletionStage;
 
 @Slf4j
 @Component
@@ -20,32 +21,30 @@ public class IciciLombardAdapter implements InsurerPort {
 
     private final MeterRegistry meterRegistry;
     private final IciciLombardDataMapper dataMapper;
+    private final InsurerHttpClient httpClient;
 
     @Override
-    @CircuitBreaker(name = "iciciLombard", fallbackMethod = "submitRealTimeFallback")
-    @Retry(name = "iciciLombard")
+    @CircuitBreaker(name = "iciciLombard")
     public SubmissionResult submitRealTime(UUID endorsementId, Map<String, Object> endorsementData) {
+        return InsurerHttpClient.await(submitRealTimeAsync(endorsementId, endorsementData));
+    }
+
+    @Override
+    public CompletionStage<SubmissionResult> submitRealTimeAsync(UUID endorsementId,
+                                                                 Map<String, Object> endorsementData) {
         Timer.Sample sample = Timer.start(meterRegistry);
         log.info("ICICI Lombard: submitting endorsement {} via REST/JSON", endorsementId);
 
-        try {
-            // Simulated REST API call latency
-            Thread.sleep(150);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            log.warn("ICICI Lombard submission interrupted for endorsement {}", endorsementId);
-        }
-
-        String insurerReference = "ICICI-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
-        log.info("ICICI Lombard: endorsement {} accepted with reference {}", endorsementId, insurerReference);
-
-        sample.stop(meterRegistry.timer("endorsement.insurer.icici.duration", "method", "submitRealTime"));
-        return new SubmissionResult(true, insurerReference, null);
-    }
+        Map<String, Object> body = dataMapper.toRequestBody(endorsementId, endorsementData);
 
-    private SubmissionResult submitRealTimeFallback(UUID endorsementId, Map<String, Object> endorsementData, Throwable t) {
-        log.warn("ICICI Lombard circuit breaker fallback for endorsement {}: {}", endorsementId, t.getMessage());
-        return new SubmissionResult(false, null, "ICICI Lombard service unavailable: " + t.getMessage());
+        return httpClient.postJson("icici/endorsements", body, InsurerHttpClient.SubmissionResponse.class)
+                .thenApply(response -> {
+                    log.info("ICICI Lombard: endorsement {} answered accepted={} reference={}",
+                            endorsementId, response.accepted(), response.reference());
+                    return new SubmissionResult(response.accepted(), response.reference(), response.error());
+                })
+                .whenComplete((r, t) -> sample.stop(
+                        meterRegistry.timer("endorsement.insurer.icici.duration", "method", "submitRealTime")));
     }
 
     @Override
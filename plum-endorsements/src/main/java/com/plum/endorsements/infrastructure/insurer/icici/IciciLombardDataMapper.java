@@ -1,58 +1,57 @@
 package com.plum.endorsements.infrastructure.insurer.icici;
 
+import com.plum.endorsements.infrastructure.insurer.mapping.CodeTable;
+import com.plum.endorsements.infrastructure.insurer.mapping.PayloadMappingPlan;
 import org.springframework.stereotype.Component;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 
 @Component
 public class IciciLombardDataMapper {
 
-    public Map<String, Object> toInsurerFormat(Map<String, Object> endorsementData) {
-        Map<String, Object> mapped = new HashMap<>();
-        mapped.put("memberName", endorsementData.getOrDefault("employee_name", ""));
-        mapped.put("memberId", endorsementData.getOrDefault("employee_id", ""));
-        mapped.put("policyNumber", endorsementData.getOrDefault("policy_id", ""));
-        mapped.put("endorsementType", mapEndorsementType(
-                (String) endorsementData.getOrDefault("type", "ADDITION")));
-        mapped.put("effectiveDate", endorsementData.getOrDefault("coverage_start_date", ""));
-        mapped.put("sumInsured", endorsementData.getOrDefault("premium_amount", 0));
-        mapped.put("dateOfBirth", endorsementData.getOrDefault("date_of_birth", ""));
-        mapped.put("gender", endorsementData.getOrDefault("gender", ""));
-        mapped.put("relationship", endorsementData.getOrDefault("relationship", "SELF"));
-        return mapped;
-    }
+    private static final CodeTable ENDORSEMENT_TYPES = CodeTable.of(Map.of(
+            "ADDITION", "ADD",
+            "DELETION", "DELETE",
+            "MODIFICATION", "MODIFY",
+            "CORRECTION", "CORRECT"));
 
-    public Map<String, Object> fromInsurerFormat(Map<String, Object> insurerData) {
-        Map<String, Object> mapped = new HashMap<>();
-        mapped.put("employee_name", insurerData.getOrDefault("memberName", ""));
-        mapped.put("employee_id", insurerData.getOrDefault("memberId", ""));
-        mapped.put("policy_id", insurerData.getOrDefault("policyNumber", ""));
-        mapped.put("type", reverseMapEndorsementType(
-                (String) insurerData.getOrDefault("endorsementType", "ADD")));
-        mapped.put("coverage_start_date", insurerData.getOrDefault("effectiveDate", ""));
-        mapped.put("premium_amount", insurerData.getOrDefault("sumInsured", 0));
-        mapped.put("insurer_reference", insurerData.getOrDefault("transactionId", ""));
-        return mapped;
+    static final PayloadMappingPlan OUTBOUND = PayloadMappingPlan.builder("icici-outbound")
+            .value("memberName", "employee_name", "")
+            .value("memberId", "employee_id", "")
+            .value("policyNumber", "policy_id", "")
+            .code("endorsementType", "type", "ADDITION", ENDORSEMENT_TYPES)
+            .value("effectiveDate", "coverage_start_date", "")
+            .value("sumInsured", "premium_amount", 0)
+            .value("dateOfBirth", "date_of_birth", "")
+            .value("gender", "gender", "")
+            .value("relationship", "relationship", "SELF")
+            .build();
+
+    static final PayloadMappingPlan INBOUND = PayloadMappingPlan.builder("icici-inbound")
+            .value("employee_name", "memberName", "")
+            .value("employee_id", "memberId", "")
+            .value("policy_id", "policyNumber", "")
+            .code("type", "endorsementType", "ADD", ENDORSEMENT_TYPES.inverse())
+            .value("coverage_start_date", "effectiveDate", "")
+            .value("premium_amount", "sumInsured", 0)
+            .value("insurer_reference", "transactionId", "")
+            .build();
+
+    public Map<String, Object> toInsurerFormat(Map<String, Object> endorsementData) {
+        return OUTBOUND.toMap(endorsementData);
     }
 
-    private String mapEndorsementType(String type) {
-        return switch (type) {
-            case "ADDITION" -> "ADD";
-            case "DELETION" -> "DELETE";
-            case "MODIFICATION" -> "MODIFY";
-            case "CORRECTION" -> "CORRECT";
-            default -> type;
-        };
+    /** The real-time request body: the insurer format plus our reference for the endorsement. */
+    public Map<String, Object> toRequestBody(UUID endorsementId, Map<String, Object> endorsementData) {
+        Map<String, Object> body = HashMap.newHashMap(OUTBOUND.fieldNames().size() + 1);
+        OUTBOUND.encode(endorsementData, body::put);
+        body.put("clientReference", endorsementId.toString());
+        return body;
     }
 
-    private String reverseMapEndorsementType(String insurerType) {
-        return switch (insurerType) {
-            case "ADD" -> "ADDITION";
-            case "DELETE" -> "DELETION";
-            case "MODIFY" -> "MODIFICATION";
-            case "CORRECT" -> "CORRECTION";
-            default -> insurerType;
-        };
+    public Map<String, Object> fromInsurerFormat(Map<String, Object> insurerData) {
+        return INBOUND.toMap(insurerData);
     }
 }
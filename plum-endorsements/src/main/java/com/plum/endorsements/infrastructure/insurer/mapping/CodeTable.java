@@ -0,0 +1,37 @@
+package com.plum.endorsements.infrastructure.insurer.mapping;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Translates our values to an insurer's codes, such as endorsement types.
+ * Values without a code pass through unchanged, so the insurer sees anything
+ * it has not been mapped for. Declare a table once and read codes back with
+ * {@link #inverse()}.
+ */
+public final class CodeTable {
+
+    private final Map<String, String> codes;
+
+    private CodeTable(Map<String, String> codes) {
+        this.codes = codes;
+    }
+
+    public static CodeTable of(Map<String, String> codes) {
+        return new CodeTable(Map.copyOf(codes));
+    }
+
+    public String translate(String value) {
+        return codes.getOrDefault(value, value);
+    }
+
+    public CodeTable inverse() {
+        Map<String, String> inverse = new HashMap<>();
+        codes.forEach((value, code) -> {
+            if (inverse.put(code, value) != null) {
+                throw new IllegalArgumentException("Code " + code + " stands for more than one value");
+            }
+        });
+        return new CodeTable(Map.copyOf(inverse));
+    }
+}
@@ -0,0 +1,122 @@
+package com.plum.endorsements.infrastructure.insurer.mapping;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * One direction of an insurer's field mapping, declared once and compiled
+ * into flat arrays of target names, source keys and formatters. Encoding a
+ * record walks those arrays in declaration order: one read of the source map
+ * per field and one formatter call, with no intermediate map, reflection or
+ * per-call decisions about which field goes where.
+ *
+ * <p>Plans are immutable and meant to be held in static fields, so they are
+ * compiled once when their mapper class loads. Formats that write fields in
+ * order, such as XML elements or CSV columns, take them through a
+ * {@link FieldSink}; JSON bodies use {@link #toMap}.</p>
+ */
+public final class PayloadMappingPlan {
+
+    /** Receives a plan's fields in declaration order. */
+    @FunctionalInterface
+    public interface FieldSink<E extends Exception> {
+        void field(String name, Object value) throws E;
+    }
+
+    @FunctionalInterface
+    private interface Formatter {
+        Object format(Object value);
+    }
+
+    private final String name;
+    private final String[] fields;
+    private final String[] sourceKeys;
+    private final Formatter[] formatters;
+
+    private PayloadMappingPlan(String name, List<String> fields, List<String> sourceKeys,
+                               List<Formatter> formatters) {
+        this.name = name;
+        this.fields = fields.toArray(String[]::new);
+        this.sourceKeys = sourceKeys.toArray(String[]::new);
+        this.formatters = formatters.toArray(Formatter[]::new);
+    }
+
+    public static Builder builder(String name) {
+        return new Builder(name);
+    }
+
+    public <E extends Exception> void encode(Map<String, Object> source, FieldSink<E> sink) throws E {
+        for (int i = 0; i < fields.length; i++) {
+            sink.field(fields[i], formatters[i].format(source.get(sourceKeys[i])));
+        }
+    }
+
+    public Map<String, Object> toMap(Map<String, Object> source) {
+        Map<String, Object> mapped = HashMap.newHashMap(fields.length);
+        encode(source, mapped::put);
+        return mapped;
+    }
+
+    public List<String> fieldNames() {
+        return List.of(fields);
+    }
+
+    public List<String> sourceKeys() {
+        return List.of(sourceKeys);
+    }
+
+    @Override
+    public String toString() {
+        return "PayloadMappingPlan[" + name + ", " + fields.length + " fields]";
+    }
+
+    private static String str(Object value) {
+        return value != null ? value.toString() : "";
+    }
+
+    public static final class Builder {
+
+        private final String name;
+        private final List<String> fields = new ArrayList<>();
+        private final List<String> sourceKeys = new ArrayList<>();
+        private final List<Formatter> formatters = new ArrayList<>();
+        private final Set<String> seen = new HashSet<>();
+
+        private Builder(String name) {
+            this.name = name;
+        }
+
+        /** Copies the source value as is, or {@code absent} when the source has none. */
+        public Builder value(String field, String sourceKey, Object absent) {
+            return add(field, sourceKey, value -> value != null ? value : absent);
+        }
+
+        /** The source value as text, or an empty string when the source has none. */
+        public Builder text(String field, String sourceKey) {
+            return add(field, sourceKey, PayloadMappingPlan::str);
+        }
+
+        /** The insurer's code for the source value, translating {@code absent} when the source has none. */
+        public Builder code(String field, String sourceKey, String absent, CodeTable codes) {
+            return add(field, sourceKey, value -> codes.translate(value != null ? value.toString() : absent));
+        }
+
+        private Builder add(String field, String sourceKey, Formatter formatter) {
+            if (!seen.add(field)) {
+                throw new IllegalArgumentException("Plan " + name + " maps " + field + " twice");
+            }
+            fields.add(field);
+            sourceKeys.add(sourceKey);
+            formatters.add(formatter);
+            return this;
+        }
+
+        public PayloadMappingPlan build() {
+            return new PayloadMappingPlan(name, fields, sourceKeys, formatters);
+        }
+    }
+}
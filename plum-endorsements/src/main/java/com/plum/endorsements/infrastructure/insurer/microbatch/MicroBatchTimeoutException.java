@@ -0,0 +1,17 @@
+package com.plum.endorsements.infrastructure.insurer.microbatch;
+
+import com.plum.endorsements.application.exception.InsurerOutcomeUnknownException;
+
+import java.time.Duration;
+
+/**
+ * A micro-batch was accepted by the insurer but had not completed within the
+ * batcher's {@code max-wait-ms}. The endorsements in it may still be processed
+ * at the insurer, so the outcome is unknown rather than failed.
+ */
+public class MicroBatchTimeoutException extends InsurerOutcomeUnknownException {
+
+    public MicroBatchTimeoutException(String insurerBatchRef, Duration maxWait) {
+        super("Micro-batch %s did not complete within %s".formatted(insurerBatchRef, maxWait));
+    }
+}
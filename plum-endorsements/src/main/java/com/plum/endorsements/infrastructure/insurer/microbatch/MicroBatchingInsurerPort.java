@@ -0,0 +1,81 @@
+package com.plum.endorsements.infrastructure.insurer.microbatch;
+
+import com.plum.endorsements.domain.port.InsurerPort;
+import com.plum.endorsements.infrastructure.insurer.http.InsurerHttpClient;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * An insurer port whose real-time submissions are gathered into micro-batches
+ * by {@link RealTimeMicroBatcher}. Batch and status calls go straight through.
+ */
+public class MicroBatchingInsurerPort implements InsurerPort {
+
+    private final InsurerPort delegate;
+    private final UUID insurerId;
+    private final RealTimeMicroBatcher batcher;
+
+    public MicroBatchingInsurerPort(InsurerPort delegate, UUID insurerId, RealTimeMicroBatcher batcher) {
+        this.delegate = delegate;
+        this.insurerId = insurerId;
+        this.batcher = batcher;
+    }
+
+    public InsurerPort getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public SubmissionResult submitRealTime(UUID endorsementId, Map<String, Object> endorsementData) {
+        return InsurerHttpClient.await(submitRealTimeAsync(endorsementId, endorsementData));
+    }
+
+    @Override
+    public CompletionStage<SubmissionResult> submitRealTimeAsync(UUID endorsementId,
+                                                                 Map<String, Object> endorsementData) {
+        return batcher.submit(insurerId, delegate, endorsementId, endorsementData);
+    }
+
+    @Override
+    public String submitBatch(UUID batchId, List<Map<String, Object>> endorsements) {
+        return delegate.submitBatch(batchId, endorsements);
+    }
+
+    @Override
+    public BatchStatusResult checkBatchStatus(String insurerBatchRef) {
+        return delegate.checkBatchStatus(insurerBatchRef);
+    }
+
+    @Override
+    public CompletionStage<String> submitBatchAsync(UUID batchId, List<Map<String, Object>> endorsements) {
+        return delegate.submitBatchAsync(batchId, endorsements);
+    }
+
+    @Override
+    public CompletionStage<BatchStatusResult> checkBatchStatusAsync(String insurerBatchRef) {
+        return delegate.checkBatchStatusAsync(insurerBatchRef);
+    }
+
+    @Override
+    public InsurerCapabilities getCapabilities() {
+        return delegate.getCapabilities();
+    }
+
+    @Override
+    public String getAdapterType() {
+        return delegate.getAdapterType();
+    }
+
+    @Override
+    public Map<String, Object> mapToInsurerFormat(Map<String, Object> endorsementData) {
+        return delegate.mapToInsurerFormat(endorsementData);
+    }
+
+    @Override
+    public Map<String, Object> mapFromInsurerFormat(Map<String, Object> insurerData) {
+        return delegate.mapFromInsurerFormat(insurerData);
+    }
+}
@@ -0,0 +1,423 @@
+package com.plum.endorsements.infrastructure.insurer.microbatch;
+
+import com.plum.endorsements.application.exception.InsurerOutcomeUnknownException;
+import com.plum.endorsements.domain.model.BatchStatus;
+import com.plum.endorsements.domain.model.EndorsementBatch;
+import com.plum.endorsements.domain.model.EndorsementStatus;
+import com.plum.endorsements.domain.port.BatchRepository;
+import com.plum.endorsements.domain.port.EndorsementRepository;
+import com.plum.endorsements.domain.port.InsurerPort;
+import com.plum.endorsements.domain.port.InsurerPort.BatchStatusResult;
+import com.plum.endorsements.domain.port.InsurerPort.EndorsementResult;
+import com.plum.endorsements.domain.port.InsurerPort.SubmissionResult;
+import com.plum.endorsements.infrastructure.insurer.admission.AdmissionPriority;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Gathers real-time submissions to an insurer that takes both real-time and
+ * batch calls, and sends them as one {@code submitBatch} instead of one
+ * request each. Under a per-minute rate limit, a flush of {@code max-size}
+ * submissions costs one submit plus a few status polls rather than
+ * {@code max-size} calls.
+ *
+ * <p>A flush happens once {@code max-size} submissions are waiting or the
+ * oldest has waited {@code linger-ms}. The batch is then polled, with the
+ * delay doubling from {@code poll-initial-ms} to {@code poll-max-ms}, until
+ * it completes. Each caller then gets its endorsement's result as an
+ * ordinary {@link SubmissionResult}. Callers still waiting after
+ * {@code max-wait-ms} fail with {@link MicroBatchTimeoutException}, an
+ * unknown outcome, and the batch is left for the batch status poller to
+ * settle.</p>
+ *
+ * <p>Each micro-batch is recorded before it is sent, flagged as a
+ * micro-batch, and its endorsements are tagged with it. It does not count as
+ * the insurer's open batch: batch assembly ignores micro-batches, and they
+ * ignore each other, so real-time traffic keeps being batched while a
+ * scheduled batch or another micro-batch is still open.</p>
+ *
+ * <p>The batcher falls back to one real-time call per submission in three
+ * cases:</p>
+ * <ul>
+ *   <li>The batch could not be recorded.</li>
+ *   <li>The batch could not be submitted at all.</li>
+ *   <li>The insurer's recent micro-batch latency, a moving average, is above
+ *   {@code latency-slo-ms}. One micro-batch still goes out every
+ *   {@code probe-interval-ms} to tell when it recovers.</li>
+ * </ul>
+ *
+ * <p>Only the adapter types listed in {@code adapters} are batched.</p>
+ */
+@Slf4j
+@Component
+public class RealTimeMicroBatcher {
+
+    private static final double LATENCY_SMOOTHING = 0.3;
+
+    private final MeterRegistry meterRegistry;
+    private final BatchRepository batchRepository;
+    private final EndorsementRepository endorsementRepository;
+    private final Set<String> adapterTypes;
+    private final Duration linger;
+    private final int maxSize;
+    private final Duration latencySlo;
+    private final Duration maxWait;
+    private final Duration pollInitial;
+    private final Duration pollMax;
+    private final Duration probeInterval;
+    private final Map<UUID, Lane> lanes = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("micro-batch-linger").daemon().factory());
+    private final ExecutorService flushes = Executors.newVirtualThreadPerTaskExecutor();
+
+    public RealTimeMicroBatcher(MeterRegistry meterRegistry,
+                                BatchRepository batchRepository,
+                                EndorsementRepository endorsementRepository,
+                                @Value("${endorsement.insurer.micro-batch.adapters:}") Set<String> adapterTypes,
+                                @Value("${endorsement.insurer.micro-batch.linger-ms:20}") long lingerMs,
+                                @Value("${endorsement.insurer.micro-batch.max-size:50}") int maxSize,
+                                @Value("${endorsement.insurer.micro-batch.latency-slo-ms:10000}") long latencySloMs,
+                                @Value("${endorsement.insurer.micro-batch.max-wait-ms:60000}") long maxWaitMs,
+                                @Value("${endorsement.insurer.micro-batch.poll-initial-ms:200}") long pollInitialMs,
+                                @Value("${endorsement.insurer.micro-batch.poll-max-ms:2000}") long pollMaxMs,
+                                @Value("${endorsement.insurer.micro-batch.probe-interval-ms:60000}") long probeIntervalMs) {
+        this.meterRegistry = meterRegistry;
+        this.batchRepository = batchRepository;
+        this.endorsementRepository = endorsementRepository;
+        this.adapterTypes = Set.copyOf(adapterTypes);
+        this.linger = Duration.ofMillis(lingerMs);
+        this.maxSize = maxSize;
+        this.latencySlo = Duration.ofMillis(latencySloMs);
+        this.maxWait = Duration.ofMillis(maxWaitMs);
+        this.pollInitial = Duration.ofMillis(pollInitialMs);
+        this.pollMax = Duration.ofMillis(pollMaxMs);
+        this.probeInterval = Duration.ofMillis(probeIntervalMs);
+    }
+
+    /**
+     * The port callers should use for the insurer: micro-batching if its
+     * adapter is configured for it and supports both modes, else unchanged.
+     */
+    public InsurerPort wrap(InsurerPort port, UUID insurerId) {
+        InsurerPort.InsurerCapabilities capabilities = port.getCapabilities();
+        if (!adapterTypes.contains(port.getAdapterType())
+                || !capabilities.supportsRealTime() || !capabilities.supportsBatch()) {
+            return port;
+        }
+        return new MicroBatchingInsurerPort(port, insurerId, this);
+    }
+
+    CompletableFuture<SubmissionResult> submit(UUID insurerId, InsurerPort port,
+                                               UUID endorsementId, Map<String, Object> endorsementData) {
+        Lane lane = lanes.computeIfAbsent(insurerId, Lane::new);
+        if (!lane.batchingAllowed()) {
+            fallback(insurerId, "slo");
+            return port.submitRealTimeAsync(endorsementId, endorsementData).toCompletableFuture();
+        }
+        return lane.add(port, new Pending(endorsementId, endorsementData, Instant.now(), new CompletableFuture<>()));
+    }
+
+    private void fallback(UUID insurerId, String reason) {
+        meterRegistry.counter("endorsement.insurer.microbatch.fallback",
+                "insurerId", insurerId.toString(), "reason", reason).increment();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        timer.shutdownNow();
+        flushes.shutdownNow();
+    }
+
+    private static final class MicroBatchFailedException extends IllegalStateException {
+
+        private MicroBatchFailedException(String message) {
+            super(message);
+        }
+    }
+
+    private record Pending(UUID endorsementId, Map<String, Object> endorsementData, Instant enqueuedAt,
+                           CompletableFuture<SubmissionResult> result) {
+    }
+
+    private final class Lane {
+
+        private final UUID insurerId;
+        private final String insurerTag;
+        private final ReentrantLock lock = new ReentrantLock();
+        private List<Pending> buffer = new ArrayList<>();
+        private ScheduledFuture<?> lingerFlush;
+        // Moving average of how long callers waited for a micro-batch result, in ms
+        private volatile double latencyMs;
+        private volatile Instant nextProbeAt = Instant.MIN;
+
+        private Lane(UUID insurerId) {
+            this.insurerId = insurerId;
+            this.insurerTag = insurerId.toString();
+        }
+
+        private boolean batchingAllowed() {
+            if (latencyMs <= latencySlo.toMillis()) {
+                return true;
+            }
+            Instant now = Instant.now();
+            if (now.isBefore(nextProbeAt)) {
+                return false;
+            }
+            nextProbeAt = now.plus(probeInterval);
+            return true;
+        }
+
+        private CompletableFuture<SubmissionResult> add(InsurerPort port, Pending pending) {
+            List<Pending> full = null;
+            lock.lock();
+            try {
+                buffer.add(pending);
+                if (buffer.size() >= maxSize) {
+                    full = drain();
+                } else if (buffer.size() == 1) {
+                    lingerFlush = timer.schedule(() -> lingerExpired(port), linger.toMillis(), TimeUnit.MILLISECONDS);
+                }
+            } finally {
+                lock.unlock();
+            }
+            if (full != null) {
+                List<Pending> batch = full;
+                flushes.execute(() -> flush(port, batch));
+            }
+            return pending.result();
+        }
+
+        private void lingerExpired(InsurerPort port) {
+            List<Pending> batch;
+            lock.lock();
+            try {
+                batch = drain();
+            } finally {
+                lock.unlock();
+            }
+            if (!batch.isEmpty()) {
+                flushes.execute(() -> flush(port, batch));
+            }
+        }
+
+        private List<Pending> drain() {
+            List<Pending> batch = buffer;
+            buffer = new ArrayList<>();
+            if (lingerFlush != null) {
+                lingerFlush.cancel(false);
+                lingerFlush = null;
+            }
+            return batch;
+        }
+
+        private void flush(InsurerPort port, List<Pending> batch) {
+            meterRegistry.summary("endorsement.insurer.microbatch.size", "insurerId", insurerTag)
+                    .record(batch.size());
+            EndorsementBatch registered;
+            try {
+                registered = register(batch);
+            } catch (Exception e) {
+                log.warn("Micro-batch of {} for insurer {} could not be registered, sending real-time: {}",
+                        batch.size(), insurerId, e.getMessage());
+                sendRealTime(port, batch, "register_failed");
+                return;
+            }
+            List<Map<String, Object>> payload = batch.stream().map(Pending::endorsementData).toList();
+
+            String batchRef;
+            try {
+                UUID batchId = registered.getId();
+                batchRef = AdmissionPriority.callAs(AdmissionPriority.REALTIME,
+                        () -> port.submitBatch(batchId, payload));
+            } catch (InsurerOutcomeUnknownException e) {
+                // The insurer may hold the batch under a reference nobody knows,
+                // so nothing is resent; reconciliation flags the members
+                log.warn("Micro-batch {} for insurer {} may have reached the insurer: {}",
+                        registered.getId(), insurerId, e.getMessage());
+                settle(registered, BatchStatus.FAILED);
+                batch.forEach(pending -> pending.result().completeExceptionally(e));
+                return;
+            } catch (Exception e) {
+                // Nothing reached the insurer, so each submission can safely go on its own
+                log.warn("Micro-batch of {} for insurer {} could not be submitted, sending real-time: {}",
+                        batch.size(), insurerId, e.getMessage());
+                settle(registered, BatchStatus.FAILED);
+                sendRealTime(port, batch, "submit_failed");
+                return;
+            }
+            markSubmitted(registered, batchRef, port.getCapabilities(), batch);
+
+            try {
+                BatchStatusResult status = awaitCompletion(port, batchRef, batch);
+                Map<UUID, EndorsementResult> results = new HashMap<>();
+                for (EndorsementResult result : status.results()) {
+                    results.put(result.endorsementId(), result);
+                }
+                Instant now = Instant.now();
+                settle(registered, BatchStatus.COMPLETE);
+                for (Pending pending : batch) {
+                    EndorsementResult result = results.get(pending.endorsementId());
+                    if (result == null) {
+                        pending.result().completeExceptionally(new IllegalStateException(
+                                "Micro-batch " + batchRef + " returned no result for endorsement "
+                                        + pending.endorsementId()));
+                    } else {
+                        pending.result().complete(new SubmissionResult(
+                                result.confirmed(), result.insurerReference(), result.rejectionReason()));
+                    }
+                }
+                recordLatency(Duration.between(batch.getFirst().enqueuedAt(), now));
+            } catch (MicroBatchFailedException e) {
+                settle(registered, BatchStatus.FAILED);
+                batch.forEach(pending -> pending.result().completeExceptionally(e));
+            } catch (MicroBatchTimeoutException e) {
+                recordLatency(maxWait);
+                handOverToPoller(registered);
+                batch.forEach(pending -> pending.result().completeExceptionally(e));
+            } catch (Exception e) {
+                log.error("Micro-batch {} for insurer {} failed while polling", batchRef, insurerId, e);
+                handOverToPoller(registered);
+                InsurerOutcomeUnknownException unknown = new InsurerOutcomeUnknownException(
+                        "Micro-batch " + batchRef + " status could not be read", e);
+                batch.forEach(pending -> pending.result().completeExceptionally(unknown));
+            }
+        }
+
+        /**
+         * Records the micro-batch and tags its endorsements with it.
+         */
+        private EndorsementBatch register(List<Pending> batch) {
+            EndorsementBatch registered = batchRepository.save(EndorsementBatch.builder()
+                    .id(UUID.randomUUID())
+                    .insurerId(insurerId)
+                    .status(BatchStatus.ASSEMBLING)
+                    .endorsementCount(batch.size())
+                    .createdAt(Instant.now())
+                    .microBatch(true)
+                    .build());
+            try {
+                endorsementRepository.assignBatch(batch.stream().map(Pending::endorsementId).toList(),
+                        EndorsementStatus.SUBMITTED_REALTIME, registered.getId());
+            } catch (RuntimeException e) {
+                settle(registered, BatchStatus.FAILED);
+                throw e;
+            }
+            return registered;
+        }
+
+        // The batch poller leaves the batch alone until this batcher has given up on it
+        private void markSubmitted(EndorsementBatch registered, String batchRef,
+                                   InsurerPort.InsurerCapabilities capabilities, List<Pending> batch) {
+            Instant submittedAt = Instant.now();
+            registered.setStatus(BatchStatus.SUBMITTED);
+            registered.setSubmittedAt(submittedAt);
+            registered.setInsurerBatchRef(batchRef);
+            registered.setSlaDeadline(submittedAt.plus(capabilities.batchSlaHours(), ChronoUnit.HOURS));
+            registered.setNextPollAt(batch.getFirst().enqueuedAt().plus(maxWait));
+            save(registered);
+        }
+
+        // Only the poll schedule and status are written from here on, and the
+        // status only while the batch is open, so a callback settling the
+        // batch meanwhile is neither overwritten nor undone
+        private void handOverToPoller(EndorsementBatch registered) {
+            registered.setNextPollAt(Instant.now());
+            try {
+                batchRepository.schedulePoll(registered.getId(), registered.getNextPollAt(), registered.getPollCount());
+            } catch (Exception e) {
+                log.error("Could not hand micro-batch {} for insurer {} over to the batch poller",
+                        registered.getId(), insurerId, e);
+            }
+        }
+
+        private void settle(EndorsementBatch registered, BatchStatus status) {
+            try {
+                if (!batchRepository.transition(registered.getId(), BatchStatus.ACTIVE, status, null,
+                        registered.getPollCount())) {
+                    log.info("Micro-batch {} for insurer {} was settled by a callback meanwhile, not marking it {}",
+                            registered.getId(), insurerId, status);
+                }
+            } catch (Exception e) {
+                log.error("Could not record micro-batch {} for insurer {} as {}",
+                        registered.getId(), insurerId, status, e);
+            }
+        }
+
+        private void save(EndorsementBatch registered) {
+            try {
+                batchRepository.save(registered);
+            } catch (Exception e) {
+                log.error("Could not record micro-batch {} for insurer {} as {}",
+                        registered.getId(), insurerId, registered.getStatus(), e);
+            }
+        }
+
+        private void sendRealTime(InsurerPort port, List<Pending> batch, String reason) {
+            fallback(insurerId, reason);
+            for (Pending pending : batch) {
+                port.submitRealTimeAsync(pending.endorsementId(), pending.endorsementData())
+                        .whenComplete((r, t) -> complete(pending, r, t));
+            }
+        }
+
+        private BatchStatusResult awaitCompletion(InsurerPort port, String batchRef, List<Pending> batch)
+                throws InterruptedException {
+            Instant deadline = batch.getFirst().enqueuedAt().plus(maxWait);
+            Duration delay = pollInitial;
+            while (true) {
+                Thread.sleep(delay);
+                BatchStatusResult status = AdmissionPriority.callAs(AdmissionPriority.REALTIME,
+                        () -> port.checkBatchStatus(batchRef));
+                if ("COMPLETED".equals(status.status())) {
+                    return status;
+                }
+                if ("FAILED".equals(status.status())) {
+                    throw new MicroBatchFailedException("Micro-batch " + batchRef + " failed at insurer");
+                }
+                if (Instant.now().plus(delay).isAfter(deadline)) {
+                    throw new MicroBatchTimeoutException(batchRef, maxWait);
+                }
+                delay = delay.multipliedBy(2).compareTo(pollMax) > 0 ? pollMax : delay.multipliedBy(2);
+            }
+        }
+
+        private void recordLatency(Duration latency) {
+            meterRegistry.timer("endorsement.insurer.microbatch.latency", "insurerId", insurerTag).record(latency);
+            double sample = latency.toMillis();
+            latencyMs = latencyMs == 0 ? sample : latencyMs + LATENCY_SMOOTHING * (sample - latencyMs);
+            if (latencyMs > latencySlo.toMillis()) {
+                log.warn("Micro-batch latency for insurer {} is {} ms, above the {} SLO; sending real-time",
+                        insurerId, Math.round(latencyMs), latencySlo);
+            }
+        }
+
+        private static void complete(Pending pending, SubmissionResult result, Throwable failure) {
+            if (failure != null) {
+                pending.result().completeExceptionally(failure);
+            } else {
+                pending.result().complete(result);
+            }
+        }
+    }
+}
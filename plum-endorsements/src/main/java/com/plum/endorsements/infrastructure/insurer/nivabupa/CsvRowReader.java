@@ -0,0 +1,137 @@
+package com.plum.endorsements.infrastructure.insurer.nivabupa;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads CSV one row at a time from a {@link Reader}, holding only the current
+ * row. Fields are split by a small state machine rather than a regex, so
+ * quoted fields may contain commas, doubled quotes and line breaks. Rows end
+ * at {@code \n} or {@code \r\n}; blank lines are skipped.
+ *
+ * <pre>{@code
+ * CsvRowReader rows = new CsvRowReader(reader);
+ * while (rows.next()) {
+ *     String first = rows.field(0);
+ * }
+ * }</pre>
+ */
+public final class CsvRowReader {
+
+    private static final int BUFFER_CHARS = 8192;
+
+    private final Reader in;
+    private final char[] buffer;
+    private int position;
+    private int limit;
+    private final List<String> fields = new ArrayList<>();
+    private final StringBuilder field = new StringBuilder();
+
+    public CsvRowReader(Reader in) {
+        this.in = in;
+        this.buffer = new char[BUFFER_CHARS];
+    }
+
+    /** Reads rows from a string already in memory, without copying it into a second buffer. */
+    public CsvRowReader(String text) {
+        this.in = null;
+        this.buffer = text.toCharArray();
+        this.limit = buffer.length;
+    }
+
+    /**
+     * Advances to the next row.
+     *
+     * @return {@code false} at the end of the input
+     */
+    public boolean next() throws IOException {
+        fields.clear();
+        field.setLength(0);
+        boolean quoted = false;
+        boolean rowHasContent = false;
+        int c;
+        while ((c = read()) >= 0) {
+            if (quoted) {
+                if (c != '"') {
+                    field.append((char) c);
+                } else if (peek() == '"') {
+                    position++;
+                    field.append('"');
+                } else {
+                    quoted = false;
+                }
+                continue;
+            }
+            switch (c) {
+                case '"' -> {
+                    quoted = true;
+                    rowHasContent = true;
+                }
+                case ',' -> {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                    rowHasContent = true;
+                }
+                case '\r' -> {
+                    if (peek() != '\n') {
+                        field.append('\r');
+                        rowHasContent = true;
+                    }
+                }
+                case '\n' -> {
+                    if (rowHasContent) {
+                        fields.add(field.toString());
+                        return true;
+                    }
+                }
+                default -> {
+                    // Text around a quoted section, as in "a"b, is kept as written
+                    field.append((char) c);
+                    rowHasContent = true;
+                }
+            }
+        }
+        if (rowHasContent) {
+            fields.add(field.toString());
+            return true;
+        }
+        return false;
+    }
+
+    public int fieldCount() {
+        return fields.size();
+    }
+
+    public String field(int index) {
+        return fields.get(index);
+    }
+
+    private int read() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position++];
+    }
+
+    private int peek() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position];
+    }
+
+    private boolean fill() throws IOException {
+        if (in == null) {
+            return false;
+        }
+        int n = in.read(buffer, 0, buffer.length);
+        if (n <= 0) {
+            return false;
+        }
+        position = 0;
+        limit = n;
+        return true;
+    }
+}
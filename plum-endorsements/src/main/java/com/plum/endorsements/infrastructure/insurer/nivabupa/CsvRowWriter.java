@@ -0,0 +1,90 @@
+package com.plum.endorsements.infrastructure.insurer.nivabupa;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes CSV rows to a {@link Writer} as they are produced, so a batch file
+ * is never assembled in memory. Output is staged in a small buffer and
+ * handed to the writer in chunks, which keeps per-field calls off the
+ * writer's lock; call {@link #flush()} when done.
+ *
+ * <p>Data fields are always quoted, with embedded quotes doubled as RFC 4180
+ * requires; header names are written bare. Rows are separated by {@code \n}
+ * with no trailing newline, matching the files Niva Bupa already receives.</p>
+ */
+public final class CsvRowWriter {
+
+    private static final int CHUNK_CHARS = 8192;
+
+    private final Writer out;
+    private final StringBuilder chunk = new StringBuilder(CHUNK_CHARS + 256);
+    private char[] transfer = new char[CHUNK_CHARS + 256];
+    private boolean firstRow = true;
+    private boolean firstField = true;
+
+    public CsvRowWriter(Writer out) {
+        this.out = out;
+    }
+
+    public CsvRowWriter header(String... names) throws IOException {
+        for (String name : names) {
+            separate();
+            chunk.append(name);
+        }
+        return endRow();
+    }
+
+    public CsvRowWriter field(String value) throws IOException {
+        separate();
+        chunk.append('"');
+        if (value != null) {
+            int from = 0;
+            int quote = value.indexOf('"');
+            while (quote >= 0) {
+                chunk.append(value, from, quote + 1).append('"');
+                from = quote + 1;
+                quote = value.indexOf('"', from);
+            }
+            chunk.append(value, from, value.length());
+        }
+        chunk.append('"');
+        return this;
+    }
+
+    public CsvRowWriter endRow() throws IOException {
+        firstField = true;
+        if (chunk.length() >= CHUNK_CHARS) {
+            drain();
+        }
+        return this;
+    }
+
+    /** Writes out anything still buffered and flushes the underlying writer. */
+    public void flush() throws IOException {
+        drain();
+        out.flush();
+    }
+
+    private void separate() {
+        if (firstField) {
+            if (!firstRow) {
+                chunk.append('\n');
+            }
+            firstRow = false;
+            firstField = false;
+        } else {
+            chunk.append(',');
+        }
+    }
+
+    private void drain() throws IOException {
+        int length = chunk.length();
+        if (transfer.length < length) {
+            transfer = new char[length];
+        }
+        chunk.getChars(0, length, transfer, 0);
+        out.write(transfer, 0, length);
+        chunk.setLength(0);
+    }
+}
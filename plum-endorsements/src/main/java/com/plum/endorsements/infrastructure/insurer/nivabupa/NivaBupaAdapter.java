@@ -1,6 +1,7 @@
 package com.plum.endorsements.infrastructure.insurer.nivabupa;
 
 import com.plum.endorsements.domain.port.InsurerPort;
+import com.plum.endorsements.infrastructure.insurer.http.InsurerHttpClient;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
@@ -10,6 +11,7 @@ import org.springframework.stereotype.Component;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletionStage;
 
 @Slf4j
 @Component
@@ -18,6 +20,7 @@ public class NivaBupaAdapter implements InsurerPort {
 
     private final MeterRegistry meterRegistry;
     private final NivaBupaCsvMapper csvMapper;
+    private final InsurerHttpClient httpClient;
 
     @Override
     public SubmissionResult submitRealTime(UUID endorsementId, Map<String, Object> endorsementData) {
@@ -26,39 +29,34 @@ public class NivaBupaAdapter implements InsurerPort {
 
     @Override
     public String submitBatch(UUID batchId, List<Map<String, Object>> endorsements) {
+        return InsurerHttpClient.await(submitBatchAsync(batchId, endorsements));
+    }
+
+    @Override
+    public CompletionStage<String> submitBatchAsync(UUID batchId, List<Map<String, Object>> endorsements) {
         Timer.Sample sample = Timer.start(meterRegistry);
         log.info("Niva Bupa: submitting batch {} with {} endorsements via CSV", batchId, endorsements.size());
 
-        String csvPayload = csvMapper.toCsvBatch(endorsements);
-        log.debug("Niva Bupa: CSV payload size: {} bytes", csvPayload.length());
-
-        try {
-            // Simulated SFTP upload latency
-            Thread.sleep(200);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            log.warn("Niva Bupa batch submission interrupted for batch {}", batchId);
-        }
-
-        String batchReference = "NIVA-BATCH-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
-        log.info("Niva Bupa: batch {} uploaded with reference {}", batchId, batchReference);
-
-        sample.stop(meterRegistry.timer("endorsement.insurer.nivabupa.duration", "method", "submitBatch"));
-        return batchReference;
+        return httpClient.postStreaming("nivabupa/batches", "text/csv",
+                        out -> csvMapper.writeBatch(endorsements, out),
+                        InsurerHttpClient.BatchSubmissionResponse.class)
+                .thenApply(response -> {
+                    log.info("Niva Bupa: batch {} uploaded with reference {}", batchId, response.batchRef());
+                    return response.batchRef();
+                })
+                .whenComplete((r, t) -> sample.stop(
+                        meterRegistry.timer("endorsement.insurer.nivabupa.duration", "method", "submitBatch")));
     }
 
     @Override
     public BatchStatusResult checkBatchStatus(String insurerBatchRef) {
-        log.info("Niva Bupa: checking batch status for reference {}", insurerBatchRef);
-
-        try {
-            // Simulated SFTP download + parse latency
-            Thread.sleep(100);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
+        return InsurerHttpClient.await(checkBatchStatusAsync(insurerBatchRef));
+    }
 
-        return new BatchStatusResult("COMPLETED", List.of());
+    @Override
+    public CompletionStage<BatchStatusResult> checkBatchStatusAsync(String insurerBatchRef) {
+        log.info("Niva Bupa: checking batch status for reference {}", insurerBatchRef);
+        return httpClient.get("nivabupa/batches/" + insurerBatchRef, BatchStatusResult.class);
     }
 
     @Override
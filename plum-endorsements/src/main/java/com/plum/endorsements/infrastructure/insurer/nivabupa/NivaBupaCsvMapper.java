@@ -1,89 +1,132 @@
 package com.plum.endorsements.infrastructure.insurer.nivabupa;
 
+import com.plum.endorsements.infrastructure.insurer.mapping.CodeTable;
+import com.plum.endorsements.infrastructure.insurer.mapping.PayloadMappingPlan;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
 
+/**
+ * Maps endorsements to and from Niva Bupa's batch CSV. Batches are written to
+ * an {@link OutputStream} as they are encoded and read back a row at a time, so
+ * file size does not drive memory use. Quoted values may contain commas and
+ * quotes.
+ */
 @Component
 public class NivaBupaCsvMapper {
 
-    private static final String[] CSV_HEADERS = {
-            "PolicyNo", "MemberID", "MemberName", "DateOfBirth", "Gender",
-            "Relationship", "EndorsementType", "EffectiveDate", "SumInsured"
-    };
+    private static final CodeTable ENDORSEMENT_TYPES = CodeTable.of(Map.of(
+            "ADDITION", "A",
+            "DELETION", "D",
+            "MODIFICATION", "M",
+            "CORRECTION", "C"));
+
+    /** One batch file row, its fields named after the columns in the file's header. */
+    static final PayloadMappingPlan ROW = PayloadMappingPlan.builder("nivabupa-row")
+            .text("PolicyNo", "policy_id")
+            .text("MemberID", "employee_id")
+            .text("MemberName", "employee_name")
+            .text("DateOfBirth", "date_of_birth")
+            .text("Gender", "gender")
+            .text("Relationship", "relationship")
+            .code("EndorsementType", "type", "", ENDORSEMENT_TYPES)
+            .text("EffectiveDate", "coverage_start_date")
+            .text("SumInsured", "premium_amount")
+            .text("ClientRef", "endorsementId")
+            .build();
+
+    private static final String[] CSV_HEADERS = ROW.fieldNames().toArray(String[]::new);
+
+    // Rows read back carry every column but our own ClientRef, which stays last
+    private static final String[] FIELD_KEYS =
+            ROW.sourceKeys().subList(0, CSV_HEADERS.length - 1).toArray(String[]::new);
+
+    private static final int TYPE_COLUMN = ROW.fieldNames().indexOf("EndorsementType");
+
+    private static final CodeTable TYPES_READ = ENDORSEMENT_TYPES.inverse();
 
     public String toCsvRow(Map<String, Object> endorsementData) {
-        return String.join(",",
-                quote(str(endorsementData.get("policy_id"))),
-                quote(str(endorsementData.get("employee_id"))),
-                quote(str(endorsementData.get("employee_name"))),
-                quote(str(endorsementData.get("date_of_birth"))),
-                quote(str(endorsementData.get("gender"))),
-                quote(str(endorsementData.get("relationship"))),
-                quote(mapEndorsementType(str(endorsementData.get("type")))),
-                quote(str(endorsementData.get("coverage_start_date"))),
-                quote(str(endorsementData.get("premium_amount")))
-        );
+        StringWriter out = new StringWriter();
+        try {
+            CsvRowWriter csv = new CsvRowWriter(out);
+            writeRow(csv, endorsementData);
+            csv.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toString();
     }
 
     public String toCsvBatch(List<Map<String, Object>> endorsements) {
-        String header = String.join(",", CSV_HEADERS);
-        String rows = endorsements.stream()
-                .map(this::toCsvRow)
-                .collect(Collectors.joining("\n"));
-        return header + "\n" + rows;
+        StringWriter out = new StringWriter();
+        try {
+            writeBatch(endorsements, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toString();
     }
 
-    public Map<String, Object> fromCsvRow(String csvRow) {
-        String[] parts = csvRow.split(",");
-        Map<String, Object> mapped = new HashMap<>();
-        if (parts.length >= 9) {
-            mapped.put("policy_id", unquote(parts[0]));
-            mapped.put("employee_id", unquote(parts[1]));
-            mapped.put("employee_name", unquote(parts[2]));
-            mapped.put("date_of_birth", unquote(parts[3]));
-            mapped.put("gender", unquote(parts[4]));
-            mapped.put("relationship", unquote(parts[5]));
-            mapped.put("type", reverseMapEndorsementType(unquote(parts[6])));
-            mapped.put("coverage_start_date", unquote(parts[7]));
-            mapped.put("premium_amount", unquote(parts[8]));
-        }
-        return mapped;
+    /** Encodes a batch file as UTF-8 directly onto {@code out}, leaving it open. */
+    public void writeBatch(List<Map<String, Object>> endorsements, OutputStream out) throws IOException {
+        writeBatch(endorsements, new OutputStreamWriter(out, StandardCharsets.UTF_8));
     }
 
-    private String mapEndorsementType(String type) {
-        return switch (type) {
-            case "ADDITION" -> "A";
-            case "DELETION" -> "D";
-            case "MODIFICATION" -> "M";
-            case "CORRECTION" -> "C";
-            default -> type;
-        };
+    private void writeBatch(List<Map<String, Object>> endorsements, Writer out) throws IOException {
+        CsvRowWriter csv = new CsvRowWriter(out).header(CSV_HEADERS);
+        for (Map<String, Object> endorsement : endorsements) {
+            writeRow(csv, endorsement);
+        }
+        csv.flush();
     }
 
-    private String reverseMapEndorsementType(String code) {
-        return switch (code) {
-            case "A" -> "ADDITION";
-            case "D" -> "DELETION";
-            case "M" -> "MODIFICATION";
-            case "C" -> "CORRECTION";
-            default -> code;
-        };
+    private void writeRow(CsvRowWriter csv, Map<String, Object> endorsementData) throws IOException {
+        ROW.encode(endorsementData, (column, value) -> csv.field((String) value));
+        csv.endRow();
     }
 
-    private String quote(String value) {
-        return "\"" + (value != null ? value : "") + "\"";
+    public Map<String, Object> fromCsvRow(String csvRow) {
+        CsvRowReader row = new CsvRowReader(csvRow);
+        try {
+            return row.next() ? fromRow(row) : new HashMap<>();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
-    private String unquote(String value) {
-        if (value == null) return "";
-        return value.replaceAll("^\"|\"$", "").trim();
+    /**
+     * Reads a batch file row by row, skipping its header, and hands each
+     * endorsement to {@code action} before reading the next.
+     */
+    public void readBatch(Reader in, Consumer<Map<String, Object>> action) throws IOException {
+        CsvRowReader rows = new CsvRowReader(in);
+        if (!rows.next()) {
+            return;
+        }
+        while (rows.next()) {
+            action.accept(fromRow(rows));
+        }
     }
 
-    private String str(Object value) {
-        return value != null ? value.toString() : "";
+    private Map<String, Object> fromRow(CsvRowReader row) {
+        Map<String, Object> mapped = new HashMap<>();
+        if (row.fieldCount() >= FIELD_KEYS.length) {
+            for (int i = 0; i < FIELD_KEYS.length; i++) {
+                String value = row.field(i).trim();
+                mapped.put(FIELD_KEYS[i], i == TYPE_COLUMN ? TYPES_READ.translate(value) : value);
+            }
+        }
+        return mapped;
     }
 }
@@ -0,0 +1,102 @@
+package com.plum.endorsements.infrastructure.insurer.stub;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.plum.endorsements.infrastructure.insurer.callback.CallbackSignature;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Pushes a stub insurer's batch outcomes to the callback endpoint, signed
+ * with that insurer's secret as a real insurer would. Only insurers with
+ * both an id and a secret push; a push that is not acknowledged after a few
+ * tries is given up, leaving the batch for the poller.
+ */
+@Slf4j
+public class StubCallbackPusher {
+
+    private static final int ATTEMPTS = 3;
+    private static final Duration FIRST_BACKOFF = Duration.ofMillis(500);
+
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+    private final Function<UUID, URI> endpoint;
+    private final Map<String, UUID> insurerIds;
+    private final Map<UUID, String> secrets;
+
+    /**
+     * @param endpoint   the callback URL for an insurer id
+     * @param insurerIds insurer id by stub insurer name
+     * @param secrets    callback secret by insurer id
+     */
+    public StubCallbackPusher(ObjectMapper objectMapper, Function<UUID, URI> endpoint,
+                              Map<String, UUID> insurerIds, Map<UUID, String> secrets) {
+        this.objectMapper = objectMapper;
+        this.httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+        this.endpoint = endpoint;
+        this.insurerIds = Map.copyOf(insurerIds);
+        this.secrets = Map.copyOf(secrets);
+    }
+
+    public boolean pushes(String insurer) {
+        UUID insurerId = insurerIds.get(insurer);
+        return insurerId != null && secrets.containsKey(insurerId);
+    }
+
+    /** Sends {@code callback} for {@code insurer}; returns whether it was acknowledged. */
+    public boolean push(String insurer, Map<String, Object> callback) {
+        UUID insurerId = insurerIds.get(insurer);
+        String secret = secrets.get(insurerId);
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(callback);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot serialize stub callback", e);
+        }
+
+        Duration backoff = FIRST_BACKOFF;
+        for (int attempt = 1; attempt <= ATTEMPTS; attempt++) {
+            // Signed afresh each time, as the timestamp moves on
+            long timestamp = Instant.now().getEpochSecond();
+            HttpRequest request = HttpRequest.newBuilder(endpoint.apply(insurerId))
+                    .timeout(Duration.ofSeconds(10))
+                    .header("Content-Type", "application/json")
+                    .header(CallbackSignature.TIMESTAMP_HEADER, Long.toString(timestamp))
+                    .header(CallbackSignature.SIGNATURE_HEADER, CallbackSignature.sign(secret, timestamp, body))
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                    .build();
+            try {
+                int status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                if (status / 100 == 2) {
+                    return true;
+                }
+                log.debug("Stub callback for {} answered {} (attempt {})", insurer, status, attempt);
+            } catch (IOException e) {
+                log.debug("Stub callback for {} failed (attempt {}): {}", insurer, attempt, e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            if (attempt < ATTEMPTS) {
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+                backoff = backoff.multipliedBy(2);
+            }
+        }
+        log.warn("Stub insurer {} gave up pushing a callback; the poller will pick the batch up", insurer);
+        return false;
+    }
+}
@@ -0,0 +1,427 @@
+package com.plum.endorsements.infrastructure.insurer.stub;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.plum.endorsements.infrastructure.insurer.callback.CallbackSignature;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Embedded HTTP server standing in for the insurers, so the adapters make
+ * real HTTP calls, with real connection pooling and real concurrency, instead
+ * of sleeping. Each insurer answers under its own path prefix with the
+ * latency and failure mix configured in its {@link StubProfile}:
+ *
+ * <ul>
+ *   <li>{@code POST /{insurer}/endorsements} accepts or rejects one endorsement</li>
+ *   <li>{@code POST /{insurer}/batches} accepts a batch and returns its reference</li>
+ *   <li>{@code GET /{insurer}/batches/{ref}} reports PROCESSING until the batch has
+ *       been held for {@code batch-processing-ms}, then COMPLETED with a result for
+ *       every endorsement id found in the submitted body</li>
+ * </ul>
+ *
+ * <p>With a {@link StubCallbackPusher}, insurers it can sign for also push each
+ * batch's outcome to the callback endpoint once it completes, as insurers
+ * with webhooks do. Pushed or not, a completed batch's results can still be
+ * polled for an hour, so a caller that polls instead of waiting for the push,
+ * or polls again after losing an answer, gets them too.</p>
+ *
+ * <p>Request bodies are not parsed, so each insurer keeps its own wire format;
+ * endorsement ids are picked out of the body wherever they appear. Batches the
+ * server does not know, such as those submitted before a restart, report
+ * COMPLETED with no results. Binds to localhost only.</p>
+ *
+ * <p>Answers are JSON, except to callers that accept XML, which get the same
+ * answers as Bajaj Allianz-style SOAP responses. These are indented and bind
+ * the service namespace to a prefix of their own, as a real insurer might.</p>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "endorsement.insurer.stub.enabled", havingValue = "true", matchIfMissing = true)
+public class StubInsurerServer {
+
+    private static final Pattern UUID_PATTERN = Pattern.compile(
+            "[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}");
+    private static final String SOAP_NS = "http://schemas.xmlsoap.org/soap/envelope/";
+    private static final String SOAP_WS_NS = "http://bajajallianz.com/endorsement/ws";
+    private static final XMLOutputFactory XML_OUTPUT = XMLOutputFactory.newFactory();
+    // z-score of the 99th percentile of the standard normal distribution
+    private static final double Z_99 = 2.3263;
+    // How long a completed batch's results stay available to polls
+    private static final Duration RESULT_RETENTION = Duration.ofHours(1);
+
+    /**
+     * How one stub insurer behaves. Latency is log-normal with the given
+     * median and 99th percentile; each request independently fails with a 503
+     * at {@code errorRate}, hangs for {@code stallMs} at {@code timeoutRate},
+     * and otherwise is rejected at {@code rejectRate}. Batch references use
+     * {@code batchReferencePrefix}, defaulting to {@code referencePrefix-BATCH}.
+     */
+    public record StubProfile(String referencePrefix, String batchReferencePrefix,
+                              long medianLatencyMs, long p99LatencyMs,
+                              double errorRate, double timeoutRate, double rejectRate, long stallMs) {
+
+        public StubProfile {
+            if (batchReferencePrefix == null) {
+                batchReferencePrefix = referencePrefix + "-BATCH";
+            }
+            if (p99LatencyMs < medianLatencyMs) {
+                p99LatencyMs = medianLatencyMs;
+            }
+            if (stallMs <= 0) {
+                stallMs = 60_000;
+            }
+        }
+
+        long sampleLatencyMs() {
+            if (medianLatencyMs <= 0) {
+                return 0;
+            }
+            double sigma = Math.log((double) p99LatencyMs / medianLatencyMs) / Z_99;
+            return Math.round(medianLatencyMs * Math.exp(sigma * ThreadLocalRandom.current().nextGaussian()));
+        }
+    }
+
+    private record StubBatch(List<Map<String, Object>> results, Instant submittedAt) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final Map<String, StubProfile> profiles;
+    private final Duration batchProcessing;
+    private final Map<String, StubBatch> batches = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final StubCallbackPusher callbackPusher;
+    private final HttpServer server;
+
+    public StubInsurerServer(ObjectMapper objectMapper,
+                             Environment environment,
+                             @Value("${endorsement.insurer.stub.port:0}") int port,
+                             @Value("${endorsement.insurer.stub.batch-processing-ms:5000}") long batchProcessingMs,
+                             @Value("${endorsement.insurer.stub.callbacks.enabled:false}") boolean callbacksEnabled,
+                             @Value("${endorsement.insurer.stub.callbacks.url:}") String callbackUrl)
+            throws IOException {
+        this(objectMapper, Binder.get(environment)
+                        .bind("endorsement.insurer.stub.insurers", Bindable.mapOf(String.class, StubProfile.class))
+                        .orElse(Map.of()),
+                port, batchProcessingMs,
+                callbacksEnabled ? callbackPusher(objectMapper, environment, callbackUrl) : null);
+    }
+
+    public StubInsurerServer(ObjectMapper objectMapper, Map<String, StubProfile> profiles,
+                             int port, long batchProcessingMs) throws IOException {
+        this(objectMapper, profiles, port, batchProcessingMs, null);
+    }
+
+    public StubInsurerServer(ObjectMapper objectMapper, Map<String, StubProfile> profiles,
+                             int port, long batchProcessingMs, StubCallbackPusher callbackPusher) throws IOException {
+        this.objectMapper = objectMapper;
+        this.profiles = Map.copyOf(profiles);
+        this.batchProcessing = Duration.ofMillis(batchProcessingMs);
+        this.callbackPusher = callbackPusher;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.server.setExecutor(executor);
+        this.server.createContext("/", this::handle);
+        this.server.start();
+        log.info("Stub insurer server listening on {} for insurers {}", baseUri(), this.profiles.keySet());
+    }
+
+    /**
+     * Pushes to {@code url}, with {@code {insurerId}} filled in, or when it is
+     * blank to this application's own endpoint on the port it ended up on.
+     */
+    private static StubCallbackPusher callbackPusher(ObjectMapper objectMapper, Environment environment,
+                                                     String url) {
+        Map<String, UUID> insurerIds = Binder.get(environment)
+                .bind("endorsement.insurer.stub.callbacks.insurer-ids", Bindable.mapOf(String.class, UUID.class))
+                .orElse(Map.of());
+        return new StubCallbackPusher(objectMapper, insurerId -> URI.create((url.isBlank()
+                        ? "http://localhost:" + environment.getProperty("local.server.port", "8080")
+                                + "/api/v1/insurers/{insurerId}/callbacks"
+                        : url).replace("{insurerId}", insurerId.toString())),
+                insurerIds, CallbackSignature.secrets(environment));
+    }
+
+    public URI baseUri() {
+        return URI.create("http://localhost:" + server.getAddress().getPort() + "/");
+    }
+
+    @PreDestroy
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String[] path = exchange.getRequestURI().getPath().substring(1).split("/");
+            StubProfile profile = profiles.get(path[0]);
+            if (profile == null || path.length < 2) {
+                respond(exchange, 404, Map.of("error", "Unknown stub endpoint"));
+                return;
+            }
+            String body = readBody(exchange.getRequestBody());
+            if (!delay(profile)) {
+                return;
+            }
+            if (ThreadLocalRandom.current().nextDouble() < profile.errorRate()) {
+                respond(exchange, 503, Map.of("error", "Stub insurer unavailable"));
+                return;
+            }
+
+            String method = exchange.getRequestMethod();
+            boolean soap = acceptsXml(exchange);
+            if (path.length == 2 && path[1].equals("endorsements") && method.equals("POST")) {
+                Map<String, Object> submission = submission(profile);
+                if (soap) {
+                    respondSoap(exchange, 200, "SubmitEndorsementResponse", soapSubmission(submission));
+                } else {
+                    respond(exchange, 200, submission);
+                }
+            } else if (path.length == 2 && path[1].equals("batches") && method.equals("POST")) {
+                String batchRef = submitBatch(path[0], profile, body);
+                if (soap) {
+                    respondSoap(exchange, 202, "SubmitEndorsementBatchResponse", Map.of("BatchReference", batchRef));
+                } else {
+                    respond(exchange, 202, Map.of("batchRef", batchRef));
+                }
+            } else if (path.length == 3 && path[1].equals("batches") && method.equals("GET")) {
+                Map<String, Object> status = batchStatus(path[2]);
+                if (soap) {
+                    respondSoap(exchange, 200, "GetBatchStatusResponse", soapBatchStatus(status));
+                } else {
+                    respond(exchange, 200, status);
+                }
+            } else {
+                respond(exchange, 404, Map.of("error", "Unknown stub endpoint"));
+            }
+        } catch (Exception e) {
+            log.warn("Stub insurer failed to handle {}: {}", exchange.getRequestURI(), e.getMessage());
+        }
+    }
+
+    /**
+     * Sleeps for the sampled latency, or for the stall time when this request
+     * is chosen to time out. Returns false if the request stalled, in which
+     * case the client has given up and no response is sent.
+     */
+    private boolean delay(StubProfile profile) {
+        try {
+            if (ThreadLocalRandom.current().nextDouble() < profile.timeoutRate()) {
+                Thread.sleep(profile.stallMs());
+                return false;
+            }
+            Thread.sleep(profile.sampleLatencyMs());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private Map<String, Object> submission(StubProfile profile) {
+        Map<String, Object> response = new HashMap<>();
+        if (ThreadLocalRandom.current().nextDouble() < profile.rejectRate()) {
+            response.put("accepted", false);
+            response.put("error", "Rejected by insurer: member details did not match policy records");
+        } else {
+            response.put("accepted", true);
+            response.put("reference", profile.referencePrefix() + "-" + shortId());
+        }
+        return response;
+    }
+
+    private String submitBatch(String insurer, StubProfile profile, String body) {
+        Set<UUID> ids = new LinkedHashSet<>();
+        Matcher matcher = UUID_PATTERN.matcher(body);
+        while (matcher.find()) {
+            ids.add(UUID.fromString(matcher.group()));
+        }
+        // Rejections are drawn once, up front, so a push and a poll agree
+        List<Map<String, Object>> results = new ArrayList<>(ids.size());
+        for (UUID endorsementId : ids) {
+            boolean confirmed = ThreadLocalRandom.current().nextDouble() >= profile.rejectRate();
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("endorsementId", endorsementId);
+            result.put("confirmed", confirmed);
+            result.put("insurerReference", confirmed ? profile.referencePrefix() + "-" + shortId() : null);
+            result.put("rejectionReason", confirmed ? null : "Rejected by insurer during batch processing");
+            results.add(result);
+        }
+        Instant now = Instant.now();
+        batches.values().removeIf(batch -> batch.submittedAt().plus(batchProcessing).plus(RESULT_RETENTION)
+                .isBefore(now));
+        String batchRef = profile.batchReferencePrefix() + "-" + shortId();
+        batches.put(batchRef, new StubBatch(results, now));
+        if (callbackPusher != null && callbackPusher.pushes(insurer)) {
+            CompletableFuture.delayedExecutor(batchProcessing.toMillis(), TimeUnit.MILLISECONDS, executor)
+                    .execute(() -> pushCompleted(insurer, batchRef));
+        }
+        return batchRef;
+    }
+
+    private void pushCompleted(String insurer, String batchRef) {
+        StubBatch batch = batches.get(batchRef);
+        if (batch == null) {
+            return;
+        }
+        Map<String, Object> callback = new LinkedHashMap<>();
+        callback.put("batchReference", batchRef);
+        callback.put("status", "COMPLETED");
+        callback.put("results", batch.results());
+        callbackPusher.push(insurer, callback);
+    }
+
+    private Map<String, Object> batchStatus(String batchRef) {
+        StubBatch batch = batches.get(batchRef);
+        if (batch != null && Instant.now().isBefore(batch.submittedAt().plus(batchProcessing))) {
+            return Map.of("status", "PROCESSING", "results", List.of());
+        }
+        return Map.of("status", "COMPLETED", "results", batch != null ? batch.results() : List.of());
+    }
+
+    private void respond(HttpExchange exchange, int status, Object body) throws IOException {
+        byte[] bytes = objectMapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static boolean acceptsXml(HttpExchange exchange) {
+        String accept = exchange.getRequestHeaders().getFirst("Accept");
+        return accept != null && accept.contains("xml");
+    }
+
+    private static Map<String, Object> soapSubmission(Map<String, Object> submission) {
+        boolean accepted = Boolean.TRUE.equals(submission.get("accepted"));
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("TransactionId", submission.get("reference"));
+        fields.put("Status", accepted ? "ACCEPTED" : "REJECTED");
+        fields.put("Message", accepted ? "Endorsement processed successfully" : submission.get("error"));
+        return fields;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> soapBatchStatus(Map<String, Object> status) {
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (Map<String, Object> result : (List<Map<String, Object>>) status.get("results")) {
+            boolean confirmed = Boolean.TRUE.equals(result.get("confirmed"));
+            Map<String, Object> fields = new LinkedHashMap<>();
+            fields.put("ClientRef", result.get("endorsementId"));
+            fields.put("Status", confirmed ? "ACCEPTED" : "REJECTED");
+            fields.put("TransactionId", result.get("insurerReference"));
+            fields.put("Message", result.get("rejectionReason"));
+            results.add(fields);
+        }
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("Status", status.get("status"));
+        fields.put("Result", results);
+        return fields;
+    }
+
+    /**
+     * Writes {@code fields} as children of {@code operation} in a SOAP body.
+     * A list value becomes one element per entry; null values are left out.
+     */
+    private void respondSoap(HttpExchange exchange, int status, String operation, Map<String, Object> fields)
+            throws IOException {
+        StringWriter out = new StringWriter();
+        try {
+            XMLStreamWriter xml = XML_OUTPUT.createXMLStreamWriter(out);
+            xml.writeStartDocument("UTF-8", "1.0");
+            xml.writeCharacters("\n");
+            xml.writeStartElement("s", "Envelope", SOAP_NS);
+            xml.writeNamespace("s", SOAP_NS);
+            xml.writeNamespace("bag", SOAP_WS_NS);
+            xml.writeCharacters("\n  ");
+            xml.writeStartElement("s", "Body", SOAP_NS);
+            xml.writeCharacters("\n    ");
+            xml.writeStartElement("bag", operation, SOAP_WS_NS);
+            writeSoapFields(xml, fields, "\n      ");
+            xml.writeCharacters("\n    ");
+            xml.writeEndElement();
+            xml.writeCharacters("\n  ");
+            xml.writeEndElement();
+            xml.writeCharacters("\n");
+            xml.writeEndElement();
+            xml.writeEndDocument();
+            xml.close();
+        } catch (XMLStreamException e) {
+            throw new IOException(e);
+        }
+        byte[] bytes = out.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/xml; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream body = exchange.getResponseBody()) {
+            body.write(bytes);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void writeSoapFields(XMLStreamWriter xml, Map<String, Object> fields, String indent)
+            throws XMLStreamException {
+        for (Map.Entry<String, Object> field : fields.entrySet()) {
+            if (field.getValue() instanceof List<?> entries) {
+                for (Object entry : entries) {
+                    xml.writeCharacters(indent);
+                    xml.writeStartElement("bag", field.getKey(), SOAP_WS_NS);
+                    writeSoapFields(xml, (Map<String, Object>) entry, indent + "  ");
+                    xml.writeCharacters(indent);
+                    xml.writeEndElement();
+                }
+            } else if (field.getValue() != null) {
+                xml.writeCharacters(indent);
+                xml.writeStartElement("bag", field.getKey(), SOAP_WS_NS);
+                xml.writeCharacters(field.getValue().toString());
+                xml.writeEndElement();
+            }
+        }
+    }
+
+    private static String readBody(InputStream in) throws IOException {
+        return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+    }
+
+    private static String shortId() {
+        return UUID.randomUUID().toString().substring(0, 8).toUpperCase(Locale.ROOT);
+    }
+}
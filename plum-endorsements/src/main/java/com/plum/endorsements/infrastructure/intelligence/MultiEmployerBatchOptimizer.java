@@ -0,0 +1,401 @@
+package com.plum.endorsements.infrastructure.intelligence;
+
+import com.plum.endorsements.domain.model.EAAccount;
+import com.plum.endorsements.domain.model.Endorsement;
+import com.plum.endorsements.domain.model.EndorsementPriority;
+import com.plum.endorsements.domain.model.EndorsementType;
+import com.plum.endorsements.domain.port.BatchOptimizerPort;
+import com.plum.endorsements.domain.port.InsurerPort;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Picks the batch that maximises total urgency/EA-impact score subject to the
+ * insurer's {@code maxBatchSize} and, for every employer in the queue, that
+ * employer's available EA balance. Deletions go first and credit their
+ * employer's balance.
+ *
+ * <p>Additions and updates are chosen greedily by score per rupee, each
+ * employer's selection is replaced by its best single item when that scores
+ * higher (the classic 1/2-approximation), and a swap search then trades
+ * selected items for better unselected ones. Memory is linear in the queue and
+ * the search stops after {@code search-budget} candidate evaluations, so run
+ * time is bounded and the plan is deterministic. The plan reports how close it
+ * is to an upper bound from the LP relaxation and the slot limit.</p>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "endorsement.intelligence.batch-optimizer.enabled", havingValue = "true", matchIfMissing = true)
+public class MultiEmployerBatchOptimizer implements BatchOptimizerPort {
+
+    private static final double URGENCY_WEIGHT = 0.6;
+    private static final double EA_IMPACT_WEIGHT = 0.4;
+
+    private final MeterRegistry meterRegistry;
+    private final long searchBudget;
+
+    public MultiEmployerBatchOptimizer(
+            MeterRegistry meterRegistry,
+            @Value("${endorsement.intelligence.batch-optimizer.search-budget:1000000}") long searchBudget) {
+        this.meterRegistry = meterRegistry;
+        this.searchBudget = searchBudget;
+    }
+
+    @Override
+    public OptimizedBatchPlan optimizeBatch(List<Endorsement> queue, Map<UUID, EAAccount> accountsByEmployer,
+                                            InsurerPort.InsurerCapabilities capabilities) {
+        long startNanos = System.nanoTime();
+        int maxBatchSize = capabilities.maxBatchSize();
+
+        // Employer budgets in paise; employers without an account are unconstrained
+        Map<UUID, Integer> employerIndex = new HashMap<>();
+        List<UUID> employers = new ArrayList<>();
+        for (Endorsement e : queue) {
+            if (employerIndex.putIfAbsent(e.getEmployerId(), employers.size()) == null) {
+                employers.add(e.getEmployerId());
+            }
+        }
+        long[] budget = new long[employers.size()];
+        for (int k = 0; k < budget.length; k++) {
+            EAAccount account = accountsByEmployer.get(employers.get(k));
+            budget[k] = account != null ? Math.max(0, paise(account.availableBalance())) : Long.MAX_VALUE;
+        }
+
+        // 1. Deletions first, most urgent first; each frees balance for its employer
+        List<Endorsement> deletions = queue.stream()
+                .filter(e -> e.getType() == EndorsementType.DELETE)
+                .sorted(Comparator.comparingDouble((Endorsement e) ->
+                        compositeScore(e, accountsByEmployer.get(e.getEmployerId()))).reversed())
+                .limit(maxBatchSize)
+                .toList();
+        for (Endorsement deletion : deletions) {
+            int k = employerIndex.get(deletion.getEmployerId());
+            budget[k] = saturatedAdd(budget[k], paise(deletion.getPremiumAmount()));
+        }
+
+        // 2. Additions and updates under per-employer budgets and the remaining slots
+        List<Endorsement> candidates = queue.stream()
+                .filter(e -> e.getType() != EndorsementType.DELETE)
+                .toList();
+        Selection selection = new Selection(candidates, accountsByEmployer, employerIndex, budget,
+                maxBatchSize - deletions.size());
+        selection.greedy();
+        selection.bestSingleItemPerEmployer();
+        long evaluations = selection.swapSearch(searchBudget);
+        double upperBound = selection.upperBound();
+        double quality = upperBound > 0 ? Math.min(1.0, selection.totalValue() / upperBound) : 1.0;
+
+        List<Endorsement> optimized = new ArrayList<>(deletions);
+        optimized.addAll(selection.selectedByScore());
+
+        BigDecimal naiveCost = calculateNaiveCost(queue, maxBatchSize);
+        BigDecimal optimizedCost = calculateOptimizedCost(optimized);
+        BigDecimal savings = naiveCost.subtract(optimizedCost).max(BigDecimal.ZERO);
+
+        long durationMs = Duration.ofNanos(System.nanoTime() - startNanos).toMillis();
+
+        meterRegistry.summary("endorsement.batch.optimization.savings",
+                "strategy", "multi_employer").record(savings.doubleValue());
+        meterRegistry.summary("endorsement.batch.optimization.quality").record(quality);
+        meterRegistry.timer("endorsement.batch.optimization.duration").record(Duration.ofMillis(durationMs));
+
+        String strategy = String.format("Multi-employer greedy with swap search: %d of %d endorsed across "
+                        + "%d employer(s), deletions first, within %.1f%% of the bound. Savings: ₹%s",
+                optimized.size(), queue.size(), employers.size(), quality * 100, savings.toPlainString());
+
+        log.info("Batch optimization: {} items from {} queue, {} employer(s), quality={}, evaluations={}, took={}ms",
+                optimized.size(), queue.size(), employers.size(), String.format("%.3f", quality),
+                evaluations, durationMs);
+
+        return new OptimizedBatchPlan(optimized, strategy, savings, durationMs);
+    }
+
+    static double compositeScore(Endorsement e, EAAccount account) {
+        double urgencyScore = calculateUrgencyScore(e);
+        double eaImpactScore = calculateEAImpactScore(e, account);
+        return urgencyScore * URGENCY_WEIGHT + eaImpactScore * EA_IMPACT_WEIGHT;
+    }
+
+    private static double calculateUrgencyScore(Endorsement e) {
+        // Higher priority = higher score
+        int rank = EndorsementPriority.classify(e).getRank();
+        double priorityScore = (4 - rank) / 4.0; // P0=1.0, P1=0.75, P2=0.5, P3=0.25
+
+        // Days until coverage start (urgency factor)
+        if (e.getCoverageStartDate() != null) {
+            long daysUntil = ChronoUnit.DAYS.between(LocalDate.now(), e.getCoverageStartDate());
+            double timePressure = Math.max(0, 1.0 - (daysUntil / 30.0));
+            return (priorityScore + timePressure) / 2.0;
+        }
+
+        return priorityScore;
+    }
+
+    private static double calculateEAImpactScore(Endorsement e, EAAccount account) {
+        if (e.getType() == EndorsementType.DELETE) {
+            return 1.0; // Deletions always beneficial (free up balance)
+        }
+        if (account == null || e.getPremiumAmount() == null) {
+            return 0.5;
+        }
+        BigDecimal available = account.availableBalance();
+        if (available.signum() <= 0) return 0.0;
+
+        // Lower impact ratio = better (uses less of available balance)
+        double impactRatio = e.getPremiumAmount().doubleValue() / available.doubleValue();
+        return Math.max(0, 1.0 - impactRatio);
+    }
+
+    static long paise(BigDecimal amount) {
+        if (amount == null || amount.signum() <= 0) {
+            return 0;
+        }
+        return amount.movePointRight(2).setScale(0, RoundingMode.CEILING).longValue();
+    }
+
+    private static long saturatedAdd(long a, long b) {
+        long sum = a + b;
+        return ((a ^ sum) & (b ^ sum)) < 0 ? Long.MAX_VALUE : sum;
+    }
+
+    private BigDecimal calculateNaiveCost(List<Endorsement> queue, int maxBatchSize) {
+        return queue.stream()
+                .limit(maxBatchSize)
+                .filter(e -> e.getType() == EndorsementType.ADD || e.getType() == EndorsementType.UPDATE)
+                .map(e -> e.getPremiumAmount() != null ? e.getPremiumAmount() : BigDecimal.ZERO)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    private BigDecimal calculateOptimizedCost(List<Endorsement> optimized) {
+        return optimized.stream()
+                .filter(e -> e.getType() == EndorsementType.ADD || e.getType() == EndorsementType.UPDATE)
+                .map(e -> e.getPremiumAmount() != null ? e.getPremiumAmount() : BigDecimal.ZERO)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    /**
+     * Working state for the additions and updates: parallel arrays indexed by
+     * candidate, plus the balance each employer has left.
+     */
+    private static final class Selection {
+
+        private final List<Endorsement> candidates;
+        private final int n;
+        private final long[] cost;
+        private final double[] value;
+        private final int[] employer;
+        private final long[] budget;
+        private final long[] remaining;
+        private final boolean[] selected;
+        private final int slots;
+        private int used;
+
+        Selection(List<Endorsement> candidates, Map<UUID, EAAccount> accountsByEmployer,
+                  Map<UUID, Integer> employerIndex, long[] budget, int slots) {
+            this.candidates = candidates;
+            this.n = candidates.size();
+            this.cost = new long[n];
+            this.value = new double[n];
+            this.employer = new int[n];
+            for (int i = 0; i < n; i++) {
+                Endorsement e = candidates.get(i);
+                cost[i] = paise(e.getPremiumAmount());
+                value[i] = compositeScore(e, accountsByEmployer.get(e.getEmployerId()));
+                employer[i] = employerIndex.get(e.getEmployerId());
+            }
+            this.budget = budget;
+            this.remaining = budget.clone();
+            this.selected = new boolean[n];
+            this.slots = Math.max(0, slots);
+        }
+
+        void greedy() {
+            for (int i : byDensity()) {
+                if (used < slots && cost[i] <= remaining[employer[i]]) {
+                    select(i);
+                }
+            }
+        }
+
+        /**
+         * Replaces an employer's greedy picks with its best single affordable
+         * item when that one item scores higher than all of them together.
+         */
+        void bestSingleItemPerEmployer() {
+            double[] greedyValue = new double[budget.length];
+            int[] bestSingle = new int[budget.length];
+            Arrays.fill(bestSingle, -1);
+            for (int i = 0; i < n; i++) {
+                int k = employer[i];
+                if (selected[i]) {
+                    greedyValue[k] += value[i];
+                }
+                if (cost[i] <= budget[k] && (bestSingle[k] < 0 || value[i] > value[bestSingle[k]])) {
+                    bestSingle[k] = i;
+                }
+            }
+            for (int k = 0; k < budget.length; k++) {
+                int best = bestSingle[k];
+                if (best >= 0 && value[best] > greedyValue[k]) {
+                    for (int i = 0; i < n; i++) {
+                        if (employer[i] == k && selected[i]) {
+                            deselect(i);
+                        }
+                    }
+                    if (used < slots) {
+                        select(best);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Adds unselected candidates that fit, or swaps them for the
+         * lowest-scoring selected candidate whose removal makes room, until a
+         * pass finds no improvement or the evaluation budget runs out.
+         */
+        long swapSearch(long evaluationBudget) {
+            int[] byValue = byValue();
+            long evaluations = 0;
+            boolean improved = true;
+            while (improved && evaluations < evaluationBudget) {
+                improved = false;
+                for (int j : byValue) {
+                    if (selected[j]) {
+                        continue;
+                    }
+                    int k = employer[j];
+                    if (used < slots && cost[j] <= remaining[k]) {
+                        select(j);
+                        improved = true;
+                        continue;
+                    }
+                    int out = -1;
+                    for (int i = 0; i < n && evaluations < evaluationBudget; i++) {
+                        evaluations++;
+                        if (!selected[i] || value[i] >= value[j] || (out >= 0 && value[i] >= value[out])) {
+                            continue;
+                        }
+                        // A swap keeps the slot count; only j's employer balance can block it
+                        long room = employer[i] == k ? saturatedAdd(remaining[k], cost[i]) : remaining[k];
+                        if (cost[j] <= room) {
+                            out = i;
+                        }
+                    }
+                    if (out >= 0) {
+                        deselect(out);
+                        select(j);
+                        improved = true;
+                    }
+                    if (evaluations >= evaluationBudget) {
+                        break;
+                    }
+                }
+            }
+            return evaluations;
+        }
+
+        /**
+         * The smaller of two relaxations: each employer's fractional knapsack
+         * ignoring the slot limit, and the best {@code slots} scores ignoring
+         * balances.
+         */
+        double upperBound() {
+            double budgetBound = 0;
+            long[] left = budget.clone();
+            for (int i : byDensity()) {
+                int k = employer[i];
+                if (cost[i] <= left[k]) {
+                    budgetBound += value[i];
+                    if (left[k] != Long.MAX_VALUE) {
+                        left[k] -= cost[i];
+                    }
+                } else if (left[k] > 0) {
+                    budgetBound += value[i] * left[k] / cost[i];
+                    left[k] = 0;
+                }
+            }
+            double slotBound = 0;
+            int[] byValue = byValue();
+            for (int r = 0; r < Math.min(slots, n); r++) {
+                slotBound += value[byValue[r]];
+            }
+            return Math.min(budgetBound, slotBound);
+        }
+
+        double totalValue() {
+            double total = 0;
+            for (int i = 0; i < n; i++) {
+                if (selected[i]) {
+                    total += value[i];
+                }
+            }
+            return total;
+        }
+
+        List<Endorsement> selectedByScore() {
+            List<Endorsement> result = new ArrayList<>(used);
+            for (int i : byValue()) {
+                if (selected[i]) {
+                    result.add(candidates.get(i));
+                }
+            }
+            return result;
+        }
+
+        private void select(int i) {
+            selected[i] = true;
+            used++;
+            if (remaining[employer[i]] != Long.MAX_VALUE) {
+                remaining[employer[i]] -= cost[i];
+            }
+        }
+
+        private void deselect(int i) {
+            selected[i] = false;
+            used--;
+            if (remaining[employer[i]] != Long.MAX_VALUE) {
+                remaining[employer[i]] += cost[i];
+            }
+        }
+
+        // Score per rupee, best first; zero-cost candidates lead. Ties keep queue order.
+        private int[] byDensity() {
+            return sortedIndices(Comparator.comparingDouble((Integer i) -> -value[i] / Math.max(1, cost[i]))
+                    .thenComparingDouble(i -> -value[i]));
+        }
+
+        private int[] byValue() {
+            return sortedIndices(Comparator.comparingDouble((Integer i) -> -value[i]));
+        }
+
+        private int[] sortedIndices(Comparator<Integer> order) {
+            Integer[] indices = new Integer[n];
+            for (int i = 0; i < n; i++) {
+                indices[i] = i;
+            }
+            Arrays.sort(indices, order.thenComparingInt(i -> i));
+            int[] result = new int[n];
+            for (int i = 0; i < n; i++) {
+                result[i] = indices[i];
+            }
+            return result;
+        }
+    }
+}
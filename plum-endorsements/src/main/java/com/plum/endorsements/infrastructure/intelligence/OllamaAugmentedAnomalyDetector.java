@@ -1,5 +1,6 @@
 package com.plum.endorsements.infrastructure.intelligence;
 
+import com.plum.endorsements.domain.model.AnomalyFeatures;
 import com.plum.endorsements.domain.model.Endorsement;
 import com.plum.endorsements.domain.port.AnomalyDetectionPort;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
@@ -11,7 +12,6 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
-import java.util.List;
 
 @Slf4j
 @Component
@@ -26,8 +26,8 @@ public class OllamaAugmentedAnomalyDetector implements AnomalyDetectionPort {
     private double enrichmentThreshold;
 
     @Override
-    public AnomalyResult analyzeEndorsement(Endorsement endorsement, List<Endorsement> recentHistory) {
-        RuleBasedAnomalyScorer.ScoringResult scoringResult = scorer.score(endorsement, recentHistory);
+    public AnomalyResult analyzeEndorsement(Endorsement endorsement, AnomalyFeatures features) {
+        RuleBasedAnomalyScorer.ScoringResult scoringResult = scorer.score(endorsement, features);
 
         if (scoringResult.score() < enrichmentThreshold) {
             log.debug("Anomaly score {:.4f} below threshold {}, skipping LLM enrichment for endorsement {}",
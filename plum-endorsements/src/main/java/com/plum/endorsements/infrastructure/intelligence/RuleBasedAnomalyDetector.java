@@ -1,5 +1,6 @@
 package com.plum.endorsements.infrastructure.intelligence;
 
+import com.plum.endorsements.domain.model.AnomalyFeatures;
 import com.plum.endorsements.domain.model.Endorsement;
 import com.plum.endorsements.domain.port.AnomalyDetectionPort;
 import lombok.RequiredArgsConstructor;
@@ -7,7 +8,6 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
-import java.util.List;
 
 @Slf4j
 @Component
@@ -18,8 +18,8 @@ public class RuleBasedAnomalyDetector implements AnomalyDetectionPort {
     private final RuleBasedAnomalyScorer scorer;
 
     @Override
-    public AnomalyResult analyzeEndorsement(Endorsement endorsement, List<Endorsement> recentHistory) {
-        RuleBasedAnomalyScorer.ScoringResult result = scorer.score(endorsement, recentHistory);
+    public AnomalyResult analyzeEndorsement(Endorsement endorsement, AnomalyFeatures features) {
+        RuleBasedAnomalyScorer.ScoringResult result = scorer.score(endorsement, features);
 
         log.debug("Anomaly analysis for endorsement {}: type={}, score={:.4f}",
                 endorsement.getId(), result.anomalyType(), result.score());
@@ -1,9 +1,9 @@
 package com.plum.endorsements.infrastructure.intelligence;
 
+import com.plum.endorsements.domain.model.AnomalyFeatures;
 import com.plum.endorsements.domain.model.Endorsement;
 import com.plum.endorsements.domain.model.EndorsementType;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
 import org.springframework.stereotype.Component;
 
 import java.time.Instant;
@@ -12,39 +12,34 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
+/**
+ * Scores an endorsement against five rules. Every rule reads precomputed
+ * {@link AnomalyFeatures}, so scoring costs the same however much history the
+ * employer has.
+ */
 @Slf4j
 @Component
 public class RuleBasedAnomalyScorer {
 
-    public ScoringResult score(Endorsement endorsement, List<Endorsement> recentHistory) {
+    public ScoringResult score(Endorsement endorsement, AnomalyFeatures features) {
+        Instant now = Instant.now();
         List<ScoringResult> results = new ArrayList<>();
 
-        results.add(checkVolumeSpike(endorsement, recentHistory));
-        results.add(checkAddDeleteCycling(endorsement, recentHistory));
-        results.add(checkSuspiciousTiming(endorsement, recentHistory));
-        results.add(checkUnusualPremium(endorsement, recentHistory));
-        results.add(checkDormancyBreak(endorsement, recentHistory));
+        results.add(checkVolumeSpike(endorsement, features));
+        results.add(checkAddDeleteCycling(endorsement, features, now));
+        results.add(checkSuspiciousTiming(endorsement));
+        results.add(checkUnusualPremium(endorsement, features));
+        results.add(checkDormancyBreak(endorsement, features, now));
 
         return results.stream()
                 .max((a, b) -> Double.compare(a.score(), b.score()))
                 .orElse(new ScoringResult("NONE", 0.0, "No anomaly detected"));
     }
 
-    private ScoringResult checkVolumeSpike(Endorsement endorsement, List<Endorsement> history) {
+    private ScoringResult checkVolumeSpike(Endorsement endorsement, AnomalyFeatures features) {
         UUID employerId = endorsement.getEmployerId();
-        Instant last24h = Instant.now().minus(24, ChronoUnit.HOURS);
-
-        long recentCount = history.stream()
-                .filter(e -> e.getEmployerId().equals(employerId))
-                .filter(e -> e.getCreatedAt() != null && e.getCreatedAt().isAfter(last24h))
-                .count();
-
-        Instant last30d = Instant.now().minus(30, ChronoUnit.DAYS);
-        long totalInMonth = history.stream()
-                .filter(e -> e.getEmployerId().equals(employerId))
-                .filter(e -> e.getCreatedAt() != null && e.getCreatedAt().isAfter(last30d))
-                .count();
-        double dailyAvg = totalInMonth / 30.0;
+        long recentCount = features.employerCountLast24h();
+        double dailyAvg = features.employerCountLast30d() / 30.0;
 
         if (recentCount >= 10 && dailyAvg > 0 && recentCount > dailyAvg * 5) {
             double score = Math.min(0.95, 0.5 + (recentCount / (dailyAvg * 10)));
@@ -56,19 +51,13 @@ public class RuleBasedAnomalyScorer {
         return new ScoringResult("VOLUME_SPIKE", 0.0, "Normal volume");
     }
 
-    private ScoringResult checkAddDeleteCycling(Endorsement endorsement, List<Endorsement> history) {
+    private ScoringResult checkAddDeleteCycling(Endorsement endorsement, AnomalyFeatures features, Instant now) {
         UUID employeeId = endorsement.getEmployeeId();
         UUID employerId = endorsement.getEmployerId();
-        Instant windowStart = Instant.now().minus(30, ChronoUnit.DAYS);
-
-        List<Endorsement> employeeHistory = history.stream()
-                .filter(e -> e.getEmployeeId() != null && e.getEmployeeId().equals(employeeId))
-                .filter(e -> e.getEmployerId().equals(employerId))
-                .filter(e -> e.getCreatedAt() != null && e.getCreatedAt().isAfter(windowStart))
-                .toList();
+        Instant windowStart = now.minus(30, ChronoUnit.DAYS);
 
-        boolean hasAdd = employeeHistory.stream().anyMatch(e -> e.getType() == EndorsementType.ADD);
-        boolean hasDelete = employeeHistory.stream().anyMatch(e -> e.getType() == EndorsementType.DELETE);
+        boolean hasAdd = features.employeeLastAdd() != null && features.employeeLastAdd().isAfter(windowStart);
+        boolean hasDelete = features.employeeLastDelete() != null && features.employeeLastDelete().isAfter(windowStart);
 
         if (hasAdd && hasDelete) {
             return new ScoringResult("ADD_DELETE_CYCLING", 0.85,
@@ -79,7 +68,7 @@ public class RuleBasedAnomalyScorer {
         return new ScoringResult("ADD_DELETE_CYCLING", 0.0, "No cycling detected");
     }
 
-    private ScoringResult checkSuspiciousTiming(Endorsement endorsement, List<Endorsement> history) {
+    private ScoringResult checkSuspiciousTiming(Endorsement endorsement) {
         if (endorsement.getType() != EndorsementType.ADD) {
             return new ScoringResult("SUSPICIOUS_TIMING", 0.0, "Not an addition");
         }
@@ -97,25 +86,17 @@ public class RuleBasedAnomalyScorer {
         return new ScoringResult("SUSPICIOUS_TIMING", 0.0, "Normal timing");
     }
 
-    private ScoringResult checkUnusualPremium(Endorsement endorsement, List<Endorsement> history) {
+    private ScoringResult checkUnusualPremium(Endorsement endorsement, AnomalyFeatures features) {
         if (endorsement.getPremiumAmount() == null) {
             return new ScoringResult("UNUSUAL_PREMIUM", 0.0, "No premium to check");
         }
 
-        UUID employerId = endorsement.getEmployerId();
-        DescriptiveStatistics stats = new DescriptiveStatistics();
-
-        history.stream()
-                .filter(e -> e.getEmployerId().equals(employerId))
-                .filter(e -> e.getPremiumAmount() != null)
-                .forEach(e -> stats.addValue(e.getPremiumAmount().doubleValue()));
-
-        if (stats.getN() < 5) {
+        if (features.premiumCount() < 5) {
             return new ScoringResult("UNUSUAL_PREMIUM", 0.0, "Insufficient data for premium analysis");
         }
 
-        double mean = stats.getMean();
-        double stdDev = stats.getStandardDeviation();
+        double mean = features.premiumMean();
+        double stdDev = features.premiumStdDev();
         double premium = endorsement.getPremiumAmount().doubleValue();
 
         if (stdDev > 0 && Math.abs(premium - mean) > 3 * stdDev) {
@@ -127,25 +108,19 @@ public class RuleBasedAnomalyScorer {
         return new ScoringResult("UNUSUAL_PREMIUM", 0.0, "Premium within normal range");
     }
 
-    private ScoringResult checkDormancyBreak(Endorsement endorsement, List<Endorsement> history) {
+    private ScoringResult checkDormancyBreak(Endorsement endorsement, AnomalyFeatures features, Instant now) {
         UUID employeeId = endorsement.getEmployeeId();
         if (employeeId == null) {
             return new ScoringResult("DORMANCY_BREAK", 0.0, "No employee ID to check");
         }
 
-        Instant mostRecent = history.stream()
-                .filter(e -> !e.getId().equals(endorsement.getId()))
-                .filter(e -> e.getEmployeeId() != null && e.getEmployeeId().equals(employeeId))
-                .filter(e -> e.getCreatedAt() != null)
-                .map(Endorsement::getCreatedAt)
-                .max(Instant::compareTo)
-                .orElse(null);
+        Instant mostRecent = features.employeePriorActivity();
 
         if (mostRecent == null) {
             return new ScoringResult("DORMANCY_BREAK", 0.0, "No history for employee");
         }
 
-        long daysSinceLastActivity = ChronoUnit.DAYS.between(mostRecent, Instant.now());
+        long daysSinceLastActivity = ChronoUnit.DAYS.between(mostRecent, now);
 
         if (daysSinceLastActivity > 90) {
             double score = Math.min(0.85, 0.6 + (daysSinceLastActivity / 365.0));
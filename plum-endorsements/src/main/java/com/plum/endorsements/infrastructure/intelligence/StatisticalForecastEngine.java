@@ -1,10 +1,9 @@
 package com.plum.endorsements.infrastructure.intelligence;
 
 import com.plum.endorsements.domain.model.Endorsement;
-import com.plum.endorsements.domain.model.EndorsementType;
+import com.plum.endorsements.domain.model.EndorsementVolumeSeries;
 import com.plum.endorsements.domain.port.BalanceForecastPort;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -56,6 +55,11 @@ public class StatisticalForecastEngine implements BalanceForecastPort {
         this.creditDelayDays = creditDelayDays;
     }
 
+    @Override
+    public int historyDays() {
+        return HISTORY_DAYS;
+    }
+
     @Override
     public ForecastResult generateForecast(UUID employerId, UUID insurerId, List<Endorsement> history) {
         Instant cutoff = Instant.now().minus(HISTORY_DAYS, ChronoUnit.DAYS);
@@ -66,34 +70,27 @@ public class StatisticalForecastEngine implements BalanceForecastPort {
                 .filter(e -> e.getCreatedAt() != null && e.getCreatedAt().isAfter(cutoff))
                 .toList();
 
-        // Filter to ADD endorsements for burn rate
-        List<Endorsement> relevantAdds = relevantForEmployerInsurer.stream()
-                .filter(e -> e.getType() == EndorsementType.ADD)
-                .toList();
+        return generateForecast(EndorsementVolumeSeries.of(employerId, insurerId, relevantForEmployerInsurer));
+    }
 
-        // Filter to DELETE endorsements for credit rate
-        List<Endorsement> relevantDeletes = relevantForEmployerInsurer.stream()
-                .filter(e -> e.getType() == EndorsementType.DELETE)
-                .toList();
+    @Override
+    public ForecastResult generateForecast(EndorsementVolumeSeries history) {
+        UUID employerId = history.employerId();
+        UUID insurerId = history.insurerId();
 
         // Calculate daily burn rate from ADDs
-        DescriptiveStatistics premiumStats = new DescriptiveStatistics();
-        relevantAdds.stream()
-                .filter(e -> e.getPremiumAmount() != null)
-                .forEach(e -> premiumStats.addValue(e.getPremiumAmount().doubleValue()));
-
-        double avgPremium = premiumStats.getN() > 0 ? premiumStats.getMean() : 0;
-        double dailyEndorsements = relevantAdds.size() / (double) HISTORY_DAYS;
+        int additions = history.additions();
+        int pricedAdditions = history.pricedAdditions();
+        double avgPremium = pricedAdditions > 0
+                ? history.additionPremium().doubleValue() / pricedAdditions : 0;
+        double dailyEndorsements = additions / (double) HISTORY_DAYS;
         double baseDailyBurnRate = avgPremium * dailyEndorsements;
 
         // Calculate daily credit rate from DELETEs (delayed by creditDelayDays)
-        DescriptiveStatistics creditStats = new DescriptiveStatistics();
-        relevantDeletes.stream()
-                .filter(e -> e.getPremiumAmount() != null)
-                .forEach(e -> creditStats.addValue(e.getPremiumAmount().doubleValue()));
-
-        double avgCreditPremium = creditStats.getN() > 0 ? creditStats.getMean() : 0;
-        double dailyDeleteRate = relevantDeletes.size() / (double) HISTORY_DAYS;
+        int pricedDeletions = history.pricedDeletions();
+        double avgCreditPremium = pricedDeletions > 0
+                ? history.deletionPremium().doubleValue() / pricedDeletions : 0;
+        double dailyDeleteRate = history.deletions() / (double) HISTORY_DAYS;
         double baseDailyCreditRate = avgCreditPremium * dailyDeleteRate;
 
         // Project 30 days ahead with seasonality
@@ -126,7 +123,7 @@ public class StatisticalForecastEngine implements BalanceForecastPort {
         boolean topUpRequired = false;
 
         // Generate narrative
-        double confidence = Math.min(95, 50 + (premiumStats.getN() * 0.5));
+        double confidence = Math.min(95, 50 + (pricedAdditions * 0.5));
         String creditNarrative = baseDailyCreditRate > 0
                 ? String.format(" Delete credits (₹%.2f/day, %d-day delay) offset ₹%.2f.",
                         baseDailyCreditRate, creditDelayDays,
@@ -136,7 +133,7 @@ public class StatisticalForecastEngine implements BalanceForecastPort {
                 "Based on %d-day trends (%d ADD endorsements, avg premium ₹%.2f), " +
                 "employer will need approximately ₹%s over the next %d days. " +
                 "Daily burn rate: ₹%s.%s Seasonality-adjusted. Confidence: %.0f%%.",
-                HISTORY_DAYS, relevantAdds.size(), avgPremium,
+                HISTORY_DAYS, additions, avgPremium,
                 forecastedNeed.toPlainString(), forecastDays,
                 dailyBurnRate.toPlainString(), creditNarrative, confidence);
 
@@ -7,16 +7,22 @@ import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.MDC;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Component;
 
+/**
+ * Publishes straight to Kafka from the calling thread. Only active when the
+ * transactional outbox is switched off; see {@link OutboxEventPublisher}.
+ */
 @Slf4j
 @Component
+@ConditionalOnProperty(name = "endorsement.events.outbox.enabled", havingValue = "false")
 @RequiredArgsConstructor
 public class KafkaEventPublisher implements EventPublisher {
 
-    private static final String TOPIC = "endorsement-events";
+    static final String TOPIC = "endorsement-events";
 
     private final KafkaTemplate<String, String> kafkaTemplate;
     private final ObjectMapper objectMapper;
@@ -28,9 +34,7 @@ public class KafkaEventPublisher implements EventPublisher {
     public void publish(EndorsementEvent event) {
         try {
             MDC.put("kafkaEventType", event.eventType());
-            String key = event.employerId() != null
-                    ? event.employerId().toString()
-                    : event.endorsementId().toString();
+            String key = partitionKey(event);
             String payload = objectMapper.writeValueAsString(event);
 
             kafkaTemplate.send(TOPIC, key, payload);
@@ -60,4 +64,13 @@ public class KafkaEventPublisher implements EventPublisher {
             MDC.remove("kafkaEventType");
         }
     }
+
+    /**
+     * Events of one employer share a partition so consumers see them in order.
+     */
+    static String partitionKey(EndorsementEvent event) {
+        return event.employerId() != null
+                ? event.employerId().toString()
+                : event.endorsementId().toString();
+    }
 }
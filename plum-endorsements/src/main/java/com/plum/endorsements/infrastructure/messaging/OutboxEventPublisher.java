@@ -0,0 +1,146 @@
+package com.plum.endorsements.infrastructure.messaging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.plum.endorsements.domain.model.EndorsementEvent;
+import com.plum.endorsements.domain.port.EventPublisher;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes events to the {@code event_outbox} table instead of sending them to
+ * Kafka, so an event exists if and only if the transaction that raised it
+ * commits. Events raised inside a transaction are buffered and inserted with one
+ * JDBC batch just before commit; {@link OutboxRelay} forwards them to Kafka.
+ *
+ * <p>WebSocket subscribers are notified after commit, so the UI never shows a
+ * change that was rolled back.</p>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "endorsement.events.outbox.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class OutboxEventPublisher implements EventPublisher {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO event_outbox (topic, message_key, event_type, payload, created_at) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    @Nullable
+    private final WebSocketEventBroadcaster webSocketBroadcaster;
+
+    private record OutboxRecord(EndorsementEvent event, String key, String payload, Instant createdAt) {
+    }
+
+    @Override
+    public void publish(EndorsementEvent event) {
+        enqueue(List.of(toRecord(event)));
+    }
+
+    /**
+     * Same as {@link #publish} for each event, but outside a transaction the
+     * events go to the outbox in one JDBC batch rather than one insert each.
+     */
+    @Override
+    public void publishAll(List<? extends EndorsementEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        List<OutboxRecord> records = new ArrayList<>(events.size());
+        for (EndorsementEvent event : events) {
+            records.add(toRecord(event));
+        }
+        enqueue(records);
+    }
+
+    private void enqueue(List<OutboxRecord> records) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()
+                && TransactionSynchronizationManager.isActualTransactionActive()) {
+            PendingEvents pending = (PendingEvents) TransactionSynchronizationManager.getResource(this);
+            if (pending == null) {
+                pending = new PendingEvents();
+                TransactionSynchronizationManager.bindResource(this, pending);
+                TransactionSynchronizationManager.registerSynchronization(pending);
+            }
+            pending.records.addAll(records);
+        } else {
+            write(records);
+            broadcast(records);
+        }
+    }
+
+    private OutboxRecord toRecord(EndorsementEvent event) {
+        try {
+            return new OutboxRecord(event, KafkaEventPublisher.partitionKey(event),
+                    objectMapper.writeValueAsString(event), Instant.now());
+        } catch (Exception e) {
+            meterRegistry.counter("endorsement.outbox.write",
+                    "result", "failure", "eventType", event.eventType()).increment();
+            log.error("Failed to serialize event [type={}, endorsementId={}]: {}",
+                    event.eventType(), event.endorsementId(), e.getMessage(), e);
+            throw new RuntimeException("Failed to publish endorsement event", e);
+        }
+    }
+
+    private void write(List<OutboxRecord> records) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, records, records.size(), (ps, record) -> {
+            ps.setString(1, KafkaEventPublisher.TOPIC);
+            ps.setString(2, record.key());
+            ps.setString(3, record.event().eventType());
+            ps.setString(4, record.payload());
+            ps.setTimestamp(5, Timestamp.from(record.createdAt()));
+        });
+        for (OutboxRecord record : records) {
+            meterRegistry.counter("endorsement.outbox.write",
+                    "result", "success", "eventType", record.event().eventType()).increment();
+        }
+        log.debug("Wrote {} event(s) to outbox", records.size());
+    }
+
+    private void broadcast(List<OutboxRecord> records) {
+        if (webSocketBroadcaster == null) {
+            return;
+        }
+        for (OutboxRecord record : records) {
+            try {
+                webSocketBroadcaster.broadcast(record.event());
+            } catch (Exception wsEx) {
+                log.warn("WebSocket broadcast failed for event [type={}]: {}",
+                        record.event().eventType(), wsEx.getMessage());
+            }
+        }
+    }
+
+    private class PendingEvents implements TransactionSynchronization {
+
+        private final List<OutboxRecord> records = new ArrayList<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            if (!records.isEmpty()) {
+                write(records);
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(OutboxEventPublisher.this);
+            if (status == STATUS_COMMITTED) {
+                broadcast(records);
+            }
+        }
+    }
+}
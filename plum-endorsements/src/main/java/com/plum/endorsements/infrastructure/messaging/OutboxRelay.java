@@ -0,0 +1,148 @@
+package com.plum.endorsements.infrastructure.messaging;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains {@code event_outbox} to Kafka. Each batch is read in id order and sent
+ * without waiting between records, so the producer pipelines one compressed
+ * batch per partition; the relay then waits for the acknowledgements and deletes
+ * the delivered rows with a single statement.
+ *
+ * <p>Only the prefix of a batch up to the first failed send is deleted, so a
+ * failure is retried on the next run without reordering events behind it.
+ * Delivery is therefore at-least-once. ShedLock keeps a single relay running
+ * across replicas.</p>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "endorsement.events.outbox.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+    private static final String SELECT_SQL =
+            "SELECT id, topic, message_key, payload, created_at FROM event_outbox ORDER BY id LIMIT ?";
+    private static final String DELETE_SQL = "DELETE FROM event_outbox WHERE id = ANY (?)";
+
+    record OutboxRow(long id, String topic, String key, String payload, Instant createdAt) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int batchSize;
+    private final long maxDrainMs;
+    private final long sendTimeoutMs;
+    private final AtomicLong lagMs = new AtomicLong();
+
+    public OutboxRelay(JdbcTemplate jdbcTemplate,
+                       KafkaTemplate<String, String> kafkaTemplate,
+                       MeterRegistry meterRegistry,
+                       @Value("${endorsement.events.outbox.batch-size:500}") int batchSize,
+                       @Value("${endorsement.events.outbox.max-drain-ms:5000}") long maxDrainMs,
+                       @Value("${endorsement.events.outbox.send-timeout-ms:30000}") long sendTimeoutMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.kafkaTemplate = kafkaTemplate;
+        this.meterRegistry = meterRegistry;
+        this.batchSize = batchSize;
+        this.maxDrainMs = maxDrainMs;
+        this.sendTimeoutMs = sendTimeoutMs;
+
+        Gauge.builder("endorsement.outbox.lag.seconds", lagMs, lag -> lag.get() / 1000.0)
+                .description("Age of the oldest outbox event seen by the last relay run")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${endorsement.events.outbox.relay-interval-ms:200}")
+    @SchedulerLock(name = "outboxRelay", lockAtMostFor = "PT2M")
+    public void relay() {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String result = "success";
+        try {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxDrainMs);
+            int relayed;
+            do {
+                relayed = relayBatch();
+            } while (relayed == batchSize && System.nanoTime() < deadline);
+        } catch (Exception e) {
+            result = "failure";
+            log.error("Outbox relay failed", e);
+        } finally {
+            sample.stop(meterRegistry.timer("endorsement.scheduler.duration",
+                    "scheduler", "outbox_relay", "result", result));
+            meterRegistry.counter("endorsement.scheduler.execution",
+                    "scheduler", "outbox_relay", "result", result).increment();
+        }
+    }
+
+    /**
+     * Sends one batch and returns how many rows were delivered and deleted.
+     * Returns less than the batch size when the outbox is drained or a send
+     * failed, which ends the current run.
+     */
+    int relayBatch() {
+        List<OutboxRow> rows = jdbcTemplate.query(SELECT_SQL, (rs, rowNum) -> new OutboxRow(
+                rs.getLong("id"),
+                rs.getString("topic"),
+                rs.getString("message_key"),
+                rs.getString("payload"),
+                rs.getTimestamp("created_at").toInstant()), batchSize);
+        if (rows.isEmpty()) {
+            lagMs.set(0);
+            return 0;
+        }
+        lagMs.set(Math.max(0, Duration.between(rows.get(0).createdAt(), Instant.now()).toMillis()));
+
+        List<CompletableFuture<SendResult<String, String>>> sends = new ArrayList<>(rows.size());
+        for (OutboxRow row : rows) {
+            sends.add(kafkaTemplate.send(row.topic(), row.key(), row.payload()));
+        }
+        // Do not wait out linger.ms on the last partial batches
+        kafkaTemplate.flush();
+
+        List<Long> delivered = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            OutboxRow row = rows.get(i);
+            try {
+                sends.get(i).get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+                delivered.add(row.id());
+            } catch (Exception e) {
+                meterRegistry.counter("endorsement.outbox.relay", "result", "failure").increment();
+                log.warn("Outbox relay stopped at event {} (key={}); {} earlier event(s) delivered: {}",
+                        row.id(), row.key(), delivered.size(), e.getMessage());
+                break;
+            }
+        }
+
+        if (!delivered.isEmpty()) {
+            jdbcTemplate.update(con -> {
+                PreparedStatement ps = con.prepareStatement(DELETE_SQL);
+                Array ids = con.createArrayOf("bigint", delivered.toArray());
+                ps.setArray(1, ids);
+                return ps;
+            });
+            meterRegistry.counter("endorsement.outbox.relay", "result", "success").increment(delivered.size());
+            log.debug("Relayed {} outbox event(s)", delivered.size());
+        }
+        return delivered.size();
+    }
+}
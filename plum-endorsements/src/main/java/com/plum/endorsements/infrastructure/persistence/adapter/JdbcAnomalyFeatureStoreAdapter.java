@@ -0,0 +1,209 @@
+package com.plum.endorsements.infrastructure.persistence.adapter;
+
+import com.plum.endorsements.domain.model.AnomalyFeatures;
+import com.plum.endorsements.domain.model.Endorsement;
+import com.plum.endorsements.domain.model.EndorsementType;
+import com.plum.endorsements.domain.port.AnomalyFeatureStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Feature store backed by three small tables (see V24). Recording is a few
+ * upserts per chunk of endorsements and reading is three primary-key lookups,
+ * independent of how many endorsements exist.
+ *
+ * <p>Rows are written in key order so concurrent recorders lock them in the
+ * same order.</p>
+ */
+@Component
+@RequiredArgsConstructor
+public class JdbcAnomalyFeatureStoreAdapter implements AnomalyFeatureStore {
+
+    static final String HOUR = "HOUR";
+    static final String DAY = "DAY";
+
+    private static final String UPSERT_ACTIVITY_SQL =
+            "INSERT INTO anomaly_employer_activity (employer_id, bucket_span, bucket_start, endorsement_count) "
+            + "VALUES (?, ?, ?, ?) ON CONFLICT (employer_id, bucket_span, bucket_start) DO UPDATE "
+            + "SET endorsement_count = anomaly_employer_activity.endorsement_count + EXCLUDED.endorsement_count";
+
+    // Merges a chunk's (count, mean, m2) into the running statistics (Chan et al.)
+    private static final String UPSERT_PREMIUM_SQL =
+            "INSERT INTO anomaly_employer_features AS f (employer_id, premium_count, premium_mean, premium_m2, updated_at) "
+            + "VALUES (?, ?, ?, ?, now()) ON CONFLICT (employer_id) DO UPDATE SET "
+            + "premium_count = f.premium_count + EXCLUDED.premium_count, "
+            + "premium_mean = f.premium_mean + (EXCLUDED.premium_mean - f.premium_mean) "
+            + "* EXCLUDED.premium_count / (f.premium_count + EXCLUDED.premium_count), "
+            + "premium_m2 = f.premium_m2 + EXCLUDED.premium_m2 + (EXCLUDED.premium_mean - f.premium_mean) "
+            + "* (EXCLUDED.premium_mean - f.premium_mean) * f.premium_count * EXCLUDED.premium_count "
+            + "/ (f.premium_count + EXCLUDED.premium_count), "
+            + "updated_at = now()";
+
+    private static final String UPSERT_EMPLOYEE_SQL =
+            "INSERT INTO anomaly_employee_features AS f (employer_id, employee_id, last_endorsement_id, "
+            + "last_activity_at, previous_activity_at, last_add_at, last_delete_at) "
+            + "VALUES (?, ?, ?, ?, NULL, ?, ?) ON CONFLICT (employer_id, employee_id) DO UPDATE SET "
+            + "last_endorsement_id = EXCLUDED.last_endorsement_id, "
+            + "previous_activity_at = f.last_activity_at, "
+            + "last_activity_at = EXCLUDED.last_activity_at, "
+            + "last_add_at = COALESCE(EXCLUDED.last_add_at, f.last_add_at), "
+            + "last_delete_at = COALESCE(EXCLUDED.last_delete_at, f.last_delete_at)";
+
+    private static final String SELECT_ACTIVITY_SQL =
+            "SELECT COALESCE(SUM(endorsement_count) FILTER (WHERE bucket_span = 'HOUR'), 0) AS last_24h, "
+            + "COALESCE(SUM(endorsement_count) FILTER (WHERE bucket_span = 'DAY'), 0) AS last_30d "
+            + "FROM anomaly_employer_activity WHERE employer_id = ? "
+            + "AND ((bucket_span = 'HOUR' AND bucket_start >= ?) OR (bucket_span = 'DAY' AND bucket_start >= ?))";
+
+    private static final String SELECT_PREMIUM_SQL =
+            "SELECT premium_count, premium_mean, premium_m2 FROM anomaly_employer_features WHERE employer_id = ?";
+
+    private static final String SELECT_EMPLOYEE_SQL =
+            "SELECT last_endorsement_id, last_activity_at, previous_activity_at, last_add_at, last_delete_at "
+            + "FROM anomaly_employee_features WHERE employer_id = ? AND employee_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private record ActivityKey(UUID employerId, String span, Instant bucketStart) {
+    }
+
+    private record EmployeeRow(UUID endorsementId, Instant lastActivity, Instant previousActivity,
+                               Instant lastAdd, Instant lastDelete) {
+    }
+
+    @Override
+    public void record(List<Endorsement> endorsements) {
+        if (endorsements.isEmpty()) {
+            return;
+        }
+        recordActivity(endorsements);
+        recordPremiums(endorsements);
+        recordEmployees(endorsements);
+    }
+
+    private void recordActivity(List<Endorsement> endorsements) {
+        Map<ActivityKey, Integer> counts = new TreeMap<>(Comparator
+                .comparing(ActivityKey::employerId)
+                .thenComparing(ActivityKey::span)
+                .thenComparing(ActivityKey::bucketStart));
+        for (Endorsement endorsement : endorsements) {
+            Instant createdAt = endorsement.getCreatedAt();
+            counts.merge(new ActivityKey(endorsement.getEmployerId(), HOUR,
+                    createdAt.truncatedTo(ChronoUnit.HOURS)), 1, Integer::sum);
+            counts.merge(new ActivityKey(endorsement.getEmployerId(), DAY,
+                    createdAt.truncatedTo(ChronoUnit.DAYS)), 1, Integer::sum);
+        }
+        List<Object[]> args = new ArrayList<>(counts.size());
+        counts.forEach((key, count) -> args.add(new Object[]{
+                key.employerId(), key.span(), Timestamp.from(key.bucketStart()), count}));
+        jdbcTemplate.batchUpdate(UPSERT_ACTIVITY_SQL, args);
+    }
+
+    private void recordPremiums(List<Endorsement> endorsements) {
+        // Welford per employer over the chunk; the upsert merges it into the stored totals
+        Map<UUID, double[]> stats = new TreeMap<>();
+        for (Endorsement endorsement : endorsements) {
+            if (endorsement.getPremiumAmount() == null) {
+                continue;
+            }
+            double[] s = stats.computeIfAbsent(endorsement.getEmployerId(), id -> new double[3]);
+            double x = endorsement.getPremiumAmount().doubleValue();
+            s[0]++;
+            double delta = x - s[1];
+            s[1] += delta / s[0];
+            s[2] += delta * (x - s[1]);
+        }
+        if (stats.isEmpty()) {
+            return;
+        }
+        List<Object[]> args = new ArrayList<>(stats.size());
+        stats.forEach((employerId, s) -> args.add(new Object[]{employerId, (long) s[0], s[1], s[2]}));
+        jdbcTemplate.batchUpdate(UPSERT_PREMIUM_SQL, args);
+    }
+
+    private void recordEmployees(List<Endorsement> endorsements) {
+        List<Endorsement> ordered = endorsements.stream()
+                .filter(e -> e.getEmployeeId() != null)
+                .sorted(Comparator.comparing(Endorsement::getEmployerId)
+                        .thenComparing(Endorsement::getEmployeeId)
+                        .thenComparing(Endorsement::getCreatedAt))
+                .toList();
+        jdbcTemplate.batchUpdate(UPSERT_EMPLOYEE_SQL, ordered, ordered.size(), (ps, e) -> {
+            Timestamp createdAt = Timestamp.from(e.getCreatedAt());
+            ps.setObject(1, e.getEmployerId());
+            ps.setObject(2, e.getEmployeeId());
+            ps.setObject(3, e.getId());
+            ps.setTimestamp(4, createdAt);
+            ps.setTimestamp(5, e.getType() == EndorsementType.ADD ? createdAt : null);
+            ps.setTimestamp(6, e.getType() == EndorsementType.DELETE ? createdAt : null);
+        });
+    }
+
+    @Override
+    public AnomalyFeatures featuresFor(Endorsement endorsement, Instant now) {
+        UUID employerId = endorsement.getEmployerId();
+        Instant hourFrom = now.minus(24, ChronoUnit.HOURS).truncatedTo(ChronoUnit.HOURS);
+        Instant dayFrom = now.minus(30, ChronoUnit.DAYS).truncatedTo(ChronoUnit.DAYS);
+
+        long[] activity = jdbcTemplate.queryForObject(SELECT_ACTIVITY_SQL,
+                (rs, rowNum) -> new long[]{rs.getLong("last_24h"), rs.getLong("last_30d")},
+                employerId, Timestamp.from(hourFrom), Timestamp.from(dayFrom));
+
+        List<double[]> premium = jdbcTemplate.query(SELECT_PREMIUM_SQL,
+                (rs, rowNum) -> new double[]{
+                        rs.getLong("premium_count"), rs.getDouble("premium_mean"), rs.getDouble("premium_m2")},
+                employerId);
+        long premiumCount = premium.isEmpty() ? 0 : (long) premium.get(0)[0];
+        double premiumMean = premium.isEmpty() ? 0.0 : premium.get(0)[1];
+        double premiumStdDev = premiumCount > 1 ? Math.sqrt(premium.get(0)[2] / (premiumCount - 1)) : 0.0;
+
+        EmployeeRow employee = null;
+        if (endorsement.getEmployeeId() != null) {
+            List<EmployeeRow> rows = jdbcTemplate.query(SELECT_EMPLOYEE_SQL, (rs, rowNum) -> new EmployeeRow(
+                    rs.getObject("last_endorsement_id", UUID.class),
+                    instant(rs.getTimestamp("last_activity_at")),
+                    instant(rs.getTimestamp("previous_activity_at")),
+                    instant(rs.getTimestamp("last_add_at")),
+                    instant(rs.getTimestamp("last_delete_at"))),
+                    employerId, endorsement.getEmployeeId());
+            employee = rows.isEmpty() ? null : rows.get(0);
+        }
+        Instant priorActivity = null;
+        if (employee != null) {
+            priorActivity = employee.endorsementId().equals(endorsement.getId())
+                    ? employee.previousActivity()
+                    : employee.lastActivity();
+        }
+
+        return new AnomalyFeatures(
+                activity != null ? activity[0] : 0,
+                activity != null ? activity[1] : 0,
+                premiumCount,
+                premiumMean,
+                premiumStdDev,
+                priorActivity,
+                employee != null ? employee.lastAdd() : null,
+                employee != null ? employee.lastDelete() : null);
+    }
+
+    @Override
+    public int purgeActivityBefore(Instant cutoff) {
+        return jdbcTemplate.update("DELETE FROM anomaly_employer_activity WHERE bucket_start < ?",
+                Timestamp.from(cutoff));
+    }
+
+    private static Instant instant(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toInstant() : null;
+    }
+}
@@ -0,0 +1,233 @@
+package com.plum.endorsements.infrastructure.persistence.adapter;
+
+import com.plum.endorsements.domain.model.EALedgerSnapshot;
+import com.plum.endorsements.domain.model.EATransaction;
+import com.plum.endorsements.domain.model.EATransaction.EATransactionType;
+import com.plum.endorsements.domain.port.EALedgerRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Ledger reads and partition upkeep over the V31 and V32 tables. Every entry
+ * query bounds {@code created_at} on both sides, so the planner prunes the
+ * monthly partitions outside the range and reads the rest through
+ * {@code idx_ea_tx_account_time}. Snapshots are written for all accounts in
+ * one statement, each from the account's previous snapshot and the entries
+ * since. Partition DDL names tables from a
+ * {@link YearMonth} only, never from caller text.
+ */
+@Component
+@RequiredArgsConstructor
+public class JdbcEALedgerRepositoryAdapter implements EALedgerRepository {
+
+    private static final String TRANSACTION_COLUMNS =
+            "id, employer_id, insurer_id, endorsement_id, type, amount, balance_after, description, created_at";
+
+    private static final String LATEST_SNAPSHOT_SQL =
+            "SELECT employer_id, insurer_id, as_of, balance_after, transaction_count, "
+            + "debited, credited, reserved, released, topped_up FROM ea_ledger_snapshots "
+            + "WHERE employer_id = ? AND insurer_id = ? AND as_of <= ? ORDER BY as_of DESC LIMIT 1";
+
+    // The latest snapshot of account a before the given bound, as p
+    private static final String BASE_SNAPSHOT =
+            "LEFT JOIN LATERAL (SELECT * FROM ea_ledger_snapshots s "
+            + "WHERE s.employer_id = a.employer_id AND s.insurer_id = a.insurer_id AND s.as_of %s "
+            + "ORDER BY s.as_of DESC LIMIT 1) p ON TRUE ";
+
+    // Account a's entries after p up to the given bound, summed up as d
+    private static final String ENTRIES_SINCE_BASE =
+            "CROSS JOIN LATERAL (SELECT COUNT(*) AS n, "
+            + "COALESCE(SUM(t.amount) FILTER (WHERE t.type = 'DEBIT'), 0) AS debited, "
+            + "COALESCE(SUM(t.amount) FILTER (WHERE t.type = 'CREDIT'), 0) AS credited, "
+            + "COALESCE(SUM(t.amount) FILTER (WHERE t.type = 'RESERVE'), 0) AS reserved, "
+            + "COALESCE(SUM(t.amount) FILTER (WHERE t.type = 'RELEASE'), 0) AS released, "
+            + "COALESCE(SUM(t.amount) FILTER (WHERE t.type = 'TOP_UP'), 0) AS topped_up, "
+            + "(ARRAY_AGG(t.balance_after ORDER BY t.created_at DESC, t.id DESC))[1] AS balance_after "
+            + "FROM ea_transactions t WHERE t.employer_id = a.employer_id AND t.insurer_id = a.insurer_id "
+            + "AND t.created_at > COALESCE(p.as_of, TIMESTAMPTZ 'epoch') AND t.created_at <= %s) d ";
+
+    // p advanced by d, in snapshot column order after as_of
+    private static final String ADVANCED_COLUMNS =
+            "COALESCE(d.balance_after, p.balance_after) AS balance_after, "
+            + "COALESCE(p.transaction_count, 0) + d.n AS transaction_count, "
+            + "COALESCE(p.debited, 0) + d.debited AS debited, "
+            + "COALESCE(p.credited, 0) + d.credited AS credited, "
+            + "COALESCE(p.reserved, 0) + d.reserved AS reserved, "
+            + "COALESCE(p.released, 0) + d.released AS released, "
+            + "COALESCE(p.topped_up, 0) + d.topped_up AS topped_up ";
+
+    // A snapshot at the bound for every account a, advanced from p by d
+    private static final String INSERT_ADVANCED =
+            "INSERT INTO ea_ledger_snapshots (employer_id, insurer_id, as_of, balance_after, transaction_count, "
+            + "debited, credited, reserved, released, topped_up) "
+            + "SELECT a.employer_id, a.insurer_id, ?, " + ADVANCED_COLUMNS + "FROM ea_accounts a "
+            + BASE_SNAPSHOT.formatted("<= ?") + ENTRIES_SINCE_BASE.formatted("?");
+
+    private static final String ADVANCE_SNAPSHOTS_SQL =
+            INSERT_ADVANCED + "WHERE d.n > 0 ON CONFLICT (employer_id, insurer_id, as_of) DO NOTHING";
+
+    // Also for accounts quiet since their last snapshot, which advancing skips
+    private static final String CLOSE_MONTH_SQL =
+            INSERT_ADVANCED + "WHERE EXISTS (SELECT 1 FROM %s t "
+            + "WHERE t.employer_id = a.employer_id AND t.insurer_id = a.insurer_id) "
+            + "ON CONFLICT (employer_id, insurer_id, as_of) DO NOTHING";
+
+    // Every snapshot in the window is recounted from the account's last snapshot before
+    // the window, so none builds on another that is itself stale. Entries are only ever
+    // added, so a late commit shows up as a count that no longer matches.
+    private static final String RESTATE_SNAPSHOTS_SQL =
+            "WITH w AS (SELECT employer_id, insurer_id, as_of, transaction_count AS recorded "
+            + "FROM ea_ledger_snapshots WHERE as_of > ? AND as_of <= ?), "
+            + "recount AS (SELECT a.employer_id, a.insurer_id, a.as_of, a.recorded, " + ADVANCED_COLUMNS
+            + "FROM w a " + BASE_SNAPSHOT.formatted("<= ?") + ENTRIES_SINCE_BASE.formatted("a.as_of") + ") "
+            + "UPDATE ea_ledger_snapshots s SET balance_after = r.balance_after, "
+            + "transaction_count = r.transaction_count, debited = r.debited, credited = r.credited, "
+            + "reserved = r.reserved, released = r.released, topped_up = r.topped_up "
+            + "FROM recount r WHERE s.employer_id = r.employer_id AND s.insurer_id = r.insurer_id "
+            + "AND s.as_of = r.as_of AND r.transaction_count <> r.recorded";
+
+    private static final String TRANSACTIONS_BETWEEN_SQL =
+            "SELECT " + TRANSACTION_COLUMNS + " FROM ea_transactions "
+            + "WHERE employer_id = ? AND insurer_id = ? AND created_at > ? AND created_at <= ? "
+            + "ORDER BY created_at, id";
+
+    private static final String RECENT_TRANSACTIONS_SQL =
+            "SELECT " + TRANSACTION_COLUMNS + " FROM ea_transactions "
+            + "WHERE employer_id = ? AND insurer_id = ? AND created_at >= ? AND created_at < ? "
+            + "ORDER BY created_at DESC, id DESC LIMIT ?";
+
+    private static final String PARTITIONS_SQL =
+            "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid "
+            + "WHERE i.inhparent = 'ea_transactions'::regclass";
+
+    private static final String CREATE_PARTITION_SQL =
+            "CREATE TABLE IF NOT EXISTS %s PARTITION OF ea_transactions FOR VALUES FROM ('%s') TO ('%s')";
+
+    private static final String COVERED_BY_SNAPSHOTS_SQL =
+            "SELECT NOT EXISTS (SELECT 1 FROM %s t WHERE NOT EXISTS ("
+            + "SELECT 1 FROM ea_ledger_snapshots s WHERE s.employer_id = t.employer_id "
+            + "AND s.insurer_id = t.insurer_id AND s.as_of >= ?))";
+
+    private static final String DETACH_PARTITION_SQL =
+            "ALTER TABLE ea_transactions DETACH PARTITION %s";
+
+    private static final String PARTITION_PREFIX = "ea_transactions_p";
+    private static final Pattern PARTITION_NAME = Pattern.compile(PARTITION_PREFIX + "(\\d{6})");
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public Optional<EALedgerSnapshot> findLatestSnapshot(UUID employerId, UUID insurerId, Instant atOrBefore) {
+        return jdbcTemplate.query(LATEST_SNAPSHOT_SQL, this::mapSnapshot,
+                employerId, insurerId, Timestamp.from(atOrBefore)).stream().findFirst();
+    }
+
+    @Override
+    public int restateSnapshots(Instant after, Instant upTo) {
+        Timestamp from = Timestamp.from(after);
+        return jdbcTemplate.update(RESTATE_SNAPSHOTS_SQL, from, Timestamp.from(upTo), from);
+    }
+
+    @Override
+    public int advanceSnapshots(Instant asOf) {
+        Timestamp at = Timestamp.from(asOf);
+        return jdbcTemplate.update(ADVANCE_SNAPSHOTS_SQL, at, at, at);
+    }
+
+    @Override
+    public List<EATransaction> findTransactionsBetween(UUID employerId, UUID insurerId, Instant after, Instant upTo) {
+        return jdbcTemplate.query(TRANSACTIONS_BETWEEN_SQL, this::mapTransaction,
+                employerId, insurerId, Timestamp.from(after), Timestamp.from(upTo));
+    }
+
+    @Override
+    public List<EATransaction> findRecentTransactions(UUID employerId, UUID insurerId,
+                                                      Instant from, Instant to, int limit) {
+        return jdbcTemplate.query(RECENT_TRANSACTIONS_SQL, this::mapTransaction,
+                employerId, insurerId, Timestamp.from(from), Timestamp.from(to), limit);
+    }
+
+    @Override
+    public List<YearMonth> findLedgerMonths() {
+        return jdbcTemplate.queryForList(PARTITIONS_SQL, String.class).stream()
+                .map(PARTITION_NAME::matcher)
+                .filter(Matcher::matches)
+                .map(m -> YearMonth.parse(m.group(1), PARTITION_SUFFIX))
+                .sorted(Comparator.naturalOrder())
+                .toList();
+    }
+
+    @Override
+    public void createLedgerMonth(YearMonth month) {
+        jdbcTemplate.execute(CREATE_PARTITION_SQL.formatted(partition(month),
+                monthStart(month), monthStart(month.plusMonths(1))));
+    }
+
+    @Override
+    public int closeLedgerMonth(YearMonth month) {
+        Timestamp end = Timestamp.from(monthStart(month.plusMonths(1)));
+        return jdbcTemplate.update(CLOSE_MONTH_SQL.formatted(partition(month)), end, end, end);
+    }
+
+    @Override
+    public boolean isCoveredBySnapshots(YearMonth month) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(COVERED_BY_SNAPSHOTS_SQL.formatted(partition(month)),
+                Boolean.class, Timestamp.from(monthStart(month.plusMonths(1)))));
+    }
+
+    @Override
+    public void detachLedgerMonth(YearMonth month) {
+        jdbcTemplate.execute(DETACH_PARTITION_SQL.formatted(partition(month)));
+    }
+
+    private static String partition(YearMonth month) {
+        return PARTITION_PREFIX + month.format(PARTITION_SUFFIX);
+    }
+
+    private static Instant monthStart(YearMonth month) {
+        return month.atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+
+    private EALedgerSnapshot mapSnapshot(ResultSet rs, int rowNum) throws SQLException {
+        return new EALedgerSnapshot(
+                rs.getObject("employer_id", UUID.class),
+                rs.getObject("insurer_id", UUID.class),
+                rs.getTimestamp("as_of").toInstant(),
+                rs.getBigDecimal("balance_after"),
+                rs.getLong("transaction_count"),
+                rs.getBigDecimal("debited"),
+                rs.getBigDecimal("credited"),
+                rs.getBigDecimal("reserved"),
+                rs.getBigDecimal("released"),
+                rs.getBigDecimal("topped_up"));
+    }
+
+    private EATransaction mapTransaction(ResultSet rs, int rowNum) throws SQLException {
+        return new EATransaction(
+                rs.getLong("id"),
+                rs.getObject("employer_id", UUID.class),
+                rs.getObject("insurer_id", UUID.class),
+                rs.getObject("endorsement_id", UUID.class),
+                EATransactionType.valueOf(rs.getString("type")),
+                rs.getBigDecimal("amount"),
+                rs.getBigDecimal("balance_after"),
+                rs.getString("description"),
+                rs.getTimestamp("created_at").toInstant());
+    }
+}
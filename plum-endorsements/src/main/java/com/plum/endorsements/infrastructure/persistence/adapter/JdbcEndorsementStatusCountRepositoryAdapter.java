@@ -0,0 +1,108 @@
+package com.plum.endorsements.infrastructure.persistence.adapter;
+
+import com.plum.endorsements.domain.model.EndorsementStatusCounts;
+import com.plum.endorsements.domain.port.EndorsementStatusCountRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Status counts backed by the V26 tables. Reads add the pending deltas to the
+ * compacted counts in one statement, so they see a consistent snapshot and
+ * touch at most one row per status and employer plus whatever has not been
+ * compacted yet.
+ */
+@Component
+@RequiredArgsConstructor
+public class JdbcEndorsementStatusCountRepositoryAdapter implements EndorsementStatusCountRepository {
+
+    private static final String COUNTS_SQL =
+            "SELECT insurer_id, employer_id, status, endorsement_count AS n FROM endorsement_status_counts %1$s "
+            + "UNION ALL SELECT insurer_id, employer_id, status, delta AS n FROM endorsement_status_count_deltas %1$s";
+
+    private static final String COMPACT_SQL =
+            "WITH moved AS (DELETE FROM endorsement_status_count_deltas "
+            + "RETURNING insurer_id, employer_id, status, delta), "
+            + "merged AS (INSERT INTO endorsement_status_counts AS c "
+            + "(insurer_id, employer_id, status, endorsement_count, updated_at) "
+            + "SELECT insurer_id, employer_id, status, SUM(delta), now() FROM moved "
+            + "GROUP BY insurer_id, employer_id, status "
+            + "ORDER BY insurer_id, employer_id, status "
+            + "ON CONFLICT (insurer_id, employer_id, status) DO UPDATE SET "
+            + "endorsement_count = c.endorsement_count + EXCLUDED.endorsement_count, updated_at = now()) "
+            + "SELECT COUNT(*) FROM moved";
+
+    private static final String DRIFT_SQL =
+            "SELECT COUNT(*) FROM (SELECT insurer_id, employer_id, status, SUM(n) AS n "
+            + "FROM (" + COUNTS_SQL.formatted("") + ") stored "
+            + "GROUP BY insurer_id, employer_id, status HAVING SUM(n) <> 0) s "
+            + "FULL JOIN (SELECT insurer_id, employer_id, status, COUNT(*) AS n FROM endorsements "
+            + "GROUP BY insurer_id, employer_id, status) a USING (insurer_id, employer_id, status) "
+            + "WHERE s.n IS DISTINCT FROM a.n";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public EndorsementStatusCounts countAll() {
+        return countByStatus("", new Object[0]);
+    }
+
+    @Override
+    public EndorsementStatusCounts countByInsurerId(UUID insurerId) {
+        return countByStatus("WHERE insurer_id = ?", new Object[]{insurerId, insurerId});
+    }
+
+    @Override
+    public Map<UUID, EndorsementStatusCounts> countByInsurer() {
+        Map<UUID, Map<String, Long>> counts = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT insurer_id, status, SUM(n) AS n FROM (" + COUNTS_SQL.formatted("") + ") c "
+                        + "GROUP BY insurer_id, status HAVING SUM(n) <> 0 ORDER BY insurer_id",
+                rs -> {
+                    counts.computeIfAbsent(rs.getObject("insurer_id", UUID.class), id -> new HashMap<>())
+                            .put(rs.getString("status"), rs.getLong("n"));
+                });
+        Map<UUID, EndorsementStatusCounts> result = new LinkedHashMap<>();
+        counts.forEach((insurerId, byStatus) -> result.put(insurerId, new EndorsementStatusCounts(byStatus)));
+        return result;
+    }
+
+    @Override
+    public EndorsementStatusCounts countByEmployerId(UUID employerId) {
+        return countByStatus("WHERE employer_id = ?", new Object[]{employerId, employerId});
+    }
+
+    @Override
+    public int compact() {
+        Integer moved = jdbcTemplate.queryForObject(COMPACT_SQL, Integer.class);
+        jdbcTemplate.update("DELETE FROM endorsement_status_counts WHERE endorsement_count = 0");
+        return moved != null ? moved : 0;
+    }
+
+    @Override
+    public int rebuild() {
+        Integer drifted = jdbcTemplate.queryForObject(DRIFT_SQL, Integer.class);
+        // Deltas committed after this snapshot stay behind, on top of the fresh counts
+        jdbcTemplate.update("DELETE FROM endorsement_status_count_deltas");
+        jdbcTemplate.update("DELETE FROM endorsement_status_counts");
+        jdbcTemplate.update("INSERT INTO endorsement_status_counts "
+                + "(insurer_id, employer_id, status, endorsement_count, updated_at) "
+                + "SELECT insurer_id, employer_id, status, COUNT(*), now() FROM endorsements "
+                + "GROUP BY insurer_id, employer_id, status");
+        return drifted != null ? drifted : 0;
+    }
+
+    private EndorsementStatusCounts countByStatus(String where, Object[] args) {
+        Map<String, Long> byStatus = new HashMap<>();
+        jdbcTemplate.query("SELECT status, SUM(n) AS n FROM (" + COUNTS_SQL.formatted(where) + ") c "
+                        + "GROUP BY status HAVING SUM(n) <> 0",
+                rs -> {
+                    byStatus.put(rs.getString("status"), rs.getLong("n"));
+                }, args);
+        return new EndorsementStatusCounts(byStatus);
+    }
+}
@@ -0,0 +1,160 @@
+package com.plum.endorsements.infrastructure.persistence.adapter;
+
+import com.plum.endorsements.domain.model.InsurerCallback;
+import com.plum.endorsements.domain.port.InsurerCallbackInbox;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Callback inbox backed by the V30 table. A callback's outcomes go in with
+ * one statement, their columns passed as arrays and unnested. The outcome
+ * key, which includes the batch reference since V33, drops redeliveries
+ * through {@code ON CONFLICT DO NOTHING}, including repeats within one
+ * callback, so the update count is the number of new outcomes.
+ */
+@Component
+@RequiredArgsConstructor
+public class JdbcInsurerCallbackInboxAdapter implements InsurerCallbackInbox {
+
+    private static final String ENQUEUE_SQL =
+            "INSERT INTO insurer_callback_inbox (insurer_id, kind, reference, batch_reference, status, "
+            + "endorsement_id, insurer_reference, reason, received_at) "
+            + "SELECT c.insurer_id, c.kind, c.reference, c.batch_reference, c.status, c.endorsement_id, "
+            + "c.insurer_reference, c.reason, ? "
+            + "FROM unnest(?::uuid[], ?::varchar[], ?::varchar[], ?::varchar[], ?::varchar[], ?::uuid[], "
+            + "?::varchar[], ?::text[]) "
+            + "AS c(insurer_id, kind, reference, batch_reference, status, endorsement_id, insurer_reference, reason) "
+            + "ON CONFLICT ON CONSTRAINT uq_insurer_callback DO NOTHING";
+
+    private static final String SELECT_PENDING_SQL =
+            "SELECT id, insurer_id, kind, reference, batch_reference, status, endorsement_id, insurer_reference, "
+            + "reason, attempts "
+            + "FROM insurer_callback_inbox WHERE applied_at IS NULL AND failed_at IS NULL "
+            + "AND (retry_at IS NULL OR retry_at <= now()) ORDER BY id LIMIT ?";
+
+    private static final String MARK_APPLIED_SQL =
+            "UPDATE insurer_callback_inbox SET applied_at = ? WHERE id = ANY (?)";
+
+    private static final String MARK_FAILED_SQL =
+            "UPDATE insurer_callback_inbox SET attempts = attempts + 1, last_error = ?, "
+            + "failed_at = CASE WHEN attempts + 1 >= ? THEN ? END "
+            + "WHERE id = ? RETURNING failed_at IS NOT NULL";
+
+    private static final String DEFER_SQL =
+            "WITH deferred AS (UPDATE insurer_callback_inbox SET retry_at = ?, last_error = ?, "
+            + "failed_at = CASE WHEN received_at < ? THEN ?::timestamptz END "
+            + "WHERE id = ANY (?) RETURNING failed_at) "
+            + "SELECT count(*) FROM deferred WHERE failed_at IS NOT NULL";
+
+    private static final String PURGE_SQL =
+            "DELETE FROM insurer_callback_inbox WHERE applied_at < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int enqueue(List<InsurerCallback> callbacks, Instant receivedAt) {
+        if (callbacks.isEmpty()) {
+            return 0;
+        }
+        int size = callbacks.size();
+        UUID[] insurerIds = new UUID[size];
+        String[] kinds = new String[size];
+        String[] references = new String[size];
+        String[] batchReferences = new String[size];
+        String[] statuses = new String[size];
+        UUID[] endorsementIds = new UUID[size];
+        String[] insurerReferences = new String[size];
+        String[] reasons = new String[size];
+        for (int i = 0; i < size; i++) {
+            InsurerCallback callback = callbacks.get(i);
+            insurerIds[i] = callback.insurerId();
+            kinds[i] = callback.kind().name();
+            references[i] = callback.reference();
+            batchReferences[i] = callback.batchReference();
+            statuses[i] = callback.status();
+            endorsementIds[i] = callback.endorsementId();
+            insurerReferences[i] = callback.insurerReference();
+            reasons[i] = callback.reason();
+        }
+        return jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(ENQUEUE_SQL);
+            ps.setTimestamp(1, Timestamp.from(receivedAt));
+            ps.setArray(2, con.createArrayOf("uuid", insurerIds));
+            ps.setArray(3, con.createArrayOf("varchar", kinds));
+            ps.setArray(4, con.createArrayOf("varchar", references));
+            ps.setArray(5, con.createArrayOf("varchar", batchReferences));
+            ps.setArray(6, con.createArrayOf("varchar", statuses));
+            ps.setArray(7, con.createArrayOf("uuid", endorsementIds));
+            ps.setArray(8, con.createArrayOf("varchar", insurerReferences));
+            ps.setArray(9, con.createArrayOf("text", reasons));
+            return ps;
+        });
+    }
+
+    @Override
+    public List<InsurerCallback> findPending(int limit) {
+        return jdbcTemplate.query(SELECT_PENDING_SQL, (rs, rowNum) -> new InsurerCallback(
+                rs.getLong("id"),
+                rs.getObject("insurer_id", UUID.class),
+                InsurerCallback.Kind.valueOf(rs.getString("kind")),
+                rs.getString("reference"),
+                rs.getString("batch_reference"),
+                rs.getString("status"),
+                rs.getObject("endorsement_id", UUID.class),
+                rs.getString("insurer_reference"),
+                rs.getString("reason"),
+                rs.getInt("attempts")), limit);
+    }
+
+    @Override
+    public void markApplied(List<Long> ids, Instant appliedAt) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(MARK_APPLIED_SQL);
+            ps.setTimestamp(1, Timestamp.from(appliedAt));
+            Array idArray = con.createArrayOf("bigint", ids.toArray());
+            ps.setArray(2, idArray);
+            return ps;
+        });
+    }
+
+    @Override
+    public boolean markFailed(long id, String error, int maxAttempts, Instant failedAt) {
+        Boolean givenUp = jdbcTemplate.queryForObject(MARK_FAILED_SQL, Boolean.class,
+                error, maxAttempts, Timestamp.from(failedAt), id);
+        return Boolean.TRUE.equals(givenUp);
+    }
+
+    @Override
+    public int defer(List<Long> ids, String reason, Instant retryAt, Instant expireReceivedBefore,
+                     Instant deferredAt) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        Integer expired = jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(DEFER_SQL);
+            ps.setTimestamp(1, Timestamp.from(retryAt));
+            ps.setString(2, reason);
+            ps.setTimestamp(3, Timestamp.from(expireReceivedBefore));
+            ps.setTimestamp(4, Timestamp.from(deferredAt));
+            ps.setArray(5, con.createArrayOf("bigint", ids.toArray()));
+            return ps;
+        }, rs -> rs.next() ? rs.getInt(1) : 0);
+        return expired == null ? 0 : expired;
+    }
+
+    @Override
+    public int purgeAppliedBefore(Instant cutoff) {
+        return jdbcTemplate.update(PURGE_SQL, Timestamp.from(cutoff));
+    }
+}
@@ -0,0 +1,39 @@
+package com.plum.endorsements.infrastructure.persistence.adapter;
+
+import com.plum.endorsements.domain.port.InsurerRateLimitRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * GCRA over the V29 table. One upsert advances the insurer's theoretical
+ * arrival time by one emission interval and reports how far ahead of the
+ * database clock it now is, so the reservation is atomic across replicas and
+ * no replica's own clock is involved. Runs outside any transaction; the row
+ * lock is held only for the statement.
+ */
+@Component
+@RequiredArgsConstructor
+public class JdbcInsurerRateLimitRepositoryAdapter implements InsurerRateLimitRepository {
+
+    private static final String RESERVE_SQL =
+            "INSERT INTO insurer_rate_limits AS r (insurer_id, theoretical_arrival_at) "
+            + "VALUES (?, clock_timestamp() + make_interval(secs => ?)) "
+            + "ON CONFLICT (insurer_id) DO UPDATE SET theoretical_arrival_at = "
+            + "GREATEST(r.theoretical_arrival_at, clock_timestamp()) + make_interval(secs => ?) "
+            + "RETURNING CAST(EXTRACT(EPOCH FROM (theoretical_arrival_at - clock_timestamp())) * 1000 AS BIGINT)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public Duration reserve(UUID insurerId, Duration emissionInterval, Duration burstTolerance) {
+        double intervalSecs = emissionInterval.toNanos() / 1e9;
+        Long aheadMs = jdbcTemplate.queryForObject(RESERVE_SQL, Long.class, insurerId, intervalSecs, intervalSecs);
+        // The slot starts one interval before the new arrival time, less the burst allowance
+        long waitMs = aheadMs - emissionInterval.toMillis() - burstTolerance.toMillis();
+        return waitMs > 0 ? Duration.ofMillis(waitMs) : Duration.ZERO;
+    }
+}
@@ -0,0 +1,176 @@
+package com.plum.endorsements.infrastructure.persistence.adapter;
+
+import com.plum.endorsements.domain.model.ProcessPathAggregate;
+import com.plum.endorsements.domain.model.StatusTransition;
+import com.plum.endorsements.domain.model.TransitionAggregate;
+import com.plum.endorsements.domain.port.ProcessMiningAggregateRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.sql.Array;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Process mining aggregates backed by the V25 tables. Merging is one upsert
+ * per transition and insurer touched; reads are primary-key lookups or a scan
+ * of the aggregate tables, which hold one row per insurer and transition.
+ */
+@Component
+@RequiredArgsConstructor
+public class JdbcProcessMiningAggregateRepositoryAdapter implements ProcessMiningAggregateRepository {
+
+    // Merges a delta's (count, mean, m2) into the running statistics (Chan et al.)
+    // and adds the bucket counts element-wise
+    private static final String UPSERT_TRANSITION_SQL =
+            "INSERT INTO process_mining_transition_stats AS s (insurer_id, from_status, to_status, "
+            + "sample_count, mean_ms, m2, max_ms, bucket_counts, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, now()) "
+            + "ON CONFLICT (insurer_id, from_status, to_status) DO UPDATE SET "
+            + "sample_count = s.sample_count + EXCLUDED.sample_count, "
+            + "mean_ms = s.mean_ms + (EXCLUDED.mean_ms - s.mean_ms) "
+            + "* EXCLUDED.sample_count / (s.sample_count + EXCLUDED.sample_count), "
+            + "m2 = s.m2 + EXCLUDED.m2 + (EXCLUDED.mean_ms - s.mean_ms) * (EXCLUDED.mean_ms - s.mean_ms) "
+            + "* s.sample_count * EXCLUDED.sample_count / (s.sample_count + EXCLUDED.sample_count), "
+            + "max_ms = GREATEST(s.max_ms, EXCLUDED.max_ms), "
+            + "bucket_counts = ARRAY(SELECT COALESCE(t.a, 0) + COALESCE(t.b, 0) "
+            + "FROM unnest(s.bucket_counts, EXCLUDED.bucket_counts) WITH ORDINALITY AS t(a, b, i) ORDER BY t.i), "
+            + "updated_at = now()";
+
+    private static final String UPSERT_PATH_SQL =
+            "INSERT INTO process_mining_path_stats AS p (insurer_id, completed_count, happy_count, updated_at) "
+            + "VALUES (?, ?, ?, now()) ON CONFLICT (insurer_id) DO UPDATE SET "
+            + "completed_count = p.completed_count + EXCLUDED.completed_count, "
+            + "happy_count = p.happy_count + EXCLUDED.happy_count, "
+            + "updated_at = now()";
+
+    private static final String SELECT_TRANSITIONS_SQL =
+            "SELECT insurer_id, from_status, to_status, sample_count, mean_ms, m2, max_ms, bucket_counts, updated_at "
+            + "FROM process_mining_transition_stats";
+
+    private static final String SELECT_PATHS_SQL =
+            "SELECT insurer_id, completed_count, happy_count, updated_at FROM process_mining_path_stats";
+
+    // An endorsement completes on the happy path if its log never shows it entering or leaving REJECTED
+    private static final String SELECT_LOGGED_TRANSITIONS_SQL =
+            "SELECT ev.id, e.insurer_id, ev.event_data->>'statusFrom' AS from_status, "
+            + "ev.event_data->>'statusTo' AS to_status, "
+            + "COALESCE((ev.event_data->>'durationMinutes')::bigint, 0) * 60000 AS duration_ms, "
+            + "CASE WHEN ev.event_data->>'statusTo' IN ('CONFIRMED', 'FAILED_PERMANENT') THEN "
+            + "ev.event_data->>'statusTo' = 'CONFIRMED' AND NOT EXISTS (SELECT 1 FROM endorsement_events r "
+            + "WHERE r.endorsement_id = ev.endorsement_id AND r.event_type = 'STATUS_CHANGE' "
+            + "AND 'REJECTED' IN (r.event_data->>'statusFrom', r.event_data->>'statusTo')) END AS happy_completion "
+            + "FROM endorsement_events ev JOIN endorsements e ON e.id = ev.endorsement_id "
+            + "WHERE ev.event_type = 'STATUS_CHANGE' AND ev.id > ? "
+            + "AND ev.event_data->>'statusFrom' IS NOT NULL AND ev.event_data->>'statusTo' IS NOT NULL "
+            + "ORDER BY ev.id LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private static final RowMapper<TransitionAggregate> TRANSITION_MAPPER = (rs, rowNum) -> new TransitionAggregate(
+            rs.getObject("insurer_id", UUID.class),
+            rs.getString("from_status"),
+            rs.getString("to_status"),
+            rs.getLong("sample_count"),
+            rs.getDouble("mean_ms"),
+            rs.getDouble("m2"),
+            rs.getLong("max_ms"),
+            buckets(rs.getArray("bucket_counts")),
+            rs.getTimestamp("updated_at").toInstant());
+
+    private static final RowMapper<ProcessPathAggregate> PATH_MAPPER = (rs, rowNum) -> new ProcessPathAggregate(
+            rs.getObject("insurer_id", UUID.class),
+            rs.getLong("completed_count"),
+            rs.getLong("happy_count"),
+            rs.getTimestamp("updated_at").toInstant());
+
+    @Override
+    public void merge(List<TransitionAggregate> transitions, List<ProcessPathAggregate> paths) {
+        if (!transitions.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_TRANSITION_SQL, transitions, transitions.size(), (ps, t) -> {
+                Long[] buckets = new Long[t.bucketCounts().length];
+                for (int i = 0; i < buckets.length; i++) {
+                    buckets[i] = t.bucketCounts()[i];
+                }
+                ps.setObject(1, t.insurerId());
+                ps.setString(2, t.fromStatus());
+                ps.setString(3, t.toStatus());
+                ps.setLong(4, t.sampleCount());
+                ps.setDouble(5, t.meanMs());
+                ps.setDouble(6, t.m2());
+                ps.setLong(7, t.maxMs());
+                ps.setArray(8, ps.getConnection().createArrayOf("bigint", buckets));
+            });
+        }
+        if (!paths.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_PATH_SQL, paths, paths.size(), (ps, p) -> {
+                ps.setObject(1, p.insurerId());
+                ps.setLong(2, p.completedCount());
+                ps.setLong(3, p.happyCount());
+            });
+        }
+    }
+
+    @Override
+    public List<TransitionAggregate> findTransitionsByInsurerId(UUID insurerId) {
+        return jdbcTemplate.query(SELECT_TRANSITIONS_SQL + " WHERE insurer_id = ? ORDER BY from_status, to_status",
+                TRANSITION_MAPPER, insurerId);
+    }
+
+    @Override
+    public List<TransitionAggregate> findAllTransitions() {
+        return jdbcTemplate.query(SELECT_TRANSITIONS_SQL + " ORDER BY insurer_id, from_status, to_status",
+                TRANSITION_MAPPER);
+    }
+
+    @Override
+    public Optional<ProcessPathAggregate> findPathByInsurerId(UUID insurerId) {
+        return jdbcTemplate.query(SELECT_PATHS_SQL + " WHERE insurer_id = ?", PATH_MAPPER, insurerId)
+                .stream().findFirst();
+    }
+
+    @Override
+    public List<ProcessPathAggregate> findAllPaths() {
+        return jdbcTemplate.query(SELECT_PATHS_SQL + " ORDER BY insurer_id", PATH_MAPPER);
+    }
+
+    @Override
+    public long lockEventLogWatermark() {
+        Long lastEventId = jdbcTemplate.queryForObject(
+                "SELECT last_event_id FROM process_mining_log_watermark WHERE id = 1 FOR UPDATE", Long.class);
+        return lastEventId != null ? lastEventId : 0L;
+    }
+
+    @Override
+    public List<LoggedTransition> findLoggedTransitionsAfter(long eventId, int limit) {
+        return jdbcTemplate.query(SELECT_LOGGED_TRANSITIONS_SQL, (rs, rowNum) -> new LoggedTransition(
+                rs.getLong("id"),
+                new StatusTransition(
+                        rs.getObject("insurer_id", UUID.class),
+                        rs.getString("from_status"),
+                        rs.getString("to_status"),
+                        rs.getLong("duration_ms"),
+                        (Boolean) rs.getObject("happy_completion"))),
+                eventId, limit);
+    }
+
+    @Override
+    public void advanceEventLogWatermark(long eventId) {
+        jdbcTemplate.update("UPDATE process_mining_log_watermark SET last_event_id = ? WHERE id = 1", eventId);
+    }
+
+    private static long[] buckets(Array array) throws SQLException {
+        Long[] values = (Long[]) array.getArray();
+        long[] buckets = new long[TransitionAggregate.BUCKET_COUNT];
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                buckets[Math.min(i, buckets.length - 1)] += values[i];
+            }
+        }
+        return buckets;
+    }
+}
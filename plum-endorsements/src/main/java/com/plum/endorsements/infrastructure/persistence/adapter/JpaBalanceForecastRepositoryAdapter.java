@@ -5,8 +5,11 @@ import com.plum.endorsements.domain.port.BalanceForecastRepository;
 import com.plum.endorsements.infrastructure.persistence.entity.BalanceForecastEntity;
 import com.plum.endorsements.infrastructure.persistence.repository.SpringDataBalanceForecastRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
 
+import java.sql.Date;
+import java.sql.Timestamp;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -15,7 +18,12 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class JpaBalanceForecastRepositoryAdapter implements BalanceForecastRepository {
 
+    private static final String INSERT_SQL =
+            "INSERT INTO balance_forecasts (id, employer_id, insurer_id, forecast_date, forecasted_amount, "
+            + "actual_amount, accuracy, narrative, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
     private final SpringDataBalanceForecastRepository springDataRepo;
+    private final JdbcTemplate jdbcTemplate;
 
     @Override
     public BalanceForecastRecord save(BalanceForecastRecord forecast) {
@@ -24,6 +32,30 @@ public class JpaBalanceForecastRepositoryAdapter implements BalanceForecastRepos
         return toDomain(saved);
     }
 
+    /**
+     * Writes a whole forecast run with one JDBC batch. Ids are assigned here
+     * so the records need not be read back.
+     */
+    @Override
+    public List<BalanceForecastRecord> saveAll(List<BalanceForecastRecord> forecasts) {
+        if (forecasts.isEmpty()) {
+            return forecasts;
+        }
+        for (BalanceForecastRecord forecast : forecasts) {
+            if (forecast.getId() == null) {
+                forecast.setId(UUID.randomUUID());
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, forecasts.stream()
+                .map(f -> new Object[]{
+                        f.getId(), f.getEmployerId(), f.getInsurerId(), Date.valueOf(f.getForecastDate()),
+                        f.getForecastedAmount(), f.getActualAmount(), f.getAccuracy(), f.getNarrative(),
+                        Timestamp.from(f.getCreatedAt())
+                })
+                .toList());
+        return forecasts;
+    }
+
     @Override
     public Optional<BalanceForecastRecord> findById(UUID id) {
         return springDataRepo.findById(id).map(this::toDomain);
@@ -6,10 +6,16 @@ import com.plum.endorsements.domain.port.BatchRepository;
 import com.plum.endorsements.infrastructure.persistence.mapper.EndorsementMapper;
 import com.plum.endorsements.infrastructure.persistence.repository.SpringDataBatchRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
 
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -18,8 +24,20 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class JpaBatchRepositoryAdapter implements BatchRepository {
 
+    private static final String MARK_SLA_BREACH_NOTIFIED_SQL =
+            "UPDATE endorsement_batches SET sla_breach_notified_at = ? "
+            + "WHERE id = ? AND sla_breach_notified_at IS NULL";
+
+    private static final String SCHEDULE_POLL_SQL =
+            "UPDATE endorsement_batches SET next_poll_at = ?, poll_count = ? WHERE id = ?";
+
+    private static final String TRANSITION_SQL =
+            "UPDATE endorsement_batches SET status = ?, next_poll_at = ?, poll_count = ? "
+            + "WHERE id = ? AND status = ANY(?)";
+
     private final SpringDataBatchRepository springDataRepo;
     private final EndorsementMapper mapper;
+    private final JdbcTemplate jdbcTemplate;
 
     @Override
     public EndorsementBatch save(EndorsementBatch batch) {
@@ -41,6 +59,17 @@ public class JpaBatchRepositoryAdapter implements BatchRepository {
                 .toList();
     }
 
+    @Override
+    public List<EndorsementBatch> findByInsurerBatchRefs(UUID insurerId, Collection<String> insurerBatchRefs) {
+        if (insurerBatchRefs.isEmpty()) {
+            return List.of();
+        }
+        return springDataRepo.findByInsurerIdAndInsurerBatchRefIn(insurerId, insurerBatchRefs)
+                .stream()
+                .map(mapper::toDomain)
+                .toList();
+    }
+
     @Override
     public List<EndorsementBatch> findByStatus(BatchStatus status) {
         return springDataRepo.findByStatus(status.name())
@@ -52,11 +81,51 @@ public class JpaBatchRepositoryAdapter implements BatchRepository {
     @Override
     public boolean existsByInsurerIdAndStatusIn(UUID insurerId, List<BatchStatus> statuses) {
         List<String> statusStrings = statuses.stream().map(Enum::name).toList();
-        return springDataRepo.existsByInsurerIdAndStatusIn(insurerId, statusStrings);
+        return springDataRepo.existsByInsurerIdAndStatusInAndMicroBatchFalse(insurerId, statusStrings);
     }
 
     @Override
     public Page<EndorsementBatch> findByEmployerId(UUID employerId, Pageable pageable) {
         return springDataRepo.findByEmployerId(employerId, pageable).map(mapper::toDomain);
     }
+
+    @Override
+    public List<EndorsementBatch> findDueForPoll(List<BatchStatus> statuses, Instant now, int limit) {
+        return springDataRepo.findDueForPoll(statuses.stream().map(Enum::name).toList(), now, Limit.of(limit))
+                .stream()
+                .map(mapper::toDomain)
+                .toList();
+    }
+
+    @Override
+    public List<EndorsementBatch> findSlaBreachedUnnotified(List<BatchStatus> statuses, Instant now) {
+        return springDataRepo.findSlaBreachedUnnotified(statuses.stream().map(Enum::name).toList(), now)
+                .stream()
+                .map(mapper::toDomain)
+                .toList();
+    }
+
+    @Override
+    public boolean markSlaBreachNotified(UUID batchId, Instant notifiedAt) {
+        return jdbcTemplate.update(MARK_SLA_BREACH_NOTIFIED_SQL, Timestamp.from(notifiedAt), batchId) == 1;
+    }
+
+    @Override
+    public void schedulePoll(UUID batchId, Instant nextPollAt, int pollCount) {
+        jdbcTemplate.update(SCHEDULE_POLL_SQL, Timestamp.from(nextPollAt), pollCount, batchId);
+    }
+
+    @Override
+    public boolean transition(UUID batchId, Collection<BatchStatus> from, BatchStatus status,
+                              Instant nextPollAt, int pollCount) {
+        return jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(TRANSITION_SQL);
+            ps.setString(1, status.name());
+            ps.setTimestamp(2, nextPollAt != null ? Timestamp.from(nextPollAt) : null);
+            ps.setInt(3, pollCount);
+            ps.setObject(4, batchId);
+            ps.setArray(5, con.createArrayOf("varchar", from.stream().map(Enum::name).toArray()));
+            return ps;
+        }) == 1;
+    }
 }
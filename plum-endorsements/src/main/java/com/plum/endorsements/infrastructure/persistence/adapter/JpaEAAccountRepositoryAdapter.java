@@ -1,15 +1,25 @@
 package com.plum.endorsements.infrastructure.persistence.adapter;
 
 import com.plum.endorsements.domain.model.EAAccount;
+import com.plum.endorsements.domain.model.EAAccountStripe;
 import com.plum.endorsements.domain.model.EATransaction;
 import com.plum.endorsements.domain.port.EAAccountRepository;
 import com.plum.endorsements.infrastructure.persistence.mapper.EndorsementMapper;
 import com.plum.endorsements.infrastructure.persistence.repository.SpringDataEAAccountRepository;
 import com.plum.endorsements.infrastructure.persistence.repository.SpringDataEATransactionRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
 
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -17,28 +27,80 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class JpaEAAccountRepositoryAdapter implements EAAccountRepository {
 
+    private static final String INSERT_TRANSACTION_SQL =
+            "INSERT INTO ea_transactions (employer_id, insurer_id, endorsement_id, type, amount, "
+            + "balance_after, description, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String STRIPED_RESERVED_SQL =
+            "SELECT COALESCE(SUM(reserved), 0) FROM ea_account_stripes WHERE employer_id = ? AND insurer_id = ?";
+
+    private static final String STRIPED_RESERVED_BY_ACCOUNT_SQL =
+            "SELECT employer_id, insurer_id, SUM(reserved) AS reserved FROM ea_account_stripes "
+            + "GROUP BY employer_id, insurer_id";
+
+    private static final String STRIPED_RESERVED_BY_INSURER_SQL =
+            "SELECT employer_id, insurer_id, SUM(reserved) AS reserved FROM ea_account_stripes "
+            + "WHERE insurer_id = ? GROUP BY employer_id, insurer_id";
+
+    // Claims any stripe with enough headroom that no other transaction holds, so
+    // concurrent reservations for one account never wait on each other
+    private static final String RESERVE_ON_ANY_STRIPE_SQL =
+            "UPDATE ea_account_stripes SET reserved = reserved + ?, updated_at = ? "
+            + "WHERE employer_id = ? AND insurer_id = ? AND stripe = ("
+            + "SELECT stripe FROM ea_account_stripes "
+            + "WHERE employer_id = ? AND insurer_id = ? AND allocated - reserved >= ? "
+            + "ORDER BY random() LIMIT 1 FOR UPDATE SKIP LOCKED) "
+            + "RETURNING employer_id, insurer_id, stripe, allocated, reserved, updated_at";
+
+    private static final String SELECT_STRIPES_FOR_UPDATE_SQL =
+            "SELECT employer_id, insurer_id, stripe, allocated, reserved, updated_at FROM ea_account_stripes "
+            + "WHERE employer_id = ? AND insurer_id = ? ORDER BY stripe FOR UPDATE";
+
+    private static final String UPSERT_STRIPE_SQL =
+            "INSERT INTO ea_account_stripes (employer_id, insurer_id, stripe, allocated, reserved, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?) ON CONFLICT (employer_id, insurer_id, stripe) DO UPDATE SET "
+            + "allocated = EXCLUDED.allocated, reserved = EXCLUDED.reserved, updated_at = EXCLUDED.updated_at";
+
     private final SpringDataEAAccountRepository accountRepo;
     private final SpringDataEATransactionRepository transactionRepo;
     private final EndorsementMapper mapper;
+    private final JdbcTemplate jdbcTemplate;
 
     @Override
     public Optional<EAAccount> findByEmployerIdAndInsurerId(UUID employerId, UUID insurerId) {
-        return accountRepo.findByEmployerIdAndInsurerId(employerId, insurerId).map(mapper::toDomain);
+        return accountRepo.findByEmployerIdAndInsurerId(employerId, insurerId)
+                .map(mapper::toDomain)
+                .map(this::withStripedReserved);
     }
 
     @Override
     public Optional<EAAccount> findByEmployerIdAndInsurerIdForUpdate(UUID employerId, UUID insurerId) {
-        return accountRepo.findByEmployerIdAndInsurerIdForUpdate(employerId, insurerId).map(mapper::toDomain);
+        return accountRepo.findByEmployerIdAndInsurerIdForUpdate(employerId, insurerId)
+                .map(mapper::toDomain)
+                .map(this::withStripedReserved);
     }
 
     @Override
     public List<EAAccount> findByEmployerId(UUID employerId) {
-        return accountRepo.findByEmployerId(employerId).stream().map(mapper::toDomain).toList();
+        return accountRepo.findByEmployerId(employerId).stream()
+                .map(mapper::toDomain)
+                .map(this::withStripedReserved)
+                .toList();
+    }
+
+    @Override
+    public List<EAAccount> findByInsurerIdAndEmployerIdIn(UUID insurerId, Collection<UUID> employerIds) {
+        if (employerIds.isEmpty()) {
+            return List.of();
+        }
+        return withStripedReserved(accountRepo.findByInsurerIdAndEmployerIdIn(insurerId, employerIds).stream()
+                .map(mapper::toDomain).toList(), STRIPED_RESERVED_BY_INSURER_SQL, insurerId);
     }
 
     @Override
     public List<EAAccount> findAll() {
-        return accountRepo.findAll().stream().map(mapper::toDomain).toList();
+        return withStripedReserved(accountRepo.findAll().stream().map(mapper::toDomain).toList(),
+                STRIPED_RESERVED_BY_ACCOUNT_SQL);
     }
 
     @Override
@@ -55,11 +117,78 @@ public class JpaEAAccountRepositoryAdapter implements EAAccountRepository {
         return mapper.toDomain(saved);
     }
 
+    /**
+     * Writes ledger entries with one JDBC batch; the IDENTITY key on
+     * {@code ea_transactions} would otherwise force one INSERT per row through JPA.
+     */
     @Override
-    public List<EATransaction> findTransactionsByEmployerId(UUID employerId, UUID insurerId) {
-        return transactionRepo.findByEmployerIdAndInsurerIdOrderByCreatedAtDesc(employerId, insurerId)
-                .stream()
-                .map(mapper::toDomain)
-                .toList();
+    public void saveTransactions(List<EATransaction> transactions) {
+        if (transactions.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_TRANSACTION_SQL, transactions.stream()
+                .map(tx -> new Object[]{
+                        tx.employerId(), tx.insurerId(), tx.endorsementId(), tx.type().name(),
+                        tx.amount(), tx.balanceAfter(), tx.description(), Timestamp.from(tx.createdAt())
+                })
+                .toList());
+    }
+
+    @Override
+    public Optional<EAAccountStripe> reserveOnAnyStripe(UUID employerId, UUID insurerId, BigDecimal amount) {
+        List<EAAccountStripe> claimed = jdbcTemplate.query(RESERVE_ON_ANY_STRIPE_SQL, this::mapStripe,
+                amount, Timestamp.from(Instant.now()), employerId, insurerId, employerId, insurerId, amount);
+        return claimed.stream().findFirst();
+    }
+
+    @Override
+    public List<EAAccountStripe> findStripesForUpdate(UUID employerId, UUID insurerId) {
+        return jdbcTemplate.query(SELECT_STRIPES_FOR_UPDATE_SQL, this::mapStripe, employerId, insurerId);
+    }
+
+    @Override
+    public void saveStripes(List<EAAccountStripe> stripes) {
+        if (stripes.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPSERT_STRIPE_SQL, stripes.stream()
+                .map(stripe -> new Object[]{
+                        stripe.getEmployerId(), stripe.getInsurerId(), stripe.getStripe(),
+                        stripe.getAllocated(), stripe.getReserved(), Timestamp.from(stripe.getUpdatedAt())
+                })
+                .toList());
+    }
+
+    private EAAccount withStripedReserved(EAAccount account) {
+        account.setStripedReserved(jdbcTemplate.queryForObject(STRIPED_RESERVED_SQL, BigDecimal.class,
+                account.getEmployerId(), account.getInsurerId()));
+        return account;
+    }
+
+    private List<EAAccount> withStripedReserved(List<EAAccount> accounts, String reservedSql, Object... args) {
+        if (accounts.isEmpty()) {
+            return accounts;
+        }
+        Map<String, BigDecimal> reservedByAccount = new HashMap<>();
+        jdbcTemplate.query(reservedSql, rs -> {
+            reservedByAccount.put(rs.getString("employer_id") + "/" + rs.getString("insurer_id"),
+                    rs.getBigDecimal("reserved"));
+        }, args);
+        for (EAAccount account : accounts) {
+            account.setStripedReserved(reservedByAccount.getOrDefault(
+                    account.getEmployerId() + "/" + account.getInsurerId(), BigDecimal.ZERO));
+        }
+        return accounts;
+    }
+
+    private EAAccountStripe mapStripe(ResultSet rs, int rowNum) throws SQLException {
+        return EAAccountStripe.builder()
+                .employerId(rs.getObject("employer_id", UUID.class))
+                .insurerId(rs.getObject("insurer_id", UUID.class))
+                .stripe(rs.getInt("stripe"))
+                .allocated(rs.getBigDecimal("allocated"))
+                .reserved(rs.getBigDecimal("reserved"))
+                .updatedAt(rs.getTimestamp("updated_at").toInstant())
+                .build();
     }
 }
@@ -1,25 +1,94 @@
 package com.plum.endorsements.infrastructure.persistence.adapter;
 
+import com.plum.endorsements.domain.model.BatchQueueDepth;
 import com.plum.endorsements.domain.model.Endorsement;
+import com.plum.endorsements.domain.model.EndorsementCursor;
 import com.plum.endorsements.domain.model.EndorsementStatus;
+import com.plum.endorsements.domain.model.EndorsementTransition;
+import com.plum.endorsements.domain.model.EndorsementVolumeSeries;
+import com.plum.endorsements.domain.model.EndorsementVolumeSeries.DailyVolume;
 import com.plum.endorsements.domain.port.EndorsementRepository;
+import com.plum.endorsements.infrastructure.persistence.entity.EndorsementEntity;
 import com.plum.endorsements.infrastructure.persistence.mapper.EndorsementMapper;
 import com.plum.endorsements.infrastructure.persistence.repository.SpringDataEndorsementRepository;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
 
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 @Component
 @RequiredArgsConstructor
 public class JpaEndorsementRepositoryAdapter implements EndorsementRepository {
 
+    private static final String INSERT_IF_ABSENT_SQL =
+            "INSERT INTO endorsements (id, employer_id, employee_id, insurer_id, policy_id, type, status, "
+            + "coverage_start_date, coverage_end_date, employee_data, premium_amount, retry_count, "
+            + "idempotency_key, created_at, updated_at, version) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, CAST(? AS jsonb), ?, ?, ?, ?, ?, 0) "
+            + "ON CONFLICT (idempotency_key) DO NOTHING";
+
+    // Locks the matching rows first so the previous updated_at (when the row
+    // entered its old status) can be returned alongside the new row
+    private static final String TRANSITION_ALL_SQL =
+            "WITH prev AS (SELECT id, updated_at FROM endorsements "
+            + "WHERE id = ANY(?) AND status = ? FOR UPDATE) "
+            + "UPDATE endorsements e SET status = ?, batch_id = COALESCE(CAST(? AS uuid), e.batch_id), "
+            + "retry_count = e.retry_count + ?, updated_at = ?, version = e.version + 1 "
+            + "FROM prev WHERE e.id = prev.id "
+            + "RETURNING e.*, prev.updated_at AS entered_from_at";
+
+    private static final String ASSIGN_BATCH_SQL =
+            "UPDATE endorsements SET batch_id = ? WHERE id = ANY(?) AND status = ?";
+
+    // Covered by the partial index idx_endorsements_batch_queue
+    private static final String BATCH_QUEUE_DEPTHS_SQL =
+            "SELECT insurer_id, COUNT(*) AS depth, MIN(created_at) AS oldest_created_at FROM endorsements "
+            + "WHERE status = 'QUEUED_FOR_BATCH' GROUP BY insurer_id";
+
+    // One row per employer, insurer and UTC day; the range on created_at is
+    // served by idx_endorsements_created
+    private static final String DAILY_VOLUMES_SQL =
+            "SELECT employer_id, insurer_id, CAST(created_at AT TIME ZONE 'UTC' AS DATE) AS day, "
+            + "COUNT(*) FILTER (WHERE type = 'ADD') AS additions, "
+            + "COUNT(premium_amount) FILTER (WHERE type = 'ADD') AS priced_additions, "
+            + "COALESCE(SUM(premium_amount) FILTER (WHERE type = 'ADD'), 0) AS addition_premium, "
+            + "COUNT(*) FILTER (WHERE type = 'DELETE') AS deletions, "
+            + "COUNT(premium_amount) FILTER (WHERE type = 'DELETE') AS priced_deletions, "
+            + "COALESCE(SUM(premium_amount) FILTER (WHERE type = 'DELETE'), 0) AS deletion_premium "
+            + "FROM endorsements WHERE status = ANY (?) AND created_at > ? AND type IN ('ADD', 'DELETE')%s "
+            + "GROUP BY employer_id, insurer_id, day ORDER BY employer_id, insurer_id, day";
+
+    private static final int DAILY_VOLUMES_FETCH_SIZE = 1000;
+
+    private static final Pattern PLAN_ROWS = Pattern.compile("\"Plan Rows\":\\s*(\\d+)");
+
     private final SpringDataEndorsementRepository springDataRepo;
     private final EndorsementMapper mapper;
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
 
     @Override
     public Endorsement save(Endorsement endorsement) {
@@ -28,11 +97,171 @@ public class JpaEndorsementRepositoryAdapter implements EndorsementRepository {
         return mapper.toDomain(saved);
     }
 
+    @Override
+    public List<Endorsement> saveAll(List<Endorsement> endorsements) {
+        if (endorsements.isEmpty()) {
+            return List.of();
+        }
+        return springDataRepo.saveAll(endorsements.stream().map(mapper::toEntity).toList())
+                .stream()
+                .map(mapper::toDomain)
+                .toList();
+    }
+
+    /**
+     * Entering RETRY_PENDING counts a retry, as {@code Endorsement.incrementRetry}
+     * does. Pending JPA changes are flushed first so the UPDATE sees them, and
+     * the persistence context is cleared afterwards so no stale managed copy of
+     * a moved row, with its old version, is written back later in the same
+     * transaction.
+     */
+    @Override
+    public List<EndorsementTransition> transitionAll(Collection<UUID> ids, EndorsementStatus from,
+                                                     EndorsementStatus to, UUID batchId) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        entityManager.flush();
+        Instant now = Instant.now();
+        List<EndorsementTransition> transitioned = jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(TRANSITION_ALL_SQL);
+            ps.setArray(1, con.createArrayOf("uuid", ids.toArray()));
+            ps.setString(2, from.name());
+            ps.setString(3, to.name());
+            ps.setObject(4, batchId);
+            ps.setInt(5, to == EndorsementStatus.RETRY_PENDING ? 1 : 0);
+            ps.setTimestamp(6, Timestamp.from(now));
+            return ps;
+        }, (rs, rowNum) -> new EndorsementTransition(
+                mapper.toDomain(toEntity(rs)), from, rs.getTimestamp("entered_from_at").toInstant()));
+        entityManager.clear();
+        return transitioned;
+    }
+
+    @Override
+    public int assignBatch(Collection<UUID> ids, EndorsementStatus status, UUID batchId) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(ASSIGN_BATCH_SQL);
+            ps.setObject(1, batchId);
+            ps.setArray(2, con.createArrayOf("uuid", ids.toArray()));
+            ps.setString(3, status.name());
+            return ps;
+        });
+    }
+
+    private static EndorsementEntity toEntity(ResultSet rs) throws SQLException {
+        return EndorsementEntity.builder()
+                .id(rs.getObject("id", UUID.class))
+                .employerId(rs.getObject("employer_id", UUID.class))
+                .employeeId(rs.getObject("employee_id", UUID.class))
+                .insurerId(rs.getObject("insurer_id", UUID.class))
+                .policyId(rs.getObject("policy_id", UUID.class))
+                .type(rs.getString("type"))
+                .status(rs.getString("status"))
+                .coverageStartDate(rs.getObject("coverage_start_date", LocalDate.class))
+                .coverageEndDate(rs.getObject("coverage_end_date", LocalDate.class))
+                .employeeData(rs.getString("employee_data"))
+                .premiumAmount(rs.getBigDecimal("premium_amount"))
+                .batchId(rs.getObject("batch_id", UUID.class))
+                .insurerReference(rs.getString("insurer_reference"))
+                .retryCount(rs.getInt("retry_count"))
+                .failureReason(rs.getString("failure_reason"))
+                .idempotencyKey(rs.getString("idempotency_key"))
+                .createdAt(rs.getTimestamp("created_at").toInstant())
+                .updatedAt(rs.getTimestamp("updated_at").toInstant())
+                .version(rs.getInt("version"))
+                .build();
+    }
+
+    /**
+     * Inserts a new endorsement unless its idempotency key is already taken, in
+     * one round trip and without raising a constraint violation. The id must be
+     * pre-assigned. Returns empty when the key belongs to an existing row,
+     * including one committed by a concurrent request.
+     */
+    @Override
+    public Optional<Endorsement> insertIfAbsent(Endorsement endorsement) {
+        List<UUID> inserted = jdbcTemplate.query(INSERT_IF_ABSENT_SQL + " RETURNING id",
+                (rs, rowNum) -> rs.getObject(1, UUID.class), insertArgs(endorsement));
+        if (inserted.isEmpty()) {
+            return Optional.empty();
+        }
+        endorsement.setVersion(0);
+        return Optional.of(endorsement);
+    }
+
+    /**
+     * Inserts new endorsements with one JDBC batch. Ids must be pre-assigned.
+     * Rows whose idempotency key already exists are skipped rather than failing
+     * the batch; only the endorsements that were actually inserted are returned.
+     */
+    @Override
+    public List<Endorsement> insertAll(List<Endorsement> endorsements) {
+        if (endorsements.isEmpty()) {
+            return List.of();
+        }
+        List<Object[]> args = new ArrayList<>(endorsements.size());
+        for (Endorsement endorsement : endorsements) {
+            args.add(insertArgs(endorsement));
+        }
+
+        int[] counts = jdbcTemplate.batchUpdate(INSERT_IF_ABSENT_SQL, args);
+
+        // A count of 0 means ON CONFLICT skipped the row; drivers that cannot
+        // report per-row counts return SUCCESS_NO_INFO, which counts as inserted.
+        List<Endorsement> inserted = new ArrayList<>(endorsements.size());
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0) {
+                inserted.add(endorsements.get(i));
+            }
+        }
+        return inserted;
+    }
+
+    private Object[] insertArgs(Endorsement endorsement) {
+        var entity = mapper.toEntity(endorsement);
+        return new Object[]{
+                entity.getId(), entity.getEmployerId(), entity.getEmployeeId(),
+                entity.getInsurerId(), entity.getPolicyId(), entity.getType(), entity.getStatus(),
+                Date.valueOf(entity.getCoverageStartDate()),
+                entity.getCoverageEndDate() != null ? Date.valueOf(entity.getCoverageEndDate()) : null,
+                entity.getEmployeeData(), entity.getPremiumAmount(), entity.getRetryCount(),
+                entity.getIdempotencyKey(),
+                Timestamp.from(entity.getCreatedAt()), Timestamp.from(entity.getUpdatedAt())
+        };
+    }
+
+    @Override
+    public Map<String, UUID> findIdsByIdempotencyKeys(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, UUID> ids = new HashMap<>();
+        for (Object[] row : springDataRepo.findIdsByIdempotencyKeyIn(keys)) {
+            ids.put((String) row[0], (UUID) row[1]);
+        }
+        return ids;
+    }
+
     @Override
     public Optional<Endorsement> findById(UUID id) {
         return springDataRepo.findById(id).map(mapper::toDomain);
     }
 
+    @Override
+    public List<Endorsement> findAllById(Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return springDataRepo.findAllById(ids)
+                .stream()
+                .map(mapper::toDomain)
+                .toList();
+    }
+
     @Override
     public Optional<Endorsement> findByIdempotencyKey(String key) {
         return springDataRepo.findByIdempotencyKey(key).map(mapper::toDomain);
@@ -49,6 +278,60 @@ public class JpaEndorsementRepositoryAdapter implements EndorsementRepository {
         return springDataRepo.findByEmployerIdAndStatusIn(employerId, statusStrings, pageable).map(mapper::toDomain);
     }
 
+    @Override
+    public List<Endorsement> findPageByEmployerId(UUID employerId, List<EndorsementStatus> statuses,
+                                                  EndorsementCursor after, int limit) {
+        Limit max = Limit.of(limit);
+        List<EndorsementEntity> entities;
+        if (statuses.isEmpty()) {
+            entities = after == null
+                    ? springDataRepo.findByEmployerIdOrderByCreatedAtDescIdDesc(employerId, max)
+                    : springDataRepo.findByEmployerIdBefore(employerId, after.createdAt(), after.id(), max);
+        } else if (isOutstanding(statuses)) {
+            entities = after == null
+                    ? springDataRepo.findOutstandingByEmployerId(employerId, max)
+                    : springDataRepo.findOutstandingByEmployerIdBefore(employerId, after.createdAt(), after.id(), max);
+        } else {
+            List<String> statusStrings = statuses.stream().map(Enum::name).toList();
+            entities = after == null
+                    ? springDataRepo.findByEmployerIdAndStatusInOrderByCreatedAtDescIdDesc(employerId, statusStrings, max)
+                    : springDataRepo.findByEmployerIdAndStatusInBefore(
+                            employerId, statusStrings, after.createdAt(), after.id(), max);
+        }
+        return entities.stream().map(mapper::toDomain).toList();
+    }
+
+    private static boolean isOutstanding(List<EndorsementStatus> statuses) {
+        return EnumSet.copyOf(statuses).equals(EnumSet.copyOf(EndorsementStatus.outstanding()));
+    }
+
+    @Override
+    public long countByEmployerIdAndStatusIn(UUID employerId, List<EndorsementStatus> statuses) {
+        if (statuses.isEmpty()) {
+            return springDataRepo.countByEmployerId(employerId);
+        }
+        return springDataRepo.countByEmployerIdAndStatusIn(employerId, statuses.stream().map(Enum::name).toList());
+    }
+
+    /**
+     * Reads the planner's row estimate from EXPLAIN instead of counting. The
+     * values are inlined (a UUID and enum names, so nothing user-controlled) so
+     * the estimate is made for these values rather than a generic plan.
+     */
+    @Override
+    public long estimateCountByEmployerId(UUID employerId, List<EndorsementStatus> statuses) {
+        StringBuilder sql = new StringBuilder("EXPLAIN (FORMAT JSON) SELECT 1 FROM endorsements WHERE employer_id = '")
+                .append(employerId).append('\'');
+        if (!statuses.isEmpty()) {
+            sql.append(" AND status IN (")
+                    .append(statuses.stream().map(s -> "'" + s.name() + "'").collect(Collectors.joining(", ")))
+                    .append(')');
+        }
+        String plan = jdbcTemplate.queryForObject(sql.toString(), String.class);
+        Matcher matcher = PLAN_ROWS.matcher(plan != null ? plan : "");
+        return matcher.find() ? Long.parseLong(matcher.group(1)) : 0L;
+    }
+
     @Override
     public List<Endorsement> findByStatus(EndorsementStatus status) {
         return springDataRepo.findByStatus(status.name())
@@ -65,6 +348,31 @@ public class JpaEndorsementRepositoryAdapter implements EndorsementRepository {
                 .toList();
     }
 
+    @Override
+    public List<Endorsement> claimByStatusAndInsurerId(EndorsementStatus status, UUID insurerId, int limit) {
+        return springDataRepo.claimByStatusAndInsurerId(status.name(), insurerId, limit)
+                .stream()
+                .map(mapper::toDomain)
+                .toList();
+    }
+
+    @Override
+    public List<Endorsement> claimByStatusAndInsurerIdAfter(EndorsementStatus status, UUID insurerId,
+                                                            Instant createdAt, UUID id, int limit) {
+        return springDataRepo.claimByStatusAndInsurerIdAfter(status.name(), insurerId, createdAt, id, limit)
+                .stream()
+                .map(mapper::toDomain)
+                .toList();
+    }
+
+    @Override
+    public List<BatchQueueDepth> findBatchQueueDepths() {
+        return jdbcTemplate.query(BATCH_QUEUE_DEPTHS_SQL, (rs, rowNum) -> new BatchQueueDepth(
+                rs.getObject("insurer_id", UUID.class),
+                rs.getLong("depth"),
+                rs.getTimestamp("oldest_created_at").toInstant()));
+    }
+
     @Override
     public List<Endorsement> findByBatchId(UUID batchId) {
         return springDataRepo.findByBatchId(batchId)
@@ -85,4 +393,79 @@ public class JpaEndorsementRepositoryAdapter implements EndorsementRepository {
                 .map(mapper::toDomain)
                 .toList();
     }
+
+    /**
+     * Rows arrive ordered by employer and insurer, so each series is complete
+     * when the pair changes and only one is held at a time. The fetch size lets
+     * the driver stream rows when called inside a transaction.
+     */
+    @Override
+    public void streamDailyVolumes(Collection<EndorsementStatus> statuses, Instant since,
+                                   Consumer<EndorsementVolumeSeries> consumer) {
+        queryDailyVolumes(statuses, since, null, null, consumer);
+    }
+
+    @Override
+    public EndorsementVolumeSeries findDailyVolumes(UUID employerId, UUID insurerId,
+                                                    Collection<EndorsementStatus> statuses, Instant since) {
+        List<EndorsementVolumeSeries> found = new ArrayList<>(1);
+        queryDailyVolumes(statuses, since, employerId, insurerId, found::add);
+        return found.isEmpty() ? EndorsementVolumeSeries.empty(employerId, insurerId) : found.getFirst();
+    }
+
+    private void queryDailyVolumes(Collection<EndorsementStatus> statuses, Instant since,
+                                   UUID employerId, UUID insurerId, Consumer<EndorsementVolumeSeries> consumer) {
+        boolean oneAccount = employerId != null;
+        String sql = DAILY_VOLUMES_SQL.formatted(oneAccount ? " AND employer_id = ? AND insurer_id = ?" : "");
+        SeriesCollector collector = new SeriesCollector(consumer);
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            ps.setFetchSize(DAILY_VOLUMES_FETCH_SIZE);
+            ps.setArray(1, con.createArrayOf("varchar", statuses.stream().map(Enum::name).toArray()));
+            ps.setTimestamp(2, Timestamp.from(since));
+            if (oneAccount) {
+                ps.setObject(3, employerId);
+                ps.setObject(4, insurerId);
+            }
+            return ps;
+        }, collector::row);
+        collector.finish();
+    }
+
+    private static final class SeriesCollector {
+
+        private final Consumer<EndorsementVolumeSeries> consumer;
+        private UUID employerId;
+        private UUID insurerId;
+        private List<DailyVolume> days = new ArrayList<>();
+
+        private SeriesCollector(Consumer<EndorsementVolumeSeries> consumer) {
+            this.consumer = consumer;
+        }
+
+        private void row(ResultSet rs) throws SQLException {
+            UUID rowEmployer = rs.getObject("employer_id", UUID.class);
+            UUID rowInsurer = rs.getObject("insurer_id", UUID.class);
+            if (!rowEmployer.equals(employerId) || !rowInsurer.equals(insurerId)) {
+                finish();
+                employerId = rowEmployer;
+                insurerId = rowInsurer;
+            }
+            days.add(new DailyVolume(
+                    rs.getObject("day", LocalDate.class),
+                    rs.getInt("additions"),
+                    rs.getInt("priced_additions"),
+                    rs.getBigDecimal("addition_premium"),
+                    rs.getInt("deletions"),
+                    rs.getInt("priced_deletions"),
+                    rs.getBigDecimal("deletion_premium")));
+        }
+
+        private void finish() {
+            if (!days.isEmpty()) {
+                consumer.accept(new EndorsementVolumeSeries(employerId, insurerId, List.copyOf(days)));
+                days = new ArrayList<>();
+            }
+        }
+    }
 }
@@ -7,6 +7,7 @@ import com.plum.endorsements.infrastructure.persistence.repository.SpringDataErr
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -50,6 +51,15 @@ public class JpaErrorResolutionRepositoryAdapter implements ErrorResolutionRepos
                 .stream().map(this::toDomain).toList();
     }
 
+    @Override
+    public List<ErrorResolution> findByEndorsementIdInAndOutcomeIsNull(Collection<UUID> endorsementIds) {
+        if (endorsementIds.isEmpty()) {
+            return List.of();
+        }
+        return springDataRepo.findByEndorsementIdInAndOutcomeIsNull(endorsementIds)
+                .stream().map(this::toDomain).toList();
+    }
+
     @Override
     public long countByOutcome(String outcome) {
         return springDataRepo.countByOutcome(outcome);
@@ -9,6 +9,7 @@ import org.springframework.stereotype.Component;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -27,11 +28,27 @@ public class JpaProvisionalCoverageRepositoryAdapter implements ProvisionalCover
         return mapper.toDomain(saved);
     }
 
+    @Override
+    public void saveAll(List<ProvisionalCoverage> coverages) {
+        springDataRepo.saveAll(coverages.stream().map(mapper::toEntity).toList());
+    }
+
     @Override
     public Optional<ProvisionalCoverage> findByEndorsementId(UUID endorsementId) {
         return springDataRepo.findByEndorsementId(endorsementId).map(mapper::toDomain);
     }
 
+    @Override
+    public List<ProvisionalCoverage> findByEndorsementIdIn(Collection<UUID> endorsementIds) {
+        if (endorsementIds.isEmpty()) {
+            return List.of();
+        }
+        return springDataRepo.findByEndorsementIdIn(endorsementIds)
+                .stream()
+                .map(mapper::toDomain)
+                .toList();
+    }
+
     @Override
     public List<ProvisionalCoverage> findActiveByEmployeeId(UUID employeeId) {
         return springDataRepo.findActiveByEmployeeId(employeeId)
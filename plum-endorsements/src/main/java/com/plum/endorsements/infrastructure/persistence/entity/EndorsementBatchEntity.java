@@ -46,4 +46,16 @@ public class EndorsementBatchEntity {
     @Column(name = "created_at", nullable = false)
     @Builder.Default
     private Instant createdAt = Instant.now();
+
+    @Column(name = "next_poll_at")
+    private Instant nextPollAt;
+
+    @Column(name = "poll_count", nullable = false)
+    private int pollCount;
+
+    @Column(name = "sla_breach_notified_at")
+    private Instant slaBreachNotifiedAt;
+
+    @Column(name = "micro_batch", nullable = false)
+    private boolean microBatch;
 }
@@ -154,6 +154,10 @@ public class EndorsementMapper {
             .slaDeadline(entity.getSlaDeadline())
             .insurerBatchRef(entity.getInsurerBatchRef())
             .createdAt(entity.getCreatedAt())
+            .nextPollAt(entity.getNextPollAt())
+            .pollCount(entity.getPollCount())
+            .slaBreachNotifiedAt(entity.getSlaBreachNotifiedAt())
+            .microBatch(entity.isMicroBatch())
             .build();
     }
 
@@ -168,6 +172,10 @@ public class EndorsementMapper {
             .slaDeadline(domain.getSlaDeadline())
             .insurerBatchRef(domain.getInsurerBatchRef())
             .createdAt(domain.getCreatedAt())
+            .nextPollAt(domain.getNextPollAt())
+            .pollCount(domain.getPollCount())
+            .slaBreachNotifiedAt(domain.getSlaBreachNotifiedAt())
+            .microBatch(domain.isMicroBatch())
             .build();
     }
 
@@ -1,17 +1,33 @@
 package com.plum.endorsements.infrastructure.persistence.repository;
 
 import com.plum.endorsements.infrastructure.persistence.entity.EndorsementBatchEntity;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
 import java.util.*;
 
 public interface SpringDataBatchRepository extends JpaRepository<EndorsementBatchEntity, UUID> {
     List<EndorsementBatchEntity> findByInsurerId(UUID insurerId);
+    List<EndorsementBatchEntity> findByInsurerIdAndInsurerBatchRefIn(UUID insurerId, Collection<String> insurerBatchRefs);
     List<EndorsementBatchEntity> findByStatus(String status);
-    boolean existsByInsurerIdAndStatusIn(UUID insurerId, List<String> statuses);
+    boolean existsByInsurerIdAndStatusInAndMicroBatchFalse(UUID insurerId, List<String> statuses);
 
     @Query("SELECT DISTINCT b FROM EndorsementBatchEntity b JOIN EndorsementEntity e ON e.batchId = b.id WHERE e.employerId = :employerId")
     Page<EndorsementBatchEntity> findByEmployerId(UUID employerId, Pageable pageable);
+
+    @Query("SELECT b FROM EndorsementBatchEntity b WHERE b.status IN :statuses "
+            + "AND (b.nextPollAt IS NULL OR b.nextPollAt <= :now) "
+            + "ORDER BY b.nextPollAt NULLS FIRST, b.createdAt")
+    List<EndorsementBatchEntity> findDueForPoll(@Param("statuses") List<String> statuses,
+                                                @Param("now") Instant now, Limit limit);
+
+    @Query("SELECT b FROM EndorsementBatchEntity b WHERE b.status IN :statuses "
+            + "AND b.slaDeadline < :now AND b.slaBreachNotifiedAt IS NULL")
+    List<EndorsementBatchEntity> findSlaBreachedUnnotified(@Param("statuses") List<String> statuses,
+                                                           @Param("now") Instant now);
 }
@@ -12,6 +12,7 @@ import java.util.*;
 public interface SpringDataEAAccountRepository extends JpaRepository<EAAccountEntity, EAAccountId> {
     Optional<EAAccountEntity> findByEmployerIdAndInsurerId(UUID employerId, UUID insurerId);
     List<EAAccountEntity> findByEmployerId(UUID employerId);
+    List<EAAccountEntity> findByInsurerIdAndEmployerIdIn(UUID insurerId, Collection<UUID> employerIds);
 
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("SELECT a FROM EAAccountEntity a WHERE a.employerId = :employerId AND a.insurerId = :insurerId")
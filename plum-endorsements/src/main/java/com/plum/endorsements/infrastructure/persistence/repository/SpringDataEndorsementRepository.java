@@ -1,18 +1,82 @@
 package com.plum.endorsements.infrastructure.persistence.repository;
 
 import com.plum.endorsements.infrastructure.persistence.entity.EndorsementEntity;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import java.time.Instant;
 import java.util.*;
 
 public interface SpringDataEndorsementRepository extends JpaRepository<EndorsementEntity, UUID> {
     Optional<EndorsementEntity> findByIdempotencyKey(String key);
+
+    @Query("SELECT e.idempotencyKey, e.id FROM EndorsementEntity e WHERE e.idempotencyKey IN :keys")
+    List<Object[]> findIdsByIdempotencyKeyIn(@Param("keys") Collection<String> keys);
+
     Page<EndorsementEntity> findByEmployerId(UUID employerId, Pageable pageable);
     Page<EndorsementEntity> findByEmployerIdAndStatusIn(UUID employerId, List<String> statuses, Pageable pageable);
+
+    // Keyset pages: newest first, id breaks ties. The redundant createdAt <= bound
+    // gives the planner a range on idx_endorsements_employer_created.
+    List<EndorsementEntity> findByEmployerIdOrderByCreatedAtDescIdDesc(UUID employerId, Limit limit);
+
+    @Query("SELECT e FROM EndorsementEntity e WHERE e.employerId = :employerId "
+            + "AND e.createdAt <= :createdAt AND (e.createdAt < :createdAt OR e.id < :id) "
+            + "ORDER BY e.createdAt DESC, e.id DESC")
+    List<EndorsementEntity> findByEmployerIdBefore(@Param("employerId") UUID employerId,
+                                                   @Param("createdAt") Instant createdAt,
+                                                   @Param("id") UUID id, Limit limit);
+
+    List<EndorsementEntity> findByEmployerIdAndStatusInOrderByCreatedAtDescIdDesc(
+            UUID employerId, List<String> statuses, Limit limit);
+
+    @Query("SELECT e FROM EndorsementEntity e WHERE e.employerId = :employerId AND e.status IN :statuses "
+            + "AND e.createdAt <= :createdAt AND (e.createdAt < :createdAt OR e.id < :id) "
+            + "ORDER BY e.createdAt DESC, e.id DESC")
+    List<EndorsementEntity> findByEmployerIdAndStatusInBefore(@Param("employerId") UUID employerId,
+                                                              @Param("statuses") List<String> statuses,
+                                                              @Param("createdAt") Instant createdAt,
+                                                              @Param("id") UUID id, Limit limit);
+
+    // The outstanding statuses are written as literals, not bound, so that the
+    // predicate provably matches the partial index idx_endorsements_employer_outstanding.
+    String OUTSTANDING_PREDICATE = "e.status IN ('CREATED', 'VALIDATED', 'PROVISIONALLY_COVERED', "
+            + "'SUBMITTED_REALTIME', 'QUEUED_FOR_BATCH', 'BATCH_SUBMITTED', 'INSURER_PROCESSING', 'RETRY_PENDING')";
+
+    @Query("SELECT e FROM EndorsementEntity e WHERE e.employerId = :employerId AND " + OUTSTANDING_PREDICATE
+            + " ORDER BY e.createdAt DESC, e.id DESC")
+    List<EndorsementEntity> findOutstandingByEmployerId(@Param("employerId") UUID employerId, Limit limit);
+
+    @Query("SELECT e FROM EndorsementEntity e WHERE e.employerId = :employerId AND " + OUTSTANDING_PREDICATE
+            + " AND e.createdAt <= :createdAt AND (e.createdAt < :createdAt OR e.id < :id)"
+            + " ORDER BY e.createdAt DESC, e.id DESC")
+    List<EndorsementEntity> findOutstandingByEmployerIdBefore(@Param("employerId") UUID employerId,
+                                                              @Param("createdAt") Instant createdAt,
+                                                              @Param("id") UUID id, Limit limit);
+
+    long countByEmployerId(UUID employerId);
+    long countByEmployerIdAndStatusIn(UUID employerId, List<String> statuses);
     List<EndorsementEntity> findByStatus(String status);
     List<EndorsementEntity> findByStatusAndInsurerId(String status, UUID insurerId);
+
+    @Query(value = "SELECT * FROM endorsements WHERE status = :status AND insurer_id = :insurerId "
+            + "ORDER BY created_at, id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<EndorsementEntity> claimByStatusAndInsurerId(@Param("status") String status,
+                                                      @Param("insurerId") UUID insurerId,
+                                                      @Param("limit") int limit);
+
+    @Query(value = "SELECT * FROM endorsements WHERE status = :status AND insurer_id = :insurerId "
+            + "AND (created_at, id) > (:createdAt, :id) "
+            + "ORDER BY created_at, id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<EndorsementEntity> claimByStatusAndInsurerIdAfter(@Param("status") String status,
+                                                           @Param("insurerId") UUID insurerId,
+                                                           @Param("createdAt") Instant createdAt,
+                                                           @Param("id") UUID id,
+                                                           @Param("limit") int limit);
+
     List<EndorsementEntity> findByBatchId(UUID batchId);
     long countByEmployerIdAndStatus(UUID employerId, String status);
     long countByStatus(String status);
@@ -3,6 +3,7 @@ package com.plum.endorsements.infrastructure.persistence.repository;
 import com.plum.endorsements.infrastructure.persistence.entity.ErrorResolutionEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -10,5 +11,6 @@ public interface SpringDataErrorResolutionRepository extends JpaRepository<Error
     List<ErrorResolutionEntity> findByEndorsementId(UUID endorsementId);
     long countByAutoApplied(boolean autoApplied);
     List<ErrorResolutionEntity> findByEndorsementIdAndOutcomeIsNull(UUID endorsementId);
+    List<ErrorResolutionEntity> findByEndorsementIdInAndOutcomeIsNull(Collection<UUID> endorsementIds);
     long countByOutcome(String outcome);
 }
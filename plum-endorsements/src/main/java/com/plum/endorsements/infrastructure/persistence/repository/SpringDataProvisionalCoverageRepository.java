@@ -7,6 +7,7 @@ import java.util.*;
 
 public interface SpringDataProvisionalCoverageRepository extends JpaRepository<ProvisionalCoverageEntity, UUID> {
     Optional<ProvisionalCoverageEntity> findByEndorsementId(UUID endorsementId);
+    List<ProvisionalCoverageEntity> findByEndorsementIdIn(Collection<UUID> endorsementIds);
     @Query("SELECT p FROM ProvisionalCoverageEntity p WHERE p.employeeId = :employeeId AND p.confirmedAt IS NULL AND p.expiredAt IS NULL")
     List<ProvisionalCoverageEntity> findActiveByEmployeeId(UUID employeeId);
     @Query("SELECT p FROM ProvisionalCoverageEntity p WHERE p.confirmedAt IS NULL AND p.expiredAt IS NULL AND p.createdAt < :cutoff")
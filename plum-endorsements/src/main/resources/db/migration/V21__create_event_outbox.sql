@@ -0,0 +1,11 @@
+-- Transactional outbox: events are written in the same transaction as the
+-- endorsement change and relayed to Kafka by OutboxRelay, which deletes rows
+-- once the broker has acknowledged them.
+CREATE TABLE event_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    topic VARCHAR(100) NOT NULL,
+    message_key VARCHAR(100) NOT NULL,
+    event_type VARCHAR(50) NOT NULL,
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
@@ -0,0 +1,13 @@
+-- Escrow stripes for EA accounts: each stripe holds a share of the account's
+-- free balance so reservations for one employer can lock different rows.
+-- The consolidated reserved amount is ea_accounts.reserved + SUM(stripes.reserved).
+CREATE TABLE ea_account_stripes (
+    employer_id UUID NOT NULL,
+    insurer_id UUID NOT NULL,
+    stripe INTEGER NOT NULL,
+    allocated DECIMAL(12,2) NOT NULL DEFAULT 0,
+    reserved DECIMAL(12,2) NOT NULL DEFAULT 0,
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+    PRIMARY KEY (employer_id, insurer_id, stripe),
+    FOREIGN KEY (employer_id, insurer_id) REFERENCES ea_accounts (employer_id, insurer_id)
+);
@@ -0,0 +1,18 @@
+-- Keyset pagination for employer listings: newest first, id breaks ties
+-- between rows created in the same microsecond. Supersedes the single-column
+-- employer index, which is a prefix of it.
+CREATE INDEX idx_endorsements_employer_created
+    ON endorsements (employer_id, created_at DESC, id DESC);
+
+DROP INDEX IF EXISTS idx_endorsements_employer;
+
+-- Listings filtered to one status seek straight to that status
+CREATE INDEX idx_endorsements_employer_status_created
+    ON endorsements (employer_id, status, created_at DESC, id DESC);
+
+-- Outstanding-items view. The predicate must match EndorsementStatus.outstanding()
+-- and the literal list in SpringDataEndorsementRepository for the planner to use it.
+CREATE INDEX idx_endorsements_employer_outstanding
+    ON endorsements (employer_id, created_at DESC, id DESC)
+    WHERE status IN ('CREATED', 'VALIDATED', 'PROVISIONALLY_COVERED', 'SUBMITTED_REALTIME',
+                     'QUEUED_FOR_BATCH', 'BATCH_SUBMITTED', 'INSURER_PROCESSING', 'RETRY_PENDING');
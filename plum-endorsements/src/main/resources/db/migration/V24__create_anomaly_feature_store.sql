@@ -0,0 +1,69 @@
+-- Incrementally maintained inputs for RuleBasedAnomalyScorer, so scoring an
+-- endorsement no longer reads the endorsement history.
+
+-- Endorsement counts per employer in hourly and daily buckets (sliding 24h / 30d windows)
+CREATE TABLE anomaly_employer_activity (
+    employer_id UUID NOT NULL,
+    bucket_span VARCHAR(4) NOT NULL,
+    bucket_start TIMESTAMPTZ NOT NULL,
+    endorsement_count INT NOT NULL,
+    PRIMARY KEY (employer_id, bucket_span, bucket_start)
+);
+
+CREATE INDEX idx_anomaly_employer_activity_start ON anomaly_employer_activity (bucket_start);
+
+-- Running premium count, mean and sum of squared deviations (Welford)
+CREATE TABLE anomaly_employer_features (
+    employer_id UUID PRIMARY KEY,
+    premium_count BIGINT NOT NULL,
+    premium_mean DOUBLE PRECISION NOT NULL,
+    premium_m2 DOUBLE PRECISION NOT NULL,
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+-- Last activity per employee; previous_activity_at is the activity before
+-- last_endorsement_id, used when scoring that endorsement itself
+CREATE TABLE anomaly_employee_features (
+    employer_id UUID NOT NULL,
+    employee_id UUID NOT NULL,
+    last_endorsement_id UUID NOT NULL,
+    last_activity_at TIMESTAMPTZ NOT NULL,
+    previous_activity_at TIMESTAMPTZ,
+    last_add_at TIMESTAMPTZ,
+    last_delete_at TIMESTAMPTZ,
+    PRIMARY KEY (employer_id, employee_id)
+);
+
+-- Backfill from existing endorsements
+INSERT INTO anomaly_employer_activity (employer_id, bucket_span, bucket_start, endorsement_count)
+SELECT employer_id, 'HOUR', date_trunc('hour', created_at AT TIME ZONE 'UTC') AT TIME ZONE 'UTC', COUNT(*)
+FROM endorsements
+WHERE created_at >= now() - INTERVAL '25 hours'
+GROUP BY 1, 3;
+
+INSERT INTO anomaly_employer_activity (employer_id, bucket_span, bucket_start, endorsement_count)
+SELECT employer_id, 'DAY', date_trunc('day', created_at AT TIME ZONE 'UTC') AT TIME ZONE 'UTC', COUNT(*)
+FROM endorsements
+WHERE created_at >= now() - INTERVAL '31 days'
+GROUP BY 1, 3;
+
+INSERT INTO anomaly_employer_features (employer_id, premium_count, premium_mean, premium_m2)
+SELECT employer_id, COUNT(premium_amount), AVG(premium_amount),
+       COALESCE(VAR_POP(premium_amount) * COUNT(premium_amount), 0)
+FROM endorsements
+WHERE premium_amount IS NOT NULL
+GROUP BY employer_id;
+
+INSERT INTO anomaly_employee_features (employer_id, employee_id, last_endorsement_id, last_activity_at,
+                                       previous_activity_at, last_add_at, last_delete_at)
+SELECT employer_id, employee_id, id, created_at, previous_created_at, last_add_at, last_delete_at
+FROM (
+    SELECT employer_id, employee_id, id, created_at,
+           ROW_NUMBER() OVER w AS rn,
+           LEAD(created_at) OVER w AS previous_created_at,
+           MAX(created_at) FILTER (WHERE type = 'ADD') OVER (PARTITION BY employer_id, employee_id) AS last_add_at,
+           MAX(created_at) FILTER (WHERE type = 'DELETE') OVER (PARTITION BY employer_id, employee_id) AS last_delete_at
+    FROM endorsements
+    WINDOW w AS (PARTITION BY employer_id, employee_id ORDER BY created_at DESC, id DESC)
+) ranked
+WHERE rn = 1;
@@ -0,0 +1,36 @@
+-- Process mining aggregates, updated as status changes happen so the metrics
+-- and insights endpoints no longer scan endorsement_events.
+
+-- Duration statistics per insurer and transition: Welford mean and sum of
+-- squared deviations, plus sample counts per duration bucket for percentiles
+CREATE TABLE process_mining_transition_stats (
+    insurer_id UUID NOT NULL,
+    from_status VARCHAR(50) NOT NULL,
+    to_status VARCHAR(50) NOT NULL,
+    sample_count BIGINT NOT NULL,
+    mean_ms DOUBLE PRECISION NOT NULL,
+    m2 DOUBLE PRECISION NOT NULL,
+    max_ms BIGINT NOT NULL,
+    bucket_counts BIGINT[] NOT NULL,
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+    PRIMARY KEY (insurer_id, from_status, to_status)
+);
+
+-- Completed endorsements per insurer and how many never passed through REJECTED
+CREATE TABLE process_mining_path_stats (
+    insurer_id UUID PRIMARY KEY,
+    completed_count BIGINT NOT NULL,
+    happy_count BIGINT NOT NULL,
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+-- Last endorsement_events id folded into the aggregates; starting at 0 folds
+-- the existing STATUS_CHANGE history on the first analysis
+CREATE TABLE process_mining_log_watermark (
+    id SMALLINT PRIMARY KEY CHECK (id = 1),
+    last_event_id BIGINT NOT NULL
+);
+
+INSERT INTO process_mining_log_watermark (id, last_event_id) VALUES (1, 0);
+
+CREATE INDEX idx_events_status_change ON endorsement_events (id) WHERE event_type = 'STATUS_CHANGE';
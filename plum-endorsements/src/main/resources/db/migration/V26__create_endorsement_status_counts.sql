@@ -0,0 +1,54 @@
+-- Endorsement counts per insurer, employer and status, so STP rates, employer
+-- success rates and the status gauges no longer count endorsement rows.
+
+-- Compacted counts; only written by the compaction and reconciliation jobs
+CREATE TABLE endorsement_status_counts (
+    insurer_id UUID NOT NULL,
+    employer_id UUID NOT NULL,
+    status VARCHAR(30) NOT NULL,
+    endorsement_count BIGINT NOT NULL,
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+    PRIMARY KEY (insurer_id, employer_id, status)
+);
+
+-- +1/-1 per status change, appended in the same transaction as the change.
+-- Appending instead of updating the count row keeps concurrent transitions for
+-- one employer from queueing on the same row.
+CREATE TABLE endorsement_status_count_deltas (
+    id BIGSERIAL PRIMARY KEY,
+    insurer_id UUID NOT NULL,
+    employer_id UUID NOT NULL,
+    status VARCHAR(30) NOT NULL,
+    delta INT NOT NULL
+);
+
+CREATE FUNCTION record_endorsement_status_delta() RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        INSERT INTO endorsement_status_count_deltas (insurer_id, employer_id, status, delta)
+        VALUES (OLD.insurer_id, OLD.employer_id, OLD.status, -1);
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        INSERT INTO endorsement_status_count_deltas (insurer_id, employer_id, status, delta)
+        VALUES (NEW.insurer_id, NEW.employer_id, NEW.status, 1);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_endorsements_status_count_insert_delete
+    AFTER INSERT OR DELETE ON endorsements
+    FOR EACH ROW EXECUTE FUNCTION record_endorsement_status_delta();
+
+CREATE TRIGGER trg_endorsements_status_count_update
+    AFTER UPDATE OF status, insurer_id, employer_id ON endorsements
+    FOR EACH ROW
+    WHEN (OLD.status IS DISTINCT FROM NEW.status
+        OR OLD.insurer_id IS DISTINCT FROM NEW.insurer_id
+        OR OLD.employer_id IS DISTINCT FROM NEW.employer_id)
+    EXECUTE FUNCTION record_endorsement_status_delta();
+
+INSERT INTO endorsement_status_counts (insurer_id, employer_id, status, endorsement_count)
+SELECT insurer_id, employer_id, status, COUNT(*)
+FROM endorsements
+GROUP BY insurer_id, employer_id, status;
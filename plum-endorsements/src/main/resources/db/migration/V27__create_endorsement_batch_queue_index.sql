@@ -0,0 +1,5 @@
+-- Batch assembly claims each insurer's oldest QUEUED_FOR_BATCH endorsements
+-- in chunks; this keeps every claim an index range scan however large the
+-- endorsements table grows.
+CREATE INDEX idx_endorsements_batch_queue ON endorsements(insurer_id, created_at, id)
+    WHERE status = 'QUEUED_FOR_BATCH';
@@ -0,0 +1,10 @@
+-- Each open batch carries its own next poll time so the status poller only
+-- calls insurers for batches that are due, backing off while nothing changes.
+-- sla_breach_notified_at makes the SLA breach alert fire once per batch.
+ALTER TABLE endorsement_batches
+    ADD COLUMN next_poll_at TIMESTAMPTZ,
+    ADD COLUMN poll_count INT NOT NULL DEFAULT 0,
+    ADD COLUMN sla_breach_notified_at TIMESTAMPTZ;
+
+CREATE INDEX idx_batches_poll_due ON endorsement_batches(next_poll_at NULLS FIRST)
+    WHERE status IN ('SUBMITTED', 'PROCESSING');
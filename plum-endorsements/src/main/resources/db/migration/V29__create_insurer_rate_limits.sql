@@ -0,0 +1,8 @@
+-- Shared GCRA state for insurer rate limits: one row per insurer holding the
+-- theoretical arrival time of its next call. Every replica reserves call
+-- slots against the same row, so the insurer's per-minute quota holds however
+-- many replicas are calling it.
+CREATE TABLE insurer_rate_limits (
+    insurer_id UUID PRIMARY KEY,
+    theoretical_arrival_at TIMESTAMPTZ NOT NULL
+);
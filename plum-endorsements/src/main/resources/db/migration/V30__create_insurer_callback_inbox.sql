@@ -0,0 +1,31 @@
+-- Durable queue for insurer callbacks. The callback endpoint stores one row
+-- per batch outcome and one per member result before acknowledging, and the
+-- applier drains pending rows in id order and applies them in bulk. Insurers
+-- redeliver until they see a 2xx, so the unique key drops repeats of an
+-- outcome already stored: per batch reference and status for batch rows, per
+-- endorsement and outcome for member rows.
+CREATE TABLE insurer_callback_inbox (
+    id                BIGSERIAL PRIMARY KEY,
+    insurer_id        UUID NOT NULL,
+    kind              VARCHAR(10) NOT NULL,
+    reference         VARCHAR(100) NOT NULL,
+    status            VARCHAR(20) NOT NULL,
+    endorsement_id    UUID,
+    insurer_reference VARCHAR(100),
+    reason            TEXT,
+    received_at       TIMESTAMPTZ NOT NULL,
+    applied_at        TIMESTAMPTZ,
+    attempts          INT NOT NULL DEFAULT 0,
+    last_error        TEXT,
+    failed_at         TIMESTAMPTZ,
+    CONSTRAINT uq_insurer_callback UNIQUE (insurer_id, kind, reference, status)
+);
+
+CREATE INDEX idx_insurer_callback_pending ON insurer_callback_inbox(id)
+    WHERE applied_at IS NULL AND failed_at IS NULL;
+
+CREATE INDEX idx_insurer_callback_applied ON insurer_callback_inbox(applied_at)
+    WHERE applied_at IS NOT NULL;
+
+-- Batch callbacks name the batch by the insurer's reference
+CREATE INDEX idx_batches_insurer_batch_ref ON endorsement_batches(insurer_id, insurer_batch_ref);
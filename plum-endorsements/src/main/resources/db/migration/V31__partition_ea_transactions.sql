@@ -0,0 +1,55 @@
+-- Range-partition the EA ledger by calendar month (UTC) so queries bounded by
+-- created_at only touch the months they cover, and a month that is no longer
+-- queried can be detached instead of deleted row by row. Partitions are named
+-- ea_transactions_pYYYYMM; EALedgerScheduler keeps a few months open ahead,
+-- and the default partition catches rows that land outside them.
+--
+-- The foreign key to endorsements is not carried over: the ledger is an audit
+-- record that outlives archived endorsements, and the key would make every
+-- endorsement delete probe all partitions.
+ALTER TABLE ea_transactions RENAME TO ea_transactions_unpartitioned;
+ALTER SEQUENCE ea_transactions_id_seq OWNED BY NONE;
+
+CREATE TABLE ea_transactions (
+    id              BIGINT NOT NULL DEFAULT nextval('ea_transactions_id_seq'),
+    employer_id     UUID NOT NULL,
+    insurer_id      UUID NOT NULL,
+    endorsement_id  UUID,
+    type            VARCHAR(20) NOT NULL,
+    amount          DECIMAL(12,2) NOT NULL,
+    balance_after   DECIMAL(12,2) NOT NULL,
+    description     TEXT,
+    created_at      TIMESTAMPTZ NOT NULL DEFAULT now(),
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+ALTER SEQUENCE ea_transactions_id_seq OWNED BY ea_transactions.id;
+
+CREATE TABLE ea_transactions_default PARTITION OF ea_transactions DEFAULT;
+
+-- One partition per month from the oldest entry to three months ahead
+DO $$
+DECLARE
+    month_start DATE := date_trunc('month',
+            COALESCE((SELECT min(created_at) FROM ea_transactions_unpartitioned), now()) AT TIME ZONE 'UTC')::date;
+    last_month  DATE := (date_trunc('month', now() AT TIME ZONE 'UTC') + INTERVAL '3 months')::date;
+BEGIN
+    WHILE month_start <= last_month LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF ea_transactions FOR VALUES FROM (%L) TO (%L)',
+                'ea_transactions_p' || to_char(month_start, 'YYYYMM'),
+                to_char(month_start, 'YYYY-MM-DD') || ' 00:00:00+00',
+                to_char(month_start + INTERVAL '1 month', 'YYYY-MM-DD') || ' 00:00:00+00');
+        month_start := (month_start + INTERVAL '1 month')::date;
+    END LOOP;
+END $$;
+
+INSERT INTO ea_transactions (id, employer_id, insurer_id, endorsement_id, type, amount,
+                             balance_after, description, created_at)
+SELECT id, employer_id, insurer_id, endorsement_id, type, amount, balance_after, description, created_at
+FROM ea_transactions_unpartitioned;
+
+DROP TABLE ea_transactions_unpartitioned;
+
+-- Account history in ledger order; replaces idx_ea_tx_employer
+CREATE INDEX idx_ea_tx_account_time ON ea_transactions(employer_id, insurer_id, created_at, id);
+CREATE INDEX idx_ea_tx_endorsement ON ea_transactions(endorsement_id);
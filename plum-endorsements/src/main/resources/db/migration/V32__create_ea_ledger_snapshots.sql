@@ -0,0 +1,20 @@
+-- Checkpoints of each EA account's ledger: the entry count and per-type totals
+-- up to as_of, and the balance recorded by the latest entry. A question about
+-- time t reads the latest snapshot at or before t and only the entries after
+-- it. Snapshots are cumulative, so each one is computed from the previous
+-- snapshot and the entries since, and an account only gets a new one when it
+-- has new entries.
+CREATE TABLE ea_ledger_snapshots (
+    employer_id       UUID NOT NULL,
+    insurer_id        UUID NOT NULL,
+    as_of             TIMESTAMPTZ NOT NULL,
+    balance_after     DECIMAL(12,2),
+    transaction_count BIGINT NOT NULL,
+    debited           DECIMAL(16,2) NOT NULL,
+    credited          DECIMAL(16,2) NOT NULL,
+    reserved          DECIMAL(16,2) NOT NULL,
+    released          DECIMAL(16,2) NOT NULL,
+    topped_up         DECIMAL(16,2) NOT NULL,
+    created_at        TIMESTAMPTZ NOT NULL DEFAULT now(),
+    PRIMARY KEY (employer_id, insurer_id, as_of)
+);
@@ -0,0 +1,15 @@
+-- Member outcomes carry the insurer batch they belong to. An endorsement
+-- retried into a new batch can get the same outcome again, which is a new
+-- result rather than a redelivery, so the batch reference joins the key.
+-- Batch rows repeat their own reference; member rows stored before this
+-- have no batch and are left blank.
+ALTER TABLE insurer_callback_inbox ADD COLUMN batch_reference VARCHAR(100);
+
+UPDATE insurer_callback_inbox SET batch_reference = CASE WHEN kind = 'BATCH' THEN reference ELSE '' END;
+
+ALTER TABLE insurer_callback_inbox ALTER COLUMN batch_reference SET NOT NULL;
+
+ALTER TABLE insurer_callback_inbox DROP CONSTRAINT uq_insurer_callback;
+
+ALTER TABLE insurer_callback_inbox
+    ADD CONSTRAINT uq_insurer_callback UNIQUE (insurer_id, kind, reference, batch_reference, status);
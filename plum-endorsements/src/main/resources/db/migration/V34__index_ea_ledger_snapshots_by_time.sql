@@ -0,0 +1,3 @@
+-- Each snapshot run recounts the snapshots taken in the last recheck window,
+-- across every account, so it looks them up by time rather than by account.
+CREATE INDEX idx_ea_ledger_snapshots_as_of ON ea_ledger_snapshots (as_of);
@@ -0,0 +1,4 @@
+-- Micro-batches carry real-time traffic and are flagged so they do not count
+-- as the insurer's one open scheduled batch.
+ALTER TABLE endorsement_batches
+    ADD COLUMN micro_batch BOOLEAN NOT NULL DEFAULT FALSE;
@@ -0,0 +1,4 @@
+-- A callback can arrive before the batch it names has been saved with the
+-- insurer's reference. Such rows stay pending and are not picked up again
+-- before retry_at; once old enough they are set aside like failed ones.
+ALTER TABLE insurer_callback_inbox ADD COLUMN retry_at TIMESTAMPTZ;
@@ -0,0 +1,89 @@
+package com.plum.endorsements.api.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+class BulkEndorsementReaderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private static InputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<BulkEndorsementReader.Row> readAll(BulkEndorsementReader reader) {
+        List<BulkEndorsementReader.Row> rows = new ArrayList<>();
+        reader.forEachRemaining(rows::add);
+        return rows;
+    }
+
+    @Test
+    void json_ShouldStreamRowsAndReportMalformedRowsInPlace() throws Exception {
+        UUID id = UUID.randomUUID();
+        String json = """
+                [
+                  {"employerId":"%1$s","employeeId":"%1$s","insurerId":"%1$s","policyId":"%1$s",
+                   "type":"ADD","coverageStartDate":"2026-01-01","employeeData":{"name":"A"},
+                   "premiumAmount":100.50,"idempotencyKey":"k1"},
+                  {"employerId":"not-a-uuid"},
+                  {"employerId":"%1$s","employeeId":"%1$s","insurerId":"%1$s","policyId":"%1$s",
+                   "type":"DELETE","coverageStartDate":"2026-01-01","employeeData":{}}
+                ]
+                """.formatted(id);
+
+        List<BulkEndorsementReader.Row> rows = readAll(BulkEndorsementReader.json(objectMapper, body(json)));
+
+        assertThat(rows).hasSize(3);
+        assertThat(rows.get(0).rowNumber()).isEqualTo(1);
+        assertThat(rows.get(0).request().idempotencyKey()).isEqualTo("k1");
+        assertThat(rows.get(0).request().premiumAmount()).isEqualByComparingTo("100.50");
+        assertThat(rows.get(1).request()).isNull();
+        assertThat(rows.get(1).error()).startsWith("Malformed row");
+        assertThat(rows.get(2).rowNumber()).isEqualTo(3);
+        assertThat(rows.get(2).request().type()).isEqualTo("DELETE");
+    }
+
+    @Test
+    void json_NotAnArray_ShouldFailBeforeStreaming() {
+        assertThatThrownBy(() -> BulkEndorsementReader.json(objectMapper, body("{\"type\":\"ADD\"}")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void csv_ShouldMapRequestColumnsAndCollectEmployeeData() throws Exception {
+        UUID id = UUID.randomUUID();
+        String csv = "employerId,employeeId,insurerId,policyId,type,coverageStartDate,premiumAmount,name,department\n"
+                + "%1$s,%1$s,%1$s,%1$s,ADD,2026-01-01,250.00,\"Doe, Jane\",Engineering\n".formatted(id)
+                + "\n"
+                + "%1$s,%1$s,%1$s,%1$s,ADD,2026-01-01\n".formatted(id);
+
+        List<BulkEndorsementReader.Row> rows = readAll(BulkEndorsementReader.csv(objectMapper, body(csv)));
+
+        assertThat(rows).hasSize(2);
+        var request = rows.get(0).request();
+        assertThat(request.employerId()).isEqualTo(id);
+        assertThat(request.premiumAmount()).isEqualByComparingTo("250.00");
+        assertThat(request.employeeData().get("name").asText()).isEqualTo("Doe, Jane");
+        assertThat(request.employeeData().get("department").asText()).isEqualTo("Engineering");
+        assertThat(request.idempotencyKey()).isNull();
+
+        assertThat(rows.get(1).rowNumber()).isEqualTo(2);
+        assertThat(rows.get(1).error()).contains("Expected 9 columns");
+    }
+
+    @Test
+    void splitCsvLine_ShouldHonourQuotedCommasAndEscapedQuotes() {
+        assertThat(BulkEndorsementReader.splitCsvLine("a,\"b,c\",\"say \"\"hi\"\"\","))
+                .containsExactly("a", "b,c", "say \"hi\"", "");
+    }
+}
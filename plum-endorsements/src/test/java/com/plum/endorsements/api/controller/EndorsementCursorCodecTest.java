@@ -0,0 +1,43 @@
+package com.plum.endorsements.api.controller;
+
+import com.plum.endorsements.domain.model.EndorsementCursor;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+class EndorsementCursorCodecTest {
+
+    @Test
+    void encode_ShouldRoundTripAndBeUrlSafe() {
+        EndorsementCursor cursor = new EndorsementCursor(
+                Instant.parse("2026-03-01T10:15:30.123456Z"), UUID.randomUUID());
+
+        String token = EndorsementCursorCodec.encode(cursor);
+
+        assertThat(token).doesNotContain("+", "/", "=", "|");
+        assertThat(EndorsementCursorCodec.decode(token)).isEqualTo(cursor);
+    }
+
+    @Test
+    void decode_BlankToken_ShouldRequestFirstPage() {
+        assertThat(EndorsementCursorCodec.decode("")).isNull();
+        assertThat(EndorsementCursorCodec.decode(null)).isNull();
+        assertThat(EndorsementCursorCodec.encode(null)).isNull();
+    }
+
+    @Test
+    void decode_ForeignOrCorruptToken_ShouldBeRejected() {
+        String wrongVersion = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                ("v0|2026-03-01T10:15:30Z|" + UUID.randomUUID()).getBytes(StandardCharsets.UTF_8));
+
+        assertThatThrownBy(() -> EndorsementCursorCodec.decode(wrongVersion))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> EndorsementCursorCodec.decode("not*base64"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -557,12 +557,12 @@ class IntelligenceControllerTest {
         @Test
         @DisplayName("POST /process-mining/analyze returns 202 accepted")
         void triggerAnalysis_Returns202() throws Exception {
-            doNothing().when(processMiningService).generateInsights();
+            doNothing().when(processMiningService).analyze();
 
             mockMvc.perform(post("/api/v1/intelligence/process-mining/analyze"))
                     .andExpect(status().isAccepted());
 
-            verify(processMiningService).generateInsights();
+            verify(processMiningService).analyze();
         }
     }
 }
@@ -0,0 +1,215 @@
+package com.plum.endorsements.application.handler;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.plum.endorsements.application.handler.BulkCreateEndorsementHandler.Outcome;
+import com.plum.endorsements.application.handler.BulkCreateEndorsementHandler.Row;
+import com.plum.endorsements.application.handler.BulkCreateEndorsementHandler.RowResult;
+import com.plum.endorsements.application.service.AnomalyFeatureService;
+import com.plum.endorsements.application.service.EAReservationService;
+import com.plum.endorsements.domain.model.*;
+import com.plum.endorsements.domain.port.*;
+import com.plum.endorsements.domain.service.EndorsementStateMachine;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BulkCreateEndorsementHandlerTest {
+
+    @Mock
+    EndorsementRepository endorsementRepository;
+
+    @Mock
+    EAAccountRepository eaAccountRepository;
+
+    @Mock
+    ProvisionalCoverageRepository provisionalCoverageRepository;
+
+    @Spy
+    EndorsementStateMachine stateMachine = new EndorsementStateMachine();
+
+    @Mock
+    EventPublisher eventPublisher;
+
+    @Mock
+    AnomalyFeatureService anomalyFeatureService;
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    MeterRegistry meterRegistry;
+
+    private EAReservationService reservationService;
+
+    private BulkCreateEndorsementHandler handler;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private UUID employerId;
+    private UUID insurerId;
+
+    @BeforeEach
+    void setUp() {
+        employerId = UUID.randomUUID();
+        insurerId = UUID.randomUUID();
+        reservationService = new EAReservationService(eaAccountRepository, meterRegistry, 4);
+        handler = new BulkCreateEndorsementHandler(
+                endorsementRepository, eaAccountRepository, reservationService, provisionalCoverageRepository,
+                stateMachine, eventPublisher, anomalyFeatureService, meterRegistry, false);
+    }
+
+    private Row row(int rowNumber, EndorsementType type, String premium, String key) {
+        return new Row(rowNumber, Endorsement.builder()
+                .employerId(employerId)
+                .employeeId(UUID.randomUUID())
+                .insurerId(insurerId)
+                .policyId(UUID.randomUUID())
+                .type(type)
+                .coverageStartDate(LocalDate.now().plusDays(1))
+                .employeeData(objectMapper.createObjectNode().put("name", "Row " + rowNumber))
+                .premiumAmount(new BigDecimal(premium))
+                .idempotencyKey(key)
+                .build());
+    }
+
+    private EAAccount account(String balance) {
+        return EAAccount.builder()
+                .employerId(employerId)
+                .insurerId(insurerId)
+                .balance(new BigDecimal(balance))
+                .reserved(BigDecimal.ZERO)
+                .updatedAt(Instant.now())
+                .build();
+    }
+
+    private void mockInsertAllInsertsEverything() {
+        when(endorsementRepository.insertAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void handleChunk_NewRows_ShouldInsertOnceAndLockAccountOnce() {
+        List<Row> rows = List.of(
+                row(1, EndorsementType.ADD, "100.00", "k1"),
+                row(2, EndorsementType.ADD, "200.00", "k2"),
+                row(3, EndorsementType.DELETE, "50.00", "k3"));
+        when(endorsementRepository.findIdsByIdempotencyKeys(anyCollection())).thenReturn(Map.of());
+        mockInsertAllInsertsEverything();
+        EAAccount account = account("1000.00");
+        when(eaAccountRepository.findByEmployerIdAndInsurerIdForUpdate(employerId, insurerId))
+                .thenReturn(Optional.of(account));
+
+        List<RowResult> results = handler.handleChunk(rows);
+
+        assertThat(results).extracting(RowResult::outcome)
+                .containsExactly(Outcome.CREATED, Outcome.CREATED, Outcome.CREATED);
+        assertThat(results).extracting(RowResult::status)
+                .containsOnly(EndorsementStatus.PROVISIONALLY_COVERED);
+        assertThat(results).extracting(RowResult::endorsementId).doesNotContainNull();
+
+        verify(endorsementRepository, times(1)).insertAll(anyList());
+        verify(endorsementRepository, never()).save(any(Endorsement.class));
+        verify(eaAccountRepository, times(1)).findByEmployerIdAndInsurerIdForUpdate(employerId, insurerId);
+        verify(eaAccountRepository, times(1)).findStripesForUpdate(employerId, insurerId);
+        verify(eaAccountRepository, times(1)).saveStripes(anyList());
+        verify(eaAccountRepository, never()).save(any(EAAccount.class));
+        assertThat(account.totalReserved()).isEqualByComparingTo("300.00");
+
+        verify(eaAccountRepository).saveTransactions(argThat(txs -> txs.size() == 2
+                && txs.get(0).balanceAfter().compareTo(new BigDecimal("900.00")) == 0
+                && txs.get(1).balanceAfter().compareTo(new BigDecimal("700.00")) == 0));
+        verify(provisionalCoverageRepository).saveAll(argThat(coverages -> coverages.size() == 2));
+        verify(anomalyFeatureService).recordCreated(argThat(created -> created.size() == 3));
+
+        // Created, Validated and ProvisionalCoverageGranted per row
+        verify(eventPublisher, times(9)).publish(any(EndorsementEvent.class));
+    }
+
+    @Test
+    void handleChunk_ExistingKey_ShouldReportDuplicateWithoutInsert() {
+        UUID existingId = UUID.randomUUID();
+        List<Row> rows = List.of(row(1, EndorsementType.UPDATE, "10.00", "known"));
+        when(endorsementRepository.findIdsByIdempotencyKeys(anyCollection()))
+                .thenReturn(Map.of("known", existingId));
+        when(endorsementRepository.insertAll(anyList())).thenReturn(List.of());
+
+        List<RowResult> results = handler.handleChunk(rows);
+
+        assertThat(results).singleElement().satisfies(result -> {
+            assertThat(result.outcome()).isEqualTo(Outcome.DUPLICATE);
+            assertThat(result.endorsementId()).isEqualTo(existingId);
+        });
+        verify(endorsementRepository).insertAll(argThat(List::isEmpty));
+        verify(eventPublisher, never()).publish(any(EndorsementEvent.class));
+    }
+
+    @Test
+    void handleChunk_KeyRepeatedInUpload_ShouldPointAtFirstRow() {
+        List<Row> rows = List.of(
+                row(1, EndorsementType.UPDATE, "10.00", "same"),
+                row(2, EndorsementType.UPDATE, "10.00", "same"));
+        when(endorsementRepository.findIdsByIdempotencyKeys(anyCollection())).thenReturn(Map.of());
+        mockInsertAllInsertsEverything();
+
+        List<RowResult> results = handler.handleChunk(rows);
+
+        assertThat(results.get(0).outcome()).isEqualTo(Outcome.CREATED);
+        assertThat(results.get(1).outcome()).isEqualTo(Outcome.DUPLICATE);
+        assertThat(results.get(1).endorsementId()).isEqualTo(results.get(0).endorsementId());
+        verify(endorsementRepository).insertAll(argThat(list -> list.size() == 1));
+    }
+
+    @Test
+    void handleChunk_KeyInsertedConcurrently_ShouldReleaseReservationAndReportDuplicate() {
+        List<Row> rows = List.of(
+                row(1, EndorsementType.ADD, "100.00", "raced"),
+                row(2, EndorsementType.ADD, "100.00", "fresh"));
+        UUID racedId = UUID.randomUUID();
+        when(endorsementRepository.findIdsByIdempotencyKeys(anyCollection()))
+                .thenReturn(Map.of())
+                .thenReturn(Map.of("raced", racedId));
+        when(endorsementRepository.insertAll(anyList()))
+                .thenAnswer(invocation -> List.of(((List<Endorsement>) invocation.getArgument(0)).get(1)));
+        EAAccount account = account("1000.00");
+        when(eaAccountRepository.findByEmployerIdAndInsurerIdForUpdate(employerId, insurerId))
+                .thenReturn(Optional.of(account));
+
+        List<RowResult> results = handler.handleChunk(rows);
+
+        assertThat(results.get(0).outcome()).isEqualTo(Outcome.DUPLICATE);
+        assertThat(results.get(0).endorsementId()).isEqualTo(racedId);
+        assertThat(results.get(1).outcome()).isEqualTo(Outcome.CREATED);
+        assertThat(account.totalReserved()).isEqualByComparingTo("100.00");
+        verify(eaAccountRepository).saveTransactions(argThat(txs -> txs.size() == 1));
+    }
+
+    @Test
+    void handleChunk_InsufficientBalanceBlocking_ShouldRejectOnlyUnfundedRows() {
+        BulkCreateEndorsementHandler blockingHandler = new BulkCreateEndorsementHandler(
+                endorsementRepository, eaAccountRepository, reservationService, provisionalCoverageRepository,
+                stateMachine, eventPublisher, anomalyFeatureService, meterRegistry, true);
+        List<Row> rows = List.of(
+                row(1, EndorsementType.ADD, "600.00", "a"),
+                row(2, EndorsementType.ADD, "600.00", "b"));
+        when(endorsementRepository.findIdsByIdempotencyKeys(anyCollection())).thenReturn(Map.of());
+        mockInsertAllInsertsEverything();
+        when(eaAccountRepository.findByEmployerIdAndInsurerIdForUpdate(employerId, insurerId))
+                .thenReturn(Optional.of(account("1000.00")));
+
+        List<RowResult> results = blockingHandler.handleChunk(rows);
+
+        assertThat(results).extracting(RowResult::outcome)
+                .containsExactly(Outcome.CREATED, Outcome.REJECTED);
+        verify(endorsementRepository).insertAll(argThat(list -> list.size() == 1));
+    }
+}
@@ -15,6 +15,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
 import java.time.Instant;
@@ -140,6 +141,81 @@ class EndorsementQueryHandlerTest {
         }
     }
 
+    @Nested
+    @DisplayName("findSliceByEmployerId")
+    class FindSlice {
+
+        private Endorsement endorsementAt(String createdAt) {
+            return Endorsement.builder()
+                    .id(UUID.randomUUID())
+                    .employerId(EMPLOYER_ID)
+                    .createdAt(Instant.parse(createdAt))
+                    .build();
+        }
+
+        @Test
+        @DisplayName("reads one extra row and returns a cursor at the last row shown")
+        void findSlice_WhenMoreRowsExist_ReturnsNextCursor() {
+            List<Endorsement> rows = List.of(
+                    endorsementAt("2026-03-03T00:00:00Z"),
+                    endorsementAt("2026-03-02T00:00:00Z"),
+                    endorsementAt("2026-03-01T00:00:00Z"));
+            when(endorsementRepository.findPageByEmployerId(EMPLOYER_ID, List.of(), null, 3)).thenReturn(rows);
+
+            EndorsementSlice slice = queryHandler.findSliceByEmployerId(EMPLOYER_ID, List.of(), null, 2, false);
+
+            assertThat(slice.content()).hasSize(2);
+            assertThat(slice.hasNext()).isTrue();
+            assertThat(slice.next()).isEqualTo(EndorsementCursor.of(rows.get(1)));
+            assertThat(slice.estimatedTotal()).isNull();
+            verify(endorsementRepository, never()).estimateCountByEmployerId(any(), any());
+        }
+
+        @Test
+        @DisplayName("last page has no cursor and counts exactly below the threshold")
+        void findSlice_LastPageWithTotal_CountsExactlyWhenSmall() {
+            EndorsementCursor after = new EndorsementCursor(Instant.parse("2026-03-05T00:00:00Z"), UUID.randomUUID());
+            List<EndorsementStatus> statuses = List.of(EndorsementStatus.CONFIRMED);
+            when(endorsementRepository.findPageByEmployerId(EMPLOYER_ID, statuses, after, 21))
+                    .thenReturn(List.of(endorsementAt("2026-03-04T00:00:00Z")));
+            ReflectionTestUtils.setField(queryHandler, "exactCountThreshold", 10_000L);
+            when(endorsementRepository.estimateCountByEmployerId(EMPLOYER_ID, statuses)).thenReturn(40L);
+            when(endorsementRepository.countByEmployerIdAndStatusIn(EMPLOYER_ID, statuses)).thenReturn(21L);
+
+            EndorsementSlice slice = queryHandler.findSliceByEmployerId(EMPLOYER_ID, statuses, after, 20, true);
+
+            assertThat(slice.content()).hasSize(1);
+            assertThat(slice.hasNext()).isFalse();
+            assertThat(slice.next()).isNull();
+            assertThat(slice.estimatedTotal()).isEqualTo(21L);
+        }
+
+        @Test
+        @DisplayName("uses the planner estimate at or above the threshold")
+        void findSlice_LargeResult_UsesEstimate() {
+            when(endorsementRepository.findPageByEmployerId(EMPLOYER_ID, List.of(), null, 21)).thenReturn(List.of());
+            ReflectionTestUtils.setField(queryHandler, "exactCountThreshold", 10_000L);
+            when(endorsementRepository.estimateCountByEmployerId(EMPLOYER_ID, List.of())).thenReturn(250_000L);
+
+            EndorsementSlice slice = queryHandler.findSliceByEmployerId(EMPLOYER_ID, List.of(), null, 20, true);
+
+            assertThat(slice.estimatedTotal()).isEqualTo(250_000L);
+            verify(endorsementRepository, never()).countByEmployerIdAndStatusIn(any(), any());
+        }
+
+        @Test
+        @DisplayName("outstanding slice filters on the outstanding statuses")
+        void findOutstandingSlice_PassesOutstandingStatuses() {
+            when(endorsementRepository.findPageByEmployerId(EMPLOYER_ID, EndorsementStatus.outstanding(), null, 11))
+                    .thenReturn(List.of());
+
+            EndorsementSlice slice = queryHandler.findOutstandingSliceByEmployerId(EMPLOYER_ID, null, 10, false);
+
+            assertThat(slice.content()).isEmpty();
+            assertThat(slice.hasNext()).isFalse();
+        }
+    }
+
     @Nested
     @DisplayName("findBatchesByEmployerId")
     class FindBatches {
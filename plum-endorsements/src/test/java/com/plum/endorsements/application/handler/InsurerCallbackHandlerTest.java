@@ -0,0 +1,419 @@
+package com.plum.endorsements.application.handler;
+
+import com.plum.endorsements.application.scheduler.BatchStatusPollerScheduler;
+import com.plum.endorsements.domain.model.BatchStatus;
+import com.plum.endorsements.domain.model.Endorsement;
+import com.plum.endorsements.domain.model.EndorsementBatch;
+import com.plum.endorsements.domain.model.EndorsementStatus;
+import com.plum.endorsements.domain.model.InsurerCallback;
+import com.plum.endorsements.domain.port.BatchRepository;
+import com.plum.endorsements.domain.port.EndorsementRepository;
+import com.plum.endorsements.domain.port.InsurerCallbackInbox;
+import com.plum.endorsements.domain.port.InsurerPort;
+import com.plum.endorsements.domain.port.NotificationPort;
+import com.plum.endorsements.infrastructure.insurer.InsurerRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("InsurerCallbackHandler")
+class InsurerCallbackHandlerTest {
+
+    private static final UUID NIVA = UUID.fromString("44444444-4444-4444-4444-444444444444");
+
+    @Mock private InsurerCallbackInbox inbox;
+    @Mock private BatchRepository batchRepository;
+    @Mock private EndorsementRepository endorsementRepository;
+    @Mock private ProcessEndorsementHandler processHandler;
+    @Mock private PlatformTransactionManager transactionManager;
+    @Mock private InsurerRouter insurerRouter;
+    @Mock private NotificationPort notificationPort;
+
+    private SimpleMeterRegistry meterRegistry;
+    private InsurerCallbackHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        handler = new InsurerCallbackHandler(inbox, batchRepository, endorsementRepository,
+                processHandler, transactionManager, meterRegistry, 3, 30_000, 3_600_000);
+        lenient().when(batchRepository.transition(any(), any(), any(), any(), anyInt())).thenReturn(true);
+    }
+
+    private static InsurerCallback stored(long id, InsurerCallback callback) {
+        return new InsurerCallback(id, callback.insurerId(), callback.kind(), callback.reference(),
+                callback.batchReference(), callback.status(), callback.endorsementId(), callback.insurerReference(),
+                callback.reason(), 0);
+    }
+
+    private static EndorsementBatch openBatch(String ref) {
+        return EndorsementBatch.builder()
+                .id(UUID.randomUUID())
+                .insurerId(NIVA)
+                .status(BatchStatus.SUBMITTED)
+                .insurerBatchRef(ref)
+                .nextPollAt(Instant.now().plusSeconds(900))
+                .build();
+    }
+
+    private static Endorsement endorsement(UUID id, EndorsementStatus status, EndorsementBatch batch) {
+        return Endorsement.builder().id(id).insurerId(NIVA).status(status).batchId(batch.getId()).build();
+    }
+
+    private double outcomes(String result) {
+        return meterRegistry.counter("endorsement.insurer.callback.outcome", "result", result).count();
+    }
+
+    @Test
+    @DisplayName("accept stores the outcomes and counts the ones already received as duplicates")
+    void accept_CountsDuplicates() {
+        List<InsurerCallback> callbacks = List.of(
+                InsurerCallback.batch(NIVA, "NIVA-BATCH-1", "COMPLETED"),
+                InsurerCallback.member(NIVA, "NIVA-BATCH-1", UUID.randomUUID(), true, "NIVA-1", null),
+                InsurerCallback.member(NIVA, "NIVA-BATCH-1", UUID.randomUUID(), false, null, "Bad DOB"));
+        when(inbox.enqueue(eq(callbacks), any())).thenReturn(1);
+
+        int queued = handler.accept(NIVA, callbacks);
+
+        assertThat(queued).isEqualTo(1);
+        assertThat(meterRegistry.counter("endorsement.insurer.callback.received",
+                "insurerId", NIVA.toString()).count()).isEqualTo(3);
+        assertThat(meterRegistry.counter("endorsement.insurer.callback.duplicate",
+                "insurerId", NIVA.toString()).count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("applyPending confirms the batch's members as one set, closes it and marks the chunk applied")
+    void applyPending_CompletedBatch_AppliedTogether() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        EndorsementBatch batch = openBatch("NIVA-BATCH-1");
+        when(inbox.findPending(500)).thenReturn(List.of(
+                stored(1, InsurerCallback.batch(NIVA, "NIVA-BATCH-1", "PROCESSING")),
+                stored(2, InsurerCallback.batch(NIVA, "NIVA-BATCH-1", "COMPLETED")),
+                stored(3, InsurerCallback.member(NIVA, "NIVA-BATCH-1", first, true, "NIVA-1", null)),
+                stored(4, InsurerCallback.member(NIVA, "NIVA-BATCH-1", second, true, "NIVA-2", null))));
+        when(batchRepository.findByInsurerBatchRefs(eq(NIVA), any())).thenReturn(List.of(batch));
+        when(endorsementRepository.findAllById(List.of(first, second))).thenReturn(List.of(
+                endorsement(first, EndorsementStatus.BATCH_SUBMITTED, batch),
+                endorsement(second, EndorsementStatus.INSURER_PROCESSING, batch)));
+        when(processHandler.handleConfirmations(anyList())).thenReturn(2);
+        when(endorsementRepository.findByBatchId(batch.getId())).thenReturn(List.of(
+                endorsement(first, EndorsementStatus.CONFIRMED, batch),
+                endorsement(second, EndorsementStatus.CONFIRMED, batch)));
+
+        int taken = handler.applyPending(500);
+
+        assertThat(taken).isEqualTo(4);
+        assertThat(batch.getStatus()).isEqualTo(BatchStatus.COMPLETE);
+        assertThat(batch.getNextPollAt()).isNull();
+        verify(batchRepository).transition(batch.getId(), BatchStatus.OPEN, BatchStatus.COMPLETE, null, 0);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<InsurerPort.EndorsementResult>> confirmations = ArgumentCaptor.forClass(List.class);
+        verify(processHandler).handleConfirmations(confirmations.capture());
+        assertThat(confirmations.getValue())
+                .extracting(InsurerPort.EndorsementResult::endorsementId, InsurerPort.EndorsementResult::insurerReference)
+                .containsExactly(tuple(first, "NIVA-1"),
+                        tuple(second, "NIVA-2"));
+        verify(inbox).markApplied(eq(List.of(1L, 2L, 3L, 4L)), any());
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    @DisplayName("applyPending leaves a batch reported COMPLETED without its results open for the poller")
+    void applyPending_CompletedWithoutResults_PolledInstead() {
+        EndorsementBatch batch = openBatch("NIVA-BATCH-1");
+        when(inbox.findPending(500)).thenReturn(List.of(
+                stored(1, InsurerCallback.batch(NIVA, "NIVA-BATCH-1", "COMPLETED"))));
+        when(batchRepository.findByInsurerBatchRefs(eq(NIVA), any())).thenReturn(List.of(batch));
+        when(endorsementRepository.findByBatchId(batch.getId())).thenReturn(List.of(
+                endorsement(UUID.randomUUID(), EndorsementStatus.BATCH_SUBMITTED, batch)));
+        Instant before = Instant.now();
+
+        handler.applyPending(500);
+
+        assertThat(batch.getStatus()).isEqualTo(BatchStatus.PROCESSING);
+        assertThat(batch.getNextPollAt()).isBetween(before, Instant.now());
+        verify(batchRepository).transition(batch.getId(), BatchStatus.OPEN, BatchStatus.PROCESSING,
+                batch.getNextPollAt(), 0);
+        verify(processHandler, never()).handleConfirmations(anyList());
+    }
+
+    @Test
+    @DisplayName("applyPending leaves a micro-batch to the micro-batcher until it hands the batch over")
+    void applyPending_CompletedMicroBatchWithoutResults_KeepsBatcherPollTime() {
+        EndorsementBatch batch = openBatch("NIVA-BATCH-1");
+        batch.setMicroBatch(true);
+        Instant handOver = batch.getNextPollAt();
+        when(inbox.findPending(500)).thenReturn(List.of(
+                stored(1, InsurerCallback.batch(NIVA, "NIVA-BATCH-1", "COMPLETED"))));
+        when(batchRepository.findByInsurerBatchRefs(eq(NIVA), any())).thenReturn(List.of(batch));
+        when(endorsementRepository.findByBatchId(batch.getId())).thenReturn(List.of(
+                endorsement(UUID.randomUUID(), EndorsementStatus.SUBMITTED_REALTIME, batch)));
+
+        handler.applyPending(500);
+
+        assertThat(batch.getStatus()).isEqualTo(BatchStatus.PROCESSING);
+        verify(batchRepository).transition(batch.getId(), BatchStatus.OPEN, BatchStatus.PROCESSING, handOver, 0);
+    }
+
+    @Test
+    @DisplayName("applyPending skips statuses for closed batches and defers ones for unknown batches")
+    void applyPending_ClosedOrUnknownBatch_SkippedOrDeferred() {
+        EndorsementBatch closed = openBatch("NIVA-BATCH-1");
+        closed.setStatus(BatchStatus.COMPLETE);
+        when(inbox.findPending(500)).thenReturn(List.of(
+                stored(1, InsurerCallback.batch(NIVA, "NIVA-BATCH-1", "FAILED")),
+                stored(2, InsurerCallback.batch(NIVA, "NIVA-BATCH-GONE", "COMPLETED"))));
+        when(batchRepository.findByInsurerBatchRefs(eq(NIVA), any())).thenReturn(List.of(closed));
+
+        handler.applyPending(500);
+
+        assertThat(closed.getStatus()).isEqualTo(BatchStatus.COMPLETE);
+        verify(batchRepository, never()).transition(any(), any(), any(), any(), anyInt());
+        assertThat(outcomes("skipped")).isEqualTo(1);
+        assertThat(outcomes("deferred")).isEqualTo(1);
+        verify(inbox).markApplied(eq(List.of(1L)), any());
+        verify(inbox).defer(eq(List.of(2L)), eq("Unknown batch"), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("applyPending holds outcomes that arrive before their batch reference is saved, then applies them")
+    void applyPending_CallbackBeforeBatchSaved_DeferredThenApplied() {
+        UUID member = UUID.randomUUID();
+        EndorsementBatch batch = openBatch("NIVA-BATCH-1");
+        List<InsurerCallback> pending = List.of(
+                stored(1, InsurerCallback.member(NIVA, "NIVA-BATCH-1", member, true, "NIVA-1", null)),
+                stored(2, InsurerCallback.batch(NIVA, "NIVA-BATCH-1", "COMPLETED")));
+        when(inbox.findPending(500)).thenReturn(pending);
+        // Not on record under the insurer's reference until its submission is saved
+        when(batchRepository.findByInsurerBatchRefs(eq(NIVA), any()))
+                .thenReturn(List.of())
+                .thenReturn(List.of(batch));
+        when(endorsementRepository.findAllById(List.of(member)))
+                .thenReturn(List.of(endorsement(member, EndorsementStatus.BATCH_SUBMITTED, batch)));
+        when(processHandler.handleConfirmations(anyList())).thenReturn(1);
+        when(endorsementRepository.findByBatchId(batch.getId()))
+                .thenReturn(List.of(endorsement(member, EndorsementStatus.CONFIRMED, batch)));
+        Instant before = Instant.now();
+
+        handler.applyPending(500);
+
+        ArgumentCaptor<Instant> retryAt = ArgumentCaptor.forClass(Instant.class);
+        ArgumentCaptor<Instant> expireBefore = ArgumentCaptor.forClass(Instant.class);
+        verify(inbox).defer(eq(List.of(1L, 2L)), eq("Unknown batch"), retryAt.capture(), expireBefore.capture(),
+                any());
+        assertThat(retryAt.getValue()).isAfterOrEqualTo(before.plusSeconds(30));
+        assertThat(expireBefore.getValue()).isBeforeOrEqualTo(Instant.now().minusSeconds(3600));
+        verify(processHandler, never()).handleConfirmations(anyList());
+        assertThat(outcomes("deferred")).isEqualTo(2);
+
+        handler.applyPending(500);
+
+        verify(processHandler).handleConfirmations(anyList());
+        verify(batchRepository).transition(batch.getId(), BatchStatus.OPEN, BatchStatus.COMPLETE, null, 0);
+        verify(inbox).markApplied(eq(List.of(1L, 2L)), any());
+        assertThat(outcomes("unknown_batch")).isZero();
+    }
+
+    @Test
+    @DisplayName("applyPending gives up on outcomes whose batch is still unknown once they are old enough")
+    void applyPending_BatchUnknownTooLong_GivenUp() {
+        when(inbox.findPending(500)).thenReturn(List.of(
+                stored(1, InsurerCallback.batch(NIVA, "NIVA-BATCH-GONE", "COMPLETED"))));
+        when(batchRepository.findByInsurerBatchRefs(eq(NIVA), any())).thenReturn(List.of());
+        when(inbox.defer(eq(List.of(1L)), anyString(), any(), any(), any())).thenReturn(1);
+
+        int taken = handler.applyPending(500);
+
+        assertThat(taken).isEqualTo(1);
+        assertThat(outcomes("unknown_batch")).isEqualTo(1);
+        assertThat(outcomes("deferred")).isZero();
+    }
+
+    @Test
+    @DisplayName("a callback closing a batch while a poll of it is in flight wins, and results apply once")
+    void applyPending_PollInFlight_ResultsAppliedOnce() {
+        UUID member = UUID.randomUUID();
+        EndorsementBatch stored = openBatch("NIVA-BATCH-1");
+        EndorsementBatch polled = openBatch("NIVA-BATCH-1");
+        polled.setId(stored.getId());
+        // The batch row: a status change applies only while it is still open
+        AtomicReference<BatchStatus> row = new AtomicReference<>(BatchStatus.SUBMITTED);
+        when(batchRepository.transition(eq(stored.getId()), eq(BatchStatus.OPEN), any(), any(), anyInt()))
+                .thenAnswer(invocation -> {
+                    BatchStatus current = row.get();
+                    return BatchStatus.OPEN.contains(current) && row.compareAndSet(current, invocation.getArgument(2));
+                });
+        when(batchRepository.findDueForPoll(any(), any(), anyInt())).thenReturn(List.of(polled));
+        when(batchRepository.findByInsurerBatchRefs(eq(NIVA), any())).thenReturn(List.of(stored));
+        when(endorsementRepository.findAllById(List.of(member)))
+                .thenReturn(List.of(endorsement(member, EndorsementStatus.BATCH_SUBMITTED, stored)));
+        when(endorsementRepository.findByBatchId(stored.getId()))
+                .thenReturn(List.of(endorsement(member, EndorsementStatus.REJECTED, stored)));
+        when(inbox.findPending(500)).thenReturn(List.of(
+                stored(1, InsurerCallback.member(NIVA, "NIVA-BATCH-1", member, false, null, "Bad DOB")),
+                stored(2, InsurerCallback.batch(NIVA, "NIVA-BATCH-1", "COMPLETED"))));
+        InsurerPort niva = mock(InsurerPort.class);
+        when(insurerRouter.resolve(NIVA)).thenReturn(niva);
+        when(niva.getCapabilities()).thenReturn(new InsurerPort.InsurerCapabilities(false, true, 100, 24, 0));
+        // The callback is applied while the insurer is answering the poll
+        when(niva.checkBatchStatus("NIVA-BATCH-1")).thenAnswer(invocation -> {
+            handler.applyPending(500);
+            return new InsurerPort.BatchStatusResult("COMPLETED",
+                    List.of(new InsurerPort.EndorsementResult(member, false, null, "Bad DOB")));
+        });
+        BatchStatusPollerScheduler poller = new BatchStatusPollerScheduler(batchRepository, insurerRouter,
+                processHandler, notificationPort, transactionManager, meterRegistry, 4, 500, 60_000);
+
+        poller.pollBatchStatuses();
+
+        assertThat(row.get()).isEqualTo(BatchStatus.COMPLETE);
+        verify(processHandler, times(1)).handleRejection(member, "Bad DOB");
+        verify(batchRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("applyPending rejects only endorsements still waiting on the batch")
+    void applyPending_Rejections_OnlyForAwaitingEndorsements() {
+        UUID awaiting = UUID.randomUUID();
+        UUID alreadyConfirmed = UUID.randomUUID();
+        UUID realTime = UUID.randomUUID();
+        EndorsementBatch batch = openBatch("NIVA-BATCH-1");
+        when(inbox.findPending(500)).thenReturn(List.of(
+                stored(1, InsurerCallback.member(NIVA, "NIVA-BATCH-1", awaiting, false, null, "Member not on policy")),
+                stored(2, InsurerCallback.member(NIVA, "NIVA-BATCH-1", alreadyConfirmed, false, null, "Late")),
+                stored(3, InsurerCallback.member(NIVA, "NIVA-BATCH-1", realTime, false, null, "Not batched"))));
+        when(batchRepository.findByInsurerBatchRefs(eq(NIVA), any())).thenReturn(List.of(batch));
+        when(endorsementRepository.findAllById(List.of(awaiting, alreadyConfirmed, realTime))).thenReturn(List.of(
+                endorsement(awaiting, EndorsementStatus.BATCH_SUBMITTED, batch),
+                endorsement(alreadyConfirmed, EndorsementStatus.CONFIRMED, batch),
+                endorsement(realTime, EndorsementStatus.SUBMITTED_REALTIME, batch)));
+
+        handler.applyPending(500);
+
+        verify(processHandler).handleRejection(awaiting, "Member not on policy");
+        verify(processHandler, never()).handleRejection(eq(alreadyConfirmed), anyString());
+        verify(processHandler, never()).handleRejection(eq(realTime), anyString());
+        assertThat(outcomes("applied")).isEqualTo(1);
+        assertThat(outcomes("skipped")).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("applyPending ignores results for another insurer's endorsements or another batch's")
+    void applyPending_ForeignEndorsements_Ignored() {
+        UUID otherInsurers = UUID.randomUUID();
+        UUID otherBatchs = UUID.randomUUID();
+        UUID unknownBatchs = UUID.randomUUID();
+        EndorsementBatch batch = openBatch("NIVA-BATCH-1");
+        Endorsement foreign = endorsement(otherInsurers, EndorsementStatus.BATCH_SUBMITTED, batch);
+        foreign.setInsurerId(UUID.fromString("55555555-5555-5555-5555-555555555555"));
+        when(inbox.findPending(500)).thenReturn(List.of(
+                stored(1, InsurerCallback.member(NIVA, "NIVA-BATCH-1", otherInsurers, false, null, "Hijack")),
+                stored(2, InsurerCallback.member(NIVA, "NIVA-BATCH-1", otherBatchs, true, "NIVA-9", null)),
+                stored(3, InsurerCallback.member(NIVA, "NIVA-BATCH-GONE", unknownBatchs, true, "NIVA-8", null))));
+        when(batchRepository.findByInsurerBatchRefs(eq(NIVA), any())).thenReturn(List.of(batch));
+        when(endorsementRepository.findAllById(any())).thenReturn(List.of(foreign,
+                endorsement(otherBatchs, EndorsementStatus.BATCH_SUBMITTED, openBatch("NIVA-BATCH-2")),
+                endorsement(unknownBatchs, EndorsementStatus.BATCH_SUBMITTED, batch)));
+
+        handler.applyPending(500);
+
+        verify(processHandler, never()).handleRejection(any(), anyString());
+        verify(processHandler, never()).handleConfirmations(anyList());
+        assertThat(outcomes("foreign")).isEqualTo(2);
+        assertThat(outcomes("deferred")).isEqualTo(1);
+        verify(inbox).markApplied(eq(List.of(1L, 2L)), any());
+    }
+
+    @Test
+    @DisplayName("applyPending retries a failed chunk one outcome at a time and records the one that fails")
+    void applyPending_ChunkFails_RetriedIndividually() {
+        UUID good = UUID.randomUUID();
+        UUID bad = UUID.randomUUID();
+        EndorsementBatch batch = openBatch("NIVA-BATCH-1");
+        InsurerCallback goodRejection = stored(1, InsurerCallback.member(NIVA, "NIVA-BATCH-1", good, false, null, "Bad DOB"));
+        InsurerCallback badRejection = stored(2, InsurerCallback.member(NIVA, "NIVA-BATCH-1", bad, false, null, "Bad name"));
+        when(inbox.findPending(500)).thenReturn(List.of(goodRejection, badRejection));
+        when(batchRepository.findByInsurerBatchRefs(eq(NIVA), any())).thenReturn(List.of(batch));
+        when(endorsementRepository.findAllById(any())).thenAnswer(invocation -> {
+            List<UUID> ids = List.copyOf(invocation.<Collection<UUID>>getArgument(0));
+            return ids.stream().map(id -> endorsement(id, EndorsementStatus.BATCH_SUBMITTED, batch)).toList();
+        });
+        doAnswer(invocation -> {
+            if (bad.equals(invocation.getArgument(0))) {
+                throw new IllegalStateException("cannot retry");
+            }
+            return null;
+        }).when(processHandler).handleRejection(any(), anyString());
+        when(inbox.markFailed(anyLong(), anyString(), anyInt(), any())).thenReturn(false);
+
+        int taken = handler.applyPending(500);
+
+        assertThat(taken).isEqualTo(1);
+        verify(inbox).markApplied(eq(List.of(1L)), any());
+        verify(inbox, never()).markApplied(eq(List.of(1L, 2L)), any());
+        verify(inbox).markFailed(eq(2L), eq("cannot retry"), eq(3), any());
+        verify(inbox, never()).markFailed(eq(1L), anyString(), anyInt(), any());
+    }
+
+    @Test
+    @DisplayName("applyPending counts an outcome set aside after its last attempt as taken")
+    void applyPending_LastAttemptFails_Abandoned() {
+        UUID bad = UUID.randomUUID();
+        EndorsementBatch batch = openBatch("NIVA-BATCH-1");
+        when(inbox.findPending(500)).thenReturn(List.of(
+                stored(7, InsurerCallback.member(NIVA, "NIVA-BATCH-1", bad, false, null, "Bad name"))));
+        when(batchRepository.findByInsurerBatchRefs(eq(NIVA), any())).thenReturn(List.of(batch));
+        when(endorsementRepository.findAllById(any()))
+                .thenReturn(List.of(endorsement(bad, EndorsementStatus.BATCH_SUBMITTED, batch)));
+        doThrow(new IllegalStateException("cannot retry")).when(processHandler).handleRejection(eq(bad), anyString());
+        when(inbox.markFailed(anyLong(), anyString(), anyInt(), any())).thenReturn(true);
+
+        int taken = handler.applyPending(500);
+
+        assertThat(taken).isEqualTo(1);
+        assertThat(meterRegistry.counter("endorsement.insurer.callback.abandoned").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("applyPending does nothing when the inbox is empty")
+    void applyPending_Empty_NoTransaction() {
+        when(inbox.findPending(500)).thenReturn(List.of());
+
+        assertThat(handler.applyPending(500)).isZero();
+
+        verify(transactionManager, never()).getTransaction(any());
+    }
+}
@@ -1,5 +1,7 @@
 package com.plum.endorsements.application.handler;
 
+import com.plum.endorsements.application.exception.InsurerOutcomeUnknownException;
+import com.plum.endorsements.application.service.EndorsementTransitionService;
 import com.plum.endorsements.application.service.ErrorResolutionService;
 import com.plum.endorsements.domain.model.*;
 import com.plum.endorsements.domain.port.*;
@@ -14,14 +16,18 @@ import org.mockito.Answers;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -32,12 +38,14 @@ class ProcessEndorsementHandlerTest {
 
     @Mock private EndorsementRepository endorsementRepository;
     @Spy private EndorsementStateMachine stateMachine = new EndorsementStateMachine();
+    @Mock private EndorsementTransitionService transitionService;
     @Mock private InsurerRouter insurerRouter;
     @Mock private EventPublisher eventPublisher;
     @Mock private NotificationPort notificationPort;
     @Mock private ProvisionalCoverageRepository provisionalCoverageRepository;
     @Mock private EAAccountRepository eaAccountRepository;
     @Mock private ErrorResolutionService errorResolutionService;
+    @Mock private PlatformTransactionManager transactionManager;
     @Mock(answer = Answers.RETURNS_DEEP_STUBS) private MeterRegistry meterRegistry;
 
     private ProcessEndorsementHandler handler;
@@ -49,9 +57,9 @@ class ProcessEndorsementHandlerTest {
     @BeforeEach
     void setUp() {
         handler = new ProcessEndorsementHandler(
-                endorsementRepository, stateMachine, insurerRouter,
+                endorsementRepository, stateMachine, transitionService, insurerRouter,
                 eventPublisher, notificationPort, provisionalCoverageRepository,
-                eaAccountRepository, errorResolutionService, meterRegistry);
+                eaAccountRepository, errorResolutionService, transactionManager, meterRegistry);
         mockInsurerId = UUID.fromString("22222222-2222-2222-2222-222222222222");
         iciciInsurerId = UUID.fromString("33333333-3333-3333-3333-333333333333");
         nivaInsurerId = UUID.fromString("44444444-4444-4444-4444-444444444444");
@@ -75,6 +83,20 @@ class ProcessEndorsementHandlerTest {
         return e;
     }
 
+    /**
+     * Makes the claim step move the endorsement to {@code to}, bumping its
+     * version as the conditional UPDATE does.
+     */
+    private void claimSucceeds(Endorsement endorsement, EndorsementStatus to) {
+        when(transitionService.transitionAll(List.of(endorsement.getId()), endorsement.getStatus(), to))
+                .thenAnswer(invocation -> {
+                    EndorsementStatus from = endorsement.getStatus();
+                    endorsement.transitionTo(to);
+                    endorsement.setVersion(endorsement.getVersion() + 1);
+                    return List.of(new EndorsementTransition(endorsement, from, Instant.now()));
+                });
+    }
+
     @Test
     @DisplayName("submitToInsurer routes to ICICI adapter for real-time submission")
     void submitToInsurer_IciciInsurer_RoutesToIciciAdapter() {
@@ -87,6 +109,7 @@ class ProcessEndorsementHandlerTest {
         when(iciciPort.submitRealTime(eq(endorsement.getId()), any()))
                 .thenReturn(new InsurerPort.SubmissionResult(true, "ICICI-12345678", null));
         when(insurerRouter.resolve(iciciInsurerId)).thenReturn(iciciPort);
+        claimSucceeds(endorsement, EndorsementStatus.SUBMITTED_REALTIME);
         when(endorsementRepository.save(any())).thenAnswer(i -> i.getArgument(0));
         when(provisionalCoverageRepository.findByEndorsementId(any())).thenReturn(Optional.empty());
 
@@ -107,13 +130,15 @@ class ProcessEndorsementHandlerTest {
         when(nivaPort.getCapabilities())
                 .thenReturn(new InsurerPort.InsurerCapabilities(false, true, 500, 24, 0));
         when(insurerRouter.resolve(nivaInsurerId)).thenReturn(nivaPort);
-        when(endorsementRepository.save(any())).thenAnswer(i -> i.getArgument(0));
+        claimSucceeds(endorsement, EndorsementStatus.QUEUED_FOR_BATCH);
 
         handler.submitToInsurer(endorsement.getId());
 
         verify(insurerRouter).resolve(nivaInsurerId);
         verify(nivaPort, never()).submitRealTime(any(), any());
-        verify(eventPublisher).publish(any(EndorsementEvent.QueuedForBatch.class));
+        verify(transitionService).transitionAll(List.of(endorsement.getId()),
+                EndorsementStatus.PROVISIONALLY_COVERED, EndorsementStatus.QUEUED_FOR_BATCH);
+        verify(transactionManager, times(1)).commit(any());
     }
 
     @Test
@@ -128,6 +153,7 @@ class ProcessEndorsementHandlerTest {
         when(mockPort.submitRealTime(eq(endorsement.getId()), any()))
                 .thenReturn(new InsurerPort.SubmissionResult(true, "INS-RT-ABCD1234", null));
         when(insurerRouter.resolve(mockInsurerId)).thenReturn(mockPort);
+        claimSucceeds(endorsement, EndorsementStatus.SUBMITTED_REALTIME);
         when(endorsementRepository.save(any())).thenAnswer(i -> i.getArgument(0));
         when(provisionalCoverageRepository.findByEndorsementId(any())).thenReturn(Optional.empty());
 
@@ -149,6 +175,7 @@ class ProcessEndorsementHandlerTest {
         when(iciciPort.submitRealTime(eq(endorsement.getId()), any()))
                 .thenReturn(new InsurerPort.SubmissionResult(false, null, "Invalid policy number"));
         when(insurerRouter.resolve(iciciInsurerId)).thenReturn(iciciPort);
+        claimSucceeds(endorsement, EndorsementStatus.SUBMITTED_REALTIME);
         when(endorsementRepository.save(any())).thenAnswer(i -> i.getArgument(0));
 
         handler.submitToInsurer(endorsement.getId());
@@ -157,6 +184,114 @@ class ProcessEndorsementHandlerTest {
         verify(notificationPort).notifyEndorsementRejected(any(), eq(endorsement.getId()), eq("Invalid policy number"));
     }
 
+    @Test
+    @DisplayName("submitToInsurer calls the insurer between two transactions, holding none")
+    void submitToInsurer_InsurerCalledOutsideTransactions() {
+        Endorsement endorsement = buildEndorsement(iciciInsurerId, EndorsementStatus.PROVISIONALLY_COVERED);
+        when(endorsementRepository.findById(endorsement.getId())).thenReturn(Optional.of(endorsement));
+        InsurerPort iciciPort = realTimePort(iciciInsurerId);
+        when(iciciPort.submitRealTime(eq(endorsement.getId()), any()))
+                .thenReturn(new InsurerPort.SubmissionResult(true, "ICICI-1", null));
+        claimSucceeds(endorsement, EndorsementStatus.SUBMITTED_REALTIME);
+        when(endorsementRepository.save(any())).thenAnswer(i -> i.getArgument(0));
+
+        handler.submitToInsurer(endorsement.getId());
+
+        var order = inOrder(transactionManager, transitionService, iciciPort, endorsementRepository);
+        order.verify(transactionManager).getTransaction(any());
+        order.verify(transitionService).transitionAll(any(), any(), any());
+        order.verify(transactionManager).commit(any());
+        order.verify(iciciPort).submitRealTime(eq(endorsement.getId()), any());
+        order.verify(transactionManager).getTransaction(any());
+        order.verify(endorsementRepository, atLeastOnce()).save(endorsement);
+        order.verify(transactionManager).commit(any());
+        assertThat(endorsement.getStatus()).isEqualTo(EndorsementStatus.CONFIRMED);
+    }
+
+    @Test
+    @DisplayName("submitToInsurer does not call the insurer when another caller claimed the endorsement first")
+    void submitToInsurer_ClaimLost_InsurerNotCalled() {
+        Endorsement endorsement = buildEndorsement(iciciInsurerId, EndorsementStatus.PROVISIONALLY_COVERED);
+        when(endorsementRepository.findById(endorsement.getId())).thenReturn(Optional.of(endorsement));
+        InsurerPort iciciPort = realTimePort(iciciInsurerId);
+        when(transitionService.transitionAll(any(), any(), any())).thenReturn(List.of());
+
+        handler.submitToInsurer(endorsement.getId());
+
+        verify(iciciPort, never()).submitRealTime(any(), any());
+        verify(endorsementRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("submitToInsurer drops the insurer's answer when the endorsement changed during the call")
+    void submitToInsurer_ChangedDuringCall_OutcomeDropped() {
+        Endorsement endorsement = buildEndorsement(iciciInsurerId, EndorsementStatus.PROVISIONALLY_COVERED);
+        Endorsement confirmedMeanwhile = buildEndorsement(iciciInsurerId, EndorsementStatus.CONFIRMED);
+        confirmedMeanwhile.setId(endorsement.getId());
+        confirmedMeanwhile.setVersion(7);
+        when(endorsementRepository.findById(endorsement.getId()))
+                .thenReturn(Optional.of(endorsement), Optional.of(confirmedMeanwhile));
+        InsurerPort iciciPort = realTimePort(iciciInsurerId);
+        when(iciciPort.submitRealTime(eq(endorsement.getId()), any()))
+                .thenReturn(new InsurerPort.SubmissionResult(true, "ICICI-2", null));
+        claimSucceeds(endorsement, EndorsementStatus.SUBMITTED_REALTIME);
+
+        handler.submitToInsurer(endorsement.getId());
+
+        verify(endorsementRepository, never()).save(any());
+        verify(notificationPort, never()).notifyEndorsementConfirmed(any(), any());
+        assertThat(confirmedMeanwhile.getInsurerReference()).isNull();
+    }
+
+    @Test
+    @DisplayName("submitToInsurer releases the claim for retry when the insurer call throws")
+    void submitToInsurer_CallThrows_ReleasedForRetry() {
+        Endorsement endorsement = buildEndorsement(iciciInsurerId, EndorsementStatus.PROVISIONALLY_COVERED);
+        when(endorsementRepository.findById(endorsement.getId())).thenReturn(Optional.of(endorsement));
+        InsurerPort iciciPort = realTimePort(iciciInsurerId);
+        when(iciciPort.submitRealTime(eq(endorsement.getId()), any()))
+                .thenThrow(new IllegalStateException("connection reset"));
+        claimSucceeds(endorsement, EndorsementStatus.SUBMITTED_REALTIME);
+        when(endorsementRepository.save(any())).thenAnswer(i -> i.getArgument(0));
+
+        assertThatThrownBy(() -> handler.submitToInsurer(endorsement.getId()))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("connection reset");
+
+        assertThat(endorsement.getStatus()).isEqualTo(EndorsementStatus.RETRY_PENDING);
+        assertThat(endorsement.getRetryCount()).isEqualTo(1);
+        assertThat(endorsement.getFailureReason()).contains("connection reset");
+        verify(eventPublisher).publish(any(EndorsementEvent.RetryScheduled.class));
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    @DisplayName("submitToInsurer leaves the endorsement submitted when the call may have reached the insurer")
+    void submitToInsurer_OutcomeUnknown_LeftSubmitted() {
+        Endorsement endorsement = buildEndorsement(iciciInsurerId, EndorsementStatus.PROVISIONALLY_COVERED);
+        when(endorsementRepository.findById(endorsement.getId())).thenReturn(Optional.of(endorsement));
+        InsurerPort iciciPort = realTimePort(iciciInsurerId);
+        when(iciciPort.submitRealTime(eq(endorsement.getId()), any()))
+                .thenThrow(new InsurerOutcomeUnknownException("request timed out"));
+        claimSucceeds(endorsement, EndorsementStatus.SUBMITTED_REALTIME);
+
+        assertThatThrownBy(() -> handler.submitToInsurer(endorsement.getId()))
+                .isInstanceOf(InsurerOutcomeUnknownException.class);
+
+        assertThat(endorsement.getStatus()).isEqualTo(EndorsementStatus.SUBMITTED_REALTIME);
+        assertThat(endorsement.getRetryCount()).isZero();
+        verify(endorsementRepository, never()).save(any());
+        verify(eventPublisher, never()).publish(any(EndorsementEvent.RetryScheduled.class));
+        verify(transactionManager, times(1)).commit(any());
+    }
+
+    private InsurerPort realTimePort(UUID insurerId) {
+        InsurerPort port = mock(InsurerPort.class);
+        when(port.getCapabilities()).thenReturn(new InsurerPort.InsurerCapabilities(true, false, 0, 0, 120));
+        when(insurerRouter.resolve(insurerId)).thenReturn(port);
+        return port;
+    }
+
     @Test
     @DisplayName("handleConfirmation works independently of insurer routing")
     void handleConfirmation_WorksWithoutRouting() {
@@ -233,4 +368,58 @@ class ProcessEndorsementHandlerTest {
         verify(eventPublisher).publish(any(EndorsementEvent.Confirmed.class));
         verify(eventPublisher).publish(any(EndorsementEvent.ProvisionalCoverageConfirmed.class));
     }
+
+    @Test
+    @DisplayName("handleConfirmations confirms a completed batch as one set and skips finished endorsements")
+    void handleConfirmations_ConfirmsSetAndSkipsTerminal() {
+        Endorsement submitted = buildEndorsement(nivaInsurerId, EndorsementStatus.BATCH_SUBMITTED);
+        Endorsement processing = buildEndorsement(nivaInsurerId, EndorsementStatus.INSURER_PROCESSING);
+        Endorsement alreadyConfirmed = buildEndorsement(nivaInsurerId, EndorsementStatus.CONFIRMED);
+        when(endorsementRepository.findAllById(any()))
+                .thenReturn(List.of(submitted, processing, alreadyConfirmed));
+        when(endorsementRepository.saveAll(any())).thenAnswer(i -> i.getArgument(0));
+
+        ProvisionalCoverage coverage = ProvisionalCoverage.builder()
+                .id(UUID.randomUUID())
+                .endorsementId(submitted.getId())
+                .employeeId(submitted.getEmployeeId())
+                .employerId(submitted.getEmployerId())
+                .coverageStart(LocalDate.now())
+                .build();
+        when(provisionalCoverageRepository.findByEndorsementIdIn(List.of(submitted.getId(), processing.getId())))
+                .thenReturn(List.of(coverage));
+
+        int confirmed = handler.handleConfirmations(List.of(
+                new InsurerPort.EndorsementResult(submitted.getId(), true, "NIVA-REF-1", null),
+                new InsurerPort.EndorsementResult(processing.getId(), true, "NIVA-REF-2", null),
+                new InsurerPort.EndorsementResult(alreadyConfirmed.getId(), true, "NIVA-REF-3", null)));
+
+        assertThat(confirmed).isEqualTo(2);
+        assertThat(submitted.getStatus()).isEqualTo(EndorsementStatus.CONFIRMED);
+        assertThat(submitted.getInsurerReference()).isEqualTo("NIVA-REF-1");
+        assertThat(processing.getStatus()).isEqualTo(EndorsementStatus.CONFIRMED);
+        verify(endorsementRepository).saveAll(List.of(submitted, processing));
+        verify(endorsementRepository, never()).save(any());
+        verify(errorResolutionService).trackOutcomes(List.of(submitted.getId(), processing.getId()),
+                EndorsementStatus.CONFIRMED);
+        verify(provisionalCoverageRepository).saveAll(List.of(coverage));
+        verify(eventPublisher, times(2)).publish(any(EndorsementEvent.Confirmed.class));
+        verify(eventPublisher).publish(any(EndorsementEvent.ProvisionalCoverageConfirmed.class));
+        verify(notificationPort, never()).notifyEndorsementConfirmed(any(), eq(alreadyConfirmed.getId()));
+    }
+
+    @Test
+    @DisplayName("handleConfirmations confirms real-time submissions settled through their micro-batch")
+    void handleConfirmations_MicroBatchedRealTime_Confirmed() {
+        Endorsement microBatched = buildEndorsement(nivaInsurerId, EndorsementStatus.SUBMITTED_REALTIME);
+        when(endorsementRepository.findAllById(any())).thenReturn(List.of(microBatched));
+        when(endorsementRepository.saveAll(any())).thenAnswer(i -> i.getArgument(0));
+
+        int confirmed = handler.handleConfirmations(List.of(
+                new InsurerPort.EndorsementResult(microBatched.getId(), true, "BAJAJ-REF-1", null)));
+
+        assertThat(confirmed).isEqualTo(1);
+        assertThat(microBatched.getStatus()).isEqualTo(EndorsementStatus.CONFIRMED);
+        assertThat(microBatched.getInsurerReference()).isEqualTo("BAJAJ-REF-1");
+    }
 }
@@ -0,0 +1,40 @@
+package com.plum.endorsements.application.handler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+class RecentIdempotencyKeysTest {
+
+    @Test
+    void mightContain_ReportsAddedKeysOnly() {
+        RecentIdempotencyKeys keys = new RecentIdempotencyKeys(1024);
+
+        keys.add("employer-employee-ADD-2026-04-01");
+
+        assertThat(keys.mightContain("employer-employee-ADD-2026-04-01")).isTrue();
+        assertThat(keys.mightContain("employer-employee-DELETE-2026-04-01")).isFalse();
+    }
+
+    @Test
+    void add_BeyondCapacity_ForgetsOlderKeysWithoutGrowing() {
+        RecentIdempotencyKeys keys = new RecentIdempotencyKeys(16);
+        String first = UUID.randomUUID().toString();
+        keys.add(first);
+
+        for (int i = 0; i < 10_000; i++) {
+            keys.add(UUID.randomUUID().toString());
+        }
+
+        // The filter is a hint: an evicted key simply reads as new and is caught by ON CONFLICT
+        assertThat(keys.mightContain(first)).isFalse();
+    }
+
+    @Test
+    void fingerprint_NeverReturnsTheEmptySlotMarker() {
+        assertThat(RecentIdempotencyKeys.fingerprint("")).isNotZero();
+        assertThat(RecentIdempotencyKeys.fingerprint("k1")).isNotEqualTo(RecentIdempotencyKeys.fingerprint("k2"));
+    }
+}
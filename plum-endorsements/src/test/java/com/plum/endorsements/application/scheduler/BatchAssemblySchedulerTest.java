@@ -1,18 +1,22 @@
 package com.plum.endorsements.application.scheduler;
 
+import com.plum.endorsements.application.exception.InsurerOutcomeUnknownException;
+import com.plum.endorsements.application.handler.ProcessEndorsementHandler;
+import com.plum.endorsements.application.service.EndorsementTransitionService;
 import com.plum.endorsements.domain.model.*;
 import com.plum.endorsements.domain.port.*;
-import com.plum.endorsements.domain.service.EndorsementStateMachine;
 import com.plum.endorsements.infrastructure.insurer.InsurerRouter;
 import io.micrometer.core.instrument.MeterRegistry;
+import net.javacrumbs.shedlock.core.LockProvider;
+import net.javacrumbs.shedlock.core.SimpleLock;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Answers;
 import org.mockito.Mock;
-import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
 import java.time.Instant;
@@ -20,8 +24,8 @@ import java.time.LocalDate;
 import java.util.*;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.eq;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,12 +33,17 @@ import static org.mockito.Mockito.*;
 class BatchAssemblySchedulerTest {
 
     @Mock private EndorsementRepository endorsementRepository;
+    @Mock private EndorsementStatusCountRepository statusCountRepository;
     @Mock private BatchRepository batchRepository;
     @Mock private EAAccountRepository eaAccountRepository;
     @Mock private InsurerRouter insurerRouter;
-    @Spy private EndorsementStateMachine stateMachine = new EndorsementStateMachine();
+    @Mock private EndorsementTransitionService transitionService;
+    @Mock private ProcessEndorsementHandler processHandler;
     @Mock private EventPublisher eventPublisher;
     @Mock private BatchOptimizerPort batchOptimizer;
+    @Mock private PlatformTransactionManager transactionManager;
+    @Mock private LockProvider lockProvider;
+    @Mock private SimpleLock insurerLock;
     @Mock(answer = Answers.RETURNS_DEEP_STUBS) private MeterRegistry meterRegistry;
 
     private BatchAssemblyScheduler scheduler;
@@ -45,8 +54,10 @@ class BatchAssemblySchedulerTest {
     @BeforeEach
     void setUp() {
         scheduler = new BatchAssemblyScheduler(
-                endorsementRepository, batchRepository, eaAccountRepository,
-                insurerRouter, stateMachine, eventPublisher, batchOptimizer, meterRegistry);
+                endorsementRepository, statusCountRepository, batchRepository, eaAccountRepository,
+                insurerRouter, transitionService, processHandler, eventPublisher, batchOptimizer, transactionManager, lockProvider, meterRegistry,
+                false, 4, 2000, 0);
+        lenient().when(lockProvider.lock(any())).thenReturn(Optional.of(insurerLock));
         nivaInsurerId = UUID.fromString("44444444-4444-4444-4444-444444444444");
         bajajInsurerId = UUID.fromString("55555555-5555-5555-5555-555555555555");
     }
@@ -68,6 +79,32 @@ class BatchAssemblySchedulerTest {
                 .build();
     }
 
+    private void queued(Map<UUID, Integer> queuedByInsurer) {
+        Map<UUID, EndorsementStatusCounts> counts = new LinkedHashMap<>();
+        queuedByInsurer.forEach((insurerId, queued) -> counts.put(insurerId,
+                new EndorsementStatusCounts(Map.of("QUEUED_FOR_BATCH", (long) queued))));
+        when(statusCountRepository.countByInsurer()).thenReturn(counts);
+    }
+
+    private void claims(UUID insurerId, List<Endorsement> first, List<Endorsement> rest) {
+        when(endorsementRepository.claimByStatusAndInsurerId(eq(EndorsementStatus.QUEUED_FOR_BATCH), eq(insurerId), anyInt()))
+                .thenReturn(first, rest);
+    }
+
+    private void submitsAll() {
+        when(transitionService.submitToBatch(any(), any())).thenAnswer(i -> {
+            Collection<UUID> ids = i.getArgument(0);
+            UUID batchId = i.getArgument(1);
+            return ids.stream().map(id -> {
+                Endorsement e = buildQueuedEndorsement(nivaInsurerId);
+                e.setId(id);
+                e.setBatchId(batchId);
+                e.setStatus(EndorsementStatus.BATCH_SUBMITTED);
+                return new EndorsementTransition(e, EndorsementStatus.QUEUED_FOR_BATCH, Instant.now());
+            }).toList();
+        });
+    }
+
     @Test
     @DisplayName("assembles separate batches per insurer")
     void assembleAndSubmitBatches_SeparateBatchesPerInsurer() {
@@ -79,12 +116,9 @@ class BatchAssemblySchedulerTest {
                 buildQueuedEndorsement(bajajInsurerId)
         );
 
-        List<Endorsement> allQueued = new ArrayList<>();
-        allQueued.addAll(nivaEndorsements);
-        allQueued.addAll(bajajEndorsements);
-
-        when(endorsementRepository.findByStatusAndInsurerId(EndorsementStatus.QUEUED_FOR_BATCH, null))
-                .thenReturn(allQueued);
+        queued(Map.of(nivaInsurerId, 2, bajajInsurerId, 1));
+        claims(nivaInsurerId, nivaEndorsements, List.of());
+        claims(bajajInsurerId, bajajEndorsements, List.of());
 
         // No active batches for either insurer
         when(batchRepository.existsByInsurerIdAndStatusIn(any(), any())).thenReturn(false);
@@ -106,7 +140,7 @@ class BatchAssemblySchedulerTest {
             if (b.getId() == null) b.setId(UUID.randomUUID());
             return b;
         });
-        when(endorsementRepository.save(any())).thenAnswer(i -> i.getArgument(0));
+        submitsAll();
 
         scheduler.assembleAndSubmitBatches();
 
@@ -128,8 +162,8 @@ class BatchAssemblySchedulerTest {
                 buildQueuedEndorsement(bajajInsurerId)
         );
 
-        when(endorsementRepository.findByStatusAndInsurerId(EndorsementStatus.QUEUED_FOR_BATCH, null))
-                .thenReturn(bajajEndorsements);
+        queued(Map.of(bajajInsurerId, 3));
+        claims(bajajInsurerId, bajajEndorsements.subList(0, 2), bajajEndorsements.subList(2, 3));
 
         // No active batch
         when(batchRepository.existsByInsurerIdAndStatusIn(any(), any())).thenReturn(false);
@@ -145,7 +179,7 @@ class BatchAssemblySchedulerTest {
             if (b.getId() == null) b.setId(UUID.randomUUID());
             return b;
         });
-        when(endorsementRepository.save(any())).thenAnswer(i -> i.getArgument(0));
+        submitsAll();
 
         scheduler.assembleAndSubmitBatches();
 
@@ -156,11 +190,11 @@ class BatchAssemblySchedulerTest {
     @Test
     @DisplayName("no-op when no queued endorsements")
     void assembleAndSubmitBatches_NoQueuedEndorsements_NoOp() {
-        when(endorsementRepository.findByStatusAndInsurerId(EndorsementStatus.QUEUED_FOR_BATCH, null))
-                .thenReturn(List.of());
+        queued(Map.of());
 
         scheduler.assembleAndSubmitBatches();
 
+        verify(endorsementRepository, never()).claimByStatusAndInsurerId(any(), any(), anyInt());
         verify(insurerRouter, never()).resolve(any());
         verify(batchRepository, never()).save(any());
     }
@@ -172,12 +206,8 @@ class BatchAssemblySchedulerTest {
         List<Endorsement> nivaEndorsements = List.of(buildQueuedEndorsement(nivaInsurerId));
         List<Endorsement> bajajEndorsements = List.of(buildQueuedEndorsement(bajajInsurerId));
 
-        List<Endorsement> allQueued = new ArrayList<>();
-        allQueued.addAll(nivaEndorsements);
-        allQueued.addAll(bajajEndorsements);
-
-        when(endorsementRepository.findByStatusAndInsurerId(EndorsementStatus.QUEUED_FOR_BATCH, null))
-                .thenReturn(allQueued);
+        queued(Map.of(nivaInsurerId, 1, bajajInsurerId, 1));
+        claims(bajajInsurerId, bajajEndorsements, List.of());
 
         // Niva has an active SUBMITTED batch — should be skipped
         when(batchRepository.existsByInsurerIdAndStatusIn(eq(nivaInsurerId), any())).thenReturn(true);
@@ -195,7 +225,7 @@ class BatchAssemblySchedulerTest {
             if (b.getId() == null) b.setId(UUID.randomUUID());
             return b;
         });
-        when(endorsementRepository.save(any())).thenAnswer(i -> i.getArgument(0));
+        submitsAll();
 
         // Act
         scheduler.assembleAndSubmitBatches();
@@ -212,8 +242,8 @@ class BatchAssemblySchedulerTest {
         // Arrange: insurer has only COMPLETE/FAILED batches (not in active statuses)
         List<Endorsement> nivaEndorsements = List.of(buildQueuedEndorsement(nivaInsurerId));
 
-        when(endorsementRepository.findByStatusAndInsurerId(EndorsementStatus.QUEUED_FOR_BATCH, null))
-                .thenReturn(nivaEndorsements);
+        queued(Map.of(nivaInsurerId, 1));
+        claims(nivaInsurerId, nivaEndorsements, List.of());
 
         // No active batch (existsBy returns false)
         when(batchRepository.existsByInsurerIdAndStatusIn(eq(nivaInsurerId), any())).thenReturn(false);
@@ -229,7 +259,7 @@ class BatchAssemblySchedulerTest {
             if (b.getId() == null) b.setId(UUID.randomUUID());
             return b;
         });
-        when(endorsementRepository.save(any())).thenAnswer(i -> i.getArgument(0));
+        submitsAll();
 
         // Act
         scheduler.assembleAndSubmitBatches();
@@ -238,4 +268,233 @@ class BatchAssemblySchedulerTest {
         verify(nivaPort).submitBatch(any(), any());
         verify(batchRepository, atLeast(2)).save(any(EndorsementBatch.class));
     }
+
+    @Test
+    @DisplayName("a batch the insurer did not accept is failed and its endorsements rejected for retry; other insurers still submit")
+    void assembleAndSubmitBatches_InsurerFailure_OtherInsurersStillSubmitted() {
+        queued(Map.of(nivaInsurerId, 1, bajajInsurerId, 1));
+        claims(nivaInsurerId, List.of(buildQueuedEndorsement(nivaInsurerId)), List.of());
+        claims(bajajInsurerId, List.of(buildQueuedEndorsement(bajajInsurerId)), List.of());
+        when(batchRepository.existsByInsurerIdAndStatusIn(any(), any())).thenReturn(false);
+
+        InsurerPort nivaPort = mock(InsurerPort.class);
+        when(nivaPort.getCapabilities())
+                .thenReturn(new InsurerPort.InsurerCapabilities(false, true, 500, 24, 0));
+        when(nivaPort.submitBatch(any(), any())).thenThrow(new RuntimeException("insurer unavailable"));
+        when(insurerRouter.resolve(nivaInsurerId)).thenReturn(nivaPort);
+
+        InsurerPort bajajPort = mock(InsurerPort.class);
+        when(bajajPort.getCapabilities())
+                .thenReturn(new InsurerPort.InsurerCapabilities(true, true, 200, 4, 30));
+        when(bajajPort.submitBatch(any(), any())).thenReturn("BAJAJ-BATCH-001");
+        when(insurerRouter.resolve(bajajInsurerId)).thenReturn(bajajPort);
+
+        when(batchRepository.save(any())).thenAnswer(i -> {
+            EndorsementBatch b = i.getArgument(0);
+            if (b.getId() == null) b.setId(UUID.randomUUID());
+            return b;
+        });
+        submitsAll();
+
+        scheduler.assembleAndSubmitBatches();
+
+        verify(bajajPort).submitBatch(any(), any());
+        // Claim and apply commit separately for each insurer; the insurer is called between them
+        verify(transactionManager, times(4)).commit(any());
+        verify(transactionManager, never()).rollback(any());
+        verify(processHandler).handleRejection(any(), eq("Batch submission failed: insurer unavailable"));
+        // The batch is saved in place, so both saves see its final status
+        verify(batchRepository, times(2)).save(argThat(batch ->
+                batch.getInsurerId().equals(nivaInsurerId) && batch.getStatus() == BatchStatus.FAILED));
+    }
+
+    @Test
+    @DisplayName("a batch that may have reached the insurer stays ASSEMBLING and its endorsements are not rejected")
+    void assembleForInsurer_OutcomeUnknown_LeavesBatchAssembling() {
+        claims(nivaInsurerId, List.of(buildQueuedEndorsement(nivaInsurerId)), List.of());
+        when(batchRepository.existsByInsurerIdAndStatusIn(any(), any())).thenReturn(false);
+        InsurerPort nivaPort = mock(InsurerPort.class);
+        when(nivaPort.getCapabilities())
+                .thenReturn(new InsurerPort.InsurerCapabilities(false, true, 500, 24, 0));
+        when(nivaPort.submitBatch(any(), any())).thenThrow(new InsurerOutcomeUnknownException("read timed out"));
+        when(insurerRouter.resolve(nivaInsurerId)).thenReturn(nivaPort);
+        when(batchRepository.save(any())).thenAnswer(i -> {
+            EndorsementBatch b = i.getArgument(0);
+            if (b.getId() == null) b.setId(UUID.randomUUID());
+            return b;
+        });
+        submitsAll();
+
+        assertThatThrownBy(() -> scheduler.assembleForInsurer(nivaInsurerId))
+                .isInstanceOf(InsurerOutcomeUnknownException.class);
+
+        verify(batchRepository, times(1)).save(argThat(batch -> batch.getStatus() == BatchStatus.ASSEMBLING));
+        verify(processHandler, never()).handleRejection(any(), any());
+        verify(insurerLock).unlock();
+    }
+
+    @Test
+    @DisplayName("a stale ASSEMBLING batch is resent under its own id before anything new is cut")
+    void assembleForInsurer_StaleAssemblingBatch_ResentUnderSameId() {
+        EndorsementBatch stale = EndorsementBatch.builder()
+                .id(UUID.randomUUID())
+                .insurerId(nivaInsurerId)
+                .status(BatchStatus.ASSEMBLING)
+                .createdAt(Instant.now().minus(BatchAssemblyScheduler.STALE_ASSEMBLING_AFTER).minusSeconds(60))
+                .build();
+        EndorsementBatch recent = EndorsementBatch.builder()
+                .id(UUID.randomUUID())
+                .insurerId(nivaInsurerId)
+                .status(BatchStatus.ASSEMBLING)
+                .createdAt(Instant.now())
+                .build();
+        when(batchRepository.findByStatus(BatchStatus.ASSEMBLING)).thenReturn(List.of(stale, recent));
+        Endorsement waiting = buildQueuedEndorsement(nivaInsurerId);
+        waiting.setStatus(EndorsementStatus.BATCH_SUBMITTED);
+        Endorsement settled = buildQueuedEndorsement(nivaInsurerId);
+        settled.setStatus(EndorsementStatus.CONFIRMED);
+        when(endorsementRepository.findByBatchId(stale.getId())).thenReturn(List.of(waiting, settled));
+        // The resent batch is now the insurer's open batch
+        when(batchRepository.existsByInsurerIdAndStatusIn(eq(nivaInsurerId), any())).thenReturn(true);
+        InsurerPort nivaPort = mock(InsurerPort.class);
+        when(nivaPort.getCapabilities())
+                .thenReturn(new InsurerPort.InsurerCapabilities(false, true, 500, 24, 0));
+        when(nivaPort.submitBatch(stale.getId(), List.of(Map.of("endorsementId", waiting.getId().toString()))))
+                .thenReturn("NIVA-BATCH-001");
+        when(insurerRouter.resolve(nivaInsurerId)).thenReturn(nivaPort);
+
+        assertThat(scheduler.assembleForInsurer(nivaInsurerId)).isZero();
+
+        assertThat(stale.getStatus()).isEqualTo(BatchStatus.SUBMITTED);
+        assertThat(stale.getInsurerBatchRef()).isEqualTo("NIVA-BATCH-001");
+        assertThat(recent.getStatus()).isEqualTo(BatchStatus.ASSEMBLING);
+        verify(batchRepository).save(stale);
+        verify(nivaPort, times(1)).submitBatch(any(), any());
+        verify(endorsementRepository, never()).claimByStatusAndInsurerId(any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("optimizer picks one batch from the claimed window, budgeting every employer in it")
+    void assembleAndSubmitBatches_OptimizerEnabled_SubmitsSelectionFromClaimWindow() {
+        BatchAssemblyScheduler optimizing = new BatchAssemblyScheduler(
+                endorsementRepository, statusCountRepository, batchRepository, eaAccountRepository,
+                insurerRouter, transitionService, processHandler, eventPublisher, batchOptimizer, transactionManager, lockProvider, meterRegistry,
+                true, 4, 50, 0);
+        List<Endorsement> window = List.of(
+                buildQueuedEndorsement(nivaInsurerId),
+                buildQueuedEndorsement(nivaInsurerId),
+                buildQueuedEndorsement(nivaInsurerId));
+        queued(Map.of(nivaInsurerId, 3));
+        when(endorsementRepository.claimByStatusAndInsurerId(EndorsementStatus.QUEUED_FOR_BATCH, nivaInsurerId, 50))
+                .thenReturn(window);
+        when(batchRepository.existsByInsurerIdAndStatusIn(any(), any())).thenReturn(false);
+
+        InsurerPort nivaPort = mock(InsurerPort.class);
+        InsurerPort.InsurerCapabilities caps = new InsurerPort.InsurerCapabilities(false, true, 2, 24, 0);
+        when(nivaPort.getCapabilities()).thenReturn(caps);
+        when(nivaPort.submitBatch(any(), any())).thenReturn("NIVA-BATCH-001");
+        when(insurerRouter.resolve(nivaInsurerId)).thenReturn(nivaPort);
+        EAAccount account = EAAccount.builder()
+                .employerId(window.get(1).getEmployerId())
+                .insurerId(nivaInsurerId)
+                .balance(new BigDecimal("10000.00"))
+                .reserved(BigDecimal.ZERO)
+                .build();
+        when(eaAccountRepository.findByInsurerIdAndEmployerIdIn(eq(nivaInsurerId), argThat(ids -> ids.size() == 3)))
+                .thenReturn(List.of(account));
+        when(batchOptimizer.optimizeBatch(eq(window), eq(Map.of(account.getEmployerId(), account)), eq(caps)))
+                .thenReturn(
+                        new BatchOptimizerPort.OptimizedBatchPlan(window.subList(1, 3), "test", BigDecimal.ZERO, 0));
+
+        when(batchRepository.save(any())).thenAnswer(i -> {
+            EndorsementBatch b = i.getArgument(0);
+            if (b.getId() == null) b.setId(UUID.randomUUID());
+            return b;
+        });
+        submitsAll();
+
+        optimizing.assembleAndSubmitBatches();
+
+        verify(nivaPort, times(1)).submitBatch(any(), argThat(payload -> payload.size() == 2));
+        verify(transitionService).submitToBatch(
+                eq(List.of(window.get(1).getId(), window.get(2).getId())), any(UUID.class));
+    }
+
+    @Test
+    @DisplayName("claims the next window when the optimizer can send nothing from the oldest one")
+    void assembleAndSubmitBatches_OptimizerSelectsNothing_ClaimsNextWindow() {
+        BatchAssemblyScheduler optimizing = new BatchAssemblyScheduler(
+                endorsementRepository, statusCountRepository, batchRepository, eaAccountRepository,
+                insurerRouter, transitionService, processHandler, eventPublisher, batchOptimizer, transactionManager, lockProvider, meterRegistry,
+                true, 4, 2, 0);
+        List<Endorsement> oldest = List.of(
+                buildQueuedEndorsement(nivaInsurerId),
+                buildQueuedEndorsement(nivaInsurerId));
+        List<Endorsement> next = List.of(buildQueuedEndorsement(nivaInsurerId));
+        Endorsement last = oldest.get(1);
+        queued(Map.of(nivaInsurerId, 3));
+        when(endorsementRepository.claimByStatusAndInsurerId(EndorsementStatus.QUEUED_FOR_BATCH, nivaInsurerId, 2))
+                .thenReturn(oldest);
+        when(endorsementRepository.claimByStatusAndInsurerIdAfter(EndorsementStatus.QUEUED_FOR_BATCH, nivaInsurerId,
+                last.getCreatedAt(), last.getId(), 2))
+                .thenReturn(next);
+        when(batchRepository.existsByInsurerIdAndStatusIn(any(), any())).thenReturn(false);
+
+        InsurerPort nivaPort = mock(InsurerPort.class);
+        InsurerPort.InsurerCapabilities caps = new InsurerPort.InsurerCapabilities(false, true, 2, 24, 0);
+        when(nivaPort.getCapabilities()).thenReturn(caps);
+        when(nivaPort.submitBatch(any(), any())).thenReturn("NIVA-BATCH-001");
+        when(insurerRouter.resolve(nivaInsurerId)).thenReturn(nivaPort);
+        when(eaAccountRepository.findByInsurerIdAndEmployerIdIn(eq(nivaInsurerId), any())).thenReturn(List.of());
+        when(batchOptimizer.optimizeBatch(eq(oldest), any(), eq(caps)))
+                .thenReturn(new BatchOptimizerPort.OptimizedBatchPlan(List.of(), "test", BigDecimal.ZERO, 0));
+        when(batchOptimizer.optimizeBatch(eq(next), any(), eq(caps)))
+                .thenReturn(new BatchOptimizerPort.OptimizedBatchPlan(next, "test", BigDecimal.ZERO, 0));
+
+        when(batchRepository.save(any())).thenAnswer(i -> {
+            EndorsementBatch b = i.getArgument(0);
+            if (b.getId() == null) b.setId(UUID.randomUUID());
+            return b;
+        });
+        submitsAll();
+
+        optimizing.assembleAndSubmitBatches();
+
+        verify(transitionService).submitToBatch(eq(List.of(next.get(0).getId())), any(UUID.class));
+        verify(nivaPort, times(1)).submitBatch(any(), argThat(payload -> payload.size() == 1));
+    }
+
+    @Test
+    @DisplayName("assembleForInsurer submits under the insurer's lock and reports how many went out")
+    void assembleForInsurer_SubmitsUnderInsurerLock() {
+        claims(nivaInsurerId, List.of(buildQueuedEndorsement(nivaInsurerId), buildQueuedEndorsement(nivaInsurerId)),
+                List.of());
+        when(batchRepository.existsByInsurerIdAndStatusIn(any(), any())).thenReturn(false);
+        InsurerPort nivaPort = mock(InsurerPort.class);
+        when(nivaPort.getCapabilities())
+                .thenReturn(new InsurerPort.InsurerCapabilities(false, true, 500, 24, 0));
+        when(nivaPort.submitBatch(any(), any())).thenReturn("NIVA-BATCH-001");
+        when(insurerRouter.resolve(nivaInsurerId)).thenReturn(nivaPort);
+        when(batchRepository.save(any())).thenAnswer(i -> {
+            EndorsementBatch b = i.getArgument(0);
+            if (b.getId() == null) b.setId(UUID.randomUUID());
+            return b;
+        });
+        submitsAll();
+
+        assertThat(scheduler.assembleForInsurer(nivaInsurerId)).isEqualTo(2);
+
+        verify(lockProvider).lock(argThat(config -> config.getName().equals("batchAssembly-" + nivaInsurerId)));
+        verify(insurerLock).unlock();
+    }
+
+    @Test
+    @DisplayName("assembleForInsurer does nothing while another run holds the insurer")
+    void assembleForInsurer_LockHeldElsewhere_Skips() {
+        when(lockProvider.lock(any())).thenReturn(Optional.empty());
+
+        assertThat(scheduler.assembleForInsurer(nivaInsurerId)).isZero();
+
+        verifyNoInteractions(batchRepository, endorsementRepository, insurerRouter);
+    }
 }
@@ -7,33 +7,43 @@ import com.plum.endorsements.domain.port.BatchRepository;
 import com.plum.endorsements.domain.port.InsurerPort;
 import com.plum.endorsements.domain.port.NotificationPort;
 import com.plum.endorsements.infrastructure.insurer.InsurerRouter;
-import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.Answers;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
-import static org.mockito.ArgumentMatchers.any;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("BatchStatusPollerScheduler (multi-insurer)")
 class BatchStatusPollerSchedulerTest {
 
+    private static final Duration MIN_INTERVAL = Duration.ofSeconds(60);
+    private static final List<BatchStatus> OPEN = List.of(BatchStatus.SUBMITTED, BatchStatus.PROCESSING);
+
     @Mock private BatchRepository batchRepository;
     @Mock private InsurerRouter insurerRouter;
     @Mock private ProcessEndorsementHandler processHandler;
     @Mock private NotificationPort notificationPort;
-    @Mock(answer = Answers.RETURNS_DEEP_STUBS) private MeterRegistry meterRegistry;
+    @Mock private PlatformTransactionManager transactionManager;
 
+    private SimpleMeterRegistry meterRegistry;
     private BatchStatusPollerScheduler scheduler;
 
     private UUID nivaInsurerId;
@@ -41,11 +51,17 @@ class BatchStatusPollerSchedulerTest {
 
     @BeforeEach
     void setUp() {
-        scheduler = new BatchStatusPollerScheduler(
-                batchRepository, insurerRouter, processHandler,
-                notificationPort, meterRegistry);
+        meterRegistry = new SimpleMeterRegistry();
+        scheduler = scheduler(4);
         nivaInsurerId = UUID.fromString("44444444-4444-4444-4444-444444444444");
         bajajInsurerId = UUID.fromString("55555555-5555-5555-5555-555555555555");
+        lenient().when(batchRepository.transition(any(), any(), any(), any(), anyInt())).thenReturn(true);
+    }
+
+    private BatchStatusPollerScheduler scheduler(int maxConcurrentPerInsurer) {
+        return new BatchStatusPollerScheduler(
+                batchRepository, insurerRouter, processHandler, notificationPort,
+                transactionManager, meterRegistry, maxConcurrentPerInsurer, 500, MIN_INTERVAL.toMillis());
     }
 
     private EndorsementBatch buildBatch(UUID insurerId, String ref) {
@@ -61,64 +77,92 @@ class BatchStatusPollerSchedulerTest {
                 .build();
     }
 
+    private InsurerPort insurer(UUID insurerId) {
+        InsurerPort port = mock(InsurerPort.class);
+        when(port.getCapabilities()).thenReturn(new InsurerPort.InsurerCapabilities(false, true, 100, 24, 0));
+        when(insurerRouter.resolve(insurerId)).thenReturn(port);
+        return port;
+    }
+
+    private void due(EndorsementBatch... batches) {
+        when(batchRepository.findSlaBreachedUnnotified(eq(OPEN), any())).thenReturn(List.of());
+        when(batchRepository.findDueForPoll(eq(OPEN), any(), eq(500))).thenReturn(List.of(batches));
+    }
+
     @Test
     @DisplayName("polls each batch using correct insurer adapter")
     void pollBatchStatuses_UsesCorrectAdapterPerBatch() {
         EndorsementBatch nivaBatch = buildBatch(nivaInsurerId, "NIVA-BATCH-001");
         EndorsementBatch bajajBatch = buildBatch(bajajInsurerId, "BAJAJ-BATCH-001");
+        due(nivaBatch, bajajBatch);
 
-        when(batchRepository.findByStatus(BatchStatus.SUBMITTED))
-                .thenReturn(List.of(nivaBatch, bajajBatch));
-        when(batchRepository.findByStatus(BatchStatus.PROCESSING))
-                .thenReturn(List.of());
-
-        InsurerPort nivaPort = mock(InsurerPort.class);
+        InsurerPort nivaPort = insurer(nivaInsurerId);
         when(nivaPort.checkBatchStatus("NIVA-BATCH-001"))
                 .thenReturn(new InsurerPort.BatchStatusResult("PROCESSING", List.of()));
-        when(insurerRouter.resolve(nivaInsurerId)).thenReturn(nivaPort);
-
-        InsurerPort bajajPort = mock(InsurerPort.class);
+        InsurerPort bajajPort = insurer(bajajInsurerId);
         when(bajajPort.checkBatchStatus("BAJAJ-BATCH-001"))
                 .thenReturn(new InsurerPort.BatchStatusResult("COMPLETED", List.of()));
-        when(insurerRouter.resolve(bajajInsurerId)).thenReturn(bajajPort);
 
         scheduler.pollBatchStatuses();
 
-        verify(insurerRouter).resolve(nivaInsurerId);
-        verify(insurerRouter).resolve(bajajInsurerId);
         verify(nivaPort).checkBatchStatus("NIVA-BATCH-001");
         verify(bajajPort).checkBatchStatus("BAJAJ-BATCH-001");
+        assertThat(nivaBatch.getStatus()).isEqualTo(BatchStatus.PROCESSING);
+        assertThat(bajajBatch.getStatus()).isEqualTo(BatchStatus.COMPLETE);
+        assertThat(bajajBatch.getNextPollAt()).isNull();
+        verify(transactionManager, times(2)).commit(any());
     }
 
     @Test
-    @DisplayName("handles completed batch results with confirmations")
-    void pollBatchStatuses_CompletedBatch_HandlesConfirmations() {
-        UUID endorsementId = UUID.randomUUID();
+    @DisplayName("applies a completed batch's confirmations as one set and rejections individually")
+    void pollBatchStatuses_CompletedBatch_AppliesConfirmationsAsSet() {
+        UUID confirmed1 = UUID.randomUUID();
+        UUID confirmed2 = UUID.randomUUID();
+        UUID rejected = UUID.randomUUID();
         EndorsementBatch batch = buildBatch(bajajInsurerId, "BAJAJ-BATCH-002");
+        due(batch);
 
-        when(batchRepository.findByStatus(BatchStatus.SUBMITTED))
-                .thenReturn(List.of(batch));
-        when(batchRepository.findByStatus(BatchStatus.PROCESSING))
-                .thenReturn(List.of());
-
-        InsurerPort bajajPort = mock(InsurerPort.class);
+        InsurerPort bajajPort = insurer(bajajInsurerId);
+        List<InsurerPort.EndorsementResult> results = List.of(
+                new InsurerPort.EndorsementResult(confirmed1, true, "BAJAJ-REF-001", null),
+                new InsurerPort.EndorsementResult(rejected, false, null, "Invalid DOB"),
+                new InsurerPort.EndorsementResult(confirmed2, true, "BAJAJ-REF-002", null));
         when(bajajPort.checkBatchStatus("BAJAJ-BATCH-002"))
-                .thenReturn(new InsurerPort.BatchStatusResult("COMPLETED", List.of(
-                        new InsurerPort.EndorsementResult(endorsementId, true, "BAJAJ-REF-001", null)
-                )));
-        when(insurerRouter.resolve(bajajInsurerId)).thenReturn(bajajPort);
+                .thenReturn(new InsurerPort.BatchStatusResult("COMPLETED", results));
 
         scheduler.pollBatchStatuses();
 
-        verify(processHandler).handleConfirmation(endorsementId, "BAJAJ-REF-001");
-        verify(batchRepository).save(any(EndorsementBatch.class));
+        verify(processHandler).handleConfirmations(List.of(results.get(0), results.get(2)));
+        verify(processHandler).handleRejection(rejected, "Invalid DOB");
+        verify(processHandler, never()).handleConfirmation(any(), any());
+        verify(batchRepository).transition(batch.getId(), BatchStatus.OPEN, BatchStatus.COMPLETE, null, 0);
+        assertThat(batch.getStatus()).isEqualTo(BatchStatus.COMPLETE);
     }
 
     @Test
-    @DisplayName("no-op when no active batches")
-    void pollBatchStatuses_NoActiveBatches_NoOp() {
-        when(batchRepository.findByStatus(BatchStatus.SUBMITTED)).thenReturn(List.of());
-        when(batchRepository.findByStatus(BatchStatus.PROCESSING)).thenReturn(List.of());
+    @DisplayName("drops a completed poll's results when a callback settled the batch first")
+    void pollBatchStatuses_SettledMeanwhile_ResultsNotApplied() {
+        EndorsementBatch batch = buildBatch(bajajInsurerId, "BAJAJ-BATCH-005");
+        due(batch);
+        InsurerPort bajajPort = insurer(bajajInsurerId);
+        when(bajajPort.checkBatchStatus("BAJAJ-BATCH-005")).thenReturn(new InsurerPort.BatchStatusResult(
+                "COMPLETED", List.of(new InsurerPort.EndorsementResult(UUID.randomUUID(), false, null, "Invalid DOB"))));
+        when(batchRepository.transition(batch.getId(), BatchStatus.OPEN, BatchStatus.COMPLETE, null, 0))
+                .thenReturn(false);
+
+        scheduler.pollBatchStatuses();
+
+        verifyNoInteractions(processHandler);
+        verify(batchRepository, never()).save(any());
+        assertThat(batch.getStatus()).isEqualTo(BatchStatus.SUBMITTED);
+        assertThat(meterRegistry.get("endorsement.batch.poll.superseded")
+                .tag("insurerId", bajajInsurerId.toString()).counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("no-op when no batches are due")
+    void pollBatchStatuses_NoDueBatches_NoOp() {
+        due();
 
         scheduler.pollBatchStatuses();
 
@@ -126,23 +170,110 @@ class BatchStatusPollerSchedulerTest {
     }
 
     @Test
-    @DisplayName("notifies on SLA breach")
-    void pollBatchStatuses_SlaBreached_Notifies() {
+    @DisplayName("notifies an SLA breach once, when the batch is first marked")
+    void pollBatchStatuses_SlaBreached_NotifiesOnce() {
         EndorsementBatch batch = buildBatch(nivaInsurerId, "NIVA-BATCH-SLA");
-        batch.setSlaDeadline(Instant.now().minus(1, ChronoUnit.HOURS)); // Already breached
+        batch.setSlaDeadline(Instant.now().minus(1, ChronoUnit.HOURS));
+        when(batchRepository.findSlaBreachedUnnotified(eq(OPEN), any())).thenReturn(List.of(batch));
+        when(batchRepository.findDueForPoll(eq(OPEN), any(), eq(500))).thenReturn(List.of());
+        when(batchRepository.markSlaBreachNotified(eq(batch.getId()), any())).thenReturn(true, false);
 
-        when(batchRepository.findByStatus(BatchStatus.SUBMITTED))
-                .thenReturn(List.of(batch));
-        when(batchRepository.findByStatus(BatchStatus.PROCESSING))
-                .thenReturn(List.of());
+        scheduler.pollBatchStatuses();
+        scheduler.pollBatchStatuses();
 
-        InsurerPort nivaPort = mock(InsurerPort.class);
-        when(nivaPort.checkBatchStatus("NIVA-BATCH-SLA"))
+        verify(notificationPort, times(1)).notifyBatchSlaBreached(batch.getId(), nivaInsurerId);
+        assertThat(meterRegistry.get("endorsement.batch.sla.breached").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("backs off an unchanged batch by rescheduling only its next poll")
+    void pollBatchStatuses_Unchanged_BacksOff() {
+        EndorsementBatch batch = buildBatch(nivaInsurerId, "NIVA-BATCH-003");
+        batch.setStatus(BatchStatus.PROCESSING);
+        batch.setPollCount(2);
+        due(batch);
+        InsurerPort nivaPort = insurer(nivaInsurerId);
+        when(nivaPort.checkBatchStatus("NIVA-BATCH-003"))
                 .thenReturn(new InsurerPort.BatchStatusResult("PROCESSING", List.of()));
-        when(insurerRouter.resolve(nivaInsurerId)).thenReturn(nivaPort);
 
+        Instant before = Instant.now();
         scheduler.pollBatchStatuses();
 
-        verify(notificationPort).notifyBatchSlaBreached(batch.getId(), nivaInsurerId);
+        // Third unchanged poll: 60s * 2^3 = 8 minutes
+        verify(batchRepository).schedulePoll(eq(batch.getId()),
+                argThat(next -> !next.isBefore(before.plus(Duration.ofMinutes(8)))
+                        && next.isBefore(before.plus(Duration.ofMinutes(9)))), eq(3));
+        verify(batchRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("a failing batch does not stop the others and is rescheduled")
+    void pollBatchStatuses_OneBatchFails_OthersApplied() {
+        EndorsementBatch failing = buildBatch(nivaInsurerId, "NIVA-BATCH-004");
+        EndorsementBatch healthy = buildBatch(bajajInsurerId, "BAJAJ-BATCH-004");
+        due(failing, healthy);
+        InsurerPort nivaPort = insurer(nivaInsurerId);
+        when(nivaPort.checkBatchStatus("NIVA-BATCH-004")).thenThrow(new RuntimeException("timeout"));
+        InsurerPort bajajPort = insurer(bajajInsurerId);
+        when(bajajPort.checkBatchStatus("BAJAJ-BATCH-004"))
+                .thenReturn(new InsurerPort.BatchStatusResult("FAILED", List.of()));
+
+        scheduler.pollBatchStatuses();
+
+        assertThat(healthy.getStatus()).isEqualTo(BatchStatus.FAILED);
+        verify(batchRepository).schedulePoll(eq(failing.getId()), any(), eq(1));
+        assertThat(meterRegistry.get("endorsement.batch.poll.failed")
+                .tag("insurerId", nivaInsurerId.toString()).counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("endorsement.scheduler.execution")
+                .tag("result", "failure").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("never has more than the per-insurer cap of one insurer's batches in flight")
+    void pollBatchStatuses_CapsConcurrencyPerInsurer() {
+        List<EndorsementBatch> batches = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            batches.add(buildBatch(nivaInsurerId, "NIVA-BATCH-C" + i));
+        }
+        due(batches.toArray(EndorsementBatch[]::new));
+
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        CountDownLatch twoStarted = new CountDownLatch(2);
+        InsurerPort nivaPort = insurer(nivaInsurerId);
+        when(nivaPort.checkBatchStatus(anyString())).thenAnswer(invocation -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            twoStarted.countDown();
+            twoStarted.await(1, TimeUnit.SECONDS);
+            Thread.sleep(20);
+            inFlight.decrementAndGet();
+            return new InsurerPort.BatchStatusResult("PROCESSING", List.of());
+        });
+
+        scheduler(2).pollBatchStatuses();
+
+        verify(nivaPort, times(6)).checkBatchStatus(anyString());
+        assertThat(maxInFlight.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("poll delay doubles per unchanged poll, capped by the SLA window and the deadline")
+    void nextPollDelay_BacksOffWithinSla() {
+        Instant now = Instant.now();
+        Instant farDeadline = now.plus(Duration.ofDays(3));
+
+        assertThat(BatchStatusPollerScheduler.nextPollDelay(0, 24, now, farDeadline, MIN_INTERVAL))
+                .isEqualTo(Duration.ofMinutes(1));
+        assertThat(BatchStatusPollerScheduler.nextPollDelay(3, 24, now, farDeadline, MIN_INTERVAL))
+                .isEqualTo(Duration.ofMinutes(8));
+        // 24h SLA caps the delay at one hour
+        assertThat(BatchStatusPollerScheduler.nextPollDelay(10, 24, now, farDeadline, MIN_INTERVAL))
+                .isEqualTo(Duration.ofHours(1));
+        // Wakes at the deadline rather than sleeping past it
+        assertThat(BatchStatusPollerScheduler.nextPollDelay(10, 24, now, now.plus(Duration.ofMinutes(10)),
+                MIN_INTERVAL)).isEqualTo(Duration.ofMinutes(10));
+        // Unknown SLA never backs off beyond the minimum
+        assertThat(BatchStatusPollerScheduler.nextPollDelay(10, 0, now, null, MIN_INTERVAL))
+                .isEqualTo(MIN_INTERVAL);
     }
 }
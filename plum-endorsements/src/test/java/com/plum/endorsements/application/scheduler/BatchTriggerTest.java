@@ -0,0 +1,176 @@
+package com.plum.endorsements.application.scheduler;
+
+import com.plum.endorsements.domain.model.BatchQueueDepth;
+import com.plum.endorsements.domain.model.Endorsement;
+import com.plum.endorsements.domain.model.EndorsementStatus;
+import com.plum.endorsements.domain.port.BatchRepository;
+import com.plum.endorsements.domain.port.EndorsementRepository;
+import com.plum.endorsements.domain.port.InsurerPort;
+import com.plum.endorsements.infrastructure.insurer.InsurerRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("BatchTrigger")
+class BatchTriggerTest {
+
+    private static final int MAX_BATCH_SIZE = 3;
+
+    @Mock private EndorsementRepository endorsementRepository;
+    @Mock private BatchRepository batchRepository;
+    @Mock private InsurerRouter insurerRouter;
+    @Mock private InsurerPort insurerPort;
+    @Mock private ObjectProvider<BatchAssemblyScheduler> assemblerProvider;
+    @Mock private BatchAssemblyScheduler assembler;
+
+    private BatchTrigger trigger;
+    private UUID insurerId;
+
+    @BeforeEach
+    void setUp() {
+        trigger = new BatchTrigger(endorsementRepository, batchRepository, insurerRouter,
+                assemblerProvider, new SimpleMeterRegistry(), 60_000);
+        insurerId = UUID.randomUUID();
+        lenient().when(insurerRouter.resolve(insurerId)).thenReturn(insurerPort);
+        lenient().when(insurerPort.getCapabilities())
+                .thenReturn(new InsurerPort.InsurerCapabilities(false, true, MAX_BATCH_SIZE, 24, 0));
+        lenient().when(assemblerProvider.getObject()).thenReturn(assembler);
+    }
+
+    @AfterEach
+    void tearDown() {
+        trigger.shutdown();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clear();
+        }
+    }
+
+    private Endorsement queued() {
+        return Endorsement.builder()
+                .id(UUID.randomUUID())
+                .insurerId(insurerId)
+                .status(EndorsementStatus.QUEUED_FOR_BATCH)
+                .build();
+    }
+
+    private void enqueue(int count) {
+        for (int i = 0; i < count; i++) {
+            trigger.onTransition(queued(), EndorsementStatus.PROVISIONALLY_COVERED, Instant.now());
+        }
+    }
+
+    @Test
+    @DisplayName("fires assembly as soon as the queue reaches the insurer's max batch size")
+    void onTransition_QueueReachesMaxBatchSize_Fires() {
+        when(assembler.assembleForInsurer(insurerId)).thenReturn(MAX_BATCH_SIZE);
+
+        enqueue(MAX_BATCH_SIZE - 1);
+        verify(assembler, after(100).never()).assembleForInsurer(any());
+
+        enqueue(1);
+        verify(assembler, timeout(1000)).assembleForInsurer(insurerId);
+    }
+
+    @Test
+    @DisplayName("counts endorsements queued in a transaction only once it commits")
+    void onTransition_InTransaction_CountsAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        enqueue(MAX_BATCH_SIZE);
+        verifyNoInteractions(assemblerProvider, batchRepository);
+
+        TransactionSynchronizationUtils.invokeAfterCompletion(
+                TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_COMMITTED);
+        verify(assembler, timeout(1000)).assembleForInsurer(insurerId);
+    }
+
+    @Test
+    @DisplayName("ignores transitions into other statuses and rolled-back queueing")
+    void onTransition_OtherStatusOrRollback_DoesNotFire() {
+        Endorsement submitted = queued();
+        submitted.setStatus(EndorsementStatus.BATCH_SUBMITTED);
+        for (int i = 0; i < MAX_BATCH_SIZE; i++) {
+            trigger.onTransition(submitted, EndorsementStatus.QUEUED_FOR_BATCH, Instant.now());
+        }
+
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        enqueue(MAX_BATCH_SIZE);
+        TransactionSynchronizationUtils.invokeAfterCompletion(
+                TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        verifyNoInteractions(assemblerProvider, batchRepository);
+    }
+
+    @Test
+    @DisplayName("check fires an insurer whose oldest queued endorsement is past the max age")
+    void checkQueues_OldestPastMaxAge_Fires() {
+        when(endorsementRepository.findBatchQueueDepths()).thenReturn(List.of(
+                new BatchQueueDepth(insurerId, 1, Instant.now().minus(2, ChronoUnit.MINUTES))));
+
+        trigger.checkQueues();
+
+        verify(assembler, timeout(1000)).assembleForInsurer(insurerId);
+    }
+
+    @Test
+    @DisplayName("check leaves small, young queues for later")
+    void checkQueues_SmallYoungQueue_DoesNotFire() {
+        when(endorsementRepository.findBatchQueueDepths()).thenReturn(List.of(
+                new BatchQueueDepth(insurerId, 1, Instant.now())));
+
+        trigger.checkQueues();
+
+        verify(assemblerProvider, after(100).never()).getObject();
+    }
+
+    @Test
+    @DisplayName("skips an insurer whose previous batch is still in flight")
+    void checkQueues_ActiveBatch_SkipsQuietly() {
+        when(endorsementRepository.findBatchQueueDepths()).thenReturn(List.of(
+                new BatchQueueDepth(insurerId, MAX_BATCH_SIZE, Instant.now())));
+        when(batchRepository.existsByInsurerIdAndStatusIn(eq(insurerId), any())).thenReturn(true);
+
+        trigger.checkQueues();
+
+        verify(batchRepository, timeout(1000)).existsByInsurerIdAndStatusIn(eq(insurerId), any());
+        verify(assemblerProvider, after(100).never()).getObject();
+    }
+
+    @Test
+    @DisplayName("does not re-fire on age right after a run that submitted nothing")
+    void checkQueues_NothingSubmitted_AgeTriggerBacksOff() {
+        when(endorsementRepository.findBatchQueueDepths()).thenReturn(List.of(
+                new BatchQueueDepth(insurerId, 1, Instant.now().minus(2, ChronoUnit.MINUTES))));
+        when(assembler.assembleForInsurer(insurerId)).thenReturn(0);
+
+        trigger.checkQueues();
+        verify(assembler, timeout(1000)).assembleForInsurer(insurerId);
+        verify(batchRepository, timeout(1000)).existsByInsurerIdAndStatusIn(eq(insurerId), any());
+
+        // Let the first run finish and record its back-off before checking again
+        verify(assembler, after(100).times(1)).assembleForInsurer(insurerId);
+        trigger.checkQueues();
+
+        verify(assembler, after(100).times(1)).assembleForInsurer(insurerId);
+    }
+}
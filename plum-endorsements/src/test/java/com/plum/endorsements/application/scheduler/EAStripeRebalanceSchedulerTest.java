@@ -0,0 +1,56 @@
+package com.plum.endorsements.application.scheduler;
+
+import com.plum.endorsements.application.service.EAReservationService;
+import com.plum.endorsements.domain.model.EAAccount;
+import com.plum.endorsements.domain.port.EAAccountRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EAStripeRebalanceSchedulerTest {
+
+    @Mock
+    EAAccountRepository eaAccountRepository;
+
+    @Mock
+    EAReservationService reservationService;
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    MeterRegistry meterRegistry;
+
+    @InjectMocks
+    EAStripeRebalanceScheduler scheduler;
+
+    private EAAccount account() {
+        return EAAccount.builder()
+                .employerId(UUID.randomUUID())
+                .insurerId(UUID.randomUUID())
+                .balance(new BigDecimal("1000.00"))
+                .reserved(BigDecimal.ZERO)
+                .build();
+    }
+
+    @Test
+    void rebalanceStripes_ShouldRebalanceEveryAccountAndSurviveFailures() {
+        EAAccount failing = account();
+        EAAccount healthy = account();
+        when(eaAccountRepository.findAll()).thenReturn(List.of(failing, healthy));
+        doThrow(new RuntimeException("lock timeout"))
+                .when(reservationService).rebalance(failing.getEmployerId(), failing.getInsurerId());
+
+        scheduler.rebalanceStripes();
+
+        verify(reservationService).rebalance(healthy.getEmployerId(), healthy.getInsurerId());
+    }
+}
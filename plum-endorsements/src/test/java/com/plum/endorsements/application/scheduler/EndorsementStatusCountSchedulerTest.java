@@ -0,0 +1,49 @@
+package com.plum.endorsements.application.scheduler;
+
+import com.plum.endorsements.application.service.EndorsementStatusCountService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EndorsementStatusCountSchedulerTest {
+
+    @Mock
+    EndorsementStatusCountService statusCountService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private EndorsementStatusCountScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        scheduler = new EndorsementStatusCountScheduler(statusCountService, meterRegistry);
+    }
+
+    @Test
+    void compactDeltas_ShouldCompactAndRecordSuccess() {
+        when(statusCountService.compact()).thenReturn(12);
+
+        scheduler.compactDeltas();
+
+        verify(statusCountService).compact();
+        assertThat(meterRegistry.counter("endorsement.scheduler.execution",
+                "scheduler", "status_count_compaction", "result", "success").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void reconcileCounts_ServiceFails_ShouldRecordFailure() {
+        when(statusCountService.reconcile()).thenThrow(new RuntimeException("serialization failure"));
+
+        scheduler.reconcileCounts();
+
+        assertThat(meterRegistry.counter("endorsement.scheduler.execution",
+                "scheduler", "status_count_reconciliation", "result", "failure").count()).isEqualTo(1.0);
+    }
+}
@@ -0,0 +1,76 @@
+package com.plum.endorsements.application.scheduler;
+
+import com.plum.endorsements.application.handler.InsurerCallbackHandler;
+import com.plum.endorsements.domain.port.InsurerCallbackInbox;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("InsurerCallbackApplyScheduler")
+class InsurerCallbackApplySchedulerTest {
+
+    @Mock private InsurerCallbackHandler callbackHandler;
+    @Mock private InsurerCallbackInbox inbox;
+
+    private SimpleMeterRegistry meterRegistry;
+    private InsurerCallbackApplyScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        scheduler = new InsurerCallbackApplyScheduler(callbackHandler, inbox, meterRegistry, 100, 5000, 7);
+    }
+
+    private double executions(String result) {
+        return meterRegistry.counter("endorsement.scheduler.execution",
+                "scheduler", "callback_apply", "result", result).count();
+    }
+
+    @Test
+    @DisplayName("keeps draining full chunks and stops at the first short one")
+    void applyCallbacks_DrainsUntilShortChunk() {
+        when(callbackHandler.applyPending(100)).thenReturn(100, 100, 37);
+
+        scheduler.applyCallbacks();
+
+        verify(callbackHandler, times(3)).applyPending(100);
+        assertThat(executions("success")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("records a failed run without throwing, leaving the rest for the next one")
+    void applyCallbacks_Failure_Recorded() {
+        when(callbackHandler.applyPending(100)).thenThrow(new IllegalStateException("database down"));
+
+        scheduler.applyCallbacks();
+
+        assertThat(executions("failure")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("purges applied callbacks older than the retention period")
+    void purgeApplied_UsesRetention() {
+        ArgumentCaptor<Instant> cutoff = ArgumentCaptor.forClass(Instant.class);
+        when(inbox.purgeAppliedBefore(cutoff.capture())).thenReturn(12);
+
+        scheduler.purgeApplied();
+
+        assertThat(Duration.between(cutoff.getValue(), Instant.now()).toHours())
+                .isCloseTo(Duration.ofDays(7).toHours(), within(1L));
+    }
+}
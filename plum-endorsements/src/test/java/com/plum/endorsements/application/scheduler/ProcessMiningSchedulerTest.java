@@ -27,11 +27,11 @@ class ProcessMiningSchedulerTest {
     }
 
     @Test
-    @DisplayName("runDailyAnalysis calls generateInsights on service")
+    @DisplayName("runDailyAnalysis calls snapshotAggregates on service")
     void runDailyAnalysis_CallsService() {
         scheduler.runDailyAnalysis();
 
-        verify(processMiningService).generateInsights();
+        verify(processMiningService).snapshotAggregates();
     }
 
     @Test
@@ -49,7 +49,7 @@ class ProcessMiningSchedulerTest {
     @DisplayName("runDailyAnalysis records failure metric when service throws")
     void runDailyAnalysis_ServiceFails_RecordsFailureMetric() {
         doThrow(new RuntimeException("Mining failed"))
-                .when(processMiningService).generateInsights();
+                .when(processMiningService).snapshotAggregates();
 
         scheduler.runDailyAnalysis();
 
@@ -63,21 +63,21 @@ class ProcessMiningSchedulerTest {
     @DisplayName("runDailyAnalysis does not propagate exception from service")
     void runDailyAnalysis_ServiceFails_DoesNotPropagate() {
         doThrow(new RuntimeException("Connection timeout"))
-                .when(processMiningService).generateInsights();
+                .when(processMiningService).snapshotAggregates();
 
         // Should not throw
         scheduler.runDailyAnalysis();
 
-        verify(processMiningService).generateInsights();
+        verify(processMiningService).snapshotAggregates();
     }
 
     @Test
     @DisplayName("runDailyAnalysis completes successfully with no-op service")
     void runDailyAnalysis_CompletesSuccessfully() {
-        doNothing().when(processMiningService).generateInsights();
+        doNothing().when(processMiningService).snapshotAggregates();
 
         scheduler.runDailyAnalysis();
 
-        verify(processMiningService, times(1)).generateInsights();
+        verify(processMiningService, times(1)).snapshotAggregates();
     }
 }
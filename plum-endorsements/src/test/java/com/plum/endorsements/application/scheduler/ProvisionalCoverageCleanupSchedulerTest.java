@@ -22,7 +22,6 @@ import org.springframework.test.util.ReflectionTestUtils;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
-import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -90,8 +89,8 @@ class ProvisionalCoverageCleanupSchedulerTest {
 
         when(provisionalCoverageRepository.findStaleProvisionalCoverages(30))
                 .thenReturn(List.of(coverage));
-        when(endorsementRepository.findById(endorsementId))
-                .thenReturn(Optional.of(endorsement));
+        when(endorsementRepository.findAllById(List.of(endorsementId)))
+                .thenReturn(List.of(endorsement));
 
         scheduler.expireStaleProvisionalCoverages();
 
@@ -111,8 +110,8 @@ class ProvisionalCoverageCleanupSchedulerTest {
 
         when(provisionalCoverageRepository.findStaleProvisionalCoverages(30))
                 .thenReturn(List.of(coverage));
-        when(endorsementRepository.findById(endorsementId))
-                .thenReturn(Optional.of(endorsement));
+        when(endorsementRepository.findAllById(List.of(endorsementId)))
+                .thenReturn(List.of(endorsement));
 
         scheduler.expireStaleProvisionalCoverages();
 
@@ -130,8 +129,8 @@ class ProvisionalCoverageCleanupSchedulerTest {
 
         when(provisionalCoverageRepository.findStaleProvisionalCoverages(30))
                 .thenReturn(List.of(coverage));
-        when(endorsementRepository.findById(endorsementId))
-                .thenReturn(Optional.empty());
+        when(endorsementRepository.findAllById(List.of(endorsementId)))
+                .thenReturn(List.of());
 
         scheduler.expireStaleProvisionalCoverages();
 
@@ -204,10 +203,8 @@ class ProvisionalCoverageCleanupSchedulerTest {
 
         when(provisionalCoverageRepository.findStaleProvisionalCoverages(30))
                 .thenReturn(List.of(terminalCov, activeCov));
-        when(endorsementRepository.findById(terminalEndId))
-                .thenReturn(Optional.of(terminalEnd));
-        when(endorsementRepository.findById(activeEndId))
-                .thenReturn(Optional.of(activeEnd));
+        when(endorsementRepository.findAllById(List.of(terminalEndId, activeEndId)))
+                .thenReturn(List.of(terminalEnd, activeEnd));
 
         scheduler.expireStaleProvisionalCoverages();
 
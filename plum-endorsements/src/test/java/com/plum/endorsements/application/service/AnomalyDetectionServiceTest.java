@@ -27,6 +27,7 @@ import static org.mockito.Mockito.*;
 class AnomalyDetectionServiceTest {
 
     @Mock private AnomalyDetectionPort anomalyDetector;
+    @Mock private AnomalyFeatureService featureService;
     @Mock private AnomalyDetectionRepository anomalyRepository;
     @Mock private EndorsementRepository endorsementRepository;
     @Mock private EventPublisher eventPublisher;
@@ -68,9 +69,9 @@ class AnomalyDetectionServiceTest {
     void analyzeEndorsement_ScoreAboveThreshold_FlagsAnomaly() {
         Endorsement endorsement = buildEndorsement();
         when(endorsementRepository.findById(endorsementId)).thenReturn(Optional.of(endorsement));
-        when(endorsementRepository.findByStatus(any())).thenReturn(new ArrayList<>());
+        when(featureService.featuresFor(any())).thenReturn(AnomalyFeatures.empty());
 
-        when(anomalyDetector.analyzeEndorsement(eq(endorsement), anyList()))
+        when(anomalyDetector.analyzeEndorsement(eq(endorsement), any()))
                 .thenReturn(new AnomalyDetectionPort.AnomalyResult("VOLUME_SPIKE", 0.85, "Spike detected"));
 
         when(anomalyRepository.save(any(AnomalyDetection.class))).thenAnswer(i -> {
@@ -97,9 +98,9 @@ class AnomalyDetectionServiceTest {
     void analyzeEndorsement_ScoreBelowThreshold_DoesNotFlag() {
         Endorsement endorsement = buildEndorsement();
         when(endorsementRepository.findById(endorsementId)).thenReturn(Optional.of(endorsement));
-        when(endorsementRepository.findByStatus(any())).thenReturn(new ArrayList<>());
+        when(featureService.featuresFor(any())).thenReturn(AnomalyFeatures.empty());
 
-        when(anomalyDetector.analyzeEndorsement(eq(endorsement), anyList()))
+        when(anomalyDetector.analyzeEndorsement(eq(endorsement), any()))
                 .thenReturn(new AnomalyDetectionPort.AnomalyResult("VOLUME_SPIKE", 0.3, "Normal volume"));
 
         service.analyzeEndorsement(endorsementId);
@@ -116,7 +117,7 @@ class AnomalyDetectionServiceTest {
 
         service.analyzeEndorsement(endorsementId);
 
-        verify(anomalyDetector, never()).analyzeEndorsement(any(), anyList());
+        verify(anomalyDetector, never()).analyzeEndorsement(any(), any());
         verify(anomalyRepository, never()).save(any());
         verify(eventPublisher, never()).publish(any());
     }
@@ -134,17 +135,18 @@ class AnomalyDetectionServiceTest {
                 .thenAnswer(inv -> new ArrayList<>());
         when(endorsementRepository.findByStatus(EndorsementStatus.PROVISIONALLY_COVERED))
                 .thenAnswer(inv -> new ArrayList<>());
-        when(endorsementRepository.findByStatus(EndorsementStatus.CONFIRMED))
-                .thenAnswer(inv -> new ArrayList<>());
         when(endorsementRepository.findById(endorsementId))
                 .thenReturn(Optional.of(recent));
-        when(anomalyDetector.analyzeEndorsement(any(), anyList()))
+        when(anomalyDetector.analyzeEndorsement(any(), any()))
                 .thenReturn(new AnomalyDetectionPort.AnomalyResult("NONE", 0.1, "Normal"));
 
         service.runBatchAnalysis();
 
         // Verify analyzeEndorsement was called (via findById)
         verify(endorsementRepository, atLeastOnce()).findById(endorsementId);
+        verify(featureService).featuresFor(recent);
+        verify(featureService).purgeActivityBefore(any(Instant.class));
+        verify(endorsementRepository, never()).findByStatus(EndorsementStatus.CONFIRMED);
     }
 
     @Test
@@ -194,12 +196,12 @@ class AnomalyDetectionServiceTest {
 
         when(endorsementRepository.findById(endorsementId)).thenReturn(Optional.of(endorsement1));
         when(endorsementRepository.findById(endorsementId2)).thenReturn(Optional.of(endorsement2));
-        when(endorsementRepository.findByStatus(any())).thenReturn(new ArrayList<>());
+        when(featureService.featuresFor(any())).thenReturn(AnomalyFeatures.empty());
 
         // Both endorsements flag anomalies above threshold
-        when(anomalyDetector.analyzeEndorsement(eq(endorsement1), anyList()))
+        when(anomalyDetector.analyzeEndorsement(eq(endorsement1), any()))
                 .thenReturn(new AnomalyDetectionPort.AnomalyResult("VOLUME_SPIKE", 0.90, "Spike for endorsement 1"));
-        when(anomalyDetector.analyzeEndorsement(eq(endorsement2), anyList()))
+        when(anomalyDetector.analyzeEndorsement(eq(endorsement2), any()))
                 .thenReturn(new AnomalyDetectionPort.AnomalyResult("SUSPICIOUS_TIMING", 0.80, "Timing for endorsement 2"));
 
         when(anomalyRepository.save(any(AnomalyDetection.class))).thenAnswer(i -> {
@@ -221,10 +223,10 @@ class AnomalyDetectionServiceTest {
     void shouldNotPublishEventBelowThreshold() {
         Endorsement endorsement = buildEndorsement();
         when(endorsementRepository.findById(endorsementId)).thenReturn(Optional.of(endorsement));
-        when(endorsementRepository.findByStatus(any())).thenReturn(new ArrayList<>());
+        when(featureService.featuresFor(any())).thenReturn(AnomalyFeatures.empty());
 
         // Score at 0.69, just below the 0.7 threshold
-        when(anomalyDetector.analyzeEndorsement(eq(endorsement), anyList()))
+        when(anomalyDetector.analyzeEndorsement(eq(endorsement), any()))
                 .thenReturn(new AnomalyDetectionPort.AnomalyResult("VOLUME_SPIKE", 0.69, "Borderline normal"));
 
         service.analyzeEndorsement(endorsementId);
@@ -300,9 +302,9 @@ class AnomalyDetectionServiceTest {
     void shouldRecordMetricsOnAnalysis() {
         Endorsement endorsement = buildEndorsement();
         when(endorsementRepository.findById(endorsementId)).thenReturn(Optional.of(endorsement));
-        when(endorsementRepository.findByStatus(any())).thenReturn(new ArrayList<>());
+        when(featureService.featuresFor(any())).thenReturn(AnomalyFeatures.empty());
 
-        when(anomalyDetector.analyzeEndorsement(eq(endorsement), anyList()))
+        when(anomalyDetector.analyzeEndorsement(eq(endorsement), any()))
                 .thenReturn(new AnomalyDetectionPort.AnomalyResult("SUSPICIOUS_TIMING", 0.45, "Normal timing"));
 
         service.analyzeEndorsement(endorsementId);
@@ -0,0 +1,90 @@
+package com.plum.endorsements.application.service;
+
+import com.plum.endorsements.domain.model.Endorsement;
+import com.plum.endorsements.domain.port.AnomalyFeatureStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AnomalyFeatureServiceTest {
+
+    @Mock
+    AnomalyFeatureStore featureStore;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private AnomalyFeatureService service;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        service = new AnomalyFeatureService(featureStore, transactionManager, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static Endorsement endorsement() {
+        return Endorsement.builder().id(UUID.randomUUID()).employerId(UUID.randomUUID()).build();
+    }
+
+    @Test
+    void recordCreated_WithoutTransaction_ShouldRecordInOwnTransaction() {
+        List<Endorsement> created = List.of(endorsement());
+
+        service.recordCreated(created);
+
+        verify(featureStore).record(created);
+        verify(transactionManager).getTransaction(argThat(definition ->
+                definition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+        assertThat(meterRegistry.counter("endorsement.anomaly.features.recorded", "result", "success").count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void recordCreated_InsideTransaction_ShouldWaitForCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        List<Endorsement> created = List.of(endorsement(), endorsement());
+
+        service.recordCreated(created);
+        verifyNoInteractions(featureStore);
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        assertThat(synchronizations).hasSize(1);
+        synchronizations.get(0).afterCommit();
+
+        verify(featureStore).record(created);
+    }
+
+    @Test
+    void recordCreated_StoreFailure_ShouldBeCountedNotThrown() {
+        doThrow(new RuntimeException("db down")).when(featureStore).record(anyList());
+
+        assertThatCode(() -> service.recordCreated(List.of(endorsement()))).doesNotThrowAnyException();
+
+        assertThat(meterRegistry.counter("endorsement.anomaly.features.recorded", "result", "failure").count())
+                .isEqualTo(1.0);
+    }
+}
@@ -8,15 +8,18 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Answers;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -33,6 +36,7 @@ class BalanceForecastServiceTest {
     @Mock private EventPublisher eventPublisher;
     @Mock private NotificationPort notificationPort;
     @Mock(answer = Answers.RETURNS_DEEP_STUBS) private MeterRegistry meterRegistry;
+    @Mock private PlatformTransactionManager transactionManager;
 
     @InjectMocks
     private BalanceForecastService service;
@@ -50,10 +54,11 @@ class BalanceForecastServiceTest {
     @Test
     @DisplayName("generateForecast saves record and publishes ForecastGenerated event")
     void generateForecast_SavesAndPublishesEvent() {
-        when(endorsementRepository.findByStatus(any())).thenReturn(new ArrayList<>());
+        when(endorsementRepository.findDailyVolumes(eq(employerId), eq(insurerId), anyCollection(), any()))
+                .thenReturn(EndorsementVolumeSeries.empty(employerId, insurerId));
         when(eaAccountRepository.findByEmployerIdAndInsurerId(employerId, insurerId))
                 .thenReturn(Optional.empty());
-        when(forecastEngine.generateForecast(eq(employerId), eq(insurerId), anyList()))
+        when(forecastEngine.generateForecast(any(EndorsementVolumeSeries.class)))
                 .thenReturn(new BalanceForecastPort.ForecastResult(
                         new BigDecimal("50000.00"), 30, new BigDecimal("1666.67"),
                         BigDecimal.ZERO, false, "Forecast narrative"));
@@ -85,10 +90,11 @@ class BalanceForecastServiceTest {
                 .updatedAt(Instant.now())
                 .build();
 
-        when(endorsementRepository.findByStatus(any())).thenReturn(new ArrayList<>());
+        when(endorsementRepository.findDailyVolumes(eq(employerId), eq(insurerId), anyCollection(), any()))
+                .thenReturn(EndorsementVolumeSeries.empty(employerId, insurerId));
         when(eaAccountRepository.findByEmployerIdAndInsurerId(employerId, insurerId))
                 .thenReturn(Optional.of(account));
-        when(forecastEngine.generateForecast(eq(employerId), eq(insurerId), anyList()))
+        when(forecastEngine.generateForecast(any(EndorsementVolumeSeries.class)))
                 .thenReturn(new BalanceForecastPort.ForecastResult(
                         new BigDecimal("50000.00"), 30, new BigDecimal("1666.67"),
                         new BigDecimal("30000.00"), true, "Shortfall forecast"));
@@ -126,10 +132,11 @@ class BalanceForecastServiceTest {
                 .updatedAt(Instant.now())
                 .build();
 
-        when(endorsementRepository.findByStatus(any())).thenReturn(new ArrayList<>());
+        when(endorsementRepository.findDailyVolumes(eq(employerId), eq(insurerId), anyCollection(), any()))
+                .thenReturn(EndorsementVolumeSeries.empty(employerId, insurerId));
         when(eaAccountRepository.findByEmployerIdAndInsurerId(employerId, insurerId))
                 .thenReturn(Optional.of(account));
-        when(forecastEngine.generateForecast(eq(employerId), eq(insurerId), anyList()))
+        when(forecastEngine.generateForecast(any(EndorsementVolumeSeries.class)))
                 .thenReturn(new BalanceForecastPort.ForecastResult(
                         new BigDecimal("50000.00"), 30, new BigDecimal("1666.67"),
                         BigDecimal.ZERO, false, "Sufficient balance"));
@@ -150,10 +157,11 @@ class BalanceForecastServiceTest {
     @Test
     @DisplayName("generateForecast without EA account publishes event but no shortfall alert")
     void generateForecast_NoAccount_NoShortfallAlert() {
-        when(endorsementRepository.findByStatus(any())).thenReturn(new ArrayList<>());
+        when(endorsementRepository.findDailyVolumes(eq(employerId), eq(insurerId), anyCollection(), any()))
+                .thenReturn(EndorsementVolumeSeries.empty(employerId, insurerId));
         when(eaAccountRepository.findByEmployerIdAndInsurerId(employerId, insurerId))
                 .thenReturn(Optional.empty());
-        when(forecastEngine.generateForecast(eq(employerId), eq(insurerId), anyList()))
+        when(forecastEngine.generateForecast(any(EndorsementVolumeSeries.class)))
                 .thenReturn(new BalanceForecastPort.ForecastResult(
                         new BigDecimal("50000.00"), 30, new BigDecimal("1666.67"),
                         BigDecimal.ZERO, false, "No account found"));
@@ -170,6 +178,129 @@ class BalanceForecastServiceTest {
         verify(notificationPort, never()).notifyInsufficientBalance(any(), any(), any());
     }
 
+    @Test
+    @DisplayName("generateAllForecasts streams history once and saves every forecast in one batch")
+    void generateAllForecasts_StreamsOnceAndSavesInOneBatch() {
+        ReflectionTestUtils.setField(service, "parallelism", 2);
+        UUID otherEmployer = UUID.randomUUID();
+        EAAccount shortAccount = buildAccount(employerId, new BigDecimal("20000.00"));
+        EAAccount idleAccount = buildAccount(otherEmployer, new BigDecimal("100000.00"));
+        EndorsementVolumeSeries history = new EndorsementVolumeSeries(employerId, insurerId, List.of(
+                new EndorsementVolumeSeries.DailyVolume(LocalDate.now().minusDays(1),
+                        2, 2, new BigDecimal("2000.00"), 0, 0, BigDecimal.ZERO)));
+
+        when(eaAccountRepository.findAll()).thenReturn(List.of(shortAccount, idleAccount));
+        doAnswer(i -> {
+            Consumer<EndorsementVolumeSeries> consumer = i.getArgument(2);
+            consumer.accept(history);
+            // Pairs without an EA account are ignored
+            consumer.accept(EndorsementVolumeSeries.empty(UUID.randomUUID(), insurerId));
+            return null;
+        }).when(endorsementRepository).streamDailyVolumes(anyCollection(), any(), any());
+        when(forecastEngine.historyDays()).thenReturn(90);
+        when(forecastEngine.generateForecast(any(EndorsementVolumeSeries.class))).thenAnswer(i -> {
+            EndorsementVolumeSeries series = i.getArgument(0);
+            return series.days().isEmpty()
+                    ? new BalanceForecastPort.ForecastResult(BigDecimal.ZERO, 30, BigDecimal.ZERO,
+                            BigDecimal.ZERO, false, "No history")
+                    : new BalanceForecastPort.ForecastResult(new BigDecimal("50000.00"), 30,
+                            new BigDecimal("1666.67"), new BigDecimal("30000.00"), true, "Shortfall forecast");
+        });
+        when(forecastRepository.saveAll(anyList())).thenAnswer(i -> i.getArgument(0));
+
+        BalanceForecastService.ForecastRun run = service.generateAllForecasts();
+
+        assertThat(run.generated()).isEqualTo(2);
+        assertThat(run.failed()).isZero();
+        verify(endorsementRepository).streamDailyVolumes(anyCollection(), any(), any());
+        verify(endorsementRepository, never()).findByStatus(any());
+        verify(forecastEngine).generateForecast(history);
+        verify(forecastEngine).generateForecast(EndorsementVolumeSeries.empty(otherEmployer, insurerId));
+        verify(forecastRepository).saveAll(argThat(records -> records.size() == 2));
+        verify(forecastRepository, never()).save(any());
+        verify(eventPublisher).publishAll(argThat(events ->
+                events.stream().filter(EndorsementEvent.ForecastGenerated.class::isInstance).count() == 2
+                        && events.stream().filter(EndorsementEvent.BalanceForecastAlert.class::isInstance).count() == 1));
+        verify(notificationPort).notifyForecastShortfall(employerId, new BigDecimal("30000.00"), 30);
+    }
+
+    @Test
+    @DisplayName("generateAllForecasts forecasts outside any transaction and notifies shortfalls after commit")
+    void generateAllForecasts_NotifiesAfterCommit() {
+        ReflectionTestUtils.setField(service, "parallelism", 1);
+        when(eaAccountRepository.findAll()).thenReturn(List.of(buildAccount(employerId, new BigDecimal("20000.00"))));
+        when(forecastEngine.historyDays()).thenReturn(90);
+        when(forecastEngine.generateForecast(any(EndorsementVolumeSeries.class)))
+                .thenReturn(new BalanceForecastPort.ForecastResult(new BigDecimal("50000.00"), 30,
+                        new BigDecimal("1666.67"), new BigDecimal("30000.00"), true, "Shortfall forecast"));
+        when(forecastRepository.saveAll(anyList())).thenAnswer(i -> i.getArgument(0));
+
+        service.generateAllForecasts();
+
+        InOrder order = inOrder(transactionManager, endorsementRepository, forecastEngine, forecastRepository,
+                eventPublisher, notificationPort);
+        order.verify(transactionManager).getTransaction(argThat(definition -> definition.isReadOnly()));
+        order.verify(endorsementRepository).streamDailyVolumes(anyCollection(), any(), any());
+        order.verify(transactionManager).commit(any());
+        order.verify(forecastEngine).generateForecast(any(EndorsementVolumeSeries.class));
+        order.verify(transactionManager).getTransaction(argThat(definition -> !definition.isReadOnly()));
+        order.verify(forecastRepository).saveAll(anyList());
+        order.verify(eventPublisher).publishAll(anyList());
+        order.verify(transactionManager).commit(any());
+        order.verify(notificationPort).notifyInsufficientBalance(eq(employerId), any(), any());
+        order.verify(notificationPort).notifyForecastShortfall(employerId, new BigDecimal("30000.00"), 30);
+    }
+
+    @Test
+    @DisplayName("generateAllForecasts skips an account whose forecast fails and saves the rest")
+    void generateAllForecasts_OneFails_SavesTheRest() {
+        ReflectionTestUtils.setField(service, "parallelism", 2);
+        UUID failingEmployer = UUID.randomUUID();
+
+        when(eaAccountRepository.findAll()).thenReturn(List.of(
+                buildAccount(failingEmployer, new BigDecimal("100000.00")),
+                buildAccount(employerId, new BigDecimal("100000.00"))));
+        when(forecastEngine.historyDays()).thenReturn(90);
+        when(forecastEngine.generateForecast(any(EndorsementVolumeSeries.class))).thenAnswer(i -> {
+            EndorsementVolumeSeries series = i.getArgument(0);
+            if (series.employerId().equals(failingEmployer)) {
+                throw new IllegalStateException("Forecast failed");
+            }
+            return new BalanceForecastPort.ForecastResult(new BigDecimal("50000.00"), 30,
+                    new BigDecimal("1666.67"), BigDecimal.ZERO, false, "Sufficient balance");
+        });
+        when(forecastRepository.saveAll(anyList())).thenAnswer(i -> i.getArgument(0));
+
+        BalanceForecastService.ForecastRun run = service.generateAllForecasts();
+
+        assertThat(run.generated()).isEqualTo(1);
+        assertThat(run.failed()).isEqualTo(1);
+        verify(forecastRepository).saveAll(argThat(records ->
+                records.size() == 1 && records.getFirst().getEmployerId().equals(employerId)));
+    }
+
+    @Test
+    @DisplayName("generateAllForecasts with no accounts does not read history")
+    void generateAllForecasts_NoAccounts_NoOp() {
+        when(eaAccountRepository.findAll()).thenReturn(List.of());
+
+        BalanceForecastService.ForecastRun run = service.generateAllForecasts();
+
+        assertThat(run.generated()).isZero();
+        verify(endorsementRepository, never()).streamDailyVolumes(any(), any(), any());
+        verify(forecastRepository, never()).saveAll(any());
+    }
+
+    private EAAccount buildAccount(UUID employer, BigDecimal balance) {
+        return EAAccount.builder()
+                .employerId(employer)
+                .insurerId(insurerId)
+                .balance(balance)
+                .reserved(BigDecimal.ZERO)
+                .updatedAt(Instant.now())
+                .build();
+    }
+
     @Test
     @DisplayName("getLatestForecast delegates to repository")
     void getLatestForecast_DelegatesToRepository() {
@@ -202,10 +333,11 @@ class BalanceForecastServiceTest {
                 .updatedAt(Instant.now())
                 .build();
 
-        when(endorsementRepository.findByStatus(any())).thenReturn(new ArrayList<>());
+        when(endorsementRepository.findDailyVolumes(eq(employerId), eq(insurerId), anyCollection(), any()))
+                .thenReturn(EndorsementVolumeSeries.empty(employerId, insurerId));
         when(eaAccountRepository.findByEmployerIdAndInsurerId(employerId, insurerId))
                 .thenReturn(Optional.of(account));
-        when(forecastEngine.generateForecast(eq(employerId), eq(insurerId), anyList()))
+        when(forecastEngine.generateForecast(any(EndorsementVolumeSeries.class)))
                 .thenReturn(new BalanceForecastPort.ForecastResult(
                         new BigDecimal("30000.00"), 30, new BigDecimal("1000.00"),
                         new BigDecimal("30000.00"), true, "Zero balance, full shortfall"));
@@ -237,10 +369,11 @@ class BalanceForecastServiceTest {
                 .updatedAt(Instant.now())
                 .build();
 
-        when(endorsementRepository.findByStatus(any())).thenReturn(new ArrayList<>());
+        when(endorsementRepository.findDailyVolumes(eq(employerId), eq(insurerId), anyCollection(), any()))
+                .thenReturn(EndorsementVolumeSeries.empty(employerId, insurerId));
         when(eaAccountRepository.findByEmployerIdAndInsurerId(employerId, insurerId))
                 .thenReturn(Optional.of(account));
-        when(forecastEngine.generateForecast(eq(employerId), eq(insurerId), anyList()))
+        when(forecastEngine.generateForecast(any(EndorsementVolumeSeries.class)))
                 .thenReturn(new BalanceForecastPort.ForecastResult(
                         new BigDecimal("20000.00"), 30, new BigDecimal("666.67"),
                         new BigDecimal("25000.00"), true, "Overdrawn account"));
@@ -0,0 +1,180 @@
+package com.plum.endorsements.application.service;
+
+import com.plum.endorsements.domain.model.EALedgerSnapshot;
+import com.plum.endorsements.domain.model.EATransaction;
+import com.plum.endorsements.domain.model.EATransaction.EATransactionType;
+import com.plum.endorsements.domain.port.EALedgerRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EALedgerServiceTest {
+
+    private static final Instant NOW = Instant.parse("2026-10-18T10:00:00Z");
+    private static final long LAG_MS = 300_000;
+    private static final long RECHECK_MS = 7_200_000;
+
+    @Mock
+    EALedgerRepository ledgerRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private UUID employerId;
+    private UUID insurerId;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        employerId = UUID.randomUUID();
+        insurerId = UUID.randomUUID();
+    }
+
+    private EALedgerService service(int detachAfterMonths) {
+        return new EALedgerService(ledgerRepository, meterRegistry, LAG_MS, RECHECK_MS, 2, detachAfterMonths);
+    }
+
+    private EATransaction reserve(UUID employer, String amount, String balanceAfter, Instant at) {
+        return new EATransaction(1L, employer, insurerId, UUID.randomUUID(), EATransactionType.RESERVE,
+                new BigDecimal(amount), new BigDecimal(balanceAfter), null, at);
+    }
+
+    private EALedgerSnapshot snapshot(UUID employer, Instant asOf, long count, String balanceAfter, String reserved) {
+        return new EALedgerSnapshot(employer, insurerId, asOf, new BigDecimal(balanceAfter), count,
+                BigDecimal.ZERO, BigDecimal.ZERO, new BigDecimal(reserved), BigDecimal.ZERO, BigDecimal.ZERO);
+    }
+
+    @Test
+    @DisplayName("position reads the latest snapshot and only the entries after it")
+    void positionAt_SnapshotPlusDelta() {
+        Instant snapshotAt = NOW.minusSeconds(3600);
+        when(ledgerRepository.findLatestSnapshot(employerId, insurerId, NOW))
+                .thenReturn(Optional.of(snapshot(employerId, snapshotAt, 10, "900.00", "100.00")));
+        when(ledgerRepository.findTransactionsBetween(employerId, insurerId, snapshotAt, NOW))
+                .thenReturn(List.of(reserve(employerId, "50.00", "850.00", NOW.minusSeconds(60))));
+
+        EALedgerSnapshot position = service(0).positionAt(employerId, insurerId, NOW).orElseThrow();
+
+        assertThat(position.transactionCount()).isEqualTo(11);
+        assertThat(position.balanceAfter()).isEqualByComparingTo("850.00");
+        assertThat(position.reserved()).isEqualByComparingTo("150.00");
+        assertThat(position.asOf()).isEqualTo(NOW);
+        verifyNoMoreInteractions(ledgerRepository);
+    }
+
+    @Test
+    @DisplayName("no position before the account's first entry")
+    void positionAt_NoEntries_Empty() {
+        when(ledgerRepository.findLatestSnapshot(employerId, insurerId, NOW)).thenReturn(Optional.empty());
+        when(ledgerRepository.findTransactionsBetween(employerId, insurerId, Instant.EPOCH, NOW)).thenReturn(List.of());
+
+        assertThat(service(0).positionAt(employerId, insurerId, NOW)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("positions inside detached months are refused")
+    void positionAt_BeforeAttachedMonths_Rejected() {
+        when(ledgerRepository.findLedgerMonths()).thenReturn(List.of(YearMonth.of(2026, 4), YearMonth.of(2026, 5)));
+
+        assertThatThrownBy(() -> service(6).positionAt(employerId, insurerId, Instant.parse("2026-03-31T23:59:59Z")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("archived");
+        verify(ledgerRepository, never()).findLatestSnapshot(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("history needs a range that ends after it starts")
+    void history_EmptyRange_Rejected() {
+        assertThatThrownBy(() -> service(0).history(employerId, insurerId, NOW, NOW, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("restates stale recent snapshots before writing new ones, both lagging behind now")
+    void snapshotAll_RestatesThenAdvances() {
+        Instant asOf = NOW.minusMillis(LAG_MS);
+        when(ledgerRepository.restateSnapshots(asOf.minusMillis(RECHECK_MS), asOf)).thenReturn(2);
+        when(ledgerRepository.advanceSnapshots(asOf)).thenReturn(5);
+
+        EALedgerService.SnapshotRun run = service(0).snapshotAll(NOW);
+
+        assertThat(run.written()).isEqualTo(5);
+        assertThat(run.restated()).isEqualTo(2);
+        InOrder order = inOrder(ledgerRepository);
+        order.verify(ledgerRepository).restateSnapshots(asOf.minusMillis(RECHECK_MS), asOf);
+        order.verify(ledgerRepository).advanceSnapshots(asOf);
+        assertThat(meterRegistry.counter("endorsement.ea.ledger.snapshot.restated").count()).isEqualTo(2);
+        assertThat(meterRegistry.counter("endorsement.ea.ledger.snapshot.written").count()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("opens the current and coming months that are missing")
+    void maintainPartitions_CreatesMissingMonths() {
+        when(ledgerRepository.findLedgerMonths()).thenReturn(List.of(YearMonth.of(2026, 9), YearMonth.of(2026, 10)));
+
+        EALedgerService.PartitionRun run = service(0).maintainPartitions(YearMonth.of(2026, 10));
+
+        assertThat(run.created()).isEqualTo(2);
+        assertThat(run.detached()).isZero();
+        verify(ledgerRepository).createLedgerMonth(YearMonth.of(2026, 11));
+        verify(ledgerRepository).createLedgerMonth(YearMonth.of(2026, 12));
+        verify(ledgerRepository, never()).detachLedgerMonth(any());
+    }
+
+    @Test
+    @DisplayName("detaches old months oldest first and stops at one snapshots do not cover")
+    void maintainPartitions_DetachesCoveredOldMonths() {
+        when(ledgerRepository.findLedgerMonths()).thenReturn(List.of(
+                YearMonth.of(2026, 1), YearMonth.of(2026, 2), YearMonth.of(2026, 3),
+                YearMonth.of(2026, 10), YearMonth.of(2026, 11), YearMonth.of(2026, 12)));
+        when(ledgerRepository.isCoveredBySnapshots(YearMonth.of(2026, 1))).thenReturn(true);
+        when(ledgerRepository.isCoveredBySnapshots(YearMonth.of(2026, 2))).thenReturn(false);
+
+        EALedgerService.PartitionRun run = service(6).maintainPartitions(YearMonth.of(2026, 10));
+
+        assertThat(run.detached()).isEqualTo(1);
+        verify(ledgerRepository).detachLedgerMonth(YearMonth.of(2026, 1));
+        verify(ledgerRepository, never()).detachLedgerMonth(YearMonth.of(2026, 2));
+        verify(ledgerRepository, never()).isCoveredBySnapshots(YearMonth.of(2026, 3));
+        assertThat(meterRegistry.counter("endorsement.ea.ledger.partitions", "action", "kept").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("closes an old month with a snapshot at its end before detaching it, for accounts quiet since")
+    void maintainPartitions_AccountQuietAfterMonth_ClosedThenDetached() {
+        YearMonth month = YearMonth.of(2026, 1);
+        when(ledgerRepository.findLedgerMonths()).thenReturn(List.of(
+                month, YearMonth.of(2026, 10), YearMonth.of(2026, 11), YearMonth.of(2026, 12)));
+        // One account had entries in January and none since, so only the closing snapshot covers it
+        AtomicBoolean closed = new AtomicBoolean();
+        when(ledgerRepository.closeLedgerMonth(month)).thenAnswer(invocation -> {
+            closed.set(true);
+            return 1;
+        });
+        when(ledgerRepository.isCoveredBySnapshots(month)).thenAnswer(invocation -> closed.get());
+
+        EALedgerService.PartitionRun run = service(6).maintainPartitions(YearMonth.of(2026, 10));
+
+        assertThat(run.detached()).isEqualTo(1);
+        InOrder order = inOrder(ledgerRepository);
+        order.verify(ledgerRepository).closeLedgerMonth(month);
+        order.verify(ledgerRepository).detachLedgerMonth(month);
+        assertThat(meterRegistry.counter("endorsement.ea.ledger.snapshot.written").count()).isEqualTo(1);
+    }
+}
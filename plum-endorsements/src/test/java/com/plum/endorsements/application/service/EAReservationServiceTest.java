@@ -0,0 +1,138 @@
+package com.plum.endorsements.application.service;
+
+import com.plum.endorsements.application.service.EAReservationService.Outcome;
+import com.plum.endorsements.application.service.EAReservationService.ReservationResult;
+import com.plum.endorsements.domain.model.EAAccount;
+import com.plum.endorsements.domain.model.EAAccountStripe;
+import com.plum.endorsements.domain.model.EATransaction;
+import com.plum.endorsements.domain.port.EAAccountRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EAReservationServiceTest {
+
+    @Mock
+    EAAccountRepository eaAccountRepository;
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    MeterRegistry meterRegistry;
+
+    private EAReservationService service;
+
+    private UUID employerId;
+    private UUID insurerId;
+    private UUID endorsementId;
+
+    @BeforeEach
+    void setUp() {
+        service = new EAReservationService(eaAccountRepository, meterRegistry, 4);
+        employerId = UUID.randomUUID();
+        insurerId = UUID.randomUUID();
+        endorsementId = UUID.randomUUID();
+    }
+
+    private EAAccount account(String balance) {
+        return EAAccount.builder()
+                .employerId(employerId)
+                .insurerId(insurerId)
+                .balance(new BigDecimal(balance))
+                .reserved(BigDecimal.ZERO)
+                .updatedAt(Instant.now())
+                .build();
+    }
+
+    private EAAccountStripe stripe(int number, String allocated, String reserved) {
+        return EAAccountStripe.builder()
+                .employerId(employerId)
+                .insurerId(insurerId)
+                .stripe(number)
+                .allocated(new BigDecimal(allocated))
+                .reserved(new BigDecimal(reserved))
+                .updatedAt(Instant.now())
+                .build();
+    }
+
+    @Test
+    void reserve_StripeHasHeadroom_ShouldNotLockAccount() {
+        when(eaAccountRepository.reserveOnAnyStripe(employerId, insurerId, new BigDecimal("100.00")))
+                .thenReturn(Optional.of(stripe(2, "250.00", "100.00")));
+        EAAccount consolidated = account("1000.00");
+        consolidated.setStripedReserved(new BigDecimal("100.00"));
+        when(eaAccountRepository.findByEmployerIdAndInsurerId(employerId, insurerId))
+                .thenReturn(Optional.of(consolidated));
+
+        ReservationResult result = service.reserve(employerId, insurerId, endorsementId, new BigDecimal("100.00"));
+
+        assertThat(result.outcome()).isEqualTo(Outcome.RESERVED);
+        assertThat(result.availableBalance()).isEqualByComparingTo("900.00");
+        verify(eaAccountRepository, never()).findByEmployerIdAndInsurerIdForUpdate(any(), any());
+        verify(eaAccountRepository, never()).saveStripes(anyList());
+        verify(eaAccountRepository).saveTransaction(argThat(tx ->
+                tx.type() == EATransaction.EATransactionType.RESERVE
+                        && tx.endorsementId().equals(endorsementId)
+                        && tx.balanceAfter().compareTo(new BigDecimal("900.00")) == 0
+                        && tx.description().contains("stripe 2")));
+    }
+
+    @Test
+    void reserve_NoStripeHasHeadroom_ShouldLockAndRebalance() {
+        when(eaAccountRepository.reserveOnAnyStripe(any(), any(), any())).thenReturn(Optional.empty());
+        when(eaAccountRepository.findByEmployerIdAndInsurerIdForUpdate(employerId, insurerId))
+                .thenReturn(Optional.of(account("1000.00")));
+        when(eaAccountRepository.findStripesForUpdate(employerId, insurerId))
+                .thenReturn(List.of(stripe(0, "100.00", "100.00"), stripe(1, "100.00", "0.00")));
+
+        ReservationResult result = service.reserve(employerId, insurerId, endorsementId, new BigDecimal("600.00"));
+
+        assertThat(result.outcome()).isEqualTo(Outcome.RESERVED);
+        assertThat(result.availableBalance()).isEqualByComparingTo("300.00");
+        verify(eaAccountRepository).saveStripes(argThat(stripes -> stripes.size() == 4
+                && stripes.stream().map(EAAccountStripe::getAllocated)
+                        .reduce(BigDecimal.ZERO, BigDecimal::add).compareTo(new BigDecimal("1000.00")) == 0));
+        verify(eaAccountRepository).saveTransaction(any(EATransaction.class));
+    }
+
+    @Test
+    void reserve_ConsolidatedBalanceTooLow_ShouldReportInsufficient() {
+        when(eaAccountRepository.reserveOnAnyStripe(any(), any(), any())).thenReturn(Optional.empty());
+        when(eaAccountRepository.findByEmployerIdAndInsurerIdForUpdate(employerId, insurerId))
+                .thenReturn(Optional.of(account("1000.00")));
+        when(eaAccountRepository.findStripesForUpdate(employerId, insurerId))
+                .thenReturn(List.of(stripe(0, "800.00", "800.00")));
+
+        ReservationResult result = service.reserve(employerId, insurerId, endorsementId, new BigDecimal("300.00"));
+
+        assertThat(result.outcome()).isEqualTo(Outcome.INSUFFICIENT);
+        assertThat(result.availableBalance()).isEqualByComparingTo("200.00");
+        verify(eaAccountRepository, never()).saveStripes(anyList());
+        verify(eaAccountRepository, never()).saveTransaction(any(EATransaction.class));
+    }
+
+    @Test
+    void reserve_NoAccount_ShouldReportNoAccount() {
+        when(eaAccountRepository.reserveOnAnyStripe(any(), any(), any())).thenReturn(Optional.empty());
+        when(eaAccountRepository.findByEmployerIdAndInsurerIdForUpdate(employerId, insurerId))
+                .thenReturn(Optional.empty());
+
+        ReservationResult result = service.reserve(employerId, insurerId, endorsementId, new BigDecimal("300.00"));
+
+        assertThat(result.outcome()).isEqualTo(Outcome.NO_ACCOUNT);
+        verify(eaAccountRepository, never()).saveTransaction(any(EATransaction.class));
+    }
+}
@@ -14,6 +14,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -24,7 +25,7 @@ import static org.mockito.Mockito.when;
 @DisplayName("EmployerHealthScoreService")
 class EmployerHealthScoreServiceTest {
 
-    @Mock private EndorsementRepository endorsementRepository;
+    @Mock private EndorsementStatusCountRepository statusCountRepository;
     @Mock private EAAccountRepository eaAccountRepository;
     @Mock private AnomalyDetectionRepository anomalyDetectionRepository;
     @Mock private ReconciliationRepository reconciliationRepository;
@@ -40,16 +41,17 @@ class EmployerHealthScoreServiceTest {
         employerId = UUID.randomUUID();
     }
 
+    private static EndorsementStatusCounts counts(long confirmed, long rejected, long failed) {
+        return new EndorsementStatusCounts(Map.of(
+                "CONFIRMED", confirmed, "REJECTED", rejected, "FAILED_PERMANENT", failed));
+    }
+
     @Test
     @DisplayName("calculateHealthScore returns perfect score when all indicators are healthy")
     void calculateHealthScore_AllHealthy_ReturnsPerfect() {
         // All confirmed, no rejected/failed
-        when(endorsementRepository.countByEmployerIdAndStatus(eq(employerId), eq(EndorsementStatus.CONFIRMED)))
-                .thenReturn(100L);
-        when(endorsementRepository.countByEmployerIdAndStatus(eq(employerId), eq(EndorsementStatus.REJECTED)))
-                .thenReturn(0L);
-        when(endorsementRepository.countByEmployerIdAndStatus(eq(employerId), eq(EndorsementStatus.FAILED_PERMANENT)))
-                .thenReturn(0L);
+        when(statusCountRepository.countByEmployerId(employerId))
+                .thenReturn(counts(100L, 0L, 0L));
 
         // No anomalies
         when(anomalyDetectionRepository.countByEmployerIdAndFlaggedAtAfter(eq(employerId), any()))
@@ -71,12 +73,8 @@ class EmployerHealthScoreServiceTest {
     @DisplayName("calculateHealthScore returns HIGH risk when success rate is low and anomalies exist")
     void calculateHealthScore_LowSuccessHighAnomalies_ReturnsHighRisk() {
         // 50% confirmed, 50% rejected
-        when(endorsementRepository.countByEmployerIdAndStatus(eq(employerId), eq(EndorsementStatus.CONFIRMED)))
-                .thenReturn(50L);
-        when(endorsementRepository.countByEmployerIdAndStatus(eq(employerId), eq(EndorsementStatus.REJECTED)))
-                .thenReturn(50L);
-        when(endorsementRepository.countByEmployerIdAndStatus(eq(employerId), eq(EndorsementStatus.FAILED_PERMANENT)))
-                .thenReturn(0L);
+        when(statusCountRepository.countByEmployerId(employerId))
+                .thenReturn(counts(50L, 50L, 0L));
 
         // Many anomalies
         when(anomalyDetectionRepository.countByEmployerIdAndFlaggedAtAfter(eq(employerId), any()))
@@ -97,8 +95,8 @@ class EmployerHealthScoreServiceTest {
     @Test
     @DisplayName("calculateHealthScore returns 100% success rate when no endorsements exist")
     void calculateHealthScore_NoEndorsements_Returns100() {
-        when(endorsementRepository.countByEmployerIdAndStatus(eq(employerId), any()))
-                .thenReturn(0L);
+        when(statusCountRepository.countByEmployerId(employerId))
+                .thenReturn(EndorsementStatusCounts.EMPTY);
         when(anomalyDetectionRepository.countByEmployerIdAndFlaggedAtAfter(eq(employerId), any()))
                 .thenReturn(0L);
         when(eaAccountRepository.findByEmployerId(employerId))
@@ -113,12 +111,8 @@ class EmployerHealthScoreServiceTest {
     @DisplayName("calculateHealthScore returns MEDIUM risk for moderate issues")
     void calculateHealthScore_ModerateIssues_ReturnsMediumRisk() {
         // 80% success rate
-        when(endorsementRepository.countByEmployerIdAndStatus(eq(employerId), eq(EndorsementStatus.CONFIRMED)))
-                .thenReturn(80L);
-        when(endorsementRepository.countByEmployerIdAndStatus(eq(employerId), eq(EndorsementStatus.REJECTED)))
-                .thenReturn(20L);
-        when(endorsementRepository.countByEmployerIdAndStatus(eq(employerId), eq(EndorsementStatus.FAILED_PERMANENT)))
-                .thenReturn(0L);
+        when(statusCountRepository.countByEmployerId(employerId))
+                .thenReturn(counts(80L, 20L, 0L));
 
         // 3 anomalies → 60 anomaly score
         when(anomalyDetectionRepository.countByEmployerIdAndFlaggedAtAfter(eq(employerId), any()))
@@ -139,8 +133,8 @@ class EmployerHealthScoreServiceTest {
     @Test
     @DisplayName("calculateHealthScore includes all component scores")
     void calculateHealthScore_IncludesAllComponents() {
-        when(endorsementRepository.countByEmployerIdAndStatus(eq(employerId), any()))
-                .thenReturn(0L);
+        when(statusCountRepository.countByEmployerId(employerId))
+                .thenReturn(EndorsementStatusCounts.EMPTY);
         when(anomalyDetectionRepository.countByEmployerIdAndFlaggedAtAfter(eq(employerId), any()))
                 .thenReturn(0L);
         when(eaAccountRepository.findByEmployerId(employerId))
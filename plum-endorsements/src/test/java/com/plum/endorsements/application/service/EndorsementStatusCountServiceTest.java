@@ -0,0 +1,48 @@
+package com.plum.endorsements.application.service;
+
+import com.plum.endorsements.domain.port.EndorsementStatusCountRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("EndorsementStatusCountService")
+class EndorsementStatusCountServiceTest {
+
+    @Mock
+    private EndorsementStatusCountRepository statusCountRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private EndorsementStatusCountService service;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        service = new EndorsementStatusCountService(statusCountRepository, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("compact folds pending deltas and counts them")
+    void compact_CountsFoldedDeltas() {
+        when(statusCountRepository.compact()).thenReturn(40);
+
+        assertThat(service.compact()).isEqualTo(40);
+        assertThat(meterRegistry.counter("endorsement.status_counts.compacted").count()).isEqualTo(40.0);
+    }
+
+    @Test
+    @DisplayName("reconcile rebuilds the counts and reports drift")
+    void reconcile_ReportsDrift() {
+        when(statusCountRepository.rebuild()).thenReturn(3);
+
+        assertThat(service.reconcile()).isEqualTo(3);
+        assertThat(meterRegistry.counter("endorsement.status_counts.drift").count()).isEqualTo(3.0);
+    }
+}
@@ -0,0 +1,174 @@
+package com.plum.endorsements.application.service;
+
+import com.plum.endorsements.domain.model.Endorsement;
+import com.plum.endorsements.domain.model.EndorsementEvent;
+import com.plum.endorsements.domain.model.EndorsementStatus;
+import com.plum.endorsements.domain.model.EndorsementTransition;
+import com.plum.endorsements.domain.port.EndorsementRepository;
+import com.plum.endorsements.domain.port.EventPublisher;
+import com.plum.endorsements.domain.port.StatusTransitionListener;
+import com.plum.endorsements.domain.service.EndorsementStateMachine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("EndorsementTransitionService")
+class EndorsementTransitionServiceTest {
+
+    @Mock
+    private EndorsementRepository endorsementRepository;
+
+    @Mock
+    private EventPublisher eventPublisher;
+
+    @Mock
+    private StatusTransitionListener listener;
+
+    private SimpleMeterRegistry meterRegistry;
+    private EndorsementTransitionService service;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        service = new EndorsementTransitionService(endorsementRepository,
+                new EndorsementStateMachine(List.of(listener)), eventPublisher, meterRegistry);
+    }
+
+    private EndorsementTransition moved(EndorsementStatus from, EndorsementStatus to, Instant enteredFromAt) {
+        Endorsement endorsement = Endorsement.builder()
+                .id(UUID.randomUUID())
+                .employerId(UUID.randomUUID())
+                .insurerId(UUID.randomUUID())
+                .status(to)
+                .insurerReference("INS-REF")
+                .updatedAt(Instant.now())
+                .build();
+        return new EndorsementTransition(endorsement, from, enteredFromAt);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<EndorsementEvent> publishedEvents() {
+        ArgumentCaptor<List<EndorsementEvent>> events = ArgumentCaptor.forClass(List.class);
+        verify(eventPublisher).publishAll(events.capture());
+        return events.getValue();
+    }
+
+    @Test
+    @DisplayName("rejects a transition the lifecycle does not allow before touching the repository")
+    void transitionAll_InvalidTransition_Throws() {
+        assertThatThrownBy(() -> service.transitionAll(
+                List.of(UUID.randomUUID()), EndorsementStatus.QUEUED_FOR_BATCH, EndorsementStatus.CONFIRMED))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("QUEUED_FOR_BATCH -> CONFIRMED");
+
+        verifyNoInteractions(endorsementRepository, eventPublisher, listener);
+    }
+
+    @Test
+    @DisplayName("does nothing for an empty set")
+    void transitionAll_NoIds_NoOp() {
+        assertThat(service.transitionAll(List.of(),
+                EndorsementStatus.INSURER_PROCESSING, EndorsementStatus.CONFIRMED)).isEmpty();
+
+        verifyNoInteractions(endorsementRepository, eventPublisher, listener);
+    }
+
+    @Test
+    @DisplayName("notifies listeners and publishes one event per transitioned endorsement")
+    void transitionAll_NotifiesAndPublishesForMovedRows() {
+        Instant enteredAt = Instant.now().minus(2, ChronoUnit.HOURS);
+        EndorsementTransition first = moved(
+                EndorsementStatus.INSURER_PROCESSING, EndorsementStatus.CONFIRMED, enteredAt);
+        EndorsementTransition second = moved(
+                EndorsementStatus.INSURER_PROCESSING, EndorsementStatus.CONFIRMED, enteredAt);
+        List<UUID> ids = List.of(first.endorsement().getId(), second.endorsement().getId());
+        when(endorsementRepository.transitionAll(ids,
+                EndorsementStatus.INSURER_PROCESSING, EndorsementStatus.CONFIRMED, null))
+                .thenReturn(List.of(first, second));
+
+        List<EndorsementTransition> result = service.transitionAll(
+                ids, EndorsementStatus.INSURER_PROCESSING, EndorsementStatus.CONFIRMED);
+
+        assertThat(result).containsExactly(first, second);
+        verify(listener).onTransition(first.endorsement(), EndorsementStatus.INSURER_PROCESSING, enteredAt);
+        verify(listener).onTransition(second.endorsement(), EndorsementStatus.INSURER_PROCESSING, enteredAt);
+        assertThat(publishedEvents())
+                .hasSize(2)
+                .allSatisfy(event -> assertThat(event).isInstanceOf(EndorsementEvent.Confirmed.class))
+                .extracting(EndorsementEvent::endorsementId)
+                .containsExactlyElementsOf(ids);
+        assertThat(meterRegistry.counter("endorsement.state.transition",
+                "from", "INSURER_PROCESSING", "to", "CONFIRMED").count()).isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("counts endorsements no longer in the expected status as skipped")
+    void transitionAll_SomeRowsMovedElsewhere_CountsSkipped() {
+        EndorsementTransition movedRow = moved(
+                EndorsementStatus.BATCH_SUBMITTED, EndorsementStatus.INSURER_PROCESSING, Instant.now());
+        List<UUID> ids = List.of(movedRow.endorsement().getId(), UUID.randomUUID(), UUID.randomUUID());
+        when(endorsementRepository.transitionAll(any(), any(), any(), isNull())).thenReturn(List.of(movedRow));
+
+        List<EndorsementTransition> result = service.transitionAll(
+                ids, EndorsementStatus.BATCH_SUBMITTED, EndorsementStatus.INSURER_PROCESSING);
+
+        assertThat(result).containsExactly(movedRow);
+        assertThat(publishedEvents()).hasSize(1);
+        assertThat(meterRegistry.counter("endorsement.state.transition.skipped",
+                "from", "BATCH_SUBMITTED", "to", "INSURER_PROCESSING").count()).isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("submitToBatch assigns the batch and publishes BatchSubmitted with its id")
+    void submitToBatch_AssignsBatchAndPublishesBatchSubmitted() {
+        UUID batchId = UUID.randomUUID();
+        EndorsementTransition row = moved(
+                EndorsementStatus.QUEUED_FOR_BATCH, EndorsementStatus.BATCH_SUBMITTED, Instant.now());
+        row.endorsement().setBatchId(batchId);
+        List<UUID> ids = List.of(row.endorsement().getId());
+        when(endorsementRepository.transitionAll(ids,
+                EndorsementStatus.QUEUED_FOR_BATCH, EndorsementStatus.BATCH_SUBMITTED, batchId))
+                .thenReturn(List.of(row));
+
+        service.submitToBatch(ids, batchId);
+
+        assertThat(publishedEvents()).singleElement()
+                .isInstanceOfSatisfying(EndorsementEvent.BatchSubmitted.class,
+                        event -> assertThat(event.batchId()).isEqualTo(batchId));
+    }
+
+    @Test
+    @DisplayName("every status an endorsement can enter maps to an event")
+    void eventFor_CoversEveryReachableStatus() {
+        Endorsement endorsement = Endorsement.builder()
+                .id(UUID.randomUUID())
+                .employerId(UUID.randomUUID())
+                .updatedAt(Instant.now())
+                .build();
+
+        for (EndorsementStatus to : EndorsementStatus.values()) {
+            if (to == EndorsementStatus.CREATED) {
+                continue;
+            }
+            assertThat(EndorsementTransitionService.eventFor(endorsement, to).endorsementId())
+                    .isEqualTo(endorsement.getId());
+        }
+        assertThat(EndorsementTransitionService.eventFor(endorsement, EndorsementStatus.RETRY_PENDING))
+                .isInstanceOf(EndorsementEvent.RetryScheduled.class);
+    }
+}
@@ -0,0 +1,158 @@
+package com.plum.endorsements.application.service;
+
+import com.plum.endorsements.domain.model.Endorsement;
+import com.plum.endorsements.domain.model.EndorsementStatus;
+import com.plum.endorsements.domain.model.ProcessPathAggregate;
+import com.plum.endorsements.domain.model.StatusTransition;
+import com.plum.endorsements.domain.model.TransitionAggregate;
+import com.plum.endorsements.domain.port.ProcessMiningAggregateRepository;
+import com.plum.endorsements.domain.service.EndorsementStateMachine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProcessMiningRecorderTest {
+
+    @Mock
+    ProcessMiningAggregateRepository aggregateRepository;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ProcessMiningRecorder recorder;
+    private EndorsementStateMachine stateMachine;
+    private UUID insurerId;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        recorder = new ProcessMiningRecorder(aggregateRepository, transactionManager, meterRegistry);
+        stateMachine = new EndorsementStateMachine(List.of(recorder));
+        insurerId = UUID.randomUUID();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    private Endorsement endorsementAt(EndorsementStatus status, Instant enteredAt) {
+        return Endorsement.builder()
+                .id(UUID.randomUUID())
+                .insurerId(insurerId)
+                .status(status)
+                .updatedAt(enteredAt)
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<TransitionAggregate> flushedTransitions(ArgumentCaptor<List<ProcessPathAggregate>> paths) {
+        ArgumentCaptor<List<TransitionAggregate>> transitions = ArgumentCaptor.forClass(List.class);
+        verify(aggregateRepository).merge(transitions.capture(), paths.capture());
+        return transitions.getValue();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_ShouldMergeOneDeltaPerTransitionWithDurationsAndCompletions() {
+        Instant anHourAgo = Instant.now().minus(1, ChronoUnit.HOURS);
+        Endorsement first = endorsementAt(EndorsementStatus.INSURER_PROCESSING, anHourAgo);
+        Endorsement second = endorsementAt(EndorsementStatus.INSURER_PROCESSING, anHourAgo);
+        stateMachine.transition(first, EndorsementStatus.CONFIRMED);
+        stateMachine.transition(second, EndorsementStatus.REJECTED);
+
+        recorder.flush();
+
+        ArgumentCaptor<List<ProcessPathAggregate>> paths = ArgumentCaptor.forClass(List.class);
+        List<TransitionAggregate> transitions = flushedTransitions(paths);
+        assertThat(transitions).extracting(TransitionAggregate::toStatus)
+                .containsExactly("CONFIRMED", "REJECTED");
+        assertThat(transitions.get(0).sampleCount()).isEqualTo(1);
+        assertThat(transitions.get(0).meanMs()).isBetween(3_590_000.0, 3_610_000.0);
+        assertThat(paths.getValue()).singleElement().satisfies(path -> {
+            assertThat(path.completedCount()).isEqualTo(1);
+            assertThat(path.happyCount()).isEqualTo(1);
+        });
+        assertThat(meterRegistry.counter("endorsement.process.aggregates.flushed", "result", "success").count())
+                .isEqualTo(2.0);
+    }
+
+    @Test
+    void flush_NothingRecorded_ShouldNotTouchRepository() {
+        recorder.flush();
+
+        verifyNoInteractions(aggregateRepository, transactionManager);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_MergeFails_ShouldKeepDeltasForNextFlush() {
+        stateMachine.transition(endorsementAt(EndorsementStatus.QUEUED_FOR_BATCH, Instant.now()),
+                EndorsementStatus.BATCH_SUBMITTED);
+        doThrow(new RuntimeException("db down")).doNothing()
+                .when(aggregateRepository).merge(anyList(), anyList());
+
+        recorder.flush();
+        recorder.flush();
+
+        ArgumentCaptor<List<TransitionAggregate>> transitions = ArgumentCaptor.forClass(List.class);
+        verify(aggregateRepository, times(2)).merge(transitions.capture(), anyList());
+        assertThat(transitions.getAllValues().get(1)).singleElement()
+                .satisfies(delta -> assertThat(delta.sampleCount()).isEqualTo(1));
+        assertThat(meterRegistry.counter("endorsement.process.aggregates.flushed", "result", "failure").count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void onTransition_InTransaction_ShouldBufferOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        stateMachine.transition(endorsementAt(EndorsementStatus.QUEUED_FOR_BATCH, Instant.now()),
+                EndorsementStatus.BATCH_SUBMITTED);
+
+        recorder.flush();
+        verifyNoInteractions(aggregateRepository);
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        recorder.flush();
+
+        verify(aggregateRepository).merge(argThat(list -> list.size() == 1), anyList());
+    }
+
+    @Test
+    void toTransition_RetriedEndorsementConfirmed_ShouldNotCountAsHappy() {
+        Endorsement retried = endorsementAt(EndorsementStatus.CONFIRMED, Instant.now());
+        retried.setRetryCount(1);
+
+        StatusTransition transition = ProcessMiningRecorder.toTransition(
+                retried, EndorsementStatus.INSURER_PROCESSING, null);
+
+        assertThat(transition.happyCompletion()).isFalse();
+        assertThat(transition.durationMs()).isZero();
+    }
+}
@@ -4,21 +4,18 @@ import com.plum.endorsements.api.dto.StpRateResponse;
 import com.plum.endorsements.api.dto.StpRateTrendResponse;
 import com.plum.endorsements.domain.model.*;
 import com.plum.endorsements.domain.port.*;
-import com.plum.endorsements.infrastructure.persistence.entity.EndorsementEventEntity;
-import com.plum.endorsements.infrastructure.persistence.entity.EndorsementEntity;
+import com.plum.endorsements.domain.port.ProcessMiningAggregateRepository.LoggedTransition;
 import com.plum.endorsements.infrastructure.persistence.entity.InsurerConfigurationEntity;
-import com.plum.endorsements.infrastructure.persistence.repository.SpringDataEndorsementEventRepository;
-import com.plum.endorsements.infrastructure.persistence.repository.SpringDataEndorsementRepository;
 import com.plum.endorsements.infrastructure.persistence.repository.SpringDataInsurerConfigurationRepository;
-import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.Answers;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
 import java.time.Instant;
@@ -33,16 +30,15 @@ import static org.mockito.Mockito.*;
 @DisplayName("ProcessMiningService")
 class ProcessMiningServiceTest {
 
-    @Mock private ProcessMiningPort miningEngine;
     @Mock private ProcessMiningRepository miningRepository;
+    @Mock private ProcessMiningAggregateRepository aggregateRepository;
+    @Mock private ProcessMiningRecorder recorder;
     @Mock private StpRateSnapshotRepository stpRateSnapshotRepository;
-    @Mock private SpringDataEndorsementEventRepository eventRepository;
-    @Mock private SpringDataEndorsementRepository endorsementRepository;
+    @Mock private EndorsementStatusCountRepository statusCountRepository;
     @Mock private SpringDataInsurerConfigurationRepository insurerConfigRepo;
-    @Mock private EventPublisher eventPublisher;
-    @Mock(answer = Answers.RETURNS_DEEP_STUBS) private MeterRegistry meterRegistry;
+    @Mock private PlatformTransactionManager transactionManager;
 
-    @InjectMocks
+    private SimpleMeterRegistry meterRegistry;
     private ProcessMiningService service;
 
     private UUID insurerId;
@@ -50,102 +46,139 @@ class ProcessMiningServiceTest {
     @BeforeEach
     void setUp() {
         insurerId = UUID.randomUUID();
+        meterRegistry = new SimpleMeterRegistry();
+        service = new ProcessMiningService(miningRepository, aggregateRepository, recorder,
+                stpRateSnapshotRepository, statusCountRepository, insurerConfigRepo,
+                transactionManager, meterRegistry, 2);
+    }
+
+    private static EndorsementStatusCounts counts(long confirmed, long rejected, long failed, long failedPermanent) {
+        return new EndorsementStatusCounts(Map.of("CONFIRMED", confirmed, "REJECTED", rejected,
+                "FAILED", failed, "FAILED_PERMANENT", failedPermanent));
+    }
+
+    private TransitionAggregate transition(UUID insurer, String from, String to,
+                                           long count, long avgMs, long... tailMs) {
+        long[] buckets = new long[TransitionAggregate.BUCKET_COUNT];
+        buckets[TransitionAggregate.bucketOf(avgMs)] += count - tailMs.length;
+        long max = avgMs;
+        for (long tail : tailMs) {
+            buckets[TransitionAggregate.bucketOf(tail)]++;
+            max = Math.max(max, tail);
+        }
+        return new TransitionAggregate(insurer, from, to, count, avgMs, 0.0, max, buckets, Instant.now());
+    }
+
+    private ProcessPathAggregate path(UUID insurer, long completed, long happy) {
+        return new ProcessPathAggregate(insurer, completed, happy, Instant.now());
+    }
+
+    private static StatusTransition logged(UUID insurer, String from, String to, int minutes, Boolean happy) {
+        return new StatusTransition(insurer, from, to, minutes * 60_000L, happy);
     }
 
     @Test
-    @DisplayName("analyzeInsurer fetches events, processes, and saves metrics")
-    void analyzeInsurer_FetchesAndSavesMetrics() {
-        UUID endorsementId = UUID.randomUUID();
-
-        EndorsementEventEntity eventEntity = new EndorsementEventEntity();
-        eventEntity.setEndorsementId(endorsementId);
-        eventEntity.setEventType("ENDORSEMENT_CREATED");
-        eventEntity.setCreatedAt(Instant.now());
-
-        EndorsementEntity endEntity = new EndorsementEntity();
-        endEntity.setId(endorsementId);
-        endEntity.setInsurerId(insurerId);
-
-        when(eventRepository.findAll()).thenReturn(List.of(eventEntity));
-        when(endorsementRepository.findById(endorsementId)).thenReturn(Optional.of(endEntity));
-
-        List<ProcessMiningMetric> metrics = List.of(
-                ProcessMiningMetric.builder()
-                        .insurerId(insurerId)
-                        .fromStatus("CREATED")
-                        .toStatus("VALIDATED")
-                        .avgDurationMs(5000L)
-                        .p95DurationMs(10000L)
-                        .p99DurationMs(15000L)
-                        .sampleCount(50)
-                        .happyPathPct(new BigDecimal("85.00"))
-                        .calculatedAt(Instant.now())
-                        .build()
-        );
+    @DisplayName("foldEventLog merges logged transitions chunk by chunk and advances the watermark")
+    @SuppressWarnings("unchecked")
+    void foldEventLog_MergesChunksAndAdvancesWatermark() {
+        when(aggregateRepository.lockEventLogWatermark()).thenReturn(0L, 11L);
+        when(aggregateRepository.findLoggedTransitionsAfter(anyLong(), eq(2))).thenReturn(
+                List.of(new LoggedTransition(10, logged(insurerId, "QUEUED_FOR_BATCH", "BATCH_SUBMITTED", 10, null)),
+                        new LoggedTransition(11, logged(insurerId, "QUEUED_FOR_BATCH", "BATCH_SUBMITTED", 20, null))),
+                List.of(new LoggedTransition(12, logged(insurerId, "BATCH_SUBMITTED", "CONFIRMED", 60, true))));
+
+        int folded = service.foldEventLog();
+
+        assertThat(folded).isEqualTo(3);
+        ArgumentCaptor<List<TransitionAggregate>> transitions = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<List<ProcessPathAggregate>> paths = ArgumentCaptor.forClass(List.class);
+        verify(aggregateRepository, times(2)).merge(transitions.capture(), paths.capture());
+        assertThat(transitions.getAllValues().get(0)).singleElement().satisfies(delta -> {
+            assertThat(delta.sampleCount()).isEqualTo(2);
+            assertThat(delta.meanMs()).isEqualTo(900_000.0);
+            assertThat(delta.maxMs()).isEqualTo(1_200_000L);
+        });
+        assertThat(paths.getAllValues().get(0)).isEmpty();
+        assertThat(paths.getAllValues().get(1)).singleElement()
+                .satisfies(delta -> assertThat(delta.happyCount()).isEqualTo(1));
+        verify(aggregateRepository).advanceEventLogWatermark(11L);
+        verify(aggregateRepository).advanceEventLogWatermark(12L);
+    }
 
-        when(miningEngine.analyzeWorkflow(anyList(), eq(insurerId))).thenReturn(metrics);
-        when(miningRepository.saveAll(metrics)).thenReturn(metrics);
+    @Test
+    @DisplayName("analyze flushes buffered transitions, folds the log and snapshots")
+    void analyze_FlushesFoldsAndSnapshots() {
+        when(aggregateRepository.lockEventLogWatermark()).thenReturn(0L);
+        when(aggregateRepository.findLoggedTransitionsAfter(0L, 2)).thenReturn(List.of());
+        when(aggregateRepository.findAllTransitions()).thenReturn(List.of());
+
+        service.analyze();
+
+        var order = inOrder(recorder, aggregateRepository);
+        order.verify(recorder).flush();
+        order.verify(aggregateRepository).lockEventLogWatermark();
+        order.verify(aggregateRepository).findAllTransitions();
+    }
 
-        service.analyzeInsurer(insurerId);
+    @Test
+    @DisplayName("snapshotAggregates replaces each insurer's metrics and publishes gauges")
+    void snapshotAggregates_ReplacesMetricsAndPublishesGauges() {
+        when(aggregateRepository.findAllPaths()).thenReturn(List.of(path(insurerId, 4, 3)));
+        when(aggregateRepository.findAllTransitions()).thenReturn(List.of(
+                transition(insurerId, "BATCH_SUBMITTED", "CONFIRMED", 4, 3_600_000L),
+                transition(insurerId, "QUEUED_FOR_BATCH", "BATCH_SUBMITTED", 4, 1_800_000L)));
+
+        service.snapshotAggregates();
 
         verify(miningRepository).deleteByInsurerId(insurerId);
-        verify(miningRepository).saveAll(metrics);
+        verify(miningRepository).saveAll(argThat(metrics -> metrics.size() == 2
+                && metrics.get(0).getHappyPathPct().compareTo(new BigDecimal("75.00")) == 0));
+        assertThat(meterRegistry.get("endorsement.process.stp_rate")
+                .tag("insurerId", insurerId.toString()).gauge().value()).isEqualTo(75.0);
+        assertThat(meterRegistry.get("endorsement.process.avg_lifecycle_hours")
+                .tag("insurerId", insurerId.toString()).gauge().value()).isEqualTo(1.5);
+        verifyNoInteractions(statusCountRepository);
     }
 
     @Test
-    @DisplayName("getMetrics returns metrics for given insurer")
-    void getMetrics_ReturnsMetricsForInsurer() {
-        List<ProcessMiningMetric> expected = List.of(
-                ProcessMiningMetric.builder()
-                        .insurerId(insurerId)
-                        .fromStatus("CREATED")
-                        .toStatus("VALIDATED")
-                        .avgDurationMs(3000L)
-                        .sampleCount(100)
-                        .build()
-        );
-
-        when(miningRepository.findByInsurerId(insurerId)).thenReturn(expected);
+    @DisplayName("getMetrics serves one metric per stored transition aggregate")
+    void getMetrics_ReturnsMetricsFromAggregates() {
+        when(aggregateRepository.findTransitionsByInsurerId(insurerId)).thenReturn(List.of(
+                transition(insurerId, "CREATED", "VALIDATED", 100, 3000L)));
+        when(aggregateRepository.findPathByInsurerId(insurerId)).thenReturn(Optional.of(path(insurerId, 10, 9)));
 
         List<ProcessMiningMetric> result = service.getMetrics(insurerId);
 
-        assertThat(result).hasSize(1);
-        assertThat(result.get(0).getFromStatus()).isEqualTo("CREATED");
-        assertThat(result.get(0).getSampleCount()).isEqualTo(100);
+        assertThat(result).singleElement().satisfies(metric -> {
+            assertThat(metric.getFromStatus()).isEqualTo("CREATED");
+            assertThat(metric.getSampleCount()).isEqualTo(100);
+            assertThat(metric.getAvgDurationMs()).isEqualTo(3000L);
+            assertThat(metric.getP95DurationMs()).isEqualTo(3000L);
+            assertThat(metric.getHappyPathPct()).isEqualByComparingTo("90.00");
+        });
+        verifyNoInteractions(miningRepository, statusCountRepository);
     }
 
     @Test
     @DisplayName("getMetrics with null insurerId returns all metrics from all insurers")
     void getMetrics_NullInsurerId_ReturnsAllMetrics() {
         UUID insurerId2 = UUID.randomUUID();
-
-        InsurerConfigurationEntity config1 = new InsurerConfigurationEntity();
-        config1.setInsurerId(insurerId);
-        InsurerConfigurationEntity config2 = new InsurerConfigurationEntity();
-        config2.setInsurerId(insurerId2);
-
-        when(insurerConfigRepo.findAll()).thenReturn(List.of(config1, config2));
-        when(miningRepository.findByInsurerId(insurerId)).thenReturn(List.of(
-                ProcessMiningMetric.builder().insurerId(insurerId).fromStatus("A").toStatus("B").build()
-        ));
-        when(miningRepository.findByInsurerId(insurerId2)).thenReturn(List.of(
-                ProcessMiningMetric.builder().insurerId(insurerId2).fromStatus("C").toStatus("D").build()
-        ));
+        when(aggregateRepository.findAllPaths()).thenReturn(List.of());
+        when(aggregateRepository.findAllTransitions()).thenReturn(List.of(
+                transition(insurerId, "A", "B", 1, 1000L),
+                transition(insurerId2, "C", "D", 1, 1000L)));
 
         List<ProcessMiningMetric> result = service.getMetrics(null);
 
-        assertThat(result).hasSize(2);
+        assertThat(result).extracting(ProcessMiningMetric::getInsurerId).containsExactly(insurerId, insurerId2);
+        assertThat(result).extracting(ProcessMiningMetric::getHappyPathPct).containsOnlyNulls();
     }
 
     @Test
     @DisplayName("getStpRate returns STP rate for specific insurer")
     void getStpRate_SpecificInsurer_ReturnsRate() {
-        ProcessMiningMetric metric = ProcessMiningMetric.builder()
-                .insurerId(insurerId)
-                .happyPathPct(new BigDecimal("92.50"))
-                .build();
-
-        when(miningRepository.findByInsurerId(insurerId)).thenReturn(List.of(metric));
+        when(aggregateRepository.findPathByInsurerId(insurerId)).thenReturn(Optional.of(path(insurerId, 200, 185)));
+        when(statusCountRepository.countByInsurerId(insurerId)).thenReturn(counts(185, 15, 0, 0));
 
         StpRateResponse response = service.getStpRate(insurerId);
 
@@ -153,12 +186,15 @@ class ProcessMiningServiceTest {
         assertThat(response.perInsurerStpRate()).containsKey(insurerId);
         assertThat(response.perInsurerStpRate().get(insurerId))
                 .isEqualByComparingTo(new BigDecimal("92.50"));
+        assertThat(response.totalProcessed()).isEqualTo(200);
+        assertThat(response.successfulCount()).isEqualTo(185);
     }
 
     @Test
     @DisplayName("getStpRate returns zero when no metrics exist")
     void getStpRate_NoMetrics_ReturnsZero() {
-        when(miningRepository.findByInsurerId(insurerId)).thenReturn(List.of());
+        when(aggregateRepository.findPathByInsurerId(insurerId)).thenReturn(Optional.empty());
+        when(statusCountRepository.countByInsurerId(insurerId)).thenReturn(EndorsementStatusCounts.EMPTY);
 
         StpRateResponse response = service.getStpRate(insurerId);
 
@@ -167,49 +203,6 @@ class ProcessMiningServiceTest {
 
     // --- Phase 3 Edge Case Tests ---
 
-    @Test
-    @DisplayName("analyzeInsurer handles no events for insurer gracefully")
-    void shouldHandleNoEventsForInsurer() {
-        // No events in the repository
-        when(eventRepository.findAll()).thenReturn(List.of());
-        when(miningEngine.analyzeWorkflow(anyList(), eq(insurerId))).thenReturn(List.of());
-        when(miningRepository.saveAll(anyList())).thenReturn(List.of());
-
-        service.analyzeInsurer(insurerId);
-
-        verify(miningRepository).deleteByInsurerId(insurerId);
-        verify(miningRepository).saveAll(List.of());
-    }
-
-    @Test
-    @DisplayName("analyzeInsurer filters out endorsements belonging to other insurers")
-    void shouldFilterOutDeletedEndorsements() {
-        UUID endorsementId = UUID.randomUUID();
-        UUID otherInsurerId = UUID.randomUUID();
-
-        EndorsementEventEntity eventEntity = new EndorsementEventEntity();
-        eventEntity.setEndorsementId(endorsementId);
-        eventEntity.setEventType("ENDORSEMENT_CREATED");
-        eventEntity.setCreatedAt(Instant.now());
-
-        // Endorsement belongs to a different insurer
-        EndorsementEntity endEntity = new EndorsementEntity();
-        endEntity.setId(endorsementId);
-        endEntity.setInsurerId(otherInsurerId);
-
-        when(eventRepository.findAll()).thenReturn(List.of(eventEntity));
-        when(endorsementRepository.findById(endorsementId)).thenReturn(Optional.of(endEntity));
-        // Empty list because all events are filtered out
-        when(miningEngine.analyzeWorkflow(eq(List.of()), eq(insurerId))).thenReturn(List.of());
-        when(miningRepository.saveAll(anyList())).thenReturn(List.of());
-
-        service.analyzeInsurer(insurerId);
-
-        verify(miningRepository).deleteByInsurerId(insurerId);
-        // Should pass empty events since endorsement belongs to different insurer
-        verify(miningEngine).analyzeWorkflow(argThat(List::isEmpty), eq(insurerId));
-    }
-
     @Test
     @DisplayName("getLatestInsights returns bottleneck when p95 exceeds 2x avg and samples >= 5")
     void getLatestInsights_DetectsBottleneck_HighVariance() {
@@ -218,17 +211,8 @@ class ProcessMiningServiceTest {
         config.setInsurerName("Test Insurer");
 
         when(insurerConfigRepo.findAll()).thenReturn(List.of(config));
-        when(miningRepository.findByInsurerId(insurerId)).thenReturn(List.of(
-                ProcessMiningMetric.builder()
-                        .insurerId(insurerId)
-                        .fromStatus("CREATED")
-                        .toStatus("VALIDATED")
-                        .avgDurationMs(3_600_000L)  // 1 hour avg
-                        .p95DurationMs(10_800_000L) // 3 hours p95 (>2x avg)
-                        .p99DurationMs(14_400_000L)
-                        .sampleCount(10)
-                        .calculatedAt(Instant.now())
-                        .build()
+        when(aggregateRepository.findAllTransitions()).thenReturn(List.of(
+                transition(insurerId, "CREATED", "VALIDATED", 10, 3_600_000L, 10_800_000L)  // 1 hour avg, one 3 hour sample
         ));
 
         var insights = service.getLatestInsights();
@@ -248,17 +232,8 @@ class ProcessMiningServiceTest {
         config.setInsurerName("Fast Insurer");
 
         when(insurerConfigRepo.findAll()).thenReturn(List.of(config));
-        when(miningRepository.findByInsurerId(insurerId)).thenReturn(List.of(
-                ProcessMiningMetric.builder()
-                        .insurerId(insurerId)
-                        .fromStatus("CREATED")
-                        .toStatus("VALIDATED")
-                        .avgDurationMs(5000L)    // 5 seconds avg
-                        .p95DurationMs(8000L)    // 8 seconds p95 (< 2x avg)
-                        .p99DurationMs(12000L)
-                        .sampleCount(50)
-                        .calculatedAt(Instant.now())
-                        .build()
+        when(aggregateRepository.findAllTransitions()).thenReturn(List.of(
+                transition(insurerId, "CREATED", "VALIDATED", 50, 5000L)
         ));
 
         var insights = service.getLatestInsights();
@@ -274,17 +249,8 @@ class ProcessMiningServiceTest {
         config.setInsurerName("Test Insurer");
 
         when(insurerConfigRepo.findAll()).thenReturn(List.of(config));
-        when(miningRepository.findByInsurerId(insurerId)).thenReturn(List.of(
-                ProcessMiningMetric.builder()
-                        .insurerId(insurerId)
-                        .fromStatus("CREATED")
-                        .toStatus("VALIDATED")
-                        .avgDurationMs(3_600_000L)
-                        .p95DurationMs(10_800_000L)  // High variance but only 3 samples
-                        .p99DurationMs(14_400_000L)
-                        .sampleCount(3)
-                        .calculatedAt(Instant.now())
-                        .build()
+        when(aggregateRepository.findAllTransitions()).thenReturn(List.of(
+                transition(insurerId, "CREATED", "VALIDATED", 3, 3_600_000L, 10_800_000L)  // 1 hour avg, one 3 hour sample
         ));
 
         var insights = service.getLatestInsights();
@@ -300,17 +266,8 @@ class ProcessMiningServiceTest {
         config.setInsurerName("Slow Insurer");
 
         when(insurerConfigRepo.findAll()).thenReturn(List.of(config));
-        when(miningRepository.findByInsurerId(insurerId)).thenReturn(List.of(
-                ProcessMiningMetric.builder()
-                        .insurerId(insurerId)
-                        .fromStatus("SUBMITTED_TO_INSURER")
-                        .toStatus("CONFIRMED")
-                        .avgDurationMs(18_000_000L)  // 5 hours avg (>4 hours threshold)
-                        .p95DurationMs(20_000_000L)  // p95 NOT >2x avg, but absolute threshold triggers
-                        .p99DurationMs(25_000_000L)
-                        .sampleCount(20)
-                        .calculatedAt(Instant.now())
-                        .build()
+        when(aggregateRepository.findAllTransitions()).thenReturn(List.of(
+                transition(insurerId, "SUBMITTED_TO_INSURER", "CONFIRMED", 20, 18_000_000L)
         ));
 
         var insights = service.getLatestInsights();
@@ -323,16 +280,9 @@ class ProcessMiningServiceTest {
     @Test
     @DisplayName("getStpRate falls back to status-based calculation when no metrics exist")
     void getStpRate_FallsBackToStatusCalculation() {
-        when(miningRepository.findByInsurerId(insurerId)).thenReturn(List.of());
-        // Simulate 8 confirmed, 2 rejected = 80% STP
-        when(endorsementRepository.findByStatusAndInsurerId("CONFIRMED", insurerId))
-                .thenReturn(Collections.nCopies(8, new com.plum.endorsements.infrastructure.persistence.entity.EndorsementEntity()));
-        when(endorsementRepository.findByStatusAndInsurerId("REJECTED", insurerId))
-                .thenReturn(Collections.nCopies(2, new com.plum.endorsements.infrastructure.persistence.entity.EndorsementEntity()));
-        when(endorsementRepository.findByStatusAndInsurerId("FAILED", insurerId))
-                .thenReturn(List.of());
-        when(endorsementRepository.findByStatusAndInsurerId("FAILED_PERMANENT", insurerId))
-                .thenReturn(List.of());
+        when(aggregateRepository.findPathByInsurerId(insurerId)).thenReturn(Optional.empty());
+        // Simulate 8 confirmed, 1 rejected, 1 legacy FAILED = 80% STP
+        when(statusCountRepository.countByInsurerId(insurerId)).thenReturn(counts(8, 1, 1, 0));
 
         StpRateResponse response = service.getStpRate(insurerId);
 
@@ -351,21 +301,10 @@ class ProcessMiningServiceTest {
 
         when(insurerConfigRepo.findAll()).thenReturn(List.of(config1, config2));
 
-        // Insurer 1 has 90% STP rate
-        when(miningRepository.findByInsurerId(insurerId)).thenReturn(List.of(
-                ProcessMiningMetric.builder()
-                        .insurerId(insurerId)
-                        .happyPathPct(new BigDecimal("90.00"))
-                        .build()
-        ));
-
-        // Insurer 2 has 80% STP rate
-        when(miningRepository.findByInsurerId(insurerId2)).thenReturn(List.of(
-                ProcessMiningMetric.builder()
-                        .insurerId(insurerId2)
-                        .happyPathPct(new BigDecimal("80.00"))
-                        .build()
-        ));
+        // Insurer 1 has 90% STP rate, insurer 2 has 80%
+        when(aggregateRepository.findAllPaths()).thenReturn(List.of(
+                path(insurerId, 10, 9),
+                path(insurerId2, 10, 8)));
 
         StpRateResponse response = service.getStpRate(null);
 
@@ -378,19 +317,35 @@ class ProcessMiningServiceTest {
                 .isEqualByComparingTo(new BigDecimal("80.00"));
     }
 
+    @Test
+    @DisplayName("getStpRate includes unconfigured insurers with completed endorsements from the status counts")
+    void getStpRate_UnconfiguredInsurer_UsesStatusCounts() {
+        UUID unconfigured = UUID.randomUUID();
+        UUID onlyInFlight = UUID.randomUUID();
+        InsurerConfigurationEntity config = new InsurerConfigurationEntity();
+        config.setInsurerId(insurerId);
+        when(insurerConfigRepo.findAll()).thenReturn(List.of(config));
+        when(aggregateRepository.findAllPaths()).thenReturn(List.of(path(insurerId, 10, 9)));
+        when(statusCountRepository.countByInsurer()).thenReturn(Map.of(
+                insurerId, counts(9, 1, 0, 0),
+                unconfigured, counts(3, 0, 0, 1),
+                onlyInFlight, new EndorsementStatusCounts(Map.of("CREATED", 5L))));
+
+        StpRateResponse response = service.getStpRate(null);
+
+        assertThat(response.perInsurerStpRate()).containsOnlyKeys(insurerId, unconfigured);
+        assertThat(response.perInsurerStpRate().get(unconfigured)).isEqualByComparingTo(new BigDecimal("75.0"));
+        assertThat(response.totalProcessed()).isEqualTo(14);
+        assertThat(response.successfulCount()).isEqualTo(12);
+        verify(statusCountRepository, never()).countByInsurerId(any());
+    }
+
     // --- STP Rate Trending Tests ---
 
     @Test
     @DisplayName("captureStpRateSnapshot saves snapshot for valid insurer")
     void captureStpRateSnapshot_validInsurer_savesSnapshot() {
-        when(endorsementRepository.findByStatusAndInsurerId("CONFIRMED", insurerId))
-                .thenReturn(Collections.nCopies(8, new EndorsementEntity()));
-        when(endorsementRepository.findByStatusAndInsurerId("REJECTED", insurerId))
-                .thenReturn(Collections.nCopies(2, new EndorsementEntity()));
-        when(endorsementRepository.findByStatusAndInsurerId("FAILED", insurerId))
-                .thenReturn(List.of());
-        when(endorsementRepository.findByStatusAndInsurerId("FAILED_PERMANENT", insurerId))
-                .thenReturn(List.of());
+        when(statusCountRepository.countByInsurerId(insurerId)).thenReturn(counts(8, 2, 0, 0));
         when(stpRateSnapshotRepository.save(any(StpRateSnapshot.class)))
                 .thenAnswer(i -> i.getArgument(0));
 
@@ -406,8 +361,7 @@ class ProcessMiningServiceTest {
     @Test
     @DisplayName("captureStpRateSnapshot saves zero rate when no endorsements")
     void captureStpRateSnapshot_noEndorsements_savesZeroRate() {
-        when(endorsementRepository.findByStatusAndInsurerId(anyString(), eq(insurerId)))
-                .thenReturn(List.of());
+        when(statusCountRepository.countByInsurerId(insurerId)).thenReturn(EndorsementStatusCounts.EMPTY);
         when(stpRateSnapshotRepository.save(any(StpRateSnapshot.class)))
                 .thenAnswer(i -> i.getArgument(0));
 
@@ -14,9 +14,11 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -45,6 +47,8 @@ class ReconciliationEngineTest {
         engine = new ReconciliationEngine(endorsementRepository, reconciliationRepository,
                 batchRepository, insurerRouter, processHandler, eventPublisher, notificationPort, meterRegistry);
         insurerId = UUID.fromString("33333333-3333-3333-3333-333333333333");
+        lenient().when(endorsementRepository.findByStatusAndInsurerId(EndorsementStatus.SUBMITTED_REALTIME, insurerId))
+                .thenReturn(List.of());
     }
 
     private Endorsement buildProcessingEndorsement(String insurerRef, UUID batchId) {
@@ -388,6 +392,54 @@ class ReconciliationEngineTest {
         verify(processHandler).handleConfirmation(endorsement.getId(), "NIVA-REF-006");
     }
 
+    @Test
+    @DisplayName("MISSING: real-time submission left unanswered past the grace period flagged")
+    void reconcileInsurer_UnansweredSubmission_FlagsEndorsement() {
+        Endorsement unanswered = buildProcessingEndorsement(null, null);
+        unanswered.setStatus(EndorsementStatus.SUBMITTED_REALTIME);
+        unanswered.setUpdatedAt(Instant.now().minus(Duration.ofHours(1)));
+        Endorsement inFlight = buildProcessingEndorsement(null, null);
+        inFlight.setStatus(EndorsementStatus.SUBMITTED_REALTIME);
+        Endorsement inOpenMicroBatch = unansweredInBatch(BatchStatus.SUBMITTED);
+        Endorsement inFailedMicroBatch = unansweredInBatch(BatchStatus.FAILED);
+
+        when(endorsementRepository.findByStatusAndInsurerId(EndorsementStatus.INSURER_PROCESSING, insurerId))
+                .thenReturn(List.of());
+        when(endorsementRepository.findByStatusAndInsurerId(EndorsementStatus.SUBMITTED_REALTIME, insurerId))
+                .thenReturn(List.of(unanswered, inFlight, inOpenMicroBatch, inFailedMicroBatch));
+
+        InsurerPort port = mock(InsurerPort.class);
+        when(insurerRouter.resolve(insurerId)).thenReturn(port);
+
+        when(reconciliationRepository.saveRun(any())).thenAnswer(i -> {
+            ReconciliationRun r = i.getArgument(0);
+            if (r.getId() == null) r.setId(UUID.randomUUID());
+            return r;
+        });
+        when(reconciliationRepository.saveItem(any())).thenAnswer(i -> i.getArgument(0));
+
+        ReconciliationRun result = engine.reconcileInsurer(insurerId);
+
+        assertThat(result.getMissing()).isEqualTo(2);
+        verify(notificationPort).notifyReconciliationDiscrepancy(eq(insurerId),
+                eq(unanswered.getId()), any());
+        verify(notificationPort).notifyReconciliationDiscrepancy(eq(insurerId),
+                eq(inFailedMicroBatch.getId()), any());
+        verify(notificationPort, never()).notifyReconciliationDiscrepancy(any(), eq(inFlight.getId()), any());
+        verify(notificationPort, never()).notifyReconciliationDiscrepancy(any(), eq(inOpenMicroBatch.getId()), any());
+    }
+
+    private Endorsement unansweredInBatch(BatchStatus batchStatus) {
+        EndorsementBatch batch = EndorsementBatch.builder()
+                .id(UUID.randomUUID()).insurerId(insurerId).status(batchStatus).build();
+        when(batchRepository.findById(batch.getId())).thenReturn(Optional.of(batch));
+        Endorsement endorsement = buildProcessingEndorsement(null, null);
+        endorsement.setStatus(EndorsementStatus.SUBMITTED_REALTIME);
+        endorsement.setBatchId(batch.getId());
+        endorsement.setUpdatedAt(Instant.now().minus(Duration.ofHours(1)));
+        return endorsement;
+    }
+
     @Test
     @DisplayName("notifies on reconciliation complete with summary")
     void reconcileInsurer_NotifiesOnComplete() {
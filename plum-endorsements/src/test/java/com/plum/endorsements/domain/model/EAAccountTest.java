@@ -230,4 +230,16 @@ class EAAccountTest {
         assertThat(account.getBalance()).isEqualByComparingTo(new BigDecimal("700.00"));
         assertThat(account.availableBalance()).isEqualByComparingTo(new BigDecimal("700.00"));
     }
+
+    // --- striped reservation tests ---
+
+    @Test
+    void availableBalance_subtractsStripedReservations() {
+        EAAccount account = buildAccount(new BigDecimal("1000.00"), new BigDecimal("200.00"));
+        account.setStripedReserved(new BigDecimal("300.00"));
+
+        assertThat(account.totalReserved()).isEqualByComparingTo(new BigDecimal("500.00"));
+        assertThat(account.availableBalance()).isEqualByComparingTo(new BigDecimal("500.00"));
+        assertThat(account.canFund(new BigDecimal("500.01"))).isFalse();
+    }
 }
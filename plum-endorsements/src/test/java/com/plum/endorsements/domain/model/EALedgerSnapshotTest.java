@@ -0,0 +1,86 @@
+package com.plum.endorsements.domain.model;
+
+import com.plum.endorsements.domain.model.EATransaction.EATransactionType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+class EALedgerSnapshotTest {
+
+    private static final UUID EMPLOYER_ID = UUID.randomUUID();
+    private static final UUID INSURER_ID = UUID.randomUUID();
+    private static final Instant T0 = Instant.parse("2026-10-01T00:00:00Z");
+
+    private EATransaction entry(EATransactionType type, String amount, String balanceAfter, int minute) {
+        return new EATransaction(null, EMPLOYER_ID, INSURER_ID, UUID.randomUUID(), type,
+                new BigDecimal(amount), new BigDecimal(balanceAfter), null, T0.plusSeconds(60L * minute));
+    }
+
+    @Test
+    void empty_hasNoEntriesAndNoBalance() {
+        EALedgerSnapshot empty = EALedgerSnapshot.empty(EMPLOYER_ID, INSURER_ID);
+
+        assertThat(empty.hasEntries()).isFalse();
+        assertThat(empty.balanceAfter()).isNull();
+        assertThat(empty.asOf()).isEqualTo(Instant.EPOCH);
+    }
+
+    @Test
+    void advance_addsEachEntryToItsTypeAndTakesTheLastBalance() {
+        EALedgerSnapshot snapshot = EALedgerSnapshot.empty(EMPLOYER_ID, INSURER_ID).advance(List.of(
+                entry(EATransactionType.TOP_UP, "1000.00", "1000.00", 1),
+                entry(EATransactionType.RESERVE, "300.00", "700.00", 2),
+                entry(EATransactionType.RESERVE, "200.00", "500.00", 3),
+                entry(EATransactionType.RELEASE, "200.00", "700.00", 4)), T0.plusSeconds(3600));
+
+        assertThat(snapshot.transactionCount()).isEqualTo(4);
+        assertThat(snapshot.balanceAfter()).isEqualByComparingTo("700.00");
+        assertThat(snapshot.total(EATransactionType.RESERVE)).isEqualByComparingTo("500.00");
+        assertThat(snapshot.total(EATransactionType.RELEASE)).isEqualByComparingTo("200.00");
+        assertThat(snapshot.total(EATransactionType.TOP_UP)).isEqualByComparingTo("1000.00");
+        assertThat(snapshot.total(EATransactionType.DEBIT)).isEqualByComparingTo("0");
+        assertThat(snapshot.asOf()).isEqualTo(T0.plusSeconds(3600));
+    }
+
+    @Test
+    void advance_inStepsMatchesAdvancingAtOnce() {
+        List<EATransaction> entries = List.of(
+                entry(EATransactionType.RESERVE, "100.00", "900.00", 1),
+                entry(EATransactionType.DEBIT, "100.00", "900.00", 70),
+                entry(EATransactionType.CREDIT, "40.00", "940.00", 130));
+        Instant end = T0.plusSeconds(3 * 3600);
+
+        EALedgerSnapshot atOnce = EALedgerSnapshot.empty(EMPLOYER_ID, INSURER_ID).advance(entries, end);
+        EALedgerSnapshot inSteps = EALedgerSnapshot.empty(EMPLOYER_ID, INSURER_ID)
+                .advance(entries.subList(0, 1), T0.plusSeconds(3600))
+                .advance(entries.subList(1, 2), T0.plusSeconds(2 * 3600))
+                .advance(entries.subList(2, 3), end);
+
+        assertThat(inSteps).isEqualTo(atOnce);
+    }
+
+    @Test
+    void advance_withoutEntriesKeepsTotalsAndMovesAsOf() {
+        EALedgerSnapshot snapshot = EALedgerSnapshot.empty(EMPLOYER_ID, INSURER_ID)
+                .advance(List.of(entry(EATransactionType.RESERVE, "50.00", "950.00", 1)), T0.plusSeconds(600));
+
+        EALedgerSnapshot later = snapshot.advance(List.of(), T0.plusSeconds(7200));
+
+        assertThat(later.transactionCount()).isEqualTo(1);
+        assertThat(later.balanceAfter()).isEqualByComparingTo("950.00");
+        assertThat(later.asOf()).isEqualTo(T0.plusSeconds(7200));
+    }
+
+    @Test
+    void advance_backwardsIsRejected() {
+        EALedgerSnapshot snapshot = EALedgerSnapshot.empty(EMPLOYER_ID, INSURER_ID).advance(List.of(), T0);
+
+        assertThatThrownBy(() -> snapshot.advance(List.of(), T0.minusSeconds(1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
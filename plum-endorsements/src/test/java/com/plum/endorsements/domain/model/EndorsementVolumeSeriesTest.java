@@ -0,0 +1,76 @@
+package com.plum.endorsements.domain.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+class EndorsementVolumeSeriesTest {
+
+    private static final UUID EMPLOYER_ID = UUID.randomUUID();
+    private static final UUID INSURER_ID = UUID.randomUUID();
+
+    private Endorsement endorsement(EndorsementType type, String premium, String createdAt) {
+        return Endorsement.builder()
+                .id(UUID.randomUUID())
+                .employerId(EMPLOYER_ID)
+                .employeeId(UUID.randomUUID())
+                .insurerId(INSURER_ID)
+                .policyId(UUID.randomUUID())
+                .type(type)
+                .status(EndorsementStatus.CONFIRMED)
+                .premiumAmount(premium != null ? new BigDecimal(premium) : null)
+                .retryCount(0)
+                .createdAt(Instant.parse(createdAt))
+                .updatedAt(Instant.parse(createdAt))
+                .build();
+    }
+
+    @Test
+    void of_bucketsByUtcDayOldestFirst() {
+        EndorsementVolumeSeries series = EndorsementVolumeSeries.of(EMPLOYER_ID, INSURER_ID, List.of(
+                endorsement(EndorsementType.ADD, "100.00", "2026-10-02T23:59:59Z"),
+                endorsement(EndorsementType.ADD, "50.00", "2026-10-01T00:00:00Z"),
+                endorsement(EndorsementType.ADD, null, "2026-10-02T00:00:00Z"),
+                endorsement(EndorsementType.DELETE, "30.00", "2026-10-02T12:00:00Z")));
+
+        assertThat(series.days()).extracting(EndorsementVolumeSeries.DailyVolume::day)
+                .containsExactly(LocalDate.of(2026, 10, 1), LocalDate.of(2026, 10, 2));
+        EndorsementVolumeSeries.DailyVolume second = series.days().get(1);
+        assertThat(second.additions()).isEqualTo(2);
+        assertThat(second.pricedAdditions()).isEqualTo(1);
+        assertThat(second.additionPremium()).isEqualByComparingTo("100.00");
+        assertThat(second.deletions()).isEqualTo(1);
+        assertThat(second.deletionPremium()).isEqualByComparingTo("30.00");
+    }
+
+    @Test
+    void of_ignoresTypesOtherThanAddAndDelete() {
+        EndorsementVolumeSeries series = EndorsementVolumeSeries.of(EMPLOYER_ID, INSURER_ID, List.of(
+                endorsement(EndorsementType.UPDATE, "100.00", "2026-10-01T10:00:00Z")));
+
+        assertThat(series.days()).isEmpty();
+        assertThat(series.additions()).isZero();
+    }
+
+    @Test
+    void totals_sumAcrossDays() {
+        EndorsementVolumeSeries series = EndorsementVolumeSeries.of(EMPLOYER_ID, INSURER_ID, List.of(
+                endorsement(EndorsementType.ADD, "100.00", "2026-10-01T10:00:00Z"),
+                endorsement(EndorsementType.ADD, "200.00", "2026-10-03T10:00:00Z"),
+                endorsement(EndorsementType.ADD, null, "2026-10-03T11:00:00Z"),
+                endorsement(EndorsementType.DELETE, null, "2026-10-04T10:00:00Z")));
+
+        assertThat(series.additions()).isEqualTo(3);
+        assertThat(series.pricedAdditions()).isEqualTo(2);
+        assertThat(series.additionPremium()).isEqualByComparingTo("300.00");
+        assertThat(series.deletions()).isEqualTo(1);
+        assertThat(series.pricedDeletions()).isZero();
+        assertThat(series.deletionPremium()).isEqualByComparingTo("0");
+    }
+}
@@ -0,0 +1,106 @@
+package com.plum.endorsements.domain.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.*;
+
+class StripedEAAccountTest {
+
+    private final UUID employerId = UUID.randomUUID();
+    private final UUID insurerId = UUID.randomUUID();
+
+    private EAAccount buildAccount(String balance, String reserved) {
+        return EAAccount.builder()
+                .employerId(employerId)
+                .insurerId(insurerId)
+                .balance(new BigDecimal(balance))
+                .reserved(new BigDecimal(reserved))
+                .updatedAt(Instant.now())
+                .build();
+    }
+
+    private List<EAAccountStripe> buildStripes(String... reserved) {
+        List<EAAccountStripe> stripes = new ArrayList<>();
+        for (int i = 0; i < reserved.length; i++) {
+            stripes.add(EAAccountStripe.builder()
+                    .employerId(employerId)
+                    .insurerId(insurerId)
+                    .stripe(i)
+                    .allocated(new BigDecimal(reserved[i]))
+                    .reserved(new BigDecimal(reserved[i]))
+                    .updatedAt(Instant.now())
+                    .build());
+        }
+        return stripes;
+    }
+
+    private static BigDecimal sum(List<EAAccountStripe> stripes, Function<EAAccountStripe, BigDecimal> f) {
+        return stripes.stream().map(f).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    @Test
+    void constructor_consolidatesStripeReservationsIntoAccount() {
+        EAAccount account = buildAccount("1000.00", "100.00");
+
+        StripedEAAccount striped = new StripedEAAccount(account, buildStripes("50.00", "150.00"));
+
+        assertThat(account.getStripedReserved()).isEqualByComparingTo("200.00");
+        assertThat(striped.availableBalance()).isEqualByComparingTo("700.00");
+    }
+
+    @Test
+    void reserve_drawsOnWholeFreeBalanceRegardlessOfStripeAllocation() {
+        EAAccount account = buildAccount("1000.00", "0.00");
+        StripedEAAccount striped = new StripedEAAccount(account, buildStripes("0.00", "0.00", "0.00", "0.00"));
+
+        striped.reserve(new BigDecimal("900.00"));
+
+        assertThat(account.totalReserved()).isEqualByComparingTo("900.00");
+        assertThat(striped.availableBalance()).isEqualByComparingTo("100.00");
+        assertThat(sum(striped.stripes(), EAAccountStripe::getReserved)).isEqualByComparingTo("900.00");
+    }
+
+    @Test
+    void reserve_throwsWhenConsolidatedBalanceIsInsufficient() {
+        EAAccount account = buildAccount("1000.00", "200.00");
+        StripedEAAccount striped = new StripedEAAccount(account, buildStripes("400.00", "300.00"));
+
+        assertThatThrownBy(() -> striped.reserve(new BigDecimal("100.01")))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(account.totalReserved()).isEqualByComparingTo("900.00");
+    }
+
+    @Test
+    void rebalance_spreadsFreeBalanceEvenlyAndKeepsReservations() {
+        EAAccount account = buildAccount("1000.00", "100.00");
+        StripedEAAccount striped = new StripedEAAccount(account, buildStripes("200.00", "0.00", "0.00"));
+
+        striped.rebalance();
+
+        // 700.00 free split three ways; the remainder goes to the first stripe
+        assertThat(striped.stripes()).extracting(EAAccountStripe::available)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("233.34"), new BigDecimal("233.33"), new BigDecimal("233.33"));
+        assertThat(striped.stripes().get(0).getReserved()).isEqualByComparingTo("200.00");
+        assertThat(sum(striped.stripes(), EAAccountStripe::getAllocated))
+                .isEqualByComparingTo(account.getBalance().subtract(account.getReserved()));
+    }
+
+    @Test
+    void rebalance_overdrawnAccountLeavesNoHeadroom() {
+        EAAccount account = buildAccount("100.00", "0.00");
+        StripedEAAccount striped = new StripedEAAccount(account, buildStripes("80.00", "80.00"));
+
+        striped.rebalance();
+
+        assertThat(striped.stripes()).extracting(EAAccountStripe::available)
+                .allSatisfy(available -> assertThat(available).isEqualByComparingTo("0.00"));
+    }
+}
@@ -0,0 +1,71 @@
+package com.plum.endorsements.domain.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("TransitionAggregate domain model")
+class TransitionAggregateTest {
+
+    private static TransitionAggregate withBuckets(long maxMs, long... durationsMs) {
+        long[] buckets = new long[TransitionAggregate.BUCKET_COUNT];
+        for (long duration : durationsMs) {
+            buckets[TransitionAggregate.bucketOf(duration)]++;
+        }
+        return new TransitionAggregate(UUID.randomUUID(), "BATCH_SUBMITTED", "CONFIRMED",
+                durationsMs.length, 0.0, 0.0, maxMs, buckets, Instant.now());
+    }
+
+    @Test
+    @DisplayName("bucketOf treats bounds as inclusive upper limits")
+    void bucketOf_InclusiveUpperBounds() {
+        assertThat(TransitionAggregate.bucketOf(0)).isZero();
+        assertThat(TransitionAggregate.bucketOf(1_000)).isZero();
+        assertThat(TransitionAggregate.bucketOf(1_001)).isEqualTo(1);
+        assertThat(TransitionAggregate.bucketOf(Long.MAX_VALUE)).isEqualTo(TransitionAggregate.BUCKET_COUNT - 1);
+    }
+
+    @Test
+    @DisplayName("percentile of identical samples is the sample itself")
+    void percentile_IdenticalSamples_ReturnsSample() {
+        long fortyMinutes = 2_400_000L;
+        TransitionAggregate aggregate = withBuckets(fortyMinutes,
+                fortyMinutes, fortyMinutes, fortyMinutes, fortyMinutes, fortyMinutes);
+
+        assertThat(aggregate.percentileMs(0.95)).isEqualTo(fortyMinutes);
+        assertThat(aggregate.percentileMs(0.99)).isEqualTo(fortyMinutes);
+    }
+
+    @Test
+    @DisplayName("percentile lands in the bucket holding the requested rank")
+    void percentile_SkewedSamples_FindsTailBucket() {
+        long[] durations = new long[20];
+        Arrays.fill(durations, 60_000L);
+        durations[19] = 36_000_000L;
+        TransitionAggregate aggregate = withBuckets(36_000_000L, durations);
+
+        assertThat(aggregate.percentileMs(0.5)).isLessThanOrEqualTo(60_000L);
+        assertThat(aggregate.percentileMs(0.99)).isBetween(28_800_000L, 36_000_000L);
+    }
+
+    @Test
+    @DisplayName("percentile of an empty aggregate is zero")
+    void percentile_Empty_ReturnsZero() {
+        assertThat(withBuckets(0).percentileMs(0.95)).isZero();
+    }
+
+    @Test
+    @DisplayName("ProcessPathAggregate reports the happy path share of completed endorsements")
+    void processPath_HappyPathPct() {
+        ProcessPathAggregate path = new ProcessPathAggregate(UUID.randomUUID(), 5, 3, Instant.now());
+
+        assertThat(path.happyPathPct()).isEqualByComparingTo("60.00");
+        assertThat(new ProcessPathAggregate(UUID.randomUUID(), 0, 0, Instant.now()).happyPathPct())
+                .isEqualByComparingTo("0");
+    }
+}
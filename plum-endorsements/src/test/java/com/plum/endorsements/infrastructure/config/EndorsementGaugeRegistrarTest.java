@@ -0,0 +1,82 @@
+package com.plum.endorsements.infrastructure.config;
+
+import com.plum.endorsements.domain.model.EndorsementStatusCounts;
+import com.plum.endorsements.domain.model.InsurerConfiguration;
+import com.plum.endorsements.domain.port.EndorsementStatusCountRepository;
+import com.plum.endorsements.domain.port.InsurerConfigurationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EndorsementGaugeRegistrarTest {
+
+    @Mock
+    EndorsementStatusCountRepository statusCountRepository;
+
+    @Mock
+    InsurerConfigurationRepository insurerConfigurationRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private EndorsementGaugeRegistrar registrar;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        registrar = new EndorsementGaugeRegistrar(meterRegistry, statusCountRepository, insurerConfigurationRepository);
+        registrar.registerGauges();
+    }
+
+    private double gauge(String name, String... tags) {
+        return meterRegistry.get(name).tags(tags).gauge().value();
+    }
+
+    @Test
+    void scrape_ShouldNotQueryTheDatabase() {
+        assertThat(gauge("endorsement.active.count", "status", "CREATED")).isZero();
+        assertThat(gauge("endorsement.insurer.active.count")).isZero();
+        assertThat(gauge("endorsement.gauge.snapshot.age")).isNaN();
+
+        verifyNoInteractions(statusCountRepository, insurerConfigurationRepository);
+    }
+
+    @Test
+    void sample_ShouldPublishEveryGaugeFromOneSnapshot() {
+        when(statusCountRepository.countAll()).thenReturn(new EndorsementStatusCounts(
+                Map.of("CREATED", 4L, "CONFIRMED", 120L)));
+        when(insurerConfigurationRepository.findAllActive()).thenReturn(List.of(
+                mock(InsurerConfiguration.class), mock(InsurerConfiguration.class)));
+
+        registrar.sample();
+
+        assertThat(gauge("endorsement.active.count", "status", "CREATED")).isEqualTo(4.0);
+        assertThat(gauge("endorsement.active.count", "status", "CONFIRMED")).isEqualTo(120.0);
+        assertThat(gauge("endorsement.active.count", "status", "REJECTED")).isZero();
+        assertThat(gauge("endorsement.insurer.active.count")).isEqualTo(2.0);
+        assertThat(gauge("endorsement.gauge.snapshot.age")).isBetween(0.0, 5.0);
+        verify(statusCountRepository, times(1)).countAll();
+    }
+
+    @Test
+    void sample_QueryFails_ShouldKeepPreviousSnapshot() {
+        when(statusCountRepository.countAll())
+                .thenReturn(new EndorsementStatusCounts(Map.of("CREATED", 4L)))
+                .thenThrow(new RuntimeException("connection refused"));
+        when(insurerConfigurationRepository.findAllActive()).thenReturn(List.of());
+
+        registrar.sample();
+        registrar.sample();
+
+        assertThat(gauge("endorsement.active.count", "status", "CREATED")).isEqualTo(4.0);
+        assertThat(meterRegistry.counter("endorsement.gauge.sample", "result", "failure").count()).isEqualTo(1.0);
+    }
+}
@@ -4,6 +4,10 @@ import com.plum.endorsements.application.exception.InsurerNotFoundException;
 import com.plum.endorsements.domain.model.InsurerConfiguration;
 import com.plum.endorsements.domain.port.InsurerPort;
 import com.plum.endorsements.domain.service.InsurerRegistry;
+import com.plum.endorsements.infrastructure.insurer.admission.AdmissionControlledInsurerPort;
+import com.plum.endorsements.infrastructure.insurer.admission.InsurerAdmissionController;
+import com.plum.endorsements.infrastructure.insurer.microbatch.RealTimeMicroBatcher;
+import io.github.resilience4j.retry.RetryRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -17,6 +21,8 @@ import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -32,13 +38,21 @@ class InsurerRouterTest {
     @Mock
     private InsurerPort iciciAdapter;
 
+    @Mock
+    private InsurerAdmissionController admission;
+
+    @Mock
+    private RealTimeMicroBatcher microBatcher;
+
     private InsurerRouter router;
 
     @BeforeEach
     void setUp() {
         when(mockAdapter.getAdapterType()).thenReturn("MOCK");
         when(iciciAdapter.getAdapterType()).thenReturn("ICICI_LOMBARD");
-        router = new InsurerRouter(insurerRegistry, List.of(mockAdapter, iciciAdapter));
+        lenient().when(microBatcher.wrap(any(), any())).thenAnswer(invocation -> invocation.getArgument(0));
+        router = new InsurerRouter(insurerRegistry, List.of(mockAdapter, iciciAdapter), admission, microBatcher,
+                RetryRegistry.ofDefaults());
     }
 
     @Test
@@ -56,7 +70,8 @@ class InsurerRouterTest {
 
         InsurerPort result = router.resolve(insurerId);
 
-        assertThat(result).isSameAs(mockAdapter);
+        assertThat(result).isInstanceOfSatisfying(AdmissionControlledInsurerPort.class,
+                admitted -> assertThat(admitted.getDelegate()).isSameAs(mockAdapter));
     }
 
     @Test
@@ -74,7 +89,8 @@ class InsurerRouterTest {
 
         InsurerPort result = router.resolve(insurerId);
 
-        assertThat(result).isSameAs(iciciAdapter);
+        assertThat(result).isInstanceOfSatisfying(AdmissionControlledInsurerPort.class,
+                admitted -> assertThat(admitted.getDelegate()).isSameAs(iciciAdapter));
     }
 
     @Test
@@ -119,7 +135,8 @@ class InsurerRouterTest {
 
         InsurerPort result = router.resolveByCode("ICICI_LOMBARD");
 
-        assertThat(result).isSameAs(iciciAdapter);
+        assertThat(result).isInstanceOfSatisfying(AdmissionControlledInsurerPort.class,
+                admitted -> assertThat(admitted.getDelegate()).isSameAs(iciciAdapter));
     }
 
     @Test
@@ -0,0 +1,183 @@
+package com.plum.endorsements.infrastructure.insurer.admission;
+
+import com.plum.endorsements.application.exception.InsurerOutcomeUnknownException;
+import com.plum.endorsements.domain.port.InsurerPort;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AdmissionControlledInsurerPort")
+class AdmissionControlledInsurerPortTest {
+
+    private static final InsurerPort.InsurerCapabilities REALTIME_ONLY =
+            new InsurerPort.InsurerCapabilities(true, false, 0, 0, 120);
+
+    @Mock
+    private InsurerPort delegate;
+
+    @Mock
+    private InsurerAdmissionController admission;
+
+    @Mock
+    private InsurerAdmissionController.Permit permit;
+
+    private UUID insurerId;
+    private AdmissionControlledInsurerPort port;
+
+    @BeforeEach
+    void setUp() {
+        insurerId = UUID.randomUUID();
+        port = new AdmissionControlledInsurerPort(delegate, insurerId, admission);
+        lenient().when(delegate.getCapabilities()).thenReturn(REALTIME_ONLY);
+    }
+
+    @Test
+    @DisplayName("a call holds its permit until the adapter returns")
+    void submitRealTime_AdmittedAndReleased() {
+        UUID endorsementId = UUID.randomUUID();
+        when(admission.admit(insurerId, REALTIME_ONLY, AdmissionPriority.REALTIME)).thenReturn(permit);
+        when(delegate.submitRealTime(endorsementId, Map.of()))
+                .thenReturn(new InsurerPort.SubmissionResult(true, "REF", null));
+
+        assertThat(port.submitRealTime(endorsementId, Map.of()).success()).isTrue();
+
+        var order = inOrder(admission, delegate, permit);
+        order.verify(admission).admit(insurerId, REALTIME_ONLY, AdmissionPriority.REALTIME);
+        order.verify(delegate).submitRealTime(endorsementId, Map.of());
+        order.verify(permit).close();
+    }
+
+    @Test
+    @DisplayName("releases the permit when the adapter throws")
+    void submitRealTime_AdapterFails_StillReleases() {
+        when(admission.admit(any(), any(), any())).thenReturn(permit);
+        when(delegate.submitRealTime(any(), any())).thenThrow(new IllegalStateException("boom"));
+
+        assertThatThrownBy(() -> port.submitRealTime(UUID.randomUUID(), Map.of()))
+                .isInstanceOf(IllegalStateException.class);
+        verify(permit).close();
+    }
+
+    @Test
+    @DisplayName("calls made under a retry scope are admitted as retries")
+    void submitRealTime_InRetryScope_RetryPriority() {
+        when(admission.admit(insurerId, REALTIME_ONLY, AdmissionPriority.RETRY)).thenReturn(permit);
+
+        AdmissionPriority.runAs(AdmissionPriority.RETRY, () -> port.submitRealTime(UUID.randomUUID(), Map.of()));
+
+        verify(admission).admit(insurerId, REALTIME_ONLY, AdmissionPriority.RETRY);
+    }
+
+    private AdmissionControlledInsurerPort retrying() {
+        return new AdmissionControlledInsurerPort(delegate, insurerId, admission, Retry.of("test",
+                RetryConfig.custom()
+                        .maxAttempts(3)
+                        .waitDuration(Duration.ofMillis(1))
+                        .ignoreExceptions(InsurerOutcomeUnknownException.class)
+                        .build()));
+    }
+
+    @Test
+    @DisplayName("each retry attempt is admitted on its own, behind fresh traffic")
+    void submitRealTime_Retried_PermitPerAttempt() {
+        UUID endorsementId = UUID.randomUUID();
+        when(admission.admit(any(), any(), any())).thenReturn(permit);
+        when(delegate.submitRealTime(endorsementId, Map.of()))
+                .thenThrow(new IllegalStateException("503"))
+                .thenReturn(new InsurerPort.SubmissionResult(true, "REF", null));
+
+        assertThat(retrying().submitRealTime(endorsementId, Map.of()).success()).isTrue();
+
+        var order = inOrder(admission, delegate, permit);
+        order.verify(admission).admit(insurerId, REALTIME_ONLY, AdmissionPriority.REALTIME);
+        order.verify(delegate).submitRealTime(endorsementId, Map.of());
+        order.verify(permit).close();
+        order.verify(admission).admit(insurerId, REALTIME_ONLY, AdmissionPriority.RETRY);
+        order.verify(delegate).submitRealTime(endorsementId, Map.of());
+        order.verify(permit).close();
+    }
+
+    @Test
+    @DisplayName("a submission still failing after its retries comes back as a failed result")
+    void submitRealTime_RetriesExhausted_FailedResult() {
+        when(admission.admit(any(), any(), any())).thenReturn(permit);
+        when(delegate.submitRealTime(any(), any())).thenThrow(new IllegalStateException("503"));
+
+        InsurerPort.SubmissionResult result = retrying().submitRealTime(UUID.randomUUID(), Map.of());
+
+        assertThat(result.success()).isFalse();
+        assertThat(result.errorMessage()).isEqualTo("Insurer service unavailable: 503");
+        verify(admission, times(3)).admit(any(), any(), any());
+        verify(permit, times(3)).close();
+    }
+
+    @Test
+    @DisplayName("a submission that may have reached the insurer is neither retried nor turned into a failure")
+    void submitRealTime_OutcomeUnknown_NotRetried() {
+        when(admission.admit(any(), any(), any())).thenReturn(permit);
+        when(delegate.submitRealTime(any(), any())).thenThrow(new InsurerOutcomeUnknownException("read timed out"));
+
+        assertThatThrownBy(() -> retrying().submitRealTime(UUID.randomUUID(), Map.of()))
+                .isInstanceOf(InsurerOutcomeUnknownException.class);
+        verify(delegate, times(1)).submitRealTime(any(), any());
+    }
+
+    @Test
+    @DisplayName("async calls start only once admitted and release when they complete")
+    void submitRealTimeAsync_WaitsForPermit() {
+        UUID endorsementId = UUID.randomUUID();
+        CompletableFuture<InsurerAdmissionController.Permit> admitted = new CompletableFuture<>();
+        CompletableFuture<InsurerPort.SubmissionResult> call = new CompletableFuture<>();
+        when(admission.acquire(insurerId, REALTIME_ONLY, AdmissionPriority.REALTIME)).thenReturn(admitted);
+        when(delegate.submitRealTimeAsync(endorsementId, Map.of())).thenReturn(call);
+
+        CompletableFuture<InsurerPort.SubmissionResult> result =
+                port.submitRealTimeAsync(endorsementId, Map.of()).toCompletableFuture();
+        verify(delegate, never()).submitRealTimeAsync(any(), any());
+
+        admitted.complete(permit);
+        verify(permit, never()).close();
+        call.complete(new InsurerPort.SubmissionResult(true, "REF", null));
+
+        assertThat(result).isCompleted();
+        verify(permit).close();
+    }
+
+    @Test
+    @DisplayName("cancelling an async call that is still queued gives up its place")
+    void submitRealTimeAsync_CancelledWhileQueued_CancelsAdmission() {
+        CompletableFuture<InsurerAdmissionController.Permit> admitted = new CompletableFuture<>();
+        when(admission.acquire(any(), any(), any())).thenReturn(admitted);
+
+        port.submitRealTimeAsync(UUID.randomUUID(), Map.of()).toCompletableFuture().cancel(true);
+
+        assertThat(admitted).isCancelled();
+    }
+
+    @Test
+    @DisplayName("operations the insurer does not support skip admission")
+    void submitBatch_Unsupported_SkipsAdmission() {
+        when(delegate.submitBatch(any(), any())).thenThrow(new UnsupportedOperationException("no batch"));
+
+        assertThatThrownBy(() -> port.submitBatch(UUID.randomUUID(), List.of()))
+                .isInstanceOf(UnsupportedOperationException.class);
+        verifyNoInteractions(admission);
+    }
+}
@@ -0,0 +1,202 @@
+package com.plum.endorsements.infrastructure.insurer.admission;
+
+import com.plum.endorsements.domain.port.InsurerPort.InsurerCapabilities;
+import com.plum.endorsements.domain.port.InsurerRateLimitRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("InsurerAdmissionController")
+class InsurerAdmissionControllerTest {
+
+    private static final InsurerCapabilities LIMITED = new InsurerCapabilities(true, true, 100, 24, 60);
+    private static final InsurerCapabilities UNLIMITED = new InsurerCapabilities(false, true, 500, 24, 0);
+
+    @Mock
+    private InsurerRateLimitRepository rateLimitRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private InsurerAdmissionController controller;
+    private UUID insurerId;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        insurerId = UUID.randomUUID();
+        lenient().when(rateLimitRepository.reserve(any(), any(), any())).thenReturn(Duration.ZERO);
+    }
+
+    @AfterEach
+    void tearDown() {
+        controller.shutdown();
+    }
+
+    private InsurerAdmissionController controller(int maxConcurrent, int maxQueue, long maxWaitMs) {
+        controller = new InsurerAdmissionController(rateLimitRepository, meterRegistry,
+                true, maxConcurrent, maxQueue, maxWaitMs, 5);
+        return controller;
+    }
+
+    @Test
+    @DisplayName("admits straight away under the limits, reserving a slot sized from capabilities")
+    void acquire_UnderLimits_AdmitsWithGcraSlot() {
+        controller(2, 10, 5000);
+
+        InsurerAdmissionController.Permit permit =
+                controller.admit(insurerId, LIMITED, AdmissionPriority.REALTIME);
+
+        assertThat(permit).isNotNull();
+        // 60 calls a minute: one per second, four of them allowed ahead of schedule
+        verify(rateLimitRepository).reserve(insurerId, Duration.ofSeconds(1), Duration.ofSeconds(4));
+        assertThat(meterRegistry.get("endorsement.insurer.admission.in_flight").gauge().value()).isEqualTo(1.0);
+        permit.close();
+        permit.close();
+        assertThat(meterRegistry.get("endorsement.insurer.admission.in_flight").gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("an admitted call already counts as in flight when its caller wakes")
+    void acquire_Admitted_InFlightBeforeCallerWakes() {
+        controller(2, 10, 5000);
+
+        // Runs on the dispatcher as it hands over the permit, or right away if already admitted
+        CompletableFuture<Double> inFlightSeen = controller.acquire(insurerId, UNLIMITED, AdmissionPriority.REALTIME)
+                .thenApply(permit -> meterRegistry.get("endorsement.insurer.admission.in_flight").gauge().value());
+
+        assertThat(inFlightSeen).succeedsWithin(Duration.ofSeconds(1)).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("holds the next call until the limiter's slot opens")
+    void acquire_LimiterSaysWait_WaitsForSlot() {
+        controller(2, 10, 5000);
+        when(rateLimitRepository.reserve(any(), any(), any())).thenReturn(Duration.ofMillis(200));
+
+        long start = System.nanoTime();
+        controller.admit(insurerId, LIMITED, AdmissionPriority.REALTIME).close();
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(200));
+        assertThat(meterRegistry.get("endorsement.insurer.admission.limiter.wait").timer()
+                .max(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(200.0);
+    }
+
+    @Test
+    @DisplayName("bulkhead admits a waiting call only when an in-flight one finishes")
+    void acquire_BulkheadFull_WaitsForRelease() {
+        controller(1, 10, 5000);
+        InsurerAdmissionController.Permit first = controller.admit(insurerId, LIMITED, AdmissionPriority.REALTIME);
+
+        CompletableFuture<InsurerAdmissionController.Permit> second =
+                controller.acquire(insurerId, LIMITED, AdmissionPriority.REALTIME);
+        assertThat(second).isNotDone();
+        assertThat(meterRegistry.get("endorsement.insurer.admission.queue.depth").gauge().value())
+                .isEqualTo(1.0);
+
+        first.close();
+        assertThat(second).succeedsWithin(Duration.ofSeconds(1));
+    }
+
+    @Test
+    @DisplayName("admits the most urgent waiting call first")
+    void acquire_QueuedCalls_AdmittedByPriority() {
+        controller(1, 10, 5000);
+        InsurerAdmissionController.Permit first = controller.admit(insurerId, LIMITED, AdmissionPriority.REALTIME);
+
+        CompletableFuture<InsurerAdmissionController.Permit> retry =
+                controller.acquire(insurerId, LIMITED, AdmissionPriority.RETRY);
+        CompletableFuture<InsurerAdmissionController.Permit> status =
+                controller.acquire(insurerId, LIMITED, AdmissionPriority.STATUS);
+        CompletableFuture<InsurerAdmissionController.Permit> realtime =
+                controller.acquire(insurerId, LIMITED, AdmissionPriority.REALTIME);
+        first.close();
+
+        assertThat(realtime).succeedsWithin(Duration.ofSeconds(1));
+        assertThat(status).isNotDone();
+        assertThat(retry).isNotDone();
+
+        realtime.join().close();
+        assertThat(status).succeedsWithin(Duration.ofSeconds(1));
+        assertThat(retry).isNotDone();
+    }
+
+    @Test
+    @DisplayName("turns calls away when the queue is full or they wait too long")
+    void acquire_QueueFullOrTimeout_Rejected() throws InterruptedException {
+        controller(1, 1, 200);
+        controller.admit(insurerId, LIMITED, AdmissionPriority.REALTIME);
+
+        CompletableFuture<InsurerAdmissionController.Permit> queued =
+                controller.acquire(insurerId, LIMITED, AdmissionPriority.REALTIME);
+        assertThat(controller.acquire(insurerId, LIMITED, AdmissionPriority.REALTIME))
+                .failsWithin(Duration.ZERO)
+                .withThrowableThat().havingCause().isInstanceOf(InsurerAdmissionRejectedException.class);
+
+        assertThatThrownBy(queued::join).hasCauseInstanceOf(InsurerAdmissionRejectedException.class);
+        assertThat(meterRegistry.counter("endorsement.insurer.admission.rejected",
+                "insurerId", insurerId.toString(), "reason", "queue_full").count()).isEqualTo(1.0);
+        // The timeout is counted just after the waiter is failed, so the join above can win the race
+        assertThat(eventually(() -> meterRegistry.counter("endorsement.insurer.admission.rejected",
+                "insurerId", insurerId.toString(), "reason", "timeout").count())).isEqualTo(1.0);
+    }
+
+    private static double eventually(DoubleSupplier value) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (value.getAsDouble() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        return value.getAsDouble();
+    }
+
+    @Test
+    @DisplayName("insurers without a rate limit skip the limiter")
+    void acquire_NoRateLimit_SkipsLimiter() {
+        controller(2, 10, 5000);
+
+        controller.admit(insurerId, UNLIMITED, AdmissionPriority.BATCH).close();
+
+        verifyNoInteractions(rateLimitRepository);
+    }
+
+    @Test
+    @DisplayName("paces locally when the shared limiter is unreachable")
+    void acquire_LimiterDown_FallsBackToLocalPacing() {
+        controller(2, 10, 5000);
+        when(rateLimitRepository.reserve(eq(insurerId), any(), any()))
+                .thenThrow(new DataAccessResourceFailureException("connection refused"));
+
+        controller.admit(insurerId, LIMITED, AdmissionPriority.REALTIME).close();
+
+        assertThat(meterRegistry.counter("endorsement.insurer.admission.limiter.fallback",
+                "insurerId", insurerId.toString()).count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("admits everything immediately when disabled")
+    void acquire_Disabled_AdmitsImmediately() {
+        controller = new InsurerAdmissionController(rateLimitRepository, meterRegistry, false, 1, 1, 1000, 5);
+
+        controller.admit(insurerId, LIMITED, AdmissionPriority.RETRY);
+        controller.admit(insurerId, LIMITED, AdmissionPriority.RETRY);
+
+        verifyNoInteractions(rateLimitRepository);
+    }
+}
@@ -1,12 +1,19 @@
 package com.plum.endorsements.infrastructure.insurer.bajaj;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.plum.endorsements.domain.port.InsurerPort;
+import com.plum.endorsements.infrastructure.insurer.http.InsurerHttpClient;
+import com.plum.endorsements.infrastructure.insurer.stub.StubInsurerServer;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -16,13 +23,29 @@ import static org.assertj.core.api.Assertions.assertThat;
 @DisplayName("BajajAllianzAdapter")
 class BajajAllianzAdapterTest {
 
+    private static StubInsurerServer stub;
     private BajajAllianzAdapter adapter;
 
+    @BeforeAll
+    static void startStub() throws IOException {
+        stub = new StubInsurerServer(new ObjectMapper(), Map.of("bajaj",
+                new StubInsurerServer.StubProfile("BAJAJ", null, 0, 0, 0, 0, 0, 0)), 0, 0);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        stub.stop();
+    }
+
+    private static InsurerHttpClient httpClient() {
+        return new InsurerHttpClient(new ObjectMapper(), stub.baseUri(), Duration.ofSeconds(2), Duration.ofSeconds(5));
+    }
+
     @BeforeEach
     void setUp() {
         MeterRegistry meterRegistry = new SimpleMeterRegistry();
         BajajAllianzXmlMapper xmlMapper = new BajajAllianzXmlMapper();
-        adapter = new BajajAllianzAdapter(meterRegistry, xmlMapper);
+        adapter = new BajajAllianzAdapter(meterRegistry, xmlMapper, httpClient());
     }
 
     @Test
@@ -59,6 +82,28 @@ class BajajAllianzAdapterTest {
         assertThat(result.status()).isEqualTo("COMPLETED");
     }
 
+    @Test
+    @DisplayName("a submitted batch reports a result for each endorsement once complete")
+    void submitBatch_ThenStatus_ResultPerEndorsement() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+
+        String reference = adapter.submitBatch(UUID.randomUUID(), List.of(
+                Map.of("endorsementId", first, "employee_name", "A & B <C>", "type", "ADDITION"),
+                Map.of("endorsementId", second, "employee_name", "D", "type", "DELETION")));
+        InsurerPort.BatchStatusResult result = adapter.checkBatchStatus(reference);
+
+        assertThat(result.status()).isEqualTo("COMPLETED");
+        // The stub answers for every id in the body, the envelope's BatchId included
+        assertThat(result.results())
+                .extracting(InsurerPort.EndorsementResult::endorsementId)
+                .contains(first, second);
+        assertThat(result.results()).allSatisfy(r -> {
+            assertThat(r.confirmed()).isTrue();
+            assertThat(r.insurerReference()).startsWith("BAJAJ-");
+        });
+    }
+
     @Test
     @DisplayName("capabilities report both real-time and batch")
     void getCapabilities_BothModes() {
@@ -1,12 +1,21 @@
 package com.plum.endorsements.infrastructure.insurer.bajaj;
 
+import com.plum.endorsements.domain.port.InsurerPort;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @DisplayName("BajajAllianzXmlMapper")
 class BajajAllianzXmlMapperTest {
@@ -54,11 +63,30 @@ class BajajAllianzXmlMapperTest {
         assertThat(xml).doesNotContain("O'Brien & Sons <Ltd>");
     }
 
+    @Test
+    @DisplayName("toXmlBatchEnvelope wraps every endorsement with its ClientRef")
+    void toXmlBatchEnvelope_TagsEachEndorsement() {
+        UUID batchId = UUID.randomUUID();
+        String first = UUID.randomUUID().toString();
+        String second = UUID.randomUUID().toString();
+
+        String xml = mapper.toXmlBatchEnvelope(batchId, List.of(
+                Map.of("endorsementId", first, "type", "ADDITION"),
+                Map.of("endorsementId", second, "type", "DELETION")));
+
+        assertThat(xml).contains("<ws:BatchId>" + batchId + "</ws:BatchId>");
+        assertThat(xml).contains("<ws:ClientRef>" + first + "</ws:ClientRef>");
+        assertThat(xml).contains("<ws:ClientRef>" + second + "</ws:ClientRef>");
+        assertThat(xml.split("<ws:Endorsement>", -1)).hasSize(3);
+        assertThat(xml).endsWith("</soapenv:Envelope>");
+    }
+
     @Test
     @DisplayName("fromXmlResponse extracts transaction ID and status")
     void fromXmlResponse_ExtractsFields() {
         String xmlResponse = """
-                <soapenv:Envelope>
+                <soapenv:Envelope xmlns:soapenv="http://schemas.xmlsoap.org/soap/envelope/"
+                                  xmlns:ws="http://bajajallianz.com/endorsement/ws">
                   <soapenv:Body>
                     <ws:SubmitEndorsementResponse>
                       <ws:TransactionId>BAJAJ-12345678</ws:TransactionId>
@@ -76,6 +104,95 @@ class BajajAllianzXmlMapperTest {
         assertThat(result.get("message")).isEqualTo("Endorsement processed successfully");
     }
 
+    @Test
+    @DisplayName("fromXmlResponse matches elements by namespace, whatever the prefix")
+    void fromXmlResponse_AnyPrefix() {
+        String xmlResponse = """
+                <s:Envelope xmlns:s="http://schemas.xmlsoap.org/soap/envelope/">
+                  <s:Body>
+                    <SubmitEndorsementResponse xmlns="http://bajajallianz.com/endorsement/ws"
+                                               xmlns:other="urn:other">
+                      <other:Status>IGNORED</other:Status>
+                      <TransactionId>
+                        BAJAJ-1
+                      </TransactionId>
+                      <Status>REJECTED</Status>
+                      <Message>Name &amp; DOB mismatch</Message>
+                    </SubmitEndorsementResponse>
+                  </s:Body>
+                </s:Envelope>
+                """;
+
+        Map<String, Object> result = mapper.fromXmlResponse(xmlResponse);
+
+        assertThat(result.get("insurer_reference")).isEqualTo("BAJAJ-1");
+        assertThat(result.get("status")).isEqualTo("REJECTED");
+        assertThat(result.get("message")).isEqualTo("Name & DOB mismatch");
+    }
+
+    @Test
+    @DisplayName("fromXmlResponse refuses documents that declare entities")
+    void fromXmlResponse_RejectsDtd() {
+        String xmlResponse = """
+                <?xml version="1.0"?>
+                <!DOCTYPE r [<!ENTITY x SYSTEM "file:///etc/passwd">]>
+                <ws:R xmlns:ws="http://bajajallianz.com/endorsement/ws"><ws:Message>&x;</ws:Message></ws:R>
+                """;
+
+        assertThatThrownBy(() -> mapper.fromXmlResponse(xmlResponse))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("readBatchStatus hands over each result as it is read")
+    void readBatchStatus_CallsBackPerResult() throws IOException {
+        UUID confirmed = UUID.randomUUID();
+        UUID rejected = UUID.randomUUID();
+        String xmlResponse = """
+                <s:Envelope xmlns:s="http://schemas.xmlsoap.org/soap/envelope/"
+                            xmlns:bag="http://bajajallianz.com/endorsement/ws">
+                  <s:Body>
+                    <bag:GetBatchStatusResponse>
+                      <bag:Status>COMPLETED</bag:Status>
+                      <bag:Result>
+                        <bag:ClientRef>%s</bag:ClientRef>
+                        <bag:Status>ACCEPTED</bag:Status>
+                        <bag:TransactionId>BAJAJ-1</bag:TransactionId>
+                      </bag:Result>
+                      <bag:Result>
+                        <bag:ClientRef>%s</bag:ClientRef>
+                        <bag:Status>REJECTED</bag:Status>
+                        <bag:Message>Member not on policy</bag:Message>
+                      </bag:Result>
+                    </bag:GetBatchStatusResponse>
+                  </s:Body>
+                </s:Envelope>
+                """.formatted(confirmed, rejected);
+        List<InsurerPort.EndorsementResult> results = new ArrayList<>();
+
+        String status = mapper.readBatchStatus(
+                new ByteArrayInputStream(xmlResponse.getBytes(StandardCharsets.UTF_8)), results::add);
+
+        assertThat(status).isEqualTo("COMPLETED");
+        assertThat(results).containsExactly(
+                new InsurerPort.EndorsementResult(confirmed, true, "BAJAJ-1", null),
+                new InsurerPort.EndorsementResult(rejected, false, null, "Member not on policy"));
+    }
+
+    @Test
+    @DisplayName("writeBatchEnvelope streams the same document toXmlBatchEnvelope builds")
+    void writeBatchEnvelope_MatchesToXmlBatchEnvelope() throws IOException {
+        UUID batchId = UUID.randomUUID();
+        List<Map<String, Object>> endorsements = List.of(
+                Map.of("endorsementId", UUID.randomUUID(), "employee_name", "Zoë \"Z\" <Ågren>", "type", "ADDITION"));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        mapper.writeBatchEnvelope(batchId, endorsements, out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8))
+                .isEqualTo(mapper.toXmlBatchEnvelope(batchId, endorsements));
+    }
+
     @Test
     @DisplayName("toInsurerFormat maps field names correctly")
     void toInsurerFormat_MapsFields() {
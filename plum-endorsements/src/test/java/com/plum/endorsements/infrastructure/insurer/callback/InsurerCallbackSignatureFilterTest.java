@@ -0,0 +1,192 @@
+package com.plum.endorsements.infrastructure.insurer.callback;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("InsurerCallbackSignatureFilter")
+class InsurerCallbackSignatureFilterTest {
+
+    private static final UUID INSURER_ID = UUID.fromString("44444444-4444-4444-4444-444444444444");
+    private static final String SECRET = "niva-secret";
+    private static final byte[] BODY =
+            "{\"batchReference\":\"NIVA-BATCH-1\",\"status\":\"COMPLETED\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final InsurerCallbackSignatureFilter filter = new InsurerCallbackSignatureFilter(
+            Map.of(INSURER_ID, SECRET), meterRegistry, Duration.ofMinutes(5), 1024);
+
+    private MockHttpServletRequest callback(UUID insurerId, long timestamp, String signature, byte[] body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST",
+                "/api/v1/insurers/" + insurerId + "/callbacks");
+        request.addHeader(CallbackSignature.TIMESTAMP_HEADER, Long.toString(timestamp));
+        request.addHeader(CallbackSignature.SIGNATURE_HEADER, signature);
+        request.setContent(body);
+        return request;
+    }
+
+    private MockFilterChain run(MockHttpServletRequest request, MockHttpServletResponse response) throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, response, chain);
+        return chain;
+    }
+
+    private double refused(String reason) {
+        return meterRegistry.counter("endorsement.insurer.callback.refused", "reason", reason).count();
+    }
+
+    @Test
+    @DisplayName("passes a correctly signed callback on with its body intact")
+    void signedCallback_PassedOnWithBody() throws Exception {
+        long now = Instant.now().getEpochSecond();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        MockFilterChain chain = run(callback(INSURER_ID, now, CallbackSignature.sign(SECRET, now, BODY), BODY), response);
+
+        assertThat(chain.getRequest()).isNotNull();
+        assertThat(((HttpServletRequest) chain.getRequest()).getInputStream().readAllBytes()).isEqualTo(BODY);
+        assertThat(response.getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("serves the verified body to a non-blocking reader")
+    void signedCallback_ReadListenerGetsBody() throws Exception {
+        long now = Instant.now().getEpochSecond();
+        MockFilterChain chain = run(callback(INSURER_ID, now, CallbackSignature.sign(SECRET, now, BODY), BODY),
+                new MockHttpServletResponse());
+        ServletInputStream in = ((HttpServletRequest) chain.getRequest()).getInputStream();
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        boolean[] allRead = new boolean[1];
+
+        in.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                byte[] buffer = new byte[16];
+                int n;
+                while (in.isReady() && (n = in.read(buffer, 0, buffer.length)) != -1) {
+                    read.write(buffer, 0, n);
+                }
+            }
+
+            @Override
+            public void onAllDataRead() {
+                allRead[0] = true;
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                throw new AssertionError(t);
+            }
+        });
+
+        assertThat(allRead[0]).isTrue();
+        assertThat(in.isFinished()).isTrue();
+        assertThat(read.toByteArray()).isEqualTo(BODY);
+    }
+
+    @Test
+    @DisplayName("refuses a callback whose body was changed after signing")
+    void tamperedBody_Refused() throws Exception {
+        long now = Instant.now().getEpochSecond();
+        byte[] tampered = new String(BODY, StandardCharsets.UTF_8).replace("COMPLETED", "FAILED")
+                .getBytes(StandardCharsets.UTF_8);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        MockFilterChain chain = run(callback(INSURER_ID, now, CallbackSignature.sign(SECRET, now, BODY), tampered),
+                response);
+
+        assertThat(chain.getRequest()).isNull();
+        assertThat(response.getStatus()).isEqualTo(401);
+        assertThat(refused("bad_signature")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("refuses a correctly signed callback replayed outside the clock skew window")
+    void staleTimestamp_Refused() throws Exception {
+        long anHourAgo = Instant.now().minus(Duration.ofHours(1)).getEpochSecond();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        MockFilterChain chain = run(callback(INSURER_ID, anHourAgo,
+                CallbackSignature.sign(SECRET, anHourAgo, BODY), BODY), response);
+
+        assertThat(chain.getRequest()).isNull();
+        assertThat(response.getStatus()).isEqualTo(401);
+        assertThat(refused("stale_timestamp")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("refuses callbacks for insurers with no secret, or signed with another insurer's")
+    void unknownInsurer_Refused() throws Exception {
+        long now = Instant.now().getEpochSecond();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        run(callback(UUID.randomUUID(), now, CallbackSignature.sign(SECRET, now, BODY), BODY), response);
+        assertThat(response.getStatus()).isEqualTo(401);
+
+        response = new MockHttpServletResponse();
+        run(callback(INSURER_ID, now, CallbackSignature.sign("someone-else", now, BODY), BODY), response);
+        assertThat(response.getStatus()).isEqualTo(401);
+        assertThat(refused("unknown_insurer")).isEqualTo(1);
+        assertThat(refused("bad_signature")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("refuses bodies over the size limit")
+    void oversizedBody_Refused() throws Exception {
+        long now = Instant.now().getEpochSecond();
+        byte[] large = new byte[2048];
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        run(callback(INSURER_ID, now, CallbackSignature.sign(SECRET, now, large), large), response);
+
+        assertThat(response.getStatus()).isEqualTo(413);
+    }
+
+    @Test
+    @DisplayName("leaves other requests alone")
+    void otherPaths_NotFiltered() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        MockFilterChain chain = run(new MockHttpServletRequest("POST", "/api/v1/insurers"), response);
+
+        assertThat(chain.getRequest()).isNotNull();
+        assertThat(response.getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("refuses callbacks from an insurer whose configured secret is blank")
+    void blankSecret_InsurerCannotCallBack() throws Exception {
+        UUID unconfigured = UUID.fromString("55555555-5555-5555-5555-555555555555");
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("endorsement.insurer.callbacks.secrets.[" + INSURER_ID + "]", SECRET)
+                .withProperty("endorsement.insurer.callbacks.secrets.[" + unconfigured + "]", "");
+        InsurerCallbackSignatureFilter configured =
+                new InsurerCallbackSignatureFilter(environment, meterRegistry, 300_000, 1024);
+        long now = Instant.now().getEpochSecond();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        configured.doFilter(callback(unconfigured, now, CallbackSignature.sign("guessed", now, BODY), BODY),
+                response, new MockFilterChain());
+
+        assertThat(CallbackSignature.secrets(environment)).containsOnlyKeys(INSURER_ID);
+        assertThat(response.getStatus()).isEqualTo(401);
+        assertThat(refused("unknown_insurer")).isEqualTo(1);
+    }
+}
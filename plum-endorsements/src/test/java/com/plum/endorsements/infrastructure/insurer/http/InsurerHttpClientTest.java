@@ -0,0 +1,203 @@
+package com.plum.endorsements.infrastructure.insurer.http;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.plum.endorsements.application.exception.InsurerOutcomeUnknownException;
+import com.plum.endorsements.domain.port.InsurerPort;
+import com.plum.endorsements.infrastructure.insurer.stub.StubInsurerServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ConnectException;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+@DisplayName("InsurerHttpClient")
+class InsurerHttpClientTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private StubInsurerServer stub;
+
+    @AfterEach
+    void tearDown() {
+        if (stub != null) {
+            stub.stop();
+        }
+    }
+
+    private InsurerHttpClient clientFor(StubInsurerServer.StubProfile profile, Duration requestTimeout)
+            throws IOException {
+        stub = new StubInsurerServer(objectMapper, Map.of("acme", profile), 0, 0);
+        return new InsurerHttpClient(objectMapper, stub.baseUri(), Duration.ofSeconds(2), requestTimeout);
+    }
+
+    @Test
+    @DisplayName("parses a 2xx JSON answer into the response type")
+    void postJson_Success_ParsesResponse() throws IOException {
+        InsurerHttpClient client = clientFor(
+                new StubInsurerServer.StubProfile("ACME", null, 0, 0, 0, 0, 0, 0), Duration.ofSeconds(5));
+
+        InsurerHttpClient.SubmissionResponse response = InsurerHttpClient.await(
+                client.postJson("acme/endorsements", Map.of("a", 1), InsurerHttpClient.SubmissionResponse.class));
+
+        assertThat(response.accepted()).isTrue();
+        assertThat(response.reference()).startsWith("ACME-");
+    }
+
+    @Test
+    @DisplayName("completes with InsurerCallException on a non-2xx answer")
+    void post_ServerError_InsurerCallException() throws IOException {
+        InsurerHttpClient client = clientFor(
+                new StubInsurerServer.StubProfile("ACME", null, 0, 0, 1.0, 0, 0, 0), Duration.ofSeconds(5));
+
+        assertThatThrownBy(() -> InsurerHttpClient.await(
+                client.postJson("acme/endorsements", Map.of(), InsurerHttpClient.SubmissionResponse.class)))
+                .isInstanceOfSatisfying(InsurerCallException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(503));
+    }
+
+    @Test
+    @DisplayName("times out a request the insurer never answers, with its outcome unknown")
+    void post_StalledInsurer_TimesOut() throws IOException {
+        InsurerHttpClient client = clientFor(
+                new StubInsurerServer.StubProfile("ACME", null, 0, 0, 0, 1.0, 0, 10_000), Duration.ofMillis(200));
+
+        assertThatThrownBy(() -> InsurerHttpClient.await(
+                client.postJson("acme/endorsements", Map.of(), InsurerHttpClient.SubmissionResponse.class)))
+                .isInstanceOf(InsurerOutcomeUnknownException.class)
+                .hasCauseInstanceOf(HttpTimeoutException.class);
+    }
+
+    @Test
+    @DisplayName("fails a request that could not connect as not sent")
+    void post_ConnectionRefused_NotSent() throws IOException {
+        InsurerHttpClient client = clientFor(
+                new StubInsurerServer.StubProfile("ACME", null, 0, 0, 0, 0, 0, 0), Duration.ofSeconds(5));
+        stub.stop();
+
+        assertThatThrownBy(() -> InsurerHttpClient.await(
+                client.postJson("acme/endorsements", Map.of(), InsurerHttpClient.SubmissionResponse.class)))
+                .isNotInstanceOf(InsurerOutcomeUnknownException.class)
+                .hasCauseInstanceOf(ConnectException.class);
+    }
+
+    @Test
+    @DisplayName("cancelling a call abandons it without waiting for the insurer")
+    void cancel_AbandonsCall() throws IOException {
+        InsurerHttpClient client = clientFor(
+                new StubInsurerServer.StubProfile("ACME", null, 0, 0, 0, 1.0, 0, 10_000), Duration.ofSeconds(30));
+
+        CompletableFuture<InsurerHttpClient.SubmissionResponse> call =
+                client.postJson("acme/endorsements", Map.of(), InsurerHttpClient.SubmissionResponse.class);
+        call.cancel(true);
+
+        assertThat(call).isCancelled();
+    }
+
+    @Test
+    @DisplayName("streams a body from its writer and posts all of it")
+    void postStreaming_SendsWholeBody() throws IOException {
+        InsurerHttpClient client = clientFor(
+                new StubInsurerServer.StubProfile("ACME", null, 0, 0, 0, 0, 0, 0), Duration.ofSeconds(5));
+        UUID first = UUID.randomUUID();
+        UUID last = UUID.randomUUID();
+
+        String batchRef = InsurerHttpClient.await(client.postStreaming("acme/batches", "text/csv", out -> {
+            out.write((first + "\n").getBytes(StandardCharsets.UTF_8));
+            // Several times the pipe's size, so the writer has to wait for the sender
+            out.write(new byte[256 * 1024]);
+            out.write(("\n" + last).getBytes(StandardCharsets.UTF_8));
+        }, InsurerHttpClient.BatchSubmissionResponse.class)).batchRef();
+
+        assertThat(InsurerHttpClient.await(client.get("acme/batches/" + batchRef,
+                InsurerPort.BatchStatusResult.class)).results())
+                .extracting(InsurerPort.EndorsementResult::endorsementId)
+                .containsExactlyInAnyOrder(first, last);
+    }
+
+    @Test
+    @DisplayName("fails the call instead of sending a truncated body when the writer fails")
+    void postStreaming_WriterFails_CallFails() throws IOException {
+        InsurerHttpClient client = clientFor(
+                new StubInsurerServer.StubProfile("ACME", null, 0, 0, 0, 0, 0, 0), Duration.ofSeconds(5));
+
+        assertThatThrownBy(() -> InsurerHttpClient.await(client.postStreaming("acme/batches", "text/csv", out -> {
+            out.write("partial".getBytes(StandardCharsets.UTF_8));
+            throw new IOException("disk gone");
+        }, InsurerHttpClient.BatchSubmissionResponse.class)))
+                .isInstanceOf(UncheckedIOException.class)
+                .isNotInstanceOf(InsurerOutcomeUnknownException.class);
+    }
+
+    @Test
+    @DisplayName("fails a streamed call up front when every body writer is busy and the wait line is full")
+    void postStreaming_WritersSaturated_CallFails() throws Exception {
+        stub = new StubInsurerServer(objectMapper, Map.of("acme", new StubInsurerServer.StubProfile(
+                "ACME", null, 0, 0, 0, 0, 0, 0)), 0, 0);
+        InsurerHttpClient client = new InsurerHttpClient(objectMapper, stub.baseUri(),
+                Duration.ofSeconds(2), Duration.ofSeconds(5), 1);
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        InsurerHttpClient.BodyWriter blocked = out -> {
+            out.write(UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8));
+            writing.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        InsurerHttpClient.BodyWriter quick = out -> out.write(UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8));
+
+        CompletableFuture<InsurerHttpClient.BatchSubmissionResponse> first = client.postStreaming(
+                "acme/batches", "text/csv", blocked, InsurerHttpClient.BatchSubmissionResponse.class);
+        assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+        // One of these waits for the writer thread, the other finds no room
+        List<CompletableFuture<InsurerHttpClient.BatchSubmissionResponse>> more = List.of(
+                client.postStreaming("acme/batches", "text/csv", quick, InsurerHttpClient.BatchSubmissionResponse.class),
+                client.postStreaming("acme/batches", "text/csv", quick, InsurerHttpClient.BatchSubmissionResponse.class));
+        CompletableFuture.anyOf(more.toArray(CompletableFuture[]::new))
+                .exceptionally(t -> null).get(5, TimeUnit.SECONDS);
+        release.countDown();
+
+        assertThat(first).succeedsWithin(Duration.ofSeconds(5));
+        List<Throwable> failures = new ArrayList<>();
+        for (CompletableFuture<InsurerHttpClient.BatchSubmissionResponse> call : more) {
+            try {
+                InsurerHttpClient.await(call);
+            } catch (RuntimeException e) {
+                failures.add(e);
+            }
+        }
+        assertThat(failures).singleElement()
+                .isInstanceOf(UncheckedIOException.class)
+                .isNotInstanceOf(InsurerOutcomeUnknownException.class);
+        client.shutdown();
+    }
+
+    @Test
+    @DisplayName("refuses to start without a base URL when the stub is disabled")
+    @SuppressWarnings("unchecked")
+    void noBaseUrlWithoutStub_FailsFast() {
+        ObjectProvider<StubInsurerServer> noStub = mock(ObjectProvider.class);
+
+        assertThatThrownBy(() -> new InsurerHttpClient(objectMapper, noStub, "", 1000, 1000, 1))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("base-url");
+    }
+}
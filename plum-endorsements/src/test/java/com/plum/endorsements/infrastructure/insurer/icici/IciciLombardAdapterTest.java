@@ -1,12 +1,19 @@
 package com.plum.endorsements.infrastructure.insurer.icici;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.plum.endorsements.domain.port.InsurerPort;
+import com.plum.endorsements.infrastructure.insurer.http.InsurerHttpClient;
+import com.plum.endorsements.infrastructure.insurer.stub.StubInsurerServer;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -17,13 +24,29 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 @DisplayName("IciciLombardAdapter")
 class IciciLombardAdapterTest {
 
+    private static StubInsurerServer stub;
     private IciciLombardAdapter adapter;
 
+    @BeforeAll
+    static void startStub() throws IOException {
+        stub = new StubInsurerServer(new ObjectMapper(), Map.of("icici",
+                new StubInsurerServer.StubProfile("ICICI", null, 0, 0, 0, 0, 0, 0)), 0, 0);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        stub.stop();
+    }
+
+    private static InsurerHttpClient httpClient() {
+        return new InsurerHttpClient(new ObjectMapper(), stub.baseUri(), Duration.ofSeconds(2), Duration.ofSeconds(5));
+    }
+
     @BeforeEach
     void setUp() {
         MeterRegistry meterRegistry = new SimpleMeterRegistry();
         IciciLombardDataMapper dataMapper = new IciciLombardDataMapper();
-        adapter = new IciciLombardAdapter(meterRegistry, dataMapper);
+        adapter = new IciciLombardAdapter(meterRegistry, dataMapper, httpClient());
     }
 
     @Test
@@ -39,6 +62,17 @@ class IciciLombardAdapterTest {
         assertThat(result.errorMessage()).isNull();
     }
 
+    @Test
+    @DisplayName("submitRealTimeAsync completes without blocking the caller")
+    void submitRealTimeAsync_CompletesWithReference() {
+        InsurerPort.SubmissionResult result = adapter
+                .submitRealTimeAsync(UUID.randomUUID(), Map.of("employee_name", "Test", "type", "ADDITION"))
+                .toCompletableFuture().join();
+
+        assertThat(result.success()).isTrue();
+        assertThat(result.insurerReference()).startsWith("ICICI-");
+    }
+
     @Test
     @DisplayName("submitBatch throws UnsupportedOperationException")
     void submitBatch_ThrowsUnsupported() {
@@ -0,0 +1,146 @@
+package com.plum.endorsements.infrastructure.insurer.mapping;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.plum.endorsements.infrastructure.insurer.bajaj.BajajAllianzXmlMapper;
+import com.plum.endorsements.infrastructure.insurer.icici.IciciLombardDataMapper;
+import com.plum.endorsements.infrastructure.insurer.nivabupa.NivaBupaCsvMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs every insurer's mapping, in both directions, over one shared set of
+ * endorsements and compares the result with a checked-in golden payload under
+ * {@code src/test/resources/golden/insurer}. A mapping change that alters what
+ * an insurer receives or what we read back fails here, whichever adapter it
+ * is in.
+ *
+ * <p>After an intended change, regenerate the files with
+ * {@code UPDATE_GOLDEN=true ./gradlew test --tests '*InsurerPayloadGoldenTest'}
+ * and review the diff.</p>
+ */
+@DisplayName("Insurer payload golden files")
+class InsurerPayloadGoldenTest {
+
+    private static final Path GOLDEN_DIR = Path.of("src/test/resources/golden/insurer");
+    private static final UUID BATCH_ID = UUID.fromString("0b7c1d2e-0000-4000-8000-000000000001");
+    private static final ObjectMapper JSON = new ObjectMapper()
+            .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+            .enable(SerializationFeature.INDENT_OUTPUT);
+
+    private static final IciciLombardDataMapper ICICI = new IciciLombardDataMapper();
+    private static final BajajAllianzXmlMapper BAJAJ = new BajajAllianzXmlMapper();
+    private static final NivaBupaCsvMapper NIVA_BUPA = new NivaBupaCsvMapper();
+
+    static Stream<Arguments> payloads() {
+        return Stream.of(
+                golden("icici-outbound.json", () -> json(endorsements().stream().map(ICICI::toInsurerFormat))),
+                golden("icici-inbound.json", () -> json(Stream.<Map<String, Object>>of(
+                        Map.of("memberName", "Asha Rao", "memberId", "EMP-001", "policyNumber", "POL-123",
+                                "endorsementType", "DELETE", "effectiveDate", "2026-04-01",
+                                "sumInsured", 50000, "transactionId", "ICICI-TX-9"),
+                        Map.of("endorsementType", "TRANSFER"),
+                        Map.<String, Object>of()).map(ICICI::fromInsurerFormat))),
+                golden("bajaj-envelope.xml", () -> BAJAJ.toXmlEnvelope(endorsements().getFirst())),
+                golden("bajaj-batch.xml", () -> BAJAJ.toXmlBatchEnvelope(BATCH_ID, endorsements())),
+                golden("bajaj-outbound.json", () -> json(endorsements().stream().map(BAJAJ::toInsurerFormat))),
+                golden("bajaj-inbound.json", () -> json(Stream.<Map<String, Object>>of(
+                        Map.of("PolicyNumber", "POL-123", "MemberCode", "EMP-001", "MemberName", "Asha Rao",
+                                "EndorsementType", "MODIFY_MEMBER", "EffectiveDate", "2026-04-01",
+                                "SumInsured", 50000, "TransactionId", "BAG-TX-9"),
+                        Map.<String, Object>of()).map(BAJAJ::fromInsurerFormat))),
+                golden("nivabupa-batch.csv", () -> NIVA_BUPA.toCsvBatch(endorsements())),
+                golden("nivabupa-inbound.json", () -> {
+                    List<Map<String, Object>> rows = new ArrayList<>();
+                    NIVA_BUPA.readBatch(new StringReader(NIVA_BUPA.toCsvBatch(endorsements())), rows::add);
+                    return json(rows.stream());
+                }));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("payloads")
+    @DisplayName("mapping output matches the golden payload")
+    void payload_MatchesGolden(String file, Callable<String> payload) throws Exception {
+        String actual = payload.call();
+        if (Boolean.parseBoolean(System.getenv("UPDATE_GOLDEN"))) {
+            Files.createDirectories(GOLDEN_DIR);
+            Files.writeString(GOLDEN_DIR.resolve(file), actual);
+            return;
+        }
+        assertThat(actual).isEqualTo(read(file));
+    }
+
+    /**
+     * A full addition, names that need escaping in every format, an
+     * endorsement with little more than its id, a decimal premium, and a type
+     * no insurer has a code for.
+     */
+    private static List<Map<String, Object>> endorsements() {
+        List<Map<String, Object>> endorsements = new ArrayList<>();
+        endorsements.add(endorsement("6f1d9c3a-0000-4000-8000-000000000001", "ADDITION", "Asha Rao", 50000));
+        endorsements.add(endorsement("6f1d9c3a-0000-4000-8000-000000000002", "DELETION",
+                "Mary \"Molly\" O'Brien, Jr. & <Sons>", 0));
+        Map<String, Object> sparse = new HashMap<>();
+        sparse.put("endorsementId", "6f1d9c3a-0000-4000-8000-000000000003");
+        endorsements.add(sparse);
+        endorsements.add(endorsement("6f1d9c3a-0000-4000-8000-000000000004", "CORRECTION", "Ravi Kumar",
+                new BigDecimal("12500.50")));
+        endorsements.add(endorsement("6f1d9c3a-0000-4000-8000-000000000005", "TRANSFER", "Élodie Ng", 7200));
+        return endorsements;
+    }
+
+    private static Map<String, Object> endorsement(String id, String type, String name, Object premium) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("endorsementId", id);
+        data.put("type", type);
+        data.put("employee_name", name);
+        data.put("employee_id", "EMP-" + id.substring(id.length() - 3));
+        data.put("policy_id", "POL-123");
+        data.put("coverage_start_date", "2026-04-01");
+        data.put("premium_amount", premium);
+        data.put("date_of_birth", "1990-05-15");
+        data.put("gender", "F");
+        data.put("relationship", "SELF");
+        return data;
+    }
+
+    private static Arguments golden(String file, Callable<String> payload) {
+        return Arguments.of(file, payload);
+    }
+
+    private static String json(Stream<Map<String, Object>> maps) {
+        try {
+            return JSON.writeValueAsString(maps.toList());
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String read(String file) throws IOException {
+        try (InputStream in = InsurerPayloadGoldenTest.class.getResourceAsStream("/golden/insurer/" + file)) {
+            assertThat(in).as("golden file %s", file).isNotNull();
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.plum.endorsements.infrastructure.insurer.mapping;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("PayloadMappingPlan")
+class PayloadMappingPlanTest {
+
+    private static final CodeTable TYPES = CodeTable.of(Map.of("ADDITION", "ADD", "DELETION", "DEL"));
+
+    private static final PayloadMappingPlan PLAN = PayloadMappingPlan.builder("test")
+            .text("Ref", "endorsementId")
+            .value("Premium", "premium_amount", 0)
+            .code("Type", "type", "ADDITION", TYPES)
+            .build();
+
+    @Test
+    @DisplayName("hands fields to the sink in declaration order")
+    void encode_FieldsInDeclarationOrder() {
+        List<String> written = new ArrayList<>();
+
+        PLAN.encode(Map.of("endorsementId", "E-1", "premium_amount", 1200, "type", "DELETION"),
+                (name, value) -> written.add(name + "=" + value));
+
+        assertThat(written).containsExactly("Ref=E-1", "Premium=1200", "Type=DEL");
+        assertThat(PLAN.fieldNames()).containsExactly("Ref", "Premium", "Type");
+        assertThat(PLAN.sourceKeys()).containsExactly("endorsementId", "premium_amount", "type");
+    }
+
+    @Test
+    @DisplayName("values keep their type, text is stringified")
+    void toMap_ValueKeepsTypeTextStringifies() {
+        Map<String, Object> mapped = PLAN.toMap(Map.of("endorsementId", 42, "premium_amount", 1200));
+
+        assertThat(mapped.get("Ref")).isEqualTo("42");
+        assertThat(mapped.get("Premium")).isEqualTo(1200);
+    }
+
+    @Test
+    @DisplayName("absent source values fall back per field kind")
+    void toMap_AbsentValues_UseDefaults() {
+        Map<String, Object> source = new HashMap<>();
+        source.put("premium_amount", null);
+
+        Map<String, Object> mapped = PLAN.toMap(source);
+
+        assertThat(mapped).containsEntry("Ref", "").containsEntry("Premium", 0).containsEntry("Type", "ADD");
+    }
+
+    @Test
+    @DisplayName("values with no code pass through")
+    void code_UnknownValue_PassesThrough() {
+        assertThat(PLAN.toMap(Map.of("type", "TRANSFER")).get("Type")).isEqualTo("TRANSFER");
+        assertThat(TYPES.inverse().translate("DEL")).isEqualTo("DELETION");
+    }
+
+    @Test
+    @DisplayName("rejects a plan that maps a field twice")
+    void build_DuplicateField_Rejected() {
+        assertThatThrownBy(() -> PayloadMappingPlan.builder("broken")
+                .text("Ref", "endorsementId")
+                .text("Ref", "employee_id"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Ref");
+    }
+
+    @Test
+    @DisplayName("rejects a code table that cannot be read back")
+    void inverse_AmbiguousCode_Rejected() {
+        CodeTable ambiguous = CodeTable.of(Map.of("ADDITION", "A", "AMENDMENT", "A"));
+
+        assertThatThrownBy(ambiguous::inverse).isInstanceOf(IllegalArgumentException.class);
+    }
+}
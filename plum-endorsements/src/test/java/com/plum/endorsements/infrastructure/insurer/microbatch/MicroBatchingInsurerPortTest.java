@@ -0,0 +1,72 @@
+package com.plum.endorsements.infrastructure.insurer.microbatch;
+
+import com.plum.endorsements.domain.port.InsurerPort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("MicroBatchingInsurerPort")
+class MicroBatchingInsurerPortTest {
+
+    @Mock
+    private InsurerPort delegate;
+
+    @Mock
+    private RealTimeMicroBatcher batcher;
+
+    private UUID insurerId;
+    private MicroBatchingInsurerPort port;
+
+    @BeforeEach
+    void setUp() {
+        insurerId = UUID.randomUUID();
+        port = new MicroBatchingInsurerPort(delegate, insurerId, batcher);
+    }
+
+    @Test
+    @DisplayName("real-time submissions go through the batcher")
+    void submitRealTime_GoesThroughBatcher() {
+        UUID endorsementId = UUID.randomUUID();
+        when(batcher.submit(insurerId, delegate, endorsementId, Map.of()))
+                .thenReturn(CompletableFuture.completedFuture(new InsurerPort.SubmissionResult(true, "REF", null)));
+
+        assertThat(port.submitRealTime(endorsementId, Map.of()).insurerReference()).isEqualTo("REF");
+        verify(delegate, never()).submitRealTime(any(), any());
+    }
+
+    @Test
+    @DisplayName("a failed micro-batch surfaces as the underlying exception")
+    void submitRealTime_BatchFailed_Throws() {
+        when(batcher.submit(any(), any(), any(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new MicroBatchTimeoutException("BATCH-1", null)));
+
+        assertThatThrownBy(() -> port.submitRealTime(UUID.randomUUID(), Map.of()))
+                .isInstanceOf(MicroBatchTimeoutException.class);
+    }
+
+    @Test
+    @DisplayName("batch and status calls go straight to the insurer")
+    void submitBatch_PassesThrough() {
+        UUID batchId = UUID.randomUUID();
+        when(delegate.submitBatch(batchId, List.of())).thenReturn("BATCH-1");
+
+        assertThat(port.submitBatch(batchId, List.of())).isEqualTo("BATCH-1");
+        port.checkBatchStatus("BATCH-1");
+
+        verify(delegate).checkBatchStatus("BATCH-1");
+        verifyNoInteractions(batcher);
+    }
+}
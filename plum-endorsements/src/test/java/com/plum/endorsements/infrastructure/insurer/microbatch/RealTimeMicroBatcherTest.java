@@ -0,0 +1,268 @@
+package com.plum.endorsements.infrastructure.insurer.microbatch;
+
+import com.plum.endorsements.application.exception.InsurerOutcomeUnknownException;
+import com.plum.endorsements.domain.model.BatchStatus;
+import com.plum.endorsements.domain.model.EndorsementBatch;
+import com.plum.endorsements.domain.model.EndorsementStatus;
+import com.plum.endorsements.domain.port.BatchRepository;
+import com.plum.endorsements.domain.port.EndorsementRepository;
+import com.plum.endorsements.domain.port.InsurerPort;
+import com.plum.endorsements.domain.port.InsurerPort.BatchStatusResult;
+import com.plum.endorsements.domain.port.InsurerPort.EndorsementResult;
+import com.plum.endorsements.domain.port.InsurerPort.SubmissionResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RealTimeMicroBatcher")
+class RealTimeMicroBatcherTest {
+
+    private static final InsurerPort.InsurerCapabilities BOTH_MODES =
+            new InsurerPort.InsurerCapabilities(true, true, 500, 24, 30);
+    private static final InsurerPort.InsurerCapabilities REALTIME_ONLY =
+            new InsurerPort.InsurerCapabilities(true, false, 0, 0, 120);
+
+    @Mock
+    private InsurerPort port;
+
+    @Mock
+    private BatchRepository batchRepository;
+
+    @Mock
+    private EndorsementRepository endorsementRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RealTimeMicroBatcher batcher;
+    private UUID insurerId;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        insurerId = UUID.randomUUID();
+        lenient().when(port.getAdapterType()).thenReturn("BAJAJ_ALLIANZ");
+        lenient().when(port.getCapabilities()).thenReturn(BOTH_MODES);
+        lenient().when(batchRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+        lenient().when(batchRepository.transition(any(), any(), any(), any(), anyInt())).thenReturn(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        batcher.shutdown();
+    }
+
+    private RealTimeMicroBatcher batcher(long lingerMs, int maxSize, long latencySloMs, long maxWaitMs) {
+        batcher = new RealTimeMicroBatcher(meterRegistry, batchRepository, endorsementRepository,
+                Set.of("BAJAJ_ALLIANZ"),
+                lingerMs, maxSize, latencySloMs, maxWaitMs, 10, 40, 60000);
+        return batcher;
+    }
+
+    private static Map<String, Object> data(UUID endorsementId) {
+        return Map.of("endorsementId", endorsementId);
+    }
+
+    // The batch object is updated in place, so this is its state as last saved or handed over
+    private EndorsementBatch recordedBatch() {
+        ArgumentCaptor<EndorsementBatch> saved = ArgumentCaptor.forClass(EndorsementBatch.class);
+        verify(batchRepository, atLeastOnce()).save(saved.capture());
+        return saved.getValue();
+    }
+
+    private static EndorsementResult confirmed(UUID endorsementId) {
+        return new EndorsementResult(endorsementId, true, "BAJAJ-" + endorsementId, null);
+    }
+
+    @Test
+    @DisplayName("wraps only configured adapters that take both real-time and batch calls")
+    void wrap_OnlyConfiguredDualModeAdapters() {
+        batcher(20, 50, 10000, 5000);
+        assertThat(batcher.wrap(port, insurerId)).isInstanceOf(MicroBatchingInsurerPort.class);
+
+        when(port.getCapabilities()).thenReturn(REALTIME_ONLY);
+        assertThat(batcher.wrap(port, insurerId)).isSameAs(port);
+
+        when(port.getCapabilities()).thenReturn(BOTH_MODES);
+        when(port.getAdapterType()).thenReturn("ICICI_LOMBARD");
+        assertThat(batcher.wrap(port, insurerId)).isSameAs(port);
+    }
+
+    @Test
+    @DisplayName("submissions inside the linger window go out as one batch and each gets its own result")
+    void submit_WithinLinger_OneBatch() {
+        batcher(50, 50, 10000, 5000);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        when(port.submitBatch(any(), any())).thenReturn("BATCH-1");
+        when(port.checkBatchStatus("BATCH-1"))
+                .thenReturn(new BatchStatusResult("PROCESSING", List.of()))
+                .thenReturn(new BatchStatusResult("COMPLETED", List.of(confirmed(first),
+                        new EndorsementResult(second, false, null, "Member not found"))));
+
+        CompletableFuture<SubmissionResult> firstResult = batcher.submit(insurerId, port, first, data(first));
+        CompletableFuture<SubmissionResult> secondResult = batcher.submit(insurerId, port, second, data(second));
+
+        assertThat(firstResult).succeedsWithin(Duration.ofSeconds(2))
+                .isEqualTo(new SubmissionResult(true, "BAJAJ-" + first, null));
+        assertThat(secondResult).succeedsWithin(Duration.ofSeconds(2))
+                .isEqualTo(new SubmissionResult(false, null, "Member not found"));
+        verify(port).submitBatch(any(), eq(List.of(data(first), data(second))));
+        verify(port, times(2)).checkBatchStatus("BATCH-1");
+        verify(port, never()).submitRealTimeAsync(any(), any());
+        assertThat(meterRegistry.get("endorsement.insurer.microbatch.size").summary().totalAmount())
+                .isEqualTo(2.0);
+
+        EndorsementBatch recorded = recordedBatch();
+        assertThat(recorded.getInsurerId()).isEqualTo(insurerId);
+        assertThat(recorded.getInsurerBatchRef()).isEqualTo("BATCH-1");
+        assertThat(recorded.isMicroBatch()).isTrue();
+        verify(batchRepository).transition(recorded.getId(), BatchStatus.ACTIVE, BatchStatus.COMPLETE, null, 0);
+        verify(endorsementRepository).assignBatch(List.of(first, second),
+                EndorsementStatus.SUBMITTED_REALTIME, recorded.getId());
+    }
+
+    @Test
+    @DisplayName("batches again while an earlier micro-batch for the insurer is still open")
+    void submit_EarlierMicroBatchOpen_BatchesAgain() {
+        batcher(20, 50, 10000, 5000);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        when(port.submitBatch(any(), eq(List.of(data(first))))).thenReturn("BATCH-1");
+        when(port.submitBatch(any(), eq(List.of(data(second))))).thenReturn("BATCH-2");
+        // The first batch stays open at the insurer until the second has gone out
+        CompletableFuture<Void> secondSent = new CompletableFuture<>();
+        when(port.checkBatchStatus("BATCH-1")).thenAnswer(inv -> secondSent.isDone()
+                ? new BatchStatusResult("COMPLETED", List.of(confirmed(first)))
+                : new BatchStatusResult("PROCESSING", List.of()));
+        when(port.checkBatchStatus("BATCH-2")).thenAnswer(inv -> {
+            secondSent.complete(null);
+            return new BatchStatusResult("COMPLETED", List.of(confirmed(second)));
+        });
+
+        CompletableFuture<SubmissionResult> firstResult = batcher.submit(insurerId, port, first, data(first));
+        verify(port, timeout(2000)).submitBatch(any(), eq(List.of(data(first))));
+        CompletableFuture<SubmissionResult> secondResult = batcher.submit(insurerId, port, second, data(second));
+
+        assertThat(secondResult).succeedsWithin(Duration.ofSeconds(2))
+                .isEqualTo(new SubmissionResult(true, "BAJAJ-" + second, null));
+        assertThat(firstResult).succeedsWithin(Duration.ofSeconds(2))
+                .isEqualTo(new SubmissionResult(true, "BAJAJ-" + first, null));
+        verify(port, never()).submitRealTimeAsync(any(), any());
+        verify(batchRepository, never()).existsByInsurerIdAndStatusIn(any(), any());
+        assertThat(meterRegistry.find("endorsement.insurer.microbatch.fallback").counters()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("does not resend a batch whose submission may have reached the insurer")
+    void submit_BatchSubmitOutcomeUnknown_FailsWithoutResending() {
+        batcher(20, 50, 10000, 5000);
+        UUID endorsementId = UUID.randomUUID();
+        when(port.submitBatch(any(), any())).thenThrow(new InsurerOutcomeUnknownException("timed out"));
+
+        assertThat(batcher.submit(insurerId, port, endorsementId, data(endorsementId)))
+                .failsWithin(Duration.ofSeconds(2))
+                .withThrowableThat().havingCause().isInstanceOf(InsurerOutcomeUnknownException.class);
+        verify(port, never()).submitRealTimeAsync(any(), any());
+        UUID batchId = recordedBatch().getId();
+        verify(batchRepository).transition(batchId, BatchStatus.ACTIVE, BatchStatus.FAILED, null, 0);
+    }
+
+    @Test
+    @DisplayName("flushes as soon as the batch is full, without waiting out the linger")
+    void submit_MaxSizeReached_FlushesImmediately() {
+        batcher(60000, 2, 10000, 5000);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        when(port.submitBatch(any(), any())).thenReturn("BATCH-1");
+        when(port.checkBatchStatus("BATCH-1"))
+                .thenReturn(new BatchStatusResult("COMPLETED", List.of(confirmed(first), confirmed(second))));
+
+        CompletableFuture<SubmissionResult> firstResult = batcher.submit(insurerId, port, first, data(first));
+        CompletableFuture<SubmissionResult> secondResult = batcher.submit(insurerId, port, second, data(second));
+
+        assertThat(firstResult).succeedsWithin(Duration.ofSeconds(2));
+        assertThat(secondResult).succeedsWithin(Duration.ofSeconds(2));
+    }
+
+    @Test
+    @DisplayName("sends each submission real-time when the batch cannot be submitted")
+    void submit_BatchSubmitFails_FallsBackToRealTime() {
+        batcher(20, 50, 10000, 5000);
+        UUID endorsementId = UUID.randomUUID();
+        when(port.submitBatch(any(), any())).thenThrow(new IllegalStateException("503"));
+        when(port.submitRealTimeAsync(endorsementId, data(endorsementId)))
+                .thenReturn(CompletableFuture.completedFuture(new SubmissionResult(true, "BAJAJ-RT", null)));
+
+        assertThat(batcher.submit(insurerId, port, endorsementId, data(endorsementId)))
+                .succeedsWithin(Duration.ofSeconds(2))
+                .isEqualTo(new SubmissionResult(true, "BAJAJ-RT", null));
+        assertThat(meterRegistry.counter("endorsement.insurer.microbatch.fallback",
+                "insurerId", insurerId.toString(), "reason", "submit_failed").count()).isEqualTo(1.0);
+        UUID batchId = recordedBatch().getId();
+        verify(batchRepository).transition(batchId, BatchStatus.ACTIVE, BatchStatus.FAILED, null, 0);
+    }
+
+    @Test
+    @DisplayName("fails a submission the completed batch has no result for")
+    void submit_MissingFromResults_Fails() {
+        batcher(20, 50, 10000, 5000);
+        UUID endorsementId = UUID.randomUUID();
+        when(port.submitBatch(any(), any())).thenReturn("BATCH-1");
+        when(port.checkBatchStatus("BATCH-1")).thenReturn(new BatchStatusResult("COMPLETED", List.of()));
+
+        assertThat(batcher.submit(insurerId, port, endorsementId, data(endorsementId)))
+                .failsWithin(Duration.ofSeconds(2))
+                .withThrowableThat().havingCause().isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("times out a slow batch as an unknown outcome, then sends real-time while latency is above the SLO")
+    void submit_SlowBatch_TimesOutAndFallsBackOnSlo() {
+        batcher(10, 50, 50, 100);
+        when(port.submitBatch(any(), any())).thenReturn("BATCH-1");
+        when(port.checkBatchStatus("BATCH-1")).thenReturn(new BatchStatusResult("PROCESSING", List.of()));
+        UUID slow = UUID.randomUUID();
+
+        assertThat(batcher.submit(insurerId, port, slow, data(slow)))
+                .failsWithin(Duration.ofSeconds(2))
+                .withThrowableThat().havingCause().isInstanceOf(MicroBatchTimeoutException.class)
+                .isInstanceOf(InsurerOutcomeUnknownException.class);
+
+        // Left open for the batch poller to settle
+        EndorsementBatch recorded = recordedBatch();
+        assertThat(recorded.getStatus()).isEqualTo(BatchStatus.SUBMITTED);
+        assertThat(recorded.getNextPollAt()).isBeforeOrEqualTo(Instant.now());
+        verify(batchRepository).schedulePoll(recorded.getId(), recorded.getNextPollAt(), 0);
+        verify(batchRepository, never()).transition(any(), any(), any(), any(), anyInt());
+
+        UUID next = UUID.randomUUID();
+        when(port.submitRealTimeAsync(next, data(next)))
+                .thenReturn(CompletableFuture.completedFuture(new SubmissionResult(true, "BAJAJ-RT", null)));
+        // The first submission after the SLO breach is the recovery probe; the next goes real-time
+        batcher.submit(insurerId, port, UUID.randomUUID(), Map.of());
+        assertThat(batcher.submit(insurerId, port, next, data(next))).succeedsWithin(Duration.ofSeconds(1));
+
+        verify(port).submitRealTimeAsync(next, data(next));
+        assertThat(meterRegistry.counter("endorsement.insurer.microbatch.fallback",
+                "insurerId", insurerId.toString(), "reason", "slo").count()).isEqualTo(1.0);
+    }
+}
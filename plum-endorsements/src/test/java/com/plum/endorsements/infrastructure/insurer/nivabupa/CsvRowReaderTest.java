@@ -0,0 +1,64 @@
+package com.plum.endorsements.infrastructure.insurer.nivabupa;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("CsvRowReader")
+class CsvRowReaderTest {
+
+    private static List<List<String>> readAll(CsvRowReader reader) throws IOException {
+        List<List<String>> rows = new ArrayList<>();
+        while (reader.next()) {
+            List<String> row = new ArrayList<>();
+            for (int i = 0; i < reader.fieldCount(); i++) {
+                row.add(reader.field(i));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    @Test
+    @DisplayName("splits plain and quoted fields")
+    void next_PlainAndQuotedFields() throws IOException {
+        assertThat(readAll(new CsvRowReader("a,\"b\",,\"\"\n1,2,3,4")))
+                .containsExactly(List.of("a", "b", "", ""), List.of("1", "2", "3", "4"));
+    }
+
+    @Test
+    @DisplayName("keeps commas, doubled quotes and line breaks inside quoted fields")
+    void next_QuotedSpecialCharacters() throws IOException {
+        assertThat(readAll(new CsvRowReader("\"x, y\",\"say \"\"hi\"\"\",\"two\r\nlines\"")))
+                .containsExactly(List.of("x, y", "say \"hi\"", "two\r\nlines"));
+    }
+
+    @Test
+    @DisplayName("accepts CRLF row endings, skips blank lines and a trailing newline")
+    void next_CrlfAndBlankLines() throws IOException {
+        assertThat(readAll(new CsvRowReader("h1,h2\r\n\r\na,b\r\n")))
+                .containsExactly(List.of("h1", "h2"), List.of("a", "b"));
+    }
+
+    @Test
+    @DisplayName("reads rows that straddle its buffer when fed a few characters at a time")
+    void next_SmallReads_SameRows() throws IOException {
+        String text = "\"" + "v".repeat(20_000) + "\",\"a\"\"b\"\nlast,row";
+        Reader trickle = new StringReader(text) {
+            @Override
+            public int read(char[] cbuf, int off, int len) throws IOException {
+                return super.read(cbuf, off, Math.min(len, 3));
+            }
+        };
+
+        assertThat(readAll(new CsvRowReader(trickle))).isEqualTo(readAll(new CsvRowReader(text)));
+        assertThat(readAll(new CsvRowReader(text)).getFirst().get(1)).isEqualTo("a\"b");
+    }
+}
@@ -1,12 +1,19 @@
 package com.plum.endorsements.infrastructure.insurer.nivabupa;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.plum.endorsements.domain.port.InsurerPort;
+import com.plum.endorsements.infrastructure.insurer.http.InsurerHttpClient;
+import com.plum.endorsements.infrastructure.insurer.stub.StubInsurerServer;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -17,13 +24,29 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 @DisplayName("NivaBupaAdapter")
 class NivaBupaAdapterTest {
 
+    private static StubInsurerServer stub;
     private NivaBupaAdapter adapter;
 
+    @BeforeAll
+    static void startStub() throws IOException {
+        stub = new StubInsurerServer(new ObjectMapper(), Map.of("nivabupa",
+                new StubInsurerServer.StubProfile("NIVA", null, 0, 0, 0, 0, 0, 0)), 0, 0);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        stub.stop();
+    }
+
+    private static InsurerHttpClient httpClient() {
+        return new InsurerHttpClient(new ObjectMapper(), stub.baseUri(), Duration.ofSeconds(2), Duration.ofSeconds(5));
+    }
+
     @BeforeEach
     void setUp() {
         MeterRegistry meterRegistry = new SimpleMeterRegistry();
         NivaBupaCsvMapper csvMapper = new NivaBupaCsvMapper();
-        adapter = new NivaBupaAdapter(meterRegistry, csvMapper);
+        adapter = new NivaBupaAdapter(meterRegistry, csvMapper, httpClient());
     }
 
     @Test
@@ -58,6 +81,29 @@ class NivaBupaAdapterTest {
         assertThat(result.status()).isEqualTo("COMPLETED");
     }
 
+    @Test
+    @DisplayName("a submitted batch completes with a confirmation for each endorsement in the CSV")
+    void submitBatchAsync_ThenStatus_ReturnsResultPerEndorsement() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        List<Map<String, Object>> endorsements = List.of(
+                Map.of("endorsementId", first.toString(), "type", "ADDITION"),
+                Map.of("endorsementId", second.toString(), "type", "DELETION"));
+
+        InsurerPort.BatchStatusResult result = adapter.submitBatchAsync(UUID.randomUUID(), endorsements)
+                .thenCompose(adapter::checkBatchStatusAsync)
+                .toCompletableFuture().join();
+
+        assertThat(result.status()).isEqualTo("COMPLETED");
+        assertThat(result.results())
+                .extracting(InsurerPort.EndorsementResult::endorsementId)
+                .containsExactly(first, second);
+        assertThat(result.results()).allSatisfy(r -> {
+            assertThat(r.confirmed()).isTrue();
+            assertThat(r.insurerReference()).startsWith("NIVA-");
+        });
+    }
+
     @Test
     @DisplayName("capabilities report batch only")
     void getCapabilities_BatchOnly() {
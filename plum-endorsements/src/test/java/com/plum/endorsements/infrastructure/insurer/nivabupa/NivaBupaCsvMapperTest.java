@@ -4,6 +4,11 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -60,7 +65,7 @@ class NivaBupaCsvMapperTest {
         String[] lines = csv.split("\n");
 
         assertThat(lines).hasSize(3); // header + 2 rows
-        assertThat(lines[0]).isEqualTo("PolicyNo,MemberID,MemberName,DateOfBirth,Gender,Relationship,EndorsementType,EffectiveDate,SumInsured");
+        assertThat(lines[0]).isEqualTo("PolicyNo,MemberID,MemberName,DateOfBirth,Gender,Relationship,EndorsementType,EffectiveDate,SumInsured,ClientRef");
         assertThat(lines[1]).contains("\"A\"");
         assertThat(lines[2]).contains("\"D\"");
     }
@@ -114,4 +119,51 @@ class NivaBupaCsvMapperTest {
         assertThat(parsed.get("employee_name")).isEqualTo("Test User");
         assertThat(parsed.get("type")).isEqualTo("DELETION");
     }
+
+    @Test
+    @DisplayName("values containing commas and quotes survive a roundtrip")
+    void roundtrip_QuotedCommasAndQuotes() {
+        Map<String, Object> original = Map.of(
+                "policy_id", "POL-1",
+                "employee_id", "EMP-1",
+                "employee_name", "D'Souza, Anil \"Andy\"",
+                "type", "ADDITION",
+                "premium_amount", 50000
+        );
+
+        String csv = mapper.toCsvRow(original);
+        Map<String, Object> parsed = mapper.fromCsvRow(csv);
+
+        assertThat(csv).contains("\"D'Souza, Anil \"\"Andy\"\"\"");
+        assertThat(parsed.get("employee_name")).isEqualTo("D'Souza, Anil \"Andy\"");
+        assertThat(parsed.get("type")).isEqualTo("ADDITION");
+        assertThat(parsed.get("premium_amount")).isEqualTo("50000");
+    }
+
+    @Test
+    @DisplayName("writeBatch streams the same UTF-8 file toCsvBatch builds")
+    void writeBatch_MatchesToCsvBatch() throws IOException {
+        List<Map<String, Object>> endorsements = List.of(
+                Map.of("policy_id", "POL-1", "employee_name", "Zoë Ågren", "type", "ADDITION"),
+                Map.of("policy_id", "POL-2", "employee_name", "Ravi, K", "type", "DELETION"));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        mapper.writeBatch(endorsements, out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(mapper.toCsvBatch(endorsements));
+    }
+
+    @Test
+    @DisplayName("readBatch hands back each row of a batch file, skipping the header")
+    void readBatch_ReadsEveryRow() throws IOException {
+        List<Map<String, Object>> endorsements = List.of(
+                Map.of("policy_id", "POL-1", "employee_name", "Line\nBreak", "type", "ADDITION"),
+                Map.of("policy_id", "POL-2", "employee_name", "Ravi, K", "type", "DELETION"));
+        List<Map<String, Object>> rows = new ArrayList<>();
+
+        mapper.readBatch(new StringReader(mapper.toCsvBatch(endorsements)), rows::add);
+
+        assertThat(rows).extracting(row -> row.get("employee_name")).containsExactly("Line\nBreak", "Ravi, K");
+        assertThat(rows).extracting(row -> row.get("type")).containsExactly("ADDITION", "DELETION");
+    }
 }
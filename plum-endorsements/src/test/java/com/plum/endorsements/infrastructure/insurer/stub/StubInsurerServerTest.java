@@ -0,0 +1,198 @@
+package com.plum.endorsements.infrastructure.insurer.stub;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.plum.endorsements.infrastructure.insurer.callback.CallbackSignature;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("StubInsurerServer")
+class StubInsurerServerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient client = HttpClient.newHttpClient();
+    private StubInsurerServer server;
+
+    @AfterEach
+    void tearDown() {
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    private void start(StubInsurerServer.StubProfile profile, long batchProcessingMs) throws IOException {
+        server = new StubInsurerServer(objectMapper, Map.of("acme", profile), 0, batchProcessingMs);
+    }
+
+    private static StubInsurerServer.StubProfile profile(double errorRate, double rejectRate) {
+        return new StubInsurerServer.StubProfile("ACME", null, 0, 0, errorRate, 0, rejectRate, 0);
+    }
+
+    private HttpResponse<String> post(String path, String body) throws Exception {
+        return client.send(HttpRequest.newBuilder(server.baseUri().resolve(path))
+                .POST(HttpRequest.BodyPublishers.ofString(body)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        return client.send(HttpRequest.newBuilder(server.baseUri().resolve(path)).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    @DisplayName("accepts a real-time submission with a reference in the insurer's prefix")
+    void submitEndorsement_Accepted() throws Exception {
+        start(profile(0, 0), 0);
+
+        HttpResponse<String> response = post("acme/endorsements", "{}");
+
+        JsonNode body = objectMapper.readTree(response.body());
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(body.get("accepted").asBoolean()).isTrue();
+        assertThat(body.get("reference").asText()).matches("ACME-[0-9A-F]{8}");
+    }
+
+    @Test
+    @DisplayName("injects rejections and 503s at the configured rates")
+    void submitEndorsement_InjectsFailures() throws Exception {
+        start(profile(0, 1.0), 0);
+        JsonNode rejected = objectMapper.readTree(post("acme/endorsements", "{}").body());
+        assertThat(rejected.get("accepted").asBoolean()).isFalse();
+        assertThat(rejected.get("error").asText()).contains("Rejected");
+        server.stop();
+
+        start(profile(1.0, 0), 0);
+        assertThat(post("acme/endorsements", "{}").statusCode()).isEqualTo(503);
+    }
+
+    @Test
+    @DisplayName("reports a batch as PROCESSING until its processing time has passed")
+    void batchStatus_HeldBatch_Processing() throws Exception {
+        start(profile(0, 0), 60_000);
+
+        String batchRef = objectMapper.readTree(post("acme/batches", UUID.randomUUID().toString()).body())
+                .get("batchRef").asText();
+
+        assertThat(batchRef).startsWith("ACME-BATCH-");
+        assertThat(objectMapper.readTree(get("acme/batches/" + batchRef).body()).get("status").asText())
+                .isEqualTo("PROCESSING");
+    }
+
+    @Test
+    @DisplayName("completes a batch with one result per endorsement id in its body, whatever the format")
+    void batchStatus_Completed_ResultPerEndorsement() throws Exception {
+        start(profile(0, 0), 0);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+
+        String batchRef = objectMapper.readTree(post("acme/batches",
+                "\"PolicyNo\",\"ClientRef\"\n\"P1\",\"" + first + "\"\n\"P2\",\"" + second + "\"").body())
+                .get("batchRef").asText();
+        JsonNode status = objectMapper.readTree(get("acme/batches/" + batchRef).body());
+
+        assertThat(status.get("status").asText()).isEqualTo("COMPLETED");
+        assertThat(status.get("results")).hasSize(2);
+        assertThat(status.get("results").get(0).get("endorsementId").asText()).isEqualTo(first.toString());
+        assertThat(status.get("results").get(1).get("confirmed").asBoolean()).isTrue();
+    }
+
+    @Test
+    @DisplayName("pushes a completed batch to the callback endpoint, signed, and still answers polls for it")
+    void batchCompleted_PushedSignedCallback() throws Exception {
+        UUID insurerId = UUID.randomUUID();
+        UUID endorsementId = UUID.randomUUID();
+        CompletableFuture<HttpExchange> received = new CompletableFuture<>();
+        CompletableFuture<byte[]> receivedBody = new CompletableFuture<>();
+        HttpServer receiver = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        receiver.createContext("/", exchange -> {
+            receivedBody.complete(exchange.getRequestBody().readAllBytes());
+            exchange.sendResponseHeaders(202, -1);
+            exchange.close();
+            received.complete(exchange);
+        });
+        receiver.start();
+        try {
+            URI endpoint = URI.create("http://localhost:" + receiver.getAddress().getPort() + "/callbacks/");
+            server = new StubInsurerServer(objectMapper, Map.of("acme", profile(0, 0)), 0, 0,
+                    new StubCallbackPusher(objectMapper, id -> endpoint.resolve(id.toString()),
+                            Map.of("acme", insurerId), Map.of(insurerId, "acme-secret")));
+
+            String batchRef = objectMapper.readTree(post("acme/batches", endorsementId.toString()).body())
+                    .get("batchRef").asText();
+
+            HttpExchange exchange = received.get(10, TimeUnit.SECONDS);
+            byte[] body = receivedBody.get();
+            long timestamp = Long.parseLong(exchange.getRequestHeaders().getFirst(CallbackSignature.TIMESTAMP_HEADER));
+            assertThat(exchange.getRequestURI().getPath()).isEqualTo("/callbacks/" + insurerId);
+            assertThat(CallbackSignature.matches("acme-secret", timestamp, body,
+                    exchange.getRequestHeaders().getFirst(CallbackSignature.SIGNATURE_HEADER))).isTrue();
+            JsonNode callback = objectMapper.readTree(body);
+            assertThat(callback.get("batchReference").asText()).isEqualTo(batchRef);
+            assertThat(callback.get("status").asText()).isEqualTo("COMPLETED");
+            assertThat(callback.get("results").get(0).get("endorsementId").asText()).isEqualTo(endorsementId.toString());
+
+            // Pushed, yet a caller that polls still gets the results, every time
+            for (int poll = 0; poll < 2; poll++) {
+                JsonNode polled = objectMapper.readTree(get("acme/batches/" + batchRef).body());
+                assertThat(polled.get("status").asText()).isEqualTo("COMPLETED");
+                assertThat(polled.get("results").get(0).get("endorsementId").asText())
+                        .isEqualTo(endorsementId.toString());
+            }
+        } finally {
+            receiver.stop(0);
+        }
+    }
+
+    @Test
+    @DisplayName("answers callers that accept XML with a SOAP response")
+    void acceptsXml_SoapResponse() throws Exception {
+        start(profile(0, 0), 0);
+
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(server.baseUri().resolve("acme/endorsements"))
+                .header("Accept", "text/xml")
+                .POST(HttpRequest.BodyPublishers.ofString("<x/>")).build(), HttpResponse.BodyHandlers.ofString());
+
+        assertThat(response.headers().firstValue("Content-Type")).hasValueSatisfying(
+                type -> assertThat(type).startsWith("text/xml"));
+        assertThat(response.body())
+                .contains("xmlns:bag=\"http://bajajallianz.com/endorsement/ws\"")
+                .contains("<bag:SubmitEndorsementResponse>")
+                .contains("<bag:Status>ACCEPTED</bag:Status>")
+                .containsPattern("<bag:TransactionId>ACME-[0-9A-F]{8}</bag:TransactionId>");
+    }
+
+    @Test
+    @DisplayName("answers 404 for an insurer it does not simulate")
+    void unknownInsurer_NotFound() throws Exception {
+        start(profile(0, 0), 0);
+
+        assertThat(post("other/endorsements", "{}").statusCode()).isEqualTo(404);
+    }
+
+    @Test
+    @DisplayName("samples latency around the configured median")
+    void sampleLatency_FixedWhenP99EqualsMedian() {
+        StubInsurerServer.StubProfile fixed = new StubInsurerServer.StubProfile("X", null, 40, 40, 0, 0, 0, 0);
+        StubInsurerServer.StubProfile skewed = new StubInsurerServer.StubProfile("X", null, 40, 400, 0, 0, 0, 0);
+
+        assertThat(fixed.sampleLatencyMs()).isEqualTo(40);
+        assertThat(skewed.sampleLatencyMs()).isPositive();
+        assertThat(skewed.batchReferencePrefix()).isEqualTo("X-BATCH");
+    }
+}
@@ -0,0 +1,64 @@
+package com.plum.endorsements.infrastructure.intelligence;
+
+import com.plum.endorsements.domain.model.AnomalyFeatures;
+import com.plum.endorsements.domain.model.Endorsement;
+import com.plum.endorsements.domain.model.EndorsementType;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Builds the features the feature store would hold after recording
+ * {@code history}, so rule tests can be written in terms of past endorsements.
+ */
+final class AnomalyFeaturesFixture {
+
+    private AnomalyFeaturesFixture() {
+    }
+
+    static AnomalyFeatures featuresFor(Endorsement target, List<Endorsement> history) {
+        Instant now = Instant.now();
+        Instant last24h = now.minus(24, ChronoUnit.HOURS);
+        Instant last30d = now.minus(30, ChronoUnit.DAYS);
+
+        List<Endorsement> employer = history.stream()
+                .filter(e -> Objects.equals(e.getEmployerId(), target.getEmployerId()))
+                .toList();
+        List<Endorsement> employee = employer.stream()
+                .filter(e -> e.getEmployeeId() != null && e.getEmployeeId().equals(target.getEmployeeId()))
+                .toList();
+
+        long count = 0;
+        double mean = 0.0;
+        double m2 = 0.0;
+        for (Endorsement e : employer) {
+            if (e.getPremiumAmount() != null) {
+                double x = e.getPremiumAmount().doubleValue();
+                count++;
+                double delta = x - mean;
+                mean += delta / count;
+                m2 += delta * (x - mean);
+            }
+        }
+
+        return new AnomalyFeatures(
+                employer.stream().filter(e -> e.getCreatedAt().isAfter(last24h)).count(),
+                employer.stream().filter(e -> e.getCreatedAt().isAfter(last30d)).count(),
+                count,
+                mean,
+                count > 1 ? Math.sqrt(m2 / (count - 1)) : 0.0,
+                latest(employee.stream().filter(e -> !e.getId().equals(target.getId())).toList(), null),
+                latest(employee, EndorsementType.ADD),
+                latest(employee, EndorsementType.DELETE));
+    }
+
+    private static Instant latest(List<Endorsement> endorsements, EndorsementType type) {
+        return endorsements.stream()
+                .filter(e -> type == null || e.getType() == type)
+                .map(Endorsement::getCreatedAt)
+                .max(Instant::compareTo)
+                .orElse(null);
+    }
+}
@@ -0,0 +1,281 @@
+package com.plum.endorsements.infrastructure.intelligence;
+
+import com.plum.endorsements.domain.model.EAAccount;
+import com.plum.endorsements.domain.model.Endorsement;
+import com.plum.endorsements.domain.model.EndorsementStatus;
+import com.plum.endorsements.domain.model.EndorsementType;
+import com.plum.endorsements.domain.port.BatchOptimizerPort;
+import com.plum.endorsements.domain.port.InsurerPort;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("MultiEmployerBatchOptimizer")
+class MultiEmployerBatchOptimizerTest {
+
+    private static final UUID EMPLOYER_ID = UUID.randomUUID();
+    private static final UUID INSURER_ID = UUID.randomUUID();
+    private static final InsurerPort.InsurerCapabilities CAPABILITIES =
+            new InsurerPort.InsurerCapabilities(false, true, 10, 24, 0);
+
+    private SimpleMeterRegistry meterRegistry;
+    private MultiEmployerBatchOptimizer optimizer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        optimizer = new MultiEmployerBatchOptimizer(meterRegistry, 1_000_000);
+    }
+
+    private Endorsement buildEndorsement(EndorsementType type, BigDecimal premium) {
+        return buildEndorsement(EMPLOYER_ID, type, premium, 15);
+    }
+
+    private Endorsement buildEndorsement(UUID employerId, EndorsementType type, BigDecimal premium,
+                                         int daysUntilCoverage) {
+        return Endorsement.builder()
+                .id(UUID.randomUUID())
+                .employerId(employerId)
+                .employeeId(UUID.randomUUID())
+                .insurerId(INSURER_ID)
+                .policyId(UUID.randomUUID())
+                .type(type)
+                .status(EndorsementStatus.QUEUED_FOR_BATCH)
+                .coverageStartDate(LocalDate.now().plusDays(daysUntilCoverage))
+                .premiumAmount(premium)
+                .retryCount(0)
+                .createdAt(Instant.now())
+                .updatedAt(Instant.now())
+                .build();
+    }
+
+    private Map<UUID, EAAccount> account(BigDecimal balance) {
+        return Map.of(EMPLOYER_ID, buildAccount(EMPLOYER_ID, balance));
+    }
+
+    private EAAccount buildAccount(UUID employerId, BigDecimal balance) {
+        return EAAccount.builder()
+                .employerId(employerId)
+                .insurerId(INSURER_ID)
+                .balance(balance)
+                .reserved(BigDecimal.ZERO)
+                .updatedAt(Instant.now())
+                .build();
+    }
+
+    private static BigDecimal premiumFor(List<Endorsement> plan, UUID employerId) {
+        return plan.stream()
+                .filter(e -> e.getEmployerId().equals(employerId) && e.getType() != EndorsementType.DELETE)
+                .map(Endorsement::getPremiumAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    @Test
+    @DisplayName("optimizes deletions first before additions")
+    void optimizeBatch_DeletionsFirst() {
+        Endorsement add1 = buildEndorsement(EndorsementType.ADD, new BigDecimal("500.00"));
+        Endorsement add2 = buildEndorsement(EndorsementType.ADD, new BigDecimal("300.00"));
+        Endorsement del1 = buildEndorsement(EndorsementType.DELETE, new BigDecimal("200.00"));
+
+        List<Endorsement> queue = new ArrayList<>(List.of(add1, add2, del1));
+
+        BatchOptimizerPort.OptimizedBatchPlan plan =
+                optimizer.optimizeBatch(queue, account(new BigDecimal("1000.00")), CAPABILITIES);
+
+        // All endorsements fit, and the deletion leads the batch
+        assertThat(plan.endorsements()).hasSize(3);
+        assertThat(plan.endorsements().get(0)).isEqualTo(del1);
+    }
+
+    @Test
+    @DisplayName("respects balance constraints — excludes expensive additions")
+    void optimizeBatch_RespectsBalanceConstraint() {
+        Endorsement add1 = buildEndorsement(EndorsementType.ADD, new BigDecimal("800.00"));
+        Endorsement add2 = buildEndorsement(EndorsementType.ADD, new BigDecimal("500.00"));
+
+        List<Endorsement> queue = new ArrayList<>(List.of(add1, add2));
+
+        BatchOptimizerPort.OptimizedBatchPlan plan =
+                optimizer.optimizeBatch(queue, account(new BigDecimal("700.00")), CAPABILITIES);
+
+        // With 700 available, can only fit the 500 addition (not the 800)
+        assertThat(plan.endorsements()).containsExactly(add2);
+    }
+
+    @Test
+    @DisplayName("handles empty queue gracefully")
+    void optimizeBatch_EmptyQueue_ReturnsEmptyPlan() {
+        BatchOptimizerPort.OptimizedBatchPlan plan =
+                optimizer.optimizeBatch(List.of(), account(new BigDecimal("10000.00")), CAPABILITIES);
+
+        assertThat(plan.endorsements()).isEmpty();
+        assertThat(plan.strategy()).contains("0 of 0");
+    }
+
+    @Test
+    @DisplayName("respects max batch size constraint")
+    void optimizeBatch_RespectsMaxBatchSize() {
+        List<Endorsement> queue = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            queue.add(buildEndorsement(EndorsementType.ADD, new BigDecimal("100.00")));
+        }
+        InsurerPort.InsurerCapabilities capabilities =
+                new InsurerPort.InsurerCapabilities(false, true, 5, 24, 0);
+
+        BatchOptimizerPort.OptimizedBatchPlan plan =
+                optimizer.optimizeBatch(queue, account(new BigDecimal("100000.00")), capabilities);
+
+        assertThat(plan.endorsements()).hasSize(5);
+    }
+
+    @Test
+    @DisplayName("deletion frees up balance for subsequent additions")
+    void optimizeBatch_DeletionFreesBalance() {
+        Endorsement del = buildEndorsement(EndorsementType.DELETE, new BigDecimal("500.00"));
+        Endorsement add = buildEndorsement(EndorsementType.ADD, new BigDecimal("700.00"));
+
+        // Initial available: 400; after DELETE (+500): 900 >= 700 for the ADD
+        BatchOptimizerPort.OptimizedBatchPlan plan =
+                optimizer.optimizeBatch(List.of(add, del), account(new BigDecimal("400.00")), CAPABILITIES);
+
+        assertThat(plan.endorsements()).containsExactly(del, add);
+    }
+
+    @Test
+    @DisplayName("handles single endorsement in queue")
+    void shouldHandleSingleEndorsement() {
+        Endorsement single = buildEndorsement(EndorsementType.ADD, new BigDecimal("500.00"));
+
+        BatchOptimizerPort.OptimizedBatchPlan plan =
+                optimizer.optimizeBatch(List.of(single), account(new BigDecimal("1000.00")), CAPABILITIES);
+
+        assertThat(plan.endorsements()).containsExactly(single);
+        assertThat(plan.strategy()).contains("1 of 1");
+    }
+
+    @Test
+    @DisplayName("two cheaper items beat one expensive item that fills the balance")
+    void optimizeBatch_PicksBetterSubsetThanSingleExpensiveItem() {
+        Endorsement expensive = buildEndorsement(EMPLOYER_ID, EndorsementType.ADD, new BigDecimal("900.00"), 2);
+        Endorsement cheap1 = buildEndorsement(EMPLOYER_ID, EndorsementType.ADD, new BigDecimal("500.00"), 3);
+        Endorsement cheap2 = buildEndorsement(EMPLOYER_ID, EndorsementType.ADD, new BigDecimal("400.00"), 4);
+
+        // 950 fits 500 + 400 but not 900 + anything
+        BatchOptimizerPort.OptimizedBatchPlan plan = optimizer.optimizeBatch(
+                List.of(expensive, cheap1, cheap2), account(new BigDecimal("950.00")), CAPABILITIES);
+
+        assertThat(plan.endorsements()).containsExactlyInAnyOrder(cheap1, cheap2);
+        assertThat(plan.strategy()).contains("within");
+    }
+
+    @Test
+    @DisplayName("optimizes for deadlines by prioritizing near-term coverage start dates")
+    void shouldOptimizeForDeadlines() {
+        Endorsement urgent = buildEndorsement(EMPLOYER_ID, EndorsementType.ADD, new BigDecimal("600.00"), 3);
+        Endorsement nonUrgent = buildEndorsement(EMPLOYER_ID, EndorsementType.ADD, new BigDecimal("400.00"), 60);
+
+        // Only enough balance for one; the cheaper one is denser, the urgent one scores higher
+        BatchOptimizerPort.OptimizedBatchPlan plan = optimizer.optimizeBatch(
+                List.of(nonUrgent, urgent), account(new BigDecimal("650.00")), CAPABILITIES);
+
+        assertThat(plan.endorsements()).containsExactly(urgent);
+    }
+
+    @Test
+    @DisplayName("budgets every employer against its own EA account")
+    void optimizeBatch_BudgetsEachEmployerSeparately() {
+        UUID richEmployer = UUID.randomUUID();
+        UUID poorEmployer = UUID.randomUUID();
+        Endorsement richAdd = buildEndorsement(richEmployer, EndorsementType.ADD, new BigDecimal("900.00"), 10);
+        Endorsement poorAdd = buildEndorsement(poorEmployer, EndorsementType.ADD, new BigDecimal("900.00"), 10);
+        Endorsement poorSmallAdd = buildEndorsement(poorEmployer, EndorsementType.ADD, new BigDecimal("50.00"), 10);
+
+        BatchOptimizerPort.OptimizedBatchPlan plan = optimizer.optimizeBatch(
+                List.of(richAdd, poorAdd, poorSmallAdd),
+                Map.of(richEmployer, buildAccount(richEmployer, new BigDecimal("5000.00")),
+                        poorEmployer, buildAccount(poorEmployer, new BigDecimal("100.00"))),
+                CAPABILITIES);
+
+        assertThat(plan.endorsements()).containsExactlyInAnyOrder(richAdd, poorSmallAdd);
+        assertThat(plan.strategy()).contains("2 employer(s)");
+    }
+
+    @Test
+    @DisplayName("deletions credit only their own employer's balance")
+    void optimizeBatch_DeletionCreditsOwnEmployerOnly() {
+        UUID employerA = UUID.randomUUID();
+        UUID employerB = UUID.randomUUID();
+        Endorsement deleteA = buildEndorsement(employerA, EndorsementType.DELETE, new BigDecimal("1000.00"), 10);
+        Endorsement addB = buildEndorsement(employerB, EndorsementType.ADD, new BigDecimal("500.00"), 10);
+
+        BatchOptimizerPort.OptimizedBatchPlan plan = optimizer.optimizeBatch(
+                List.of(deleteA, addB),
+                Map.of(employerA, buildAccount(employerA, BigDecimal.ZERO),
+                        employerB, buildAccount(employerB, new BigDecimal("100.00"))),
+                CAPABILITIES);
+
+        assertThat(plan.endorsements()).containsExactly(deleteA);
+    }
+
+    @Test
+    @DisplayName("employers without an EA account are not balance-constrained")
+    void optimizeBatch_EmployerWithoutAccount_Unconstrained() {
+        UUID unknownEmployer = UUID.randomUUID();
+        Endorsement add = buildEndorsement(unknownEmployer, EndorsementType.ADD, new BigDecimal("99999.00"), 10);
+
+        BatchOptimizerPort.OptimizedBatchPlan plan = optimizer.optimizeBatch(List.of(add), Map.of(), CAPABILITIES);
+
+        assertThat(plan.endorsements()).containsExactly(add);
+    }
+
+    @Test
+    @DisplayName("stays within every employer's balance on large queues, even with no search budget")
+    void optimizeBatch_LargeQueue_FeasibleWithinBudget() {
+        Random random = new Random(42);
+        List<UUID> employers = new ArrayList<>();
+        Map<UUID, EAAccount> accounts = new HashMap<>();
+        for (int k = 0; k < 20; k++) {
+            UUID employerId = UUID.randomUUID();
+            employers.add(employerId);
+            accounts.put(employerId, buildAccount(employerId, BigDecimal.valueOf(5_000 + random.nextInt(20_000))));
+        }
+        List<Endorsement> queue = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            EndorsementType type = random.nextInt(10) == 0 ? EndorsementType.DELETE : EndorsementType.ADD;
+            queue.add(buildEndorsement(employers.get(random.nextInt(employers.size())), type,
+                    BigDecimal.valueOf(100 + random.nextInt(5_000)), random.nextInt(45)));
+        }
+        InsurerPort.InsurerCapabilities capabilities =
+                new InsurerPort.InsurerCapabilities(false, true, 500, 24, 0);
+
+        for (MultiEmployerBatchOptimizer candidate : List.of(optimizer,
+                new MultiEmployerBatchOptimizer(meterRegistry, 0))) {
+            List<Endorsement> plan = candidate.optimizeBatch(queue, accounts, capabilities).endorsements();
+
+            assertThat(plan).hasSizeLessThanOrEqualTo(500).doesNotHaveDuplicates();
+            for (UUID employerId : employers) {
+                BigDecimal credits = plan.stream()
+                        .filter(e -> e.getEmployerId().equals(employerId) && e.getType() == EndorsementType.DELETE)
+                        .map(Endorsement::getPremiumAmount)
+                        .reduce(BigDecimal.ZERO, BigDecimal::add);
+                assertThat(premiumFor(plan, employerId))
+                        .isLessThanOrEqualTo(accounts.get(employerId).availableBalance().add(credits));
+            }
+        }
+        assertThat(meterRegistry.get("endorsement.batch.optimization.quality").summary().max())
+                .isBetween(0.0, 1.0);
+    }
+}
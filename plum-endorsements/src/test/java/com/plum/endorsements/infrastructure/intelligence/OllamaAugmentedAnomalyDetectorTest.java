@@ -23,6 +23,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
+import static com.plum.endorsements.infrastructure.intelligence.AnomalyFeaturesFixture.featuresFor;
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
@@ -93,7 +94,7 @@ class OllamaAugmentedAnomalyDetectorTest {
                 .updatedAt(Instant.now())
                 .build();
 
-        AnomalyDetectionPort.AnomalyResult result = detector.analyzeEndorsement(target, new ArrayList<>());
+        AnomalyDetectionPort.AnomalyResult result = detector.analyzeEndorsement(target, featuresFor(target, new ArrayList<>()));
 
         assertThat(result.score()).isEqualTo(0.0);
         // Verify chatClient was never used
@@ -121,7 +122,7 @@ class OllamaAugmentedAnomalyDetectorTest {
         when(callResponseSpec.content()).thenReturn(
                 "This employee has been added and removed within 30 days, which is a common fraud pattern. Investigate the employer's HR records.");
 
-        AnomalyDetectionPort.AnomalyResult result = detector.analyzeEndorsement(target, history);
+        AnomalyDetectionPort.AnomalyResult result = detector.analyzeEndorsement(target, featuresFor(target, history));
 
         assertThat(result.score()).isGreaterThanOrEqualTo(0.85);
         assertThat(result.anomalyType()).isEqualTo("ADD_DELETE_CYCLING");
@@ -146,12 +147,12 @@ class OllamaAugmentedAnomalyDetectorTest {
         // Without Spring AOP, the @CircuitBreaker annotation is not active,
         // so the exception propagates. Verify the exception is from LLM, not from scoring.
         // The scoring itself succeeds — the failure is only in enrichment.
-        assertThatThrownBy(() -> detector.analyzeEndorsement(target, history))
+        assertThatThrownBy(() -> detector.analyzeEndorsement(target, featuresFor(target, history)))
                 .isInstanceOf(RuntimeException.class)
                 .hasMessageContaining("Ollama connection refused");
 
         // Verify the rule-based scorer itself works independently
-        RuleBasedAnomalyScorer.ScoringResult scoringResult = scorer.score(target, history);
+        RuleBasedAnomalyScorer.ScoringResult scoringResult = scorer.score(target, featuresFor(target, history));
         assertThat(scoringResult.score()).isGreaterThanOrEqualTo(0.85);
         assertThat(scoringResult.anomalyType()).isEqualTo("ADD_DELETE_CYCLING");
         assertThat(scoringResult.ruleExplanation()).contains("Add/delete cycling detected");
@@ -175,7 +176,7 @@ class OllamaAugmentedAnomalyDetectorTest {
                 .updatedAt(Instant.now())
                 .build();
 
-        AnomalyDetectionPort.AnomalyResult result = detector.analyzeEndorsement(target, new ArrayList<>());
+        AnomalyDetectionPort.AnomalyResult result = detector.analyzeEndorsement(target, featuresFor(target, new ArrayList<>()));
 
         assertThat(result).isNotNull();
         assertThat(result.score()).isEqualTo(0.0);
@@ -201,7 +202,7 @@ class OllamaAugmentedAnomalyDetectorTest {
         when(callResponseSpec.content()).thenReturn(
                 "Abnormal spike in endorsement volume detected. This employer submitted 50 endorsements in 24h vs their daily average. Review for potential bulk fraud or data migration activity.");
 
-        AnomalyDetectionPort.AnomalyResult result = detector.analyzeEndorsement(target, history);
+        AnomalyDetectionPort.AnomalyResult result = detector.analyzeEndorsement(target, featuresFor(target, history));
 
         assertThat(result.score()).isGreaterThan(0.5);
         assertThat(result.anomalyType()).isEqualTo("VOLUME_SPIKE");
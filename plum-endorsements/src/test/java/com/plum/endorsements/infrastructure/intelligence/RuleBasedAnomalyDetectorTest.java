@@ -16,6 +16,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
+import static com.plum.endorsements.infrastructure.intelligence.AnomalyFeaturesFixture.featuresFor;
 import static org.assertj.core.api.Assertions.*;
 
 @DisplayName("RuleBasedAnomalyDetector")
@@ -62,7 +63,7 @@ class RuleBasedAnomalyDetectorTest {
                     new BigDecimal("1000.00"), Instant.now().minus(i, ChronoUnit.HOURS)));
         }
 
-        AnomalyDetectionPort.AnomalyResult result = detector.analyzeEndorsement(target, history);
+        AnomalyDetectionPort.AnomalyResult result = detector.analyzeEndorsement(target, featuresFor(target, history));
 
         // With 50 endorsements in month and ~50 in 24h, dailyAvg = 50/30 = ~1.67
         // recentCount (~50) > dailyAvg*5 (~8.3) => flagged
@@ -83,7 +84,7 @@ class RuleBasedAnomalyDetectorTest {
         history.add(buildEndorsement(EndorsementType.DELETE,
                 new BigDecimal("1000.00"), Instant.now().minus(5, ChronoUnit.DAYS)));
 
-        AnomalyDetectionPort.AnomalyResult result = detector.analyzeEndorsement(target, history);
+        AnomalyDetectionPort.AnomalyResult result = detector.analyzeEndorsement(target, featuresFor(target, history));
 
         assertThat(result.score()).isGreaterThanOrEqualTo(0.85);
         assertThat(result.anomalyType()).isEqualTo("ADD_DELETE_CYCLING");
@@ -111,7 +112,7 @@ class RuleBasedAnomalyDetectorTest {
 
         List<Endorsement> history = new ArrayList<>();
 
-        AnomalyDetectionPort.AnomalyResult result = detector.analyzeEndorsement(target, history);
+        AnomalyDetectionPort.AnomalyResult result = detector.analyzeEndorsement(target, featuresFor(target, history));
 
         assertThat(result.score()).isGreaterThanOrEqualTo(0.7);
         assertThat(result.anomalyType()).isEqualTo("SUSPICIOUS_TIMING");
@@ -142,7 +143,7 @@ class RuleBasedAnomalyDetectorTest {
             history.add(h);
         }
 
-        AnomalyDetectionPort.AnomalyResult result = detector.analyzeEndorsement(target, history);
+        AnomalyDetectionPort.AnomalyResult result = detector.analyzeEndorsement(target, featuresFor(target, history));
 
         // 50000 is far from mean of ~999, should be > 3 stddevs with variance present
         assertThat(result.score()).isGreaterThan(0.0);
@@ -171,7 +172,7 @@ class RuleBasedAnomalyDetectorTest {
         // Small history, no cycling, no spikes
         List<Endorsement> history = new ArrayList<>();
 
-        AnomalyDetectionPort.AnomalyResult result = detector.analyzeEndorsement(target, history);
+        AnomalyDetectionPort.AnomalyResult result = detector.analyzeEndorsement(target, featuresFor(target, history));
 
         assertThat(result.score()).isLessThan(0.5);
     }
@@ -202,7 +203,7 @@ class RuleBasedAnomalyDetectorTest {
                         Instant.now().minus(20, ChronoUnit.DAYS))
         );
 
-        AnomalyDetectionPort.AnomalyResult result = detector.analyzeEndorsement(target, history);
+        AnomalyDetectionPort.AnomalyResult result = detector.analyzeEndorsement(target, featuresFor(target, history));
 
         // Should not flag unusual premium due to insufficient data
         if (result.anomalyType().equals("UNUSUAL_PREMIUM")) {
@@ -238,7 +239,7 @@ class RuleBasedAnomalyDetectorTest {
         history.add(buildEndorsement(EndorsementType.DELETE,
                 new BigDecimal("1000.00"), Instant.now().minus(3, ChronoUnit.DAYS)));
 
-        AnomalyDetectionPort.AnomalyResult result = detector.analyzeEndorsement(target, history);
+        AnomalyDetectionPort.AnomalyResult result = detector.analyzeEndorsement(target, featuresFor(target, history));
 
         // Should return the highest scoring anomaly type
         assertThat(result.score()).isGreaterThan(0.0);
@@ -269,7 +270,7 @@ class RuleBasedAnomalyDetectorTest {
         // Minimal history, no spikes, no cycling
         List<Endorsement> history = new ArrayList<>();
 
-        AnomalyDetectionPort.AnomalyResult result = detector.analyzeEndorsement(target, history);
+        AnomalyDetectionPort.AnomalyResult result = detector.analyzeEndorsement(target, featuresFor(target, history));
 
         // All rules should return 0.0 score
         assertThat(result.score()).isEqualTo(0.0);
@@ -299,7 +300,7 @@ class RuleBasedAnomalyDetectorTest {
         List<Endorsement> history = new ArrayList<>();
 
         // Should not throw any NPE or other exceptions
-        AnomalyDetectionPort.AnomalyResult result = detector.analyzeEndorsement(target, history);
+        AnomalyDetectionPort.AnomalyResult result = detector.analyzeEndorsement(target, featuresFor(target, history));
 
         assertThat(result).isNotNull();
         assertThat(result.anomalyType()).isNotNull();
@@ -1,5 +1,6 @@
 package com.plum.endorsements.infrastructure.intelligence;
 
+import com.plum.endorsements.domain.model.AnomalyFeatures;
 import com.plum.endorsements.domain.model.Endorsement;
 import com.plum.endorsements.domain.model.EndorsementStatus;
 import com.plum.endorsements.domain.model.EndorsementType;
@@ -15,6 +16,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
+import static com.plum.endorsements.infrastructure.intelligence.AnomalyFeaturesFixture.featuresFor;
 import static org.assertj.core.api.Assertions.*;
 
 @DisplayName("RuleBasedAnomalyScorer")
@@ -60,7 +62,7 @@ class RuleBasedAnomalyScorerTest {
                     new BigDecimal("1000.00"), Instant.now().minus(i, ChronoUnit.HOURS)));
         }
 
-        RuleBasedAnomalyScorer.ScoringResult result = scorer.score(target, history);
+        RuleBasedAnomalyScorer.ScoringResult result = scorer.score(target, featuresFor(target, history));
 
         assertThat(result.score()).isGreaterThan(0.5);
         assertThat(result.anomalyType()).isEqualTo("VOLUME_SPIKE");
@@ -78,7 +80,7 @@ class RuleBasedAnomalyScorerTest {
         history.add(buildEndorsement(EndorsementType.DELETE,
                 new BigDecimal("1000.00"), Instant.now().minus(5, ChronoUnit.DAYS)));
 
-        RuleBasedAnomalyScorer.ScoringResult result = scorer.score(target, history);
+        RuleBasedAnomalyScorer.ScoringResult result = scorer.score(target, featuresFor(target, history));
 
         assertThat(result.score()).isGreaterThanOrEqualTo(0.85);
         assertThat(result.anomalyType()).isEqualTo("ADD_DELETE_CYCLING");
@@ -102,7 +104,7 @@ class RuleBasedAnomalyScorerTest {
                 .updatedAt(Instant.now())
                 .build();
 
-        RuleBasedAnomalyScorer.ScoringResult result = scorer.score(target, new ArrayList<>());
+        RuleBasedAnomalyScorer.ScoringResult result = scorer.score(target, featuresFor(target, new ArrayList<>()));
 
         assertThat(result.score()).isGreaterThanOrEqualTo(0.7);
         assertThat(result.anomalyType()).isEqualTo("SUSPICIOUS_TIMING");
@@ -129,7 +131,7 @@ class RuleBasedAnomalyScorerTest {
             history.add(h);
         }
 
-        RuleBasedAnomalyScorer.ScoringResult result = scorer.score(target, history);
+        RuleBasedAnomalyScorer.ScoringResult result = scorer.score(target, featuresFor(target, history));
 
         assertThat(result.score()).isGreaterThan(0.0);
         assertThat(result.anomalyType()).isEqualTo("UNUSUAL_PREMIUM");
@@ -153,7 +155,7 @@ class RuleBasedAnomalyScorerTest {
                 .updatedAt(Instant.now())
                 .build();
 
-        RuleBasedAnomalyScorer.ScoringResult result = scorer.score(target, new ArrayList<>());
+        RuleBasedAnomalyScorer.ScoringResult result = scorer.score(target, featuresFor(target, new ArrayList<>()));
 
         assertThat(result.score()).isEqualTo(0.0);
     }
@@ -176,7 +178,7 @@ class RuleBasedAnomalyScorerTest {
                 .updatedAt(Instant.now())
                 .build();
 
-        RuleBasedAnomalyScorer.ScoringResult result = scorer.score(target, new ArrayList<>());
+        RuleBasedAnomalyScorer.ScoringResult result = scorer.score(target, featuresFor(target, new ArrayList<>()));
 
         assertThat(result).isNotNull();
         assertThat(result.score()).isEqualTo(0.0);
@@ -201,7 +203,7 @@ class RuleBasedAnomalyScorerTest {
                 .updatedAt(Instant.now())
                 .build();
 
-        RuleBasedAnomalyScorer.ScoringResult result = scorer.score(target, new ArrayList<>());
+        RuleBasedAnomalyScorer.ScoringResult result = scorer.score(target, featuresFor(target, new ArrayList<>()));
 
         assertThat(result).isNotNull();
         assertThat(result.score()).isGreaterThanOrEqualTo(0.0);
@@ -233,7 +235,7 @@ class RuleBasedAnomalyScorerTest {
         history.add(buildEndorsement(EndorsementType.DELETE,
                 new BigDecimal("1000.00"), Instant.now().minus(3, ChronoUnit.DAYS)));
 
-        RuleBasedAnomalyScorer.ScoringResult result = scorer.score(target, history);
+        RuleBasedAnomalyScorer.ScoringResult result = scorer.score(target, featuresFor(target, history));
 
         // ADD_DELETE_CYCLING (0.85) > SUSPICIOUS_TIMING (0.75)
         assertThat(result.score()).isGreaterThanOrEqualTo(0.85);
@@ -252,7 +254,7 @@ class RuleBasedAnomalyScorerTest {
                 new BigDecimal("1000.00"), Instant.now().minus(10, ChronoUnit.DAYS));
         historyEntry.setEmployeeId(UUID.randomUUID());
 
-        RuleBasedAnomalyScorer.ScoringResult result = scorer.score(target, List.of(historyEntry));
+        RuleBasedAnomalyScorer.ScoringResult result = scorer.score(target, featuresFor(target, List.of(historyEntry)));
 
         // Dormancy break should not fire because no history for the target employee
         assertThat(result.anomalyType()).isNotEqualTo("DORMANCY_BREAK");
@@ -279,7 +281,7 @@ class RuleBasedAnomalyScorerTest {
         Endorsement historyEntry = buildEndorsement(EndorsementType.ADD,
                 new BigDecimal("1000.00"), Instant.now().minus(30, ChronoUnit.DAYS));
 
-        RuleBasedAnomalyScorer.ScoringResult result = scorer.score(target, List.of(historyEntry));
+        RuleBasedAnomalyScorer.ScoringResult result = scorer.score(target, featuresFor(target, List.of(historyEntry)));
 
         // Recent activity means no dormancy break, and no other rules trigger
         assertThat(result.score()).isEqualTo(0.0);
@@ -306,7 +308,7 @@ class RuleBasedAnomalyScorerTest {
         Endorsement historyEntry = buildEndorsement(EndorsementType.ADD,
                 new BigDecimal("1000.00"), Instant.now().minus(91, ChronoUnit.DAYS));
 
-        RuleBasedAnomalyScorer.ScoringResult result = scorer.score(target, List.of(historyEntry));
+        RuleBasedAnomalyScorer.ScoringResult result = scorer.score(target, featuresFor(target, List.of(historyEntry)));
 
         assertThat(result.anomalyType()).isEqualTo("DORMANCY_BREAK");
         assertThat(result.score()).isGreaterThan(0.6);
@@ -333,7 +335,7 @@ class RuleBasedAnomalyScorerTest {
         Endorsement historyEntry = buildEndorsement(EndorsementType.ADD,
                 new BigDecimal("1000.00"), Instant.now().minus(365, ChronoUnit.DAYS));
 
-        RuleBasedAnomalyScorer.ScoringResult result = scorer.score(target, List.of(historyEntry));
+        RuleBasedAnomalyScorer.ScoringResult result = scorer.score(target, featuresFor(target, List.of(historyEntry)));
 
         assertThat(result.anomalyType()).isEqualTo("DORMANCY_BREAK");
         assertThat(result.score()).isLessThanOrEqualTo(0.85);
@@ -363,9 +365,54 @@ class RuleBasedAnomalyScorerTest {
         Endorsement historyEntry = buildEndorsement(EndorsementType.UPDATE,
                 new BigDecimal("1000.00"), Instant.now().minus(200, ChronoUnit.DAYS));
 
-        RuleBasedAnomalyScorer.ScoringResult result = scorer.score(target, List.of(historyEntry));
+        RuleBasedAnomalyScorer.ScoringResult result = scorer.score(target, featuresFor(target, List.of(historyEntry)));
 
         assertThat(result.anomalyType()).isEqualTo("DORMANCY_BREAK");
         assertThat(result.score()).isGreaterThan(0.0);
     }
+
+    // ── Feature-based scoring ──
+
+    @Test
+    @DisplayName("unusual premium is judged against the employer's running statistics")
+    void score_unusualPremium_usesRunningStatistics() {
+        Endorsement target = buildEndorsement(EndorsementType.UPDATE,
+                new BigDecimal("2000.00"), Instant.now());
+        target.setCoverageStartDate(LocalDate.now().plusDays(60));
+        AnomalyFeatures features = new AnomalyFeatures(1, 30, 10_000, 1000.0, 50.0, null, null, null);
+
+        RuleBasedAnomalyScorer.ScoringResult result = scorer.score(target, features);
+
+        assertThat(result.anomalyType()).isEqualTo("UNUSUAL_PREMIUM");
+        assertThat(result.score()).isEqualTo(0.7);
+    }
+
+    @Test
+    @DisplayName("dormancy break ignores the endorsement's own activity")
+    void checkDormancyBreak_onlyOwnActivity_returnsZero() {
+        Endorsement target = buildEndorsement(EndorsementType.UPDATE,
+                new BigDecimal("1000.00"), Instant.now());
+        target.setCoverageStartDate(LocalDate.now().plusDays(60));
+        AnomalyFeatures features = new AnomalyFeatures(1, 1, 1, 1000.0, 0.0, null, null, null);
+
+        RuleBasedAnomalyScorer.ScoringResult result = scorer.score(target, features);
+
+        assertThat(result.score()).isEqualTo(0.0);
+    }
+
+    @Test
+    @DisplayName("add/delete cycling ignores activity older than 30 days")
+    void checkAddDeleteCycling_staleDelete_returnsZero() {
+        Endorsement target = buildEndorsement(EndorsementType.UPDATE,
+                new BigDecimal("1000.00"), Instant.now());
+        target.setCoverageStartDate(LocalDate.now().plusDays(60));
+        AnomalyFeatures features = new AnomalyFeatures(2, 2, 2, 1000.0, 0.0,
+                Instant.now().minus(10, ChronoUnit.DAYS),
+                Instant.now().minus(10, ChronoUnit.DAYS),
+                Instant.now().minus(45, ChronoUnit.DAYS));
+
+        RuleBasedAnomalyScorer.ScoringResult result = scorer.score(target, features);
+
+        assertThat(result.score()).isEqualTo(0.0);
+    }
 }
@@ -3,6 +3,7 @@ package com.plum.endorsements.infrastructure.intelligence;
 import com.plum.endorsements.domain.model.Endorsement;
 import com.plum.endorsements.domain.model.EndorsementStatus;
 import com.plum.endorsements.domain.model.EndorsementType;
+import com.plum.endorsements.domain.model.EndorsementVolumeSeries;
 import com.plum.endorsements.domain.port.BalanceForecastPort;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -234,4 +235,22 @@ class StatisticalForecastEngineTest {
         assertThat(result.narrative()).contains("ADD endorsements");
         assertThat(result.narrative()).contains("avg premium");
     }
+
+    @Test
+    @DisplayName("daily volume series gives the same forecast as the raw history")
+    void generateForecast_FromDailySeries_MatchesRawHistory() {
+        List<Endorsement> history = new ArrayList<>();
+        for (int i = 1; i <= 45; i++) {
+            history.add(buildHistoryEndorsement(i, new BigDecimal("750.00")));
+            if (i % 3 == 0) {
+                history.add(buildHistoryEndorsement(i, null));
+            }
+        }
+
+        BalanceForecastPort.ForecastResult fromHistory = engine.generateForecast(employerId, insurerId, history);
+        BalanceForecastPort.ForecastResult fromSeries = engine.generateForecast(
+                EndorsementVolumeSeries.of(employerId, insurerId, history));
+
+        assertThat(fromSeries).isEqualTo(fromHistory);
+    }
 }
@@ -0,0 +1,126 @@
+package com.plum.endorsements.infrastructure.messaging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.plum.endorsements.domain.model.EndorsementEvent;
+import com.plum.endorsements.domain.model.EndorsementType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OutboxEventPublisher")
+class OutboxEventPublisherTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private WebSocketEventBroadcaster webSocketBroadcaster;
+
+    private OutboxEventPublisher publisher;
+
+    private UUID employerId;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.findAndRegisterModules();
+        publisher = new OutboxEventPublisher(jdbcTemplate, objectMapper, new SimpleMeterRegistry(), webSocketBroadcaster);
+        employerId = UUID.randomUUID();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clear();
+        }
+    }
+
+    private EndorsementEvent created() {
+        return new EndorsementEvent.Created(UUID.randomUUID(), Instant.now(), employerId,
+                UUID.randomUUID(), EndorsementType.ADD);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object> captureBatch() {
+        ArgumentCaptor<List<Object>> batch = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), batch.capture(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+        return batch.getValue();
+    }
+
+    @Test
+    @DisplayName("writes and broadcasts immediately outside a transaction")
+    void publish_NoTransaction_WritesImmediately() {
+        EndorsementEvent event = created();
+
+        publisher.publish(event);
+
+        assertThat(captureBatch()).hasSize(1);
+        verify(webSocketBroadcaster).broadcast(event);
+    }
+
+    @Test
+    @DisplayName("publishAll writes every event in one batch outside a transaction")
+    void publishAll_NoTransaction_WritesOneBatch() {
+        publisher.publishAll(List.of(created(), created(), created()));
+
+        assertThat(captureBatch()).hasSize(3);
+        verify(webSocketBroadcaster, times(3)).broadcast(any());
+    }
+
+    @Test
+    @DisplayName("buffers events until commit and writes them in one batch")
+    void publish_InTransaction_WritesOneBatchBeforeCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        publisher.publish(created());
+        publisher.publish(created());
+        verifyNoInteractions(jdbcTemplate, webSocketBroadcaster);
+
+        TransactionSynchronizationUtils.triggerBeforeCommit(false);
+        assertThat(captureBatch()).hasSize(2);
+        verifyNoInteractions(webSocketBroadcaster);
+
+        TransactionSynchronizationUtils.invokeAfterCompletion(
+                TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_COMMITTED);
+        verify(webSocketBroadcaster, times(2)).broadcast(any());
+        assertThat(TransactionSynchronizationManager.getResource(publisher)).isNull();
+    }
+
+    @Test
+    @DisplayName("drops buffered events when the transaction rolls back")
+    void publish_RolledBack_WritesNothing() {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        publisher.publish(created());
+        TransactionSynchronizationUtils.invokeAfterCompletion(
+                TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        verifyNoInteractions(jdbcTemplate, webSocketBroadcaster);
+        assertThat(TransactionSynchronizationManager.getResource(publisher)).isNull();
+    }
+}
@@ -0,0 +1,126 @@
+package com.plum.endorsements.infrastructure.messaging;
+
+import com.plum.endorsements.infrastructure.messaging.OutboxRelay.OutboxRow;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OutboxRelay")
+class OutboxRelayTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    private MeterRegistry meterRegistry;
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        relay = new OutboxRelay(jdbcTemplate, kafkaTemplate, meterRegistry, 3, 5000, 1000);
+    }
+
+    private static OutboxRow row(long id, String key) {
+        return new OutboxRow(id, "endorsement-events", key, "{\"id\":" + id + "}", Instant.now().minusSeconds(2));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void mockOutbox(List<OutboxRow> rows) {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(3))).thenReturn((List) rows);
+    }
+
+    private static CompletableFuture<SendResult<String, String>> acked() {
+        return CompletableFuture.completedFuture(null);
+    }
+
+    private double relayed(String result) {
+        var counter = meterRegistry.find("endorsement.outbox.relay").tag("result", result).counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    @Test
+    @DisplayName("sends the whole batch before waiting and deletes it with one statement")
+    void relayBatch_AllAcknowledged_DeletesBatch() {
+        mockOutbox(List.of(row(1, "a"), row(2, "b"), row(3, "a")));
+        when(kafkaTemplate.send(anyString(), anyString(), anyString())).thenReturn(acked());
+
+        int relayed = relay.relayBatch();
+
+        assertThat(relayed).isEqualTo(3);
+        InOrder inOrder = inOrder(kafkaTemplate);
+        inOrder.verify(kafkaTemplate).send("endorsement-events", "a", "{\"id\":1}");
+        inOrder.verify(kafkaTemplate).send("endorsement-events", "b", "{\"id\":2}");
+        inOrder.verify(kafkaTemplate).send("endorsement-events", "a", "{\"id\":3}");
+        inOrder.verify(kafkaTemplate).flush();
+        verify(jdbcTemplate, times(1)).update(any(PreparedStatementCreator.class));
+        assertThat(relayed("success")).isEqualTo(3);
+        assertThat(meterRegistry.get("endorsement.outbox.lag.seconds").gauge().value()).isGreaterThan(1.0);
+    }
+
+    @Test
+    @DisplayName("keeps the failed event and everything after it for the next run")
+    void relayBatch_SendFails_DeletesOnlyDeliveredPrefix() {
+        mockOutbox(List.of(row(1, "a"), row(2, "b"), row(3, "a")));
+        when(kafkaTemplate.send(anyString(), anyString(), anyString()))
+                .thenReturn(acked())
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")))
+                .thenReturn(acked());
+
+        int relayed = relay.relayBatch();
+
+        assertThat(relayed).isEqualTo(1);
+        verify(jdbcTemplate, times(1)).update(any(PreparedStatementCreator.class));
+        assertThat(relayed("success")).isEqualTo(1);
+        assertThat(relayed("failure")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("stops draining when the outbox is empty")
+    void relay_EmptyOutbox_SendsNothing() {
+        mockOutbox(List.of());
+
+        relay.relay();
+
+        verifyNoInteractions(kafkaTemplate);
+        verify(jdbcTemplate, never()).update(any(PreparedStatementCreator.class));
+        assertThat(meterRegistry.get("endorsement.outbox.lag.seconds").gauge().value()).isZero();
+    }
+
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    @DisplayName("keeps draining while batches come back full")
+    void relay_FullBatches_DrainsUntilPartialBatch() {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(3)))
+                .thenReturn((List) List.of(row(1, "a"), row(2, "a"), row(3, "a")))
+                .thenReturn((List) List.of(row(4, "a")));
+        when(kafkaTemplate.send(anyString(), anyString(), anyString())).thenReturn(acked());
+
+        relay.relay();
+
+        verify(kafkaTemplate, times(4)).send(anyString(), anyString(), anyString());
+        verify(jdbcTemplate, times(2)).update(any(PreparedStatementCreator.class));
+    }
+}